@@ -107,6 +107,53 @@ public class BlobServerOptions {
                     .withDescription(
                             "The minimum size for messages to be offloaded to the BlobServer.");
 
+    /**
+     * Flag to let the blob caches of the task managers download permanent BLOBs from each other
+     * instead of all of them downloading from the blob server.
+     */
+    public static final ConfigOption<Boolean> PEER_DISTRIBUTION_ENABLED =
+            key("blob.peer-distribution.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Flag to let the blob caches of the task managers serve the permanent BLOBs, e.g. the job's jar files, which they downloaded to other blob caches. "
+                                    + "Once the blob server transfers a BLOB to too many blob caches concurrently, it redirects further downloads of that BLOB to the blob caches which already hold it. "
+                                    + "Downloaded BLOBs are verified against their content hash, independent of where they were downloaded from.");
+
+    /**
+     * The server port of the blob caches of the task managers which serve BLOBs to other blob
+     * caches. The port can be a port, a range of ports or a list of ranges and ports, like {@link
+     * #PORT}.
+     */
+    public static final ConfigOption<String> PEER_DISTRIBUTION_PORT =
+            key("blob.peer-distribution.port")
+                    .stringType()
+                    .defaultValue("0")
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The server port of the blob caches which serve BLOBs to other blob caches if %s is enabled. "
+                                                    + "Accepts a port, a range of ports or a list of ranges and ports.",
+                                            code(PEER_DISTRIBUTION_ENABLED.key()))
+                                    .build());
+
+    /**
+     * The maximum number of concurrent transfers of a BLOB by the blob server, and of all BLOBs by
+     * each blob cache, for the peer-to-peer distribution of BLOBs.
+     */
+    public static final ConfigOption<Integer> PEER_DISTRIBUTION_MAX_CONCURRENT_TRANSFERS =
+            key("blob.peer-distribution.max-concurrent-transfers")
+                    .intType()
+                    .defaultValue(8)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The maximum number of concurrent transfers of a BLOB by the blob server if %s is enabled. "
+                                                    + "Further downloads of the BLOB are redirected to the blob caches which already hold it. "
+                                                    + "This also limits the number of concurrent transfers each blob cache serves to other blob caches.",
+                                            code(PEER_DISTRIBUTION_ENABLED.key()))
+                                    .build());
+
     /** The socket timeout in milliseconds for the blob client. */
     public static final ConfigOption<Integer> SO_TIMEOUT =
             key("blob.client.socket.timeout")
@@ -22,6 +22,8 @@ import org.apache.flink.annotation.docs.Documentation;
 import org.apache.flink.configuration.description.Description;
 import org.apache.flink.configuration.description.TextElement;
 
+import java.time.Duration;
+
 /** A collection of all configuration options that relate to checkpoints and savepoints. */
 public class CheckpointingOptions {
 
@@ -140,6 +142,43 @@ public class CheckpointingOptions {
                                                     + " 'memory' and 'filesystem'.")
                                     .build());
 
+    /**
+     * How often the state of the changelog state backend is materialized, i.e. snapshotted by the
+     * delegated state backend, so that the state changelog can be truncated.
+     */
+    @Documentation.Section(value = Documentation.Sections.COMMON_STATE_BACKENDS)
+    @Documentation.ExcludeFromDocumentation("ChangelogBackend is under development")
+    public static final ConfigOption<Duration> PERIODIC_MATERIALIZATION_INTERVAL =
+            ConfigOptions.key("state.backend.changelog.periodic-materialize.interval")
+                    .durationType()
+                    .defaultValue(Duration.ofMinutes(10))
+                    .withDescription(
+                            "Defines the interval in which the changelog state backend materializes"
+                                    + " its state in the background, i.e. takes a snapshot of the"
+                                    + " delegated state backend and truncates the state changelog"
+                                    + " up to the snapshot. Checkpoints then refer to the"
+                                    + " materialized state and the state changes made after it,"
+                                    + " which bounds both the changelog size and the recovery"
+                                    + " time. Set to 0 to disable the periodic materialization.");
+
+    /**
+     * The minimum size of the state changes that are not materialized yet for a periodic
+     * materialization to take place.
+     */
+    @Documentation.Section(value = Documentation.Sections.COMMON_STATE_BACKENDS)
+    @Documentation.ExcludeFromDocumentation("ChangelogBackend is under development")
+    public static final ConfigOption<MemorySize> PERIODIC_MATERIALIZATION_SIZE_THRESHOLD =
+            ConfigOptions.key("state.backend.changelog.periodic-materialize.size-threshold")
+                    .memoryType()
+                    .defaultValue(MemorySize.ZERO)
+                    .withDescription(
+                            "The periodic materialization is skipped while the state changes"
+                                    + " that are not materialized yet, as uploaded by the last"
+                                    + " checkpoint, are smaller than this threshold. This avoids"
+                                    + " snapshotting the whole delegated state backend for a few"
+                                    + " changes. The materialization is always skipped if there"
+                                    + " were no changes since the last one.");
+
     /** The maximum number of completed checkpoints to retain. */
     @Documentation.Section(Documentation.Sections.COMMON_STATE_BACKENDS)
     public static final ConfigOption<Integer> MAX_RETAINED_CHECKPOINTS =
@@ -269,4 +308,62 @@ public class CheckpointingOptions {
                                             + "The actual write buffer size is determined to be the maximum of the value of this option and option '%s'.",
                                     FS_SMALL_FILE_THRESHOLD.key()))
                     .withDeprecatedKeys("state.backend.fs.write-buffer-size");
+
+    /**
+     * The size of the parts that the checkpoint streams that write to file systems upload their
+     * data in. Zero disables the upload in parts.
+     */
+    @Documentation.Section(Documentation.Sections.EXPERT_STATE_BACKENDS)
+    public static final ConfigOption<MemorySize> FS_UPLOAD_PART_SIZE =
+            ConfigOptions.key("state.storage.fs.upload.part-size")
+                    .memoryType()
+                    .defaultValue(MemorySize.ZERO)
+                    .withDescription(
+                            "If set to a positive size, the checkpoint streams that write to file systems "
+                                    + "split their data into part files of this size, which are uploaded "
+                                    + "concurrently while the stream is written. This reduces the time to "
+                                    + "upload large state to file systems with high latency but high "
+                                    + "aggregate throughput, such as object stores. Every part is buffered "
+                                    + "in memory until it is uploaded. Zero disables the upload in parts.");
+
+    /** The number of parts of a checkpoint stream that are uploaded concurrently. */
+    @Documentation.Section(Documentation.Sections.EXPERT_STATE_BACKENDS)
+    public static final ConfigOption<Integer> FS_UPLOAD_THREADS =
+            ConfigOptions.key("state.storage.fs.upload.threads")
+                    .intType()
+                    .defaultValue(4)
+                    .withDescription(
+                            String.format(
+                                    "The maximum number of parts of a checkpoint stream that are uploaded "
+                                            + "concurrently, if '%s' is set.",
+                                    FS_UPLOAD_PART_SIZE.key()));
+
+    /** The number of threads that write the in-flight data of unaligned checkpoints of a task. */
+    @Documentation.Section(Documentation.Sections.EXPERT_STATE_BACKENDS)
+    public static final ConfigOption<Integer> CHANNEL_STATE_WRITER_THREADS =
+            ConfigOptions.key("state.checkpoints.channel-state.writer-threads")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription(
+                            "The number of threads per task that write the in-flight data of "
+                                    + "unaligned checkpoints. The input and output channels of the "
+                                    + "task are distributed among the threads and every thread "
+                                    + "writes its channels to its own file, so that the in-flight "
+                                    + "data is persisted in parallel. More threads reduce the "
+                                    + "duration of unaligned checkpoints under backpressure at the "
+                                    + "cost of more files per checkpoint.");
+
+    /** The number of threads that write the key-groups of a snapshot of the heap state backend. */
+    @Documentation.Section(Documentation.Sections.EXPERT_STATE_BACKENDS)
+    public static final ConfigOption<Integer> HEAP_SNAPSHOT_WRITER_THREADS =
+            ConfigOptions.key("state.backend.hashmap.snapshot.writer-threads")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription(
+                            "The number of threads per task that write the key-groups of a "
+                                    + "checkpoint of the HashMapStateBackend. The key-groups are "
+                                    + "split into contiguous ranges and every thread writes its "
+                                    + "range to its own file. More threads reduce the duration of "
+                                    + "the asynchronous part of large checkpoints at the cost of "
+                                    + "more files per checkpoint.");
 }
@@ -144,6 +144,19 @@ public class CoreOptions {
                                     + "which may also result in the classloader being used by other jobs.\n"
                                     + "This check should only be disabled if such a leak prevents further jobs from running.");
 
+    @Documentation.Section(Documentation.Sections.EXPERT_CLASS_LOADING)
+    public static final ConfigOption<Boolean> SHARE_CLASSLOADER_ACROSS_JOBS =
+            ConfigOptions.key("classloader.share-across-jobs")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Lets the TaskManagers share the user classloader between jobs whose user jars have identical contents and which have identical classpaths. "
+                                    + "Subsequent jobs then skip creating the classloader and run on classes which were already loaded and compiled by the JIT, "
+                                    + "which shortens the startup of short-lived jobs on a session cluster. "
+                                    + "A few classloaders which no job uses are retained for later jobs.\n"
+                                    + "Static state of the user code is visible to all jobs sharing the classloader, "
+                                    + "so this should only be enabled if the user code does not rely on being loaded for each job anew.");
+
     /**
      * Plugin-specific option of {@link #ALWAYS_PARENT_FIRST_LOADER_PATTERNS}. Plugins use this
      * parent first list instead of the global version.
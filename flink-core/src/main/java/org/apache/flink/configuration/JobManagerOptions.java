@@ -257,6 +257,24 @@ public class JobManagerOptions {
                     .withDescription(
                             "The maximum number of prior execution attempts kept in history.");
 
+    /**
+     * Whether the operations on tasks which the JobMaster issues at the same time are sent as one
+     * RPC per TaskManager.
+     */
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Boolean> BATCH_TASK_RPCS =
+            key("jobmanager.execution.batch-task-rpcs")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Whether the JobMaster sends the deployments, cancellations and partition updates of tasks "
+                                    + "which it issues at the same time as one RPC per TaskManager instead of one RPC per task. "
+                                    + "This reduces the load on the JobMaster's RPC system when scheduling or restarting jobs with many tasks. "
+                                    + "The deployments of all tasks sent to a TaskManager at once have to fit into the maximum RPC message size ('akka.framesize').");
+
     /**
      * This option specifies the failover strategy, i.e. how the job computation recovers from task
      * failures.
@@ -361,13 +379,16 @@ public class JobManagerOptions {
                                     .list(
                                             text("'Ng': new generation scheduler"),
                                             text(
-                                                    "'Adaptive': adaptive scheduler; supports reactive mode"))
+                                                    "'Adaptive': adaptive scheduler; supports reactive mode"),
+                                            text(
+                                                    "'AdaptiveBatch': adaptive batch scheduler; decides the parallelism of the job vertices of batch jobs from the amount of data they consume"))
                                     .build());
 
     /** Type of scheduler implementation. */
     public enum SchedulerType {
         Ng,
-        Adaptive
+        Adaptive,
+        AdaptiveBatch
     }
 
     @Documentation.Section(Documentation.Sections.EXPERT_SCHEDULING)
@@ -383,6 +404,198 @@ public class JobManagerOptions {
                                             code(SchedulerExecutionMode.REACTIVE.name()))
                                     .build());
 
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Integer> ADAPTIVE_BATCH_SCHEDULER_MIN_PARALLELISM =
+            key("jobmanager.adaptive-batch-scheduler.min-parallelism")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription(
+                            "The lower bound of the parallelism the adaptive batch scheduler decides for a job vertex.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Integer> ADAPTIVE_BATCH_SCHEDULER_MAX_PARALLELISM =
+            key("jobmanager.adaptive-batch-scheduler.max-parallelism")
+                    .intType()
+                    .defaultValue(128)
+                    .withDescription(
+                            "The upper bound of the parallelism the adaptive batch scheduler decides for a job vertex. "
+                                    + "It is also used as the max parallelism of the job vertices without a configured max parallelism.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<MemorySize> ADAPTIVE_BATCH_SCHEDULER_DATA_VOLUME_PER_TASK =
+            key("jobmanager.adaptive-batch-scheduler.data-volume-per-task")
+                    .memoryType()
+                    .defaultValue(MemorySize.ofMebiBytes(1024))
+                    .withDescription(
+                            "The amount of input data each task should process on average. The adaptive batch scheduler "
+                                    + "decides the parallelism of a job vertex from the amount of data its producers produced "
+                                    + "and this value, bounded by the configured minimum and maximum parallelism.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Integer> ADAPTIVE_BATCH_SCHEDULER_DEFAULT_SOURCE_PARALLELISM =
+            key("jobmanager.adaptive-batch-scheduler.default-source-parallelism")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription(
+                            "The parallelism of the source vertices without a configured parallelism when the adaptive batch scheduler is used.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Boolean> ADAPTIVE_BATCH_SCHEDULER_SPECULATIVE_ENABLED =
+            key("jobmanager.adaptive-batch-scheduler.speculative.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Whether the adaptive batch scheduler starts a speculative execution of slow tasks on another TaskManager. "
+                                    + "The first of the executions of a task to finish is used, the other executions are cancelled.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Duration> ADAPTIVE_BATCH_SCHEDULER_SPECULATIVE_CHECK_INTERVAL =
+            key("jobmanager.adaptive-batch-scheduler.speculative.check-interval")
+                    .durationType()
+                    .defaultValue(Duration.ofSeconds(1))
+                    .withDescription(
+                            "The interval in which the adaptive batch scheduler checks for slow tasks when speculative execution is enabled.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Double> ADAPTIVE_BATCH_SCHEDULER_SPECULATIVE_BASELINE_RATIO =
+            key("jobmanager.adaptive-batch-scheduler.speculative.baseline-ratio")
+                    .doubleType()
+                    .defaultValue(0.75)
+                    .withDescription(
+                            "The ratio of the tasks of a job vertex which have to be finished before the slow tasks of the job vertex are detected. "
+                                    + "The execution times of the finished tasks form the baseline of the detection.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Double>
+            ADAPTIVE_BATCH_SCHEDULER_SPECULATIVE_BASELINE_MULTIPLIER =
+                    key("jobmanager.adaptive-batch-scheduler.speculative.baseline-multiplier")
+                            .doubleType()
+                            .defaultValue(1.5)
+                            .withDescription(
+                                    "A task is considered slow if it runs longer than the median execution time of the finished tasks of its job vertex, multiplied by this value.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Duration>
+            ADAPTIVE_BATCH_SCHEDULER_SPECULATIVE_BASELINE_LOWER_BOUND =
+                    key("jobmanager.adaptive-batch-scheduler.speculative.baseline-lower-bound")
+                            .durationType()
+                            .defaultValue(Duration.ofMinutes(1))
+                            .withDescription(
+                                    "The minimum time a task has to run before it is considered slow, so that short tasks are not speculatively executed.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Boolean> LOAD_BASED_SCALING_ENABLED =
+            key("jobmanager.adaptive-scheduler.load-based-scaling.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Whether the adaptive scheduler adapts the parallelism of the job vertices to their load. "
+                                    + "Bottleneck vertices are scaled up and idle vertices are scaled down within the available slots, "
+                                    + "based on the busy and back pressured time of their tasks and the pending records of their sources.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Duration> LOAD_BASED_SCALING_CHECK_INTERVAL =
+            key("jobmanager.adaptive-scheduler.load-based-scaling.check-interval")
+                    .durationType()
+                    .defaultValue(Duration.ofMinutes(1))
+                    .withDescription(
+                            "The interval at which the adaptive scheduler checks whether the job needs to be rescaled for its load.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Double> LOAD_BASED_SCALING_TARGET_UTILIZATION =
+            key("jobmanager.adaptive-scheduler.load-based-scaling.target-utilization")
+                    .doubleType()
+                    .defaultValue(0.7)
+                    .withDescription(
+                            "The ratio of time the tasks of a job vertex should be busy, within (0, 1]. "
+                                    + "The parallelism of a job vertex is chosen so that its tasks are busy for about this ratio of time.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Double> LOAD_BASED_SCALING_SCALE_UP_THRESHOLD =
+            key("jobmanager.adaptive-scheduler.load-based-scaling.scale-up-threshold")
+                    .doubleType()
+                    .defaultValue(0.9)
+                    .withDescription(
+                            "The ratio of time the tasks of a job vertex have to be busy for the vertex to be scaled up. "
+                                    + "It must not be lower than the target utilization, so that small fluctuations of the load do not cause a rescale.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Double> LOAD_BASED_SCALING_SCALE_DOWN_THRESHOLD =
+            key("jobmanager.adaptive-scheduler.load-based-scaling.scale-down-threshold")
+                    .doubleType()
+                    .defaultValue(0.5)
+                    .withDescription(
+                            "The ratio of time the tasks of a job vertex may at most be busy for the vertex to be scaled down. "
+                                    + "It must not be higher than the target utilization, so that small fluctuations of the load do not cause a rescale.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Duration> LOAD_BASED_SCALING_MIN_RESCALE_INTERVAL =
+            key("jobmanager.adaptive-scheduler.load-based-scaling.min-rescale-interval")
+                    .durationType()
+                    .defaultValue(Duration.ofMinutes(5))
+                    .withDescription(
+                            "The minimum time between two rescales of a job for its load, and between the start of the scheduling and the first rescale. "
+                                    + "Every rescale restarts the job, the interval gives the load time to settle after a restart.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<String> LOAD_BASED_SCALING_POLICY =
+            key("jobmanager.adaptive-scheduler.load-based-scaling.policy")
+                    .stringType()
+                    .defaultValue(
+                            "org.apache.flink.runtime.scheduler.adaptive.scalingpolicy.LoadBasedScalingPolicy")
+                    .withDescription(
+                            "The fully qualified class name of the policy which computes the parallelism of the job vertices from their load. "
+                                    + "The class has to implement org.apache.flink.runtime.scheduler.adaptive.scalingpolicy.ScalingPolicy "
+                                    + "and to provide a public constructor which accepts the Configuration.");
+
     @Documentation.Section({
         Documentation.Sections.EXPERT_SCHEDULING,
         Documentation.Sections.ALL_JOB_MANAGER
@@ -241,6 +241,26 @@ public class NettyShuffleEnvironmentOptions {
                                     // this raw value must be changed correspondingly
                                     "taskmanager.memory.framework.off-heap.batch-shuffle.size"));
 
+    /**
+     * Max size of the in-flight log which each subpartition of an approximate pipelined result
+     * partition keeps for replaying to a restarted consumer.
+     */
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+    public static final ConfigOption<MemorySize> APPROXIMATE_RECOVERY_MAX_IN_FLIGHT_LOG_SIZE =
+            key("taskmanager.network.approximate-recovery.max-in-flight-log-size")
+                    .memoryType()
+                    .defaultValue(MemorySize.ZERO)
+                    .withDescription(
+                            "Max size of the in-flight log kept by each subpartition of a job with"
+                                    + " approximate local recovery enabled. The log holds a copy"
+                                    + " of the data sent to the consumer since the last completed"
+                                    + " checkpoint and is replayed to the consumer once it is"
+                                    + " restarted from that checkpoint, so the restart loses no"
+                                    + " data. If the data sent since the last completed checkpoint"
+                                    + " exceeds this size, a restarted consumer resumes from the"
+                                    + " latest data like without the log. The log is kept on the"
+                                    + " heap. 0 disables the in-flight log.");
+
     /** Number of max buffers can be used for each output subparition. */
     @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
     public static final ConfigOption<Integer> NETWORK_MAX_BUFFERS_PER_CHANNEL =
@@ -324,6 +344,19 @@ public class NettyShuffleEnvironmentOptions {
                             "The number of retry attempts for network communication."
                                     + " Currently it's only used for establishing input/output channel connections");
 
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+    public static final ConfigOption<Integer> MAX_NUM_TCP_CONNECTIONS =
+            key("taskmanager.network.max-num-tcp-connections")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription(
+                            "The maximum number of tcp connections between taskmanagers for data"
+                                    + " communication. All partition requests to the same remote"
+                                    + " taskmanager are multiplexed over these connections, no"
+                                    + " matter which job or intermediate result they belong to."
+                                    + " A connection is closed once no input channel uses it"
+                                    + " anymore.");
+
     @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
     public static final ConfigOption<Integer> SEND_RECEIVE_BUFFER_SIZE =
             key("taskmanager.network.netty.sendReceiveBufferSize")
@@ -17,6 +17,8 @@
 
 package org.apache.flink.changelog.fs;
 
+import org.apache.flink.annotation.VisibleForTesting;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -75,6 +77,7 @@ class BatchingStateChangeUploader implements StateChangeUploader {
 
     private final long maxBytesInFlight;
     private final LongAdder inFlightBytesCounter = new LongAdder();
+    private final ChangelogStorageMetricGroup metricGroup;
 
     BatchingStateChangeUploader(
             long persistDelayMs,
@@ -82,7 +85,8 @@ class BatchingStateChangeUploader implements StateChangeUploader {
             RetryPolicy retryPolicy,
             StateChangeUploader delegate,
             int numUploadThreads,
-            long maxBytesInFlight) {
+            long maxBytesInFlight,
+            ChangelogStorageMetricGroup metricGroup) {
         this(
                 persistDelayMs,
                 sizeThresholdBytes,
@@ -90,7 +94,8 @@ class BatchingStateChangeUploader implements StateChangeUploader {
                 delegate,
                 SchedulerFactory.create(1, "ChangelogUploadScheduler", LOG),
                 new RetryingExecutor(numUploadThreads),
-                maxBytesInFlight);
+                maxBytesInFlight,
+                metricGroup);
     }
 
     BatchingStateChangeUploader(
@@ -100,7 +105,8 @@ class BatchingStateChangeUploader implements StateChangeUploader {
             StateChangeUploader delegate,
             ScheduledExecutorService scheduler,
             RetryingExecutor retryingExecutor,
-            long maxBytesInFlight) {
+            long maxBytesInFlight,
+            ChangelogStorageMetricGroup metricGroup) {
         this.scheduleDelayMs = persistDelayMs;
         this.scheduled = new LinkedList<>();
         this.scheduler = scheduler;
@@ -109,6 +115,8 @@ class BatchingStateChangeUploader implements StateChangeUploader {
         this.sizeThresholdBytes = sizeThresholdBytes;
         this.maxBytesInFlight = maxBytesInFlight;
         this.delegate = delegate;
+        this.metricGroup = metricGroup;
+        this.metricGroup.registerInFlightDataSizeGauge(inFlightBytesCounter::sum);
     }
 
     @Override
@@ -128,9 +136,12 @@ class BatchingStateChangeUploader implements StateChangeUploader {
                     maxBytesInFlight);
             synchronized (scheduled) {
                 long size = uploadTask.getSize();
+                metricGroup.onUploadRequested(size);
                 inFlightBytesCounter.add(size);
                 scheduledBytesCounter += size;
-                scheduled.add(wrapWithSizeUpdate(uploadTask, size, inFlightBytesCounter));
+                scheduled.add(
+                        wrapWithMetricsUpdate(
+                                uploadTask, size, inFlightBytesCounter, metricGroup));
                 scheduleUploadIfNeeded();
             }
         } catch (Exception e) {
@@ -197,6 +208,11 @@ class BatchingStateChangeUploader implements StateChangeUploader {
         delegate.close();
     }
 
+    @VisibleForTesting
+    long getInFlightDataSize() {
+        return inFlightBytesCounter.sum();
+    }
+
     private synchronized Throwable getErrorSafe() {
         return errorUnsafe;
     }
@@ -205,16 +221,22 @@ class BatchingStateChangeUploader implements StateChangeUploader {
         errorUnsafe = t;
     }
 
-    private static UploadTask wrapWithSizeUpdate(
-            UploadTask uploadTask, long preComputedTaskSize, LongAdder inflightSize) {
+    private static UploadTask wrapWithMetricsUpdate(
+            UploadTask uploadTask,
+            long preComputedTaskSize,
+            LongAdder inflightSize,
+            ChangelogStorageMetricGroup metricGroup) {
+        long startNanos = System.nanoTime();
         return new UploadTask(
                 uploadTask.changeSets,
                 result -> {
                     inflightSize.add(-preComputedTaskSize);
+                    metricGroup.onUploadCompleted(System.nanoTime() - startNanos);
                     uploadTask.successCallback.accept(result);
                 },
                 (result, error) -> {
                     inflightSize.add(-preComputedTaskSize);
+                    metricGroup.onUploadFailed();
                     uploadTask.failureCallback.accept(result, error);
                 });
     }
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.changelog.fs;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.Histogram;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.SimpleCounter;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.runtime.metrics.DescriptiveStatisticsHistogram;
+import org.apache.flink.runtime.metrics.groups.ProxyMetricGroup;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Metrics of the {@link FsStateChangelogStorage}. Upload requests are counted when they are
+ * submitted to the {@link BatchingStateChangeUploader}, their latency covers batching, retries and
+ * the upload itself. The size of the data that is waiting for or being uploaded shows how far the
+ * uploads lag behind the state changes; if it reaches {@link
+ * FsStateChangelogOptions#IN_FLIGHT_DATA_LIMIT} then new uploads are rejected.
+ *
+ * <p>The storage is shared by all tasks of a job, and uploads complete in the upload threads, so
+ * the metrics are updated under the lock of this group.
+ */
+@ThreadSafe
+class ChangelogStorageMetricGroup extends ProxyMetricGroup<MetricGroup> {
+
+    static final String CHANGELOG_STORAGE_GROUP = "changelog";
+
+    static final String CHANGELOG_STORAGE_NUM_UPLOAD_REQUESTS = "numberOfUploadRequests";
+
+    static final String CHANGELOG_STORAGE_NUM_UPLOAD_FAILURES = "numberOfUploadFailures";
+
+    static final String CHANGELOG_STORAGE_UPLOAD_SIZES = "uploadSizes";
+
+    static final String CHANGELOG_STORAGE_UPLOAD_LATENCIES_NANOS = "uploadLatenciesNanos";
+
+    static final String CHANGELOG_STORAGE_IN_FLIGHT_DATA_SIZE = "inFlightDataSize";
+
+    private static final int WINDOW_SIZE = 1000;
+
+    private final Counter uploadsCounter;
+
+    private final Counter uploadFailuresCounter;
+
+    private final Histogram uploadSizes;
+
+    private final Histogram uploadLatenciesNanos;
+
+    ChangelogStorageMetricGroup(MetricGroup parent) {
+        super(parent);
+        this.uploadsCounter = counter(CHANGELOG_STORAGE_NUM_UPLOAD_REQUESTS, new SimpleCounter());
+        this.uploadFailuresCounter =
+                counter(CHANGELOG_STORAGE_NUM_UPLOAD_FAILURES, new SimpleCounter());
+        this.uploadSizes =
+                histogram(
+                        CHANGELOG_STORAGE_UPLOAD_SIZES,
+                        new DescriptiveStatisticsHistogram(WINDOW_SIZE));
+        this.uploadLatenciesNanos =
+                histogram(
+                        CHANGELOG_STORAGE_UPLOAD_LATENCIES_NANOS,
+                        new DescriptiveStatisticsHistogram(WINDOW_SIZE));
+    }
+
+    /** Creates a metric group that does not report its metrics anywhere. */
+    @VisibleForTesting
+    static ChangelogStorageMetricGroup createUnregistered() {
+        return new ChangelogStorageMetricGroup(new UnregisteredMetricsGroup());
+    }
+
+    void registerInFlightDataSizeGauge(Gauge<Long> inFlightDataSize) {
+        gauge(CHANGELOG_STORAGE_IN_FLIGHT_DATA_SIZE, inFlightDataSize);
+    }
+
+    synchronized void onUploadRequested(long size) {
+        uploadsCounter.inc();
+        uploadSizes.update(size);
+    }
+
+    synchronized void onUploadCompleted(long latencyNanos) {
+        uploadLatenciesNanos.update(latencyNanos);
+    }
+
+    synchronized void onUploadFailed() {
+        uploadFailuresCounter.inc();
+    }
+
+    @VisibleForTesting
+    Counter getUploadsCounter() {
+        return uploadsCounter;
+    }
+
+    @VisibleForTesting
+    Counter getUploadFailuresCounter() {
+        return uploadFailuresCounter;
+    }
+
+    @VisibleForTesting
+    Histogram getUploadLatenciesNanos() {
+        return uploadLatenciesNanos;
+    }
+}
@@ -21,6 +21,7 @@ import org.apache.flink.annotation.Experimental;
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.metrics.groups.TaskManagerJobMetricGroup;
 import org.apache.flink.runtime.state.KeyGroupRange;
 import org.apache.flink.runtime.state.changelog.ChangelogStateHandleStreamImpl;
 import org.apache.flink.runtime.state.changelog.StateChangelogHandleReader;
@@ -54,9 +55,14 @@ public class FsStateChangelogStorage
      */
     private final AtomicInteger logIdGenerator = new AtomicInteger(0);
 
-    public FsStateChangelogStorage(Configuration config) throws IOException {
+    public FsStateChangelogStorage(Configuration config, TaskManagerJobMetricGroup metricGroup)
+            throws IOException {
         this(
-                StateChangeUploader.fromConfig(config),
+                StateChangeUploader.fromConfig(
+                        config,
+                        new ChangelogStorageMetricGroup(
+                                metricGroup.addGroup(
+                                        ChangelogStorageMetricGroup.CHANGELOG_STORAGE_GROUP))),
                 config.get(PREEMPTIVE_PERSIST_THRESHOLD).getBytes());
     }
 
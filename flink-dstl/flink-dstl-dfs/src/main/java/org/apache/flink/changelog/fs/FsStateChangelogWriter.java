@@ -182,6 +182,15 @@ class FsStateChangelogWriter implements StateChangelogWriter<ChangelogStateHandl
         return tmp;
     }
 
+    @Override
+    public SequenceNumber nextSequenceNumber() {
+        // unlike lastAppendedSequenceNumber(), don't point past the active change set if it is
+        // empty: the changes appended next will be added to it
+        rollover();
+        LOG.trace("query {} next sqn: {}", logId, activeSequenceNumber);
+        return activeSequenceNumber;
+    }
+
     @Override
     public CompletableFuture<ChangelogStateHandleStreamImpl> persist(SequenceNumber from)
             throws IOException {
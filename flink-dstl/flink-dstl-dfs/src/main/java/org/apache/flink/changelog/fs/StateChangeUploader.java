@@ -67,7 +67,8 @@ interface StateChangeUploader extends AutoCloseable {
         }
     }
 
-    static StateChangeUploader fromConfig(ReadableConfig config) throws IOException {
+    static StateChangeUploader fromConfig(
+            ReadableConfig config, ChangelogStorageMetricGroup metricGroup) throws IOException {
         Path basePath = new Path(config.get(BASE_PATH));
         long bytes = config.get(UPLOAD_BUFFER_SIZE).getBytes();
         checkArgument(bytes <= Integer.MAX_VALUE);
@@ -85,7 +86,8 @@ interface StateChangeUploader extends AutoCloseable {
                         RetryPolicy.fromConfig(config),
                         store,
                         config.get(NUM_UPLOAD_THREADS),
-                        config.get(IN_FLIGHT_DATA_LIMIT).getBytes());
+                        config.get(IN_FLIGHT_DATA_LIMIT).getBytes(),
+                        metricGroup);
         return batchingStore;
     }
 
@@ -124,7 +126,7 @@ interface StateChangeUploader extends AutoCloseable {
         public long getSize() {
             long size = 0;
             for (StateChangeSet set : changeSets) {
-                size = set.getSize();
+                size += set.getSize();
             }
             return size;
         }
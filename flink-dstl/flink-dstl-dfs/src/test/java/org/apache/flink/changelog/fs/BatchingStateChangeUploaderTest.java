@@ -142,7 +142,8 @@ public class BatchingStateChangeUploaderTest {
                         },
                         new DirectScheduledExecutorService(),
                         new RetryingExecutor(new DirectScheduledExecutorService()),
-                        10_000)) {
+                        10_000,
+                        ChangelogStorageMetricGroup.createUnregistered())) {
             CompletableFuture<List<UploadResult>> completionFuture = new CompletableFuture<>();
             store.upload(
                     new UploadTask(
@@ -166,7 +167,8 @@ public class BatchingStateChangeUploaderTest {
                         probe,
                         scheduler,
                         new RetryingExecutor(5),
-                        10_000)) {
+                        10_000,
+                        ChangelogStorageMetricGroup.createUnregistered())) {
             scheduler.shutdown();
             upload(store, getChanges(4));
         }
@@ -184,13 +186,48 @@ public class BatchingStateChangeUploaderTest {
                         probe,
                         scheduler,
                         new RetryingExecutor(retryScheduler),
-                        10_000)
+                        10_000,
+                        ChangelogStorageMetricGroup.createUnregistered())
                 .close();
         assertTrue(probe.isClosed());
         assertTrue(scheduler.isShutdown());
         assertTrue(retryScheduler.isShutdown());
     }
 
+    @Test
+    public void testMetrics() throws Exception {
+        ChangelogStorageMetricGroup metricGroup = ChangelogStorageMetricGroup.createUnregistered();
+        ManuallyTriggeredScheduledExecutorService scheduler =
+                new ManuallyTriggeredScheduledExecutorService();
+        TestingStateChangeUploader probe = new TestingStateChangeUploader();
+        try (BatchingStateChangeUploader store =
+                new BatchingStateChangeUploader(
+                        1,
+                        Integer.MAX_VALUE,
+                        RetryPolicy.NONE,
+                        probe,
+                        scheduler,
+                        new RetryingExecutor(new DirectScheduledExecutorService()),
+                        10_000,
+                        metricGroup)) {
+            List<StateChangeSet> changes = new ArrayList<>();
+            changes.addAll(getChanges(4));
+            changes.addAll(getChanges(8));
+            upload(store, changes);
+
+            assertEquals(1, metricGroup.getUploadsCounter().getCount());
+            // all change sets of the task are in flight until the batch is uploaded
+            assertEquals(12L, store.getInFlightDataSize());
+
+            scheduler.triggerAllNonPeriodicTasks();
+            probe.completeUpload();
+
+            assertEquals(0L, store.getInFlightDataSize());
+            assertEquals(1, metricGroup.getUploadLatenciesNanos().getCount());
+            assertEquals(0, metricGroup.getUploadFailuresCounter().getCount());
+        }
+    }
+
     private List<StateChangeSet> getChanges(int size) {
         byte[] change = new byte[size];
         random.nextBytes(change);
@@ -228,7 +265,8 @@ public class BatchingStateChangeUploaderTest {
                         probe,
                         scheduler,
                         new RetryingExecutor(new DirectScheduledExecutorService()),
-                        10_000)) {
+                        10_000,
+                        ChangelogStorageMetricGroup.createUnregistered())) {
             test.accept(store, probe);
         }
     }
@@ -49,6 +49,12 @@ public class FsStateChangelogWriterSqnTest {
                 of(StateChangelogWriter::lastAppendedSequenceNumber, "lastAppendedSequenceNumber")
                         .withAppendCall(true)
                         .expectIncrement(true),
+                of(StateChangelogWriter::nextSequenceNumber, "nextSequenceNumber")
+                        .withAppendCall(false)
+                        .expectIncrement(false),
+                of(StateChangelogWriter::nextSequenceNumber, "nextSequenceNumber")
+                        .withAppendCall(true)
+                        .expectIncrement(true),
                 of(FsStateChangelogWriterSqnTest::persistAll, "persist")
                         .withAppendCall(false)
                         .expectIncrement(false),
@@ -246,6 +246,13 @@ if [[ ${PROFILE} != *"enable-adaptive-scheduler"* ]]; then #FLINK-21450
 	run_test "Local recovery and sticky scheduling end-to-end test" "$END_TO_END_DIR/test-scripts/test_local_recovery_and_scheduling.sh 4 10 rocks true true 100" "skip_check_exceptions"
 fi
 
+################################################################################
+# Rescaling with local recovery
+################################################################################
+
+run_test "Rescaling with local recovery end-to-end test" "$END_TO_END_DIR/test-scripts/test_rescale_local_recovery.sh 2 2 hashmap false" "skip_check_exceptions"
+run_test "Rescaling with local recovery end-to-end test" "$END_TO_END_DIR/test-scripts/test_rescale_local_recovery.sh 2 2 rocks true" "skip_check_exceptions"
+
 printf "\n[PASS] All bash e2e-tests passed\n"
 
 printf "\n\n==============================================================================\n"
@@ -0,0 +1,118 @@
+#!/usr/bin/env bash
+
+################################################################################
+# Licensed to the Apache Software Foundation (ASF) under one
+# or more contributor license agreements.  See the NOTICE file
+# distributed with this work for additional information
+# regarding copyright ownership.  The ASF licenses this file
+# to you under the Apache License, Version 2.0 (the
+# "License"); you may not use this file except in compliance
+# with the License.  You may obtain a copy of the License at
+#
+#     http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+################################################################################
+
+# Measures the downtime of a job which the adaptive scheduler rescales because new TaskManagers
+# become available, and checks that the rescaled subtasks restore their key groups from the
+# task-local state of the TaskManagers which ran them before.
+
+if [ -z $1 ] || [ -z $2 ] || [ -z $3 ] || [ -z $4 ]; then
+ echo "Usage: ./test_rescale_local_recovery.sh <initial_tms> <added_tms> <state_backend> <incremental>"
+ exit 1
+fi
+
+source "$(dirname "$0")"/common.sh
+
+INITIAL_TMS=$1
+ADDED_TMS=$2
+STATE_BACKEND_TYPE=$3
+STATE_BACKEND_ROCKS_INCREMENTAL=$4
+
+# Converts the timestamp of a log line (yyyy-MM-dd HH:mm:ss,SSS) to milliseconds since the epoch.
+function log_timestamp_millis {
+    local log_line=$1
+    local date_and_time=$(echo "${log_line}" | sed 's/^\([0-9-]* [0-9:]*\),\([0-9]*\).*/\1/')
+    local millis=$(echo "${log_line}" | sed 's/^\([0-9-]* [0-9:]*\),\([0-9]*\).*/\2/')
+    echo $(( $(date -d "${date_and_time}" +%s) * 1000 + 10#${millis} ))
+}
+
+function run_rescale_local_recovery_test {
+    local new_parallelism=$(( INITIAL_TMS + ADDED_TMS ))
+
+    echo "Running rescale local recovery test with configuration:
+        initial TaskManagers: ${INITIAL_TMS}
+        added TaskManagers: ${ADDED_TMS}
+        backend: ${STATE_BACKEND_TYPE}
+        incremental checkpoints: ${STATE_BACKEND_ROCKS_INCREMENTAL}"
+
+    # Enable debug logging to see which state alternative the backends are restored from
+    sed -i -e 's/rootLogger.level = .*/rootLogger.level = DEBUG/' "$FLINK_DIR/conf/log4j.properties"
+
+    set_config_key "jobmanager.scheduler" "adaptive"
+    set_config_key "jobmanager.adaptive-scheduler.resource-wait-timeout" "10s"
+    set_config_key "jobmanager.adaptive-scheduler.resource-stabilization-timeout" "1s"
+    set_config_key "jobmanager.adaptive-scheduler.min-parallelism-increase" "1"
+    set_config_key "state.backend.local-recovery" "true"
+    # Ensure that each TM only runs one subtask of each operator
+    set_config_key "taskmanager.numberOfTaskSlots" "1"
+
+    start_cluster
+    start_taskmanagers $(( INITIAL_TMS - 1 ))
+    wait_for_number_of_running_tms ${INITIAL_TMS}
+
+    TEST_PROGRAM_JAR=${END_TO_END_DIR}/flink-datastream-allround-test/target/DataStreamAllroundTestProgram.jar
+    CHECKPOINT_DIR_URI="file://$TEST_DATA_DIR/rescale-local-recovery-checkpoints"
+
+    DATASTREAM_JOB=$($FLINK_DIR/bin/flink run -d -p ${new_parallelism} $TEST_PROGRAM_JAR \
+      --test.semantics exactly-once \
+      --environment.parallelism ${new_parallelism} \
+      --environment.max_parallelism 128 \
+      --environment.checkpoint_interval 1000 \
+      --state_backend ${STATE_BACKEND_TYPE} \
+      --state_backend.checkpoint_directory ${CHECKPOINT_DIR_URI} \
+      --state_backend.rocks.incremental ${STATE_BACKEND_ROCKS_INCREMENTAL} \
+      --sequence_generator_source.sleep_time 15 \
+      --sequence_generator_source.sleep_after_elements 1 \
+      | grep "Job has been submitted with JobID" | sed 's/.* //g')
+
+    wait_job_running ${DATASTREAM_JOB}
+    wait_num_checkpoints ${DATASTREAM_JOB} 3
+
+    start_taskmanagers ${ADDED_TMS}
+
+    wait_num_of_occurence_in_logs "switched from state RUNNING to RESTARTING" 1
+    # a checkpoint only completes once all rescaled subtasks are running
+    local last_checkpoint=$(grep -o "Completed checkpoint [1-9][0-9]* for job ${DATASTREAM_JOB}" \
+      $FLINK_LOG_DIR/*standalonesession*.log | awk '{print $3}' | tail -1)
+    wait_num_checkpoints ${DATASTREAM_JOB} $(( last_checkpoint + 2 ))
+
+    local jm_log="$FLINK_LOG_DIR/*standalonesession*.log"
+    local restarting_line=$(grep -h "switched from state RUNNING to RESTARTING" ${jm_log} | head -1)
+    local restarting_millis=$(log_timestamp_millis "${restarting_line}")
+
+    # the last subtask which switched to RUNNING after the restart ends the downtime
+    local running_line=$(sed -n '/switched from state RUNNING to RESTARTING/,$p' ${jm_log} \
+      | grep "switched from INITIALIZING to RUNNING" | tail -1)
+    local running_millis=$(log_timestamp_millis "${running_line}")
+
+    echo "Rescaling from ${INITIAL_TMS} to ${new_parallelism} TaskManagers took $(( running_millis - restarting_millis ))ms."
+
+    # A restore from the local state of the rescaled subtasks is logged as alternative (1/2),
+    # the remote state is the last alternative.
+    local local_recovery_attempts=$(grep '^.*Creating keyed state backend.* from alternative (1/2)\.$' $FLINK_LOG_DIR/*taskexecutor* | wc -l | tr -d ' ')
+    if [ ${local_recovery_attempts} -eq 0 ]; then
+        echo "FAILURE: No rescaled subtask restored its keyed state locally."
+        exit 1
+    fi
+    echo "${local_recovery_attempts} keyed state backend(s) restored from local state."
+
+    cancel_job ${DATASTREAM_JOB}
+}
+
+run_test_with_timeout 900 run_rescale_local_recovery_test
@@ -163,13 +163,7 @@ public abstract class AbstractBlobCache implements Closeable {
 
             if (currentServerAddress != null) {
                 // fallback: download from the BlobServer
-                BlobClient.downloadFromBlobServer(
-                        jobId,
-                        blobKey,
-                        incomingFile,
-                        currentServerAddress,
-                        blobClientConfig,
-                        numFetchRetries);
+                downloadFromBlobServer(jobId, blobKey, incomingFile, currentServerAddress);
 
                 readWriteLock.writeLock().lock();
                 try {
@@ -178,6 +172,8 @@ public abstract class AbstractBlobCache implements Closeable {
                 } finally {
                     readWriteLock.writeLock().unlock();
                 }
+
+                notifyDownloadedFromBlobServer(jobId, blobKey, currentServerAddress);
             } else {
                 throw new IOException(
                         "Cannot download from BlobServer, because the server address is unknown.");
@@ -196,6 +192,36 @@ public abstract class AbstractBlobCache implements Closeable {
         }
     }
 
+    /**
+     * Downloads the BLOB with the given key from the BLOB server into the given temporary file.
+     *
+     * @param jobId ID of the job this blob belongs to (or <tt>null</tt> if job-unrelated)
+     * @param blobKey The key of the desired BLOB.
+     * @param incomingFile temporary file to download to
+     * @param serverAddress address of the BLOB server
+     * @throws IOException Thrown if an I/O error occurs while downloading the BLOB.
+     */
+    protected void downloadFromBlobServer(
+            @Nullable JobID jobId,
+            BlobKey blobKey,
+            File incomingFile,
+            InetSocketAddress serverAddress)
+            throws IOException {
+        BlobClient.downloadFromBlobServer(
+                jobId, blobKey, incomingFile, serverAddress, blobClientConfig, numFetchRetries);
+    }
+
+    /**
+     * Called after a BLOB downloaded via {@link #downloadFromBlobServer} was moved to the local
+     * storage.
+     *
+     * @param jobId ID of the job this blob belongs to (or <tt>null</tt> if job-unrelated)
+     * @param blobKey The key of the downloaded BLOB.
+     * @param serverAddress address of the BLOB server
+     */
+    protected void notifyDownloadedFromBlobServer(
+            @Nullable JobID jobId, BlobKey blobKey, InetSocketAddress serverAddress) {}
+
     /**
      * Returns the port the BLOB server is listening on.
      *
@@ -0,0 +1,359 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.blob;
+
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.configuration.BlobServerOptions;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.SecurityOptions;
+import org.apache.flink.configuration.TaskManagerOptions;
+import org.apache.flink.runtime.net.SSLUtils;
+import org.apache.flink.util.NetUtils;
+import org.apache.flink.util.concurrent.ExecutorThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ServerSocketFactory;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+
+import static org.apache.flink.runtime.blob.BlobServerConnection.writeErrorToStream;
+import static org.apache.flink.runtime.blob.BlobServerProtocol.BUFFER_SIZE;
+import static org.apache.flink.runtime.blob.BlobServerProtocol.GET_OPERATION;
+import static org.apache.flink.runtime.blob.BlobServerProtocol.JOB_RELATED_CONTENT;
+import static org.apache.flink.runtime.blob.BlobServerProtocol.RETURN_OKAY;
+import static org.apache.flink.runtime.blob.BlobUtils.closeSilently;
+import static org.apache.flink.runtime.blob.BlobUtils.readFully;
+import static org.apache.flink.runtime.blob.BlobUtils.writeLength;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Serves the permanent BLOBs which a {@link PermanentBlobCache} downloaded to other BLOB caches,
+ * and announces them to the {@link BlobServer} which redirects downloads of these BLOBs here.
+ *
+ * <p>The server answers the GET requests of the {@link BlobServerProtocol} for the BLOBs in the
+ * cache's local storage, so other BLOB caches download from it with a {@link BlobClient} like from
+ * the BLOB server. It never fetches a BLOB it does not hold but answers with an error, upon which
+ * the client tries the next BLOB cache or the BLOB server.
+ */
+class BlobCachePeerServer extends Thread implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BlobCachePeerServer.class);
+
+    /** Root directory of the local storage of the served BLOB cache. */
+    private final File storageDir;
+
+    /** Read lock of the served BLOB cache to synchronize file accesses. */
+    private final Lock readLock;
+
+    /** Configuration for the connections to the BLOB server and the other BLOB caches. */
+    private final Configuration blobClientConfig;
+
+    private final ServerSocket serverSocket;
+
+    /** Executor serving the connections of other BLOB caches. */
+    private final ExecutorService connectionExecutor;
+
+    /** Executor sending the announcements to the BLOB server. */
+    private final ExecutorService announcementExecutor;
+
+    private final AtomicBoolean shutdownRequested = new AtomicBoolean();
+
+    BlobCachePeerServer(Configuration blobClientConfig, File storageDir, Lock readLock)
+            throws IOException {
+        this.blobClientConfig = checkNotNull(blobClientConfig);
+        this.storageDir = checkNotNull(storageDir);
+        this.readLock = checkNotNull(readLock);
+
+        int maxConnections =
+                blobClientConfig.getInteger(
+                        BlobServerOptions.PEER_DISTRIBUTION_MAX_CONCURRENT_TRANSFERS);
+        if (maxConnections < 1) {
+            LOG.warn(
+                    "Invalid value for the maximum concurrent transfers of a BLOB: {}. Using default value of {}",
+                    maxConnections,
+                    BlobServerOptions.PEER_DISTRIBUTION_MAX_CONCURRENT_TRANSFERS.defaultValue());
+            maxConnections =
+                    BlobServerOptions.PEER_DISTRIBUTION_MAX_CONCURRENT_TRANSFERS.defaultValue();
+        }
+
+        final String serverPortRange =
+                blobClientConfig.getString(BlobServerOptions.PEER_DISTRIBUTION_PORT);
+        final Iterator<Integer> ports = NetUtils.getPortRangeFromString(serverPortRange);
+
+        final ServerSocketFactory socketFactory;
+        if (SecurityOptions.isInternalSSLEnabled(blobClientConfig)
+                && blobClientConfig.getBoolean(BlobServerOptions.SSL_ENABLED)) {
+            try {
+                socketFactory = SSLUtils.createSSLServerSocketFactory(blobClientConfig);
+            } catch (Exception e) {
+                throw new IOException("Failed to initialize SSL for the blob cache", e);
+            }
+        } else {
+            socketFactory = ServerSocketFactory.getDefault();
+        }
+
+        final String bindHost =
+                blobClientConfig
+                        .getOptional(TaskManagerOptions.BIND_HOST)
+                        .orElseGet(NetUtils::getWildcardIPAddress);
+
+        this.serverSocket =
+                NetUtils.createSocketFromPorts(
+                        ports,
+                        (port) ->
+                                socketFactory.createServerSocket(
+                                        port, 0, InetAddress.getByName(bindHost)));
+
+        if (serverSocket == null) {
+            throw new IOException(
+                    "Unable to open BLOB cache server in specified port range: "
+                            + serverPortRange);
+        }
+
+        this.connectionExecutor =
+                Executors.newFixedThreadPool(
+                        maxConnections, new ExecutorThreadFactory("flink-blob-peer-server"));
+        this.announcementExecutor =
+                Executors.newSingleThreadExecutor(
+                        new ExecutorThreadFactory("flink-blob-peer-announcement"));
+
+        setName("BLOB cache server listener at " + getPort());
+        setDaemon(true);
+
+        LOG.info(
+                "Started BLOB cache server at {}:{} - max concurrent requests: {}",
+                serverSocket.getInetAddress().getHostAddress(),
+                getPort(),
+                maxConnections);
+    }
+
+    /** Returns the port on which the server is listening. */
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Announces to the given BLOB server that this server serves the given BLOB from now on. The
+     * announcement is sent asynchronously and is best-effort: if it fails, other BLOB caches only
+     * download the BLOB from elsewhere.
+     *
+     * @param jobId ID of the job the BLOB belongs to
+     * @param blobKey key of the BLOB which was moved to the local storage
+     * @param serverAddress address of the BLOB server to announce the BLOB to
+     */
+    void announce(JobID jobId, PermanentBlobKey blobKey, InetSocketAddress serverAddress) {
+        try {
+            announcementExecutor.execute(
+                    () -> {
+                        try (BlobClient client = new BlobClient(serverAddress, blobClientConfig)) {
+                            client.announce(jobId, blobKey, getPort());
+                        } catch (IOException e) {
+                            LOG.debug(
+                                    "Failed to announce BLOB {}/{} to {}.",
+                                    jobId,
+                                    blobKey,
+                                    serverAddress,
+                                    e);
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            // the server is shut down
+            LOG.debug("Not announcing BLOB {}/{} after shutdown.", jobId, blobKey);
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!shutdownRequested.get()) {
+                final Socket socket = serverSocket.accept();
+                try {
+                    connectionExecutor.execute(() -> handleConnection(socket));
+                } catch (RejectedExecutionException e) {
+                    closeSilently(socket, LOG);
+                }
+            }
+        } catch (Throwable t) {
+            if (!shutdownRequested.get()) {
+                LOG.error("BLOB cache server stopped working. Shutting down", t);
+
+                try {
+                    close();
+                } catch (Throwable closeThrowable) {
+                    LOG.error("Could not properly close the BLOB cache server.", closeThrowable);
+                }
+            }
+        }
+    }
+
+    private void handleConnection(Socket socket) {
+        try {
+            socket.setSoTimeout(blobClientConfig.getInteger(BlobServerOptions.SO_TIMEOUT));
+            final InputStream inputStream = socket.getInputStream();
+            final OutputStream outputStream = socket.getOutputStream();
+
+            while (true) {
+                final int operation = inputStream.read();
+                if (operation < 0) {
+                    // done, no one is asking anything from us
+                    return;
+                }
+
+                if (operation != GET_OPERATION) {
+                    throw new IOException("Unsupported operation " + operation);
+                }
+                if (!get(socket, inputStream, outputStream, new byte[BUFFER_SIZE])) {
+                    return;
+                }
+            }
+        } catch (SocketException e) {
+            // this happens when the remote site closes the connection
+            LOG.debug("Socket connection closed", e);
+        } catch (Throwable t) {
+            LOG.error("Error while serving BLOB to {}.", socket.getInetAddress(), t);
+        } finally {
+            closeSilently(socket, LOG);
+        }
+    }
+
+    /**
+     * Handles a GET request of another BLOB cache.
+     *
+     * @return whether the BLOB was sent and further requests may follow on the connection
+     */
+    private boolean get(
+            Socket socket, InputStream inputStream, OutputStream outputStream, byte[] buf)
+            throws IOException {
+
+        final File blobFile;
+        final JobID jobId;
+        final BlobKey blobKey;
+
+        try {
+            final int mode = inputStream.read();
+            if (mode < 0) {
+                throw new EOFException("Premature end of GET request");
+            } else if (mode != JOB_RELATED_CONTENT) {
+                throw new IOException("Only job-related BLOBs are served, got mode " + mode + '.');
+            }
+
+            final byte[] jidBytes = new byte[JobID.SIZE];
+            readFully(inputStream, jidBytes, 0, JobID.SIZE, "JobID");
+            jobId = JobID.fromByteArray(jidBytes);
+            blobKey = BlobKey.readFromInputStream(inputStream);
+
+            if (!(blobKey instanceof PermanentBlobKey)) {
+                throw new IOException("Only permanent BLOBs are served.");
+            }
+
+            blobFile =
+                    new File(
+                            BlobUtils.getStorageLocationPath(
+                                    storageDir.getAbsolutePath(), jobId, blobKey));
+        } catch (Throwable t) {
+            LOG.debug("GET operation from {} failed.", socket.getInetAddress(), t);
+            writeErrorToStream(outputStream, t);
+            return false;
+        }
+
+        readLock.lock();
+        try {
+            if (!blobFile.exists()) {
+                writeErrorToStream(
+                        outputStream,
+                        new FileNotFoundException(
+                                "BLOB " + jobId + "/" + blobKey + " is not cached here."));
+                return false;
+            }
+
+            outputStream.write(RETURN_OKAY);
+
+            // from here on, we started sending data, so all we can do is close the connection
+            // when something happens
+            final int blobLen = (int) blobFile.length();
+            writeLength(blobLen, outputStream);
+
+            try (FileInputStream fis = new FileInputStream(blobFile)) {
+                int bytesRemaining = blobLen;
+                while (bytesRemaining > 0) {
+                    final int read = fis.read(buf);
+                    if (read < 0) {
+                        throw new IOException(
+                                "Premature end of BLOB file stream for "
+                                        + blobFile.getAbsolutePath());
+                    }
+                    outputStream.write(buf, 0, read);
+                    bytesRemaining -= read;
+                }
+            }
+        } finally {
+            readLock.unlock();
+        }
+
+        // the client acknowledges the verified transfer
+        if (inputStream.read() < 0) {
+            throw new EOFException("Premature end of GET request");
+        }
+        return true;
+    }
+
+    /** Shuts down the server and closes the connections to other BLOB caches. */
+    @Override
+    public void close() throws IOException {
+        if (shutdownRequested.compareAndSet(false, true)) {
+            try {
+                serverSocket.close();
+            } finally {
+                connectionExecutor.shutdownNow();
+                announcementExecutor.shutdownNow();
+                interrupt();
+            }
+
+            try {
+                join();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+
+                LOG.debug("Error while waiting for this thread to die.", ie);
+            }
+
+            LOG.info("Stopped BLOB cache server at {}.", getPort());
+        }
+    }
+}
@@ -42,18 +42,25 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import static org.apache.flink.runtime.blob.BlobKey.BlobType.PERMANENT_BLOB;
+import static org.apache.flink.runtime.blob.BlobServerProtocol.ANNOUNCE_OPERATION;
 import static org.apache.flink.runtime.blob.BlobServerProtocol.BUFFER_SIZE;
 import static org.apache.flink.runtime.blob.BlobServerProtocol.GET_OPERATION;
 import static org.apache.flink.runtime.blob.BlobServerProtocol.JOB_RELATED_CONTENT;
 import static org.apache.flink.runtime.blob.BlobServerProtocol.JOB_UNRELATED_CONTENT;
+import static org.apache.flink.runtime.blob.BlobServerProtocol.PEER_GET_OPERATION;
 import static org.apache.flink.runtime.blob.BlobServerProtocol.RETURN_ERROR;
 import static org.apache.flink.runtime.blob.BlobServerProtocol.RETURN_OKAY;
+import static org.apache.flink.runtime.blob.BlobServerProtocol.RETURN_REDIRECT;
 import static org.apache.flink.runtime.blob.BlobUtils.readExceptionFromStream;
+import static org.apache.flink.runtime.blob.BlobUtils.readFully;
+import static org.apache.flink.runtime.blob.BlobUtils.readLength;
+import static org.apache.flink.runtime.blob.BlobUtils.writeLength;
 import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
@@ -180,6 +187,81 @@ public final class BlobClient implements Closeable {
         } // end loop over retries
     }
 
+    /**
+     * Downloads the given permanent BLOB like {@link #downloadFromBlobServer}, but lets the server
+     * redirect the download to other BLOB caches which already hold the BLOB.
+     *
+     * <p>The BLOB is downloaded from the first of these BLOB caches which serves it, and from the
+     * server if none of them does. The contents of the BLOB are verified against its key, so they
+     * are the same no matter where they were downloaded from.
+     *
+     * @param jobId job ID the BLOB belongs to
+     * @param blobKey BLOB key
+     * @param localJarFile the local file to write to
+     * @param serverAddress address of the server to download from
+     * @param blobClientConfig client configuration for the connection
+     * @param numFetchRetries number of retries before failing to download from the server
+     * @throws IOException if an I/O error occurs during the download
+     */
+    static void downloadFromBlobServerOrPeers(
+            JobID jobId,
+            PermanentBlobKey blobKey,
+            File localJarFile,
+            InetSocketAddress serverAddress,
+            Configuration blobClientConfig,
+            int numFetchRetries)
+            throws IOException {
+
+        LOG.info("Downloading {}/{} from {} or its peers", jobId, blobKey, serverAddress);
+
+        final List<InetSocketAddress> peers;
+        try (final BlobClient bc = new BlobClient(serverAddress, blobClientConfig)) {
+            peers = bc.getOrRedirect(jobId, blobKey, localJarFile);
+        } catch (Throwable t) {
+            LOG.info(
+                    "Failed to fetch BLOB {}/{} from {} or its peers. Downloading it from {}.",
+                    jobId,
+                    blobKey,
+                    serverAddress,
+                    serverAddress,
+                    t);
+            downloadFromBlobServer(
+                    jobId,
+                    blobKey,
+                    localJarFile,
+                    serverAddress,
+                    blobClientConfig,
+                    numFetchRetries);
+            return;
+        }
+
+        if (peers.isEmpty()) {
+            // the server sent the BLOB itself
+            return;
+        }
+
+        for (InetSocketAddress peer : peers) {
+            LOG.debug("Downloading {}/{} from BLOB cache at {}", jobId, blobKey, peer);
+            try (final BlobClient bc = new BlobClient(peer, blobClientConfig);
+                    final InputStream is = bc.getInternal(jobId, blobKey);
+                    final OutputStream os = new FileOutputStream(localJarFile)) {
+                IOUtils.copyBytes(is, os, BUFFER_SIZE, false);
+                return;
+            } catch (Throwable t) {
+                LOG.info(
+                        "Failed to fetch BLOB {}/{} from BLOB cache at {}.",
+                        jobId,
+                        blobKey,
+                        peer,
+                        t);
+            }
+        }
+
+        // none of the peers served the BLOB, fall back to a GET which is never redirected
+        downloadFromBlobServer(
+                jobId, blobKey, localJarFile, serverAddress, blobClientConfig, numFetchRetries);
+    }
+
     @Override
     public void close() throws IOException {
         this.socket.close();
@@ -222,7 +304,7 @@ public final class BlobClient implements Closeable {
             InputStream is = this.socket.getInputStream();
 
             // Send GET header
-            sendGetHeader(os, jobId, blobKey);
+            sendGetHeader(os, GET_OPERATION, jobId, blobKey);
             receiveAndCheckGetResponse(is);
 
             return new BlobInputStream(is, blobKey, os);
@@ -232,24 +314,66 @@ public final class BlobClient implements Closeable {
         }
     }
 
+    /**
+     * Downloads the given permanent BLOB from the BLOB server into the given file, unless the
+     * server redirects the download to other BLOB caches.
+     *
+     * @param jobId ID of the job this blob belongs to
+     * @param blobKey blob key associated with the requested file
+     * @param localJarFile the local file to write to
+     * @return the addresses of the BLOB caches to download the BLOB from instead, or an empty list
+     *     if the BLOB was downloaded
+     * @throws IOException if an I/O error occurs during the download
+     */
+    List<InetSocketAddress> getOrRedirect(
+            JobID jobId, PermanentBlobKey blobKey, File localJarFile) throws IOException {
+
+        if (this.socket.isClosed()) {
+            throw new IllegalStateException(
+                    "BLOB Client is not connected. "
+                            + "Client has been shut down or encountered an error before.");
+        }
+
+        try {
+            OutputStream os = this.socket.getOutputStream();
+            InputStream is = this.socket.getInputStream();
+
+            sendGetHeader(os, PEER_GET_OPERATION, jobId, blobKey);
+            final List<InetSocketAddress> peers = receiveAndCheckPeerGetResponse(is);
+            if (!peers.isEmpty()) {
+                return peers;
+            }
+
+            try (final OutputStream fos = new FileOutputStream(localJarFile)) {
+                IOUtils.copyBytes(new BlobInputStream(is, blobKey, os), fos, BUFFER_SIZE, false);
+            }
+            return Collections.emptyList();
+        } catch (Throwable t) {
+            BlobUtils.closeSilently(socket, LOG);
+            throw new IOException("GET operation failed: " + t.getMessage(), t);
+        }
+    }
+
     /**
      * Constructs and writes the header data for a GET operation to the given output stream.
      *
      * @param outputStream the output stream to write the header data to
+     * @param operation the type of the GET operation
      * @param jobId ID of the job this blob belongs to (or <tt>null</tt> if job-unrelated)
      * @param blobKey blob key associated with the requested file
      * @throws IOException thrown if an I/O error occurs while writing the header data to the output
      *     stream
      */
     private static void sendGetHeader(
-            OutputStream outputStream, @Nullable JobID jobId, BlobKey blobKey) throws IOException {
+            OutputStream outputStream, byte operation, @Nullable JobID jobId, BlobKey blobKey)
+            throws IOException {
         checkNotNull(blobKey);
         checkArgument(
                 jobId != null || blobKey instanceof TransientBlobKey,
                 "permanent BLOBs must be job-related");
 
         // Signal type of operation
-        outputStream.write(GET_OPERATION);
+        outputStream.write(operation);
 
         // Send job ID and key
         if (jobId == null) {
@@ -280,6 +404,80 @@ public final class BlobClient implements Closeable {
         }
     }
 
+    /**
+     * Reads the response to a {@link BlobServerProtocol#PEER_GET_OPERATION} from the input stream
+     * and throws in case of errors.
+     *
+     * @param is stream to read from
+     * @return the addresses of the BLOB caches the server redirected to, or an empty list if the
+     *     BLOB's contents follow in the stream
+     * @throws IOException if the response is an error or reading the response failed
+     */
+    private static List<InetSocketAddress> receiveAndCheckPeerGetResponse(InputStream is)
+            throws IOException {
+        int response = is.read();
+        if (response < 0) {
+            throw new EOFException("Premature end of response");
+        }
+        if (response == RETURN_REDIRECT) {
+            final int numPeers = readLength(is);
+            final List<InetSocketAddress> peers = new ArrayList<>(numPeers);
+            for (int i = 0; i < numPeers; i++) {
+                final byte[] host = new byte[readLength(is)];
+                readFully(is, host, 0, host.length, "host");
+                final int port = readLength(is);
+                peers.add(new InetSocketAddress(new String(host, StandardCharsets.UTF_8), port));
+            }
+            return peers;
+        } else if (response == RETURN_ERROR) {
+            Throwable cause = readExceptionFromStream(is);
+            throw new IOException("Server side error: " + cause.getMessage(), cause);
+        } else if (response != RETURN_OKAY) {
+            throw new IOException("Unrecognized response");
+        }
+        return Collections.emptyList();
+    }
+
+    // --------------------------------------------------------------------------------------------
+    //  ANNOUNCE
+    // --------------------------------------------------------------------------------------------
+
+    /**
+     * Announces to the BLOB server that this host serves the given permanent BLOB to other BLOB
+     * caches on the given port.
+     *
+     * @param jobId ID of the job this blob belongs to
+     * @param blobKey blob key associated with the served file
+     * @param port the port of the {@link BlobCachePeerServer} serving the BLOB
+     * @throws IOException if an I/O error occurs during the announcement
+     */
+    void announce(JobID jobId, PermanentBlobKey blobKey, int port) throws IOException {
+        checkNotNull(jobId);
+        checkNotNull(blobKey);
+
+        if (this.socket.isClosed()) {
+            throw new IllegalStateException(
+                    "BLOB Client is not connected. "
+                            + "Client has been shut down or encountered an error before.");
+        }
+
+        try {
+            OutputStream os = this.socket.getOutputStream();
+            InputStream is = this.socket.getInputStream();
+
+            os.write(ANNOUNCE_OPERATION);
+            os.write(JOB_RELATED_CONTENT);
+            os.write(jobId.getBytes());
+            blobKey.writeToOutputStream(os);
+            writeLength(port, os);
+
+            receiveAndCheckGetResponse(is);
+        } catch (Throwable t) {
+            BlobUtils.closeSilently(socket, LOG);
+            throw new IOException("ANNOUNCE operation failed: " + t.getMessage(), t);
+        }
+    }
+
     // --------------------------------------------------------------------------------------------
     //  PUT
     // --------------------------------------------------------------------------------------------
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.blob;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.JobID;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Keeps track of the {@link BlobServer}'s transfers of permanent BLOBs and of the BLOB caches
+ * which announced that they serve these BLOBs to other BLOB caches.
+ *
+ * <p>Once the server transfers a BLOB {@link #maxConcurrentTransfers} times concurrently, further
+ * downloads of the BLOB are redirected to the BLOB caches which already hold it. Every BLOB cache
+ * which downloaded the BLOB serves it in turn, so that the BLOB spreads over the caches instead of
+ * all of them downloading it from the server.
+ */
+final class BlobPeerRegistry {
+
+    private final int maxConcurrentTransfers;
+
+    /** BLOB caches serving the permanent BLOBs of each job. */
+    private final Map<JobID, Map<BlobKey, Set<InetSocketAddress>>> peersByJob = new HashMap<>();
+
+    /** Number of transfers of each BLOB the server is currently serving. */
+    private final Map<BlobKey, Integer> activeTransfers = new HashMap<>();
+
+    BlobPeerRegistry(int maxConcurrentTransfers) {
+        checkArgument(maxConcurrentTransfers > 0, "The number of transfers must be positive.");
+        this.maxConcurrentTransfers = maxConcurrentTransfers;
+    }
+
+    /** Registers the given BLOB cache address as serving the given permanent BLOB. */
+    synchronized void registerPeer(JobID jobId, BlobKey blobKey, InetSocketAddress peerAddress) {
+        checkNotNull(peerAddress);
+        peersByJob
+                .computeIfAbsent(checkNotNull(jobId), ignored -> new HashMap<>())
+                .computeIfAbsent(checkNotNull(blobKey), ignored -> new LinkedHashSet<>())
+                .add(peerAddress);
+    }
+
+    /**
+     * Starts a transfer of the given BLOB by the server unless the server already transfers it
+     * too often and there are BLOB caches to redirect the download to.
+     *
+     * @return the BLOB caches to download the BLOB from in random order, or an empty list if the
+     *     server transfers the BLOB and must call {@link #finishTransfer(BlobKey)} afterwards
+     */
+    synchronized List<InetSocketAddress> startTransferOrRedirect(JobID jobId, BlobKey blobKey) {
+        final int transfers = activeTransfers.getOrDefault(blobKey, 0);
+        final Set<InetSocketAddress> peers =
+                peersByJob.getOrDefault(jobId, Collections.emptyMap()).get(blobKey);
+
+        if (transfers >= maxConcurrentTransfers && peers != null) {
+            final List<InetSocketAddress> redirectTargets = new ArrayList<>(peers);
+            Collections.shuffle(redirectTargets);
+            return redirectTargets;
+        }
+
+        activeTransfers.put(blobKey, transfers + 1);
+        return Collections.emptyList();
+    }
+
+    synchronized void finishTransfer(BlobKey blobKey) {
+        activeTransfers.computeIfPresent(
+                blobKey, (ignored, transfers) -> transfers > 1 ? transfers - 1 : null);
+    }
+
+    /** Forgets the BLOB caches serving the BLOBs of the given job. */
+    synchronized void removeJob(JobID jobId) {
+        peersByJob.remove(jobId);
+    }
+
+    @VisibleForTesting
+    synchronized int getNumberOfPeers(JobID jobId, BlobKey blobKey) {
+        final Set<InetSocketAddress> peers =
+                peersByJob.getOrDefault(jobId, Collections.emptyMap()).get(blobKey);
+        return peers == null ? 0 : peers.size();
+    }
+}
@@ -103,6 +103,9 @@ public class BlobServer extends Thread
     /** Lock guarding concurrent file accesses. */
     private final ReadWriteLock readWriteLock;
 
+    /** Transfers of permanent BLOBs and the BLOB caches serving them to other BLOB caches. */
+    private final BlobPeerRegistry peerRegistry;
+
     /** Shutdown hook thread to ensure deletion of the local storage directory. */
     private final Thread shutdownHook;
 
@@ -150,6 +153,21 @@ public class BlobServer extends Thread
             this.maxConnections = BlobServerOptions.FETCH_CONCURRENT.defaultValue();
         }
 
+        final int maxPeerTransfers =
+                config.getInteger(BlobServerOptions.PEER_DISTRIBUTION_MAX_CONCURRENT_TRANSFERS);
+        if (maxPeerTransfers >= 1) {
+            this.peerRegistry = new BlobPeerRegistry(maxPeerTransfers);
+        } else {
+            LOG.warn(
+                    "Invalid value for the maximum concurrent transfers of a BLOB: {}. Using default value of {}",
+                    maxPeerTransfers,
+                    BlobServerOptions.PEER_DISTRIBUTION_MAX_CONCURRENT_TRANSFERS.defaultValue());
+            this.peerRegistry =
+                    new BlobPeerRegistry(
+                            BlobServerOptions.PEER_DISTRIBUTION_MAX_CONCURRENT_TRANSFERS
+                                    .defaultValue());
+        }
+
         // configure the backlog of connections
         int backlog = config.getInteger(BlobServerOptions.FETCH_BACKLOG);
         if (backlog < 1) {
@@ -260,6 +278,11 @@ public class BlobServer extends Thread
         return readWriteLock;
     }
 
+    /** Returns the registry of the BLOB caches serving permanent BLOBs to other BLOB caches. */
+    BlobPeerRegistry getPeerRegistry() {
+        return peerRegistry;
+    }
+
     @Override
     public void run() {
         try {
@@ -837,6 +860,8 @@ public class BlobServer extends Thread
         final File jobDir =
                 new File(BlobUtils.getStorageLocationPath(storageDir.getAbsolutePath(), jobId));
 
+        peerRegistry.removeJob(jobId);
+
         readWriteLock.writeLock().lock();
 
         try {
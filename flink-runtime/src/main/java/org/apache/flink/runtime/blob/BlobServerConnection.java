@@ -24,6 +24,8 @@ import org.apache.flink.util.InstantiationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
@@ -31,21 +33,27 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
 import static org.apache.flink.runtime.blob.BlobKey.BlobType.PERMANENT_BLOB;
 import static org.apache.flink.runtime.blob.BlobKey.BlobType.TRANSIENT_BLOB;
+import static org.apache.flink.runtime.blob.BlobServerProtocol.ANNOUNCE_OPERATION;
 import static org.apache.flink.runtime.blob.BlobServerProtocol.BUFFER_SIZE;
 import static org.apache.flink.runtime.blob.BlobServerProtocol.GET_OPERATION;
 import static org.apache.flink.runtime.blob.BlobServerProtocol.JOB_RELATED_CONTENT;
 import static org.apache.flink.runtime.blob.BlobServerProtocol.JOB_UNRELATED_CONTENT;
+import static org.apache.flink.runtime.blob.BlobServerProtocol.PEER_GET_OPERATION;
 import static org.apache.flink.runtime.blob.BlobServerProtocol.PUT_OPERATION;
 import static org.apache.flink.runtime.blob.BlobServerProtocol.RETURN_ERROR;
 import static org.apache.flink.runtime.blob.BlobServerProtocol.RETURN_OKAY;
+import static org.apache.flink.runtime.blob.BlobServerProtocol.RETURN_REDIRECT;
 import static org.apache.flink.runtime.blob.BlobUtils.closeSilently;
 import static org.apache.flink.runtime.blob.BlobUtils.readFully;
 import static org.apache.flink.runtime.blob.BlobUtils.readLength;
@@ -110,7 +118,13 @@ class BlobServerConnection extends Thread {
                         put(inputStream, outputStream, new byte[BUFFER_SIZE]);
                         break;
                     case GET_OPERATION:
-                        get(inputStream, outputStream, new byte[BUFFER_SIZE]);
+                        get(inputStream, outputStream, new byte[BUFFER_SIZE], false);
+                        break;
+                    case PEER_GET_OPERATION:
+                        get(inputStream, outputStream, new byte[BUFFER_SIZE], true);
+                        break;
+                    case ANNOUNCE_OPERATION:
+                        announce(inputStream, outputStream);
                         break;
                     default:
                         throw new IOException("Unknown operation " + operation);
@@ -144,13 +158,19 @@ class BlobServerConnection extends Thread {
      * that we do not enforce atomicity here, i.e. multiple clients reading from the same BLOB may
      * still succeed.
      *
+     * <p>If the client allows it, a GET request for a permanent BLOB which the server already
+     * transfers too often is redirected to the BLOB caches which announced that they serve the
+     * BLOB, see {@link BlobPeerRegistry}.
+     *
      * @param inputStream the input stream to read incoming data from
      * @param outputStream the output stream to send data back to the client
      * @param buf an auxiliary buffer for data serialization/deserialization
+     * @param mayRedirect whether the client accepts a redirect to other BLOB caches
      * @throws IOException thrown if an I/O error occurs while reading/writing data from/to the
      *     respective streams
      */
-    private void get(InputStream inputStream, OutputStream outputStream, byte[] buf)
+    private void get(
+            InputStream inputStream, OutputStream outputStream, byte[] buf, boolean mayRedirect)
             throws IOException {
         /*
          * Retrieve the file from the (distributed?) BLOB store and store it
@@ -212,6 +232,40 @@ class BlobServerConnection extends Thread {
             return;
         }
 
+        if (mayRedirect && blobKey instanceof PermanentBlobKey) {
+            final BlobPeerRegistry peerRegistry = blobServer.getPeerRegistry();
+            final List<InetSocketAddress> peers =
+                    peerRegistry.startTransferOrRedirect(jobId, blobKey);
+            if (!peers.isEmpty()) {
+                LOG.debug(
+                        "Redirecting GET request for BLOB {}/{} from {} to {} BLOB caches.",
+                        jobId,
+                        blobKey,
+                        clientSocket.getInetAddress(),
+                        peers.size());
+                writeRedirectToStream(outputStream, peers);
+                return;
+            }
+
+            try {
+                sendBlob(inputStream, outputStream, buf, jobId, blobKey, blobFile);
+            } finally {
+                peerRegistry.finishTransfer(blobKey);
+            }
+        } else {
+            sendBlob(inputStream, outputStream, buf, jobId, blobKey, blobFile);
+        }
+    }
+
+    /** Sends the contents of the requested BLOB file to the client of a GET request. */
+    private void sendBlob(
+            InputStream inputStream,
+            OutputStream outputStream,
+            byte[] buf,
+            @Nullable JobID jobId,
+            BlobKey blobKey,
+            File blobFile)
+            throws IOException {
         try {
 
             readLock.lock();
@@ -291,6 +345,52 @@ class BlobServerConnection extends Thread {
         }
     }
 
+    /**
+     * Handles an incoming ANNOUNCE request from a BLOB cache which serves the given permanent BLOB
+     * on the given port to other BLOB caches.
+     *
+     * @param inputStream the input stream to read incoming data from
+     * @param outputStream the output stream to send data back to the client
+     * @throws IOException thrown if an I/O error occurs while reading/writing data from/to the
+     *     respective streams
+     */
+    private void announce(InputStream inputStream, OutputStream outputStream)
+            throws IOException {
+        try {
+            final int mode = inputStream.read();
+            if (mode < 0) {
+                throw new EOFException("Premature end of ANNOUNCE request");
+            } else if (mode != JOB_RELATED_CONTENT) {
+                throw new IOException("Unknown type of BLOB addressing: " + mode + '.');
+            }
+
+            final byte[] jidBytes = new byte[JobID.SIZE];
+            readFully(inputStream, jidBytes, 0, JobID.SIZE, "JobID");
+            final JobID jobId = JobID.fromByteArray(jidBytes);
+            final BlobKey blobKey = BlobKey.readFromInputStream(inputStream);
+            final int port = readLength(inputStream);
+
+            checkArgument(
+                    blobKey instanceof PermanentBlobKey, "Only permanent BLOBs can be announced");
+
+            final InetSocketAddress peerAddress =
+                    new InetSocketAddress(clientSocket.getInetAddress(), port);
+            LOG.debug("BLOB cache at {} serves BLOB {}/{}.", peerAddress, jobId, blobKey);
+            blobServer.getPeerRegistry().registerPeer(jobId, blobKey, peerAddress);
+
+            outputStream.write(RETURN_OKAY);
+        } catch (Throwable t) {
+            LOG.error("ANNOUNCE operation from {} failed.", clientSocket.getInetAddress(), t);
+            try {
+                writeErrorToStream(outputStream, t);
+            } catch (IOException e) {
+                // since we are in an exception case, it means that we could not send the error
+                // ignore this
+            }
+            clientSocket.close();
+        }
+    }
+
     /**
      * Handles an incoming PUT request from a BLOB client.
      *
@@ -424,10 +524,30 @@ class BlobServerConnection extends Thread {
      * @param t The exception to send.
      * @throws IOException Thrown, if the output stream could not be written to.
      */
-    private static void writeErrorToStream(OutputStream out, Throwable t) throws IOException {
+    static void writeErrorToStream(OutputStream out, Throwable t) throws IOException {
         byte[] bytes = InstantiationUtil.serializeObject(t);
         out.write(RETURN_ERROR);
         writeLength(bytes.length, out);
         out.write(bytes);
     }
+
+    /**
+     * Writes to the output stream the redirect return code, and the addresses of the BLOB caches
+     * to download the BLOB from instead.
+     *
+     * @param out The output stream to write to.
+     * @param peers The addresses of the BLOB caches.
+     * @throws IOException Thrown, if the output stream could not be written to.
+     */
+    private static void writeRedirectToStream(OutputStream out, List<InetSocketAddress> peers)
+            throws IOException {
+        out.write(RETURN_REDIRECT);
+        writeLength(peers.size(), out);
+        for (InetSocketAddress peer : peers) {
+            final byte[] host = peer.getAddress().getHostAddress().getBytes(StandardCharsets.UTF_8);
+            writeLength(host.length, out);
+            out.write(host);
+            writeLength(peer.getPort(), out);
+        }
+    }
 }
@@ -45,12 +45,30 @@ public class BlobServerProtocol {
      */
     static final byte GET_OPERATION = 1;
 
+    /**
+     * Internal code to identify a GET operation which the server may answer with {@link
+     * #RETURN_REDIRECT} instead of the BLOB's contents.
+     */
+    static final byte PEER_GET_OPERATION = 3;
+
+    /**
+     * Internal code to identify an operation with which a BLOB cache announces that it serves a
+     * permanent BLOB to other BLOB caches.
+     */
+    static final byte ANNOUNCE_OPERATION = 4;
+
     /** Internal code to identify a successful operation. */
     static final byte RETURN_OKAY = 0;
 
     /** Internal code to identify an erroneous operation. */
     static final byte RETURN_ERROR = 1;
 
+    /**
+     * Internal code to identify a response which redirects a {@link #PEER_GET_OPERATION} to the
+     * BLOB caches following in the response.
+     */
+    static final byte RETURN_REDIRECT = 2;
+
     /**
      * Internal code to identify a job-unrelated BLOBs (only for transient BLOBs!).
      *
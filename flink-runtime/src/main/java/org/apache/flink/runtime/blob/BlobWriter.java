@@ -95,11 +95,34 @@ public interface BlobWriter {
 
     static <T> Either<SerializedValue<T>, PermanentBlobKey> tryOffload(
             SerializedValue<T> serializedValue, JobID jobId, BlobWriter blobWriter) {
+        return tryOffload(serializedValue, 1, jobId, blobWriter);
+    }
+
+    /**
+     * Offloads the given serialized value to the BlobServer if the total size of the copies of it
+     * which would be shipped exceeds the minimum offloading size of the BlobServer. A value which
+     * is shipped to many receivers is offloaded even if a single copy of it is small, so that only
+     * its blob key is shipped to each receiver.
+     *
+     * @param serializedValue to offload
+     * @param numberOfCopies the number of receivers the value would be shipped to
+     * @param jobId to which the value belongs.
+     * @param blobWriter to use to offload the serialized value
+     * @param <T> type of the serialized value
+     * @return Either the serialized value or the stored blob key
+     */
+    static <T> Either<SerializedValue<T>, PermanentBlobKey> tryOffload(
+            SerializedValue<T> serializedValue,
+            int numberOfCopies,
+            JobID jobId,
+            BlobWriter blobWriter) {
         Preconditions.checkNotNull(serializedValue);
         Preconditions.checkNotNull(jobId);
         Preconditions.checkNotNull(blobWriter);
+        Preconditions.checkArgument(numberOfCopies > 0, "The number of copies must be positive.");
 
-        if (serializedValue.getByteArray().length < blobWriter.getMinOffloadingSize()) {
+        if ((long) serializedValue.getByteArray().length * numberOfCopies
+                < blobWriter.getMinOffloadingSize()) {
             return Either.Left(serializedValue);
         } else {
             try {
@@ -51,6 +51,10 @@ import static org.apache.flink.util.Preconditions.checkNotNull;
  * desired BLOB, it will try to download it from a distributed HA file system (if available) or the
  * BLOB server.
  *
+ * <p>If {@link BlobServerOptions#PEER_DISTRIBUTION_ENABLED} is set, the cache serves the BLOBs it
+ * downloaded to other caches via a {@link BlobCachePeerServer}, and the BLOB server may redirect the
+ * cache's downloads to other caches.
+ *
  * <p>If files for a job are not needed any more, they will enter a staged, i.e. deferred, cleanup.
  * Files may thus still be be accessible upon recovery and do not need to be re-downloaded.
  */
@@ -82,6 +86,9 @@ public class PermanentBlobCache extends AbstractBlobCache implements PermanentBl
 
     private final BlobCacheSizeTracker blobCacheSizeTracker;
 
+    /** Server for other BLOB caches to download BLOBs from, if peer distribution is enabled. */
+    @Nullable private final BlobCachePeerServer peerServer;
+
     /**
      * Instantiates a new cache for permanent BLOBs which are also available in an HA store.
      *
@@ -127,6 +134,14 @@ public class PermanentBlobCache extends AbstractBlobCache implements PermanentBl
                 new PermanentBlobCleanupTask(), cleanupInterval, cleanupInterval);
 
         this.blobCacheSizeTracker = blobCacheSizeTracker;
+
+        if (blobClientConfig.getBoolean(BlobServerOptions.PEER_DISTRIBUTION_ENABLED)) {
+            this.peerServer =
+                    new BlobCachePeerServer(blobClientConfig, storageDir, readWriteLock.readLock());
+            this.peerServer.start();
+        } else {
+            this.peerServer = null;
+        }
     }
 
     /**
@@ -138,6 +153,7 @@ public class PermanentBlobCache extends AbstractBlobCache implements PermanentBl
      * @param jobId ID of the job this blob belongs to
      * @see #releaseJob(JobID)
      */
+    @Override
     public void registerJob(JobID jobId) {
         checkNotNull(jobId);
 
@@ -160,6 +176,7 @@ public class PermanentBlobCache extends AbstractBlobCache implements PermanentBl
      * @param jobId ID of the job this blob belongs to
      * @see #registerJob(JobID)
      */
+    @Override
     public void releaseJob(JobID jobId) {
         checkNotNull(jobId);
 
@@ -270,17 +287,12 @@ public class PermanentBlobCache extends AbstractBlobCache implements PermanentBl
 
             if (currentServerAddress != null) {
                 // fallback: download from the BlobServer
-                BlobClient.downloadFromBlobServer(
-                        jobId,
-                        blobKey,
-                        incomingFile,
-                        currentServerAddress,
-                        blobClientConfig,
-                        numFetchRetries);
+                downloadFromBlobServer(jobId, blobKey, incomingFile, currentServerAddress);
 
                 readWriteLock.writeLock().lock();
                 try {
                     checkLimitAndMoveFile(incomingFile, jobId, blobKey, localFile, log, null);
+                    notifyDownloadedFromBlobServer(jobId, blobKey, currentServerAddress);
                     return FileUtils.readAllBytes(localFile.toPath());
                 } finally {
                     readWriteLock.writeLock().unlock();
@@ -302,6 +314,39 @@ public class PermanentBlobCache extends AbstractBlobCache implements PermanentBl
         }
     }
 
+    /**
+     * Downloads the BLOB from the BLOB server or, if peer distribution is enabled, from the BLOB
+     * caches the server redirects to.
+     */
+    @Override
+    protected void downloadFromBlobServer(
+            @Nullable JobID jobId,
+            BlobKey blobKey,
+            File incomingFile,
+            InetSocketAddress serverAddress)
+            throws IOException {
+        if (peerServer != null && jobId != null && blobKey instanceof PermanentBlobKey) {
+            BlobClient.downloadFromBlobServerOrPeers(
+                    jobId,
+                    (PermanentBlobKey) blobKey,
+                    incomingFile,
+                    serverAddress,
+                    blobClientConfig,
+                    numFetchRetries);
+        } else {
+            super.downloadFromBlobServer(jobId, blobKey, incomingFile, serverAddress);
+        }
+    }
+
+    /** Announces a downloaded BLOB to the BLOB server, if peer distribution is enabled. */
+    @Override
+    protected void notifyDownloadedFromBlobServer(
+            @Nullable JobID jobId, BlobKey blobKey, InetSocketAddress serverAddress) {
+        if (peerServer != null && jobId != null && blobKey instanceof PermanentBlobKey) {
+            peerServer.announce(jobId, (PermanentBlobKey) blobKey, serverAddress);
+        }
+    }
+
     private void checkLimitAndMoveFile(
             File incomingFile,
             JobID jobId,
@@ -436,4 +481,24 @@ public class PermanentBlobCache extends AbstractBlobCache implements PermanentBl
     protected void cancelCleanupTask() {
         cleanupTimer.cancel();
     }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (peerServer != null) {
+                peerServer.close();
+            }
+        } finally {
+            super.close();
+        }
+    }
+
+    /**
+     * Returns the port of the server for other BLOB caches, or <tt>-1</tt> if peer distribution is
+     * disabled.
+     */
+    @VisibleForTesting
+    int getPeerServerPort() {
+        return peerServer != null ? peerServer.getPort() : -1;
+    }
 }
@@ -66,4 +66,22 @@ public interface PermanentBlobService extends Closeable {
         // by other threads while reading the contents.
         return FileUtils.readAllBytes(getFile(jobId, key).toPath());
     }
+
+    /**
+     * Registers use of the BLOBs of the given job, so that they are not cleaned up before the
+     * matching call to {@link #releaseJob(JobID)}.
+     *
+     * <p>Services which retain the BLOBs of a job until it is cleaned up explicitly do not need to
+     * track the registrations.
+     *
+     * @param jobId ID of the job the BLOBs belong to
+     */
+    default void registerJob(JobID jobId) {}
+
+    /**
+     * Unregisters use of the BLOBs of the given job, see {@link #registerJob(JobID)}.
+     *
+     * @param jobId ID of the job the BLOBs belong to
+     */
+    default void releaseJob(JobID jobId) {}
 }
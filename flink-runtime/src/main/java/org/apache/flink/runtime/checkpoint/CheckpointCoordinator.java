@@ -214,6 +214,9 @@ public class CheckpointCoordinator {
     /** Id of checkpoint for which in-flight data should be ignored on recovery. */
     private final long checkpointIdOfIgnoredInFlightData;
 
+    /** The format version in which the metadata of checkpoints and savepoints is written. */
+    private final int metadataFormatVersion;
+
     private final CheckpointFailureManager failureManager;
 
     private final Clock clock;
@@ -318,6 +321,7 @@ public class CheckpointCoordinator {
         this.unalignedCheckpointsEnabled = chkConfig.isUnalignedCheckpointsEnabled();
         this.alignedCheckpointTimeout = chkConfig.getAlignedCheckpointTimeout();
         this.checkpointIdOfIgnoredInFlightData = chkConfig.getCheckpointIdOfIgnoredInFlightData();
+        this.metadataFormatVersion = chkConfig.getMetadataFormatVersion();
 
         this.recentPendingCheckpoints = new ArrayDeque<>(NUM_GHOST_CHECKPOINT_IDS);
         this.masterHooks = new HashMap<>();
@@ -768,7 +772,8 @@ public class CheckpointCoordinator {
                         masterHooks.keySet(),
                         props,
                         checkpointStorageLocation,
-                        onCompletionPromise);
+                        onCompletionPromise,
+                        metadataFormatVersion);
 
         trackPendingCheckpointStats(checkpoint);
 
@@ -1058,6 +1063,8 @@ public class CheckpointCoordinator {
 
         final long checkpointId = message.getCheckpointId();
 
+        final PendingCheckpoint checkpoint;
+        final SharedStateRegistry stateRegistry;
         synchronized (lock) {
             // we need to check inside the lock for being shutdown as well, otherwise we
             // get races and invalid error log messages
@@ -1065,76 +1072,10 @@ public class CheckpointCoordinator {
                 return false;
             }
 
-            final PendingCheckpoint checkpoint = pendingCheckpoints.get(checkpointId);
-
-            if (checkpoint != null && !checkpoint.isDisposed()) {
-
-                switch (checkpoint.acknowledgeTask(
-                        message.getTaskExecutionId(),
-                        message.getSubtaskState(),
-                        message.getCheckpointMetrics(),
-                        getStatsCallback(checkpoint))) {
-                    case SUCCESS:
-                        LOG.debug(
-                                "Received acknowledge message for checkpoint {} from task {} of job {} at {}.",
-                                checkpointId,
-                                message.getTaskExecutionId(),
-                                message.getJob(),
-                                taskManagerLocationInfo);
-
-                        if (checkpoint.isFullyAcknowledged()) {
-                            completePendingCheckpoint(checkpoint);
-                        }
-                        break;
-                    case DUPLICATE:
-                        LOG.debug(
-                                "Received a duplicate acknowledge message for checkpoint {}, task {}, job {}, location {}.",
-                                message.getCheckpointId(),
-                                message.getTaskExecutionId(),
-                                message.getJob(),
-                                taskManagerLocationInfo);
-                        break;
-                    case UNKNOWN:
-                        LOG.warn(
-                                "Could not acknowledge the checkpoint {} for task {} of job {} at {}, "
-                                        + "because the task's execution attempt id was unknown. Discarding "
-                                        + "the state handle to avoid lingering state.",
-                                message.getCheckpointId(),
-                                message.getTaskExecutionId(),
-                                message.getJob(),
-                                taskManagerLocationInfo);
-
-                        discardSubtaskState(
-                                message.getJob(),
-                                message.getTaskExecutionId(),
-                                message.getCheckpointId(),
-                                message.getSubtaskState());
-
-                        break;
-                    case DISCARDED:
-                        LOG.warn(
-                                "Could not acknowledge the checkpoint {} for task {} of job {} at {}, "
-                                        + "because the pending checkpoint had been discarded. Discarding the "
-                                        + "state handle tp avoid lingering state.",
-                                message.getCheckpointId(),
-                                message.getTaskExecutionId(),
-                                message.getJob(),
-                                taskManagerLocationInfo);
-
-                        discardSubtaskState(
-                                message.getJob(),
-                                message.getTaskExecutionId(),
-                                message.getCheckpointId(),
-                                message.getSubtaskState());
-                }
+            checkpoint = pendingCheckpoints.get(checkpointId);
+            stateRegistry = sharedStateRegistry;
 
-                return true;
-            } else if (checkpoint != null) {
-                // this should not happen
-                throw new IllegalStateException(
-                        "Received message for discarded but non-removed checkpoint "
-                                + checkpointId);
-            } else {
+            if (checkpoint == null) {
                 reportStats(
                         message.getCheckpointId(),
                         message.getTaskExecutionId(),
@@ -1169,6 +1110,103 @@ public class CheckpointCoordinator {
                         message.getSubtaskState());
 
                 return wasPendingCheckpoint;
+            } else if (checkpoint.isDisposed()) {
+                // this should not happen
+                throw new IllegalStateException(
+                        "Received message for discarded but non-removed checkpoint "
+                                + checkpointId);
+            }
+        }
+
+        // The acknowledgement only needs the lock of the pending checkpoint, so that the
+        // acknowledgements of many tasks are not serialized on the coordinator-wide lock. If the
+        // checkpoint is aborted concurrently, the acknowledgement is reported as DISCARDED.
+        switch (checkpoint.acknowledgeTask(
+                message.getTaskExecutionId(),
+                message.getSubtaskState(),
+                message.getCheckpointMetrics(),
+                getStatsCallback(checkpoint))) {
+            case SUCCESS:
+                LOG.debug(
+                        "Received acknowledge message for checkpoint {} from task {} of job {} at {}.",
+                        checkpointId,
+                        message.getTaskExecutionId(),
+                        message.getJob(),
+                        taskManagerLocationInfo);
+
+                if (checkpoint.isFullyAcknowledged()) {
+                    completeAcknowledgedCheckpoint(checkpoint, stateRegistry);
+                }
+                break;
+            case DUPLICATE:
+                LOG.debug(
+                        "Received a duplicate acknowledge message for checkpoint {}, task {}, job {}, location {}.",
+                        message.getCheckpointId(),
+                        message.getTaskExecutionId(),
+                        message.getJob(),
+                        taskManagerLocationInfo);
+                break;
+            case UNKNOWN:
+                LOG.warn(
+                        "Could not acknowledge the checkpoint {} for task {} of job {} at {}, "
+                                + "because the task's execution attempt id was unknown. Discarding "
+                                + "the state handle to avoid lingering state.",
+                        message.getCheckpointId(),
+                        message.getTaskExecutionId(),
+                        message.getJob(),
+                        taskManagerLocationInfo);
+
+                discardSubtaskState(
+                        message.getJob(),
+                        message.getTaskExecutionId(),
+                        message.getCheckpointId(),
+                        message.getSubtaskState());
+
+                break;
+            case DISCARDED:
+                LOG.warn(
+                        "Could not acknowledge the checkpoint {} for task {} of job {} at {}, "
+                                + "because the pending checkpoint had been discarded. Discarding the "
+                                + "state handle tp avoid lingering state.",
+                        message.getCheckpointId(),
+                        message.getTaskExecutionId(),
+                        message.getJob(),
+                        taskManagerLocationInfo);
+
+                discardSubtaskState(
+                        message.getJob(),
+                        message.getTaskExecutionId(),
+                        message.getCheckpointId(),
+                        message.getSubtaskState());
+        }
+
+        return true;
+    }
+
+    /**
+     * Completes a pending checkpoint after its last acknowledgement was received. The state of the
+     * checkpoint is registered before taking the coordinator-wide lock, so the registration does
+     * not block the acknowledgements of other checkpoints or the triggering of new ones.
+     *
+     * @param pendingCheckpoint the fully acknowledged checkpoint
+     * @param stateRegistry the registry to register the state of the checkpoint with
+     * @throws CheckpointException if the completion failed
+     */
+    private void completeAcknowledgedCheckpoint(
+            PendingCheckpoint pendingCheckpoint, SharedStateRegistry stateRegistry)
+            throws CheckpointException {
+        if (!pendingCheckpoint.registerSharedStates(stateRegistry)) {
+            // aborted in the meantime
+            return;
+        }
+
+        synchronized (lock) {
+            // another acknowledgement or an abort may have come first
+            if (!shutdown
+                    && !pendingCheckpoint.isDisposed()
+                    && pendingCheckpoints.get(pendingCheckpoint.getCheckpointId())
+                            == pendingCheckpoint) {
+                completePendingCheckpoint(pendingCheckpoint);
             }
         }
     }
@@ -1186,9 +1224,9 @@ public class CheckpointCoordinator {
         final long checkpointId = pendingCheckpoint.getCheckpointId();
         final CompletedCheckpoint completedCheckpoint;
 
-        // As a first step to complete the checkpoint, we register its state with the registry
-        Map<OperatorID, OperatorState> operatorStates = pendingCheckpoint.getOperatorStates();
-        sharedStateRegistry.registerAll(operatorStates.values());
+        // As a first step to complete the checkpoint, we register its state with the registry,
+        // unless that was already done when the last acknowledgement was received
+        pendingCheckpoint.registerSharedStates(sharedStateRegistry);
 
         try {
             try {
@@ -25,6 +25,7 @@ import org.apache.flink.runtime.checkpoint.metadata.CheckpointMetadata;
 import org.apache.flink.runtime.checkpoint.metadata.MetadataSerializer;
 import org.apache.flink.runtime.checkpoint.metadata.MetadataSerializers;
 import org.apache.flink.runtime.checkpoint.metadata.MetadataV3Serializer;
+import org.apache.flink.runtime.checkpoint.metadata.MetadataV4Serializer;
 import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.jobgraph.OperatorID;
@@ -52,7 +53,9 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Predicate;
 
+import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
 /**
@@ -71,6 +74,9 @@ public class Checkpoints {
     /** Magic number at the beginning of every checkpoint metadata file, for sanity checks. */
     public static final int HEADER_MAGIC_NUMBER = 0x4960672d;
 
+    /** The format version in which checkpoint metadata is written, unless configured otherwise. */
+    public static final int DEFAULT_METADATA_FORMAT_VERSION = MetadataV3Serializer.VERSION;
+
     // ------------------------------------------------------------------------
     //  Writing out checkpoint metadata
     // ------------------------------------------------------------------------
@@ -84,12 +90,48 @@ public class Checkpoints {
 
     public static void storeCheckpointMetadata(
             CheckpointMetadata checkpointMetadata, DataOutputStream out) throws IOException {
+        storeCheckpointMetadata(checkpointMetadata, out, DEFAULT_METADATA_FORMAT_VERSION);
+    }
+
+    public static void storeCheckpointMetadata(
+            CheckpointMetadata checkpointMetadata, OutputStream out, int formatVersion)
+            throws IOException {
+
+        DataOutputStream dos = new DataOutputStream(out);
+        storeCheckpointMetadata(checkpointMetadata, dos, formatVersion);
+    }
+
+    /**
+     * Writes the checkpoint metadata in the given format version, which must be one of {@link
+     * #isSupportedMetadataFormatVersion(int) the versions that can be written}.
+     */
+    public static void storeCheckpointMetadata(
+            CheckpointMetadata checkpointMetadata, DataOutputStream out, int formatVersion)
+            throws IOException {
+        checkArgument(
+                isSupportedMetadataFormatVersion(formatVersion),
+                "Checkpoint metadata can not be written in format version %s.",
+                formatVersion);
 
         // write generic header
         out.writeInt(HEADER_MAGIC_NUMBER);
 
-        out.writeInt(MetadataV3Serializer.VERSION);
-        MetadataV3Serializer.serialize(checkpointMetadata, out);
+        out.writeInt(formatVersion);
+        if (formatVersion == MetadataV4Serializer.VERSION) {
+            MetadataV4Serializer.serialize(checkpointMetadata, out);
+        } else {
+            MetadataV3Serializer.serialize(checkpointMetadata, out);
+        }
+    }
+
+    /**
+     * Checks whether checkpoint metadata can be written in the given format version. Version 3 is
+     * the default, version 4 compresses the state of each operator separately and can only be read
+     * by Flink versions that know it.
+     */
+    public static boolean isSupportedMetadataFormatVersion(int formatVersion) {
+        return formatVersion == MetadataV3Serializer.VERSION
+                || formatVersion == MetadataV4Serializer.VERSION;
     }
 
     // ------------------------------------------------------------------------
@@ -99,6 +141,20 @@ public class Checkpoints {
     public static CheckpointMetadata loadCheckpointMetadata(
             DataInputStream in, ClassLoader classLoader, String externalPointer)
             throws IOException {
+        return loadCheckpointMetadata(in, classLoader, externalPointer, operatorId -> true);
+    }
+
+    /**
+     * Loads the checkpoint metadata, keeping only the state of the operators accepted by the given
+     * filter. Depending on the format version, the state of the other operators is not even
+     * deserialized.
+     */
+    public static CheckpointMetadata loadCheckpointMetadata(
+            DataInputStream in,
+            ClassLoader classLoader,
+            String externalPointer,
+            Predicate<OperatorID> operatorFilter)
+            throws IOException {
         checkNotNull(in, "input stream");
         checkNotNull(classLoader, "classLoader");
 
@@ -107,7 +163,7 @@ public class Checkpoints {
         if (magicNumber == HEADER_MAGIC_NUMBER) {
             final int version = in.readInt();
             final MetadataSerializer serializer = MetadataSerializers.getSerializer(version);
-            return serializer.deserialize(in, classLoader, externalPointer);
+            return serializer.deserialize(in, classLoader, externalPointer, operatorFilter);
         } else {
             throw new IOException(
                     "Unexpected magic number. This can have multiple reasons: "
@@ -133,13 +189,6 @@ public class Checkpoints {
         final StreamStateHandle metadataHandle = location.getMetadataHandle();
         final String checkpointPointer = location.getExternalPointer();
 
-        // (1) load the savepoint
-        final CheckpointMetadata checkpointMetadata;
-        try (InputStream in = metadataHandle.openInputStream()) {
-            DataInputStream dis = new DataInputStream(in);
-            checkpointMetadata = loadCheckpointMetadata(dis, classLoader, checkpointPointer);
-        }
-
         // generate mapping from operator to task
         Map<OperatorID, ExecutionJobVertex> operatorToJobVertexMapping = new HashMap<>();
         for (ExecutionJobVertex task : tasks.values()) {
@@ -151,6 +200,26 @@ public class Checkpoints {
             }
         }
 
+        // the state of operators that are not in the program anymore is only needed to check
+        // that it is empty, unless non-restored state is allowed anyway
+        final Predicate<OperatorID> operatorFilter =
+                operatorId -> {
+                    if (allowNonRestoredState
+                            && !operatorToJobVertexMapping.containsKey(operatorId)) {
+                        LOG.info("Skipping savepoint state for operator {}.", operatorId);
+                        return false;
+                    }
+                    return true;
+                };
+
+        // (1) load the savepoint
+        final CheckpointMetadata checkpointMetadata;
+        try (InputStream in = metadataHandle.openInputStream()) {
+            DataInputStream dis = new DataInputStream(in);
+            checkpointMetadata =
+                    loadCheckpointMetadata(dis, classLoader, checkpointPointer, operatorFilter);
+        }
+
         // (2) validate it (parallelism, etc)
         HashMap<OperatorID, OperatorState> operatorStates =
                 new HashMap<>(checkpointMetadata.getOperatorStates().size());
@@ -180,9 +249,6 @@ public class Checkpoints {
 
                     throw new IllegalStateException(msg);
                 }
-            } else if (allowNonRestoredState) {
-                LOG.info(
-                        "Skipping savepoint state for operator {}.", operatorState.getOperatorID());
             } else {
                 if (operatorState.getCoordinatorState() != null) {
                     throwNonRestoredStateException(
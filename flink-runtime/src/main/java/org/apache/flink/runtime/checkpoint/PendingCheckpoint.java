@@ -32,6 +32,7 @@ import org.apache.flink.runtime.state.CheckpointMetadataOutputStream;
 import org.apache.flink.runtime.state.CheckpointStorageLocation;
 import org.apache.flink.runtime.state.CompletedCheckpointStorageLocation;
 import org.apache.flink.runtime.state.OperatorStateHandle;
+import org.apache.flink.runtime.state.SharedStateRegistry;
 import org.apache.flink.runtime.state.StateUtil;
 import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
 import org.apache.flink.util.ExceptionUtils;
@@ -122,12 +123,18 @@ public class PendingCheckpoint implements Checkpoint {
     /** The promise to fulfill once the checkpoint has been completed. */
     private final CompletableFuture<CompletedCheckpoint> onCompletionPromise;
 
+    /** The format version in which the checkpoint metadata is written. */
+    private final int metadataFormatVersion;
+
     private int numAcknowledgedTasks;
 
     private boolean disposed;
 
     private boolean discarded;
 
+    /** Whether the state was registered with the shared state registry of the coordinator. */
+    private boolean sharedStatesRegistered;
+
     private volatile ScheduledFuture<?> cancellerHandle;
 
     private CheckpointException failureCause;
@@ -144,6 +151,30 @@ public class PendingCheckpoint implements Checkpoint {
             CheckpointProperties props,
             CheckpointStorageLocation targetLocation,
             CompletableFuture<CompletedCheckpoint> onCompletionPromise) {
+        this(
+                jobId,
+                checkpointId,
+                checkpointTimestamp,
+                checkpointPlan,
+                operatorCoordinatorsToConfirm,
+                masterStateIdentifiers,
+                props,
+                targetLocation,
+                onCompletionPromise,
+                Checkpoints.DEFAULT_METADATA_FORMAT_VERSION);
+    }
+
+    public PendingCheckpoint(
+            JobID jobId,
+            long checkpointId,
+            long checkpointTimestamp,
+            CheckpointPlan checkpointPlan,
+            Collection<OperatorID> operatorCoordinatorsToConfirm,
+            Collection<String> masterStateIdentifiers,
+            CheckpointProperties props,
+            CheckpointStorageLocation targetLocation,
+            CompletableFuture<CompletedCheckpoint> onCompletionPromise,
+            int metadataFormatVersion) {
 
         checkArgument(
                 checkpointPlan.getTasksToWaitFor().size() > 0,
@@ -184,6 +215,7 @@ public class PendingCheckpoint implements Checkpoint {
         this.vertexOperatorsFinishedTasksCount = new IdentityHashMap<>();
 
         this.onCompletionPromise = checkNotNull(onCompletionPromise);
+        this.metadataFormatVersion = metadataFormatVersion;
     }
 
     // --------------------------------------------------------------------------------------------
@@ -355,7 +387,7 @@ public class PendingCheckpoint implements Checkpoint {
 
                 try (CheckpointMetadataOutputStream out =
                         targetLocation.createMetadataOutputStream()) {
-                    Checkpoints.storeCheckpointMetadata(savepoint, out);
+                    Checkpoints.storeCheckpointMetadata(savepoint, out, metadataFormatVersion);
                     finalizedLocation = out.closeAndFinalizeCheckpoint();
                 }
 
@@ -690,6 +722,28 @@ public class PendingCheckpoint implements Checkpoint {
         }
     }
 
+    /**
+     * Registers the state of this checkpoint with the given registry, unless that was done before.
+     * Must only be called once the checkpoint is fully acknowledged, i.e. its state does not change
+     * anymore. Registering under the lock of this checkpoint makes sure that a concurrent abort
+     * either prevents the registration or discards the registered state through the registry.
+     *
+     * @param sharedStateRegistry the registry to register the state with
+     * @return false if the checkpoint was disposed and its state was not registered
+     */
+    public boolean registerSharedStates(SharedStateRegistry sharedStateRegistry) {
+        synchronized (lock) {
+            if (disposed) {
+                return false;
+            }
+            if (!sharedStatesRegistered) {
+                sharedStateRegistry.registerAll(operatorStates.values());
+                sharedStatesRegistered = true;
+            }
+            return true;
+        }
+    }
+
     // ------------------------------------------------------------------------
     //  Cancellation
     // ------------------------------------------------------------------------
@@ -31,6 +31,7 @@ import javax.annotation.Nonnull;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -305,21 +306,14 @@ public class PrioritizedOperatorSubtaskState {
                         BiFunction<T, T, Boolean> approveFun) {
 
             // Nothing to resolve if there are no alternatives, or the ground truth has already no
-            // state, or if we can
-            // assume that a rescaling happened because we find more than one handle in the JM state
-            // (this is more a sanity
-            // check).
+            // state.
             if (alternativesByPriority == null
                     || alternativesByPriority.isEmpty()
-                    || !jobManagerState.hasState()
-                    || jobManagerState.size() != 1) {
+                    || !jobManagerState.hasState()) {
 
                 return Collections.singletonList(jobManagerState);
             }
 
-            // As we know size is == 1
-            T reference = jobManagerState.iterator().next();
-
             // This will contain the end result, we initialize it with the potential max. size.
             List<StateObjectCollection<T>> approved =
                     new ArrayList<>(1 + alternativesByPriority.size());
@@ -327,13 +321,13 @@ public class PrioritizedOperatorSubtaskState {
             for (StateObjectCollection<T> alternative : alternativesByPriority) {
 
                 // We found an alternative to the JM state if it has state, we have a 1:1
-                // relationship, and the
-                // approve-function signaled true.
+                // relationship between the handles, and the approve-function signaled true for
+                // each pair of handles. If the job was rescaled, the JM state has several handles
+                // and only alternatives which were assembled for the new key-groups match them.
                 if (alternative != null
                         && alternative.hasState()
-                        && alternative.size() == 1
-                        && BooleanUtils.isTrue(
-                                approveFun.apply(reference, alternative.iterator().next()))) {
+                        && alternative.size() == jobManagerState.size()
+                        && approveAll(jobManagerState, alternative, approveFun)) {
 
                     approved.add(alternative);
                 }
@@ -345,6 +339,19 @@ public class PrioritizedOperatorSubtaskState {
         }
     }
 
+    private static <T extends StateObject> boolean approveAll(
+            StateObjectCollection<T> references,
+            StateObjectCollection<T> alternatives,
+            BiFunction<T, T, Boolean> approveFun) {
+        final Iterator<T> alternativeIterator = alternatives.iterator();
+        for (T reference : references) {
+            if (!BooleanUtils.isTrue(approveFun.apply(reference, alternativeIterator.next()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static <T, E> BiFunction<T, T, Boolean> eqStateApprover(
             Function<T, E> identityExtractor) {
         return (ref, alt) -> identityExtractor.apply(ref).equals(identityExtractor.apply(alt));
@@ -20,10 +20,13 @@ package org.apache.flink.runtime.checkpoint.channel;
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.runtime.checkpoint.CheckpointOptions;
 import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.state.CheckpointStorageLocationReference;
 import org.apache.flink.runtime.state.CheckpointStorageWorkerView;
 import org.apache.flink.runtime.state.CheckpointStreamFactory;
 import org.apache.flink.util.CloseableIterator;
+import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.Preconditions;
+import org.apache.flink.util.concurrent.FutureUtils;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,12 +34,20 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.concurrent.ThreadSafe;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.apache.flink.runtime.checkpoint.channel.ChannelStateWriteRequest.completeInput;
 import static org.apache.flink.runtime.checkpoint.channel.ChannelStateWriteRequest.completeOutput;
 import static org.apache.flink.runtime.checkpoint.channel.ChannelStateWriteRequest.write;
+import static org.apache.flink.util.Preconditions.checkArgument;
 
 /**
  * {@link ChannelStateWriter} implemented using {@link
@@ -50,6 +61,12 @@ import static org.apache.flink.runtime.checkpoint.channel.ChannelStateWriteReque
  *       and increases complexity
  * </ul>
  *
+ * <p>If the in-flight data is too large to be written by one thread within the checkpoint
+ * timeout, the writer can be created with several writer threads. Each thread then has its own
+ * {@link ChannelStateWriteRequestExecutor executor} and its own stream per checkpoint. Every
+ * channel is assigned to one of the threads, so that the buffers of a channel are written in
+ * order, and the results of all threads are combined into the result of the checkpoint.
+ *
  * <p>Thread-safety: this class is thread-safe when used with a thread-safe {@link
  * ChannelStateWriteRequestExecutor executor} (e.g. default {@link
  * ChannelStateWriteRequestExecutorImpl}.
@@ -64,7 +81,7 @@ public class ChannelStateWriterImpl implements ChannelStateWriter {
     // mailbox)
 
     private final String taskName;
-    private final ChannelStateWriteRequestExecutor executor;
+    private final List<ChannelStateWriteRequestExecutor> executors;
     private final ConcurrentMap<Long, ChannelStateWriteResult> results;
     private final int maxCheckpoints;
 
@@ -74,33 +91,48 @@ public class ChannelStateWriterImpl implements ChannelStateWriter {
      */
     public ChannelStateWriterImpl(
             String taskName, int subtaskIndex, CheckpointStorageWorkerView streamFactoryResolver) {
-        this(taskName, subtaskIndex, streamFactoryResolver, DEFAULT_MAX_CHECKPOINTS);
+        this(taskName, subtaskIndex, streamFactoryResolver, 1);
+    }
+
+    /**
+     * Creates a {@link ChannelStateWriterImpl} with {@link #DEFAULT_MAX_CHECKPOINTS} as {@link
+     * #maxCheckpoints} and the given number of writer threads.
+     */
+    public ChannelStateWriterImpl(
+            String taskName,
+            int subtaskIndex,
+            CheckpointStorageWorkerView streamFactoryResolver,
+            int numWriterThreads) {
+        this(
+                taskName,
+                subtaskIndex,
+                streamFactoryResolver,
+                DEFAULT_MAX_CHECKPOINTS,
+                numWriterThreads);
     }
 
     /**
      * Creates a {@link ChannelStateWriterImpl} with {@link ChannelStateSerializerImpl default}
-     * {@link ChannelStateSerializer}, and a {@link ChannelStateWriteRequestExecutorImpl}.
+     * {@link ChannelStateSerializer}, and a {@link ChannelStateWriteRequestExecutorImpl} per writer
+     * thread.
      *
      * @param taskName
      * @param streamFactoryResolver a factory to obtain output stream factory for a given checkpoint
      * @param maxCheckpoints maximum number of checkpoints to be written currently or finished but
      *     not taken yet.
+     * @param numWriterThreads the number of threads that write the channel state, each to its own
+     *     stream.
      */
     ChannelStateWriterImpl(
             String taskName,
             int subtaskIndex,
             CheckpointStorageWorkerView streamFactoryResolver,
-            int maxCheckpoints) {
+            int maxCheckpoints,
+            int numWriterThreads) {
         this(
                 taskName,
                 new ConcurrentHashMap<>(maxCheckpoints),
-                new ChannelStateWriteRequestExecutorImpl(
-                        taskName,
-                        new ChannelStateWriteRequestDispatcherImpl(
-                                taskName,
-                                subtaskIndex,
-                                streamFactoryResolver,
-                                new ChannelStateSerializerImpl())),
+                createExecutors(taskName, subtaskIndex, streamFactoryResolver, numWriterThreads),
                 maxCheckpoints);
     }
 
@@ -109,10 +141,39 @@ public class ChannelStateWriterImpl implements ChannelStateWriter {
             ConcurrentMap<Long, ChannelStateWriteResult> results,
             ChannelStateWriteRequestExecutor executor,
             int maxCheckpoints) {
+        this(taskName, results, Collections.singletonList(executor), maxCheckpoints);
+    }
+
+    ChannelStateWriterImpl(
+            String taskName,
+            ConcurrentMap<Long, ChannelStateWriteResult> results,
+            List<ChannelStateWriteRequestExecutor> executors,
+            int maxCheckpoints) {
+        checkArgument(!executors.isEmpty(), "At least one executor is required.");
         this.taskName = taskName;
         this.results = results;
         this.maxCheckpoints = maxCheckpoints;
-        this.executor = executor;
+        this.executors = executors;
+    }
+
+    private static List<ChannelStateWriteRequestExecutor> createExecutors(
+            String taskName,
+            int subtaskIndex,
+            CheckpointStorageWorkerView streamFactoryResolver,
+            int numWriterThreads) {
+        checkArgument(numWriterThreads > 0, "The number of writer threads must be positive.");
+        List<ChannelStateWriteRequestExecutor> executors = new ArrayList<>(numWriterThreads);
+        for (int i = 0; i < numWriterThreads; i++) {
+            executors.add(
+                    new ChannelStateWriteRequestExecutorImpl(
+                            numWriterThreads == 1 ? taskName : taskName + " (" + i + ")",
+                            new ChannelStateWriteRequestDispatcherImpl(
+                                    taskName,
+                                    subtaskIndex,
+                                    streamFactoryResolver,
+                                    new ChannelStateSerializerImpl())));
+        }
+        return executors;
     }
 
     @Override
@@ -131,12 +192,8 @@ public class ChannelStateWriterImpl implements ChannelStateWriter {
                                             checkpointId,
                                             results.size(),
                                             maxCheckpoints));
-                            enqueue(
-                                    new CheckpointStartRequest(
-                                            checkpointId,
-                                            result,
-                                            checkpointOptions.getTargetLocation()),
-                                    false);
+                            startWriters(
+                                    checkpointId, result, checkpointOptions.getTargetLocation());
                             return result;
                         });
         Preconditions.checkArgument(
@@ -156,7 +213,10 @@ public class ChannelStateWriterImpl implements ChannelStateWriter {
                 checkpointId,
                 info,
                 startSeqNum);
-        enqueue(write(checkpointId, info, iterator), false);
+        enqueue(
+                executorFor(info.getGateIdx(), info.getInputChannelIdx()),
+                write(checkpointId, info, iterator),
+                false);
     }
 
     @Override
@@ -169,27 +229,32 @@ public class ChannelStateWriterImpl implements ChannelStateWriter {
                 info,
                 startSeqNum,
                 data == null ? 0 : data.length);
-        enqueue(write(checkpointId, info, data), false);
+        enqueue(
+                executorFor(info.getPartitionIdx(), info.getSubPartitionIdx()),
+                write(checkpointId, info, data),
+                false);
     }
 
     @Override
     public void finishInput(long checkpointId) {
         LOG.debug("{} finishing input data, checkpoint {}", taskName, checkpointId);
-        enqueue(completeInput(checkpointId), false);
+        enqueueToAll(() -> completeInput(checkpointId), false);
     }
 
     @Override
     public void finishOutput(long checkpointId) {
         LOG.debug("{} finishing output data, checkpoint {}", taskName, checkpointId);
-        enqueue(completeOutput(checkpointId), false);
+        enqueueToAll(() -> completeOutput(checkpointId), false);
     }
 
     @Override
     public void abort(long checkpointId, Throwable cause, boolean cleanup) {
         LOG.debug("{} aborting, checkpoint {}", taskName, checkpointId);
-        enqueue(ChannelStateWriteRequest.abort(checkpointId, cause), true); // abort already started
-        enqueue(
-                ChannelStateWriteRequest.abort(checkpointId, cause),
+        enqueueToAll(
+                () -> ChannelStateWriteRequest.abort(checkpointId, cause),
+                true); // abort already started
+        enqueueToAll(
+                () -> ChannelStateWriteRequest.abort(checkpointId, cause),
                 false); // abort enqueued but not started
         if (cleanup) {
             results.remove(checkpointId);
@@ -207,17 +272,112 @@ public class ChannelStateWriterImpl implements ChannelStateWriter {
     }
 
     public void open() {
-        executor.start();
+        for (ChannelStateWriteRequestExecutor executor : executors) {
+            executor.start();
+        }
     }
 
     @Override
     public void close() throws IOException {
         LOG.debug("close, dropping checkpoints {}", results.keySet());
         results.clear();
-        executor.close();
+        IOException exception = null;
+        for (ChannelStateWriteRequestExecutor executor : executors) {
+            try {
+                executor.close();
+            } catch (IOException e) {
+                exception = ExceptionUtils.firstOrSuppressed(e, exception);
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private void startWriters(
+            long checkpointId,
+            ChannelStateWriteResult result,
+            CheckpointStorageLocationReference locationReference) {
+        if (executors.size() == 1) {
+            enqueue(
+                    executors.get(0),
+                    new CheckpointStartRequest(checkpointId, result, locationReference),
+                    false);
+            return;
+        }
+
+        List<ChannelStateWriteResult> writerResults = new ArrayList<>(executors.size());
+        for (int i = 0; i < executors.size(); i++) {
+            writerResults.add(new ChannelStateWriteResult());
+        }
+        combineResults(
+                result.inputChannelStateHandles,
+                writerResults,
+                writerResult -> writerResult.inputChannelStateHandles);
+        combineResults(
+                result.resultSubpartitionStateHandles,
+                writerResults,
+                writerResult -> writerResult.resultSubpartitionStateHandles);
+        for (int i = 0; i < executors.size(); i++) {
+            enqueue(
+                    executors.get(i),
+                    new CheckpointStartRequest(
+                            checkpointId, writerResults.get(i), locationReference),
+                    false);
+        }
     }
 
-    private void enqueue(ChannelStateWriteRequest request, boolean atTheFront) {
+    /**
+     * Completes the target with the handles of all writer threads once all of them are done. If
+     * the target fails first, e.g. because one of the writers failed, the remaining writers fail as
+     * well, so that they stop writing.
+     */
+    private static <H> void combineResults(
+            CompletableFuture<Collection<H>> target,
+            List<ChannelStateWriteResult> writerResults,
+            Function<ChannelStateWriteResult, CompletableFuture<Collection<H>>> handlesOf) {
+        List<CompletableFuture<Collection<H>>> writerHandles = new ArrayList<>();
+        for (ChannelStateWriteResult writerResult : writerResults) {
+            writerHandles.add(handlesOf.apply(writerResult));
+        }
+        FutureUtils.combineAll(writerHandles)
+                .whenComplete(
+                        (handles, throwable) -> {
+                            if (throwable != null) {
+                                target.completeExceptionally(
+                                        ExceptionUtils.stripCompletionException(throwable));
+                            } else {
+                                List<H> combined = new ArrayList<>();
+                                handles.forEach(combined::addAll);
+                                target.complete(combined);
+                            }
+                        });
+        target.whenComplete(
+                (handles, throwable) -> {
+                    if (throwable != null) {
+                        writerResults.forEach(writerResult -> writerResult.fail(throwable));
+                    }
+                });
+    }
+
+    /**
+     * Gets the executor of the channel with the given indices. All buffers of a channel go to the
+     * same executor, so that they are written in order.
+     */
+    private ChannelStateWriteRequestExecutor executorFor(int gateOrPartitionIdx, int channelIdx) {
+        return executors.get(Math.floorMod(31 * gateOrPartitionIdx + channelIdx, executors.size()));
+    }
+
+    private void enqueueToAll(Supplier<ChannelStateWriteRequest> requests, boolean atTheFront) {
+        for (ChannelStateWriteRequestExecutor executor : executors) {
+            enqueue(executor, requests.get(), atTheFront);
+        }
+    }
+
+    private void enqueue(
+            ChannelStateWriteRequestExecutor executor,
+            ChannelStateWriteRequest request,
+            boolean atTheFront) {
         // state check and previous errors check are performed inside the worker
         try {
             if (atTheFront) {
@@ -19,9 +19,12 @@
 package org.apache.flink.runtime.checkpoint.metadata;
 
 import org.apache.flink.core.io.Versioned;
+import org.apache.flink.runtime.jobgraph.OperatorID;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * Deserializer for checkpoint metadata. Different deserializers exist to deserialize from different
@@ -43,4 +46,31 @@ public interface MetadataSerializer extends Versioned {
     CheckpointMetadata deserialize(
             DataInputStream dis, ClassLoader userCodeClassLoader, String externalPointer)
             throws IOException;
+
+    /**
+     * Deserializes a savepoint from an input stream, keeping only the state of the operators that
+     * are accepted by the given filter. Format versions that store the state of each operator in a
+     * separate section skip the sections of the other operators instead of deserializing them.
+     *
+     * @param dis Input stream to deserialize savepoint from
+     * @param userCodeClassLoader the user code class loader
+     * @param externalPointer the external pointer of the given checkpoint
+     * @param operatorFilter accepts the operators whose state should be deserialized
+     * @return The deserialized savepoint
+     * @throws IOException Serialization failures are forwarded
+     */
+    default CheckpointMetadata deserialize(
+            DataInputStream dis,
+            ClassLoader userCodeClassLoader,
+            String externalPointer,
+            Predicate<OperatorID> operatorFilter)
+            throws IOException {
+        final CheckpointMetadata metadata = deserialize(dis, userCodeClassLoader, externalPointer);
+        return new CheckpointMetadata(
+                metadata.getCheckpointId(),
+                metadata.getOperatorStates().stream()
+                        .filter(operatorState -> operatorFilter.test(operatorState.getOperatorID()))
+                        .collect(Collectors.toList()),
+                metadata.getMasterStates());
+    }
 }
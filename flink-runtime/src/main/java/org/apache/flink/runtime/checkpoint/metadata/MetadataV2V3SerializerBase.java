@@ -25,6 +25,7 @@ import org.apache.flink.runtime.checkpoint.MasterState;
 import org.apache.flink.runtime.checkpoint.OperatorState;
 import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
 import org.apache.flink.runtime.checkpoint.StateObjectCollection;
+import org.apache.flink.runtime.jobgraph.OperatorID;
 import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
 import org.apache.flink.runtime.state.InputChannelStateHandle;
 import org.apache.flink.runtime.state.KeyGroupRange;
@@ -45,7 +46,9 @@ import org.apache.flink.runtime.state.changelog.StateChange;
 import org.apache.flink.runtime.state.changelog.inmemory.InMemoryChangelogStateHandle;
 import org.apache.flink.runtime.state.filesystem.AbstractFsCheckpointStorageAccess;
 import org.apache.flink.runtime.state.filesystem.FileStateHandle;
+import org.apache.flink.runtime.state.filesystem.MultiPartStreamStateHandle;
 import org.apache.flink.runtime.state.filesystem.RelativeFileStateHandle;
+import org.apache.flink.runtime.state.filesystem.SegmentFileStateHandle;
 import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
 import org.apache.flink.util.function.BiConsumerWithException;
 import org.apache.flink.util.function.BiFunctionWithException;
@@ -65,6 +68,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 import static org.apache.flink.util.Preconditions.checkState;
 
@@ -104,6 +108,8 @@ public abstract class MetadataV2V3SerializerBase {
     private static final byte CHANGELOG_HANDLE = 8;
     private static final byte CHANGELOG_BYTE_INCREMENT_HANDLE = 9;
     private static final byte CHANGELOG_FILE_INCREMENT_HANDLE = 10;
+    private static final byte SEGMENT_FILE_STREAM_STATE_HANDLE = 11;
+    private static final byte MULTI_PART_STREAM_STATE_HANDLE = 12;
 
     // ------------------------------------------------------------------------
     //  (De)serialization entry points
@@ -132,6 +138,14 @@ public abstract class MetadataV2V3SerializerBase {
 
     protected CheckpointMetadata deserializeMetadata(
             DataInputStream dis, @Nullable String externalPointer) throws IOException {
+        return deserializeMetadata(dis, externalPointer, operatorId -> true);
+    }
+
+    protected CheckpointMetadata deserializeMetadata(
+            DataInputStream dis,
+            @Nullable String externalPointer,
+            Predicate<OperatorID> operatorFilter)
+            throws IOException {
 
         final DeserializationContext context =
                 externalPointer == null ? null : new DeserializationContext(externalPointer);
@@ -162,7 +176,11 @@ public abstract class MetadataV2V3SerializerBase {
         final List<OperatorState> operatorStates = new ArrayList<>(numTaskStates);
 
         for (int i = 0; i < numTaskStates; i++) {
-            operatorStates.add(deserializeOperatorState(dis, context));
+            final OperatorState operatorState =
+                    deserializeOperatorState(dis, context, operatorFilter);
+            if (operatorState != null) {
+                operatorStates.add(operatorState);
+            }
         }
 
         return new CheckpointMetadata(checkpointId, operatorStates, masterStates);
@@ -236,6 +254,20 @@ public abstract class MetadataV2V3SerializerBase {
     protected abstract OperatorState deserializeOperatorState(
             DataInputStream dis, @Nullable DeserializationContext context) throws IOException;
 
+    /**
+     * Deserializes the state of an operator, or returns null if it is not accepted by the given
+     * filter. Formats that can not skip the state of an operator read it completely and drop it.
+     */
+    @Nullable
+    protected OperatorState deserializeOperatorState(
+            DataInputStream dis,
+            @Nullable DeserializationContext context,
+            Predicate<OperatorID> operatorFilter)
+            throws IOException {
+        final OperatorState operatorState = deserializeOperatorState(dis, context);
+        return operatorFilter.test(operatorState.getOperatorID()) ? operatorState : null;
+    }
+
     protected void serializeSubtaskState(OperatorSubtaskState subtaskState, DataOutputStream dos)
             throws IOException {
         serializeSingleton(
@@ -585,6 +617,21 @@ public abstract class MetadataV2V3SerializerBase {
             dos.writeLong(stateHandle.getStateSize());
             dos.writeUTF(fileStateHandle.getFilePath().toString());
 
+        } else if (stateHandle instanceof SegmentFileStateHandle) {
+            dos.writeByte(SEGMENT_FILE_STREAM_STATE_HANDLE);
+            SegmentFileStateHandle segmentFileStateHandle = (SegmentFileStateHandle) stateHandle;
+            dos.writeUTF(segmentFileStateHandle.getFilePath().toString());
+            dos.writeLong(segmentFileStateHandle.getStartPos());
+            dos.writeLong(segmentFileStateHandle.getStateSize());
+
+        } else if (stateHandle instanceof MultiPartStreamStateHandle) {
+            dos.writeByte(MULTI_PART_STREAM_STATE_HANDLE);
+            List<StreamStateHandle> parts = ((MultiPartStreamStateHandle) stateHandle).getParts();
+            dos.writeInt(parts.size());
+            for (StreamStateHandle part : parts) {
+                serializeStreamStateHandle(part, dos);
+            }
+
         } else if (stateHandle instanceof ByteStreamStateHandle) {
             dos.writeByte(BYTE_STREAM_STATE_HANDLE);
             ByteStreamStateHandle byteStreamStateHandle = (ByteStreamStateHandle) stateHandle;
@@ -618,6 +665,18 @@ public abstract class MetadataV2V3SerializerBase {
             long size = dis.readLong();
             String pathString = dis.readUTF();
             return new FileStateHandle(new Path(pathString), size);
+        } else if (SEGMENT_FILE_STREAM_STATE_HANDLE == type) {
+            String pathString = dis.readUTF();
+            long startPos = dis.readLong();
+            long size = dis.readLong();
+            return new SegmentFileStateHandle(new Path(pathString), startPos, size);
+        } else if (MULTI_PART_STREAM_STATE_HANDLE == type) {
+            int numParts = dis.readInt();
+            List<StreamStateHandle> parts = new ArrayList<>(numParts);
+            for (int i = 0; i < numParts; i++) {
+                parts.add(deserializeStreamStateHandle(dis, context));
+            }
+            return new MultiPartStreamStateHandle(parts);
         } else if (BYTE_STREAM_STATE_HANDLE == type) {
             String handleName = dis.readUTF();
             int numBytes = dis.readInt();
@@ -64,8 +64,8 @@ public class MetadataV3Serializer extends MetadataV2V3SerializerBase implements
     private final ChannelStateHandleSerializer channelStateHandleSerializer =
             new ChannelStateHandleSerializer();
 
-    /** Singleton, not meant to be instantiated. */
-    private MetadataV3Serializer() {}
+    /** Singleton, not meant to be instantiated, only extended by later format versions. */
+    protected MetadataV3Serializer() {}
 
     @Override
     public int getVersion() {
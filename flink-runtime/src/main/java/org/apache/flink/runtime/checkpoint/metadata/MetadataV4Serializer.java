@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.checkpoint.metadata;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.core.memory.ByteArrayOutputStreamWithPos;
+import org.apache.flink.runtime.checkpoint.OperatorState;
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.state.SnappyStreamCompressionDecorator;
+import org.apache.flink.runtime.state.StreamCompressionDecorator;
+import org.apache.flink.util.IOUtils;
+
+import javax.annotation.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.function.Predicate;
+
+/**
+ * (De)serializer for checkpoint metadata format version 4.
+ *
+ * <p>Compared to format version 3, the state of each operator is written into a separate, snappy
+ * compressed section:
+ *
+ * <pre>
+ *  +-------------+----------------+-----------------------------------------+
+ *  | operator ID | section length | compressed operator state (version 3)   |
+ *  +-------------+----------------+-----------------------------------------+
+ * </pre>
+ *
+ * <p>The state handles of the subtasks of an operator mostly refer to files in the same
+ * directories, so their paths compress well. With the operator ID and length in front of each
+ * section, the state of operators that are not needed (e.g. operators that were removed from the
+ * job when restoring from a savepoint) is skipped instead of deserialized.
+ *
+ * <p>See {@link MetadataV2V3SerializerBase} for a description of the format layout.
+ */
+@Internal
+public class MetadataV4Serializer extends MetadataV3Serializer {
+
+    /** The metadata format version. */
+    public static final int VERSION = 4;
+
+    /** The singleton instance of the serializer. */
+    public static final MetadataV4Serializer INSTANCE = new MetadataV4Serializer();
+
+    private static final StreamCompressionDecorator SECTION_COMPRESSION =
+            SnappyStreamCompressionDecorator.INSTANCE;
+
+    /** Singleton, not meant to be instantiated. */
+    private MetadataV4Serializer() {}
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    // ------------------------------------------------------------------------
+    //  (De)serialization entry points
+    // ------------------------------------------------------------------------
+
+    public static void serialize(CheckpointMetadata checkpointMetadata, DataOutputStream dos)
+            throws IOException {
+        INSTANCE.serializeMetadata(checkpointMetadata, dos);
+    }
+
+    @Override
+    public CheckpointMetadata deserialize(
+            DataInputStream dis,
+            ClassLoader classLoader,
+            String externalPointer,
+            Predicate<OperatorID> operatorFilter)
+            throws IOException {
+        return deserializeMetadata(dis, externalPointer, operatorFilter);
+    }
+
+    // ------------------------------------------------------------------------
+    //  version-specific serialization formats
+    // ------------------------------------------------------------------------
+
+    @Override
+    protected void serializeOperatorState(OperatorState operatorState, DataOutputStream dos)
+            throws IOException {
+        dos.writeLong(operatorState.getOperatorID().getLowerPart());
+        dos.writeLong(operatorState.getOperatorID().getUpperPart());
+
+        // only one operator is buffered at a time, the section is written out right away
+        final ByteArrayOutputStreamWithPos section = new ByteArrayOutputStreamWithPos();
+        try (DataOutputStream sectionOut =
+                new DataOutputStream(SECTION_COMPRESSION.decorateWithCompression(section))) {
+            super.serializeOperatorState(operatorState, sectionOut);
+        }
+
+        dos.writeInt(section.getPosition());
+        dos.write(section.getBuf(), 0, section.getPosition());
+    }
+
+    @Override
+    protected OperatorState deserializeOperatorState(
+            DataInputStream dis, @Nullable DeserializationContext context) throws IOException {
+        return deserializeOperatorState(dis, context, operatorId -> true);
+    }
+
+    @Nullable
+    @Override
+    protected OperatorState deserializeOperatorState(
+            DataInputStream dis,
+            @Nullable DeserializationContext context,
+            Predicate<OperatorID> operatorFilter)
+            throws IOException {
+        final OperatorID operatorId = new OperatorID(dis.readLong(), dis.readLong());
+
+        final int sectionLength = dis.readInt();
+        if (sectionLength < 0) {
+            throw new IOException("invalid length of the state of operator " + operatorId);
+        }
+
+        if (!operatorFilter.test(operatorId)) {
+            IOUtils.skipFully(dis, sectionLength);
+            return null;
+        }
+
+        final byte[] section = new byte[sectionLength];
+        dis.readFully(section);
+        try (DataInputStream sectionIn =
+                new DataInputStream(
+                        SECTION_COMPRESSION.decorateWithCompression(
+                                new ByteArrayInputStream(section)))) {
+            final OperatorState operatorState = super.deserializeOperatorState(sectionIn, context);
+            if (!operatorId.equals(operatorState.getOperatorID())) {
+                throw new IOException(
+                        "The state of operator "
+                                + operatorState.getOperatorID()
+                                + " was stored as the state of operator "
+                                + operatorId);
+            }
+            return operatorState;
+        }
+    }
+}
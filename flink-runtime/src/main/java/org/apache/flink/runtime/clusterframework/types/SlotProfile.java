@@ -56,18 +56,23 @@ public class SlotProfile {
     /** This contains all prior allocation ids from the whole execution graph. */
     private final Set<AllocationID> previousExecutionGraphAllocations;
 
+    /** This contains the task managers which the slot should not be located on. */
+    private final Set<ResourceID> blockedTaskManagers;
+
     private SlotProfile(
             final ResourceProfile taskResourceProfile,
             final ResourceProfile physicalSlotResourceProfile,
             final Collection<TaskManagerLocation> preferredLocations,
             final Collection<AllocationID> preferredAllocations,
-            final Set<AllocationID> previousExecutionGraphAllocations) {
+            final Set<AllocationID> previousExecutionGraphAllocations,
+            final Set<ResourceID> blockedTaskManagers) {
 
         this.taskResourceProfile = checkNotNull(taskResourceProfile);
         this.physicalSlotResourceProfile = checkNotNull(physicalSlotResourceProfile);
         this.preferredLocations = checkNotNull(preferredLocations);
         this.preferredAllocations = checkNotNull(preferredAllocations);
         this.previousExecutionGraphAllocations = checkNotNull(previousExecutionGraphAllocations);
+        this.blockedTaskManagers = checkNotNull(blockedTaskManagers);
     }
 
     /** Returns the desired resource profile for the task slot. */
@@ -99,6 +104,16 @@ public class SlotProfile {
         return previousExecutionGraphAllocations;
     }
 
+    /**
+     * Returns the task managers which the slot should not be located on, e.g. because other
+     * attempts of the same task run there.
+     *
+     * <p>This is optional and can be empty if unused.
+     */
+    public Set<ResourceID> getBlockedTaskManagers() {
+        return blockedTaskManagers;
+    }
+
     /** Returns a slot profile that has no requirements. */
     @VisibleForTesting
     public static SlotProfile noRequirements() {
@@ -151,11 +166,43 @@ public class SlotProfile {
             final Collection<AllocationID> priorAllocations,
             final Set<AllocationID> previousExecutionGraphAllocations) {
 
+        return priorAllocation(
+                taskResourceProfile,
+                physicalSlotResourceProfile,
+                preferredLocations,
+                priorAllocations,
+                previousExecutionGraphAllocations,
+                Collections.emptySet());
+    }
+
+    /**
+     * Returns a slot profile for the given resource profile, prior allocations, all prior
+     * allocation ids from the whole execution graph and the task managers to avoid.
+     *
+     * @param taskResourceProfile specifying the required resources for the task slot
+     * @param physicalSlotResourceProfile specifying the required resources for the physical slot to
+     *     host this task slot
+     * @param preferredLocations specifying the preferred locations
+     * @param priorAllocations specifying the prior allocations
+     * @param previousExecutionGraphAllocations specifying all prior allocation ids from the whole
+     *     execution graph
+     * @param blockedTaskManagers specifying the task managers the slot should not be located on
+     * @return Slot profile with all the given information
+     */
+    public static SlotProfile priorAllocation(
+            final ResourceProfile taskResourceProfile,
+            final ResourceProfile physicalSlotResourceProfile,
+            final Collection<TaskManagerLocation> preferredLocations,
+            final Collection<AllocationID> priorAllocations,
+            final Set<AllocationID> previousExecutionGraphAllocations,
+            final Set<ResourceID> blockedTaskManagers) {
+
         return new SlotProfile(
                 taskResourceProfile,
                 physicalSlotResourceProfile,
                 preferredLocations,
                 priorAllocations,
-                previousExecutionGraphAllocations);
+                previousExecutionGraphAllocations,
+                blockedTaskManagers);
     }
 }
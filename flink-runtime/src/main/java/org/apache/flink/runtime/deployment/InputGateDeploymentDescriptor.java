@@ -30,6 +30,7 @@ import org.apache.flink.runtime.io.network.partition.consumer.SingleInputGate;
 import org.apache.flink.runtime.jobgraph.DistributionPattern;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
 import org.apache.flink.runtime.shuffle.ShuffleDescriptor;
+import org.apache.flink.runtime.taskexecutor.ShuffleDescriptorsCache;
 import org.apache.flink.util.CompressedSerializedValue;
 import org.apache.flink.util.Preconditions;
 
@@ -46,7 +47,7 @@ import static org.apache.flink.util.Preconditions.checkNotNull;
  * Deployment descriptor for a single input gate instance.
  *
  * <p>Each input gate consumes partitions of a single intermediate result. The consumed subpartition
- * index is the same for each consumed partition.
+ * index range is the same for each consumed partition.
  *
  * @see SingleInputGate
  */
@@ -64,10 +65,12 @@ public class InputGateDeploymentDescriptor implements Serializable {
     private final ResultPartitionType consumedPartitionType;
 
     /**
-     * The index of the consumed subpartition of each consumed partition. This index depends on the
-     * {@link DistributionPattern} and the subtask indices of the producing and consuming task.
+     * The range of the consumed subpartitions of each consumed partition. The range depends on the
+     * {@link DistributionPattern} and the subtask indices of the producing and consuming task. It
+     * covers more than one subpartition if the partitions were produced before the parallelism of
+     * the consuming task was decided.
      */
-    @Nonnegative private final int consumedSubpartitionIndex;
+    private final SubpartitionIndexRange consumedSubpartitionIndexRange;
 
     /** An input channel for each consumed subpartition. */
     private transient ShuffleDescriptor[] inputChannels;
@@ -85,7 +88,7 @@ public class InputGateDeploymentDescriptor implements Serializable {
         this(
                 consumedResultId,
                 consumedPartitionType,
-                consumedSubpartitionIndex,
+                new SubpartitionIndexRange(consumedSubpartitionIndex, consumedSubpartitionIndex),
                 new NonOffloaded<>(CompressedSerializedValue.fromObject(inputChannels)));
     }
 
@@ -94,9 +97,21 @@ public class InputGateDeploymentDescriptor implements Serializable {
             ResultPartitionType consumedPartitionType,
             @Nonnegative int consumedSubpartitionIndex,
             MaybeOffloaded<ShuffleDescriptor[]> serializedInputChannels) {
+        this(
+                consumedResultId,
+                consumedPartitionType,
+                new SubpartitionIndexRange(consumedSubpartitionIndex, consumedSubpartitionIndex),
+                serializedInputChannels);
+    }
+
+    public InputGateDeploymentDescriptor(
+            IntermediateDataSetID consumedResultId,
+            ResultPartitionType consumedPartitionType,
+            SubpartitionIndexRange consumedSubpartitionIndexRange,
+            MaybeOffloaded<ShuffleDescriptor[]> serializedInputChannels) {
         this.consumedResultId = checkNotNull(consumedResultId);
         this.consumedPartitionType = checkNotNull(consumedPartitionType);
-        this.consumedSubpartitionIndex = consumedSubpartitionIndex;
+        this.consumedSubpartitionIndexRange = checkNotNull(consumedSubpartitionIndexRange);
         this.serializedInputChannels = checkNotNull(serializedInputChannels);
     }
 
@@ -113,17 +128,51 @@ public class InputGateDeploymentDescriptor implements Serializable {
         return consumedPartitionType;
     }
 
+    /**
+     * Returns the index of the consumed subpartition. Only valid if the input gate consumes a
+     * single subpartition of each partition.
+     */
     @Nonnegative
     public int getConsumedSubpartitionIndex() {
-        return consumedSubpartitionIndex;
+        Preconditions.checkState(
+                consumedSubpartitionIndexRange.size() == 1,
+                "The input gate consumes the subpartition range %s.",
+                consumedSubpartitionIndexRange);
+        return consumedSubpartitionIndexRange.getStartIndex();
+    }
+
+    public SubpartitionIndexRange getConsumedSubpartitionIndexRange() {
+        return consumedSubpartitionIndexRange;
     }
 
     public void loadBigData(@Nullable PermanentBlobService blobService, JobID jobId)
             throws IOException, ClassNotFoundException {
+        loadBigData(blobService, jobId, null);
+    }
+
+    /**
+     * Loads the offloaded shuffle descriptors from the BLOB store. The deserialized shuffle
+     * descriptors are taken from and added to the given cache, so that the tasks of a TaskExecutor
+     * consuming the same partition group share them.
+     */
+    public void loadBigData(
+            @Nullable PermanentBlobService blobService,
+            JobID jobId,
+            @Nullable ShuffleDescriptorsCache shuffleDescriptorsCache)
+            throws IOException, ClassNotFoundException {
         if (serializedInputChannels instanceof Offloaded) {
             PermanentBlobKey blobKey =
                     ((Offloaded<ShuffleDescriptor[]>) serializedInputChannels).serializedValueKey;
 
+            if (shuffleDescriptorsCache != null) {
+                final ShuffleDescriptor[] cachedShuffleDescriptors =
+                        shuffleDescriptorsCache.get(blobKey);
+                if (cachedShuffleDescriptors != null) {
+                    inputChannels = cachedShuffleDescriptors;
+                    return;
+                }
+            }
+
             Preconditions.checkNotNull(blobService);
 
             // NOTE: Do not delete the ShuffleDescriptor BLOBs since it may be needed again during
@@ -134,6 +183,11 @@ public class InputGateDeploymentDescriptor implements Serializable {
             serializedInputChannels = new NonOffloaded<>(serializedValue);
 
             Preconditions.checkNotNull(serializedInputChannels);
+
+            if (shuffleDescriptorsCache != null) {
+                inputChannels = serializedValue.deserializeValue(getClass().getClassLoader());
+                shuffleDescriptorsCache.put(jobId, blobKey, inputChannels);
+            }
         }
     }
 
@@ -161,9 +215,9 @@ public class InputGateDeploymentDescriptor implements Serializable {
     public String toString() {
         return String.format(
                 "InputGateDeploymentDescriptor [result id: %s, "
-                        + "consumed subpartition index: %d, input channels: %s]",
+                        + "consumed subpartition index range: %s, input channels: %s]",
                 consumedResultId.toString(),
-                consumedSubpartitionIndex,
+                consumedSubpartitionIndexRange,
                 Arrays.toString(getShuffleDescriptors()));
     }
 }
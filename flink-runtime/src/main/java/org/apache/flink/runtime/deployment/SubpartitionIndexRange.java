@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.deployment;
+
+import java.io.Serializable;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * The range of the subpartitions that an input gate consumes from each consumed partition. Both
+ * the start and the end index are inclusive.
+ */
+public class SubpartitionIndexRange implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int startIndex;
+
+    private final int endIndex;
+
+    public SubpartitionIndexRange(int startIndex, int endIndex) {
+        checkArgument(startIndex >= 0, "The start index must not be negative.");
+        checkArgument(endIndex >= startIndex, "The end index must not be before the start index.");
+        this.startIndex = startIndex;
+        this.endIndex = endIndex;
+    }
+
+    public int getStartIndex() {
+        return startIndex;
+    }
+
+    public int getEndIndex() {
+        return endIndex;
+    }
+
+    /** Returns the number of subpartitions in this range. */
+    public int size() {
+        return endIndex - startIndex + 1;
+    }
+
+    /**
+     * Computes the subpartitions consumed by a consumer subtask, dividing the subpartitions of each
+     * partition evenly between its consumers.
+     *
+     * <p>The subpartitions are divided the same way as the key groups in {@code
+     * KeyGroupRangeAssignment#computeKeyGroupRangeForOperatorIndex}, so that a consumer of a
+     * partition with one subpartition per key group receives exactly the key groups of its key
+     * group range.
+     *
+     * @param consumerIndex the index of the consumer among the consumers of the partitions
+     * @param numberOfConsumers the number of consumers of the partitions
+     * @param numberOfSubpartitions the number of subpartitions of each partition
+     */
+    public static SubpartitionIndexRange forConsumer(
+            int consumerIndex, int numberOfConsumers, int numberOfSubpartitions) {
+        checkArgument(
+                numberOfSubpartitions >= numberOfConsumers,
+                "There are fewer subpartitions (%s) than consumers (%s).",
+                numberOfSubpartitions,
+                numberOfConsumers);
+        checkArgument(consumerIndex >= 0 && consumerIndex < numberOfConsumers);
+
+        final int startIndex =
+                (int)
+                        (((long) consumerIndex * numberOfSubpartitions + numberOfConsumers - 1)
+                                / numberOfConsumers);
+        final int endIndex =
+                (int)
+                        (((long) (consumerIndex + 1) * numberOfSubpartitions - 1)
+                                / numberOfConsumers);
+        return new SubpartitionIndexRange(startIndex, endIndex);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SubpartitionIndexRange that = (SubpartitionIndexRange) o;
+        return startIndex == that.startIndex && endIndex == that.endIndex;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * startIndex + endIndex;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + startIndex + ", " + endIndex + "]";
+    }
+}
@@ -26,6 +26,7 @@ import org.apache.flink.runtime.clusterframework.types.AllocationID;
 import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
 import org.apache.flink.runtime.executiongraph.JobInformation;
 import org.apache.flink.runtime.executiongraph.TaskInformation;
+import org.apache.flink.runtime.taskexecutor.ShuffleDescriptorsCache;
 import org.apache.flink.util.FileUtils;
 import org.apache.flink.util.Preconditions;
 import org.apache.flink.util.SerializedValue;
@@ -253,6 +254,24 @@ public final class TaskDeploymentDescriptor implements Serializable {
      */
     public void loadBigData(@Nullable PermanentBlobService blobService)
             throws IOException, ClassNotFoundException {
+        loadBigData(blobService, null);
+    }
+
+    /**
+     * Loads externalized data from the BLOB store back to the object, taking the offloaded shuffle
+     * descriptors of the input gates from the given cache if they are cached.
+     *
+     * @param blobService the blob store to use (may be <tt>null</tt> if {@link
+     *     #serializedJobInformation} and {@link #serializedTaskInformation} are non-<tt>null</tt>)
+     * @param shuffleDescriptorsCache the cache of the shuffle descriptors of the TaskExecutor (may
+     *     be <tt>null</tt> to not cache the shuffle descriptors)
+     * @throws IOException during errors retrieving or reading the BLOBs
+     * @throws ClassNotFoundException Class of a serialized object cannot be found.
+     */
+    public void loadBigData(
+            @Nullable PermanentBlobService blobService,
+            @Nullable ShuffleDescriptorsCache shuffleDescriptorsCache)
+            throws IOException, ClassNotFoundException {
 
         // re-integrate offloaded job info from blob
         // here, if this fails, we need to throw the exception as there is no backup path anymore
@@ -288,7 +307,7 @@ public final class TaskDeploymentDescriptor implements Serializable {
         }
 
         for (InputGateDeploymentDescriptor inputGate : inputGates) {
-            inputGate.loadBigData(blobService, jobId);
+            inputGate.loadBigData(blobService, jobId, shuffleDescriptorsCache);
         }
 
         // make sure that the serialized job and task information fields are filled
@@ -128,7 +128,8 @@ public class TaskDeploymentDescriptorFactory {
 
             int numConsumers = resultPartition.getConsumerVertexGroups().get(0).size();
 
-            int queueToRequest = subtaskIndex % numConsumers;
+            SubpartitionIndexRange subpartitionsToRequest =
+                    computeConsumedSubpartitionRange(resultPartition, numConsumers);
             IntermediateResult consumedIntermediateResult = resultPartition.getIntermediateResult();
             IntermediateDataSetID resultId = consumedIntermediateResult.getId();
             ResultPartitionType partitionType = consumedIntermediateResult.getResultType();
@@ -137,22 +138,38 @@ public class TaskDeploymentDescriptorFactory {
                     new InputGateDeploymentDescriptor(
                             resultId,
                             partitionType,
-                            queueToRequest,
+                            subpartitionsToRequest,
                             getConsumedPartitionShuffleDescriptors(
-                                    consumedIntermediateResult, consumedPartitionGroup)));
+                                    consumedIntermediateResult,
+                                    consumedPartitionGroup,
+                                    numConsumers)));
         }
 
         return inputGates;
     }
 
+    private SubpartitionIndexRange computeConsumedSubpartitionRange(
+            IntermediateResultPartition resultPartition, int numConsumers) {
+        int numSubpartitions = resultPartition.getNumberOfSubpartitions();
+        if (numSubpartitions == 1 && resultPartition.getIntermediateResult().isBroadcast()) {
+            // all consumers read the single subpartition of a broadcast result
+            return new SubpartitionIndexRange(0, 0);
+        }
+        return SubpartitionIndexRange.forConsumer(
+                subtaskIndex % numConsumers, numConsumers, numSubpartitions);
+    }
+
     private MaybeOffloaded<ShuffleDescriptor[]> getConsumedPartitionShuffleDescriptors(
-            IntermediateResult intermediateResult, ConsumedPartitionGroup consumedPartitionGroup)
+            IntermediateResult intermediateResult,
+            ConsumedPartitionGroup consumedPartitionGroup,
+            int numConsumers)
             throws IOException {
         MaybeOffloaded<ShuffleDescriptor[]> serializedShuffleDescriptors =
                 intermediateResult.getCachedShuffleDescriptors(consumedPartitionGroup);
         if (serializedShuffleDescriptors == null) {
             serializedShuffleDescriptors =
-                    computeConsumedPartitionShuffleDescriptors(consumedPartitionGroup);
+                    computeConsumedPartitionShuffleDescriptors(
+                            consumedPartitionGroup, numConsumers);
             intermediateResult.cacheShuffleDescriptors(
                     consumedPartitionGroup, serializedShuffleDescriptors);
         }
@@ -160,7 +177,7 @@ public class TaskDeploymentDescriptorFactory {
     }
 
     private MaybeOffloaded<ShuffleDescriptor[]> computeConsumedPartitionShuffleDescriptors(
-            ConsumedPartitionGroup consumedPartitionGroup) throws IOException {
+            ConsumedPartitionGroup consumedPartitionGroup, int numConsumers) throws IOException {
 
         ShuffleDescriptor[] shuffleDescriptors =
                 new ShuffleDescriptor[consumedPartitionGroup.size()];
@@ -172,18 +189,22 @@ public class TaskDeploymentDescriptorFactory {
                             resultPartitionRetriever.apply(partitionId),
                             partitionDeploymentConstraint);
         }
-        return serializeAndTryOffloadShuffleDescriptors(shuffleDescriptors);
+        return serializeAndTryOffloadShuffleDescriptors(shuffleDescriptors, numConsumers);
     }
 
     private MaybeOffloaded<ShuffleDescriptor[]> serializeAndTryOffloadShuffleDescriptors(
-            ShuffleDescriptor[] shuffleDescriptors) throws IOException {
+            ShuffleDescriptor[] shuffleDescriptors, int numConsumers) throws IOException {
 
         final CompressedSerializedValue<ShuffleDescriptor[]> compressedSerializedValue =
                 CompressedSerializedValue.fromObject(shuffleDescriptors);
 
+        // The shuffle descriptors are shipped to every consumer of the partition group. Offload
+        // them once the copies of all consumers together exceed the offloading size, so that the
+        // consumers only receive the blob key and the TaskExecutors cache the descriptors.
         final Either<SerializedValue<ShuffleDescriptor[]>, PermanentBlobKey>
                 serializedValueOrBlobKey =
-                        BlobWriter.tryOffload(compressedSerializedValue, jobID, blobWriter);
+                        BlobWriter.tryOffload(
+                                compressedSerializedValue, numConsumers, jobID, blobWriter);
 
         if (serializedValueOrBlobKey.isLeft()) {
             return new TaskDeploymentDescriptor.NonOffloaded<>(serializedValueOrBlobKey.left());
@@ -194,11 +215,30 @@ public class TaskDeploymentDescriptorFactory {
 
     public static TaskDeploymentDescriptorFactory fromExecutionVertex(
             ExecutionVertex executionVertex, int attemptNumber) throws IOException {
+        return fromExecutionVertex(
+                executionVertex,
+                executionVertex.getCurrentExecutionAttempt().getAttemptId(),
+                attemptNumber);
+    }
+
+    /**
+     * Creates the factory for the given execution attempt, which does not have to be the current
+     * execution attempt of its vertex, e.g. for a speculative execution.
+     */
+    public static TaskDeploymentDescriptorFactory fromExecution(Execution execution)
+            throws IOException {
+        return fromExecutionVertex(
+                execution.getVertex(), execution.getAttemptId(), execution.getAttemptNumber());
+    }
+
+    private static TaskDeploymentDescriptorFactory fromExecutionVertex(
+            ExecutionVertex executionVertex, ExecutionAttemptID attemptId, int attemptNumber)
+            throws IOException {
         InternalExecutionGraphAccessor internalExecutionGraphAccessor =
                 executionVertex.getExecutionGraphAccessor();
 
         return new TaskDeploymentDescriptorFactory(
-                executionVertex.getCurrentExecutionAttempt().getAttemptId(),
+                attemptId,
                 attemptNumber,
                 getSerializedJobInformation(internalExecutionGraphAccessor),
                 getSerializedTaskInformation(
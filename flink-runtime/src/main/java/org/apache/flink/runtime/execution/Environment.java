@@ -41,6 +41,7 @@ import org.apache.flink.runtime.jobgraph.tasks.TaskOperatorEventGateway;
 import org.apache.flink.runtime.memory.MemoryManager;
 import org.apache.flink.runtime.metrics.groups.TaskMetricGroup;
 import org.apache.flink.runtime.query.TaskKvStateRegistry;
+import org.apache.flink.runtime.state.CheckpointStorageAccess;
 import org.apache.flink.runtime.state.TaskStateManager;
 import org.apache.flink.runtime.state.internal.InternalKvState;
 import org.apache.flink.runtime.taskexecutor.GlobalAggregateManager;
@@ -258,4 +259,10 @@ public interface Environment {
     default ExecutorService getAsyncOperationsThreadPool() {
         throw new UnsupportedOperationException();
     }
+
+    default void setCheckpointStorageAccess(CheckpointStorageAccess checkpointStorageAccess) {}
+
+    default CheckpointStorageAccess getCheckpointStorageAccess() {
+        throw new UnsupportedOperationException();
+    }
 }
@@ -25,6 +25,7 @@ import org.apache.flink.runtime.rpc.FatalErrorHandler;
 import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.FlinkUserCodeClassLoader;
 import org.apache.flink.util.Preconditions;
+import org.apache.flink.util.StringUtils;
 import org.apache.flink.util.UserCodeClassLoader;
 
 import org.slf4j.Logger;
@@ -41,7 +42,10 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -51,12 +55,21 @@ import static org.apache.flink.util.Preconditions.checkNotNull;
 /**
  * Provides facilities to download a set of libraries (typically JAR files) for a job from a {@link
  * PermanentBlobService} and create a class loader with references to them.
+ *
+ * <p>If class loaders are shared, jobs whose libraries have the same contents and which have the
+ * same class paths use the same class loader. The class loader is created from the libraries of
+ * the first of these jobs, whose BLOBs are registered at the {@link PermanentBlobService} as long
+ * as the class loader exists. Up to {@link #MAX_IDLE_SHARED_CLASS_LOADERS} shared class loaders
+ * which no job uses are retained for later jobs.
  */
 @ThreadSafe
 public class BlobLibraryCacheManager implements LibraryCacheManager {
 
     private static final Logger LOG = LoggerFactory.getLogger(BlobLibraryCacheManager.class);
 
+    /** Maximum number of shared class loaders which are retained while no job uses them. */
+    static final int MAX_IDLE_SHARED_CLASS_LOADERS = 4;
+
     // --------------------------------------------------------------------------------------------
 
     /** The global lock to synchronize operations. */
@@ -72,12 +85,28 @@ public class BlobLibraryCacheManager implements LibraryCacheManager {
 
     private final ClassLoaderFactory classLoaderFactory;
 
+    /** Whether jobs with the same libraries and class paths share their class loader. */
+    private final boolean shareClassLoaders;
+
+    /** Class loaders shared by jobs, in the order in which they were last obtained. */
+    @GuardedBy("lockObject")
+    private final Map<SharedClassLoaderKey, SharedClassLoader> sharedClassLoaders =
+            new LinkedHashMap<>();
+
     // --------------------------------------------------------------------------------------------
 
     public BlobLibraryCacheManager(
             PermanentBlobService blobService, ClassLoaderFactory classLoaderFactory) {
+        this(blobService, classLoaderFactory, false);
+    }
+
+    public BlobLibraryCacheManager(
+            PermanentBlobService blobService,
+            ClassLoaderFactory classLoaderFactory,
+            boolean shareClassLoaders) {
         this.blobService = checkNotNull(blobService);
         this.classLoaderFactory = checkNotNull(classLoaderFactory);
+        this.shareClassLoaders = shareClassLoaders;
     }
 
     @Override
@@ -113,6 +142,17 @@ public class BlobLibraryCacheManager implements LibraryCacheManager {
         }
     }
 
+    /**
+     * Returns the number of shared class loaders, including the ones which no job uses.
+     *
+     * @return number of shared class loaders
+     */
+    int getNumberOfSharedClassLoaders() {
+        synchronized (lockObject) {
+            return sharedClassLoaders.size();
+        }
+    }
+
     @Override
     public void shutdown() {
         synchronized (lockObject) {
@@ -121,6 +161,32 @@ public class BlobLibraryCacheManager implements LibraryCacheManager {
             }
 
             cacheEntries.clear();
+
+            for (SharedClassLoader sharedClassLoader : sharedClassLoaders.values()) {
+                sharedClassLoader.release();
+            }
+
+            sharedClassLoaders.clear();
+        }
+    }
+
+    @GuardedBy("lockObject")
+    private void releaseSharedClassLoader(SharedClassLoader sharedClassLoader) {
+        sharedClassLoader.referenceCount -= 1;
+
+        if (sharedClassLoader.referenceCount == 0) {
+            // release the least recently obtained idle class loaders
+            long numberOfIdleClassLoaders =
+                    sharedClassLoaders.values().stream().filter(SharedClassLoader::isIdle).count();
+            final Iterator<SharedClassLoader> iterator = sharedClassLoaders.values().iterator();
+            while (numberOfIdleClassLoaders > MAX_IDLE_SHARED_CLASS_LOADERS && iterator.hasNext()) {
+                final SharedClassLoader candidate = iterator.next();
+                if (candidate.isIdle()) {
+                    candidate.release();
+                    iterator.remove();
+                    numberOfIdleClassLoaders -= 1;
+                }
+            }
         }
     }
 
@@ -206,6 +272,11 @@ public class BlobLibraryCacheManager implements LibraryCacheManager {
         @Nullable
         private ResolvedClassLoader resolvedClassLoader;
 
+        /** The shared class loader which {@link #resolvedClassLoader} is a view of, if any. */
+        @GuardedBy("lockObject")
+        @Nullable
+        private SharedClassLoader sharedClassLoader;
+
         @GuardedBy("lockObject")
         private boolean isReleased;
 
@@ -222,7 +293,12 @@ public class BlobLibraryCacheManager implements LibraryCacheManager {
             synchronized (lockObject) {
                 verifyIsNotReleased();
 
-                if (resolvedClassLoader == null) {
+                if (resolvedClassLoader == null && shareClassLoaders) {
+                    sharedClassLoader = obtainSharedClassLoader(libraries, classPaths);
+                    resolvedClassLoader =
+                            sharedClassLoader.resolvedClassLoader.createView(
+                                    libraries, classPaths);
+                } else if (resolvedClassLoader == null) {
                     resolvedClassLoader =
                             new ResolvedClassLoader(
                                     createUserCodeClassLoader(jobId, libraries, classPaths),
@@ -236,6 +312,41 @@ public class BlobLibraryCacheManager implements LibraryCacheManager {
             }
         }
 
+        @GuardedBy("lockObject")
+        private SharedClassLoader obtainSharedClassLoader(
+                Collection<PermanentBlobKey> libraries, Collection<URL> classPaths)
+                throws IOException {
+            final SharedClassLoaderKey key = new SharedClassLoaderKey(libraries, classPaths);
+
+            SharedClassLoader shared = sharedClassLoaders.remove(key);
+            if (shared == null) {
+                // the class loader references the library files of this job
+                blobService.registerJob(jobId);
+                try {
+                    shared =
+                            new SharedClassLoader(
+                                    jobId,
+                                    new ResolvedClassLoader(
+                                            createUserCodeClassLoader(jobId, libraries, classPaths),
+                                            libraries,
+                                            classPaths));
+                } catch (Throwable t) {
+                    blobService.releaseJob(jobId);
+                    throw t;
+                }
+            } else {
+                LOG.debug(
+                        "Sharing the user code class loader of job {} with job {}.",
+                        shared.libraryOwner,
+                        jobId);
+            }
+
+            // re-insert to keep the map ordered by the last time the class loader was obtained
+            sharedClassLoaders.put(key, shared);
+            shared.referenceCount += 1;
+            return shared;
+        }
+
         @GuardedBy("lockObject")
         private URLClassLoader createUserCodeClassLoader(
                 JobID jobId,
@@ -298,7 +409,12 @@ public class BlobLibraryCacheManager implements LibraryCacheManager {
 
         @GuardedBy("lockObject")
         private void releaseClassLoader() {
-            if (resolvedClassLoader != null) {
+            if (sharedClassLoader != null) {
+                // the view must not close the class loader which other jobs may still use
+                releaseSharedClassLoader(sharedClassLoader);
+                sharedClassLoader = null;
+                resolvedClassLoader = null;
+            } else if (resolvedClassLoader != null) {
                 resolvedClassLoader.releaseClassLoader();
                 resolvedClassLoader = null;
             }
@@ -378,6 +494,14 @@ public class BlobLibraryCacheManager implements LibraryCacheManager {
                 URLClassLoader classLoader,
                 Collection<PermanentBlobKey> requiredLibraries,
                 Collection<URL> requiredClassPaths) {
+            this(classLoader, requiredLibraries, requiredClassPaths, new HashMap<>());
+        }
+
+        private ResolvedClassLoader(
+                URLClassLoader classLoader,
+                Collection<PermanentBlobKey> requiredLibraries,
+                Collection<URL> requiredClassPaths,
+                Map<String, Runnable> releaseHooks) {
             this.classLoader = classLoader;
 
             // NOTE: do not store the class paths, i.e. URLs, into a set for performance reasons
@@ -389,7 +513,19 @@ public class BlobLibraryCacheManager implements LibraryCacheManager {
             }
             this.libraries = new HashSet<>(requiredLibraries);
 
-            this.releaseHooks = new HashMap<>();
+            this.releaseHooks = releaseHooks;
+        }
+
+        /**
+         * Creates a view of this class loader for a job with the given libraries and class paths.
+         * The view shares the release hooks with this class loader, which runs them once it is
+         * released.
+         */
+        private ResolvedClassLoader createView(
+                Collection<PermanentBlobKey> requiredLibraries,
+                Collection<URL> requiredClassPaths) {
+            return new ResolvedClassLoader(
+                    classLoader, requiredLibraries, requiredClassPaths, releaseHooks);
         }
 
         @Override
@@ -472,4 +608,71 @@ public class BlobLibraryCacheManager implements LibraryCacheManager {
             }
         }
     }
+
+    /** A user code class loader which jobs with the same libraries and class paths share. */
+    private final class SharedClassLoader {
+
+        /** The job whose library files the class loader references. */
+        private final JobID libraryOwner;
+
+        private final ResolvedClassLoader resolvedClassLoader;
+
+        /** Number of jobs using the class loader. */
+        @GuardedBy("lockObject")
+        private int referenceCount;
+
+        private SharedClassLoader(JobID libraryOwner, ResolvedClassLoader resolvedClassLoader) {
+            this.libraryOwner = libraryOwner;
+            this.resolvedClassLoader = resolvedClassLoader;
+            this.referenceCount = 0;
+        }
+
+        @GuardedBy("lockObject")
+        private boolean isIdle() {
+            return referenceCount == 0;
+        }
+
+        @GuardedBy("lockObject")
+        private void release() {
+            resolvedClassLoader.releaseClassLoader();
+            blobService.releaseJob(libraryOwner);
+        }
+    }
+
+    /**
+     * Identifies the libraries by the hashes of their contents, which are the same for the jobs
+     * which uploaded the same JAR files, and the class paths by their string representations.
+     */
+    private static final class SharedClassLoaderKey {
+
+        private final Set<String> libraryHashes;
+
+        private final Set<String> classPaths;
+
+        private SharedClassLoaderKey(
+                Collection<PermanentBlobKey> libraries, Collection<URL> classPaths) {
+            this.libraryHashes =
+                    libraries.stream()
+                            .map(library -> StringUtils.byteToHexString(library.getHash()))
+                            .collect(Collectors.toSet());
+            this.classPaths = classPaths.stream().map(URL::toString).collect(Collectors.toSet());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final SharedClassLoaderKey that = (SharedClassLoaderKey) o;
+            return libraryHashes.equals(that.libraryHashes) && classPaths.equals(that.classPaths);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(libraryHashes, classPaths);
+        }
+    }
 }
@@ -56,6 +56,7 @@ import org.apache.flink.runtime.io.network.partition.JobMasterPartitionTracker;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
+import org.apache.flink.runtime.jobgraph.JobEdge;
 import org.apache.flink.runtime.jobgraph.JobVertex;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.jobgraph.tasks.CheckpointCoordinatorConfiguration;
@@ -164,6 +165,9 @@ public class DefaultExecutionGraph implements ExecutionGraph, InternalExecutionG
     /** The timeout for all messages that require a response/acknowledgement. */
     private final Time rpcTimeout;
 
+    /** Sends the operations on the tasks to the TaskManagers. */
+    private final TaskOperationBatcher taskOperationBatcher;
+
     /** The classloader for the user code. Needed for calls into user code classes. */
     private final ClassLoader userClassLoader;
 
@@ -284,7 +288,8 @@ public class DefaultExecutionGraph implements ExecutionGraph, InternalExecutionG
             ExecutionStateUpdateListener executionStateUpdateListener,
             long initializationTimestamp,
             VertexAttemptNumberStore initialAttemptCounts,
-            VertexParallelismStore vertexParallelismStore)
+            VertexParallelismStore vertexParallelismStore,
+            boolean batchTaskOperations)
             throws IOException {
 
         this.jobInformation = checkNotNull(jobInformation);
@@ -343,6 +348,13 @@ public class DefaultExecutionGraph implements ExecutionGraph, InternalExecutionG
 
         this.parallelismStore = vertexParallelismStore;
 
+        this.taskOperationBatcher =
+                new TaskOperationBatcher(
+                        batchTaskOperations,
+                        futureExecutor,
+                        rpcTimeout,
+                        this::getJobMasterMainThreadExecutor);
+
         this.edgeManager = new EdgeManager();
         this.executionVerticesById = new HashMap<>();
         this.resultPartitionsById = new HashMap<>();
@@ -767,6 +779,9 @@ public class DefaultExecutionGraph implements ExecutionGraph, InternalExecutionG
 
         final long createTimestamp = System.currentTimeMillis();
 
+        final List<ExecutionJobVertex> newExecJobVertices =
+                new ArrayList<>(topologicallySorted.size());
+
         for (JobVertex jobVertex : topologicallySorted) {
 
             if (jobVertex.isInputVertex() && !jobVertex.isStoppable()) {
@@ -777,17 +792,7 @@ public class DefaultExecutionGraph implements ExecutionGraph, InternalExecutionG
                     parallelismStore.getParallelismInfo(jobVertex.getID());
 
             // create the execution job vertex and attach it to the graph
-            ExecutionJobVertex ejv =
-                    new ExecutionJobVertex(
-                            this,
-                            jobVertex,
-                            maxPriorAttemptsHistoryLength,
-                            rpcTimeout,
-                            createTimestamp,
-                            parallelismInfo,
-                            initialAttemptCounts.getAttemptCounts(jobVertex.getID()));
-
-            ejv.connectToPredecessors(this.intermediateResults);
+            ExecutionJobVertex ejv = new ExecutionJobVertex(this, jobVertex, parallelismInfo);
 
             ExecutionJobVertex previousTask = this.tasks.putIfAbsent(jobVertex.getID(), ejv);
             if (previousTask != null) {
@@ -797,22 +802,17 @@ public class DefaultExecutionGraph implements ExecutionGraph, InternalExecutionG
                                 jobVertex.getID(), ejv, previousTask));
             }
 
-            for (IntermediateResult res : ejv.getProducedDataSets()) {
-                IntermediateResult previousDataSet =
-                        this.intermediateResults.putIfAbsent(res.getId(), res);
-                if (previousDataSet != null) {
-                    throw new JobException(
-                            String.format(
-                                    "Encountered two intermediate data set with ID %s : previous=[%s] / new=[%s]",
-                                    res.getId(), res, previousDataSet));
-                }
-            }
-
             this.verticesInCreationOrder.add(ejv);
-            this.numVerticesTotal += ejv.getParallelism();
+            newExecJobVertices.add(ejv);
         }
 
-        registerExecutionVerticesAndResultPartitions(this.verticesInCreationOrder);
+        // the vertices whose parallelism is not decided yet, and all vertices consuming their
+        // results, are initialized later on via #initializeJobVertex
+        for (ExecutionJobVertex ejv : newExecJobVertices) {
+            if (ejv.getParallelism() > 0 && areInputsAvailable(ejv)) {
+                initializeJobVertexInternal(ejv, createTimestamp);
+            }
+        }
 
         // the topology assigning should happen before notifying new vertices to failoverStrategy
         executionTopology = DefaultExecutionTopology.fromExecutionGraph(this);
@@ -821,6 +821,72 @@ public class DefaultExecutionGraph implements ExecutionGraph, InternalExecutionG
                 partitionReleaseStrategyFactory.createInstance(getSchedulingTopology());
     }
 
+    @Override
+    public void initializeJobVertex(ExecutionJobVertex ejv, long createTimestamp)
+            throws JobException {
+        assertRunningInJobMasterMainThread();
+        checkState(
+                areInputsAvailable(ejv),
+                "The inputs of job vertex %s are not initialized yet.",
+                ejv.getJobVertexId());
+
+        initializeJobVertexInternal(ejv, createTimestamp);
+    }
+
+    @Override
+    public void notifyNewlyInitializedJobVertices(List<ExecutionJobVertex> vertices) {
+        assertRunningInJobMasterMainThread();
+
+        executionTopology.notifyExecutionGraphUpdated(this, vertices);
+
+        partitionReleaseStrategy =
+                partitionReleaseStrategyFactory.createInstance(getSchedulingTopology());
+        // the recreated release strategy has to know about the vertices that are finished already
+        for (ExecutionJobVertex ejv : verticesInCreationOrder) {
+            for (ExecutionVertex vertex : ejv.getTaskVertices()) {
+                if (vertex.getExecutionState() == ExecutionState.FINISHED) {
+                    partitionReleaseStrategy.vertexFinished(vertex.getID());
+                }
+            }
+        }
+    }
+
+    private boolean areInputsAvailable(ExecutionJobVertex ejv) {
+        for (JobEdge edge : ejv.getJobVertex().getInputs()) {
+            if (!intermediateResults.containsKey(edge.getSourceId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void initializeJobVertexInternal(ExecutionJobVertex ejv, long createTimestamp)
+            throws JobException {
+
+        ejv.initialize(
+                maxPriorAttemptsHistoryLength,
+                rpcTimeout,
+                createTimestamp,
+                initialAttemptCounts.getAttemptCounts(ejv.getJobVertexId()));
+
+        ejv.connectToPredecessors(this.intermediateResults);
+
+        for (IntermediateResult res : ejv.getProducedDataSets()) {
+            IntermediateResult previousDataSet =
+                    this.intermediateResults.putIfAbsent(res.getId(), res);
+            if (previousDataSet != null) {
+                throw new JobException(
+                        String.format(
+                                "Encountered two intermediate data set with ID %s : previous=[%s] / new=[%s]",
+                                res.getId(), res, previousDataSet));
+            }
+        }
+
+        this.numVerticesTotal += ejv.getParallelism();
+
+        registerExecutionVerticesAndResultPartitions(Collections.singletonList(ejv));
+    }
+
     @Override
     public void transitionToRunning() {
         if (!transitionState(JobStatus.CREATED, JobStatus.RUNNING)) {
@@ -1070,7 +1136,7 @@ public class DefaultExecutionGraph implements ExecutionGraph, InternalExecutionG
     public void vertexFinished() {
         assertRunningInJobMasterMainThread();
         final int numFinished = ++numFinishedVertices;
-        if (numFinished == numVerticesTotal) {
+        if (numFinished == numVerticesTotal && isAllJobVerticesInitialized()) {
             // done :-)
 
             // check whether we are still in "RUNNING" and trigger the final cleanup
@@ -1098,6 +1164,15 @@ public class DefaultExecutionGraph implements ExecutionGraph, InternalExecutionG
         }
     }
 
+    private boolean isAllJobVerticesInitialized() {
+        for (ExecutionJobVertex ejv : verticesInCreationOrder) {
+            if (!ejv.isInitialized()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public void vertexUnFinished() {
         assertRunningInJobMasterMainThread();
@@ -1500,4 +1575,9 @@ public class DefaultExecutionGraph implements ExecutionGraph, InternalExecutionG
     public ExecutionDeploymentListener getExecutionDeploymentListener() {
         return executionDeploymentListener;
     }
+
+    @Override
+    public TaskOperationBatcher getTaskOperationBatcher() {
+        return taskOperationBatcher;
+    }
 }
@@ -137,7 +137,8 @@ public class DefaultExecutionGraphBuilder {
                             executionStateUpdateListener,
                             initializationTimestamp,
                             vertexAttemptNumberStore,
-                            vertexParallelismStore);
+                            vertexParallelismStore,
+                            jobManagerConfig.getBoolean(JobManagerOptions.BATCH_TASK_RPCS));
         } catch (IOException e) {
             throw new JobException("Could not create the ExecutionGraph.", e);
         }
@@ -203,5 +203,15 @@ public class EdgeManagerBuildUtil {
                 .getGraph()
                 .getEdgeManager()
                 .registerConsumedPartitionGroup(consumedPartitionGroup);
+
+        // the consumer may be connected after some of the blocking partitions are finished, if its
+        // parallelism was decided after the producer started running
+        for (IntermediateResultPartitionID partitionId : consumedPartitionGroup) {
+            IntermediateResultPartition partition =
+                    intermediateResult.getPartitionById(partitionId);
+            if (partition.getResultType().isBlocking() && partition.isConsumable()) {
+                consumedPartitionGroup.partitionFinished();
+            }
+        }
     }
 }
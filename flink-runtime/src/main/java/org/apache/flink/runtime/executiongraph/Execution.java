@@ -74,7 +74,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -122,9 +121,6 @@ public class Execution
 
     // --------------------------------------------------------------------------------------------
 
-    /** The executor which is used to execute futures. */
-    private final Executor executor;
-
     /** The execution vertex whose task this execution executes. */
     private final ExecutionVertex vertex;
 
@@ -192,21 +188,14 @@ public class Execution
     /**
      * Creates a new Execution attempt.
      *
-     * @param executor The executor used to dispatch callbacks from futures and asynchronous RPC
-     *     calls.
      * @param vertex The execution vertex to which this Execution belongs
      * @param attemptNumber The execution attempt number.
      * @param startTimestamp The timestamp that marks the creation of this Execution
      * @param rpcTimeout The rpcTimeout for RPC calls like deploy/cancel/stop.
      */
     public Execution(
-            Executor executor,
-            ExecutionVertex vertex,
-            int attemptNumber,
-            long startTimestamp,
-            Time rpcTimeout) {
+            ExecutionVertex vertex, int attemptNumber, long startTimestamp, Time rpcTimeout) {
 
-        this.executor = checkNotNull(executor);
         this.vertex = checkNotNull(vertex);
         this.attemptId = new ExecutionAttemptID();
         this.rpcTimeout = checkNotNull(rpcTimeout);
@@ -490,6 +479,14 @@ public class Execution
             IntermediateResultPartition partition,
             Function<ExecutionVertexID, ExecutionVertex> getVertexById) {
         final List<ConsumerVertexGroup> consumerVertexGroups = partition.getConsumerVertexGroups();
+        final ExecutionJobVertex consumerVertex =
+                partition.getIntermediateResult().getConsumerExecutionJobVertex();
+        if (consumerVertexGroups.isEmpty()
+                && consumerVertex != null
+                && !consumerVertex.isInitialized()) {
+            // the consumer is connected once its parallelism is decided
+            return consumerVertex.getMaxParallelism();
+        }
         Preconditions.checkArgument(
                 consumerVertexGroups.size() == 1,
                 "Currently there has to be exactly one consumer in real jobs");
@@ -562,12 +559,12 @@ public class Execution
                     "Deploying {} (attempt #{}) with attempt id {} to {} with allocation id {}",
                     vertex.getTaskNameWithSubtaskIndex(),
                     attemptNumber,
-                    vertex.getCurrentExecutionAttempt().getAttemptId(),
+                    attemptId,
                     getAssignedResourceLocation(),
                     slot.getAllocationId());
 
             final TaskDeploymentDescriptor deployment =
-                    TaskDeploymentDescriptorFactory.fromExecutionVertex(vertex, attemptNumber)
+                    TaskDeploymentDescriptorFactory.fromExecution(this)
                             .createDeploymentDescriptor(
                                     slot.getAllocationId(),
                                     taskRestore,
@@ -582,12 +579,11 @@ public class Execution
                     vertex.getExecutionGraphAccessor().getJobMasterMainThreadExecutor();
 
             getVertex().notifyPendingDeployment(this);
-            // We run the submission in the future executor so that the serialization of large TDDs
-            // does not block
-            // the main thread and sync back to the main thread once submission is completed.
-            CompletableFuture.supplyAsync(
-                            () -> taskManagerGateway.submitTask(deployment, rpcTimeout), executor)
-                    .thenCompose(Function.identity())
+            // The submission does not block the main thread, we sync back to the main thread once
+            // the submission is completed.
+            vertex.getExecutionGraphAccessor()
+                    .getTaskOperationBatcher()
+                    .submitTask(taskManagerGateway, deployment)
                     .whenCompleteAsync(
                             (ack, failure) -> {
                                 if (failure == null) {
@@ -935,6 +931,10 @@ public class Execution
 
             if (current == INITIALIZING || current == RUNNING || current == DEPLOYING) {
 
+                // the vertex has to know the finishing attempt as its current execution before
+                // the transition, in case this is one of several attempts of the vertex
+                vertex.executionFinishing(this);
+
                 if (transitionState(current, FINISHED)) {
                     try {
                         finishPartitionsAndUpdateConsumers();
@@ -1250,7 +1250,11 @@ public class Execution
 
             CompletableFuture<Acknowledge> cancelResultFuture =
                     FutureUtils.retry(
-                            () -> taskManagerGateway.cancelTask(attemptId, rpcTimeout),
+                            () ->
+                                    getVertex()
+                                            .getExecutionGraphAccessor()
+                                            .getTaskOperationBatcher()
+                                            .cancelTask(taskManagerGateway, attemptId),
                             numberRetries,
                             jobMasterMainThreadExecutor);
 
@@ -1335,7 +1339,7 @@ public class Execution
      *
      * @param partitionInfos for the remote task
      */
-    private void sendUpdatePartitionInfoRpcCall(final Iterable<PartitionInfo> partitionInfos) {
+    private void sendUpdatePartitionInfoRpcCall(final Collection<PartitionInfo> partitionInfos) {
 
         final LogicalSlot slot = assignedResource;
 
@@ -1344,7 +1348,10 @@ public class Execution
             final TaskManagerLocation taskManagerLocation = slot.getTaskManagerLocation();
 
             CompletableFuture<Acknowledge> updatePartitionsResultFuture =
-                    taskManagerGateway.updatePartitions(attemptId, partitionInfos, rpcTimeout);
+                    getVertex()
+                            .getExecutionGraphAccessor()
+                            .getTaskOperationBatcher()
+                            .updatePartitions(taskManagerGateway, attemptId, partitionInfos);
 
             updatePartitionsResultFuture.whenCompleteAsync(
                     (ack, failure) -> {
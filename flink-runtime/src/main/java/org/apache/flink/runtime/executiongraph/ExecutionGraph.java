@@ -144,6 +144,23 @@ public interface ExecutionGraph extends AccessExecutionGraph {
 
     void attachJobGraph(List<JobVertex> topologicallySorted) throws JobException;
 
+    /**
+     * Initializes a job vertex whose parallelism was not decided when the job graph was attached.
+     * All the job vertices producing its inputs must be initialized already.
+     *
+     * @param ejv the job vertex to initialize, its parallelism must be decided
+     * @param createTimestamp the timestamp of creating the execution vertices
+     */
+    void initializeJobVertex(ExecutionJobVertex ejv, long createTimestamp) throws JobException;
+
+    /**
+     * Notifies the execution graph that the given job vertices were initialized, so that their
+     * execution vertices are added to the scheduling topology.
+     *
+     * @param vertices the newly initialized job vertices
+     */
+    void notifyNewlyInitializedJobVertices(List<ExecutionJobVertex> vertices);
+
     void transitionToRunning();
 
     void cancel();
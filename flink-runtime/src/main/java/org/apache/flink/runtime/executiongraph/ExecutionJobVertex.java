@@ -69,6 +69,7 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
 
 /**
  * An {@code ExecutionJobVertex} is part of the {@link ExecutionGraph}, and the peer to the {@link
@@ -89,9 +90,9 @@ public class ExecutionJobVertex
 
     private final JobVertex jobVertex;
 
-    private final ExecutionVertex[] taskVertices;
+    private ExecutionVertex[] taskVertices;
 
-    private final IntermediateResult[] producedDataSets;
+    private IntermediateResult[] producedDataSets;
 
     private final List<IntermediateResult> inputs;
 
@@ -101,7 +102,7 @@ public class ExecutionJobVertex
 
     @Nullable private final CoLocationGroup coLocationGroup;
 
-    private final InputSplit[] inputSplits;
+    private InputSplit[] inputSplits;
 
     private final ResourceProfile resourceProfile;
 
@@ -113,7 +114,7 @@ public class ExecutionJobVertex
     private Either<SerializedValue<TaskInformation>, PermanentBlobKey> taskInformationOrBlobKey =
             null;
 
-    private final Collection<OperatorCoordinatorHolder> operatorCoordinators;
+    private Collection<OperatorCoordinatorHolder> operatorCoordinators;
 
     private InputSplitAssigner splitAssigner;
 
@@ -127,6 +128,21 @@ public class ExecutionJobVertex
             VertexParallelismInformation parallelismInfo,
             SubtaskAttemptNumberStore initialAttemptCounts)
             throws JobException {
+        this(graph, jobVertex, parallelismInfo);
+        initialize(maxPriorAttemptsHistoryLength, timeout, createTimestamp, initialAttemptCounts);
+    }
+
+    /**
+     * Creates an execution job vertex without its execution vertices. The execution vertices, the
+     * produced intermediate results, the operator coordinators and the input splits are only
+     * created by {@link #initialize}, which allows to decide the parallelism of the vertex after
+     * the execution graph was built.
+     */
+    ExecutionJobVertex(
+            InternalExecutionGraphAccessor graph,
+            JobVertex jobVertex,
+            VertexParallelismInformation parallelismInfo)
+            throws JobException {
 
         if (graph == null || jobVertex == null) {
             throw new NullPointerException();
@@ -150,13 +166,28 @@ public class ExecutionJobVertex
         this.resourceProfile =
                 ResourceProfile.fromResourceSpec(jobVertex.getMinResources(), MemorySize.ZERO);
 
-        this.taskVertices = new ExecutionVertex[this.parallelismInfo.getParallelism()];
-
         this.inputs = new ArrayList<>(jobVertex.getInputs().size());
 
         // take the sharing group
         this.slotSharingGroup = checkNotNull(jobVertex.getSlotSharingGroup());
         this.coLocationGroup = jobVertex.getCoLocationGroup();
+    }
+
+    /**
+     * Creates the execution vertices, the produced intermediate results, the operator coordinators
+     * and the input splits of this vertex. The parallelism of the vertex must be decided before.
+     */
+    protected void initialize(
+            int maxPriorAttemptsHistoryLength,
+            Time timeout,
+            long createTimestamp,
+            SubtaskAttemptNumberStore initialAttemptCounts)
+            throws JobException {
+
+        checkState(parallelismInfo.getParallelism() > 0, "The parallelism is not decided yet.");
+        checkState(!isInitialized(), "The execution job vertex is already initialized.");
+
+        this.taskVertices = new ExecutionVertex[this.parallelismInfo.getParallelism()];
 
         // create the intermediate results
         this.producedDataSets =
@@ -248,6 +279,11 @@ public class ExecutionJobVertex
         }
     }
 
+    /** Returns whether the execution vertices of this job vertex have been created. */
+    public boolean isInitialized() {
+        return taskVertices != null;
+    }
+
     /**
      * Returns a list containing the ID pairs of all operators contained in this execution job
      * vertex.
@@ -303,12 +339,25 @@ public class ExecutionJobVertex
         return jobVertex.getID();
     }
 
+    /**
+     * Sets the parallelism of a vertex whose parallelism was not decided when the execution graph
+     * was built. Must be called before the vertex is initialized.
+     */
+    public void setParallelism(int parallelism) {
+        checkState(!isInitialized(), "The execution job vertex is already initialized.");
+        parallelismInfo.setParallelism(parallelism);
+    }
+
     @Override
     public ExecutionVertex[] getTaskVertices() {
+        if (taskVertices == null) {
+            return new ExecutionVertex[0];
+        }
         return taskVertices;
     }
 
     public IntermediateResult[] getProducedDataSets() {
+        checkState(isInitialized(), "The execution job vertex is not initialized yet.");
         return producedDataSets;
     }
 
@@ -330,6 +379,9 @@ public class ExecutionJobVertex
     }
 
     public Collection<OperatorCoordinatorHolder> getOperatorCoordinators() {
+        if (operatorCoordinators == null) {
+            return Collections.emptyList();
+        }
         return operatorCoordinators;
     }
 
@@ -361,7 +413,7 @@ public class ExecutionJobVertex
     @Override
     public ExecutionState getAggregateState() {
         int[] num = new int[ExecutionState.values().length];
-        for (ExecutionVertex vertex : this.taskVertices) {
+        for (ExecutionVertex vertex : getTaskVertices()) {
             num[vertex.getExecutionState().ordinal()]++;
         }
 
@@ -466,7 +518,7 @@ public class ExecutionJobVertex
     public StringifiedAccumulatorResult[] getAggregatedUserAccumulatorsStringified() {
         Map<String, OptionalFailure<Accumulator<?, ?>>> userAccumulators = new HashMap<>();
 
-        for (ExecutionVertex vertex : taskVertices) {
+        for (ExecutionVertex vertex : getTaskVertices()) {
             Map<String, Accumulator<?, ?>> next =
                     vertex.getCurrentExecutionAttempt().getUserAccumulators();
             if (next != null) {
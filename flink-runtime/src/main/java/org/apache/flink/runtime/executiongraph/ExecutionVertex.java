@@ -36,12 +36,14 @@ import org.apache.flink.runtime.scheduler.strategy.ConsumedPartitionGroup;
 import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
 import org.apache.flink.runtime.taskmanager.TaskManagerLocation;
 import org.apache.flink.runtime.util.EvictingBoundedList;
+import org.apache.flink.util.concurrent.FutureUtils;
 
 import org.slf4j.Logger;
 
 import javax.annotation.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -85,6 +87,12 @@ public class ExecutionVertex
     /** The current or latest execution attempt of this vertex's task. */
     private Execution currentExecution; // this field must never be null
 
+    /**
+     * The speculative execution attempts which run concurrently to the current execution, the first
+     * attempt to finish becomes the current execution.
+     */
+    private final Map<ExecutionAttemptID, Execution> speculativeExecutions;
+
     private final ArrayList<InputSplit> inputSplits;
 
     // --------------------------------------------------------------------------------------------
@@ -135,16 +143,11 @@ public class ExecutionVertex
 
         this.priorExecutions = new EvictingBoundedList<>(maxPriorExecutionHistoryLength);
 
-        this.currentExecution =
-                new Execution(
-                        getExecutionGraphAccessor().getFutureExecutor(),
-                        this,
-                        initialAttemptCount,
-                        createTimestamp,
-                        timeout);
+        this.currentExecution = new Execution(this, initialAttemptCount, createTimestamp, timeout);
 
         getExecutionGraphAccessor().registerExecution(currentExecution);
 
+        this.speculativeExecutions = new LinkedHashMap<>();
         this.timeout = timeout;
         this.inputSplits = new ArrayList<>();
     }
@@ -363,6 +366,17 @@ public class ExecutionVertex
         final ExecutionState oldState = oldExecution.getState();
 
         if (oldState.isTerminal()) {
+            for (Execution speculativeExecution : speculativeExecutions.values()) {
+                checkState(
+                        speculativeExecution.getState().isTerminal(),
+                        "Cannot reset a vertex whose speculative execution %s is in non-terminal state %s.",
+                        speculativeExecution,
+                        speculativeExecution.getState());
+                priorExecutions.add(speculativeExecution.archive());
+            }
+            final int nextAttemptNumber = getMaxAttemptNumber() + 1;
+            speculativeExecutions.clear();
+
             if (oldState == FINISHED) {
                 // pipelined partitions are released in Execution#cancel(), covering both job
                 // failures and vertex resets
@@ -376,12 +390,7 @@ public class ExecutionVertex
             priorExecutions.add(oldExecution.archive());
 
             final Execution newExecution =
-                    new Execution(
-                            getExecutionGraphAccessor().getFutureExecutor(),
-                            this,
-                            oldExecution.getAttemptNumber() + 1,
-                            timestamp,
-                            timeout);
+                    new Execution(this, nextAttemptNumber, timestamp, timeout);
 
             currentExecution = newExecution;
 
@@ -412,6 +421,43 @@ public class ExecutionVertex
         }
     }
 
+    /**
+     * Creates a speculative execution attempt of this vertex, which runs concurrently to the
+     * current execution. The first of the attempts to finish becomes the current execution, the
+     * other attempts are cancelled then.
+     *
+     * @param timestamp The timestamp of the creation of the execution attempt
+     * @return The new speculative execution attempt
+     */
+    public Execution createSpeculativeExecution(final long timestamp) {
+        checkState(
+                !currentExecution.getState().isTerminal(),
+                "Cannot speculatively execute a vertex whose current execution is in terminal state %s.",
+                currentExecution.getState());
+
+        final Execution speculativeExecution =
+                new Execution(this, getMaxAttemptNumber() + 1, timestamp, timeout);
+        speculativeExecutions.put(speculativeExecution.getAttemptId(), speculativeExecution);
+
+        // register this execution at the execution graph, to receive call backs
+        getExecutionGraphAccessor().registerExecution(speculativeExecution);
+
+        return speculativeExecution;
+    }
+
+    /** Returns the speculative execution attempts of the current execution of this vertex. */
+    public Collection<Execution> getSpeculativeExecutions() {
+        return Collections.unmodifiableCollection(speculativeExecutions.values());
+    }
+
+    private int getMaxAttemptNumber() {
+        int maxAttemptNumber = currentExecution.getAttemptNumber();
+        for (Execution speculativeExecution : speculativeExecutions.values()) {
+            maxAttemptNumber = Math.max(maxAttemptNumber, speculativeExecution.getAttemptNumber());
+        }
+        return maxAttemptNumber;
+    }
+
     public void tryAssignResource(LogicalSlot slot) {
         if (!currentExecution.tryAssignResource(slot)) {
             throw new IllegalStateException(
@@ -451,11 +497,31 @@ public class ExecutionVertex
         // we copy a reference to the stack to make sure both calls go to the same Execution
         final Execution exec = currentExecution;
         exec.cancel();
-        return exec.getReleaseFuture();
+
+        if (speculativeExecutions.isEmpty()) {
+            return exec.getReleaseFuture();
+        }
+
+        final List<CompletableFuture<?>> releaseFutures = new ArrayList<>();
+        releaseFutures.add(exec.getReleaseFuture());
+        for (Execution speculativeExecution : new ArrayList<>(speculativeExecutions.values())) {
+            speculativeExecution.cancel();
+            releaseFutures.add(speculativeExecution.getReleaseFuture());
+        }
+        return FutureUtils.waitForAll(releaseFutures);
     }
 
     public CompletableFuture<?> suspend() {
-        return currentExecution.suspend();
+        if (speculativeExecutions.isEmpty()) {
+            return currentExecution.suspend();
+        }
+
+        final List<CompletableFuture<?>> releaseFutures = new ArrayList<>();
+        releaseFutures.add(currentExecution.suspend());
+        for (Execution speculativeExecution : new ArrayList<>(speculativeExecutions.values())) {
+            releaseFutures.add(speculativeExecution.suspend());
+        }
+        return FutureUtils.waitForAll(releaseFutures);
     }
 
     public void fail(Throwable t) {
@@ -519,6 +585,30 @@ public class ExecutionVertex
     //   Notifications from the Execution Attempt
     // --------------------------------------------------------------------------------------------
 
+    /**
+     * Called by an execution attempt right before it transitions to FINISHED. If the attempt is a
+     * speculative execution, it becomes the current execution of this vertex. All the other
+     * attempts are cancelled, only the results of the finishing attempt are consumed.
+     */
+    void executionFinishing(Execution execution) {
+        if (speculativeExecutions.isEmpty()) {
+            return;
+        }
+
+        if (speculativeExecutions.remove(execution.getAttemptId()) != null) {
+            LOG.info(
+                    "Speculative execution {} of {} finished first, using its results.",
+                    execution.getAttemptId(),
+                    getTaskNameWithSubtaskIndex());
+            speculativeExecutions.put(currentExecution.getAttemptId(), currentExecution);
+            currentExecution = execution;
+        }
+
+        for (Execution otherExecution : new ArrayList<>(speculativeExecutions.values())) {
+            otherExecution.cancel();
+        }
+    }
+
     void executionFinished(Execution execution) {
         getExecutionGraphAccessor().vertexFinished();
     }
@@ -528,9 +618,9 @@ public class ExecutionVertex
     // --------------------------------------------------------------------------------------------
 
     void notifyPendingDeployment(Execution execution) {
-        // only forward this notification if the execution is still the current execution
-        // otherwise we have an outdated execution
-        if (isCurrentExecution(execution)) {
+        // only forward this notification if the execution is still the current execution or
+        // a speculative execution, otherwise we have an outdated execution
+        if (isActiveExecution(execution)) {
             getExecutionGraphAccessor()
                     .getExecutionDeploymentListener()
                     .onStartedDeployment(
@@ -540,9 +630,9 @@ public class ExecutionVertex
     }
 
     void notifyCompletedDeployment(Execution execution) {
-        // only forward this notification if the execution is still the current execution
-        // otherwise we have an outdated execution
-        if (isCurrentExecution(execution)) {
+        // only forward this notification if the execution is still the current execution or
+        // a speculative execution, otherwise we have an outdated execution
+        if (isActiveExecution(execution)) {
             getExecutionGraphAccessor()
                     .getExecutionDeploymentListener()
                     .onCompletedDeployment(execution.getAttemptId());
@@ -551,15 +641,16 @@ public class ExecutionVertex
 
     /** Simply forward this notification. */
     void notifyStateTransition(Execution execution, ExecutionState newState) {
-        // only forward this notification if the execution is still the current execution
-        // otherwise we have an outdated execution
-        if (isCurrentExecution(execution)) {
+        // only forward this notification if the execution is still the current execution or
+        // a speculative execution, otherwise we have an outdated execution
+        if (isActiveExecution(execution)) {
             getExecutionGraphAccessor().notifyExecutionChange(execution, newState);
         }
     }
 
-    private boolean isCurrentExecution(Execution execution) {
-        return currentExecution == execution;
+    private boolean isActiveExecution(Execution execution) {
+        return currentExecution == execution
+                || speculativeExecutions.get(execution.getAttemptId()) == execution;
     }
 
     // --------------------------------------------------------------------------------------------
@@ -19,8 +19,11 @@
 package org.apache.flink.runtime.executiongraph;
 
 import org.apache.flink.metrics.Meter;
+import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
 
 /** An instance of this class represents a snapshot of the io-related metrics of a single task. */
 public class IOMetrics implements Serializable {
@@ -33,11 +36,24 @@ public class IOMetrics implements Serializable {
     protected long numBytesIn;
     protected long numBytesOut;
 
+    /** The number of bytes written to each result partition of the task. */
+    protected Map<IntermediateResultPartitionID, Long> numBytesProducedOfPartitions;
+
     public IOMetrics(Meter recordsIn, Meter recordsOut, Meter bytesIn, Meter bytesOut) {
+        this(recordsIn, recordsOut, bytesIn, bytesOut, Collections.emptyMap());
+    }
+
+    public IOMetrics(
+            Meter recordsIn,
+            Meter recordsOut,
+            Meter bytesIn,
+            Meter bytesOut,
+            Map<IntermediateResultPartitionID, Long> numBytesProducedOfPartitions) {
         this.numRecordsIn = recordsIn.getCount();
         this.numRecordsOut = recordsOut.getCount();
         this.numBytesIn = bytesIn.getCount();
         this.numBytesOut = bytesOut.getCount();
+        this.numBytesProducedOfPartitions = numBytesProducedOfPartitions;
     }
 
     public IOMetrics(long numBytesIn, long numBytesOut, long numRecordsIn, long numRecordsOut) {
@@ -45,6 +61,7 @@ public class IOMetrics implements Serializable {
         this.numBytesOut = numBytesOut;
         this.numRecordsIn = numRecordsIn;
         this.numRecordsOut = numRecordsOut;
+        this.numBytesProducedOfPartitions = Collections.emptyMap();
     }
 
     public long getNumRecordsIn() {
@@ -62,4 +79,12 @@ public class IOMetrics implements Serializable {
     public long getNumBytesOut() {
         return numBytesOut;
     }
+
+    /**
+     * Returns the number of bytes written to each result partition of the task. Partitions that
+     * the task did not write to may be missing.
+     */
+    public Map<IntermediateResultPartitionID, Long> getNumBytesProducedOfPartitions() {
+        return numBytesProducedOfPartitions;
+    }
 }
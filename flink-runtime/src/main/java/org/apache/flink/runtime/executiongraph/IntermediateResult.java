@@ -23,11 +23,15 @@ import org.apache.flink.runtime.blob.PermanentBlobKey;
 import org.apache.flink.runtime.deployment.TaskDeploymentDescriptor.MaybeOffloaded;
 import org.apache.flink.runtime.deployment.TaskDeploymentDescriptor.Offloaded;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
+import org.apache.flink.runtime.jobgraph.IntermediateDataSet;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
+import org.apache.flink.runtime.jobgraph.JobEdge;
 import org.apache.flink.runtime.scheduler.strategy.ConsumedPartitionGroup;
 import org.apache.flink.runtime.shuffle.ShuffleDescriptor;
 
+import javax.annotation.Nullable;
+
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -155,6 +159,36 @@ public class IntermediateResult {
         return connectionIndex;
     }
 
+    /**
+     * Returns the job vertex consuming this result, which may not be initialized yet, or null if
+     * the result has no consumer.
+     */
+    @Nullable
+    public ExecutionJobVertex getConsumerExecutionJobVertex() {
+        final JobEdge consumerEdge = getConsumerJobEdge();
+        if (consumerEdge == null) {
+            return null;
+        }
+        return producer.getGraph().getJobVertex(consumerEdge.getTarget().getID());
+    }
+
+    /** Returns whether all records of this result are sent to every consumer subtask. */
+    public boolean isBroadcast() {
+        final JobEdge consumerEdge = getConsumerJobEdge();
+        return consumerEdge != null && consumerEdge.isBroadcast();
+    }
+
+    @Nullable
+    JobEdge getConsumerJobEdge() {
+        for (IntermediateDataSet dataSet : producer.getJobVertex().getProducedDataSets()) {
+            if (dataSet.getId().equals(id)) {
+                // currently there is at most one consumer of each result
+                return dataSet.getConsumers().isEmpty() ? null : dataSet.getConsumers().get(0);
+            }
+        }
+        return null;
+    }
+
     @VisibleForTesting
     void resetForNewExecution() {
         for (IntermediateResultPartition partition : partitions) {
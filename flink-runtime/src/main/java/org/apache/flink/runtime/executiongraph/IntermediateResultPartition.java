@@ -19,7 +19,9 @@
 package org.apache.flink.runtime.executiongraph;
 
 import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
+import org.apache.flink.runtime.jobgraph.DistributionPattern;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
+import org.apache.flink.runtime.jobgraph.JobEdge;
 import org.apache.flink.runtime.scheduler.strategy.ConsumedPartitionGroup;
 import org.apache.flink.runtime.scheduler.strategy.ConsumerVertexGroup;
 
@@ -27,6 +29,8 @@ import java.util.List;
 
 public class IntermediateResultPartition {
 
+    private static final int UNKNOWN = -1;
+
     private final IntermediateResult totalResult;
 
     private final ExecutionVertex producer;
@@ -38,6 +42,12 @@ public class IntermediateResultPartition {
     /** Whether this partition has produced some data. */
     private boolean hasDataProduced = false;
 
+    /**
+     * The number of subpartitions, fixed once it is computed because the data of the partition is
+     * written to that many subpartitions.
+     */
+    private int numberOfSubpartitions = UNKNOWN;
+
     public IntermediateResultPartition(
             IntermediateResult totalResult,
             ExecutionVertex producer,
@@ -69,6 +79,52 @@ public class IntermediateResultPartition {
         return totalResult.getResultType();
     }
 
+    /**
+     * Returns the number of subpartitions that the data of this partition is written to.
+     *
+     * <p>Usually there is one subpartition for each consuming subtask. If the parallelism of the
+     * consumer job vertex is not decided yet, there is one subpartition for each subtask that the
+     * consumer could have at most, and the decided consumer subtasks consume ranges of these
+     * subpartitions. The subpartitions of a broadcast result all hold the same data, so there is
+     * a single subpartition that all consumers read in this case.
+     */
+    public int getNumberOfSubpartitions() {
+        if (numberOfSubpartitions == UNKNOWN) {
+            numberOfSubpartitions = computeNumberOfSubpartitions();
+        }
+        return numberOfSubpartitions;
+    }
+
+    private int computeNumberOfSubpartitions() {
+        final List<ConsumerVertexGroup> consumerVertexGroups = getConsumerVertexGroups();
+        if (!consumerVertexGroups.isEmpty() && !consumerVertexGroups.get(0).isEmpty()) {
+            if (consumerVertexGroups.size() > 1) {
+                throw new IllegalStateException(
+                        "Currently, only a single consumer group per partition is supported.");
+            }
+            return consumerVertexGroups.get(0).size();
+        }
+
+        final ExecutionJobVertex consumerVertex = totalResult.getConsumerExecutionJobVertex();
+        if (consumerVertex == null || consumerVertex.isInitialized()) {
+            // If no consumers are known at this point, we use a single subpartition.
+            return 1;
+        }
+
+        if (totalResult.isBroadcast()) {
+            return 1;
+        }
+
+        final JobEdge consumerEdge = totalResult.getConsumerJobEdge();
+        final int maxConsumerParallelism = consumerVertex.getMaxParallelism();
+        if (consumerEdge.getDistributionPattern() == DistributionPattern.ALL_TO_ALL) {
+            return maxConsumerParallelism;
+        } else {
+            final int numberOfProducers = totalResult.getNumberOfAssignedPartitions();
+            return (maxConsumerParallelism + numberOfProducers - 1) / numberOfProducers;
+        }
+    }
+
     public List<ConsumerVertexGroup> getConsumerVertexGroups() {
         return getEdgeManager().getConsumerVertexGroupsForPartition(partitionId);
     }
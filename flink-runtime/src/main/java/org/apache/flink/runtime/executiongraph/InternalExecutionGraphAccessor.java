@@ -27,6 +27,7 @@ import org.apache.flink.runtime.execution.ExecutionState;
 import org.apache.flink.runtime.executiongraph.failover.flip1.partitionrelease.PartitionReleaseStrategy;
 import org.apache.flink.runtime.io.network.partition.JobMasterPartitionTracker;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
+import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
 import org.apache.flink.runtime.shuffle.ShuffleMaster;
 import org.apache.flink.types.Either;
@@ -79,6 +80,8 @@ public interface InternalExecutionGraphAccessor {
 
     ExecutionDeploymentListener getExecutionDeploymentListener();
 
+    TaskOperationBatcher getTaskOperationBatcher();
+
     /**
      * Fails the execution graph globally.
      *
@@ -106,4 +109,10 @@ public interface InternalExecutionGraphAccessor {
     IntermediateResultPartition getResultPartitionOrThrow(final IntermediateResultPartitionID id);
 
     void deleteBlobs(List<PermanentBlobKey> blobKeys);
+
+    /**
+     * Returns the execution job vertex of the given ID, which may not be initialized yet, or null
+     * if there is no such vertex.
+     */
+    ExecutionJobVertex getJobVertex(JobVertexID id);
 }
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.executiongraph;
+
+import java.io.Serializable;
+
+/**
+ * A snapshot of the load of a running task, reported by the TaskExecutor to the JobManager with
+ * its heartbeats.
+ */
+public class TaskLoad implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Marker for an unknown number of pending records. */
+    public static final long UNKNOWN_PENDING_RECORDS = -1L;
+
+    private final double busyTimeMsPerSecond;
+
+    private final double backPressuredTimeMsPerSecond;
+
+    private final long pendingRecords;
+
+    public TaskLoad(
+            double busyTimeMsPerSecond, double backPressuredTimeMsPerSecond, long pendingRecords) {
+        this.busyTimeMsPerSecond = busyTimeMsPerSecond;
+        this.backPressuredTimeMsPerSecond = backPressuredTimeMsPerSecond;
+        this.pendingRecords = pendingRecords;
+    }
+
+    /**
+     * Returns the time per second the task was busy processing records, or {@link Double#NaN} if
+     * the busy time is not measured.
+     */
+    public double getBusyTimeMsPerSecond() {
+        return busyTimeMsPerSecond;
+    }
+
+    /** Returns the time per second the task was back pressured by its consumers. */
+    public double getBackPressuredTimeMsPerSecond() {
+        return backPressuredTimeMsPerSecond;
+    }
+
+    /**
+     * Returns the number of records a source task has not read yet from its external system, or
+     * {@link #UNKNOWN_PENDING_RECORDS} if the task is no source or its source does not report it.
+     */
+    public long getPendingRecords() {
+        return pendingRecords;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskLoad{"
+                + "busyTimeMsPerSecond="
+                + busyTimeMsPerSecond
+                + ", backPressuredTimeMsPerSecond="
+                + backPressuredTimeMsPerSecond
+                + ", pendingRecords="
+                + pendingRecords
+                + '}';
+    }
+}
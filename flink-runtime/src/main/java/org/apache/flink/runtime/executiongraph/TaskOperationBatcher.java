@@ -0,0 +1,296 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.runtime.executiongraph;
+
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutor;
+import org.apache.flink.runtime.deployment.TaskDeploymentDescriptor;
+import org.apache.flink.runtime.jobmanager.slots.TaskManagerGateway;
+import org.apache.flink.runtime.messages.Acknowledge;
+import org.apache.flink.util.ExceptionUtils;
+import org.apache.flink.util.SerializedThrowable;
+import org.apache.flink.util.concurrent.FutureUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Sends the deployments, cancellations and partition updates of the tasks of an execution graph
+ * to the TaskManagers.
+ *
+ * <p>If batching is enabled, the operations which are issued in the same run of the JobMaster's
+ * main thread, e.g. the deployments of one deployment round of the scheduler or the cancellations
+ * of the tasks to restart after a failure, are sent as one RPC per TaskManager and type of
+ * operation once the run finishes. Otherwise, every operation is sent as an RPC of its own.
+ *
+ * <p>The methods of this class must be called from the JobMaster's main thread.
+ */
+public class TaskOperationBatcher {
+
+    private final boolean batchOperations;
+
+    private final Executor futureExecutor;
+
+    private final Time rpcTimeout;
+
+    private final Supplier<ComponentMainThreadExecutor> mainThreadExecutorSupplier;
+
+    /** The operations which have not been sent yet, per TaskManager. */
+    private final Map<TaskManagerGateway, PendingOperations> pendingOperations =
+            new IdentityHashMap<>();
+
+    public TaskOperationBatcher(
+            boolean batchOperations,
+            Executor futureExecutor,
+            Time rpcTimeout,
+            Supplier<ComponentMainThreadExecutor> mainThreadExecutorSupplier) {
+        this.batchOperations = batchOperations;
+        this.futureExecutor = checkNotNull(futureExecutor);
+        this.rpcTimeout = checkNotNull(rpcTimeout);
+        this.mainThreadExecutorSupplier = checkNotNull(mainThreadExecutorSupplier);
+    }
+
+    /**
+     * Submits the given task to the TaskManager of the given gateway.
+     *
+     * @param taskManagerGateway of the TaskManager to deploy the task to
+     * @param tdd describing the task to submit
+     * @return Future acknowledge of the successful submission
+     */
+    public CompletableFuture<Acknowledge> submitTask(
+            TaskManagerGateway taskManagerGateway, TaskDeploymentDescriptor tdd) {
+        if (!batchOperations) {
+            // We run the submission in the future executor so that the serialization of large TDDs
+            // does not block the main thread.
+            return CompletableFuture.supplyAsync(
+                            () -> taskManagerGateway.submitTask(tdd, rpcTimeout), futureExecutor)
+                    .thenCompose(Function.identity());
+        }
+
+        return addPendingOperation(
+                taskManagerGateway,
+                operations -> operations.deployments,
+                tdd.getExecutionAttemptId(),
+                tdd);
+    }
+
+    /**
+     * Cancels the given task on the TaskManager of the given gateway.
+     *
+     * @param taskManagerGateway of the TaskManager running the task
+     * @param executionAttemptId identifying the task
+     * @return Future acknowledge if the task is successfully canceled
+     */
+    public CompletableFuture<Acknowledge> cancelTask(
+            TaskManagerGateway taskManagerGateway, ExecutionAttemptID executionAttemptId) {
+        if (!batchOperations) {
+            return taskManagerGateway.cancelTask(executionAttemptId, rpcTimeout);
+        }
+
+        return addPendingOperation(
+                taskManagerGateway,
+                operations -> operations.cancellations,
+                executionAttemptId,
+                executionAttemptId);
+    }
+
+    /**
+     * Updates the task on the TaskManager of the given gateway where the given partitions can be
+     * found.
+     *
+     * @param taskManagerGateway of the TaskManager running the task
+     * @param executionAttemptId identifying the task
+     * @param partitionInfos telling where the partitions can be retrieved from
+     * @return Future acknowledge if the partitions have been successfully updated
+     */
+    public CompletableFuture<Acknowledge> updatePartitions(
+            TaskManagerGateway taskManagerGateway,
+            ExecutionAttemptID executionAttemptId,
+            Collection<PartitionInfo> partitionInfos) {
+        if (!batchOperations) {
+            return taskManagerGateway.updatePartitions(
+                    executionAttemptId, partitionInfos, rpcTimeout);
+        }
+
+        return addPendingOperation(
+                taskManagerGateway,
+                operations -> operations.partitionUpdates,
+                executionAttemptId,
+                partitionInfos);
+    }
+
+    private <T> CompletableFuture<Acknowledge> addPendingOperation(
+            TaskManagerGateway taskManagerGateway,
+            Function<PendingOperations, OperationBatch<T>> batchSelector,
+            ExecutionAttemptID executionAttemptId,
+            T operation) {
+        final ComponentMainThreadExecutor mainThreadExecutor = mainThreadExecutorSupplier.get();
+        mainThreadExecutor.assertRunningInMainThread();
+
+        final boolean isSendScheduled = !pendingOperations.isEmpty();
+
+        final CompletableFuture<Acknowledge> resultFuture =
+                batchSelector
+                        .apply(
+                                pendingOperations.computeIfAbsent(
+                                        taskManagerGateway, ignored -> new PendingOperations()))
+                        .add(executionAttemptId, operation);
+
+        if (!isSendScheduled) {
+            // the operations are sent once the current run of the main thread is finished
+            mainThreadExecutor.execute(this::sendPendingOperations);
+        }
+
+        return resultFuture;
+    }
+
+    private void sendPendingOperations() {
+        final Map<TaskManagerGateway, PendingOperations> operationsToSend =
+                new IdentityHashMap<>(pendingOperations);
+        pendingOperations.clear();
+
+        for (Map.Entry<TaskManagerGateway, PendingOperations> operations :
+                operationsToSend.entrySet()) {
+            try {
+                // serialize the batches in the future executor as the deployments can be large
+                futureExecutor.execute(
+                        () -> operations.getValue().send(operations.getKey(), rpcTimeout));
+            } catch (Throwable t) {
+                operations.getValue().fail(t);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    /** The operations of the tasks of one TaskManager which have not been sent yet. */
+    private static final class PendingOperations {
+
+        private final OperationBatch<TaskDeploymentDescriptor> deployments =
+                new OperationBatch<>((ignored, tdd) -> tdd);
+
+        private final OperationBatch<Collection<PartitionInfo>> partitionUpdates =
+                new OperationBatch<>(
+                        (partitionInfos, otherPartitionInfos) -> {
+                            final List<PartitionInfo> mergedPartitionInfos =
+                                    new ArrayList<>(partitionInfos);
+                            mergedPartitionInfos.addAll(otherPartitionInfos);
+                            return mergedPartitionInfos;
+                        });
+
+        private final OperationBatch<ExecutionAttemptID> cancellations =
+                new OperationBatch<>((ignored, executionAttemptId) -> executionAttemptId);
+
+        /**
+         * Sends the deployments before the other operations, which may concern the deployed tasks.
+         */
+        private void send(TaskManagerGateway taskManagerGateway, Time timeout) {
+            deployments.send(
+                    tdds ->
+                            taskManagerGateway.submitTasks(
+                                    new ArrayList<>(tdds.values()), timeout));
+            partitionUpdates.send(
+                    partitionInfos ->
+                            taskManagerGateway.updatePartitionsOfTasks(partitionInfos, timeout));
+            cancellations.send(
+                    executionAttemptIds ->
+                            taskManagerGateway.cancelTasks(
+                                    new ArrayList<>(executionAttemptIds.keySet()), timeout));
+        }
+
+        private void fail(Throwable cause) {
+            deployments.complete(null, cause);
+            partitionUpdates.complete(null, cause);
+            cancellations.complete(null, cause);
+        }
+    }
+
+    /** Operations of the same type on the tasks of one TaskManager. */
+    private static final class OperationBatch<T> {
+
+        private final Map<ExecutionAttemptID, T> operations = new LinkedHashMap<>();
+
+        private final Map<ExecutionAttemptID, List<CompletableFuture<Acknowledge>>> resultFutures =
+                new HashMap<>();
+
+        /** Merges the operations on the same task. */
+        private final BinaryOperator<T> mergeFunction;
+
+        private OperationBatch(BinaryOperator<T> mergeFunction) {
+            this.mergeFunction = mergeFunction;
+        }
+
+        private CompletableFuture<Acknowledge> add(
+                ExecutionAttemptID executionAttemptId, T operation) {
+            operations.merge(executionAttemptId, operation, mergeFunction);
+
+            final CompletableFuture<Acknowledge> resultFuture = new CompletableFuture<>();
+            resultFutures
+                    .computeIfAbsent(executionAttemptId, ignored -> new ArrayList<>(1))
+                    .add(resultFuture);
+            return resultFuture;
+        }
+
+        private void send(
+                Function<
+                                Map<ExecutionAttemptID, T>,
+                                CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>>>
+                        sender) {
+            if (operations.isEmpty()) {
+                return;
+            }
+
+            CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> failuresFuture;
+            try {
+                failuresFuture = sender.apply(operations);
+            } catch (Throwable t) {
+                failuresFuture = FutureUtils.completedExceptionally(t);
+            }
+            failuresFuture.whenComplete(this::complete);
+        }
+
+        private void complete(
+                Map<ExecutionAttemptID, SerializedThrowable> failures, Throwable failure) {
+            for (Map.Entry<ExecutionAttemptID, List<CompletableFuture<Acknowledge>>> results :
+                    resultFutures.entrySet()) {
+                for (CompletableFuture<Acknowledge> resultFuture : results.getValue()) {
+                    if (failure != null) {
+                        resultFuture.completeExceptionally(
+                                ExceptionUtils.stripCompletionException(failure));
+                    } else if (failures.containsKey(results.getKey())) {
+                        resultFuture.completeExceptionally(failures.get(results.getKey()));
+                    } else {
+                        resultFuture.complete(Acknowledge.get());
+                    }
+                }
+            }
+        }
+    }
+}
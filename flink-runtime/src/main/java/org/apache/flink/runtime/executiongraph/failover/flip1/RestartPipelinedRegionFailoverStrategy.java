@@ -40,6 +40,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
@@ -64,6 +65,13 @@ public class RestartPipelinedRegionFailoverStrategy implements FailoverStrategy
     private final RegionFailoverResultPartitionAvailabilityChecker
             resultPartitionAvailabilityChecker;
 
+    /**
+     * The consumed partition groups and consumer regions of the regions, computed when a region is
+     * involved in a failover for the first time. Cleared when the topology changes.
+     */
+    private final Map<SchedulingPipelinedRegion, RegionConnections> regionConnections =
+            new IdentityHashMap<>();
+
     /**
      * Creates a new failover strategy to restart pipelined regions that works on the given
      * topology. The result partitions are always considered to be available if no data consumption
@@ -91,6 +99,8 @@ public class RestartPipelinedRegionFailoverStrategy implements FailoverStrategy
         this.resultPartitionAvailabilityChecker =
                 new RegionFailoverResultPartitionAvailabilityChecker(
                         resultPartitionAvailabilityChecker);
+        topology.registerSchedulingTopologyListener(
+                (updatedTopology, newExecutionVertices) -> regionConnections.clear());
     }
 
     // ------------------------------------------------------------------------
@@ -172,8 +182,6 @@ public class RestartPipelinedRegionFailoverStrategy implements FailoverStrategy
 
         Set<ConsumedPartitionGroup> visitedConsumedResultGroups =
                 Collections.newSetFromMap(new IdentityHashMap<>());
-        Set<ConsumerVertexGroup> visitedConsumerVertexGroups =
-                Collections.newSetFromMap(new IdentityHashMap<>());
 
         // start from the failed region to visit all involved regions
         Queue<SchedulingPipelinedRegion> regionsToVisit = new ArrayDeque<>();
@@ -202,10 +210,8 @@ public class RestartPipelinedRegionFailoverStrategy implements FailoverStrategy
             }
 
             // all consumer regions of an involved region should be involved
-            for (ExecutionVertexID consumerVertexId :
-                    getConsumerVerticesToVisit(regionToRestart, visitedConsumerVertexGroups)) {
-                SchedulingPipelinedRegion consumerRegion =
-                        topology.getPipelinedRegionOfVertex(consumerVertexId);
+            for (SchedulingPipelinedRegion consumerRegion :
+                    getRegionConnections(regionToRestart).consumerRegions) {
                 if (!visitedRegions.contains(consumerRegion)) {
                     visitedRegions.add(consumerRegion);
                     regionsToVisit.add(consumerRegion);
@@ -222,37 +228,71 @@ public class RestartPipelinedRegionFailoverStrategy implements FailoverStrategy
 
         final List<ConsumedPartitionGroup> consumedPartitionGroupsToVisit = new ArrayList<>();
 
-        for (SchedulingExecutionVertex vertex : regionToRestart.getVertices()) {
-            for (ConsumedPartitionGroup consumedPartitionGroup :
-                    vertex.getConsumedPartitionGroups()) {
-                if (!visitedConsumedResultGroups.contains(consumedPartitionGroup)) {
-                    visitedConsumedResultGroups.add(consumedPartitionGroup);
-                    consumedPartitionGroupsToVisit.add(consumedPartitionGroup);
-                }
+        for (ConsumedPartitionGroup consumedPartitionGroup :
+                getRegionConnections(regionToRestart).consumedPartitionGroups) {
+            if (!visitedConsumedResultGroups.contains(consumedPartitionGroup)) {
+                visitedConsumedResultGroups.add(consumedPartitionGroup);
+                consumedPartitionGroupsToVisit.add(consumedPartitionGroup);
             }
         }
 
         return IterableUtils.flatMap(consumedPartitionGroupsToVisit, Function.identity());
     }
 
-    private Iterable<ExecutionVertexID> getConsumerVerticesToVisit(
-            SchedulingPipelinedRegion regionToRestart,
-            Set<ConsumerVertexGroup> visitedConsumerVertexGroups) {
-        final List<ConsumerVertexGroup> consumerVertexGroupsToVisit = new ArrayList<>();
+    private RegionConnections getRegionConnections(SchedulingPipelinedRegion region) {
+        return regionConnections.computeIfAbsent(region, this::computeRegionConnections);
+    }
+
+    /**
+     * Computes the consumed partition groups and the consumer regions of the given region. The
+     * producers and consumers of non-reconnectable partitions are always in the same region, so
+     * only the groups of reconnectable partitions are considered. Each {@link
+     * ConsumedPartitionGroup} and {@link ConsumerVertexGroup} is visited once, no matter how many
+     * vertices of the region it is connected to.
+     */
+    private RegionConnections computeRegionConnections(SchedulingPipelinedRegion region) {
+        final List<ConsumedPartitionGroup> consumedPartitionGroups = new ArrayList<>();
+        final Set<ConsumedPartitionGroup> visitedConsumedPartitionGroups =
+                Collections.newSetFromMap(new IdentityHashMap<>());
+        final Set<SchedulingPipelinedRegion> consumerRegions =
+                Collections.newSetFromMap(new IdentityHashMap<>());
+        final Set<ConsumerVertexGroup> visitedConsumerVertexGroups =
+                Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (SchedulingExecutionVertex vertex : region.getVertices()) {
+            for (ConsumedPartitionGroup consumedPartitionGroup :
+                    vertex.getConsumedPartitionGroups()) {
+                if (visitedConsumedPartitionGroups.add(consumedPartitionGroup)
+                        && isReconnectable(consumedPartitionGroup.getFirst())) {
+                    consumedPartitionGroups.add(consumedPartitionGroup);
+                }
+            }
 
-        for (SchedulingExecutionVertex vertex : regionToRestart.getVertices()) {
             for (SchedulingResultPartition producedPartition : vertex.getProducedResults()) {
+                if (!producedPartition.getResultType().isReconnectable()) {
+                    continue;
+                }
                 for (ConsumerVertexGroup consumerVertexGroup :
                         producedPartition.getConsumerVertexGroups()) {
-                    if (!visitedConsumerVertexGroups.contains(consumerVertexGroup)) {
-                        visitedConsumerVertexGroups.add(consumerVertexGroup);
-                        consumerVertexGroupsToVisit.add(consumerVertexGroup);
+                    if (!visitedConsumerVertexGroups.add(consumerVertexGroup)) {
+                        continue;
+                    }
+                    for (ExecutionVertexID consumerVertexId : consumerVertexGroup) {
+                        final SchedulingPipelinedRegion consumerRegion =
+                                topology.getPipelinedRegionOfVertex(consumerVertexId);
+                        if (consumerRegion != region) {
+                            consumerRegions.add(consumerRegion);
+                        }
                     }
                 }
             }
         }
 
-        return IterableUtils.flatMap(consumerVertexGroupsToVisit, Function.identity());
+        return new RegionConnections(consumedPartitionGroups, consumerRegions);
+    }
+
+    private boolean isReconnectable(IntermediateResultPartitionID partitionId) {
+        return topology.getResultPartition(partitionId).getResultType().isReconnectable();
     }
 
     // ------------------------------------------------------------------------
@@ -269,6 +309,21 @@ public class RestartPipelinedRegionFailoverStrategy implements FailoverStrategy
         return topology.getPipelinedRegionOfVertex(vertexID);
     }
 
+    /** The reconnectable consumed partition groups and the consumer regions of a region. */
+    private static class RegionConnections {
+
+        private final List<ConsumedPartitionGroup> consumedPartitionGroups;
+
+        private final Set<SchedulingPipelinedRegion> consumerRegions;
+
+        RegionConnections(
+                List<ConsumedPartitionGroup> consumedPartitionGroups,
+                Set<SchedulingPipelinedRegion> consumerRegions) {
+            this.consumedPartitionGroups = consumedPartitionGroups;
+            this.consumerRegions = consumerRegions;
+        }
+    }
+
     /**
      * A stateful {@link ResultPartitionAvailabilityChecker} which maintains the failed partitions
      * which are not available.
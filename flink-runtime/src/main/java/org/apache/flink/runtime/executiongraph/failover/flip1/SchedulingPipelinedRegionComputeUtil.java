@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -50,12 +51,16 @@ public final class SchedulingPipelinedRegionComputeUtil {
             final Function<IntermediateResultPartitionID, ? extends SchedulingResultPartition>
                     resultPartitionRetriever) {
 
+        final Set<ConsumedPartitionGroup> visitedConsumedPartitionGroups =
+                Collections.newSetFromMap(new IdentityHashMap<>());
         final Map<SchedulingExecutionVertex, Set<SchedulingExecutionVertex>> vertexToRegion =
                 buildRawRegions(
                         topologicallySortedVertices,
                         vertex ->
                                 getNonReconnectableConsumedResults(
-                                        vertex, resultPartitionRetriever));
+                                        vertex,
+                                        resultPartitionRetriever,
+                                        visitedConsumedPartitionGroups));
 
         return mergeRegionsOnCycles(vertexToRegion, executionVertexRetriever);
     }
@@ -106,9 +111,16 @@ public final class SchedulingPipelinedRegionComputeUtil {
             regionIndices.put(regionList.get(i), i);
         }
 
+        // the regions of the consumers of each ConsumerVertexGroup, computed once per group
+        final Map<ConsumerVertexGroup, Set<Integer>> consumerRegionIndices =
+                new IdentityHashMap<>();
+
         final List<List<Integer>> outEdges = new ArrayList<>(regionList.size());
         for (Set<SchedulingExecutionVertex> currentRegion : regionList) {
-            final List<Integer> currentRegionOutEdges = new ArrayList<>();
+            final int currentRegionIndex = regionIndices.get(currentRegion);
+            final Set<Integer> currentRegionOutEdges = new LinkedHashSet<>();
+            final Set<ConsumerVertexGroup> visitedConsumerVertexGroups =
+                    Collections.newSetFromMap(new IdentityHashMap<>());
             for (SchedulingExecutionVertex vertex : currentRegion) {
                 for (SchedulingResultPartition producedResult : vertex.getProducedResults()) {
                     if (!producedResult.getResultType().isReconnectable()) {
@@ -116,34 +128,72 @@ public final class SchedulingPipelinedRegionComputeUtil {
                     }
                     for (ConsumerVertexGroup consumerVertexGroup :
                             producedResult.getConsumerVertexGroups()) {
-                        for (ExecutionVertexID consumerVertexId : consumerVertexGroup) {
-                            SchedulingExecutionVertex consumerVertex =
-                                    executionVertexRetriever.apply(consumerVertexId);
-                            // Skip the ConsumerVertexGroup if its vertices are outside current
-                            // regions and cannot be merged
-                            if (!vertexToRegion.containsKey(consumerVertex)) {
-                                break;
-                            }
-                            if (!currentRegion.contains(consumerVertex)) {
-                                currentRegionOutEdges.add(
-                                        regionIndices.get(vertexToRegion.get(consumerVertex)));
+                        if (!visitedConsumerVertexGroups.add(consumerVertexGroup)) {
+                            continue;
+                        }
+                        for (int consumerRegionIndex :
+                                consumerRegionIndices.computeIfAbsent(
+                                        consumerVertexGroup,
+                                        group ->
+                                                getConsumerRegionIndices(
+                                                        group,
+                                                        vertexToRegion,
+                                                        regionIndices,
+                                                        executionVertexRetriever))) {
+                            if (consumerRegionIndex != currentRegionIndex) {
+                                currentRegionOutEdges.add(consumerRegionIndex);
                             }
                         }
                     }
                 }
             }
-            outEdges.add(currentRegionOutEdges);
+            outEdges.add(new ArrayList<>(currentRegionOutEdges));
         }
 
         return outEdges;
     }
 
+    private static Set<Integer> getConsumerRegionIndices(
+            final ConsumerVertexGroup consumerVertexGroup,
+            final Map<SchedulingExecutionVertex, Set<SchedulingExecutionVertex>> vertexToRegion,
+            final Map<Set<SchedulingExecutionVertex>, Integer> regionIndices,
+            final Function<ExecutionVertexID, ? extends SchedulingExecutionVertex>
+                    executionVertexRetriever) {
+        final Set<Integer> consumerRegionIndices = new LinkedHashSet<>();
+        for (ExecutionVertexID consumerVertexId : consumerVertexGroup) {
+            SchedulingExecutionVertex consumerVertex =
+                    executionVertexRetriever.apply(consumerVertexId);
+            // Skip the ConsumerVertexGroup if its vertices are outside current
+            // regions and cannot be merged
+            if (!vertexToRegion.containsKey(consumerVertex)) {
+                break;
+            }
+            consumerRegionIndices.add(regionIndices.get(vertexToRegion.get(consumerVertex)));
+        }
+        return consumerRegionIndices;
+    }
+
+    /**
+     * Returns the non-reconnectable partitions the given vertex consumes. The producers of the
+     * partitions of a {@link ConsumedPartitionGroup} which was visited for another consumer before
+     * are already merged into one region, so only the first partition of such a group is returned.
+     * This keeps the computation linear in the number of groups for all-to-all edges.
+     */
     private static Iterable<SchedulingResultPartition> getNonReconnectableConsumedResults(
             SchedulingExecutionVertex vertex,
             Function<IntermediateResultPartitionID, ? extends SchedulingResultPartition>
-                    resultPartitionRetriever) {
+                    resultPartitionRetriever,
+            Set<ConsumedPartitionGroup> visitedConsumedPartitionGroups) {
         List<SchedulingResultPartition> nonReconnectableConsumedResults = new ArrayList<>();
         for (ConsumedPartitionGroup consumedPartitionGroup : vertex.getConsumedPartitionGroups()) {
+            if (!visitedConsumedPartitionGroups.add(consumedPartitionGroup)) {
+                SchedulingResultPartition consumedResult =
+                        resultPartitionRetriever.apply(consumedPartitionGroup.getFirst());
+                if (!consumedResult.getResultType().isReconnectable()) {
+                    nonReconnectableConsumedResults.add(consumedResult);
+                }
+                continue;
+            }
             for (IntermediateResultPartitionID partitionId : consumedPartitionGroup) {
                 SchedulingResultPartition consumedResult =
                         resultPartitionRetriever.apply(partitionId);
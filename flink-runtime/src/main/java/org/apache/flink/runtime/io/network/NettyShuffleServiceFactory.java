@@ -161,7 +161,8 @@ public class NettyShuffleServiceFactory
                         config.getMaxBuffersPerChannel(),
                         config.sortShuffleMinBuffers(),
                         config.sortShuffleMinParallelism(),
-                        config.isSSLEnabled());
+                        config.isSSLEnabled(),
+                        config.approximateRecoveryMaxInFlightLogBytes());
 
         SingleInputGateFactory singleInputGateFactory =
                 new SingleInputGateFactory(
@@ -74,6 +74,16 @@ class CreditBasedPartitionRequestClientHandler extends ChannelInboundHandlerAdap
     private final ChannelFutureListener writeListener =
             new WriteAndFlushNextMessageIfPossibleListener();
 
+    private final ChannelFutureListener writeFailureListener =
+            future -> {
+                if (!future.isSuccess()) {
+                    notifyAllChannelsOfErrorAndClose(
+                            future.cause() != null
+                                    ? future.cause()
+                                    : new IllegalStateException("Sending cancelled by user."));
+                }
+            };
+
     /**
      * Set of cancelled partition requests. A request is cancelled iff an input channel is cleared
      * while data is still coming in for this channel.
@@ -391,7 +401,11 @@ class CreditBasedPartitionRequestClientHandler extends ChannelInboundHandlerAdap
     }
 
     /**
-     * Tries to write&flush unannounced credits for the next input channel in queue.
+     * Tries to write&flush unannounced credits for the next input channels in queue.
+     *
+     * <p>All queued messages are written as long as the channel is writable and flushed together,
+     * so that the small control messages of many input channels share network packets and
+     * syscalls instead of being flushed one by one.
      *
      * <p>This method may be called by the first input channel enqueuing, or the complete future's
      * callback in previous input channel, or the channel writability changed event.
@@ -401,13 +415,14 @@ class CreditBasedPartitionRequestClientHandler extends ChannelInboundHandlerAdap
             return;
         }
 
-        while (true) {
+        ChannelFuture lastWriteFuture = null;
+        while (channel.isWritable()) {
             ClientOutboundMessage outboundMessage = clientOutboundMessages.poll();
 
             // The input channel may be null because of the write callbacks
-            // that are executed after each write.
+            // that are executed after each flush.
             if (outboundMessage == null) {
-                return;
+                break;
             }
 
             // It is no need to notify credit or resume data consumption for the released channel.
@@ -417,13 +432,19 @@ class CreditBasedPartitionRequestClientHandler extends ChannelInboundHandlerAdap
                     continue;
                 }
 
-                // Write and flush and wait until this is done before
-                // trying to continue with the next input channel.
-                channel.writeAndFlush(msg).addListener(writeListener);
-
-                return;
+                if (lastWriteFuture != null) {
+                    lastWriteFuture.addListener(writeFailureListener);
+                }
+                lastWriteFuture = channel.write(msg);
             }
         }
+
+        if (lastWriteFuture != null) {
+            // Flush and wait until this is done before trying to continue with the next input
+            // channels.
+            lastWriteFuture.addListener(writeListener);
+            channel.flush();
+        }
     }
 
     private class WriteAndFlushNextMessageIfPossibleListener implements ChannelFutureListener {
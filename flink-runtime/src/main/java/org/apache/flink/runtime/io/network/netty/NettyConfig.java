@@ -125,6 +125,10 @@ public class NettyConfig {
         return config.getInteger(NettyShuffleEnvironmentOptions.NETWORK_RETRIES);
     }
 
+    public int getMaxNumberOfConnections() {
+        return config.getInteger(NettyShuffleEnvironmentOptions.MAX_NUM_TCP_CONNECTIONS);
+    }
+
     public int getSendAndReceiveBufferSize() {
         return config.getInteger(NettyShuffleEnvironmentOptions.SEND_RECEIVE_BUFFER_SIZE);
     }
@@ -50,7 +50,10 @@ public class NettyConnectionManager implements ConnectionManager {
         this.bufferPool = new NettyBufferPool(nettyConfig.getNumberOfArenas());
 
         this.partitionRequestClientFactory =
-                new PartitionRequestClientFactory(client, nettyConfig.getNetworkRetries());
+                new PartitionRequestClientFactory(
+                        client,
+                        nettyConfig.getNetworkRetries(),
+                        nettyConfig.getMaxNumberOfConnections());
 
         this.nettyProtocol =
                 new NettyProtocol(
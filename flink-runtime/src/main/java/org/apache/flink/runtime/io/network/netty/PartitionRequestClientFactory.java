@@ -18,6 +18,7 @@
 
 package org.apache.flink.runtime.io.network.netty;
 
+import org.apache.flink.configuration.NettyShuffleEnvironmentOptions;
 import org.apache.flink.runtime.io.network.ConnectionID;
 import org.apache.flink.runtime.io.network.NetworkClientHandler;
 import org.apache.flink.runtime.io.network.PartitionRequestClient;
@@ -36,6 +37,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 
+import static org.apache.flink.util.Preconditions.checkArgument;
+
 /**
  * Factory for {@link NettyPartitionRequestClient} instances.
  *
@@ -49,6 +52,9 @@ class PartitionRequestClientFactory {
 
     private final int retryNumber;
 
+    /** The maximum number of TCP connections to the same remote address. */
+    private final int maxNumberOfConnections;
+
     private final ConcurrentMap<ConnectionID, CompletableFuture<NettyPartitionRequestClient>>
             clients = new ConcurrentHashMap<>();
 
@@ -57,8 +63,18 @@ class PartitionRequestClientFactory {
     }
 
     PartitionRequestClientFactory(NettyClient nettyClient, int retryNumber) {
+        this(
+                nettyClient,
+                retryNumber,
+                NettyShuffleEnvironmentOptions.MAX_NUM_TCP_CONNECTIONS.defaultValue());
+    }
+
+    PartitionRequestClientFactory(
+            NettyClient nettyClient, int retryNumber, int maxNumberOfConnections) {
+        checkArgument(maxNumberOfConnections > 0, "The number of connections must be positive.");
         this.nettyClient = nettyClient;
         this.retryNumber = retryNumber;
+        this.maxNumberOfConnections = maxNumberOfConnections;
     }
 
     /**
@@ -67,6 +83,9 @@ class PartitionRequestClientFactory {
      */
     NettyPartitionRequestClient createPartitionRequestClient(ConnectionID connectionId)
             throws IOException, InterruptedException {
+        // Restrict the number of TCP connections to the same remote address, the connection index
+        // of different intermediate results is otherwise random
+        connectionId = toPooledConnectionId(connectionId);
         while (true) {
             final CompletableFuture<NettyPartitionRequestClient> newClientFuture =
                     new CompletableFuture<>();
@@ -148,18 +167,25 @@ class PartitionRequestClientFactory {
     }
 
     void closeOpenChannelConnections(ConnectionID connectionId) {
-        CompletableFuture<NettyPartitionRequestClient> entry = clients.get(connectionId);
+        final ConnectionID pooledConnectionId = toPooledConnectionId(connectionId);
+        CompletableFuture<NettyPartitionRequestClient> entry = clients.get(pooledConnectionId);
 
         if (entry != null && !entry.isDone()) {
             entry.thenAccept(
                     client -> {
                         if (client.disposeIfNotUsed()) {
-                            clients.remove(connectionId, entry);
+                            clients.remove(pooledConnectionId, entry);
                         }
                     });
         }
     }
 
+    private ConnectionID toPooledConnectionId(ConnectionID connectionId) {
+        return new ConnectionID(
+                connectionId.getAddress(),
+                connectionId.getConnectionIndex() % maxNumberOfConnections);
+    }
+
     int getNumberOfActiveClients() {
         return clients.size();
     }
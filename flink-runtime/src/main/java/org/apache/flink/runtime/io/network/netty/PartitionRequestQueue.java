@@ -58,6 +58,13 @@ class PartitionRequestQueue extends ChannelInboundHandlerAdapter {
     private final ChannelFutureListener writeListener =
             new WriteAndFlushNextMessageIfPossibleListener();
 
+    private final ChannelFutureListener writeFailureListener =
+            future -> {
+                if (!future.isSuccess()) {
+                    onChannelFutureFailure(future);
+                }
+            };
+
     /** The readers which are already enqueued available for transferring data. */
     private final ArrayDeque<NetworkSequenceViewReader> availableReaders = new ArrayDeque<>();
 
@@ -207,15 +214,7 @@ class PartitionRequestQueue extends ChannelInboundHandlerAdapter {
 
         NettyMessage.BacklogAnnouncement announcement =
                 new NettyMessage.BacklogAnnouncement(backlog, reader.getReceiverId());
-        ctx.channel()
-                .writeAndFlush(announcement)
-                .addListener(
-                        (ChannelFutureListener)
-                                future -> {
-                                    if (!future.isSuccess()) {
-                                        onChannelFutureFailure(future);
-                                    }
-                                });
+        ctx.channel().writeAndFlush(announcement).addListener(writeFailureListener);
     }
 
     @Override
@@ -257,14 +256,19 @@ class PartitionRequestQueue extends ChannelInboundHandlerAdapter {
         // gate and the consumed views as the local input channels.
 
         BufferAndAvailability next = null;
+        ChannelFuture lastWriteFuture = null;
         try {
-            while (true) {
+            // Write buffers of all available readers as long as the channel is writable and
+            // flush them together afterwards, instead of flushing every single buffer response.
+            // The pending bytes of the written but not yet flushed messages are accounted in
+            // the channel's writability, so the write buffer watermarks still apply.
+            while (channel.isWritable()) {
                 NetworkSequenceViewReader reader = pollAvailableReader();
 
                 // No queue with available data. We allow this here, because
-                // of the write callbacks that are executed after each write.
+                // of the write callbacks that are executed after each flush.
                 if (reader == null) {
-                    return;
+                    break;
                 }
 
                 next = reader.getNextBuffer();
@@ -295,11 +299,12 @@ class PartitionRequestQueue extends ChannelInboundHandlerAdapter {
                                     reader.getReceiverId(),
                                     next.buffersInBacklog());
 
-                    // Write and flush and wait until this is done before
-                    // trying to continue with the next buffer.
-                    channel.writeAndFlush(msg).addListener(writeListener);
-
-                    return;
+                    if (lastWriteFuture != null) {
+                        lastWriteFuture.addListener(writeFailureListener);
+                    }
+                    // The buffer is owned by the channel from now on.
+                    next = null;
+                    lastWriteFuture = channel.write(msg);
                 }
             }
         } catch (Throwable t) {
@@ -308,6 +313,13 @@ class PartitionRequestQueue extends ChannelInboundHandlerAdapter {
             }
 
             throw new IOException(t.getMessage(), t);
+        } finally {
+            if (lastWriteFuture != null) {
+                // Flush and wait until this is done before trying to continue with the
+                // next buffers.
+                lastWriteFuture.addListener(writeListener);
+                channel.flush();
+            }
         }
     }
 
@@ -373,8 +385,8 @@ class PartitionRequestQueue extends ChannelInboundHandlerAdapter {
         }
     }
 
-    // This listener is called after an element of the current nonEmptyReader has been
-    // flushed. If successful, the listener triggers further processing of the
+    // This listener is called after the last written element of the current nonEmptyReader has
+    // been flushed. If successful, the listener triggers further processing of the
     // queues.
     private class WriteAndFlushNextMessageIfPossibleListener implements ChannelFutureListener {
 
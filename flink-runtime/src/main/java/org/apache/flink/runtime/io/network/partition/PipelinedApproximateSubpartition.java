@@ -19,33 +19,90 @@
 package org.apache.flink.runtime.io.network.partition;
 
 import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.event.AbstractEvent;
+import org.apache.flink.runtime.io.network.api.CheckpointBarrier;
+import org.apache.flink.runtime.io.network.api.serialization.EventSerializer;
 import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.apache.flink.runtime.io.network.buffer.BufferConsumerWithPartialRecordLength;
+import org.apache.flink.runtime.io.network.buffer.FreeingBufferRecycler;
+import org.apache.flink.runtime.io.network.buffer.NetworkBuffer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
 
+import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkState;
 
 /**
  * A pipelined in-memory only subpartition, which allows to reconnecting after failure. Only one
  * view is allowed at a time to read teh subpartition.
+ *
+ * <p>If an in-flight log is configured, the subpartition keeps a copy of all buffers sent to the
+ * consumer since the barrier of the last completed checkpoint. A consumer reconnecting after it
+ * was restarted from that checkpoint first receives the logged buffers again, so no data is lost
+ * by the restart. If the logged data exceeds the configured size, the log is dropped until the
+ * next checkpoint completes, and a reconnecting consumer skips the partial record instead.
  */
 public class PipelinedApproximateSubpartition extends PipelinedSubpartition {
 
     private static final Logger LOG =
             LoggerFactory.getLogger(PipelinedApproximateSubpartition.class);
 
+    /** Checkpoint id of logged buffers which are no checkpoint barrier. */
+    private static final long NO_CHECKPOINT = -1L;
+
     @GuardedBy("buffers")
     private boolean isPartialBufferCleanupRequired = false;
 
+    /** Max number of bytes of the in-flight log, 0 if the in-flight log is disabled. */
+    private final long maxInFlightLogBytes;
+
+    /** Copies of the buffers sent since the barrier of the last completed checkpoint. */
+    @GuardedBy("buffers")
+    private final ArrayDeque<LoggedBuffer> inFlightLog = new ArrayDeque<>();
+
+    @GuardedBy("buffers")
+    private long inFlightLogBytes;
+
+    /**
+     * Whether the in-flight log contains all buffers sent since the barrier of the last completed
+     * checkpoint. Once the log exceeded its max size, it is incomplete until the barrier of a
+     * later checkpoint was sent and this checkpoint completed.
+     */
+    @GuardedBy("buffers")
+    private boolean isInFlightLogComplete = true;
+
+    /** Buffers of the in-flight log which still have to be sent to the current view. */
+    @GuardedBy("buffers")
+    private final ArrayDeque<Buffer> replayBuffers = new ArrayDeque<>();
+
+    /** The number of non-event buffers in {@link #replayBuffers}. */
+    @GuardedBy("buffers")
+    private int replayBuffersInBacklog;
+
     PipelinedApproximateSubpartition(
             int index, int receiverExclusiveBuffersPerChannel, ResultPartition parent) {
+        this(index, receiverExclusiveBuffersPerChannel, 0L, parent);
+    }
+
+    PipelinedApproximateSubpartition(
+            int index,
+            int receiverExclusiveBuffersPerChannel,
+            long maxInFlightLogBytes,
+            ResultPartition parent) {
         super(index, receiverExclusiveBuffersPerChannel, parent);
+
+        checkArgument(maxInFlightLogBytes >= 0, "The in-flight log size must be non-negative.");
+        this.maxInFlightLogBytes = maxInFlightLogBytes;
     }
 
     /**
@@ -63,6 +120,7 @@ public class PipelinedApproximateSubpartition extends PipelinedSubpartition {
             checkState(!isReleased);
 
             releaseView();
+            prepareReplay();
 
             LOG.debug(
                     "{}: Creating read view for subpartition {} of partition {}.",
@@ -103,6 +161,224 @@ public class PipelinedApproximateSubpartition extends PipelinedSubpartition {
         }
     }
 
+    /**
+     * Replays the in-flight log to the new view if it is complete. The log ends with the last
+     * buffer sent to the previous view, so the new view continues with the next buffer without
+     * skipping the partial record.
+     */
+    private void prepareReplay() {
+        assert Thread.holdsLock(buffers);
+
+        clearReplayBuffers();
+        if (maxInFlightLogBytes == 0 || !isInFlightLogComplete) {
+            return;
+        }
+
+        for (LoggedBuffer loggedBuffer : inFlightLog) {
+            replayBuffers.add(loggedBuffer.buffer.readOnlySlice().retainBuffer());
+            if (loggedBuffer.buffer.isBuffer()) {
+                replayBuffersInBacklog++;
+            }
+        }
+        isPartialBufferCleanupRequired = false;
+
+        LOG.debug(
+                "{}: Replaying {} buffers ({} bytes) of subpartition {} of partition {}.",
+                parent.getOwningTaskName(),
+                replayBuffers.size(),
+                inFlightLogBytes,
+                getSubPartitionIndex(),
+                parent.getPartitionId());
+    }
+
+    @Nullable
+    @Override
+    BufferAndBacklog pollBuffer() {
+        synchronized (buffers) {
+            if (!replayBuffers.isEmpty()) {
+                return pollReplayBuffer();
+            }
+
+            final BufferAndBacklog bufferAndBacklog = super.pollBuffer();
+            if (bufferAndBacklog != null) {
+                appendToInFlightLog(bufferAndBacklog.buffer());
+            }
+            return bufferAndBacklog;
+        }
+    }
+
+    @Nullable
+    private BufferAndBacklog pollReplayBuffer() {
+        assert Thread.holdsLock(buffers);
+
+        if (isBlocked) {
+            return null;
+        }
+
+        final Buffer buffer = replayBuffers.poll();
+        if (buffer.isBuffer()) {
+            replayBuffersInBacklog--;
+        }
+        if (buffer.getDataType().isBlockingUpstream()) {
+            isBlocked = true;
+        }
+
+        final Buffer.DataType nextDataType;
+        if (isBlocked) {
+            nextDataType = Buffer.DataType.NONE;
+        } else if (!replayBuffers.isEmpty()) {
+            nextDataType = replayBuffers.peek().getDataType();
+        } else {
+            nextDataType =
+                    isDataAvailableUnsafe() ? getNextBufferTypeUnsafe() : Buffer.DataType.NONE;
+        }
+
+        return new BufferAndBacklog(
+                buffer, getReplayBacklogUnsafe(), nextDataType, sequenceNumber++);
+    }
+
+    @Override
+    public ResultSubpartitionView.AvailabilityWithBacklog getAvailabilityAndBacklog(
+            int numCreditsAvailable) {
+        synchronized (buffers) {
+            if (replayBuffers.isEmpty()) {
+                return super.getAvailabilityAndBacklog(numCreditsAvailable);
+            }
+
+            final boolean isAvailable =
+                    !isBlocked
+                            && (numCreditsAvailable > 0
+                                    || replayBuffers.peek().getDataType().isEvent());
+            return new ResultSubpartitionView.AvailabilityWithBacklog(
+                    isAvailable, getReplayBacklogUnsafe());
+        }
+    }
+
+    @GuardedBy("buffers")
+    private int getReplayBacklogUnsafe() {
+        return isBlocked ? 0 : replayBuffersInBacklog + getBuffersInBacklogUnsafe();
+    }
+
+    /** Appends a copy of the given buffer, which is sent to the consumer, to the in-flight log. */
+    private void appendToInFlightLog(Buffer buffer) {
+        assert Thread.holdsLock(buffers);
+
+        final int size = buffer.readableBytes();
+        if (maxInFlightLogBytes == 0 || size == 0) {
+            return;
+        }
+
+        final long checkpointId = getCheckpointId(buffer);
+        if (!isInFlightLogComplete && inFlightLog.isEmpty() && checkpointId == NO_CHECKPOINT) {
+            // the log is restarted with the barrier of the next checkpoint
+            return;
+        }
+
+        if (inFlightLogBytes + size > maxInFlightLogBytes) {
+            LOG.debug(
+                    "{}: Dropping in-flight log of subpartition {} of partition {} after it "
+                            + "exceeded {} bytes.",
+                    parent.getOwningTaskName(),
+                    getSubPartitionIndex(),
+                    parent.getPartitionId(),
+                    maxInFlightLogBytes);
+            clearInFlightLog();
+            isInFlightLogComplete = false;
+            if (checkpointId == NO_CHECKPOINT || size > maxInFlightLogBytes) {
+                return;
+            }
+        }
+
+        final MemorySegment segment = MemorySegmentFactory.allocateUnpooledSegment(size);
+        segment.put(0, buffer.getNioBufferReadable(), size);
+        inFlightLog.add(
+                new LoggedBuffer(
+                        new NetworkBuffer(
+                                segment,
+                                FreeingBufferRecycler.INSTANCE,
+                                buffer.getDataType(),
+                                size),
+                        checkpointId));
+        inFlightLogBytes += size;
+    }
+
+    private long getCheckpointId(Buffer buffer) {
+        if (buffer.isBuffer()) {
+            return NO_CHECKPOINT;
+        }
+
+        try {
+            final AbstractEvent event =
+                    EventSerializer.fromBuffer(buffer, getClass().getClassLoader());
+            return event instanceof CheckpointBarrier
+                    ? ((CheckpointBarrier) event).getId()
+                    : NO_CHECKPOINT;
+        } catch (IOException e) {
+            throw new IllegalStateException(
+                    "Should always be able to deserialize in-memory event", e);
+        }
+    }
+
+    /**
+     * Drops all logged buffers up to and including the latest barrier of the given or an earlier
+     * checkpoint. A consumer restarted from this checkpoint only needs the data sent after it.
+     */
+    public void notifyCheckpointComplete(long checkpointId) {
+        synchronized (buffers) {
+            LoggedBuffer lastBarrier = null;
+            for (LoggedBuffer loggedBuffer : inFlightLog) {
+                if (loggedBuffer.checkpointId != NO_CHECKPOINT
+                        && loggedBuffer.checkpointId <= checkpointId) {
+                    lastBarrier = loggedBuffer;
+                }
+            }
+            if (lastBarrier == null) {
+                return;
+            }
+
+            final Iterator<LoggedBuffer> iterator = inFlightLog.iterator();
+            LoggedBuffer loggedBuffer;
+            do {
+                loggedBuffer = iterator.next();
+                iterator.remove();
+                inFlightLogBytes -= loggedBuffer.buffer.readableBytes();
+                loggedBuffer.buffer.recycleBuffer();
+            } while (loggedBuffer != lastBarrier);
+
+            isInFlightLogComplete = true;
+        }
+    }
+
+    @Override
+    public void release() {
+        super.release();
+
+        synchronized (buffers) {
+            clearReplayBuffers();
+            clearInFlightLog();
+        }
+    }
+
+    private void clearInFlightLog() {
+        assert Thread.holdsLock(buffers);
+
+        for (LoggedBuffer loggedBuffer : inFlightLog) {
+            loggedBuffer.buffer.recycleBuffer();
+        }
+        inFlightLog.clear();
+        inFlightLogBytes = 0;
+    }
+
+    private void clearReplayBuffers() {
+        assert Thread.holdsLock(buffers);
+
+        for (Buffer buffer : replayBuffers) {
+            buffer.recycleBuffer();
+        }
+        replayBuffers.clear();
+        replayBuffersInBacklog = 0;
+    }
+
     @Override
     public void finishReadRecoveredState(boolean notifyAndBlockOnCompletion) throws IOException {
         // The Approximate Local Recovery can not work with unaligned checkpoint for now, so no need
@@ -120,4 +396,25 @@ public class PipelinedApproximateSubpartition extends PipelinedSubpartition {
     void setIsPartialBufferCleanupRequired() {
         isPartialBufferCleanupRequired = true;
     }
+
+    /** for testing only. */
+    @VisibleForTesting
+    long getInFlightLogBytes() {
+        synchronized (buffers) {
+            return inFlightLogBytes;
+        }
+    }
+
+    /** A copy of a buffer sent to the consumer and the id of the checkpoint it is a barrier of. */
+    private static final class LoggedBuffer {
+
+        private final Buffer buffer;
+
+        private final long checkpointId;
+
+        private LoggedBuffer(Buffer buffer, long checkpointId) {
+            this.buffer = buffer;
+            this.checkpointId = checkpointId;
+        }
+    }
 }
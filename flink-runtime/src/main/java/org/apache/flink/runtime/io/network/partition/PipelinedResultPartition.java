@@ -18,6 +18,7 @@
 
 package org.apache.flink.runtime.io.network.partition;
 
+import org.apache.flink.api.common.state.CheckpointListener;
 import org.apache.flink.runtime.checkpoint.channel.ChannelStateWriter;
 import org.apache.flink.runtime.io.network.api.EndOfData;
 import org.apache.flink.runtime.io.network.buffer.BufferCompressor;
@@ -49,7 +50,7 @@ import static org.apache.flink.util.Preconditions.checkArgument;
  * are freed.
  */
 public class PipelinedResultPartition extends BufferWritingResultPartition
-        implements CheckpointedResultPartition, ChannelStateHolder {
+        implements CheckpointedResultPartition, ChannelStateHolder, CheckpointListener {
     private static final int PIPELINED_RESULT_PARTITION_ITSELF = -42;
 
     /**
@@ -257,6 +258,20 @@ public class PipelinedResultPartition extends BufferWritingResultPartition
         }
     }
 
+    /**
+     * Trims the in-flight logs of the subpartitions of an approximate pipelined partition, which
+     * only need to hold the data sent after the last completed checkpoint.
+     */
+    @Override
+    public void notifyCheckpointComplete(long checkpointId) {
+        for (ResultSubpartition subpartition : subpartitions) {
+            if (subpartition instanceof PipelinedApproximateSubpartition) {
+                ((PipelinedApproximateSubpartition) subpartition)
+                        .notifyCheckpointComplete(checkpointId);
+            }
+        }
+    }
+
     @Override
     public void close() {
         decrementNumberOfUsers(PIPELINED_RESULT_PARTITION_ITSELF);
@@ -432,13 +432,13 @@ public class PipelinedSubpartition extends ResultSubpartition
     }
 
     @GuardedBy("buffers")
-    private boolean isDataAvailableUnsafe() {
+    boolean isDataAvailableUnsafe() {
         assert Thread.holdsLock(buffers);
 
         return !isBlocked && (flushRequested || getNumberOfFinishedBuffers() > 0);
     }
 
-    private Buffer.DataType getNextBufferTypeUnsafe() {
+    Buffer.DataType getNextBufferTypeUnsafe() {
         assert Thread.holdsLock(buffers);
 
         final BufferConsumerWithPartialRecordLength first = buffers.peek();
@@ -273,7 +273,7 @@ public abstract class ResultPartition implements ResultPartitionWriter {
 
     @Override
     public void setMetricGroup(TaskIOMetricGroup metrics) {
-        numBytesOut = metrics.getNumBytesOutCounter();
+        numBytesOut = metrics.registerResultPartitionBytesCounter(partitionId.getPartitionId());
         numBuffersOut = metrics.getNumBuffersOutCounter();
     }
 
@@ -75,6 +75,8 @@ public class ResultPartitionFactory {
 
     private final boolean sslEnabled;
 
+    private final long approximateRecoveryMaxInFlightLogBytes;
+
     public ResultPartitionFactory(
             ResultPartitionManager partitionManager,
             FileChannelManager channelManager,
@@ -90,7 +92,8 @@ public class ResultPartitionFactory {
             int maxBuffersPerChannel,
             int sortShuffleMinBuffers,
             int sortShuffleMinParallelism,
-            boolean sslEnabled) {
+            boolean sslEnabled,
+            long approximateRecoveryMaxInFlightLogBytes) {
 
         this.partitionManager = partitionManager;
         this.channelManager = channelManager;
@@ -107,6 +110,7 @@ public class ResultPartitionFactory {
         this.sortShuffleMinBuffers = sortShuffleMinBuffers;
         this.sortShuffleMinParallelism = sortShuffleMinParallelism;
         this.sslEnabled = sslEnabled;
+        this.approximateRecoveryMaxInFlightLogBytes = approximateRecoveryMaxInFlightLogBytes;
     }
 
     public ResultPartition create(
@@ -159,7 +163,10 @@ public class ResultPartitionFactory {
                 if (type == ResultPartitionType.PIPELINED_APPROXIMATE) {
                     subpartitions[i] =
                             new PipelinedApproximateSubpartition(
-                                    i, configuredNetworkBuffersPerChannel, pipelinedPartition);
+                                    i,
+                                    configuredNetworkBuffersPerChannel,
+                                    approximateRecoveryMaxInFlightLogBytes,
+                                    pipelinedPartition);
                 } else {
                     subpartitions[i] =
                             new PipelinedSubpartition(
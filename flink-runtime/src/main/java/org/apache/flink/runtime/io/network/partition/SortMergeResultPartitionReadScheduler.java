@@ -88,6 +88,12 @@ class SortMergeResultPartitionReadScheduler implements Runnable, BufferRecycler
     /** Maximum number of buffers can be allocated by this partition reader. */
     private final int maxRequestedBuffers;
 
+    /** Minimum number of buffers to read ahead for a single subpartition reader. */
+    private final int minReadAheadBuffers;
+
+    /** Maximum number of buffers to read ahead for a single subpartition reader. */
+    private final int maxReadAheadBuffers;
+
     /** All failed subpartition readers to be released. */
     @GuardedBy("lock")
     private final Set<SortMergeSubpartitionReader> failedReaders = new HashSet<>();
@@ -111,6 +117,14 @@ class SortMergeResultPartitionReadScheduler implements Runnable, BufferRecycler
     @GuardedBy("lock")
     private boolean isRunning;
 
+    /**
+     * Whether the data reading task was requested to be triggered while it was running. If no
+     * subpartition reader needs more buffers, the data reading task is only triggered again if
+     * this flag is set.
+     */
+    @GuardedBy("lock")
+    private boolean isTriggerPending;
+
     /** Number of buffers already allocated and still not recycled by this partition reader. */
     @GuardedBy("lock")
     private volatile int numRequestedBuffers;
@@ -127,6 +141,10 @@ class SortMergeResultPartitionReadScheduler implements Runnable, BufferRecycler
         // one partition reader can consume at most 32M (the expected buffers per request is 8M)
         // buffers for data read. Currently, it is only an empirical value can not be configured
         this.maxRequestedBuffers = Math.max(1, 4 * bufferPool.getNumBuffersPerRequest());
+        // a single subpartition reader can read at most the buffers of one request ahead, but
+        // slow consumers are reduced to a fraction of that to leave the buffers to other readers
+        this.maxReadAheadBuffers = Math.max(1, bufferPool.getNumBuffersPerRequest());
+        this.minReadAheadBuffers = Math.max(1, maxReadAheadBuffers / 16);
 
         // initialize the buffer pool eagerly to avoid reporting errors like OOM too late
         bufferPool.initialize();
@@ -135,6 +153,7 @@ class SortMergeResultPartitionReadScheduler implements Runnable, BufferRecycler
     @Override
     public synchronized void run() {
         Queue<SortMergeSubpartitionReader> availableReaders = getAvailableReaders();
+        boolean hasAvailableReaders = !availableReaders.isEmpty();
 
         Queue<MemorySegment> buffers = allocateBuffers(availableReaders);
         int numBuffersAllocated = buffers.size();
@@ -144,7 +163,7 @@ class SortMergeResultPartitionReadScheduler implements Runnable, BufferRecycler
         int numBuffersRead = numBuffersAllocated - buffers.size();
         releaseBuffers(buffers);
 
-        removeFinishedAndFailedReaders(numBuffersRead, finishedReaders);
+        removeFinishedAndFailedReaders(numBuffersRead, finishedReaders, hasAvailableReaders);
     }
 
     private Queue<MemorySegment> allocateBuffers(
@@ -228,7 +247,9 @@ class SortMergeResultPartitionReadScheduler implements Runnable, BufferRecycler
     }
 
     private void removeFinishedAndFailedReaders(
-            int numBuffersRead, Set<SortMergeSubpartitionReader> finishedReaders) {
+            int numBuffersRead,
+            Set<SortMergeSubpartitionReader> finishedReaders,
+            boolean hasAvailableReaders) {
         synchronized (lock) {
             for (SortMergeSubpartitionReader reader : finishedReaders) {
                 allReaders.remove(reader);
@@ -246,7 +267,11 @@ class SortMergeResultPartitionReadScheduler implements Runnable, BufferRecycler
 
             numRequestedBuffers += numBuffersRead;
             isRunning = false;
-            mayTriggerReading();
+            // if all readers have enough buffers read ahead, the reading will be triggered again
+            // when the consumers recycle buffers, which avoids busy looping here
+            if (hasAvailableReaders || isTriggerPending) {
+                mayTriggerReading();
+            }
             mayNotifyReleased();
         }
     }
@@ -260,13 +285,24 @@ class SortMergeResultPartitionReadScheduler implements Runnable, BufferRecycler
     }
 
     private Queue<SortMergeSubpartitionReader> getAvailableReaders() {
+        List<SortMergeSubpartitionReader> readers;
         synchronized (lock) {
             if (isReleased) {
                 return new ArrayDeque<>();
             }
 
-            return new PriorityQueue<>(allReaders);
+            readers = new ArrayList<>(allReaders);
+        }
+
+        // the subpartition readers are accessed out of the lock because releasing a reader
+        // recycles its buffers and thus acquires the lock while holding the reader's lock
+        Queue<SortMergeSubpartitionReader> availableReaders = new PriorityQueue<>();
+        for (SortMergeSubpartitionReader reader : readers) {
+            if (reader.updateReadAhead()) {
+                availableReaders.add(reader);
+            }
         }
+        return availableReaders;
     }
 
     SortMergeSubpartitionReader crateSubpartitionReader(
@@ -279,7 +315,11 @@ class SortMergeResultPartitionReadScheduler implements Runnable, BufferRecycler
 
             PartitionedFileReader fileReader = createFileReader(resultFile, targetSubpartition);
             SortMergeSubpartitionReader subpartitionReader =
-                    new SortMergeSubpartitionReader(availabilityListener, fileReader);
+                    new SortMergeSubpartitionReader(
+                            availabilityListener,
+                            fileReader,
+                            minReadAheadBuffers,
+                            maxReadAheadBuffers);
             allReaders.add(subpartitionReader);
             subpartitionReader
                     .getReleaseFuture()
@@ -345,11 +385,13 @@ class SortMergeResultPartitionReadScheduler implements Runnable, BufferRecycler
     private void mayTriggerReading() {
         assert Thread.holdsLock(lock);
 
-        if (!isRunning
-                && !allReaders.isEmpty()
+        if (isRunning) {
+            isTriggerPending = true;
+        } else if (!allReaders.isEmpty()
                 && numRequestedBuffers + bufferPool.getNumBuffersPerRequest()
                         <= maxRequestedBuffers) {
             isRunning = true;
+            isTriggerPending = false;
             ioExecutor.execute(this);
         }
     }
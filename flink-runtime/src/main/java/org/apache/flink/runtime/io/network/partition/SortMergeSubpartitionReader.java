@@ -18,6 +18,7 @@
 
 package org.apache.flink.runtime.io.network.partition;
 
+import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.core.memory.MemorySegment;
 import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.apache.flink.runtime.io.network.buffer.BufferRecycler;
@@ -65,13 +66,46 @@ class SortMergeSubpartitionReader
     @GuardedBy("lock")
     private Throwable failureCause;
 
+    /** Number of buffers consumed since the read-ahead was last updated. */
+    @GuardedBy("lock")
+    private int numBuffersConsumed;
+
     /** Sequence number of the next buffer to be sent to the consumer. */
     private int sequenceNumber;
 
+    /** Minimum number of buffers to read ahead for the consumer. */
+    private final int minReadAheadBuffers;
+
+    /** Maximum number of buffers to read ahead for the consumer. */
+    private final int maxReadAheadBuffers;
+
+    /**
+     * Number of buffers to read ahead for the consumer, which follows the consumption speed of the
+     * consumer. It is only updated by the IO thread of {@link
+     * SortMergeResultPartitionReadScheduler}.
+     */
+    private volatile int numReadAheadBuffers;
+
     SortMergeSubpartitionReader(
             BufferAvailabilityListener listener, PartitionedFileReader fileReader) {
+        this(listener, fileReader, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    SortMergeSubpartitionReader(
+            BufferAvailabilityListener listener,
+            PartitionedFileReader fileReader,
+            int minReadAheadBuffers,
+            int maxReadAheadBuffers) {
+        checkArgument(minReadAheadBuffers > 0, "Must read ahead at least one buffer.");
+        checkArgument(
+                minReadAheadBuffers <= maxReadAheadBuffers,
+                "Minimum read-ahead must not be larger than the maximum read-ahead.");
+
         this.availabilityListener = checkNotNull(listener);
         this.fileReader = checkNotNull(fileReader);
+        this.minReadAheadBuffers = minReadAheadBuffers;
+        this.maxReadAheadBuffers = maxReadAheadBuffers;
+        this.numReadAheadBuffers = minReadAheadBuffers;
     }
 
     @Nullable
@@ -86,6 +120,7 @@ class SortMergeSubpartitionReader
             if (buffer.isBuffer()) {
                 --dataBufferBacklog;
             }
+            ++numBuffersConsumed;
 
             Buffer lookAhead = buffersRead.peek();
             return BufferAndBacklog.fromBufferAndLookahead(
@@ -117,9 +152,45 @@ class SortMergeSubpartitionReader
         }
     }
 
-    /** This method is called by the IO thread of {@link SortMergeResultPartitionReadScheduler}. */
+    /**
+     * Adapts the number of buffers to read ahead to the consumption since the last update and
+     * returns whether this reader needs more buffers to be read. If the consumer has taken all
+     * buffers read ahead, the read-ahead is doubled to read larger chunks of data sequentially.
+     * If the consumer has not taken any buffer, the read-ahead is halved, so that a slow consumer
+     * does not occupy the shared read buffers which could be used by other readers.
+     *
+     * <p>This method is called by the IO thread of {@link SortMergeResultPartitionReadScheduler}.
+     */
+    boolean updateReadAhead() {
+        final int numBuffersQueued;
+        final int numBuffersConsumedSinceUpdate;
+        synchronized (lock) {
+            numBuffersQueued = buffersRead.size();
+            numBuffersConsumedSinceUpdate = numBuffersConsumed;
+            numBuffersConsumed = 0;
+        }
+
+        if (numBuffersQueued == 0) {
+            numReadAheadBuffers =
+                    (int) Math.min(maxReadAheadBuffers, 2L * numReadAheadBuffers);
+        } else if (numBuffersConsumedSinceUpdate == 0) {
+            numReadAheadBuffers = Math.max(minReadAheadBuffers, numReadAheadBuffers / 2);
+        }
+        return numBuffersQueued < numReadAheadBuffers;
+    }
+
+    /**
+     * Reads buffers until the read-ahead of this reader is reached, the current region is finished
+     * or no buffer is left. This method is called by the IO thread of {@link
+     * SortMergeResultPartitionReadScheduler}.
+     */
     boolean readBuffers(Queue<MemorySegment> buffers, BufferRecycler recycler) throws IOException {
-        while (!buffers.isEmpty()) {
+        int numBuffersToRead;
+        synchronized (lock) {
+            numBuffersToRead = numReadAheadBuffers - buffersRead.size();
+        }
+
+        while (numBuffersToRead-- > 0 && !buffers.isEmpty()) {
             MemorySegment segment = buffers.poll();
 
             Buffer buffer;
@@ -245,4 +316,9 @@ class SortMergeSubpartitionReader
 
     @Override
     public void notifyNewBufferSize(int newBufferSize) {}
+
+    @VisibleForTesting
+    int getNumReadAheadBuffers() {
+        return numReadAheadBuffers;
+    }
 }
@@ -62,13 +62,19 @@ public class BufferManager implements BufferListener, BufferRecycler {
 
     /**
      * The tag indicates whether it is waiting for additional floating buffers from the buffer pool.
+     * It is only modified under the <tt>bufferQueue</tt> lock, but volatile so that {@link
+     * #requestFloatingBuffers(int)} can skip the lock if no floating buffers need to be requested.
      */
     @GuardedBy("bufferQueue")
-    private boolean isWaitingForFloatingBuffers;
+    private volatile boolean isWaitingForFloatingBuffers;
 
-    /** The total number of required buffers for the respective input channel. */
+    /**
+     * The total number of required buffers for the respective input channel. It is only modified
+     * under the <tt>bufferQueue</tt> lock, but volatile for the same reason as {@link
+     * #isWaitingForFloatingBuffers}.
+     */
     @GuardedBy("bufferQueue")
-    private int numRequiredBuffers;
+    private volatile int numRequiredBuffers;
 
     public BufferManager(
             MemorySegmentProvider globalPool, InputChannel inputChannel, int numRequiredBuffers) {
@@ -162,6 +168,19 @@ public class BufferManager implements BufferListener, BufferRecycler {
      */
     int requestFloatingBuffers(int numRequired) {
         int numRequestedBuffers = 0;
+        // Fast path for the case that the sender's backlog did not change and the channel already
+        // has enough buffers to cover it, which is checked for every received buffer by the network
+        // I/O thread. We avoid competing with the task thread for the bufferQueue lock here. This
+        // is safe because nothing is modified: all writes of numRequiredBuffers and
+        // isWaitingForFloatingBuffers happen under the lock and are visible through the volatile
+        // reads, and a concurrent release of the channel only has to prevent that buffers are
+        // added, which the fast path never does.
+        if (!isWaitingForFloatingBuffers
+                && numRequiredBuffers == numRequired
+                && bufferQueue.unsynchronizedGetAvailableBufferSize() >= numRequired) {
+            return numRequestedBuffers;
+        }
+
         synchronized (bufferQueue) {
             // Similar to notifyBufferAvailable(), make sure that we never add a buffer after
             // channel
@@ -405,6 +424,12 @@ public class BufferManager implements BufferListener, BufferRecycler {
         /** The current available exclusive buffers from the global buffer pool. */
         final ArrayDeque<Buffer> exclusiveBuffers;
 
+        /**
+         * The total number of available floating and exclusive buffers, which can be read without
+         * holding the lock of this queue.
+         */
+        private volatile int availableBufferSize;
+
         AvailableBufferQueue() {
             this.exclusiveBuffers = new ArrayDeque<>();
             this.floatingBuffers = new ArrayDeque<>();
@@ -424,14 +449,17 @@ public class BufferManager implements BufferListener, BufferRecycler {
         @Nullable
         Buffer addExclusiveBuffer(Buffer buffer, int numRequiredBuffers) {
             exclusiveBuffers.add(buffer);
+            Buffer releasedFloatingBuffer = null;
             if (getAvailableBufferSize() > numRequiredBuffers) {
-                return floatingBuffers.poll();
+                releasedFloatingBuffer = floatingBuffers.poll();
             }
-            return null;
+            updateAvailableBufferSize();
+            return releasedFloatingBuffer;
         }
 
         void addFloatingBuffer(Buffer buffer) {
             floatingBuffers.add(buffer);
+            updateAvailableBufferSize();
         }
 
         /**
@@ -442,11 +470,14 @@ public class BufferManager implements BufferListener, BufferRecycler {
          */
         @Nullable
         Buffer takeBuffer() {
+            final Buffer buffer;
             if (floatingBuffers.size() > 0) {
-                return floatingBuffers.poll();
+                buffer = floatingBuffers.poll();
             } else {
-                return exclusiveBuffers.poll();
+                buffer = exclusiveBuffers.poll();
             }
+            updateAvailableBufferSize();
+            return buffer;
         }
 
         /**
@@ -463,16 +494,26 @@ public class BufferManager implements BufferListener, BufferRecycler {
             while ((buffer = exclusiveBuffers.poll()) != null) {
                 exclusiveSegments.add(buffer.getMemorySegment());
             }
+            updateAvailableBufferSize();
         }
 
         Queue<Buffer> clearFloatingBuffers() {
             Queue<Buffer> buffers = new ArrayDeque<>(floatingBuffers);
             floatingBuffers.clear();
+            updateAvailableBufferSize();
             return buffers;
         }
 
         int getAvailableBufferSize() {
             return floatingBuffers.size() + exclusiveBuffers.size();
         }
+
+        int unsynchronizedGetAvailableBufferSize() {
+            return availableBufferSize;
+        }
+
+        private void updateAvailableBufferSize() {
+            availableBufferSize = getAvailableBufferSize();
+        }
     }
 }
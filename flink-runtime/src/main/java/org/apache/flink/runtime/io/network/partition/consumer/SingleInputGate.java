@@ -24,6 +24,7 @@ import org.apache.flink.core.memory.MemorySegmentFactory;
 import org.apache.flink.core.memory.MemorySegmentProvider;
 import org.apache.flink.runtime.checkpoint.channel.InputChannelInfo;
 import org.apache.flink.runtime.clusterframework.types.ResourceID;
+import org.apache.flink.runtime.deployment.SubpartitionIndexRange;
 import org.apache.flink.runtime.event.AbstractEvent;
 import org.apache.flink.runtime.event.TaskEvent;
 import org.apache.flink.runtime.execution.CancelTaskException;
@@ -56,6 +57,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -130,19 +132,26 @@ public class SingleInputGate extends IndexedInputGate {
     private final ResultPartitionType consumedPartitionType;
 
     /**
-     * The index of the consumed subpartition of each consumed partition. This index depends on the
+     * The range of the consumed subpartitions of each consumed partition. This range depends on the
      * {@link DistributionPattern} and the subtask indices of the producing and consuming task.
      */
-    private final int consumedSubpartitionIndex;
+    private final SubpartitionIndexRange subpartitionIndexRange;
 
-    /** The number of input channels (equivalent to the number of consumed partitions). */
+    /**
+     * The number of input channels (equivalent to the number of consumed partitions times the
+     * number of consumed subpartitions of each partition).
+     */
     private final int numberOfInputChannels;
 
     /**
-     * Input channels. There is a one input channel for each consumed intermediate result partition.
-     * We store this in a map for runtime updates of single channels.
+     * Input channels. There is one input channel for each consumed subpartition of each consumed
+     * intermediate result partition, ordered by the subpartition index. We store this in a map for
+     * runtime updates of single channels.
      */
-    private final Map<IntermediateResultPartitionID, InputChannel> inputChannels;
+    private final Map<IntermediateResultPartitionID, InputChannel[]> inputChannels;
+
+    /** The number of input channels that have been set. */
+    private int numberOfSetInputChannels;
 
     @GuardedBy("requestLock")
     private final InputChannel[] channels;
@@ -215,6 +224,32 @@ public class SingleInputGate extends IndexedInputGate {
             @Nullable BufferDecompressor bufferDecompressor,
             MemorySegmentProvider memorySegmentProvider,
             int segmentSize) {
+        this(
+                owningTaskName,
+                gateIndex,
+                consumedResultId,
+                consumedPartitionType,
+                new SubpartitionIndexRange(consumedSubpartitionIndex, consumedSubpartitionIndex),
+                numberOfInputChannels,
+                partitionProducerStateProvider,
+                bufferPoolFactory,
+                bufferDecompressor,
+                memorySegmentProvider,
+                segmentSize);
+    }
+
+    public SingleInputGate(
+            String owningTaskName,
+            int gateIndex,
+            IntermediateDataSetID consumedResultId,
+            final ResultPartitionType consumedPartitionType,
+            SubpartitionIndexRange subpartitionIndexRange,
+            int numberOfInputChannels,
+            PartitionProducerStateProvider partitionProducerStateProvider,
+            SupplierWithException<BufferPool, IOException> bufferPoolFactory,
+            @Nullable BufferDecompressor bufferDecompressor,
+            MemorySegmentProvider memorySegmentProvider,
+            int segmentSize) {
 
         this.owningTaskName = checkNotNull(owningTaskName);
         Preconditions.checkArgument(0 <= gateIndex, "The gate index must be positive.");
@@ -224,10 +259,13 @@ public class SingleInputGate extends IndexedInputGate {
         this.consumedPartitionType = checkNotNull(consumedPartitionType);
         this.bufferPoolFactory = checkNotNull(bufferPoolFactory);
 
-        checkArgument(consumedSubpartitionIndex >= 0);
-        this.consumedSubpartitionIndex = consumedSubpartitionIndex;
+        this.subpartitionIndexRange = checkNotNull(subpartitionIndexRange);
 
         checkArgument(numberOfInputChannels > 0);
+        checkArgument(
+                numberOfInputChannels % subpartitionIndexRange.size() == 0,
+                "The number of input channels must be a multiple of the number of "
+                        + "consumed subpartitions.");
         this.numberOfInputChannels = numberOfInputChannels;
 
         this.inputChannels = new HashMap<>(numberOfInputChannels);
@@ -266,10 +304,13 @@ public class SingleInputGate extends IndexedInputGate {
     @Override
     public CompletableFuture<Void> getStateConsumedFuture() {
         synchronized (requestLock) {
-            List<CompletableFuture<?>> futures = new ArrayList<>(inputChannels.size());
-            for (InputChannel inputChannel : inputChannels.values()) {
-                if (inputChannel instanceof RecoveredInputChannel) {
-                    futures.add(((RecoveredInputChannel) inputChannel).getStateConsumedFuture());
+            List<CompletableFuture<?>> futures = new ArrayList<>(numberOfSetInputChannels);
+            for (InputChannel[] partitionChannels : inputChannels.values()) {
+                for (InputChannel inputChannel : partitionChannels) {
+                    if (inputChannel instanceof RecoveredInputChannel) {
+                        futures.add(
+                                ((RecoveredInputChannel) inputChannel).getStateConsumedFuture());
+                    }
                 }
             }
             return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
@@ -285,13 +326,13 @@ public class SingleInputGate extends IndexedInputGate {
                 }
 
                 // Sanity checks
-                if (numberOfInputChannels != inputChannels.size()) {
+                if (numberOfInputChannels != numberOfSetInputChannels) {
                     throw new IllegalStateException(
                             String.format(
                                     "Bug in input gate setup logic: mismatch between "
                                             + "number of total input channels [%s] and the currently set number of input "
                                             + "channels [%s].",
-                                    inputChannels.size(), numberOfInputChannels));
+                                    numberOfSetInputChannels, numberOfInputChannels));
                 }
 
                 convertRecoveredInputChannels();
@@ -305,31 +346,35 @@ public class SingleInputGate extends IndexedInputGate {
     @VisibleForTesting
     public void convertRecoveredInputChannels() {
         LOG.debug("Converting recovered input channels ({} channels)", getNumberOfInputChannels());
-        for (Map.Entry<IntermediateResultPartitionID, InputChannel> entry :
-                inputChannels.entrySet()) {
-            InputChannel inputChannel = entry.getValue();
-            if (inputChannel instanceof RecoveredInputChannel) {
-                try {
-                    InputChannel realInputChannel =
-                            ((RecoveredInputChannel) inputChannel).toInputChannel();
-                    inputChannel.releaseAllResources();
-                    entry.setValue(realInputChannel);
-                    channels[inputChannel.getChannelIndex()] = realInputChannel;
-                } catch (Throwable t) {
-                    inputChannel.setError(t);
-                    return;
+        for (InputChannel[] partitionChannels : inputChannels.values()) {
+            for (int i = 0; i < partitionChannels.length; i++) {
+                InputChannel inputChannel = partitionChannels[i];
+                if (inputChannel instanceof RecoveredInputChannel) {
+                    try {
+                        InputChannel realInputChannel =
+                                ((RecoveredInputChannel) inputChannel).toInputChannel();
+                        inputChannel.releaseAllResources();
+                        partitionChannels[i] = realInputChannel;
+                        channels[inputChannel.getChannelIndex()] = realInputChannel;
+                    } catch (Throwable t) {
+                        inputChannel.setError(t);
+                        return;
+                    }
                 }
             }
         }
     }
 
     private void internalRequestPartitions() {
-        for (InputChannel inputChannel : inputChannels.values()) {
-            try {
-                inputChannel.requestSubpartition(consumedSubpartitionIndex);
-            } catch (Throwable t) {
-                inputChannel.setError(t);
-                return;
+        for (InputChannel[] partitionChannels : inputChannels.values()) {
+            for (int i = 0; i < partitionChannels.length; i++) {
+                InputChannel inputChannel = partitionChannels[i];
+                try {
+                    inputChannel.requestSubpartition(subpartitionIndexRange.getStartIndex() + i);
+                } catch (Throwable t) {
+                    inputChannel.setError(t);
+                    return;
+                }
             }
         }
     }
@@ -420,8 +465,10 @@ public class SingleInputGate extends IndexedInputGate {
             try {
                 int totalBuffers = 0;
 
-                for (InputChannel channel : inputChannels.values()) {
-                    totalBuffers += channel.unsynchronizedGetNumberOfQueuedBuffers();
+                for (InputChannel[] partitionChannels : inputChannels.values()) {
+                    for (InputChannel channel : partitionChannels) {
+                        totalBuffers += channel.unsynchronizedGetNumberOfQueuedBuffers();
+                    }
                 }
 
                 return totalBuffers;
@@ -458,12 +505,19 @@ public class SingleInputGate extends IndexedInputGate {
     @VisibleForTesting
     public void setupChannels() throws IOException {
         synchronized (requestLock) {
-            for (InputChannel inputChannel : inputChannels.values()) {
-                inputChannel.setup();
+            for (InputChannel[] partitionChannels : inputChannels.values()) {
+                for (InputChannel inputChannel : partitionChannels) {
+                    inputChannel.setup();
+                }
             }
         }
     }
 
+    /**
+     * Sets the input channels of this gate. The channels of a partition have to be ordered by the
+     * consumed subpartition, i.e. the channel with index {@code i} consumes the subpartition {@code
+     * startIndex + i % rangeSize} of its partition.
+     */
     public void setInputChannels(InputChannel... channels) {
         if (channels.length != numberOfInputChannels) {
             throw new IllegalArgumentException(
@@ -478,11 +532,18 @@ public class SingleInputGate extends IndexedInputGate {
             for (InputChannel inputChannel : channels) {
                 IntermediateResultPartitionID partitionId =
                         inputChannel.getPartitionId().getPartitionId();
-                if (inputChannels.put(partitionId, inputChannel) == null
-                        && inputChannel instanceof UnknownInputChannel) {
-
-                    numberOfUninitializedChannels++;
+                InputChannel[] partitionChannels =
+                        inputChannels.computeIfAbsent(
+                                partitionId,
+                                ignored -> new InputChannel[subpartitionIndexRange.size()]);
+                int offset = inputChannel.getChannelIndex() % subpartitionIndexRange.size();
+                if (partitionChannels[offset] == null) {
+                    numberOfSetInputChannels++;
+                    if (inputChannel instanceof UnknownInputChannel) {
+                        numberOfUninitializedChannels++;
+                    }
                 }
+                partitionChannels[offset] = inputChannel;
             }
         }
     }
@@ -499,9 +560,17 @@ public class SingleInputGate extends IndexedInputGate {
             IntermediateResultPartitionID partitionId =
                     shuffleDescriptor.getResultPartitionID().getPartitionId();
 
-            InputChannel current = inputChannels.get(partitionId);
+            InputChannel[] partitionChannels = inputChannels.get(partitionId);
+            if (partitionChannels == null) {
+                return;
+            }
+
+            for (int i = 0; i < partitionChannels.length; i++) {
+                InputChannel current = partitionChannels[i];
+                if (!(current instanceof UnknownInputChannel)) {
+                    continue;
+                }
 
-            if (current instanceof UnknownInputChannel) {
                 UnknownInputChannel unknownChannel = (UnknownInputChannel) current;
                 boolean isLocal = shuffleDescriptor.isLocalTo(localLocation);
                 InputChannel newChannel;
@@ -516,11 +585,11 @@ public class SingleInputGate extends IndexedInputGate {
                 }
                 LOG.debug("{}: Updated unknown input channel to {}.", owningTaskName, newChannel);
 
-                inputChannels.put(partitionId, newChannel);
+                partitionChannels[i] = newChannel;
                 channels[current.getChannelIndex()] = newChannel;
 
                 if (requestedPartitionsFlag) {
-                    newChannel.requestSubpartition(consumedSubpartitionIndex);
+                    newChannel.requestSubpartition(subpartitionIndexRange.getStartIndex() + i);
                 }
 
                 for (TaskEvent event : pendingEvents) {
@@ -534,41 +603,66 @@ public class SingleInputGate extends IndexedInputGate {
         }
     }
 
-    /** Retriggers a partition request. */
+    /** Retriggers the requests of all consumed subpartitions of a partition. */
     public void retriggerPartitionRequest(IntermediateResultPartitionID partitionId)
             throws IOException {
         synchronized (requestLock) {
             if (!closeFuture.isDone()) {
-                final InputChannel ch = inputChannels.get(partitionId);
+                final InputChannel[] partitionChannels = inputChannels.get(partitionId);
 
-                checkNotNull(ch, "Unknown input channel with ID " + partitionId);
+                checkNotNull(partitionChannels, "Unknown input channel with ID " + partitionId);
 
-                LOG.debug(
-                        "{}: Retriggering partition request {}:{}.",
-                        owningTaskName,
-                        ch.partitionId,
-                        consumedSubpartitionIndex);
+                for (int i = 0; i < partitionChannels.length; i++) {
+                    retriggerSubpartitionRequest(partitionChannels[i], i);
+                }
+            }
+        }
+    }
 
-                if (ch.getClass() == RemoteInputChannel.class) {
-                    final RemoteInputChannel rch = (RemoteInputChannel) ch;
-                    rch.retriggerSubpartitionRequest(consumedSubpartitionIndex);
-                } else if (ch.getClass() == LocalInputChannel.class) {
-                    final LocalInputChannel ich = (LocalInputChannel) ch;
+    /** Retriggers the subpartition request of the given input channel of a partition. */
+    public void retriggerPartitionRequest(
+            IntermediateResultPartitionID partitionId, InputChannelInfo channelInfo)
+            throws IOException {
+        synchronized (requestLock) {
+            if (!closeFuture.isDone()) {
+                final InputChannel[] partitionChannels = inputChannels.get(partitionId);
 
-                    if (retriggerLocalRequestTimer == null) {
-                        retriggerLocalRequestTimer = new Timer(true);
-                    }
+                checkNotNull(partitionChannels, "Unknown input channel with ID " + partitionId);
 
-                    ich.retriggerSubpartitionRequest(
-                            retriggerLocalRequestTimer, consumedSubpartitionIndex);
-                } else {
-                    throw new IllegalStateException(
-                            "Unexpected type of channel to retrigger partition: " + ch.getClass());
-                }
+                final int offset =
+                        channelInfo.getInputChannelIdx() % subpartitionIndexRange.size();
+                retriggerSubpartitionRequest(partitionChannels[offset], offset);
             }
         }
     }
 
+    @GuardedBy("requestLock")
+    private void retriggerSubpartitionRequest(InputChannel ch, int offset) throws IOException {
+        final int subpartitionIndex = subpartitionIndexRange.getStartIndex() + offset;
+
+        LOG.debug(
+                "{}: Retriggering partition request {}:{}.",
+                owningTaskName,
+                ch.partitionId,
+                subpartitionIndex);
+
+        if (ch.getClass() == RemoteInputChannel.class) {
+            final RemoteInputChannel rch = (RemoteInputChannel) ch;
+            rch.retriggerSubpartitionRequest(subpartitionIndex);
+        } else if (ch.getClass() == LocalInputChannel.class) {
+            final LocalInputChannel ich = (LocalInputChannel) ch;
+
+            if (retriggerLocalRequestTimer == null) {
+                retriggerLocalRequestTimer = new Timer(true);
+            }
+
+            ich.retriggerSubpartitionRequest(retriggerLocalRequestTimer, subpartitionIndex);
+        } else {
+            throw new IllegalStateException(
+                    "Unexpected type of channel to retrigger partition: " + ch.getClass());
+        }
+    }
+
     @VisibleForTesting
     Timer getRetriggerLocalRequestTimer() {
         return retriggerLocalRequestTimer;
@@ -590,15 +684,17 @@ public class SingleInputGate extends IndexedInputGate {
                         retriggerLocalRequestTimer.cancel();
                     }
 
-                    for (InputChannel inputChannel : inputChannels.values()) {
-                        try {
-                            inputChannel.releaseAllResources();
-                        } catch (IOException e) {
-                            LOG.warn(
-                                    "{}: Error during release of channel resources: {}.",
-                                    owningTaskName,
-                                    e.getMessage(),
-                                    e);
+                    for (InputChannel[] partitionChannels : inputChannels.values()) {
+                        for (InputChannel inputChannel : partitionChannels) {
+                            try {
+                                inputChannel.releaseAllResources();
+                            } catch (IOException e) {
+                                LOG.warn(
+                                        "{}: Error during release of channel resources: {}.",
+                                        owningTaskName,
+                                        e.getMessage(),
+                                        e);
+                            }
                         }
                     }
 
@@ -837,8 +933,10 @@ public class SingleInputGate extends IndexedInputGate {
     @Override
     public void sendTaskEvent(TaskEvent event) throws IOException {
         synchronized (requestLock) {
-            for (InputChannel inputChannel : inputChannels.values()) {
-                inputChannel.sendTaskEvent(event);
+            for (InputChannel[] partitionChannels : inputChannels.values()) {
+                for (InputChannel inputChannel : partitionChannels) {
+                    inputChannel.sendTaskEvent(event);
+                }
             }
 
             if (numberOfUninitializedChannels > 0) {
@@ -889,7 +987,7 @@ public class SingleInputGate extends IndexedInputGate {
         queueChannel(checkNotNull(inputChannel), null, true);
     }
 
-    void triggerPartitionStateCheck(ResultPartitionID partitionId) {
+    void triggerPartitionStateCheck(ResultPartitionID partitionId, InputChannelInfo channelInfo) {
         partitionProducerStateProvider.requestPartitionProducerState(
                 consumedResultId,
                 partitionId,
@@ -899,7 +997,7 @@ public class SingleInputGate extends IndexedInputGate {
                                     .isProducerReadyOrAbortConsumption(responseHandle);
                     if (isProducingState) {
                         try {
-                            retriggerPartitionRequest(partitionId.getPartitionId());
+                            retriggerPartitionRequest(partitionId.getPartitionId(), channelInfo);
                         } catch (IOException t) {
                             responseHandle.failConsumption(t);
                         }
@@ -1000,7 +1098,24 @@ public class SingleInputGate extends IndexedInputGate {
 
     // ------------------------------------------------------------------------
 
-    public Map<IntermediateResultPartitionID, InputChannel> getInputChannels() {
-        return inputChannels;
+    /** Returns all input channels of this gate. */
+    public Collection<InputChannel> getInputChannels() {
+        final List<InputChannel> allChannels = new ArrayList<>(numberOfSetInputChannels);
+        for (InputChannel[] partitionChannels : inputChannels.values()) {
+            allChannels.addAll(Arrays.asList(partitionChannels));
+        }
+        return allChannels;
+    }
+
+    /** Returns the input channel that consumes the given subpartition of the given partition. */
+    public InputChannel getInputChannel(
+            IntermediateResultPartitionID partitionId, int subpartitionIndex) {
+        final InputChannel[] partitionChannels = inputChannels.get(partitionId);
+        checkArgument(partitionChannels != null, "Unknown partition %s.", partitionId);
+        return partitionChannels[subpartitionIndex - subpartitionIndexRange.getStartIndex()];
+    }
+
+    public SubpartitionIndexRange getSubpartitionIndexRange() {
+        return subpartitionIndexRange;
     }
 }
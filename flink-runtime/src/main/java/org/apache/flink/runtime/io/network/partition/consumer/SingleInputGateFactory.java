@@ -121,8 +121,9 @@ public class SingleInputGateFactory {
                         gateIndex,
                         igdd.getConsumedResultId(),
                         igdd.getConsumedPartitionType(),
-                        igdd.getConsumedSubpartitionIndex(),
-                        igdd.getShuffleDescriptors().length,
+                        igdd.getConsumedSubpartitionIndexRange(),
+                        igdd.getShuffleDescriptors().length
+                                * igdd.getConsumedSubpartitionIndexRange().size(),
                         partitionProducerStateProvider,
                         bufferPoolFactory,
                         bufferDecompressor,
@@ -140,16 +141,24 @@ public class SingleInputGateFactory {
             InputChannelMetrics metrics) {
         ShuffleDescriptor[] shuffleDescriptors =
                 inputGateDeploymentDescriptor.getShuffleDescriptors();
+        int numberOfSubpartitions =
+                inputGateDeploymentDescriptor.getConsumedSubpartitionIndexRange().size();
 
-        // Create the input channels. There is one input channel for each consumed partition.
-        InputChannel[] inputChannels = new InputChannel[shuffleDescriptors.length];
+        // Create the input channels. There is one input channel for each consumed subpartition of
+        // each consumed partition, the channels of a partition are ordered by subpartition index.
+        InputChannel[] inputChannels =
+                new InputChannel[shuffleDescriptors.length * numberOfSubpartitions];
 
         ChannelStatistics channelStatistics = new ChannelStatistics();
 
         for (int i = 0; i < inputChannels.length; i++) {
             inputChannels[i] =
                     createInputChannel(
-                            inputGate, i, shuffleDescriptors[i], channelStatistics, metrics);
+                            inputGate,
+                            i,
+                            shuffleDescriptors[i / numberOfSubpartitions],
+                            channelStatistics,
+                            metrics);
         }
         inputGate.setInputChannels(inputChannels);
 
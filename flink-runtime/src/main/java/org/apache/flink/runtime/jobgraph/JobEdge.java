@@ -43,6 +43,9 @@ public class JobEdge implements java.io.Serializable {
     /** The channel rescaler that should be used for this job edge on upstream side. */
     private SubtaskStateMapper upstreamSubtaskStateMapper = SubtaskStateMapper.ROUND_ROBIN;
 
+    /** Whether every record of the source data set is sent to all consumer subtasks. */
+    private boolean broadcast;
+
     /** The data set at the source of the edge, may be null if the edge is not yet connected. */
     private IntermediateDataSet source;
 
@@ -130,6 +133,24 @@ public class JobEdge implements java.io.Serializable {
         return this.distributionPattern;
     }
 
+    /**
+     * Returns whether every record of the consumed data set is sent to all consumer subtasks.
+     *
+     * @return whether the data is broadcast to the consumer subtasks
+     */
+    public boolean isBroadcast() {
+        return broadcast;
+    }
+
+    /**
+     * Sets whether every record of the consumed data set is sent to all consumer subtasks.
+     *
+     * @param broadcast whether the data is broadcast to the consumer subtasks
+     */
+    public void setBroadcast(boolean broadcast) {
+        this.broadcast = broadcast;
+    }
+
     /**
      * Gets the ID of the consumed data set.
      *
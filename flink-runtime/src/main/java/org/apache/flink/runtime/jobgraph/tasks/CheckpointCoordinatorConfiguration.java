@@ -21,6 +21,7 @@ package org.apache.flink.runtime.jobgraph.tasks;
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.runtime.checkpoint.CheckpointCoordinator;
 import org.apache.flink.runtime.checkpoint.CheckpointRetentionPolicy;
+import org.apache.flink.runtime.checkpoint.Checkpoints;
 import org.apache.flink.util.Preconditions;
 
 import java.io.Serializable;
@@ -68,6 +69,9 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
 
     private final boolean enableCheckpointsAfterTasksFinish;
 
+    /** The format version in which the metadata of checkpoints and savepoints is written. */
+    private final int metadataFormatVersion;
+
     /** @deprecated use {@link #builder()}. */
     @Deprecated
     @VisibleForTesting
@@ -94,7 +98,8 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
                 isUnalignedCheckpoint,
                 0,
                 checkpointIdOfIgnoredInFlightData,
-                false);
+                false,
+                Checkpoints.DEFAULT_METADATA_FORMAT_VERSION);
     }
 
     private CheckpointCoordinatorConfiguration(
@@ -109,7 +114,8 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
             boolean isUnalignedCheckpointsEnabled,
             long alignedCheckpointTimeout,
             long checkpointIdOfIgnoredInFlightData,
-            boolean enableCheckpointsAfterTasksFinish) {
+            boolean enableCheckpointsAfterTasksFinish,
+            int metadataFormatVersion) {
 
         // sanity checks
         if (checkpointInterval < MINIMAL_CHECKPOINT_TIME
@@ -122,6 +128,10 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
         Preconditions.checkArgument(
                 !isUnalignedCheckpointsEnabled || maxConcurrentCheckpoints <= 1,
                 "maxConcurrentCheckpoints can't be > 1 if UnalignedCheckpoints enabled");
+        Preconditions.checkArgument(
+                Checkpoints.isSupportedMetadataFormatVersion(metadataFormatVersion),
+                "Checkpoint metadata can not be written in format version %s.",
+                metadataFormatVersion);
 
         this.checkpointInterval = checkpointInterval;
         this.checkpointTimeout = checkpointTimeout;
@@ -135,6 +145,7 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
         this.alignedCheckpointTimeout = alignedCheckpointTimeout;
         this.checkpointIdOfIgnoredInFlightData = checkpointIdOfIgnoredInFlightData;
         this.enableCheckpointsAfterTasksFinish = enableCheckpointsAfterTasksFinish;
+        this.metadataFormatVersion = metadataFormatVersion;
     }
 
     public long getCheckpointInterval() {
@@ -185,6 +196,10 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
         return enableCheckpointsAfterTasksFinish;
     }
 
+    public int getMetadataFormatVersion() {
+        return metadataFormatVersion;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -205,7 +220,8 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
                 && isPreferCheckpointForRecovery == that.isPreferCheckpointForRecovery
                 && tolerableCheckpointFailureNumber == that.tolerableCheckpointFailureNumber
                 && checkpointIdOfIgnoredInFlightData == that.checkpointIdOfIgnoredInFlightData
-                && enableCheckpointsAfterTasksFinish == that.enableCheckpointsAfterTasksFinish;
+                && enableCheckpointsAfterTasksFinish == that.enableCheckpointsAfterTasksFinish
+                && metadataFormatVersion == that.metadataFormatVersion;
     }
 
     @Override
@@ -222,7 +238,8 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
                 isPreferCheckpointForRecovery,
                 tolerableCheckpointFailureNumber,
                 checkpointIdOfIgnoredInFlightData,
-                enableCheckpointsAfterTasksFinish);
+                enableCheckpointsAfterTasksFinish,
+                metadataFormatVersion);
     }
 
     @Override
@@ -252,6 +269,8 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
                 + checkpointIdOfIgnoredInFlightData
                 + ", enableCheckpointsAfterTasksFinish="
                 + enableCheckpointsAfterTasksFinish
+                + ", metadataFormatVersion="
+                + metadataFormatVersion
                 + '}';
     }
 
@@ -274,6 +293,7 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
         private long alignedCheckpointTimeout = 0;
         private long checkpointIdOfIgnoredInFlightData;
         private boolean enableCheckpointsAfterTasksFinish;
+        private int metadataFormatVersion = Checkpoints.DEFAULT_METADATA_FORMAT_VERSION;
 
         public CheckpointCoordinatorConfiguration build() {
             return new CheckpointCoordinatorConfiguration(
@@ -288,7 +308,8 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
                     isUnalignedCheckpointsEnabled,
                     alignedCheckpointTimeout,
                     checkpointIdOfIgnoredInFlightData,
-                    enableCheckpointsAfterTasksFinish);
+                    enableCheckpointsAfterTasksFinish,
+                    metadataFormatVersion);
         }
 
         public CheckpointCoordinatorConfigurationBuilder setCheckpointInterval(
@@ -361,5 +382,11 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
             this.enableCheckpointsAfterTasksFinish = enableCheckpointsAfterTasksFinish;
             return this;
         }
+
+        public CheckpointCoordinatorConfigurationBuilder setMetadataFormatVersion(
+                int metadataFormatVersion) {
+            this.metadataFormatVersion = metadataFormatVersion;
+            return this;
+        }
     }
 }
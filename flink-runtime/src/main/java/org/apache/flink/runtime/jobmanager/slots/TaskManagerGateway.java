@@ -31,8 +31,11 @@ import org.apache.flink.runtime.messages.Acknowledge;
 import org.apache.flink.runtime.operators.coordination.OperatorEvent;
 import org.apache.flink.runtime.rpc.RpcTimeout;
 import org.apache.flink.runtime.taskexecutor.TaskExecutorOperatorEventGateway;
+import org.apache.flink.util.SerializedThrowable;
 import org.apache.flink.util.SerializedValue;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
@@ -55,6 +58,16 @@ public interface TaskManagerGateway extends TaskExecutorOperatorEventGateway {
      */
     CompletableFuture<Acknowledge> submitTask(TaskDeploymentDescriptor tdd, Time timeout);
 
+    /**
+     * Submit several tasks to the task manager.
+     *
+     * @param tdds describing the tasks to submit
+     * @param timeout of the submit operation
+     * @return Future of the failures of the tasks which could not be submitted
+     */
+    CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> submitTasks(
+            Collection<TaskDeploymentDescriptor> tdds, Time timeout);
+
     /**
      * Cancel the given task.
      *
@@ -64,6 +77,16 @@ public interface TaskManagerGateway extends TaskExecutorOperatorEventGateway {
      */
     CompletableFuture<Acknowledge> cancelTask(ExecutionAttemptID executionAttemptID, Time timeout);
 
+    /**
+     * Cancel the given tasks.
+     *
+     * @param executionAttemptIDs identifying the tasks
+     * @param timeout of the cancel operation
+     * @return Future of the failures of the tasks which could not be canceled
+     */
+    CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> cancelTasks(
+            Collection<ExecutionAttemptID> executionAttemptIDs, Time timeout);
+
     /**
      * Update the task where the given partitions can be found.
      *
@@ -77,6 +100,16 @@ public interface TaskManagerGateway extends TaskExecutorOperatorEventGateway {
             Iterable<PartitionInfo> partitionInfos,
             Time timeout);
 
+    /**
+     * Update the tasks where the given partitions can be found.
+     *
+     * @param partitionInfos telling each task where its partitions can be retrieved from
+     * @param timeout of the update operation
+     * @return Future of the failures of the tasks whose partitions could not be updated
+     */
+    CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> updatePartitionsOfTasks(
+            Map<ExecutionAttemptID, Collection<PartitionInfo>> partitionInfos, Time timeout);
+
     /**
      * Batch release intermediate result partitions.
      *
@@ -1365,6 +1365,7 @@ public class JobMaster extends PermanentlyFencedRpcEndpoint<JobMasterId>
                     payload.getAccumulatorReport().getAccumulatorSnapshots()) {
                 schedulerNG.updateAccumulators(snapshot);
             }
+            schedulerNG.updateTaskLoads(payload.getTaskLoadReport());
         }
 
         @Override
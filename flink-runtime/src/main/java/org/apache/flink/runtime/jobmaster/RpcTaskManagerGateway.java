@@ -32,9 +32,12 @@ import org.apache.flink.runtime.messages.Acknowledge;
 import org.apache.flink.runtime.operators.coordination.OperatorEvent;
 import org.apache.flink.runtime.taskexecutor.TaskExecutorGateway;
 import org.apache.flink.util.Preconditions;
+import org.apache.flink.util.SerializedThrowable;
 import org.apache.flink.util.SerializedValue;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
@@ -60,12 +63,24 @@ public class RpcTaskManagerGateway implements TaskManagerGateway {
         return taskExecutorGateway.submitTask(tdd, jobMasterId, timeout);
     }
 
+    @Override
+    public CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> submitTasks(
+            Collection<TaskDeploymentDescriptor> tdds, Time timeout) {
+        return taskExecutorGateway.submitTasks(tdds, jobMasterId, timeout);
+    }
+
     @Override
     public CompletableFuture<Acknowledge> cancelTask(
             ExecutionAttemptID executionAttemptID, Time timeout) {
         return taskExecutorGateway.cancelTask(executionAttemptID, timeout);
     }
 
+    @Override
+    public CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> cancelTasks(
+            Collection<ExecutionAttemptID> executionAttemptIDs, Time timeout) {
+        return taskExecutorGateway.cancelTasks(executionAttemptIDs, timeout);
+    }
+
     @Override
     public CompletableFuture<Acknowledge> updatePartitions(
             ExecutionAttemptID executionAttemptID,
@@ -74,6 +89,12 @@ public class RpcTaskManagerGateway implements TaskManagerGateway {
         return taskExecutorGateway.updatePartitions(executionAttemptID, partitionInfos, timeout);
     }
 
+    @Override
+    public CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> updatePartitionsOfTasks(
+            Map<ExecutionAttemptID, Collection<PartitionInfo>> partitionInfos, Time timeout) {
+        return taskExecutorGateway.updatePartitionsOfTasks(partitionInfos, timeout);
+    }
+
     @Override
     public void releasePartitions(JobID jobId, Set<ResultPartitionID> partitionIds) {
         taskExecutorGateway.releaseOrPromotePartitions(jobId, partitionIds, Collections.emptySet());
@@ -82,6 +82,13 @@ public class PhysicalSlotProviderImpl implements PhysicalSlotProvider {
             SlotRequestId slotRequestId, SlotProfile slotProfile) {
         Collection<SlotSelectionStrategy.SlotInfoAndResources> slotInfoList =
                 slotPool.getAvailableSlotsInformation().stream()
+                        .filter(
+                                slotInfo ->
+                                        !slotProfile
+                                                .getBlockedTaskManagers()
+                                                .contains(
+                                                        slotInfo.getTaskManagerLocation()
+                                                                .getResourceID()))
                         .map(SlotSelectionStrategy.SlotInfoAndResources::fromSingleSlot)
                         .collect(Collectors.toList());
 
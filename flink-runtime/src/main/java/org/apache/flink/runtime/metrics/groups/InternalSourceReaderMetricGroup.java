@@ -31,6 +31,8 @@ import org.apache.flink.runtime.metrics.MetricNames;
 import org.apache.flink.util.clock.Clock;
 import org.apache.flink.util.clock.SystemClock;
 
+import javax.annotation.Nullable;
+
 /** Special {@link org.apache.flink.metrics.MetricGroup} representing an Operator. */
 @Internal
 public class InternalSourceReaderMetricGroup extends ProxyMetricGroup<MetricGroup>
@@ -40,6 +42,7 @@ public class InternalSourceReaderMetricGroup extends ProxyMetricGroup<MetricGrou
     private static final long UNDEFINED = Long.MIN_VALUE;
 
     private final OperatorIOMetricGroup operatorIOMetricGroup;
+    @Nullable private final TaskIOMetricGroup taskIOMetricGroup;
     private final Clock clock;
     private final Counter numRecordsInErrors;
     private long lastWatermark = UNDEFINED;
@@ -49,10 +52,12 @@ public class InternalSourceReaderMetricGroup extends ProxyMetricGroup<MetricGrou
     private InternalSourceReaderMetricGroup(
             MetricGroup parentMetricGroup,
             OperatorIOMetricGroup operatorIOMetricGroup,
+            @Nullable TaskIOMetricGroup taskIOMetricGroup,
             Clock clock) {
         super(parentMetricGroup);
         numRecordsInErrors = parentMetricGroup.counter(MetricNames.NUM_RECORDS_IN_ERRORS);
         this.operatorIOMetricGroup = operatorIOMetricGroup;
+        this.taskIOMetricGroup = taskIOMetricGroup;
         this.clock = clock;
         parentMetricGroup.gauge(
                 MetricNames.SOURCE_IDLE_TIME,
@@ -63,6 +68,10 @@ public class InternalSourceReaderMetricGroup extends ProxyMetricGroup<MetricGrou
         return new InternalSourceReaderMetricGroup(
                 operatorMetricGroup,
                 operatorMetricGroup.getIOMetricGroup(),
+                operatorMetricGroup instanceof InternalOperatorMetricGroup
+                        ? ((InternalOperatorMetricGroup) operatorMetricGroup)
+                                .getTaskIOMetricGroup()
+                        : null,
                 SystemClock.getInstance());
     }
 
@@ -71,6 +80,7 @@ public class InternalSourceReaderMetricGroup extends ProxyMetricGroup<MetricGrou
         return new InternalSourceReaderMetricGroup(
                 metricGroup,
                 UnregisteredMetricsGroup.createOperatorIOMetricGroup(),
+                null,
                 SystemClock.getInstance());
     }
 
@@ -132,6 +142,11 @@ public class InternalSourceReaderMetricGroup extends ProxyMetricGroup<MetricGrou
     @Override
     public void setPendingRecordsGauge(Gauge<Long> pendingRecordsGauge) {
         gauge(MetricNames.PENDING_RECORDS, pendingRecordsGauge);
+        // the pending records of the source are reported to the JobManager as part of the load of
+        // the task
+        if (taskIOMetricGroup != null) {
+            taskIOMetricGroup.setPendingRecordsGauge(pendingRecordsGauge);
+        }
     }
 
     @Override
@@ -24,11 +24,19 @@ import org.apache.flink.metrics.Meter;
 import org.apache.flink.metrics.MeterView;
 import org.apache.flink.metrics.SimpleCounter;
 import org.apache.flink.runtime.executiongraph.IOMetrics;
+import org.apache.flink.runtime.executiongraph.TaskLoad;
+import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
 import org.apache.flink.runtime.metrics.MetricNames;
 import org.apache.flink.runtime.metrics.TimerGauge;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Metric group that contains shareable pre-defined IO-related metrics. The metrics registration is
@@ -36,12 +44,18 @@ import java.util.List;
  */
 public class TaskIOMetricGroup extends ProxyMetricGroup<TaskMetricGroup> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(TaskIOMetricGroup.class);
+
     private final Counter numBytesIn;
     private final Counter numBytesOut;
     private final SumCounter numRecordsIn;
     private final SumCounter numRecordsOut;
     private final Counter numBuffersOut;
 
+    /** The counters of the bytes written to each result partition of the task. */
+    private final Map<IntermediateResultPartitionID, Counter> numBytesProducedOfPartitions =
+            new ConcurrentHashMap<>();
+
     private final Meter numBytesInRate;
     private final Meter numBytesOutRate;
     private final Meter numRecordsInRate;
@@ -53,6 +67,9 @@ public class TaskIOMetricGroup extends ProxyMetricGroup<TaskMetricGroup> {
 
     private volatile boolean busyTimeEnabled;
 
+    /** The number of records the source of this task has not read yet, if reported. */
+    private volatile Gauge<Long> pendingRecords;
+
     public TaskIOMetricGroup(TaskMetricGroup parent) {
         super(parent);
 
@@ -79,7 +96,43 @@ public class TaskIOMetricGroup extends ProxyMetricGroup<TaskMetricGroup> {
     }
 
     public IOMetrics createSnapshot() {
-        return new IOMetrics(numRecordsInRate, numRecordsOutRate, numBytesInRate, numBytesOutRate);
+        final Map<IntermediateResultPartitionID, Long> numBytesProduced = new HashMap<>();
+        for (Map.Entry<IntermediateResultPartitionID, Counter> partitionCounter :
+                numBytesProducedOfPartitions.entrySet()) {
+            numBytesProduced.put(partitionCounter.getKey(), partitionCounter.getValue().getCount());
+        }
+        return new IOMetrics(
+                numRecordsInRate,
+                numRecordsOutRate,
+                numBytesInRate,
+                numBytesOutRate,
+                numBytesProduced);
+    }
+
+    /** Creates a snapshot of the current load of the task, which is reported to the JobManager. */
+    public TaskLoad createLoadSnapshot() {
+        return new TaskLoad(
+                getBusyTimePerSecond(),
+                backPressuredTimePerSecond.getValue(),
+                getPendingRecords());
+    }
+
+    private long getPendingRecords() {
+        final Gauge<Long> pendingRecordsGauge = pendingRecords;
+        if (pendingRecordsGauge == null) {
+            return TaskLoad.UNKNOWN_PENDING_RECORDS;
+        }
+
+        // the gauge is provided by the source of the task and must not fail the load snapshot
+        try {
+            final Long pendingRecordsValue = pendingRecordsGauge.getValue();
+            return pendingRecordsValue != null
+                    ? pendingRecordsValue
+                    : TaskLoad.UNKNOWN_PENDING_RECORDS;
+        } catch (Exception e) {
+            LOG.debug("Could not retrieve the number of pending records of the task.", e);
+            return TaskLoad.UNKNOWN_PENDING_RECORDS;
+        }
     }
 
     // ============================================================================================
@@ -106,6 +159,17 @@ public class TaskIOMetricGroup extends ProxyMetricGroup<TaskMetricGroup> {
         return numBuffersOut;
     }
 
+    /**
+     * Creates the counter of the bytes written to the given result partition of the task. The
+     * bytes counted by it are also counted by the {@link #getNumBytesOutCounter() numBytesOut}
+     * counter of the task.
+     */
+    public Counter registerResultPartitionBytesCounter(IntermediateResultPartitionID partitionId) {
+        final Counter counter = new ResultPartitionBytesCounter(numBytesOut);
+        numBytesProducedOfPartitions.put(partitionId, counter);
+        return counter;
+    }
+
     public TimerGauge getIdleTimeMsPerSecond() {
         return idleTimePerSecond;
     }
@@ -118,6 +182,14 @@ public class TaskIOMetricGroup extends ProxyMetricGroup<TaskMetricGroup> {
         busyTimeEnabled = enabled;
     }
 
+    /**
+     * Sets the gauge of the records the source of this task has not read yet. It is not registered
+     * as a task metric, the source reader registers it on its own metric group.
+     */
+    public void setPendingRecordsGauge(Gauge<Long> pendingRecordsGauge) {
+        this.pendingRecords = pendingRecordsGauge;
+    }
+
     private double getBusyTimePerSecond() {
         double busyTime = idleTimePerSecond.getValue() + backPressuredTimePerSecond.getValue();
         return busyTimeEnabled ? 1000.0 - Math.min(busyTime, 1000.0) : Double.NaN;
@@ -134,6 +206,39 @@ public class TaskIOMetricGroup extends ProxyMetricGroup<TaskMetricGroup> {
         this.numRecordsOut.addCounter(numRecordsOutCounter);
     }
 
+    /** A {@link SimpleCounter} of one result partition that also counts for the whole task. */
+    private static class ResultPartitionBytesCounter extends SimpleCounter {
+        private final Counter taskCounter;
+
+        ResultPartitionBytesCounter(Counter taskCounter) {
+            this.taskCounter = taskCounter;
+        }
+
+        @Override
+        public void inc() {
+            super.inc();
+            taskCounter.inc();
+        }
+
+        @Override
+        public void inc(long n) {
+            super.inc(n);
+            taskCounter.inc(n);
+        }
+
+        @Override
+        public void dec() {
+            super.dec();
+            taskCounter.dec();
+        }
+
+        @Override
+        public void dec(long n) {
+            super.dec(n);
+            taskCounter.dec(n);
+        }
+    }
+
     /**
      * A {@link SimpleCounter} that can contain other {@link Counter}s. A call to {@link
      * SumCounter#getCount()} returns the sum of this counters and all contained counters.
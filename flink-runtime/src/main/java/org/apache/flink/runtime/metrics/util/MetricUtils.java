@@ -50,12 +50,16 @@ import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
 import javax.management.ReflectionException;
 
+import java.io.IOException;
 import java.lang.management.ClassLoadingMXBean;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryPoolMXBean;
 import java.lang.management.MemoryUsage;
 import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
@@ -78,6 +82,8 @@ public class MetricUtils {
 
     @VisibleForTesting static final String METRIC_GROUP_FLINK = "Flink";
 
+    private static final String PROC_SELF_STATUS = "/proc/self/status";
+
     @VisibleForTesting static final String METRIC_GROUP_MEMORY = "Memory";
 
     @VisibleForTesting static final String METRIC_GROUP_MANAGED_MEMORY = "Managed";
@@ -337,6 +343,47 @@ public class MetricUtils {
                             + " - CPU load metrics will not be available.",
                     e);
         }
+
+        instantiateCPUAffinityMetrics(metrics);
+    }
+
+    /**
+     * Reports the CPUs and NUMA memory nodes the process is bound to, e.g. by starting the
+     * TaskManagers with {@code taskmanager.compute.numa}. The binding is read once from {@code
+     * /proc/self/status} and is therefore only available on Linux.
+     */
+    private static void instantiateCPUAffinityMetrics(MetricGroup metrics) {
+        final Path statusFile = Paths.get(PROC_SELF_STATUS);
+        if (!Files.isReadable(statusFile)) {
+            return;
+        }
+
+        try {
+            final List<String> status = Files.readAllLines(statusFile);
+            getProcessStatusValue(status, "Cpus_allowed_list")
+                    .ifPresent(
+                            cpus -> metrics.<String, Gauge<String>>gauge("AllowedCpus", () -> cpus));
+            getProcessStatusValue(status, "Mems_allowed_list")
+                    .ifPresent(
+                            nodes ->
+                                    metrics.<String, Gauge<String>>gauge(
+                                            "AllowedMemoryNodes", () -> nodes));
+        } catch (IOException e) {
+            LOG.debug(
+                    "Cannot read {} - CPU affinity metrics will not be available.",
+                    PROC_SELF_STATUS,
+                    e);
+        }
+    }
+
+    @VisibleForTesting
+    static Optional<String> getProcessStatusValue(List<String> status, String key) {
+        final String prefix = key + ':';
+        return status.stream()
+                .filter(line -> line.startsWith(prefix))
+                .map(line -> line.substring(prefix.length()).trim())
+                .filter(value -> !value.isEmpty())
+                .findFirst();
     }
 
     private static final class AttributeGauge<T> implements Gauge<T> {
@@ -91,6 +91,27 @@ public class DefaultOperatorCoordinatorHandler implements OperatorCoordinatorHan
         }
     }
 
+    @Override
+    public void registerAndStartNewCoordinators(
+            Collection<OperatorCoordinatorHolder> coordinators,
+            ComponentMainThreadExecutor mainThreadExecutor) {
+
+        for (OperatorCoordinatorHolder coordinator : coordinators) {
+            coordinatorMap.put(coordinator.operatorId(), coordinator);
+            coordinator.lazyInitialize(globalFailureHandler, mainThreadExecutor);
+        }
+
+        try {
+            for (OperatorCoordinatorHolder coordinator : coordinators) {
+                coordinator.start();
+            }
+        } catch (Throwable t) {
+            ExceptionUtils.rethrowIfFatalErrorOrOOM(t);
+            coordinators.forEach(IOUtils::closeQuietly);
+            throw new FlinkRuntimeException("Failed to start the operator coordinators", t);
+        }
+    }
+
     @Override
     public void disposeAllOperatorCoordinators() {
         coordinatorMap.values().forEach(IOUtils::closeQuietly);
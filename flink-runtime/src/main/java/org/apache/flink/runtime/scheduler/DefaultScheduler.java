@@ -24,9 +24,11 @@ import org.apache.flink.api.common.time.Time;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.runtime.checkpoint.CheckpointRecoveryFactory;
 import org.apache.flink.runtime.clusterframework.types.AllocationID;
+import org.apache.flink.runtime.clusterframework.types.ResourceID;
 import org.apache.flink.runtime.clusterframework.types.ResourceProfile;
 import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutor;
 import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.Execution;
 import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
 import org.apache.flink.runtime.executiongraph.ExecutionVertex;
 import org.apache.flink.runtime.executiongraph.JobStatusListener;
@@ -103,7 +105,7 @@ public class DefaultScheduler extends SchedulerBase implements SchedulerOperatio
 
     private final Time rpcTimeout;
 
-    DefaultScheduler(
+    protected DefaultScheduler(
             final Logger log,
             final JobGraph jobGraph,
             final Executor ioExecutor,
@@ -124,7 +126,8 @@ public class DefaultScheduler extends SchedulerBase implements SchedulerOperatio
             final JobStatusListener jobStatusListener,
             final ExecutionGraphFactory executionGraphFactory,
             final ShuffleMaster<?> shuffleMaster,
-            final Time rpcTimeout)
+            final Time rpcTimeout,
+            final VertexParallelismStore vertexParallelismStore)
             throws Exception {
 
         super(
@@ -139,7 +142,8 @@ public class DefaultScheduler extends SchedulerBase implements SchedulerOperatio
                 initializationTimestamp,
                 mainThreadExecutor,
                 jobStatusListener,
-                executionGraphFactory);
+                executionGraphFactory,
+                vertexParallelismStore);
 
         this.log = log;
 
@@ -604,6 +608,86 @@ public class DefaultScheduler extends SchedulerBase implements SchedulerOperatio
         }
     }
 
+    /**
+     * Starts a speculative execution of the given execution vertex, which runs concurrently to its
+     * current execution. The slot of the speculative execution is preferably allocated on another
+     * task manager than the ones of the other executions of the vertex.
+     *
+     * <p>The first execution of the vertex to finish becomes its current execution, the other
+     * executions are cancelled then. A failure of a speculative execution does not affect the
+     * current execution, while a failure of the current execution is handled as usual and also
+     * cancels the speculative executions.
+     *
+     * @param executionVertexId the execution vertex to start a speculative execution of
+     */
+    protected void startSpeculativeExecution(final ExecutionVertexID executionVertexId) {
+        final ExecutionVertex executionVertex = getExecutionVertex(executionVertexId);
+
+        final Set<ResourceID> blockedTaskManagers = new HashSet<>();
+        addAssignedTaskManager(executionVertex.getCurrentExecutionAttempt(), blockedTaskManagers);
+        for (Execution speculativeExecution : executionVertex.getSpeculativeExecutions()) {
+            addAssignedTaskManager(speculativeExecution, blockedTaskManagers);
+        }
+
+        final Execution execution =
+                executionVertex.createSpeculativeExecution(System.currentTimeMillis());
+        execution.transitionState(ExecutionState.SCHEDULED);
+
+        log.info(
+                "Starting speculative execution {} of {}.",
+                execution.getAttemptId(),
+                executionVertex.getTaskNameWithSubtaskIndex());
+
+        FutureUtils.assertNoException(
+                executionSlotAllocator
+                        .allocateSlotForSpeculativeExecution(
+                                executionVertexId, blockedTaskManagers)
+                        .thenCompose(
+                                logicalSlot -> {
+                                    if (!execution.tryAssignResource(logicalSlot)) {
+                                        // the execution has been cancelled in the meantime
+                                        releaseSlotIfPresent(logicalSlot);
+                                        return FutureUtils.completedVoidFuture();
+                                    }
+                                    return FutureUtils.orTimeout(
+                                            execution.registerProducedPartitions(
+                                                    logicalSlot.getTaskManagerLocation(), false),
+                                            rpcTimeout.toMilliseconds(),
+                                            TimeUnit.MILLISECONDS,
+                                            getMainThreadExecutor());
+                                })
+                        .handle(
+                                (ignored, throwable) -> {
+                                    if (throwable != null) {
+                                        log.info(
+                                                "Could not deploy speculative execution {} of {}.",
+                                                execution.getAttemptId(),
+                                                executionVertex.getTaskNameWithSubtaskIndex(),
+                                                throwable);
+                                        execution.cancel();
+                                    } else if (execution.getState() == ExecutionState.SCHEDULED) {
+                                        deploySpeculativeExecutionSafe(execution);
+                                    }
+                                    return null;
+                                }));
+    }
+
+    private static void addAssignedTaskManager(
+            final Execution execution, final Set<ResourceID> taskManagers) {
+        final TaskManagerLocation location = execution.getAssignedResourceLocation();
+        if (location != null) {
+            taskManagers.add(location.getResourceID());
+        }
+    }
+
+    private static void deploySpeculativeExecutionSafe(final Execution execution) {
+        try {
+            execution.deploy();
+        } catch (Throwable e) {
+            execution.fail(e);
+        }
+    }
+
     private void notifyCoordinatorOfCancellation(ExecutionVertex vertex) {
         // this method makes a best effort to filter out duplicate notifications, meaning cases
         // where
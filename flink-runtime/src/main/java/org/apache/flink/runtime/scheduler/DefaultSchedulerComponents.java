@@ -61,19 +61,19 @@ public class DefaultSchedulerComponents {
         this.allocatorFactory = allocatorFactory;
     }
 
-    SchedulingStrategyFactory getSchedulingStrategyFactory() {
+    public SchedulingStrategyFactory getSchedulingStrategyFactory() {
         return schedulingStrategyFactory;
     }
 
-    Consumer<ComponentMainThreadExecutor> getStartUpAction() {
+    public Consumer<ComponentMainThreadExecutor> getStartUpAction() {
         return startUpAction;
     }
 
-    ExecutionSlotAllocatorFactory getAllocatorFactory() {
+    public ExecutionSlotAllocatorFactory getAllocatorFactory() {
         return allocatorFactory;
     }
 
-    static DefaultSchedulerComponents createSchedulerComponents(
+    public static DefaultSchedulerComponents createSchedulerComponents(
             final JobType jobType,
             final boolean isApproximateLocalRecoveryEnabled,
             final Configuration jobMasterConfiguration,
@@ -28,7 +28,7 @@ import java.util.function.Function;
 
 /** A {@link VertexParallelismInformation} implementation that provides common validation. */
 public class DefaultVertexParallelismInfo implements VertexParallelismInformation {
-    private final int parallelism;
+    private int parallelism;
     private int maxParallelism;
     private final Function<Integer, Optional<String>> rescaleMaxValidator;
 
@@ -36,7 +36,8 @@ public class DefaultVertexParallelismInfo implements VertexParallelismInformatio
      * Create {@link VertexParallelismInformation} with max parallelism rescaling validation for a
      * vertex.
      *
-     * @param parallelism the vertex's parallelism
+     * @param parallelism the vertex's parallelism, or {@link ExecutionConfig#PARALLELISM_DEFAULT}
+     *     if it is decided at runtime
      * @param maxParallelism the vertex's max parallelism
      * @param rescaleMaxValidator the validation function to provide an error message if a max
      *     parallelism rescale is not allowed
@@ -45,7 +46,10 @@ public class DefaultVertexParallelismInfo implements VertexParallelismInformatio
             int parallelism,
             int maxParallelism,
             Function<Integer, Optional<String>> rescaleMaxValidator) {
-        this.parallelism = checkParallelism(parallelism);
+        this.parallelism =
+                parallelism == ExecutionConfig.PARALLELISM_DEFAULT
+                        ? parallelism
+                        : checkParallelism(parallelism);
         this.maxParallelism = normalizeAndCheckMaxParallelism(maxParallelism);
         this.rescaleMaxValidator = Preconditions.checkNotNull(rescaleMaxValidator);
     }
@@ -83,6 +87,18 @@ public class DefaultVertexParallelismInfo implements VertexParallelismInformatio
         return this.maxParallelism;
     }
 
+    @Override
+    public void setParallelism(int parallelism) {
+        checkParallelism(parallelism);
+        Preconditions.checkArgument(
+                parallelism <= maxParallelism,
+                "Parallelism %s exceeds the max parallelism %s.",
+                parallelism,
+                maxParallelism);
+
+        this.parallelism = parallelism;
+    }
+
     @Override
     public void setMaxParallelism(int maxParallelism) {
         maxParallelism = normalizeAndCheckMaxParallelism(maxParallelism);
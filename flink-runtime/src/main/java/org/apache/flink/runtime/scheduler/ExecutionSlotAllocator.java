@@ -18,10 +18,14 @@
 
 package org.apache.flink.runtime.scheduler;
 
+import org.apache.flink.runtime.clusterframework.types.ResourceID;
 import org.apache.flink.runtime.executiongraph.Execution;
+import org.apache.flink.runtime.jobmaster.LogicalSlot;
 import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
 
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /** Component responsible for assigning slots to a collection of {@link Execution}. */
 public interface ExecutionSlotAllocator {
@@ -40,4 +44,16 @@ public interface ExecutionSlotAllocator {
      * @param executionVertexId identifying which slot request should be canceled.
      */
     void cancel(ExecutionVertexID executionVertexId);
+
+    /**
+     * Allocate a slot for a speculative execution of the given execution vertex. The slot is not
+     * shared with the other executions of the vertex, and should not be located on the given task
+     * managers.
+     *
+     * @param executionVertexId Execution vertex to allocate the slot for
+     * @param blockedTaskManagers Task managers the slot should not be located on
+     * @return the future of the allocated slot
+     */
+    CompletableFuture<LogicalSlot> allocateSlotForSpeculativeExecution(
+            ExecutionVertexID executionVertexId, Set<ResourceID> blockedTaskManagers);
 }
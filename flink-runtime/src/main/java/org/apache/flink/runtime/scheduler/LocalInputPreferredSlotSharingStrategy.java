@@ -29,6 +29,7 @@ import org.apache.flink.runtime.scheduler.strategy.ConsumedPartitionGroup;
 import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingExecutionVertex;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingTopology;
+import org.apache.flink.runtime.scheduler.strategy.SchedulingTopologyListener;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -49,19 +50,35 @@ import static org.apache.flink.util.Preconditions.checkNotNull;
  * belong to the same SlotSharingGroup, tend to be put in the same ExecutionSlotSharingGroup.
  * Co-location constraints will be respected.
  */
-class LocalInputPreferredSlotSharingStrategy implements SlotSharingStrategy {
+class LocalInputPreferredSlotSharingStrategy
+        implements SlotSharingStrategy, SchedulingTopologyListener {
 
     private final Map<ExecutionVertexID, ExecutionSlotSharingGroup> executionSlotSharingGroupMap;
 
+    private final ExecutionSlotSharingGroupBuilder executionSlotSharingGroupBuilder;
+
     LocalInputPreferredSlotSharingStrategy(
             final SchedulingTopology topology,
             final Set<SlotSharingGroup> logicalSlotSharingGroups,
             final Set<CoLocationGroup> coLocationGroups) {
 
-        this.executionSlotSharingGroupMap =
+        this.executionSlotSharingGroupBuilder =
                 new ExecutionSlotSharingGroupBuilder(
-                                topology, logicalSlotSharingGroups, coLocationGroups)
-                        .build();
+                        topology, logicalSlotSharingGroups, coLocationGroups);
+        this.executionSlotSharingGroupMap =
+                executionSlotSharingGroupBuilder.build(topology.getVertices());
+
+        topology.registerSchedulingTopologyListener(this);
+    }
+
+    @Override
+    public void notifySchedulingTopologyUpdated(
+            SchedulingTopology schedulingTopology, List<ExecutionVertexID> newExecutionVertices) {
+        final List<SchedulingExecutionVertex> vertices = new ArrayList<>();
+        for (ExecutionVertexID executionVertexId : newExecutionVertices) {
+            vertices.add(schedulingTopology.getVertex(executionVertexId));
+        }
+        executionSlotSharingGroupBuilder.build(vertices);
     }
 
     @Override
@@ -170,8 +187,10 @@ class LocalInputPreferredSlotSharingStrategy implements SlotSharingStrategy {
         }
 
         /**
-         * Build ExecutionSlotSharingGroups for all vertices in the topology. The
-         * ExecutionSlotSharingGroup of a vertex is determined in order below:
+         * Build ExecutionSlotSharingGroups for the given topologically sorted vertices. The
+         * vertices may be given in several batches, if the topology is extended after the
+         * parallelism of some job vertices was decided. The ExecutionSlotSharingGroup of a vertex
+         * is determined in order below:
          *
          * <p>1. try finding an existing group of the corresponding co-location constraint.
          *
@@ -182,9 +201,10 @@ class LocalInputPreferredSlotSharingStrategy implements SlotSharingStrategy {
          *
          * <p>4. create a new group.
          */
-        private Map<ExecutionVertexID, ExecutionSlotSharingGroup> build() {
+        private Map<ExecutionVertexID, ExecutionSlotSharingGroup> build(
+                final Iterable<? extends SchedulingExecutionVertex> executionVertices) {
             final LinkedHashMap<JobVertexID, List<SchedulingExecutionVertex>> allVertices =
-                    getExecutionVertices();
+                    getExecutionVertices(executionVertices);
 
             // loop on job vertices so that an execution vertex will not be added into a group
             // if that group better fits another execution vertex
@@ -204,10 +224,11 @@ class LocalInputPreferredSlotSharingStrategy implements SlotSharingStrategy {
          * The vertices are topologically sorted since {@link DefaultExecutionTopology#getVertices}
          * are topologically sorted.
          */
-        private LinkedHashMap<JobVertexID, List<SchedulingExecutionVertex>> getExecutionVertices() {
+        private LinkedHashMap<JobVertexID, List<SchedulingExecutionVertex>> getExecutionVertices(
+                final Iterable<? extends SchedulingExecutionVertex> executionVertices) {
             final LinkedHashMap<JobVertexID, List<SchedulingExecutionVertex>> vertices =
                     new LinkedHashMap<>();
-            for (SchedulingExecutionVertex executionVertex : topology.getVertices()) {
+            for (SchedulingExecutionVertex executionVertex : executionVertices) {
                 final List<SchedulingExecutionVertex> executionVertexGroup =
                         vertices.computeIfAbsent(
                                 executionVertex.getId().getJobVertexId(), k -> new ArrayList<>());
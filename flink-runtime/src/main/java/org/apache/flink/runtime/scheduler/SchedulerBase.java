@@ -163,7 +163,8 @@ public abstract class SchedulerBase implements SchedulerNG, CheckpointScheduling
             long initializationTimestamp,
             final ComponentMainThreadExecutor mainThreadExecutor,
             final JobStatusListener jobStatusListener,
-            final ExecutionGraphFactory executionGraphFactory)
+            final ExecutionGraphFactory executionGraphFactory,
+            final VertexParallelismStore vertexParallelismStore)
             throws Exception {
 
         this.log = checkNotNull(log);
@@ -193,7 +194,8 @@ public abstract class SchedulerBase implements SchedulerNG, CheckpointScheduling
                         checkpointIdCounter,
                         initializationTimestamp,
                         mainThreadExecutor,
-                        jobStatusListener);
+                        jobStatusListener,
+                        vertexParallelismStore);
 
         this.schedulingTopology = executionGraph.getSchedulingTopology();
 
@@ -327,7 +329,8 @@ public abstract class SchedulerBase implements SchedulerNG, CheckpointScheduling
             CheckpointIDCounter checkpointIdCounter,
             long initializationTimestamp,
             ComponentMainThreadExecutor mainThreadExecutor,
-            JobStatusListener jobStatusListener)
+            JobStatusListener jobStatusListener,
+            VertexParallelismStore vertexParallelismStore)
             throws Exception {
 
         final ExecutionGraph newExecutionGraph =
@@ -340,7 +343,7 @@ public abstract class SchedulerBase implements SchedulerNG, CheckpointScheduling
                                 jobGraph.getJobType()),
                         initializationTimestamp,
                         new DefaultVertexAttemptNumberStore(),
-                        computeVertexParallelismStore(jobGraph),
+                        vertexParallelismStore,
                         log);
 
         newExecutionGraph.setInternalTaskFailuresListener(
@@ -495,6 +498,16 @@ public abstract class SchedulerBase implements SchedulerNG, CheckpointScheduling
         getJobTerminationFuture().thenRun(() -> archiveGlobalFailure(cause));
     }
 
+    /**
+     * Registers and starts the operator coordinators of job vertices which were initialized after
+     * the scheduling started.
+     */
+    protected final void registerAndStartNewCoordinators(
+            Collection<OperatorCoordinatorHolder> coordinators) {
+        operatorCoordinatorHandler.registerAndStartNewCoordinators(
+                coordinators, getMainThreadExecutor());
+    }
+
     protected final SchedulingTopology getSchedulingTopology() {
         return schedulingTopology;
     }
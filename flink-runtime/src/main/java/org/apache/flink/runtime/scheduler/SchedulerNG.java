@@ -46,6 +46,7 @@ import org.apache.flink.runtime.operators.coordination.OperatorEvent;
 import org.apache.flink.runtime.query.KvStateLocation;
 import org.apache.flink.runtime.query.UnknownKvStateLocation;
 import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.taskexecutor.TaskLoadReport;
 import org.apache.flink.runtime.taskmanager.TaskExecutionState;
 import org.apache.flink.util.AutoCloseableAsync;
 import org.apache.flink.util.FlinkException;
@@ -123,6 +124,14 @@ public interface SchedulerNG extends AutoCloseableAsync {
 
     void updateAccumulators(AccumulatorSnapshot accumulatorSnapshot);
 
+    /**
+     * Updates the load of the tasks running on a TaskExecutor. Schedulers which do not adapt the
+     * parallelism of the job to its load ignore it.
+     *
+     * @param taskLoadReport the load of the tasks reported by a TaskExecutor
+     */
+    default void updateTaskLoads(TaskLoadReport taskLoadReport) {}
+
     // ------------------------------------------------------------------------
 
     CompletableFuture<String> triggerSavepoint(@Nullable String targetDirectory, boolean cancelJob);
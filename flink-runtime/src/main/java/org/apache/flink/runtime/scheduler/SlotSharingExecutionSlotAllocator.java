@@ -19,6 +19,7 @@
 package org.apache.flink.runtime.scheduler;
 
 import org.apache.flink.api.common.time.Time;
+import org.apache.flink.runtime.clusterframework.types.ResourceID;
 import org.apache.flink.runtime.clusterframework.types.ResourceProfile;
 import org.apache.flink.runtime.clusterframework.types.SlotProfile;
 import org.apache.flink.runtime.jobmaster.LogicalSlot;
@@ -35,11 +36,13 @@ import org.apache.flink.util.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -153,6 +156,65 @@ class SlotSharingExecutionSlotAllocator implements ExecutionSlotAllocator {
         cancelLogicalSlotRequest(executionVertexId, null);
     }
 
+    /**
+     * Allocates a dedicated shared slot for a speculative execution. It does not join the shared
+     * slot of the {@link ExecutionSlotSharingGroup} of the execution vertex, which hosts the
+     * original execution, so that it can be placed on a different task manager.
+     */
+    @Override
+    public CompletableFuture<LogicalSlot> allocateSlotForSpeculativeExecution(
+            ExecutionVertexID executionVertexId, Set<ResourceID> blockedTaskManagers) {
+
+        ExecutionSlotSharingGroup group = new ExecutionSlotSharingGroup();
+        group.addVertex(executionVertexId);
+
+        SlotRequestId physicalSlotRequestId = new SlotRequestId();
+        ResourceProfile physicalSlotResourceProfile = getPhysicalSlotResourceProfile(group);
+        SlotProfile slotProfile =
+                SlotProfile.priorAllocation(
+                        physicalSlotResourceProfile,
+                        physicalSlotResourceProfile,
+                        Collections.emptyList(),
+                        Collections.emptyList(),
+                        Collections.emptySet(),
+                        blockedTaskManagers);
+        CompletableFuture<PhysicalSlot> physicalSlotFuture =
+                slotProvider
+                        .allocatePhysicalSlot(
+                                new PhysicalSlotRequest(
+                                        physicalSlotRequestId,
+                                        slotProfile,
+                                        slotWillBeOccupiedIndefinitely))
+                        .thenApply(PhysicalSlotRequest.Result::getPhysicalSlot);
+        SharedSlot slot =
+                new SharedSlot(
+                        physicalSlotRequestId,
+                        physicalSlotResourceProfile,
+                        group,
+                        physicalSlotFuture,
+                        slotWillBeOccupiedIndefinitely,
+                        ignored ->
+                                slotProvider.cancelSlotRequest(
+                                        physicalSlotRequestId,
+                                        new FlinkException(
+                                                "Slot of speculative execution is being returned from SlotSharingExecutionSlotAllocator.")));
+        CompletableFuture<LogicalSlot> logicalSlotFuture =
+                slot.allocateLogicalSlot(executionVertexId);
+
+        Map<ExecutionSlotSharingGroup, SharedSlot> slots = Collections.singletonMap(group, slot);
+        Map<ExecutionSlotSharingGroup, List<ExecutionVertexID>> executions =
+                Collections.singletonMap(group, Collections.singletonList(executionVertexId));
+        SharingPhysicalSlotRequestBulk bulk =
+                new SharingPhysicalSlotRequestBulk(
+                        executions,
+                        Collections.singletonMap(group, physicalSlotResourceProfile),
+                        slot::cancelLogicalSlotRequest);
+        registerPhysicalSlotRequestBulkCallbacks(slots, executions.keySet(), bulk);
+        bulkChecker.schedulePendingRequestBulkTimeoutCheck(bulk, allocationTimeout);
+
+        return logicalSlotFuture;
+    }
+
     private void cancelLogicalSlotRequest(ExecutionVertexID executionVertexId, Throwable cause) {
         ExecutionSlotSharingGroup executionSlotSharingGroup =
                 slotSharingStrategy.getExecutionSlotSharingGroup(executionVertexId);
@@ -64,6 +64,12 @@ public class SsgNetworkMemoryCalculationUtils {
             return;
         }
 
+        // the network memory can only be computed once the parallelism of the job vertices in the
+        // group and of their consumers is decided
+        if (!areParallelismsDecided(ssg, ejvs)) {
+            return;
+        }
+
         MemorySize networkMemory = MemorySize.ZERO;
         for (JobVertexID jvId : ssg.getJobVertexIds()) {
             ExecutionJobVertex ejv = ejvs.apply(jvId);
@@ -84,6 +90,24 @@ public class SsgNetworkMemoryCalculationUtils {
         ssg.setResourceProfile(enriched);
     }
 
+    private static boolean areParallelismsDecided(
+            SlotSharingGroup ssg, Function<JobVertexID, ExecutionJobVertex> ejvs) {
+        for (JobVertexID jvId : ssg.getJobVertexIds()) {
+            ExecutionJobVertex ejv = ejvs.apply(jvId);
+            if (!ejv.isInitialized()) {
+                return false;
+            }
+            for (IntermediateDataSet producedDataSet : ejv.getJobVertex().getProducedDataSets()) {
+                for (JobEdge outputEdge : producedDataSet.getConsumers()) {
+                    if (!ejvs.apply(outputEdge.getTarget().getID()).isInitialized()) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
     private static TaskInputsOutputsDescriptor buildTaskInputsOutputsDescriptor(
             ExecutionJobVertex ejv, Function<JobVertexID, ExecutionJobVertex> ejvs) {
 
@@ -37,6 +37,14 @@ public interface VertexParallelismInformation {
      */
     int getMaxParallelism();
 
+    /**
+     * Sets a vertex's parallelism. This is only meant for vertices whose parallelism is decided at
+     * runtime, before their execution vertices are created.
+     *
+     * @param parallelism the parallelism for the vertex
+     */
+    void setParallelism(int parallelism);
+
     /**
      * Changes a given vertex's max parallelism property. The caller should first check the validity
      * of the new setting via {@link #canRescaleMaxParallelism}, otherwise this operation may fail.
@@ -41,6 +41,7 @@ import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
 import org.apache.flink.runtime.scheduler.strategy.ResultPartitionState;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingExecutionVertex;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingTopology;
+import org.apache.flink.runtime.scheduler.strategy.SchedulingTopologyListener;
 import org.apache.flink.util.IterableUtils;
 
 import org.slf4j.Logger;
@@ -78,19 +79,23 @@ public class DefaultExecutionTopology implements SchedulingTopology {
 
     private final EdgeManager edgeManager;
 
+    private final Map<JobVertexID, DefaultLogicalPipelinedRegion>
+            logicalPipelinedRegionsByJobVertexId;
+
+    private final List<SchedulingTopologyListener> schedulingTopologyListeners =
+            new ArrayList<>();
+
     private DefaultExecutionTopology(
-            Map<ExecutionVertexID, DefaultExecutionVertex> executionVerticesById,
-            List<DefaultExecutionVertex> executionVerticesList,
-            Map<IntermediateResultPartitionID, DefaultResultPartition> resultPartitionsById,
-            Map<ExecutionVertexID, DefaultSchedulingPipelinedRegion> pipelinedRegionsByVertex,
-            List<DefaultSchedulingPipelinedRegion> pipelinedRegions,
-            EdgeManager edgeManager) {
-        this.executionVerticesById = checkNotNull(executionVerticesById);
-        this.executionVerticesList = checkNotNull(executionVerticesList);
-        this.resultPartitionsById = checkNotNull(resultPartitionsById);
-        this.pipelinedRegionsByVertex = checkNotNull(pipelinedRegionsByVertex);
-        this.pipelinedRegions = checkNotNull(pipelinedRegions);
+            EdgeManager edgeManager,
+            Map<JobVertexID, DefaultLogicalPipelinedRegion> logicalPipelinedRegionsByJobVertexId) {
+        this.executionVerticesById = new HashMap<>();
+        this.executionVerticesList = new ArrayList<>();
+        this.resultPartitionsById = new HashMap<>();
+        this.pipelinedRegionsByVertex = new HashMap<>();
+        this.pipelinedRegions = new ArrayList<>();
         this.edgeManager = edgeManager;
+        this.logicalPipelinedRegionsByJobVertexId =
+                checkNotNull(logicalPipelinedRegionsByJobVertexId);
     }
 
     @Override
@@ -143,6 +148,94 @@ public class DefaultExecutionTopology implements SchedulingTopology {
         return edgeManager;
     }
 
+    @Override
+    public void registerSchedulingTopologyListener(SchedulingTopologyListener listener) {
+        checkNotNull(listener);
+        schedulingTopologyListeners.add(listener);
+    }
+
+    /**
+     * Adds the execution vertices of newly initialized job vertices to this topology and notifies
+     * the registered {@link SchedulingTopologyListener}s.
+     *
+     * <p>The pipelined regions of the new execution vertices can only be computed if all job
+     * vertices of their logical pipelined regions are initialized together.
+     *
+     * @param executionGraph the execution graph of the job vertices
+     * @param newlyInitializedJobVertices the newly initialized job vertices, topologically sorted
+     */
+    public void notifyExecutionGraphUpdated(
+            DefaultExecutionGraph executionGraph,
+            List<ExecutionJobVertex> newlyInitializedJobVertices) {
+        checkNotNull(executionGraph, "execution graph can not be null");
+
+        final Set<JobVertexID> newJobVertexIds =
+                newlyInitializedJobVertices.stream()
+                        .map(ExecutionJobVertex::getJobVertexId)
+                        .collect(Collectors.toSet());
+
+        final Map<DefaultLogicalPipelinedRegion, List<DefaultExecutionVertex>>
+                sortedExecutionVerticesInPipelinedRegion = new IdentityHashMap<>();
+        final List<ExecutionVertexID> newExecutionVertices = new ArrayList<>();
+
+        for (ExecutionJobVertex jobVertex : newlyInitializedJobVertices) {
+            checkState(jobVertex.isInitialized(), "The job vertex must be initialized.");
+
+            for (ExecutionVertex vertex : jobVertex.getTaskVertices()) {
+                List<DefaultResultPartition> producedPartitions =
+                        generateProducedSchedulingResultPartition(
+                                vertex.getProducedPartitions(),
+                                edgeManager::getConsumerVertexGroupsForPartition,
+                                executionVerticesById::get);
+
+                producedPartitions.forEach(
+                        partition -> resultPartitionsById.put(partition.getId(), partition));
+
+                DefaultExecutionVertex schedulingVertex =
+                        generateSchedulingExecutionVertex(
+                                vertex,
+                                producedPartitions,
+                                edgeManager.getConsumedPartitionGroupsForVertex(vertex.getID()),
+                                resultPartitionsById::get);
+                executionVerticesById.put(schedulingVertex.getId(), schedulingVertex);
+                sortedExecutionVerticesInPipelinedRegion
+                        .computeIfAbsent(
+                                logicalPipelinedRegionsByJobVertexId.get(
+                                        schedulingVertex.getId().getJobVertexId()),
+                                ignore -> new ArrayList<>())
+                        .add(schedulingVertex);
+                executionVerticesList.add(schedulingVertex);
+                newExecutionVertices.add(schedulingVertex.getId());
+            }
+        }
+
+        for (DefaultLogicalPipelinedRegion logicalPipelinedRegion :
+                sortedExecutionVerticesInPipelinedRegion.keySet()) {
+            for (LogicalVertex vertex : logicalPipelinedRegion.getVertices()) {
+                checkState(
+                        newJobVertexIds.contains(vertex.getId()),
+                        "All job vertices of a pipelined region must be initialized together.");
+            }
+        }
+
+        IndexedPipelinedRegions indexedPipelinedRegions =
+                computePipelinedRegions(
+                        sortedExecutionVerticesInPipelinedRegion.keySet(),
+                        sortedExecutionVerticesInPipelinedRegion::get,
+                        executionVerticesById::get,
+                        resultPartitionsById::get);
+
+        ensureCoLocatedVerticesInSameRegion(
+                indexedPipelinedRegions.pipelinedRegions, executionGraph);
+
+        pipelinedRegionsByVertex.putAll(indexedPipelinedRegions.pipelinedRegionsByVertex);
+        pipelinedRegions.addAll(indexedPipelinedRegions.pipelinedRegions);
+
+        for (SchedulingTopologyListener listener : schedulingTopologyListeners) {
+            listener.notifySchedulingTopologyUpdated(this, newExecutionVertices);
+        }
+    }
+
     public static DefaultExecutionTopology fromExecutionGraph(
             DefaultExecutionGraph executionGraph) {
         checkNotNull(executionGraph, "execution graph can not be null");
@@ -159,82 +252,22 @@ public class DefaultExecutionTopology implements SchedulingTopology {
                                 topologicallySortedJobVertices)
                         .getAllPipelinedRegions();
 
-        ExecutionGraphIndex executionGraphIndex =
-                computeExecutionGraphIndex(
-                        executionGraph.getAllExecutionVertices(),
-                        executionGraph.getTotalNumberOfVertices(),
-                        logicalPipelinedRegions,
-                        edgeManager);
-
-        IndexedPipelinedRegions indexedPipelinedRegions =
-                computePipelinedRegions(
-                        logicalPipelinedRegions,
-                        executionGraphIndex.sortedExecutionVerticesInPipelinedRegion::get,
-                        executionGraphIndex.executionVerticesById::get,
-                        executionGraphIndex.resultPartitionsById::get);
-
-        ensureCoLocatedVerticesInSameRegion(
-                indexedPipelinedRegions.pipelinedRegions, executionGraph);
-
-        return new DefaultExecutionTopology(
-                executionGraphIndex.executionVerticesById,
-                executionGraphIndex.executionVerticesList,
-                executionGraphIndex.resultPartitionsById,
-                indexedPipelinedRegions.pipelinedRegionsByVertex,
-                indexedPipelinedRegions.pipelinedRegions,
-                edgeManager);
-    }
-
-    private static ExecutionGraphIndex computeExecutionGraphIndex(
-            Iterable<ExecutionVertex> executionVertices,
-            int vertexNumber,
-            Iterable<DefaultLogicalPipelinedRegion> logicalPipelinedRegions,
-            EdgeManager edgeManager) {
-        Map<ExecutionVertexID, DefaultExecutionVertex> executionVerticesById = new HashMap<>();
-        List<DefaultExecutionVertex> executionVerticesList = new ArrayList<>(vertexNumber);
-        Map<IntermediateResultPartitionID, DefaultResultPartition> resultPartitionsById =
-                new HashMap<>();
-        Map<DefaultLogicalPipelinedRegion, List<DefaultExecutionVertex>>
-                sortedExecutionVerticesInPipelinedRegion = new IdentityHashMap<>();
-
-        Map<JobVertexID, DefaultLogicalPipelinedRegion> logicalPipelinedRegionByJobVertexId =
+        Map<JobVertexID, DefaultLogicalPipelinedRegion> logicalPipelinedRegionsByJobVertexId =
                 new HashMap<>();
         for (DefaultLogicalPipelinedRegion logicalPipelinedRegion : logicalPipelinedRegions) {
             for (LogicalVertex vertex : logicalPipelinedRegion.getVertices()) {
-                logicalPipelinedRegionByJobVertexId.put(vertex.getId(), logicalPipelinedRegion);
+                logicalPipelinedRegionsByJobVertexId.put(vertex.getId(), logicalPipelinedRegion);
             }
         }
 
-        for (ExecutionVertex vertex : executionVertices) {
-            List<DefaultResultPartition> producedPartitions =
-                    generateProducedSchedulingResultPartition(
-                            vertex.getProducedPartitions(),
-                            edgeManager::getConsumerVertexGroupsForPartition,
-                            executionVerticesById::get);
-
-            producedPartitions.forEach(
-                    partition -> resultPartitionsById.put(partition.getId(), partition));
-
-            DefaultExecutionVertex schedulingVertex =
-                    generateSchedulingExecutionVertex(
-                            vertex,
-                            producedPartitions,
-                            edgeManager.getConsumedPartitionGroupsForVertex(vertex.getID()),
-                            resultPartitionsById::get);
-            executionVerticesById.put(schedulingVertex.getId(), schedulingVertex);
-            sortedExecutionVerticesInPipelinedRegion
-                    .computeIfAbsent(
-                            logicalPipelinedRegionByJobVertexId.get(
-                                    schedulingVertex.getId().getJobVertexId()),
-                            ignore -> new ArrayList<>())
-                    .add(schedulingVertex);
-            executionVerticesList.add(schedulingVertex);
-        }
-        return new ExecutionGraphIndex(
-                executionVerticesById,
-                executionVerticesList,
-                sortedExecutionVerticesInPipelinedRegion,
-                resultPartitionsById);
+        DefaultExecutionTopology schedulingTopology =
+                new DefaultExecutionTopology(edgeManager, logicalPipelinedRegionsByJobVertexId);
+        schedulingTopology.notifyExecutionGraphUpdated(
+                executionGraph,
+                IterableUtils.toStream(executionGraph.getVerticesTopologically())
+                        .filter(ExecutionJobVertex::isInitialized)
+                        .collect(Collectors.toList()));
+        return schedulingTopology;
     }
 
     private static List<DefaultResultPartition> generateProducedSchedulingResultPartition(
@@ -422,28 +455,6 @@ public class DefaultExecutionTopology implements SchedulingTopology {
                 : coLocationGroup.getLocationConstraint(executionVertexId.getSubtaskIndex());
     }
 
-    private static class ExecutionGraphIndex {
-        private final Map<ExecutionVertexID, DefaultExecutionVertex> executionVerticesById;
-        private final List<DefaultExecutionVertex> executionVerticesList;
-        private final Map<DefaultLogicalPipelinedRegion, List<DefaultExecutionVertex>>
-                sortedExecutionVerticesInPipelinedRegion;
-        private final Map<IntermediateResultPartitionID, DefaultResultPartition>
-                resultPartitionsById;
-
-        private ExecutionGraphIndex(
-                Map<ExecutionVertexID, DefaultExecutionVertex> executionVerticesById,
-                List<DefaultExecutionVertex> executionVerticesList,
-                Map<DefaultLogicalPipelinedRegion, List<DefaultExecutionVertex>>
-                        sortedExecutionVerticesInPipelinedRegion,
-                Map<IntermediateResultPartitionID, DefaultResultPartition> resultPartitionsById) {
-            this.executionVerticesById = checkNotNull(executionVerticesById);
-            this.executionVerticesList = checkNotNull(executionVerticesList);
-            this.sortedExecutionVerticesInPipelinedRegion =
-                    checkNotNull(sortedExecutionVerticesInPipelinedRegion);
-            this.resultPartitionsById = checkNotNull(resultPartitionsById);
-        }
-    }
-
     private static class IndexedPipelinedRegions {
         private final Map<ExecutionVertexID, DefaultSchedulingPipelinedRegion>
                 pipelinedRegionsByVertex;
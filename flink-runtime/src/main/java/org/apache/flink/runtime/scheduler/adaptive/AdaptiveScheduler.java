@@ -51,6 +51,7 @@ import org.apache.flink.runtime.executiongraph.ExecutionVertex;
 import org.apache.flink.runtime.executiongraph.JobStatusListener;
 import org.apache.flink.runtime.executiongraph.MutableVertexAttemptNumberStore;
 import org.apache.flink.runtime.executiongraph.TaskExecutionStateTransition;
+import org.apache.flink.runtime.executiongraph.TaskLoad;
 import org.apache.flink.runtime.executiongraph.failover.flip1.ExecutionFailureHandler;
 import org.apache.flink.runtime.executiongraph.failover.flip1.RestartBackoffTimeStrategy;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
@@ -95,10 +96,15 @@ import org.apache.flink.runtime.scheduler.VertexParallelismInformation;
 import org.apache.flink.runtime.scheduler.VertexParallelismStore;
 import org.apache.flink.runtime.scheduler.adaptive.allocator.ReservedSlots;
 import org.apache.flink.runtime.scheduler.adaptive.allocator.SlotAllocator;
+import org.apache.flink.runtime.scheduler.adaptive.allocator.StateLocalityInformation;
 import org.apache.flink.runtime.scheduler.adaptive.allocator.VertexParallelism;
 import org.apache.flink.runtime.scheduler.adaptive.scalingpolicy.ReactiveScaleUpController;
 import org.apache.flink.runtime.scheduler.adaptive.scalingpolicy.ScaleUpController;
+import org.apache.flink.runtime.scheduler.adaptive.scalingpolicy.ScalingPolicy;
+import org.apache.flink.runtime.scheduler.adaptive.scalingpolicy.ScalingPolicyLoader;
+import org.apache.flink.runtime.scheduler.adaptive.scalingpolicy.VertexLoad;
 import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.taskexecutor.TaskLoadReport;
 import org.apache.flink.runtime.util.ResourceCounter;
 import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.FlinkException;
@@ -116,8 +122,12 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -184,6 +194,25 @@ public class AdaptiveScheduler
 
     private final ScaleUpController scaleUpController;
 
+    /** The policy to adapt the parallelism to the load of the job, null if it is not adapted. */
+    @Nullable private final ScalingPolicy scalingPolicy;
+
+    private final Duration loadBasedScalingCheckInterval;
+
+    private final Duration minLoadBasedRescaleInterval;
+
+    /** The time of the last rescale for the load of the job, or of the start of the scheduling. */
+    private long lastLoadBasedRescaleTimestamp;
+
+    /**
+     * The job information with the parallelism the job vertices are desired with for their load,
+     * which is at most their configured parallelism.
+     */
+    private final LoadBasedJobInformation loadBasedJobInformation;
+
+    /** The latest reported load of the running tasks, since the last load-based scaling check. */
+    private final Map<ExecutionAttemptID, TaskLoad> taskLoads = new HashMap<>();
+
     private final Duration initialResourceAllocationTimeout;
 
     private final Duration resourceStabilizationTimeout;
@@ -196,6 +225,9 @@ public class AdaptiveScheduler
 
     private int numRestarts = 0;
 
+    /** Where the subtasks were running before the last restart, to restore their state locally. */
+    private StateLocalityInformation stateLocality = StateLocalityInformation.empty();
+
     private final MutableVertexAttemptNumberStore vertexAttemptNumberStore =
             new DefaultVertexAttemptNumberStore();
 
@@ -230,6 +262,7 @@ public class AdaptiveScheduler
                 computeVertexParallelismStore(jobGraph, executionMode);
         this.initialParallelismStore = vertexParallelismStore;
         this.jobInformation = new JobGraphJobInformation(jobGraph, vertexParallelismStore);
+        this.loadBasedJobInformation = new LoadBasedJobInformation(jobInformation);
 
         this.declarativeSlotPool = declarativeSlotPool;
         this.initializationTimestamp = initializationTimestamp;
@@ -259,6 +292,16 @@ public class AdaptiveScheduler
 
         this.scaleUpController = new ReactiveScaleUpController(configuration);
 
+        this.scalingPolicy =
+                configuration.get(JobManagerOptions.LOAD_BASED_SCALING_ENABLED)
+                        ? ScalingPolicyLoader.loadScalingPolicy(
+                                configuration, AdaptiveScheduler.class.getClassLoader())
+                        : null;
+        this.loadBasedScalingCheckInterval =
+                configuration.get(JobManagerOptions.LOAD_BASED_SCALING_CHECK_INTERVAL);
+        this.minLoadBasedRescaleInterval =
+                configuration.get(JobManagerOptions.LOAD_BASED_SCALING_MIN_RESCALE_INTERVAL);
+
         this.initialResourceAllocationTimeout = initialResourceAllocationTimeout;
 
         this.resourceStabilizationTimeout = resourceStabilizationTimeout;
@@ -406,6 +449,11 @@ public class AdaptiveScheduler
                                 new IllegalStateException(
                                         "Can only start scheduling when being in Created state."))
                 .startScheduling();
+
+        if (scalingPolicy != null) {
+            lastLoadBasedRescaleTimestamp = System.currentTimeMillis();
+            scheduleLoadBasedScalingCheck();
+        }
     }
 
     @Override
@@ -584,6 +632,13 @@ public class AdaptiveScheduler
                 "updateAccumulators");
     }
 
+    @Override
+    public void updateTaskLoads(TaskLoadReport taskLoadReport) {
+        if (scalingPolicy != null) {
+            taskLoads.putAll(taskLoadReport.getTaskLoads());
+        }
+    }
+
     @Override
     public CompletableFuture<String> triggerSavepoint(
             @Nullable String targetDirectory, boolean cancelJob) {
@@ -714,7 +769,8 @@ public class AdaptiveScheduler
     @Override
     public boolean hasSufficientResources() {
         return slotAllocator
-                .determineParallelism(jobInformation, declarativeSlotPool.getAllSlotsInformation())
+                .determineParallelism(
+                        loadBasedJobInformation, declarativeSlotPool.getAllSlotsInformation())
                 .isPresent();
     }
 
@@ -722,7 +778,10 @@ public class AdaptiveScheduler
             throws NoResourceAvailableException {
 
         return slotAllocator
-                .determineParallelism(jobInformation, declarativeSlotPool.getFreeSlotsInformation())
+                .determineParallelism(
+                        loadBasedJobInformation,
+                        declarativeSlotPool.getFreeSlotsInformation(),
+                        stateLocality)
                 .orElseThrow(
                         () ->
                                 new NoResourceAvailableException(
@@ -756,7 +815,7 @@ public class AdaptiveScheduler
     }
 
     private ResourceCounter calculateDesiredResources() {
-        return slotAllocator.calculateRequiredSlots(jobInformation.getVertices());
+        return slotAllocator.calculateRequiredSlots(loadBasedJobInformation.getVertices());
     }
 
     @Override
@@ -825,6 +884,7 @@ public class AdaptiveScheduler
                     executionVertex.getParallelSubtaskIndex(),
                     attemptNumber + 1);
         }
+        stateLocality = StateLocalityInformation.fromExecutionGraph(executionGraph);
 
         transitionToState(
                 new Restarting.Factory(
@@ -990,8 +1050,17 @@ public class AdaptiveScheduler
     @Nonnull
     private ExecutionGraph createExecutionGraphAndRestoreState(
             VertexParallelismStore adjustedParallelismStore) throws Exception {
+        final JobGraph jobGraphForExecution = jobInformation.copyJobGraph();
+
+        if (scalingPolicy != null) {
+            // the TaskExecutors only report the load of the tasks of jobs which are scaled by it
+            jobGraphForExecution
+                    .getJobConfiguration()
+                    .set(JobManagerOptions.LOAD_BASED_SCALING_ENABLED, true);
+        }
+
         return executionGraphFactory.createAndRestoreExecutionGraph(
-                jobInformation.copyJobGraph(),
+                jobGraphForExecution,
                 completedCheckpointStore,
                 checkpointsCleaner,
                 checkpointIdCounter,
@@ -1009,7 +1078,7 @@ public class AdaptiveScheduler
         if (availableSlots > 0) {
             final Optional<? extends VertexParallelism> potentialNewParallelism =
                     slotAllocator.determineParallelism(
-                            jobInformation, declarativeSlotPool.getAllSlotsInformation());
+                            loadBasedJobInformation, declarativeSlotPool.getAllSlotsInformation());
 
             if (potentialNewParallelism.isPresent()) {
                 int currentCumulativeParallelism = getCurrentCumulativeParallelism(executionGraph);
@@ -1028,6 +1097,101 @@ public class AdaptiveScheduler
         return false;
     }
 
+    private void scheduleLoadBasedScalingCheck() {
+        componentMainThreadExecutor.schedule(
+                this::checkLoadBasedScaling,
+                loadBasedScalingCheckInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void checkLoadBasedScaling() {
+        if (state instanceof Finished) {
+            return;
+        }
+
+        state.tryRun(Executing.class, this::rescaleForLoad, "checkLoadBasedScaling");
+        taskLoads.clear();
+        scheduleLoadBasedScalingCheck();
+    }
+
+    /**
+     * Computes the target parallelism of the job vertices from the load of their tasks and
+     * rescales the job if the available slots allow to run it with a different parallelism.
+     * Job vertices whose tasks did not all report their load since the last check keep their
+     * parallelism. The job is not rescaled again before the minimum rescale interval has passed.
+     */
+    private void rescaleForLoad(Executing executing) {
+        Preconditions.checkNotNull(scalingPolicy);
+        if (System.currentTimeMillis() - lastLoadBasedRescaleTimestamp
+                < minLoadBasedRescaleInterval.toMillis()) {
+            return;
+        }
+
+        final ExecutionGraph executionGraph = executing.getExecutionGraph();
+
+        boolean targetParallelismChanged = false;
+        for (ExecutionJobVertex jobVertex : executionGraph.getVerticesTopologically()) {
+            final List<TaskLoad> vertexTaskLoads = new ArrayList<>();
+            for (ExecutionVertex executionVertex : jobVertex.getTaskVertices()) {
+                final TaskLoad taskLoad =
+                        taskLoads.get(executionVertex.getCurrentExecutionAttempt().getAttemptId());
+                if (taskLoad != null) {
+                    vertexTaskLoads.add(taskLoad);
+                }
+            }
+            if (vertexTaskLoads.size() < jobVertex.getParallelism()) {
+                continue;
+            }
+
+            final JobVertexID jobVertexId = jobVertex.getJobVertexId();
+            final VertexLoad vertexLoad = VertexLoad.aggregate(vertexTaskLoads);
+            final int targetParallelism =
+                    scalingPolicy.computeTargetParallelism(
+                            vertexLoad,
+                            jobVertex.getParallelism(),
+                            loadBasedJobInformation.getConfiguredParallelism(jobVertexId));
+            final int currentTargetParallelism =
+                    loadBasedJobInformation.getTargetParallelism(jobVertexId);
+            if (targetParallelism != currentTargetParallelism) {
+                LOG.debug(
+                        "Changing the target parallelism of {} from {} to {} for its load {}.",
+                        jobVertex.getName(),
+                        currentTargetParallelism,
+                        targetParallelism,
+                        vertexLoad);
+                loadBasedJobInformation.setTargetParallelism(jobVertexId, targetParallelism);
+                targetParallelismChanged = true;
+            }
+        }
+
+        if (!targetParallelismChanged) {
+            return;
+        }
+
+        // scaling up may need more slots than the job holds, scaling down releases slots
+        declarativeSlotPool.setResourceRequirements(calculateDesiredResources());
+
+        final Optional<? extends VertexParallelism> newParallelism =
+                slotAllocator.determineParallelism(
+                        loadBasedJobInformation, declarativeSlotPool.getAllSlotsInformation());
+        if (newParallelism.isPresent()
+                && isParallelismChanged(executionGraph, newParallelism.get())) {
+            lastLoadBasedRescaleTimestamp = System.currentTimeMillis();
+            executing.rescale();
+        }
+    }
+
+    private static boolean isParallelismChanged(
+            ExecutionGraph executionGraph, VertexParallelism newParallelism) {
+        for (ExecutionJobVertex jobVertex : executionGraph.getAllVertices().values()) {
+            if (jobVertex.getParallelism()
+                    != newParallelism.getParallelism(jobVertex.getJobVertexId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static int getCurrentCumulativeParallelism(ExecutionGraph executionGraph) {
         return executionGraph.getAllVertices().values().stream()
                 .map(ExecutionJobVertex::getParallelism)
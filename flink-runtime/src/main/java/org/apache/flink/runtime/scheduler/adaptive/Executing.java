@@ -163,6 +163,16 @@ class Executing extends StateWithExecutionGraph implements ResourceConsumer {
         }
     }
 
+    /** Restarts the job to run it with the parallelism adapted to its load. */
+    void rescale() {
+        getLogger().info("The load of the job changed. Restarting job to rescale it.");
+        context.goToRestarting(
+                getExecutionGraph(),
+                getExecutionGraphHandler(),
+                getOperatorCoordinatorHandler(),
+                Duration.ofMillis(0L));
+    }
+
     CompletableFuture<String> stopWithSavepoint(
             @Nullable final String targetDirectory, boolean terminate) {
         final ExecutionGraph executionGraph = getExecutionGraph();
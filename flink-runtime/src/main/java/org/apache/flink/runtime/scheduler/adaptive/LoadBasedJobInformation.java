@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptive;
+
+import org.apache.flink.runtime.jobgraph.JobVertexID;
+import org.apache.flink.runtime.jobmanager.scheduler.SlotSharingGroup;
+import org.apache.flink.runtime.scheduler.adaptive.allocator.JobInformation;
+import org.apache.flink.util.Preconditions;
+
+import org.apache.flink.shaded.guava30.com.google.common.collect.Iterables;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link JobInformation} which desires the job vertices with the parallelism targeted for their
+ * load. The targets are bounded by the configured parallelism of the job vertices, which the
+ * underlying {@link JobGraphJobInformation} provides. Job vertices without a target are desired
+ * with their configured parallelism.
+ */
+class LoadBasedJobInformation implements JobInformation {
+
+    private final JobGraphJobInformation jobInformation;
+
+    /** The targets which are lower than the configured parallelism of their job vertex. */
+    private final Map<JobVertexID, Integer> targetParallelism = new HashMap<>();
+
+    LoadBasedJobInformation(JobGraphJobInformation jobInformation) {
+        this.jobInformation = Preconditions.checkNotNull(jobInformation);
+    }
+
+    /** Returns the parallelism which is configured for the given job vertex. */
+    int getConfiguredParallelism(JobVertexID jobVertexId) {
+        return jobInformation.getVertexInformation(jobVertexId).getParallelism();
+    }
+
+    /** Returns the parallelism the given job vertex is desired with. */
+    int getTargetParallelism(JobVertexID jobVertexId) {
+        return getVertexInformation(jobVertexId).getParallelism();
+    }
+
+    /**
+     * Sets the parallelism the given job vertex is desired with for its load. Targets above the
+     * configured parallelism of the job vertex are bounded by it.
+     *
+     * @param jobVertexId the job vertex to set the target for
+     * @param parallelism the target parallelism of the job vertex
+     */
+    void setTargetParallelism(JobVertexID jobVertexId, int parallelism) {
+        Preconditions.checkArgument(parallelism > 0, "The target parallelism must be positive.");
+
+        if (parallelism < getConfiguredParallelism(jobVertexId)) {
+            targetParallelism.put(jobVertexId, parallelism);
+        } else {
+            targetParallelism.remove(jobVertexId);
+        }
+    }
+
+    @Override
+    public Collection<SlotSharingGroup> getSlotSharingGroups() {
+        return jobInformation.getSlotSharingGroups();
+    }
+
+    @Override
+    public VertexInformation getVertexInformation(JobVertexID jobVertexId) {
+        final VertexInformation vertexInformation =
+                jobInformation.getVertexInformation(jobVertexId);
+        final Integer parallelism = targetParallelism.get(jobVertexId);
+
+        return parallelism != null
+                ? new TargetVertexInformation(vertexInformation, parallelism)
+                : vertexInformation;
+    }
+
+    public Iterable<VertexInformation> getVertices() {
+        return Iterables.transform(
+                jobInformation.getVertices(),
+                (vertex) -> getVertexInformation(vertex.getJobVertexID()));
+    }
+
+    private static final class TargetVertexInformation implements VertexInformation {
+
+        private final VertexInformation vertexInformation;
+
+        private final int parallelism;
+
+        private TargetVertexInformation(VertexInformation vertexInformation, int parallelism) {
+            this.vertexInformation = vertexInformation;
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        public JobVertexID getJobVertexID() {
+            return vertexInformation.getJobVertexID();
+        }
+
+        @Override
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        @Override
+        public SlotSharingGroup getSlotSharingGroup() {
+            return vertexInformation.getSlotSharingGroup();
+        }
+    }
+}
@@ -54,6 +54,25 @@ public interface SlotAllocator {
     Optional<? extends VertexParallelism> determineParallelism(
             JobInformation jobInformation, Collection<? extends SlotInfo> slots);
 
+    /**
+     * Determines the parallelism like {@link #determineParallelism(JobInformation, Collection)},
+     * but prefers to assign the vertices to slots on TaskManagers which still hold the local
+     * state of the key groups the vertices are assigned to.
+     *
+     * @param jobInformation information about the job graph
+     * @param slots slots to consider for determining the parallelism
+     * @param stateLocality where the subtasks were running before the job was restarted
+     * @return potential parallelism for all vertices and implementation-specific information for
+     *     how the vertices could be assigned to slots, if all vertices could be run with the given
+     *     slots
+     */
+    default Optional<? extends VertexParallelism> determineParallelism(
+            JobInformation jobInformation,
+            Collection<? extends SlotInfo> slots,
+            StateLocalityInformation stateLocality) {
+        return determineParallelism(jobInformation, slots);
+    }
+
     /**
      * Reserves slots according to the given assignment if possible. If the underlying set of
      * resources has changed and the reservation with respect to vertexParallelism is no longer
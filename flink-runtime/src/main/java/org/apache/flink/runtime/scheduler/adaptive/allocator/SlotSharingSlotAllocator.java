@@ -18,6 +18,7 @@
 package org.apache.flink.runtime.scheduler.adaptive.allocator;
 
 import org.apache.flink.runtime.clusterframework.types.AllocationID;
+import org.apache.flink.runtime.clusterframework.types.ResourceID;
 import org.apache.flink.runtime.clusterframework.types.ResourceProfile;
 import org.apache.flink.runtime.instance.SlotSharingGroupId;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
@@ -94,6 +95,14 @@ public class SlotSharingSlotAllocator implements SlotAllocator {
     @Override
     public Optional<VertexParallelismWithSlotSharing> determineParallelism(
             JobInformation jobInformation, Collection<? extends SlotInfo> freeSlots) {
+        return determineParallelism(jobInformation, freeSlots, StateLocalityInformation.empty());
+    }
+
+    @Override
+    public Optional<VertexParallelismWithSlotSharing> determineParallelism(
+            JobInformation jobInformation,
+            Collection<? extends SlotInfo> freeSlots,
+            StateLocalityInformation stateLocality) {
         // TODO: This can waste slots if the max parallelism for slot sharing groups is not equal
         final int slotsPerSlotSharingGroup =
                 freeSlots.size() / jobInformation.getSlotSharingGroups().size();
@@ -103,9 +112,7 @@ public class SlotSharingSlotAllocator implements SlotAllocator {
             return Optional.empty();
         }
 
-        final Iterator<? extends SlotInfo> slotIterator = freeSlots.iterator();
-
-        final Collection<ExecutionSlotSharingGroupAndSlot> assignments = new ArrayList<>();
+        final List<ExecutionSlotSharingGroup> executionSlotSharingGroups = new ArrayList<>();
         final Map<JobVertexID, Integer> allVertexParallelism = new HashMap<>();
 
         for (SlotSharingGroup slotSharingGroup : jobInformation.getSlotSharingGroups()) {
@@ -117,20 +124,93 @@ public class SlotSharingSlotAllocator implements SlotAllocator {
             final Map<JobVertexID, Integer> vertexParallelism =
                     determineParallelism(containedJobVertices, slotsPerSlotSharingGroup);
 
-            final Iterable<ExecutionSlotSharingGroup> sharedSlotToVertexAssignment =
-                    createExecutionSlotSharingGroups(vertexParallelism);
+            executionSlotSharingGroups.addAll(createExecutionSlotSharingGroups(vertexParallelism));
+            allVertexParallelism.putAll(vertexParallelism);
+        }
 
-            for (ExecutionSlotSharingGroup executionSlotSharingGroup :
-                    sharedSlotToVertexAssignment) {
-                final SlotInfo slotInfo = slotIterator.next();
+        final Collection<ExecutionSlotSharingGroupAndSlot> assignments =
+                stateLocality.isEmpty()
+                        ? assignSlots(executionSlotSharingGroups, freeSlots)
+                        : assignSlotsByStateLocality(
+                                executionSlotSharingGroups,
+                                freeSlots,
+                                allVertexParallelism,
+                                stateLocality);
 
-                assignments.add(
-                        new ExecutionSlotSharingGroupAndSlot(executionSlotSharingGroup, slotInfo));
+        return Optional.of(new VertexParallelismWithSlotSharing(allVertexParallelism, assignments));
+    }
+
+    private static Collection<ExecutionSlotSharingGroupAndSlot> assignSlots(
+            Collection<ExecutionSlotSharingGroup> executionSlotSharingGroups,
+            Collection<? extends SlotInfo> freeSlots) {
+        final Iterator<? extends SlotInfo> slotIterator = freeSlots.iterator();
+        final Collection<ExecutionSlotSharingGroupAndSlot> assignments = new ArrayList<>();
+
+        for (ExecutionSlotSharingGroup executionSlotSharingGroup : executionSlotSharingGroups) {
+            final SlotInfo slotInfo = slotIterator.next();
+
+            assignments.add(
+                    new ExecutionSlotSharingGroupAndSlot(executionSlotSharingGroup, slotInfo));
+        }
+        return assignments;
+    }
+
+    /**
+     * Assigns each execution slot sharing group to the free slot on the TaskManager which holds
+     * the local state of most of the key groups of the contained subtasks. Falls back to the order
+     * of the free slots if no TaskManager holds local state of a group.
+     */
+    private static Collection<ExecutionSlotSharingGroupAndSlot> assignSlotsByStateLocality(
+            Collection<ExecutionSlotSharingGroup> executionSlotSharingGroups,
+            Collection<? extends SlotInfo> freeSlots,
+            Map<JobVertexID, Integer> vertexParallelism,
+            StateLocalityInformation stateLocality) {
+        final List<SlotInfo> remainingSlots = new ArrayList<>(freeSlots);
+        final Collection<ExecutionSlotSharingGroupAndSlot> assignments = new ArrayList<>();
+
+        for (ExecutionSlotSharingGroup executionSlotSharingGroup : executionSlotSharingGroups) {
+            final Map<ResourceID, Integer> localKeyGroupsPerTaskManager = new HashMap<>();
+            int bestSlotIndex = 0;
+            int bestNumberOfLocalKeyGroups = -1;
+
+            for (int i = 0; i < remainingSlots.size(); i++) {
+                final int numberOfLocalKeyGroups =
+                        localKeyGroupsPerTaskManager.computeIfAbsent(
+                                remainingSlots.get(i).getTaskManagerLocation().getResourceID(),
+                                taskManager ->
+                                        getNumberOfLocalKeyGroups(
+                                                executionSlotSharingGroup,
+                                                vertexParallelism,
+                                                stateLocality,
+                                                taskManager));
+                if (numberOfLocalKeyGroups > bestNumberOfLocalKeyGroups) {
+                    bestSlotIndex = i;
+                    bestNumberOfLocalKeyGroups = numberOfLocalKeyGroups;
+                }
             }
-            allVertexParallelism.putAll(vertexParallelism);
+
+            assignments.add(
+                    new ExecutionSlotSharingGroupAndSlot(
+                            executionSlotSharingGroup, remainingSlots.remove(bestSlotIndex)));
         }
+        return assignments;
+    }
 
-        return Optional.of(new VertexParallelismWithSlotSharing(allVertexParallelism, assignments));
+    private static int getNumberOfLocalKeyGroups(
+            ExecutionSlotSharingGroup executionSlotSharingGroup,
+            Map<JobVertexID, Integer> vertexParallelism,
+            StateLocalityInformation stateLocality,
+            ResourceID taskManager) {
+        int numberOfLocalKeyGroups = 0;
+        for (ExecutionVertexID executionVertexId :
+                executionSlotSharingGroup.getContainedExecutionVertices()) {
+            numberOfLocalKeyGroups +=
+                    stateLocality.getNumberOfLocalKeyGroups(
+                            executionVertexId,
+                            vertexParallelism.get(executionVertexId.getJobVertexId()),
+                            taskManager);
+        }
+        return numberOfLocalKeyGroups;
     }
 
     private static Map<JobVertexID, Integer> determineParallelism(
@@ -145,7 +225,7 @@ public class SlotSharingSlotAllocator implements SlotAllocator {
         return vertexParallelism;
     }
 
-    private static Iterable<ExecutionSlotSharingGroup> createExecutionSlotSharingGroups(
+    private static Collection<ExecutionSlotSharingGroup> createExecutionSlotSharingGroups(
             Map<JobVertexID, Integer> containedJobVertices) {
         final Map<Integer, Set<ExecutionVertexID>> sharedSlotToVertexAssignment = new HashMap<>();
 
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptive.allocator;
+
+import org.apache.flink.runtime.clusterframework.types.ResourceID;
+import org.apache.flink.runtime.executiongraph.ExecutionGraph;
+import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
+import org.apache.flink.runtime.executiongraph.ExecutionVertex;
+import org.apache.flink.runtime.jobgraph.JobVertexID;
+import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
+import org.apache.flink.runtime.taskmanager.TaskManagerLocation;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Information on which TaskManagers the subtasks of a job were running before it was restarted.
+ * The TaskManagers keep the task-local state of these subtasks, so a subtask which is deployed to
+ * a TaskManager that held some of its key groups before can restore them locally instead of
+ * downloading them, even if the job was rescaled.
+ */
+public class StateLocalityInformation {
+
+    private static final StateLocalityInformation EMPTY =
+            new StateLocalityInformation(Collections.emptyMap());
+
+    private final Map<JobVertexID, VertexLocations> vertexLocations;
+
+    StateLocalityInformation(Map<JobVertexID, VertexLocations> vertexLocations) {
+        this.vertexLocations = vertexLocations;
+    }
+
+    public static StateLocalityInformation empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Records the TaskManagers the subtasks of the given execution graph were assigned to.
+     *
+     * @param executionGraph the execution graph which is about to be restarted
+     */
+    public static StateLocalityInformation fromExecutionGraph(ExecutionGraph executionGraph) {
+        final Map<JobVertexID, VertexLocations> vertexLocations = new HashMap<>();
+
+        for (ExecutionJobVertex jobVertex : executionGraph.getAllVertices().values()) {
+            final ExecutionVertex[] taskVertices = jobVertex.getTaskVertices();
+            final ResourceID[] subtaskLocations = new ResourceID[taskVertices.length];
+
+            for (int i = 0; i < taskVertices.length; i++) {
+                final TaskManagerLocation location =
+                        taskVertices[i].getCurrentAssignedResourceLocation();
+                subtaskLocations[i] = location == null ? null : location.getResourceID();
+            }
+
+            vertexLocations.put(
+                    jobVertex.getJobVertexId(),
+                    new VertexLocations(jobVertex.getMaxParallelism(), subtaskLocations));
+        }
+
+        return new StateLocalityInformation(vertexLocations);
+    }
+
+    public boolean isEmpty() {
+        return vertexLocations.isEmpty();
+    }
+
+    /**
+     * Returns the number of key groups of the given subtask which were assigned to a subtask
+     * running on the given TaskManager before the restart.
+     *
+     * @param executionVertexId the subtask to deploy
+     * @param parallelism the new parallelism of the job vertex of the subtask
+     * @param taskManager the TaskManager the subtask may be deployed to
+     */
+    public int getNumberOfLocalKeyGroups(
+            ExecutionVertexID executionVertexId, int parallelism, ResourceID taskManager) {
+        final VertexLocations locations = vertexLocations.get(executionVertexId.getJobVertexId());
+        if (locations == null) {
+            return 0;
+        }
+
+        final KeyGroupRange newRange =
+                KeyGroupRangeAssignment.computeKeyGroupRangeForOperatorIndex(
+                        locations.maxParallelism,
+                        parallelism,
+                        executionVertexId.getSubtaskIndex());
+
+        int numberOfLocalKeyGroups = 0;
+        for (int i = 0; i < locations.subtaskLocations.length; i++) {
+            if (taskManager.equals(locations.subtaskLocations[i])) {
+                final KeyGroupRange oldRange =
+                        KeyGroupRangeAssignment.computeKeyGroupRangeForOperatorIndex(
+                                locations.maxParallelism, locations.subtaskLocations.length, i);
+                numberOfLocalKeyGroups += newRange.getIntersection(oldRange).getNumberOfKeyGroups();
+            }
+        }
+        return numberOfLocalKeyGroups;
+    }
+
+    /** The TaskManagers the subtasks of a job vertex were running on. */
+    static final class VertexLocations {
+
+        private final int maxParallelism;
+
+        private final ResourceID[] subtaskLocations;
+
+        VertexLocations(int maxParallelism, ResourceID[] subtaskLocations) {
+            this.maxParallelism = maxParallelism;
+            this.subtaskLocations = subtaskLocations;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptive.scalingpolicy;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.JobManagerOptions;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Scales the job vertices so that their tasks are busy for the configured ratio of time.
+ *
+ * <p>A job vertex whose tasks are busy for longer than the scale up threshold is a bottleneck and
+ * is scaled up, a job vertex whose tasks are busy for less than the scale down threshold is scaled
+ * down. A job vertex in between keeps its parallelism, so that small fluctuations of the load do
+ * not restart the job. A back pressured job vertex is limited by its consumers rather than by its
+ * own parallelism, its parallelism is left as is until the bottleneck further downstream is
+ * resolved. Sources with pending records are lagging behind and are not scaled down.
+ */
+public class LoadBasedScalingPolicy implements ScalingPolicy {
+
+    /** The back pressured time per second above which a job vertex counts as back pressured. */
+    @VisibleForTesting static final double BACK_PRESSURED_THRESHOLD_MS_PER_SECOND = 100.0;
+
+    private final double targetUtilization;
+
+    private final double scaleUpThreshold;
+
+    private final double scaleDownThreshold;
+
+    public LoadBasedScalingPolicy(Configuration configuration) {
+        this(
+                configuration.get(JobManagerOptions.LOAD_BASED_SCALING_TARGET_UTILIZATION),
+                configuration.get(JobManagerOptions.LOAD_BASED_SCALING_SCALE_UP_THRESHOLD),
+                configuration.get(JobManagerOptions.LOAD_BASED_SCALING_SCALE_DOWN_THRESHOLD));
+    }
+
+    public LoadBasedScalingPolicy(
+            double targetUtilization, double scaleUpThreshold, double scaleDownThreshold) {
+        checkArgument(
+                targetUtilization > 0 && targetUtilization <= 1,
+                "The target utilization must be within (0, 1].");
+        checkArgument(
+                scaleUpThreshold >= targetUtilization,
+                "The scale up threshold %s must not be lower than the target utilization %s.",
+                scaleUpThreshold,
+                targetUtilization);
+        checkArgument(
+                scaleDownThreshold <= targetUtilization,
+                "The scale down threshold %s must not be higher than the target utilization %s.",
+                scaleDownThreshold,
+                targetUtilization);
+        this.targetUtilization = targetUtilization;
+        this.scaleUpThreshold = scaleUpThreshold;
+        this.scaleDownThreshold = scaleDownThreshold;
+    }
+
+    @Override
+    public int computeTargetParallelism(
+            VertexLoad load, int currentParallelism, int maxParallelism) {
+        final double busyTime = load.getAverageBusyTimeMsPerSecond();
+        if (Double.isNaN(busyTime)
+                || load.getAverageBackPressuredTimeMsPerSecond()
+                        > BACK_PRESSURED_THRESHOLD_MS_PER_SECOND) {
+            return Math.min(currentParallelism, maxParallelism);
+        }
+
+        final double utilization = busyTime / 1000.0;
+        final boolean scaleUp = utilization > scaleUpThreshold;
+        final boolean scaleDown = utilization < scaleDownThreshold && load.getPendingRecords() <= 0;
+        if (!scaleUp && !scaleDown) {
+            return Math.min(currentParallelism, maxParallelism);
+        }
+
+        final int targetParallelism =
+                (int) Math.ceil(currentParallelism * utilization / targetUtilization);
+        return Math.max(1, Math.min(maxParallelism, targetParallelism));
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptive.scalingpolicy;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.runtime.scheduler.adaptive.AdaptiveScheduler;
+
+/**
+ * Policy which decides the parallelism of a job vertex from its load, used by the {@link
+ * AdaptiveScheduler} to adapt a running job to its load.
+ */
+@Internal
+public interface ScalingPolicy {
+
+    /**
+     * Computes the parallelism a job vertex should run with.
+     *
+     * @param load the load of the tasks of the job vertex
+     * @param currentParallelism the parallelism the job vertex is running with
+     * @param maxParallelism the parallelism the job vertex may at most run with
+     * @return the target parallelism of the job vertex, within [1, maxParallelism]
+     */
+    int computeTargetParallelism(VertexLoad load, int currentParallelism, int maxParallelism);
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptive.scalingpolicy;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.IllegalConfigurationException;
+import org.apache.flink.configuration.JobManagerOptions;
+
+/** Utility to load the {@link ScalingPolicy} configured for the adaptive scheduler. */
+public final class ScalingPolicyLoader {
+
+    /**
+     * Instantiates the class configured by {@link JobManagerOptions#LOAD_BASED_SCALING_POLICY}
+     * with the given configuration.
+     *
+     * @param configuration the configuration to read the class name from and to pass to the policy
+     * @param classLoader the class loader to load the policy class with
+     * @return the configured scaling policy
+     * @throws IllegalConfigurationException if the configured class cannot be instantiated
+     */
+    public static ScalingPolicy loadScalingPolicy(
+            Configuration configuration, ClassLoader classLoader) {
+        final String className = configuration.get(JobManagerOptions.LOAD_BASED_SCALING_POLICY);
+        try {
+            return Class.forName(className, true, classLoader)
+                    .asSubclass(ScalingPolicy.class)
+                    .getConstructor(Configuration.class)
+                    .newInstance(configuration);
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalConfigurationException(
+                    String.format("Could not instantiate the scaling policy %s.", className), e);
+        }
+    }
+
+    private ScalingPolicyLoader() {}
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptive.scalingpolicy;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.runtime.executiongraph.TaskLoad;
+
+import java.util.Collection;
+
+/** The load of a job vertex, aggregated from the load of its tasks. */
+@Internal
+public class VertexLoad {
+
+    private final double averageBusyTimeMsPerSecond;
+
+    private final double averageBackPressuredTimeMsPerSecond;
+
+    private final long pendingRecords;
+
+    public VertexLoad(
+            double averageBusyTimeMsPerSecond,
+            double averageBackPressuredTimeMsPerSecond,
+            long pendingRecords) {
+        this.averageBusyTimeMsPerSecond = averageBusyTimeMsPerSecond;
+        this.averageBackPressuredTimeMsPerSecond = averageBackPressuredTimeMsPerSecond;
+        this.pendingRecords = pendingRecords;
+    }
+
+    /**
+     * Aggregates the load of the tasks of a job vertex. The busy and back pressured times are
+     * averaged over the tasks which measure them, the pending records are summed up over the tasks
+     * which report them.
+     */
+    public static VertexLoad aggregate(Collection<TaskLoad> taskLoads) {
+        double busyTimeSum = 0;
+        int numBusyTimes = 0;
+        double backPressuredTimeSum = 0;
+        int numBackPressuredTimes = 0;
+        long pendingRecords = TaskLoad.UNKNOWN_PENDING_RECORDS;
+
+        for (TaskLoad taskLoad : taskLoads) {
+            if (!Double.isNaN(taskLoad.getBusyTimeMsPerSecond())) {
+                busyTimeSum += taskLoad.getBusyTimeMsPerSecond();
+                numBusyTimes++;
+            }
+            if (!Double.isNaN(taskLoad.getBackPressuredTimeMsPerSecond())) {
+                backPressuredTimeSum += taskLoad.getBackPressuredTimeMsPerSecond();
+                numBackPressuredTimes++;
+            }
+            if (taskLoad.getPendingRecords() != TaskLoad.UNKNOWN_PENDING_RECORDS) {
+                pendingRecords = Math.max(pendingRecords, 0) + taskLoad.getPendingRecords();
+            }
+        }
+
+        return new VertexLoad(
+                numBusyTimes > 0 ? busyTimeSum / numBusyTimes : Double.NaN,
+                numBackPressuredTimes > 0 ? backPressuredTimeSum / numBackPressuredTimes : 0,
+                pendingRecords);
+    }
+
+    /**
+     * Returns the average time per second the tasks were busy, or {@link Double#NaN} if none of
+     * the tasks measures it.
+     */
+    public double getAverageBusyTimeMsPerSecond() {
+        return averageBusyTimeMsPerSecond;
+    }
+
+    /** Returns the average time per second the tasks were back pressured. */
+    public double getAverageBackPressuredTimeMsPerSecond() {
+        return averageBackPressuredTimeMsPerSecond;
+    }
+
+    /**
+     * Returns the number of records the sources of the job vertex have not read yet, or {@link
+     * TaskLoad#UNKNOWN_PENDING_RECORDS} if no task reports it.
+     */
+    public long getPendingRecords() {
+        return pendingRecords;
+    }
+
+    @Override
+    public String toString() {
+        return "VertexLoad{"
+                + "averageBusyTimeMsPerSecond="
+                + averageBusyTimeMsPerSecond
+                + ", averageBackPressuredTimeMsPerSecond="
+                + averageBackPressuredTimeMsPerSecond
+                + ", pendingRecords="
+                + pendingRecords
+                + '}';
+    }
+}
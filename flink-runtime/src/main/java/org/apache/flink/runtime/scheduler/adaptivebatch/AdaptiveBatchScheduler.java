@@ -0,0 +1,325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptivebatch;
+
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.JobException;
+import org.apache.flink.runtime.checkpoint.CheckpointRecoveryFactory;
+import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutor;
+import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
+import org.apache.flink.runtime.executiongraph.ExecutionVertex;
+import org.apache.flink.runtime.executiongraph.IOMetrics;
+import org.apache.flink.runtime.executiongraph.IntermediateResult;
+import org.apache.flink.runtime.executiongraph.IntermediateResultPartition;
+import org.apache.flink.runtime.executiongraph.JobStatusListener;
+import org.apache.flink.runtime.executiongraph.TaskExecutionStateTransition;
+import org.apache.flink.runtime.executiongraph.failover.flip1.FailoverStrategy;
+import org.apache.flink.runtime.executiongraph.failover.flip1.RestartBackoffTimeStrategy;
+import org.apache.flink.runtime.jobgraph.DistributionPattern;
+import org.apache.flink.runtime.jobgraph.JobEdge;
+import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.runtime.metrics.groups.JobManagerJobMetricGroup;
+import org.apache.flink.runtime.operators.coordination.OperatorCoordinatorHolder;
+import org.apache.flink.runtime.scheduler.DefaultScheduler;
+import org.apache.flink.runtime.scheduler.ExecutionGraphFactory;
+import org.apache.flink.runtime.scheduler.ExecutionSlotAllocatorFactory;
+import org.apache.flink.runtime.scheduler.ExecutionVertexOperations;
+import org.apache.flink.runtime.scheduler.ExecutionVertexVersioner;
+import org.apache.flink.runtime.scheduler.VertexParallelismStore;
+import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
+import org.apache.flink.runtime.scheduler.strategy.SchedulingStrategyFactory;
+import org.apache.flink.runtime.shuffle.ShuffleMaster;
+import org.apache.flink.util.concurrent.ScheduledExecutor;
+
+import org.slf4j.Logger;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A scheduler for batch jobs which decides the parallelism of a job vertex once all its producers
+ * are finished, from the amount of data they produced. The job vertices are only initialized, i.e.
+ * their execution vertices created, once their parallelism is decided.
+ *
+ * <p>All the data exchanges of the job have to be blocking, so that each job vertex forms its own
+ * pipelined region and the amount of data is known before a consumer is scheduled.
+ *
+ * <p>If enabled, the scheduler also starts speculative executions of slow tasks. As the results of
+ * a task are only consumed once it is finished, the first execution of a task to finish can be
+ * used and the other executions can be cancelled without affecting any consumer.
+ */
+public class AdaptiveBatchScheduler extends DefaultScheduler {
+
+    private final Logger log;
+
+    private final VertexParallelismDecider vertexParallelismDecider;
+
+    @Nullable private final ExecutionTimeBasedSlowTaskDetector slowTaskDetector;
+
+    private final long slowTaskCheckIntervalMillis;
+
+    AdaptiveBatchScheduler(
+            final Logger log,
+            final JobGraph jobGraph,
+            final Executor ioExecutor,
+            final Configuration jobMasterConfiguration,
+            final Consumer<ComponentMainThreadExecutor> startUpAction,
+            final ScheduledExecutor delayExecutor,
+            final ClassLoader userCodeLoader,
+            final CheckpointRecoveryFactory checkpointRecoveryFactory,
+            final JobManagerJobMetricGroup jobManagerJobMetricGroup,
+            final SchedulingStrategyFactory schedulingStrategyFactory,
+            final FailoverStrategy.Factory failoverStrategyFactory,
+            final RestartBackoffTimeStrategy restartBackoffTimeStrategy,
+            final ExecutionVertexOperations executionVertexOperations,
+            final ExecutionVertexVersioner executionVertexVersioner,
+            final ExecutionSlotAllocatorFactory executionSlotAllocatorFactory,
+            long initializationTimestamp,
+            final ComponentMainThreadExecutor mainThreadExecutor,
+            final JobStatusListener jobStatusListener,
+            final ExecutionGraphFactory executionGraphFactory,
+            final ShuffleMaster<?> shuffleMaster,
+            final Time rpcTimeout,
+            final VertexParallelismStore vertexParallelismStore,
+            final VertexParallelismDecider vertexParallelismDecider,
+            @Nullable final ExecutionTimeBasedSlowTaskDetector slowTaskDetector,
+            final long slowTaskCheckIntervalMillis)
+            throws Exception {
+
+        super(
+                log,
+                jobGraph,
+                ioExecutor,
+                jobMasterConfiguration,
+                startUpAction,
+                delayExecutor,
+                userCodeLoader,
+                checkpointRecoveryFactory,
+                jobManagerJobMetricGroup,
+                schedulingStrategyFactory,
+                failoverStrategyFactory,
+                restartBackoffTimeStrategy,
+                executionVertexOperations,
+                executionVertexVersioner,
+                executionSlotAllocatorFactory,
+                initializationTimestamp,
+                mainThreadExecutor,
+                jobStatusListener,
+                executionGraphFactory,
+                shuffleMaster,
+                rpcTimeout,
+                vertexParallelismStore);
+
+        this.log = log;
+        this.vertexParallelismDecider = checkNotNull(vertexParallelismDecider);
+        this.slowTaskDetector = slowTaskDetector;
+        this.slowTaskCheckIntervalMillis = slowTaskCheckIntervalMillis;
+    }
+
+    @Override
+    protected void startSchedulingInternal() {
+        super.startSchedulingInternal();
+
+        if (slowTaskDetector != null) {
+            scheduleSlowTaskCheck();
+        }
+    }
+
+    @Override
+    protected void updateTaskExecutionStateInternal(
+            final ExecutionVertexID executionVertexId,
+            final TaskExecutionStateTransition taskExecutionState) {
+
+        if (taskExecutionState.getExecutionState() == ExecutionState.FINISHED) {
+            try {
+                initializeVerticesIfPossible();
+            } catch (JobException e) {
+                log.error(
+                        "Failed to initialize the job vertices of job {}.",
+                        getJobGraph().getJobID(),
+                        e);
+                failJob(e, System.currentTimeMillis());
+                return;
+            }
+        }
+
+        super.updateTaskExecutionStateInternal(executionVertexId, taskExecutionState);
+    }
+
+    private void scheduleSlowTaskCheck() {
+        getMainThreadExecutor()
+                .schedule(
+                        this::checkSlowTasks, slowTaskCheckIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void checkSlowTasks() {
+        if (getExecutionGraph().getState().isTerminalState()) {
+            return;
+        }
+
+        for (ExecutionVertex slowTask :
+                slowTaskDetector.findSlowTasks(
+                        getExecutionGraph().getVerticesTopologically(),
+                        System.currentTimeMillis())) {
+            if (canBeSpeculativelyExecuted(slowTask)) {
+                startSpeculativeExecution(slowTask.getID());
+            }
+        }
+
+        scheduleSlowTaskCheck();
+    }
+
+    /**
+     * Checks whether a speculative execution of the given execution vertex may be started. At most
+     * one speculative execution is started per execution of a vertex. The input splits of sources
+     * and the events of operator coordinators are bound to a single execution, and the output of
+     * sinks leaves the job, so such vertices are not speculatively executed.
+     */
+    private static boolean canBeSpeculativelyExecuted(ExecutionVertex executionVertex) {
+        final ExecutionJobVertex jobVertex = executionVertex.getJobVertex();
+        return executionVertex.getSpeculativeExecutions().isEmpty()
+                && jobVertex.getSplitAssigner() == null
+                && jobVertex.getOperatorCoordinators().isEmpty()
+                && !jobVertex.getJobVertex().getProducedDataSets().isEmpty();
+    }
+
+    private void initializeVerticesIfPossible() throws JobException {
+        final List<ExecutionJobVertex> newlyInitializedJobVertices = new ArrayList<>();
+        final long createTimestamp = System.currentTimeMillis();
+
+        // the vertices are visited in topological order, so that a vertex whose parallelism is
+        // decided up front is initialized together with its newly initialized producers
+        for (ExecutionJobVertex jobVertex : getExecutionGraph().getVerticesTopologically()) {
+            if (jobVertex.isInitialized() || !areProducersInitialized(jobVertex)) {
+                continue;
+            }
+
+            if (jobVertex.getParallelism() <= 0) {
+                if (!areProducersFinished(jobVertex)) {
+                    continue;
+                }
+                final int parallelism = decideParallelism(jobVertex);
+                log.info(
+                        "Decided the parallelism of job vertex {} ({}) to be {}.",
+                        jobVertex.getName(),
+                        jobVertex.getJobVertexId(),
+                        parallelism);
+                jobVertex.setParallelism(parallelism);
+            }
+
+            getExecutionGraph().initializeJobVertex(jobVertex, createTimestamp);
+            newlyInitializedJobVertices.add(jobVertex);
+        }
+
+        if (!newlyInitializedJobVertices.isEmpty()) {
+            getExecutionGraph().notifyNewlyInitializedJobVertices(newlyInitializedJobVertices);
+
+            final List<OperatorCoordinatorHolder> newCoordinators = new ArrayList<>();
+            for (ExecutionJobVertex jobVertex : newlyInitializedJobVertices) {
+                newCoordinators.addAll(jobVertex.getOperatorCoordinators());
+            }
+            registerAndStartNewCoordinators(newCoordinators);
+        }
+    }
+
+    /**
+     * Decides the parallelism of a job vertex whose producers are all finished.
+     *
+     * <p>Forward and rescale exchanges do not redistribute the data of their producers, so if the
+     * job vertex has such pointwise inputs, it keeps the smallest parallelism of their producers.
+     * That way, every producer of a pointwise input is consumed by a single task. Otherwise, the
+     * parallelism is decided from the number of bytes of all inputs. Broadcast inputs are not
+     * counted, because every task reads all their data, no matter the parallelism.
+     */
+    private int decideParallelism(ExecutionJobVertex jobVertex) {
+        long consumedBytes = 0L;
+        int pointwiseProducerParallelism = Integer.MAX_VALUE;
+        for (JobEdge inputEdge : jobVertex.getJobVertex().getInputs()) {
+            if (inputEdge.getDistributionPattern() == DistributionPattern.POINTWISE) {
+                pointwiseProducerParallelism =
+                        Math.min(
+                                pointwiseProducerParallelism,
+                                getProducer(inputEdge).getParallelism());
+            } else if (!inputEdge.isBroadcast()) {
+                consumedBytes += getNumBytesProduced(inputEdge);
+            }
+        }
+
+        final int parallelism =
+                pointwiseProducerParallelism < Integer.MAX_VALUE
+                        ? pointwiseProducerParallelism
+                        : vertexParallelismDecider.decideParallelism(consumedBytes);
+        return Math.min(parallelism, jobVertex.getMaxParallelism());
+    }
+
+    private boolean areProducersInitialized(ExecutionJobVertex jobVertex) {
+        for (JobEdge inputEdge : jobVertex.getJobVertex().getInputs()) {
+            if (!getProducer(inputEdge).isInitialized()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean areProducersFinished(ExecutionJobVertex jobVertex) {
+        for (JobEdge inputEdge : jobVertex.getJobVertex().getInputs()) {
+            for (ExecutionVertex producerVertex : getProducer(inputEdge).getTaskVertices()) {
+                if (producerVertex.getExecutionState() != ExecutionState.FINISHED) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private ExecutionJobVertex getProducer(JobEdge inputEdge) {
+        return getExecutionJobVertex(inputEdge.getSource().getProducer().getID());
+    }
+
+    /**
+     * Returns the number of bytes that the producers of the given input wrote to the partitions of
+     * the consumed result. Other results of the same producers are not counted.
+     */
+    private long getNumBytesProduced(JobEdge inputEdge) {
+        final IntermediateResult consumedResult =
+                getExecutionGraph().getAllIntermediateResults().get(inputEdge.getSourceId());
+
+        long numBytesProduced = 0L;
+        for (IntermediateResultPartition partition : consumedResult.getPartitions()) {
+            final IOMetrics ioMetrics =
+                    partition.getProducer().getCurrentExecutionAttempt().getIOMetrics();
+            if (ioMetrics != null) {
+                numBytesProduced +=
+                        ioMetrics
+                                .getNumBytesProducedOfPartitions()
+                                .getOrDefault(partition.getPartitionId(), 0L);
+            }
+        }
+        return numBytesProduced;
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptivebatch;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.JobManagerOptions;
+import org.apache.flink.runtime.blob.BlobWriter;
+import org.apache.flink.runtime.checkpoint.CheckpointRecoveryFactory;
+import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutor;
+import org.apache.flink.runtime.executiongraph.JobStatusListener;
+import org.apache.flink.runtime.executiongraph.failover.flip1.FailoverStrategyFactoryLoader;
+import org.apache.flink.runtime.executiongraph.failover.flip1.RestartBackoffTimeStrategy;
+import org.apache.flink.runtime.executiongraph.failover.flip1.RestartBackoffTimeStrategyFactoryLoader;
+import org.apache.flink.runtime.io.network.partition.JobMasterPartitionTracker;
+import org.apache.flink.runtime.jobgraph.IntermediateDataSet;
+import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.runtime.jobgraph.JobType;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.jobmaster.ExecutionDeploymentTracker;
+import org.apache.flink.runtime.jobmaster.slotpool.SlotPool;
+import org.apache.flink.runtime.jobmaster.slotpool.SlotPoolService;
+import org.apache.flink.runtime.metrics.groups.JobManagerJobMetricGroup;
+import org.apache.flink.runtime.rpc.FatalErrorHandler;
+import org.apache.flink.runtime.scheduler.DefaultExecutionGraphFactory;
+import org.apache.flink.runtime.scheduler.DefaultExecutionVertexOperations;
+import org.apache.flink.runtime.scheduler.DefaultSchedulerComponents;
+import org.apache.flink.runtime.scheduler.DefaultVertexParallelismInfo;
+import org.apache.flink.runtime.scheduler.DefaultVertexParallelismStore;
+import org.apache.flink.runtime.scheduler.ExecutionGraphFactory;
+import org.apache.flink.runtime.scheduler.ExecutionVertexVersioner;
+import org.apache.flink.runtime.scheduler.SchedulerBase;
+import org.apache.flink.runtime.scheduler.SchedulerNG;
+import org.apache.flink.runtime.scheduler.SchedulerNGFactory;
+import org.apache.flink.runtime.scheduler.VertexParallelismStore;
+import org.apache.flink.runtime.shuffle.ShuffleMaster;
+import org.apache.flink.util.concurrent.ScheduledExecutorServiceAdapter;
+
+import org.slf4j.Logger;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+
+import static org.apache.flink.runtime.scheduler.DefaultSchedulerComponents.createSchedulerComponents;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/** Factory for {@link AdaptiveBatchScheduler}. */
+public class AdaptiveBatchSchedulerFactory implements SchedulerNGFactory {
+
+    @Override
+    public SchedulerNG createInstance(
+            final Logger log,
+            final JobGraph jobGraph,
+            final Executor ioExecutor,
+            final Configuration jobMasterConfiguration,
+            final SlotPoolService slotPoolService,
+            final ScheduledExecutorService futureExecutor,
+            final ClassLoader userCodeLoader,
+            final CheckpointRecoveryFactory checkpointRecoveryFactory,
+            final Time rpcTimeout,
+            final BlobWriter blobWriter,
+            final JobManagerJobMetricGroup jobManagerJobMetricGroup,
+            final Time slotRequestTimeout,
+            final ShuffleMaster<?> shuffleMaster,
+            final JobMasterPartitionTracker partitionTracker,
+            final ExecutionDeploymentTracker executionDeploymentTracker,
+            long initializationTimestamp,
+            final ComponentMainThreadExecutor mainThreadExecutor,
+            final FatalErrorHandler fatalErrorHandler,
+            final JobStatusListener jobStatusListener)
+            throws Exception {
+
+        checkState(
+                jobGraph.getJobType() == JobType.BATCH,
+                "The adaptive batch scheduler only supports batch jobs.");
+        checkAllExchangesBlocking(jobGraph);
+
+        final SlotPool slotPool =
+                slotPoolService
+                        .castInto(SlotPool.class)
+                        .orElseThrow(
+                                () ->
+                                        new IllegalStateException(
+                                                "The AdaptiveBatchScheduler requires a SlotPool."));
+
+        final DefaultSchedulerComponents schedulerComponents =
+                createSchedulerComponents(
+                        jobGraph.getJobType(),
+                        jobGraph.isApproximateLocalRecoveryEnabled(),
+                        jobMasterConfiguration,
+                        slotPool,
+                        slotRequestTimeout);
+        final RestartBackoffTimeStrategy restartBackoffTimeStrategy =
+                RestartBackoffTimeStrategyFactoryLoader.createRestartBackoffTimeStrategyFactory(
+                                jobGraph.getSerializedExecutionConfig()
+                                        .deserializeValue(userCodeLoader)
+                                        .getRestartStrategy(),
+                                jobMasterConfiguration,
+                                jobGraph.isCheckpointingEnabled())
+                        .create();
+        log.info(
+                "Using restart back off time strategy {} for {} ({}).",
+                restartBackoffTimeStrategy,
+                jobGraph.getName(),
+                jobGraph.getJobID());
+
+        final ExecutionGraphFactory executionGraphFactory =
+                new DefaultExecutionGraphFactory(
+                        jobMasterConfiguration,
+                        userCodeLoader,
+                        executionDeploymentTracker,
+                        futureExecutor,
+                        ioExecutor,
+                        rpcTimeout,
+                        jobManagerJobMetricGroup,
+                        blobWriter,
+                        shuffleMaster,
+                        partitionTracker);
+
+        final VertexParallelismDecider vertexParallelismDecider =
+                VertexParallelismDecider.from(jobMasterConfiguration);
+
+        final ExecutionTimeBasedSlowTaskDetector slowTaskDetector =
+                jobMasterConfiguration.get(
+                                JobManagerOptions.ADAPTIVE_BATCH_SCHEDULER_SPECULATIVE_ENABLED)
+                        ? ExecutionTimeBasedSlowTaskDetector.from(jobMasterConfiguration)
+                        : null;
+
+        return new AdaptiveBatchScheduler(
+                log,
+                jobGraph,
+                ioExecutor,
+                jobMasterConfiguration,
+                schedulerComponents.getStartUpAction(),
+                new ScheduledExecutorServiceAdapter(futureExecutor),
+                userCodeLoader,
+                checkpointRecoveryFactory,
+                jobManagerJobMetricGroup,
+                schedulerComponents.getSchedulingStrategyFactory(),
+                FailoverStrategyFactoryLoader.loadFailoverStrategyFactory(jobMasterConfiguration),
+                restartBackoffTimeStrategy,
+                new DefaultExecutionVertexOperations(),
+                new ExecutionVertexVersioner(),
+                schedulerComponents.getAllocatorFactory(),
+                initializationTimestamp,
+                mainThreadExecutor,
+                jobStatusListener,
+                executionGraphFactory,
+                shuffleMaster,
+                rpcTimeout,
+                computeVertexParallelismStoreForDynamicGraph(
+                        jobGraph.getVertices(), vertexParallelismDecider),
+                vertexParallelismDecider,
+                slowTaskDetector,
+                jobMasterConfiguration
+                        .get(JobManagerOptions.ADAPTIVE_BATCH_SCHEDULER_SPECULATIVE_CHECK_INTERVAL)
+                        .toMillis());
+    }
+
+    /**
+     * Computes the {@link VertexParallelismStore} of a graph whose parallelism is decided at
+     * runtime. The sources without a configured parallelism get the default source parallelism,
+     * the parallelism of the other vertices without a configured parallelism is left undecided.
+     * The max parallelism of such vertices defaults to the max parallelism the scheduler may
+     * decide, it is the number of subpartitions their producers write.
+     */
+    static VertexParallelismStore computeVertexParallelismStoreForDynamicGraph(
+            Iterable<JobVertex> vertices, VertexParallelismDecider vertexParallelismDecider) {
+        final DefaultVertexParallelismStore store = new DefaultVertexParallelismStore();
+
+        for (JobVertex vertex : vertices) {
+            int parallelism = vertex.getParallelism();
+            if (parallelism == ExecutionConfig.PARALLELISM_DEFAULT && vertex.isInputVertex()) {
+                parallelism = vertexParallelismDecider.getDefaultSourceParallelism();
+            }
+
+            int maxParallelism = vertex.getMaxParallelism();
+            final boolean autoConfigured = maxParallelism == JobVertex.MAX_PARALLELISM_DEFAULT;
+            if (autoConfigured) {
+                maxParallelism =
+                        parallelism == ExecutionConfig.PARALLELISM_DEFAULT
+                                ? vertexParallelismDecider.getMaxParallelism()
+                                : SchedulerBase.getDefaultMaxParallelism(vertex);
+            }
+
+            final Function<Integer, Optional<String>> rescaleMaxValidator =
+                    newMax ->
+                            autoConfigured
+                                    ? Optional.empty()
+                                    : Optional.of("Cannot override a configured max parallelism.");
+            store.setParallelismInfo(
+                    vertex.getID(),
+                    new DefaultVertexParallelismInfo(
+                            parallelism, maxParallelism, rescaleMaxValidator));
+        }
+
+        return store;
+    }
+
+    private static void checkAllExchangesBlocking(JobGraph jobGraph) {
+        for (JobVertex jobVertex : jobGraph.getVertices()) {
+            for (IntermediateDataSet dataSet : jobVertex.getProducedDataSets()) {
+                checkState(
+                        dataSet.getResultType().isBlocking(),
+                        "The adaptive batch scheduler only supports jobs whose data exchanges are all blocking, "
+                                + "the data exchange %s is %s.",
+                        dataSet.getId(),
+                        dataSet.getResultType());
+            }
+        }
+    }
+
+    @Override
+    public JobManagerOptions.SchedulerType getSchedulerType() {
+        return JobManagerOptions.SchedulerType.AdaptiveBatch;
+    }
+}
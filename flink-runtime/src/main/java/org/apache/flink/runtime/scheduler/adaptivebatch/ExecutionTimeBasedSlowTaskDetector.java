@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptivebatch;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.JobManagerOptions;
+import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.Execution;
+import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
+import org.apache.flink.runtime.executiongraph.ExecutionVertex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Detects slow tasks by their execution time. Once the configured ratio of the tasks of a job
+ * vertex is finished, the median execution time of the finished tasks multiplied by the configured
+ * multiplier, but at least the configured lower bound, is the baseline of the job vertex. The
+ * tasks of the job vertex which run longer than the baseline are slow.
+ *
+ * <p>The tasks do not report their progress, the execution time is used to approximate it: the
+ * tasks of a job vertex process about the same amount of data, so a task which runs much longer
+ * than its finished siblings is likely to be on a degraded host.
+ */
+class ExecutionTimeBasedSlowTaskDetector {
+
+    private final double baselineRatio;
+
+    private final double baselineMultiplier;
+
+    private final long baselineLowerBoundMillis;
+
+    ExecutionTimeBasedSlowTaskDetector(
+            double baselineRatio, double baselineMultiplier, long baselineLowerBoundMillis) {
+
+        checkArgument(
+                baselineRatio > 0 && baselineRatio <= 1,
+                "The baseline ratio must be within (0, 1].");
+        checkArgument(baselineMultiplier >= 1, "The baseline multiplier must be at least 1.");
+        checkArgument(
+                baselineLowerBoundMillis >= 0, "The baseline lower bound must not be negative.");
+
+        this.baselineRatio = baselineRatio;
+        this.baselineMultiplier = baselineMultiplier;
+        this.baselineLowerBoundMillis = baselineLowerBoundMillis;
+    }
+
+    static ExecutionTimeBasedSlowTaskDetector from(Configuration configuration) {
+        return new ExecutionTimeBasedSlowTaskDetector(
+                configuration.get(
+                        JobManagerOptions.ADAPTIVE_BATCH_SCHEDULER_SPECULATIVE_BASELINE_RATIO),
+                configuration.get(
+                        JobManagerOptions.ADAPTIVE_BATCH_SCHEDULER_SPECULATIVE_BASELINE_MULTIPLIER),
+                configuration
+                        .get(
+                                JobManagerOptions
+                                        .ADAPTIVE_BATCH_SCHEDULER_SPECULATIVE_BASELINE_LOWER_BOUND)
+                        .toMillis());
+    }
+
+    /**
+     * Finds the slow tasks of the given job vertices.
+     *
+     * @param jobVertices the job vertices to check
+     * @param currentTimestamp the current time, in milliseconds
+     * @return the execution vertices whose current execution is slow
+     */
+    List<ExecutionVertex> findSlowTasks(
+            Iterable<ExecutionJobVertex> jobVertices, long currentTimestamp) {
+        final List<ExecutionVertex> slowTasks = new ArrayList<>();
+
+        for (ExecutionJobVertex jobVertex : jobVertices) {
+            if (!jobVertex.isInitialized()) {
+                continue;
+            }
+
+            final List<Long> finishedExecutionTimes = new ArrayList<>();
+            for (ExecutionVertex executionVertex : jobVertex.getTaskVertices()) {
+                if (executionVertex.getExecutionState() == ExecutionState.FINISHED) {
+                    finishedExecutionTimes.add(
+                            getExecutionTime(
+                                    executionVertex.getCurrentExecutionAttempt(),
+                                    currentTimestamp));
+                }
+            }
+
+            final OptionalLong baseline =
+                    getBaseline(finishedExecutionTimes, jobVertex.getParallelism());
+            if (!baseline.isPresent()) {
+                continue;
+            }
+
+            for (ExecutionVertex executionVertex : jobVertex.getTaskVertices()) {
+                if (isRunning(executionVertex.getExecutionState())
+                        && getExecutionTime(
+                                        executionVertex.getCurrentExecutionAttempt(),
+                                        currentTimestamp)
+                                > baseline.getAsLong()) {
+                    slowTasks.add(executionVertex);
+                }
+            }
+        }
+
+        return slowTasks;
+    }
+
+    /**
+     * Returns the execution time above which a task of a job vertex is slow, or nothing if not
+     * enough or all of the tasks of the job vertex are finished.
+     *
+     * @param finishedExecutionTimes the execution times of the finished tasks of the job vertex
+     * @param parallelism the parallelism of the job vertex
+     */
+    @VisibleForTesting
+    OptionalLong getBaseline(List<Long> finishedExecutionTimes, int parallelism) {
+        final int numFinished = finishedExecutionTimes.size();
+        if (numFinished == 0
+                || numFinished >= parallelism
+                || numFinished < baselineRatio * parallelism) {
+            return OptionalLong.empty();
+        }
+
+        final List<Long> sortedExecutionTimes = new ArrayList<>(finishedExecutionTimes);
+        Collections.sort(sortedExecutionTimes);
+        final long median =
+                numFinished % 2 == 1
+                        ? sortedExecutionTimes.get(numFinished / 2)
+                        : (sortedExecutionTimes.get(numFinished / 2 - 1)
+                                        + sortedExecutionTimes.get(numFinished / 2))
+                                / 2;
+
+        return OptionalLong.of(
+                Math.max(baselineLowerBoundMillis, (long) (median * baselineMultiplier)));
+    }
+
+    private static boolean isRunning(ExecutionState state) {
+        return state == ExecutionState.DEPLOYING
+                || state == ExecutionState.INITIALIZING
+                || state == ExecutionState.RUNNING;
+    }
+
+    private static long getExecutionTime(Execution execution, long currentTimestamp) {
+        final long deployingTimestamp = execution.getStateTimestamp(ExecutionState.DEPLOYING);
+        if (deployingTimestamp == 0) {
+            return 0;
+        }
+
+        final long finishedTimestamp = execution.getStateTimestamp(ExecutionState.FINISHED);
+        return (finishedTimestamp > 0 ? finishedTimestamp : currentTimestamp) - deployingTimestamp;
+    }
+}
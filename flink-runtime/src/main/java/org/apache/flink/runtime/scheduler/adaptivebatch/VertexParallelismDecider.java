@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptivebatch;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.JobManagerOptions;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Decides the parallelism of a job vertex from the amount of data it consumes, so that each of its
+ * tasks processes about the configured data volume.
+ */
+class VertexParallelismDecider {
+
+    private final int minParallelism;
+
+    private final int maxParallelism;
+
+    private final long dataVolumePerTask;
+
+    private final int defaultSourceParallelism;
+
+    VertexParallelismDecider(
+            int minParallelism,
+            int maxParallelism,
+            long dataVolumePerTask,
+            int defaultSourceParallelism) {
+
+        checkArgument(minParallelism > 0, "The min parallelism must be positive.");
+        checkArgument(
+                maxParallelism >= minParallelism,
+                "The max parallelism must not be smaller than the min parallelism.");
+        checkArgument(dataVolumePerTask > 0, "The data volume per task must be positive.");
+        checkArgument(
+                defaultSourceParallelism > 0, "The default source parallelism must be positive.");
+
+        this.minParallelism = minParallelism;
+        this.maxParallelism = maxParallelism;
+        this.dataVolumePerTask = dataVolumePerTask;
+        this.defaultSourceParallelism = defaultSourceParallelism;
+    }
+
+    static VertexParallelismDecider from(Configuration configuration) {
+        return new VertexParallelismDecider(
+                configuration.get(JobManagerOptions.ADAPTIVE_BATCH_SCHEDULER_MIN_PARALLELISM),
+                configuration.get(JobManagerOptions.ADAPTIVE_BATCH_SCHEDULER_MAX_PARALLELISM),
+                configuration
+                        .get(JobManagerOptions.ADAPTIVE_BATCH_SCHEDULER_DATA_VOLUME_PER_TASK)
+                        .getBytes(),
+                configuration.get(
+                        JobManagerOptions.ADAPTIVE_BATCH_SCHEDULER_DEFAULT_SOURCE_PARALLELISM));
+    }
+
+    /**
+     * Decides the parallelism of a job vertex which consumes the given amount of data.
+     *
+     * @param consumedBytes the number of bytes the job vertex consumes
+     * @return the parallelism, within the configured min and max parallelism
+     */
+    int decideParallelism(long consumedBytes) {
+        long parallelism = consumedBytes / dataVolumePerTask;
+        if (consumedBytes % dataVolumePerTask != 0) {
+            parallelism++;
+        }
+        return (int) Math.max(minParallelism, Math.min(maxParallelism, parallelism));
+    }
+
+    int getMaxParallelism() {
+        return maxParallelism;
+    }
+
+    int getDefaultSourceParallelism() {
+        return defaultSourceParallelism;
+    }
+}
@@ -42,7 +42,8 @@ import static org.apache.flink.util.Preconditions.checkState;
 /**
  * {@link SchedulingStrategy} instance which schedules tasks in granularity of pipelined regions.
  */
-public class PipelinedRegionSchedulingStrategy implements SchedulingStrategy {
+public class PipelinedRegionSchedulingStrategy
+        implements SchedulingStrategy, SchedulingTopologyListener {
 
     private final SchedulerOperations schedulerOperations;
 
@@ -69,6 +70,8 @@ public class PipelinedRegionSchedulingStrategy implements SchedulingStrategy {
         this.schedulingTopology = checkNotNull(schedulingTopology);
 
         init();
+
+        schedulingTopology.registerSchedulingTopologyListener(this);
     }
 
     private void init() {
@@ -141,6 +144,20 @@ public class PipelinedRegionSchedulingStrategy implements SchedulingStrategy {
         }
     }
 
+    @Override
+    public void notifySchedulingTopologyUpdated(
+            SchedulingTopology schedulingTopology, List<ExecutionVertexID> newExecutionVertices) {
+        checkState(schedulingTopology == this.schedulingTopology);
+
+        // the regions of the new vertices may consume the partitions of existing regions, so the
+        // consumer regions of all partition groups are computed again
+        partitionGroupConsumerRegions.clear();
+        regionVerticesSorted.clear();
+        crossRegionConsumedPartitionGroups.clear();
+
+        init();
+    }
+
     @Override
     public void startScheduling() {
         final Set<SchedulingPipelinedRegion> sourceRegions =
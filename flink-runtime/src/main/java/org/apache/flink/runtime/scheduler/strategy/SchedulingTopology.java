@@ -49,4 +49,12 @@ public interface SchedulingTopology
      */
     SchedulingResultPartition getResultPartition(
             IntermediateResultPartitionID intermediateResultPartitionId);
+
+    /**
+     * Registers a listener which is notified when execution vertices are added to the topology,
+     * after the parallelism of a job vertex was decided.
+     *
+     * @param listener the listener to register
+     */
+    void registerSchedulingTopologyListener(SchedulingTopologyListener listener);
 }
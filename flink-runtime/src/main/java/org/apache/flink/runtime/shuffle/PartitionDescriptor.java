@@ -24,10 +24,8 @@ import org.apache.flink.runtime.executiongraph.IntermediateResultPartition;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
-import org.apache.flink.runtime.scheduler.strategy.ConsumerVertexGroup;
 
 import java.io.Serializable;
-import java.util.List;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
@@ -108,26 +106,13 @@ public class PartitionDescriptor implements Serializable {
     public static PartitionDescriptor from(IntermediateResultPartition partition) {
         checkNotNull(partition);
 
-        // The produced data is partitioned among a number of subpartitions.
-        //
-        // If no consumers are known at this point, we use a single subpartition, otherwise we have
-        // one for each consuming sub task.
-        int numberOfSubpartitions = 1;
-        List<ConsumerVertexGroup> consumerVertexGroups = partition.getConsumerVertexGroups();
-        if (!consumerVertexGroups.isEmpty() && !consumerVertexGroups.get(0).isEmpty()) {
-            if (consumerVertexGroups.size() > 1) {
-                throw new IllegalStateException(
-                        "Currently, only a single consumer group per partition is supported.");
-            }
-            numberOfSubpartitions = consumerVertexGroups.get(0).size();
-        }
         IntermediateResult result = partition.getIntermediateResult();
         return new PartitionDescriptor(
                 result.getId(),
                 partition.getIntermediateResult().getNumberOfAssignedPartitions(),
                 partition.getPartitionId(),
                 result.getResultType(),
-                numberOfSubpartitions,
+                partition.getNumberOfSubpartitions(),
                 result.getConnectionIndex());
     }
 }
@@ -18,15 +18,24 @@
 
 package org.apache.flink.runtime.state;
 
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.state.filesystem.FileStateHandle;
+import org.apache.flink.runtime.state.filesystem.SegmentFileStateHandle;
 import org.apache.flink.util.Preconditions;
 import org.apache.flink.util.concurrent.Executors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
 
@@ -37,6 +46,10 @@ import java.util.concurrent.RejectedExecutionException;
  * <p>A {@code SharedStateRegistry} will be deployed in the {@link
  * org.apache.flink.runtime.checkpoint.CheckpointCoordinator} to maintain the reference count of
  * {@link StreamStateHandle}s by a key that (logically) identifies them.
+ *
+ * <p>A {@link SegmentFileStateHandle} shares its physical file with other segments. Such handles
+ * are never discarded individually, instead the registry counts the registered segments per
+ * physical file and deletes the file once none of its segments is referenced any more.
  */
 public class SharedStateRegistry implements AutoCloseable {
 
@@ -49,6 +62,19 @@ public class SharedStateRegistry implements AutoCloseable {
     private final Map<SharedStateRegistryKey, SharedStateRegistry.SharedStateEntry>
             registeredStates;
 
+    /** The number of registered segments per physical file, guarded by registeredStates */
+    private final Map<Path, Integer> registeredSegmentsPerFile;
+
+    /**
+     * The physical files of segments that were dropped as duplicates. They are deleted after the
+     * current registration, unless another segment in them got registered. Guarded by
+     * registeredStates.
+     */
+    private final Set<Path> filesOfDroppedSegments;
+
+    /** The nesting depth of {@link #registerAll(Iterable)}, guarded by registeredStates */
+    private int registrationDepth;
+
     /** This flag indicates whether or not the registry is open or if close() was called */
     private boolean open;
 
@@ -62,6 +88,8 @@ public class SharedStateRegistry implements AutoCloseable {
 
     public SharedStateRegistry(Executor asyncDisposalExecutor) {
         this.registeredStates = new HashMap<>();
+        this.registeredSegmentsPerFile = new HashMap<>();
+        this.filesOfDroppedSegments = new HashSet<>();
         this.asyncDisposalExecutor = Preconditions.checkNotNull(asyncDisposalExecutor);
         this.open = true;
     }
@@ -106,10 +134,21 @@ public class SharedStateRegistry implements AutoCloseable {
 
                 entry = new SharedStateRegistry.SharedStateEntry(state);
                 registeredStates.put(registrationKey, entry);
+
+                if (state instanceof SegmentFileStateHandle) {
+                    registeredSegmentsPerFile.merge(
+                            ((SegmentFileStateHandle) state).getFilePath(), 1, Integer::sum);
+                }
             } else {
                 // delete if this is a real duplicate
                 if (!Objects.equals(state, entry.stateHandle)) {
-                    scheduledStateDeletion = state;
+                    if (state instanceof SegmentFileStateHandle) {
+                        // other segments of the same file may still be registered by the
+                        // current registration, so the file can only be checked afterwards
+                        filesOfDroppedSegments.add(((SegmentFileStateHandle) state).getFilePath());
+                    } else {
+                        scheduledStateDeletion = state;
+                    }
                     LOG.trace(
                             "Identified duplicate state registration under key {}. New state {} was determined to "
                                     + "be an unnecessary copy of existing state {} and will be dropped.",
@@ -156,7 +195,7 @@ public class SharedStateRegistry implements AutoCloseable {
             // Remove the state from the registry when it's not referenced any more.
             if (entry.getReferenceCount() <= 0) {
                 registeredStates.remove(registrationKey);
-                scheduledStateDeletion = entry.getStateHandle();
+                scheduledStateDeletion = releaseStateHandle(entry.getStateHandle());
                 result = new Result(null, 0);
             } else {
                 scheduledStateDeletion = null;
@@ -180,11 +219,29 @@ public class SharedStateRegistry implements AutoCloseable {
             return;
         }
 
+        final List<StreamStateHandle> scheduledStateDeletions = new ArrayList<>();
+
         synchronized (registeredStates) {
-            for (CompositeStateHandle stateHandle : stateHandles) {
-                stateHandle.registerSharedStates(this);
+            registrationDepth++;
+            try {
+                for (CompositeStateHandle stateHandle : stateHandles) {
+                    stateHandle.registerSharedStates(this);
+                }
+            } finally {
+                registrationDepth--;
+            }
+
+            if (registrationDepth == 0) {
+                for (Path filePath : filesOfDroppedSegments) {
+                    if (!registeredSegmentsPerFile.containsKey(filePath)) {
+                        scheduledStateDeletions.add(new FileStateHandle(filePath, -1L));
+                    }
+                }
+                filesOfDroppedSegments.clear();
             }
         }
+
+        scheduledStateDeletions.forEach(this::scheduleAsyncDelete);
     }
 
     @Override
@@ -217,6 +274,23 @@ public class SharedStateRegistry implements AutoCloseable {
         }
     }
 
+    /**
+     * Returns the state to delete once the given handle is not referenced any more. For a segment,
+     * this is its physical file if no other segment in the file is registered.
+     */
+    @Nullable
+    private StreamStateHandle releaseStateHandle(StreamStateHandle stateHandle) {
+        if (!(stateHandle instanceof SegmentFileStateHandle)) {
+            return stateHandle;
+        }
+
+        final SegmentFileStateHandle segment = (SegmentFileStateHandle) stateHandle;
+        final Integer remainingSegments =
+                registeredSegmentsPerFile.computeIfPresent(
+                        segment.getFilePath(), (path, count) -> count > 1 ? count - 1 : null);
+        return remainingSegments == null ? segment.getPhysicalFileHandle() : null;
+    }
+
     private boolean isPlaceholder(StreamStateHandle stateHandle) {
         return stateHandle instanceof PlaceholderStreamStateHandle;
     }
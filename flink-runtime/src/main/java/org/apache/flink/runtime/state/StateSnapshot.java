@@ -24,6 +24,7 @@ import org.apache.flink.runtime.state.metainfo.StateMetaInfoSnapshot;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.io.IOException;
 
@@ -48,6 +49,20 @@ public interface StateSnapshot {
     @Nonnull
     StateKeyGroupWriter getKeyGroupWriter();
 
+    /**
+     * Creates an additional {@link StateKeyGroupWriter} that can be used from another thread,
+     * concurrently to the writer returned by {@link #getKeyGroupWriter()}, as long as all writers
+     * write different key-groups. This method should be called in the asynchronous part of the
+     * snapshot, after {@link #getKeyGroupWriter()} and before any writer is used.
+     *
+     * @return the additional writer, or {@code null} if the snapshot does not support to be
+     *     written concurrently.
+     */
+    @Nullable
+    default StateKeyGroupWriter createConcurrentKeyGroupWriter() {
+        return null;
+    }
+
     /** Returns a snapshot of the state's meta data. */
     @Nonnull
     StateMetaInfoSnapshot getMetaInfoSnapshot();
@@ -20,6 +20,7 @@ package org.apache.flink.runtime.state;
 
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.JobID;
+import org.apache.flink.runtime.checkpoint.TaskStateSnapshot;
 import org.apache.flink.runtime.clusterframework.types.AllocationID;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.util.FileUtils;
@@ -34,7 +35,10 @@ import javax.annotation.concurrent.GuardedBy;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executor;
 
@@ -132,7 +136,8 @@ public class TaskExecutorLocalStateStoresManager {
                 }
             }
 
-            final JobVertexSubtaskKey taskKey = new JobVertexSubtaskKey(jobVertexID, subtaskIndex);
+            final JobVertexSubtaskKey taskKey =
+                    new JobVertexSubtaskKey(jobId, jobVertexID, subtaskIndex);
 
             OwnedTaskLocalStateStore taskLocalStateStore = taskStateManagers.get(taskKey);
 
@@ -190,6 +195,46 @@ public class TaskExecutorLocalStateStoresManager {
         }
     }
 
+    /**
+     * Returns the local state of all subtasks of the given job vertex which is stored on this task
+     * executor for the given checkpoint, regardless of the allocation the subtasks ran in. When a
+     * job is rescaled, a subtask may restore the key-groups another subtask held before from this
+     * local state instead of the remote state.
+     *
+     * @param jobId the job of the job vertex.
+     * @param jobVertexID the job vertex whose local state is retrieved.
+     * @param checkpointId the checkpoint whose local state is retrieved.
+     * @return the local state of the subtasks which have local state for the checkpoint.
+     */
+    @Nonnull
+    public Collection<TaskStateSnapshot> retrieveLocalStatesOfJobVertex(
+            @Nonnull JobID jobId, @Nonnull JobVertexID jobVertexID, long checkpointId) {
+
+        final List<TaskLocalStateStore> jobVertexStores = new ArrayList<>();
+        synchronized (lock) {
+            for (Map<JobVertexSubtaskKey, OwnedTaskLocalStateStore> stores :
+                    taskStateStoresByAllocationID.values()) {
+                for (Map.Entry<JobVertexSubtaskKey, OwnedTaskLocalStateStore> entry :
+                        stores.entrySet()) {
+                    if (entry.getKey().jobId.equals(jobId)
+                            && entry.getKey().jobVertexID.equals(jobVertexID)) {
+                        jobVertexStores.add(entry.getValue());
+                    }
+                }
+            }
+        }
+
+        // the stores guard their state on their own, they are not accessed under the lock
+        final List<TaskStateSnapshot> localStates = new ArrayList<>(jobVertexStores.size());
+        for (TaskLocalStateStore store : jobVertexStores) {
+            final TaskStateSnapshot localState = store.retrieveLocalState(checkpointId);
+            if (localState != null) {
+                localStates.add(localState);
+            }
+        }
+        return localStates;
+    }
+
     public void releaseLocalStateForAllocationId(@Nonnull AllocationID allocationID) {
 
         if (LOG.isDebugEnabled()) {
@@ -297,18 +342,25 @@ public class TaskExecutorLocalStateStoresManager {
     }
 
     /**
-     * Composite key of {@link JobVertexID} and subtask index that describes the subtask of a job
-     * vertex.
+     * Composite key of {@link JobID}, {@link JobVertexID} and subtask index that describes the
+     * subtask of a job vertex.
      */
     private static final class JobVertexSubtaskKey {
 
+        /** The job id. */
+        @Nonnull final JobID jobId;
+
         /** The job vertex id. */
         @Nonnull final JobVertexID jobVertexID;
 
         /** The subtask index. */
         @Nonnegative final int subtaskIndex;
 
-        JobVertexSubtaskKey(@Nonnull JobVertexID jobVertexID, @Nonnegative int subtaskIndex) {
+        JobVertexSubtaskKey(
+                @Nonnull JobID jobId,
+                @Nonnull JobVertexID jobVertexID,
+                @Nonnegative int subtaskIndex) {
+            this.jobId = jobId;
             this.jobVertexID = jobVertexID;
             this.subtaskIndex = subtaskIndex;
         }
@@ -324,12 +376,15 @@ public class TaskExecutorLocalStateStoresManager {
 
             JobVertexSubtaskKey that = (JobVertexSubtaskKey) o;
 
-            return subtaskIndex == that.subtaskIndex && jobVertexID.equals(that.jobVertexID);
+            return subtaskIndex == that.subtaskIndex
+                    && jobId.equals(that.jobId)
+                    && jobVertexID.equals(that.jobVertexID);
         }
 
         @Override
         public int hashCode() {
-            int result = jobVertexID.hashCode();
+            int result = jobId.hashCode();
+            result = 31 * result + jobVertexID.hashCode();
             result = 31 * result + subtaskIndex;
             return result;
         }
@@ -20,6 +20,7 @@ package org.apache.flink.runtime.state;
 
 import org.apache.flink.api.common.JobID;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.metrics.groups.TaskManagerJobMetricGroup;
 import org.apache.flink.runtime.state.changelog.StateChangelogStorage;
 import org.apache.flink.runtime.state.changelog.StateChangelogStorageLoader;
 import org.apache.flink.util.ShutdownHookUtil;
@@ -68,7 +69,10 @@ public class TaskExecutorStateChangelogStoragesManager {
 
     @Nullable
     public StateChangelogStorage<?> stateChangelogStorageForJob(
-            @Nonnull JobID jobId, Configuration configuration) throws IOException {
+            @Nonnull JobID jobId,
+            Configuration configuration,
+            TaskManagerJobMetricGroup metricGroup)
+            throws IOException {
         if (closed) {
             throw new IllegalStateException(
                     "TaskExecutorStateChangelogStoragesManager is already closed and cannot "
@@ -79,7 +83,8 @@ public class TaskExecutorStateChangelogStoragesManager {
                 changelogStoragesByJobId.get(jobId);
 
         if (stateChangelogStorage == null) {
-            StateChangelogStorage<?> loaded = StateChangelogStorageLoader.load(configuration);
+            StateChangelogStorage<?> loaded =
+                    StateChangelogStorageLoader.load(configuration, metricGroup);
             stateChangelogStorage = Optional.ofNullable(loaded);
             changelogStoragesByJobId.put(jobId, stateChangelogStorage);
 
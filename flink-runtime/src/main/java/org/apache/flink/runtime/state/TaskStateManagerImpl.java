@@ -25,6 +25,7 @@ import org.apache.flink.runtime.checkpoint.InflightDataRescalingDescriptor;
 import org.apache.flink.runtime.checkpoint.JobManagerTaskRestore;
 import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
 import org.apache.flink.runtime.checkpoint.PrioritizedOperatorSubtaskState;
+import org.apache.flink.runtime.checkpoint.StateObjectCollection;
 import org.apache.flink.runtime.checkpoint.TaskStateSnapshot;
 import org.apache.flink.runtime.checkpoint.channel.SequentialChannelStateReader;
 import org.apache.flink.runtime.checkpoint.channel.SequentialChannelStateReaderImpl;
@@ -39,7 +40,10 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -79,6 +83,12 @@ public class TaskStateManagerImpl implements TaskStateManager {
 
     private final SequentialChannelStateReader sequentialChannelStateReader;
 
+    /**
+     * Retrieves the local state of all subtasks of the job vertex on this task executor for a
+     * checkpoint, to restore the key-groups another subtask held before a rescaling.
+     */
+    private final JobVertexLocalStatesRetriever jobVertexLocalStatesRetriever;
+
     public TaskStateManagerImpl(
             @Nonnull JobID jobId,
             @Nonnull ExecutionAttemptID executionAttemptID,
@@ -86,6 +96,24 @@ public class TaskStateManagerImpl implements TaskStateManager {
             @Nullable StateChangelogStorage<?> stateChangelogStorage,
             @Nullable JobManagerTaskRestore jobManagerTaskRestore,
             @Nonnull CheckpointResponder checkpointResponder) {
+        this(
+                jobId,
+                executionAttemptID,
+                localStateStore,
+                stateChangelogStorage,
+                jobManagerTaskRestore,
+                checkpointResponder,
+                JobVertexLocalStatesRetriever.NO_LOCAL_STATES);
+    }
+
+    public TaskStateManagerImpl(
+            @Nonnull JobID jobId,
+            @Nonnull ExecutionAttemptID executionAttemptID,
+            @Nonnull TaskLocalStateStore localStateStore,
+            @Nullable StateChangelogStorage<?> stateChangelogStorage,
+            @Nullable JobManagerTaskRestore jobManagerTaskRestore,
+            @Nonnull CheckpointResponder checkpointResponder,
+            @Nonnull JobVertexLocalStatesRetriever jobVertexLocalStatesRetriever) {
         this(
                 jobId,
                 executionAttemptID,
@@ -96,7 +124,8 @@ public class TaskStateManagerImpl implements TaskStateManager {
                 new SequentialChannelStateReaderImpl(
                         jobManagerTaskRestore == null
                                 ? new TaskStateSnapshot()
-                                : jobManagerTaskRestore.getTaskStateSnapshot()));
+                                : jobManagerTaskRestore.getTaskStateSnapshot()),
+                jobVertexLocalStatesRetriever);
     }
 
     public TaskStateManagerImpl(
@@ -107,6 +136,26 @@ public class TaskStateManagerImpl implements TaskStateManager {
             @Nullable JobManagerTaskRestore jobManagerTaskRestore,
             @Nonnull CheckpointResponder checkpointResponder,
             @Nonnull SequentialChannelStateReaderImpl sequentialChannelStateReader) {
+        this(
+                jobId,
+                executionAttemptID,
+                localStateStore,
+                stateChangelogStorage,
+                jobManagerTaskRestore,
+                checkpointResponder,
+                sequentialChannelStateReader,
+                JobVertexLocalStatesRetriever.NO_LOCAL_STATES);
+    }
+
+    public TaskStateManagerImpl(
+            @Nonnull JobID jobId,
+            @Nonnull ExecutionAttemptID executionAttemptID,
+            @Nonnull TaskLocalStateStore localStateStore,
+            @Nullable StateChangelogStorage<?> stateChangelogStorage,
+            @Nullable JobManagerTaskRestore jobManagerTaskRestore,
+            @Nonnull CheckpointResponder checkpointResponder,
+            @Nonnull SequentialChannelStateReaderImpl sequentialChannelStateReader,
+            @Nonnull JobVertexLocalStatesRetriever jobVertexLocalStatesRetriever) {
         this.jobId = jobId;
         this.localStateStore = localStateStore;
         this.stateChangelogStorage = stateChangelogStorage;
@@ -114,6 +163,7 @@ public class TaskStateManagerImpl implements TaskStateManager {
         this.executionAttemptID = executionAttemptID;
         this.checkpointResponder = checkpointResponder;
         this.sequentialChannelStateReader = sequentialChannelStateReader;
+        this.jobVertexLocalStatesRetriever = jobVertexLocalStatesRetriever;
     }
 
     @Override
@@ -187,14 +237,31 @@ public class TaskStateManagerImpl implements TaskStateManager {
         localStateStore.pruneMatchingCheckpoints(
                 (long checkpointId) -> checkpointId != restoreCheckpointId);
 
-        List<OperatorSubtaskState> alternativesByPriority = Collections.emptyList();
+        List<OperatorSubtaskState> alternativesByPriority = new ArrayList<>(2);
+        OperatorSubtaskState localSubtaskState = null;
 
         if (localStateSnapshot != null) {
-            OperatorSubtaskState localSubtaskState =
-                    localStateSnapshot.getSubtaskStateByOperatorID(operatorID);
+            localSubtaskState = localStateSnapshot.getSubtaskStateByOperatorID(operatorID);
 
             if (localSubtaskState != null) {
-                alternativesByPriority = Collections.singletonList(localSubtaskState);
+                alternativesByPriority.add(localSubtaskState);
+            }
+        }
+
+        // after a rescaling, the own local state does not hold the key-groups of this subtask
+        if (localSubtaskState == null
+                || !hasSameKeyGroupRanges(
+                        jobManagerSubtaskState.getManagedKeyedState(),
+                        localSubtaskState.getManagedKeyedState())
+                || !hasSameKeyGroupRanges(
+                        jobManagerSubtaskState.getRawKeyedState(),
+                        localSubtaskState.getRawKeyedState())) {
+            OperatorSubtaskState rescaledLocalSubtaskState =
+                    createRescaledLocalKeyedState(
+                            operatorID, jobManagerSubtaskState, restoreCheckpointId);
+
+            if (rescaledLocalSubtaskState != null) {
+                alternativesByPriority.add(rescaledLocalSubtaskState);
             }
         }
 
@@ -213,6 +280,111 @@ public class TaskStateManagerImpl implements TaskStateManager {
         return builder.build();
     }
 
+    /**
+     * Assembles the keyed state of a subtask of a rescaled job from the local state of the subtasks
+     * of the job vertex which held its key-groups before, as far as they ran on this task executor.
+     * The key-groups which no local state covers are restored from the job manager state.
+     *
+     * @return the keyed state, or null if no local state covers any of the key-groups.
+     */
+    @Nullable
+    private OperatorSubtaskState createRescaledLocalKeyedState(
+            OperatorID operatorID,
+            OperatorSubtaskState jobManagerSubtaskState,
+            long restoreCheckpointId) {
+
+        if (!jobManagerSubtaskState.getManagedKeyedState().hasState()
+                && !jobManagerSubtaskState.getRawKeyedState().hasState()) {
+            return null;
+        }
+
+        List<KeyedStateHandle> localManagedKeyedState = new ArrayList<>();
+        List<KeyedStateHandle> localRawKeyedState = new ArrayList<>();
+        for (TaskStateSnapshot localStateSnapshot :
+                jobVertexLocalStatesRetriever.retrieveLocalStates(jobId, restoreCheckpointId)) {
+            OperatorSubtaskState localSubtaskState =
+                    localStateSnapshot.getSubtaskStateByOperatorID(operatorID);
+            if (localSubtaskState != null) {
+                localManagedKeyedState.addAll(localSubtaskState.getManagedKeyedState());
+                localRawKeyedState.addAll(localSubtaskState.getRawKeyedState());
+            }
+        }
+
+        StateObjectCollection<KeyedStateHandle> managedKeyedState =
+                substituteLocalKeyedState(
+                        jobManagerSubtaskState.getManagedKeyedState(), localManagedKeyedState);
+        StateObjectCollection<KeyedStateHandle> rawKeyedState =
+                substituteLocalKeyedState(
+                        jobManagerSubtaskState.getRawKeyedState(), localRawKeyedState);
+
+        if (managedKeyedState == null && rawKeyedState == null) {
+            return null;
+        }
+
+        return OperatorSubtaskState.builder()
+                .setManagedKeyedState(
+                        managedKeyedState != null
+                                ? managedKeyedState
+                                : StateObjectCollection.empty())
+                .setRawKeyedState(
+                        rawKeyedState != null ? rawKeyedState : StateObjectCollection.empty())
+                .build();
+    }
+
+    private static boolean hasSameKeyGroupRanges(
+            StateObjectCollection<KeyedStateHandle> jobManagerState,
+            StateObjectCollection<KeyedStateHandle> localState) {
+        if (jobManagerState.size() != localState.size()) {
+            return false;
+        }
+        Iterator<KeyedStateHandle> localIterator = localState.iterator();
+        for (KeyedStateHandle jobManagerHandle : jobManagerState) {
+            if (!jobManagerHandle
+                    .getKeyGroupRange()
+                    .equals(localIterator.next().getKeyGroupRange())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Substitutes each job manager handle by the part of a local handle which covers exactly the
+     * same key-groups, if there is one.
+     *
+     * @return the substituted handles, or null if none of the handles could be substituted.
+     */
+    @Nullable
+    private static StateObjectCollection<KeyedStateHandle> substituteLocalKeyedState(
+            StateObjectCollection<KeyedStateHandle> jobManagerState,
+            List<KeyedStateHandle> localState) {
+
+        if (localState.isEmpty()) {
+            return null;
+        }
+
+        List<KeyedStateHandle> substitutedState = new ArrayList<>(jobManagerState.size());
+        boolean substituted = false;
+        for (KeyedStateHandle jobManagerHandle : jobManagerState) {
+            KeyedStateHandle substitute = jobManagerHandle;
+            for (KeyedStateHandle localHandle : localState) {
+                KeyedStateHandle intersection =
+                        localHandle.getIntersection(jobManagerHandle.getKeyGroupRange());
+                if (intersection != null
+                        && intersection
+                                .getKeyGroupRange()
+                                .equals(jobManagerHandle.getKeyGroupRange())) {
+                    substitute = intersection;
+                    substituted = true;
+                    break;
+                }
+            }
+            substitutedState.add(substitute);
+        }
+
+        return substituted ? new StateObjectCollection<>(substitutedState) : null;
+    }
+
     @Nonnull
     @Override
     public LocalRecoveryConfig createLocalRecoveryConfig() {
@@ -246,4 +418,23 @@ public class TaskStateManagerImpl implements TaskStateManager {
     public void close() throws Exception {
         sequentialChannelStateReader.close();
     }
+
+    /** Retrieves the local state of all subtasks of a job vertex on this task executor. */
+    @FunctionalInterface
+    public interface JobVertexLocalStatesRetriever {
+
+        /** Retriever for tasks without access to the local state of other subtasks. */
+        JobVertexLocalStatesRetriever NO_LOCAL_STATES =
+                (jobId, checkpointId) -> Collections.emptyList();
+
+        /**
+         * Returns the local state of the subtasks of the job vertex for the given checkpoint.
+         *
+         * @param jobId the job of the job vertex.
+         * @param checkpointId the checkpoint whose local state is retrieved.
+         * @return the local state of the subtasks which have local state for the checkpoint.
+         */
+        @Nonnull
+        Collection<TaskStateSnapshot> retrieveLocalStates(@Nonnull JobID jobId, long checkpointId);
+    }
 }
@@ -18,10 +18,19 @@
 package org.apache.flink.runtime.state.changelog;
 
 import org.apache.flink.annotation.Internal;
+import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
 import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyGroupsStateHandle;
 import org.apache.flink.runtime.state.KeyedStateHandle;
 import org.apache.flink.runtime.state.SharedStateRegistry;
+import org.apache.flink.runtime.state.SharedStateRegistryKey;
+import org.apache.flink.runtime.state.StateHandleID;
 import org.apache.flink.runtime.state.StateObject;
+import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.filesystem.FileStateHandle;
+import org.apache.flink.runtime.state.filesystem.MultiPartStreamStateHandle;
+import org.apache.flink.runtime.state.filesystem.SegmentFileStateHandle;
+import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
 import org.apache.flink.util.ExceptionUtils;
 
 import org.apache.flink.shaded.guava30.com.google.common.io.Closer;
@@ -29,7 +38,9 @@ import org.apache.flink.shaded.guava30.com.google.common.io.Closer;
 import javax.annotation.Nullable;
 
 import java.io.Closeable;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -48,11 +59,20 @@ public interface ChangelogStateBackendHandle extends KeyedStateHandle {
 
     List<ChangelogStateHandle> getNonMaterializedStateHandles();
 
+    /**
+     * The materialized state is shared by all checkpoints taken until the next materialization. So
+     * its streams are registered in the {@link SharedStateRegistry} under keys that identify the
+     * physical files, and only discarded once no registered checkpoint refers to them anymore.
+     */
     class ChangelogStateBackendHandleImpl implements ChangelogStateBackendHandle {
         private static final long serialVersionUID = 1L;
         private final List<KeyedStateHandle> materialized;
         private final List<ChangelogStateHandle> nonMaterialized;
         private final KeyGroupRange keyGroupRange;
+        private transient SharedStateRegistry stateRegistry;
+
+        /** The keys of the registered materialized state; null if this handle isn't registered. */
+        @Nullable private transient List<SharedStateRegistryKey> materializedStateKeys;
 
         public ChangelogStateBackendHandleImpl(
                 List<KeyedStateHandle> materialized,
@@ -66,14 +86,42 @@ public interface ChangelogStateBackendHandle extends KeyedStateHandle {
 
         @Override
         public void registerSharedStates(SharedStateRegistry stateRegistry) {
-            stateRegistry.registerAll(materialized);
+            List<StreamStateHandle> streams = new ArrayList<>();
+            for (KeyedStateHandle handle : materialized) {
+                streams.addAll(getMaterializedStreams(handle));
+            }
+            // create all keys first, so that unsupported state fails before anything is registered
+            List<SharedStateRegistryKey> keys =
+                    streams.stream()
+                            .map(ChangelogStateBackendHandleImpl::createKey)
+                            .collect(Collectors.toCollection(ArrayList::new));
+            for (int i = 0; i < streams.size(); i++) {
+                stateRegistry.registerReference(keys.get(i), streams.get(i));
+            }
+            for (KeyedStateHandle handle : materialized) {
+                if (handle instanceof IncrementalRemoteKeyedStateHandle) {
+                    keys.addAll(
+                            registerSharedFiles(
+                                    (IncrementalRemoteKeyedStateHandle) handle, stateRegistry));
+                }
+            }
             stateRegistry.registerAll(nonMaterialized);
+            this.stateRegistry = stateRegistry;
+            this.materializedStateKeys = keys;
         }
 
         @Override
         public void discardState() throws Exception {
             try (Closer closer = Closer.create()) {
-                materialized.forEach(h -> closer.register(asCloseable(h)));
+                // If this handle wasn't registered, then its materialized state is still owned by
+                // the backend that created it, which might refer to it in other checkpoints. The
+                // backend discards it once it is neither used nor sent with a checkpoint that might
+                // complete anymore.
+                if (materializedStateKeys != null) {
+                    for (SharedStateRegistryKey key : materializedStateKeys) {
+                        closer.register(() -> stateRegistry.unregisterReference(key));
+                    }
+                }
                 nonMaterialized.forEach(h -> closer.register(asCloseable(h)));
             }
         }
@@ -139,5 +187,86 @@ public interface ChangelogStateBackendHandle extends KeyedStateHandle {
                 }
             };
         }
+
+        /**
+         * Gets the streams of the given materialized state that are not shared with other
+         * materializations, split into the physical files.
+         */
+        private static List<StreamStateHandle> getMaterializedStreams(KeyedStateHandle handle) {
+            List<StreamStateHandle> streams = new ArrayList<>();
+            if (handle instanceof KeyGroupsStateHandle) {
+                KeyGroupsStateHandle keyGroups = (KeyGroupsStateHandle) handle;
+                addPhysicalStreams(keyGroups.getDelegateStateHandle(), streams);
+            } else if (handle instanceof IncrementalRemoteKeyedStateHandle) {
+                IncrementalRemoteKeyedStateHandle incremental =
+                        (IncrementalRemoteKeyedStateHandle) handle;
+                addPhysicalStreams(incremental.getMetaStateHandle(), streams);
+                for (StreamStateHandle stream : incremental.getPrivateState().values()) {
+                    addPhysicalStreams(stream, streams);
+                }
+            } else {
+                throw new IllegalArgumentException(
+                        "Materialized state of type "
+                                + handle.getClass().getName()
+                                + " can't be shared between checkpoints: "
+                                + handle);
+            }
+            return streams;
+        }
+
+        private static void addPhysicalStreams(
+                StreamStateHandle stream, List<StreamStateHandle> streams) {
+            if (stream instanceof MultiPartStreamStateHandle) {
+                for (StreamStateHandle part : ((MultiPartStreamStateHandle) stream).getParts()) {
+                    addPhysicalStreams(part, streams);
+                }
+            } else {
+                streams.add(stream);
+            }
+        }
+
+        /**
+         * The key only depends on the physical file of the stream, so that the copies of the same
+         * state that are sent with every checkpoint (and deserialized separately) map to the same
+         * key.
+         */
+        private static SharedStateRegistryKey createKey(StreamStateHandle stream) {
+            if (stream instanceof FileStateHandle) {
+                return new SharedStateRegistryKey(
+                        ((FileStateHandle) stream).getFilePath().toString());
+            } else if (stream instanceof SegmentFileStateHandle) {
+                SegmentFileStateHandle segment = (SegmentFileStateHandle) stream;
+                return new SharedStateRegistryKey(
+                        segment.getFilePath() + "@" + segment.getStartPos());
+            } else if (stream instanceof ByteStreamStateHandle) {
+                return new SharedStateRegistryKey(((ByteStreamStateHandle) stream).getHandleName());
+            } else {
+                throw new IllegalArgumentException(
+                        "Materialized state stream of type "
+                                + stream.getClass().getName()
+                                + " can't be shared between checkpoints: "
+                                + stream);
+            }
+        }
+
+        /**
+         * Registers the files that the materialized state shares with other materializations the
+         * same way as the handle itself would. This doesn't register the handle though, because
+         * the same handle can be part of several checkpoints.
+         */
+        private static List<SharedStateRegistryKey> registerSharedFiles(
+                IncrementalRemoteKeyedStateHandle handle, SharedStateRegistry stateRegistry) {
+            List<SharedStateRegistryKey> keys = new ArrayList<>();
+            for (Map.Entry<StateHandleID, StreamStateHandle> sharedFile :
+                    handle.getSharedState().entrySet()) {
+                SharedStateRegistryKey key =
+                        handle.createSharedStateRegistryKeyFromFileName(sharedFile.getKey());
+                // replaces placeholders with the registered handles
+                sharedFile.setValue(
+                        stateRegistry.registerReference(key, sharedFile.getValue()).getReference());
+                keys.add(key);
+            }
+            return keys;
+        }
     }
 }
@@ -20,6 +20,7 @@ package org.apache.flink.runtime.state.changelog;
 
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.metrics.groups.TaskManagerJobMetricGroup;
 
 import java.io.IOException;
 
@@ -32,6 +33,7 @@ public interface StateChangelogStorageFactory {
     /** Get the identifier for user to use this changelog storage factory. */
     String getIdentifier();
 
-    /** Create the storage based on a configuration. */
-    StateChangelogStorage<?> createStorage(Configuration configuration) throws IOException;
+    /** Create the storage based on a configuration, reporting its metrics to the given group. */
+    StateChangelogStorage<?> createStorage(
+            Configuration configuration, TaskManagerJobMetricGroup metricGroup) throws IOException;
 }
@@ -34,6 +34,14 @@ public interface StateChangelogWriter<Handle extends ChangelogStateHandle> exten
      */
     SequenceNumber lastAppendedSequenceNumber();
 
+    /**
+     * Get {@link SequenceNumber} that bounds the elements added so far by {@link #append(int,
+     * byte[]) append}, exclusive. Elements added after this call get this or a higher number, so
+     * the result can be used to {@link #truncate(SequenceNumber) truncate} or {@link
+     * #persist(SequenceNumber) persist} the log exactly from this point.
+     */
+    SequenceNumber nextSequenceNumber();
+
     /** Appends the provided data to this log. No persistency guarantees. */
     void append(int keyGroup, byte[] value) throws IOException;
 
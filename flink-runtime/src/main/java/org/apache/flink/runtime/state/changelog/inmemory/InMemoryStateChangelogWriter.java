@@ -74,6 +74,11 @@ class InMemoryStateChangelogWriter implements StateChangelogWriter<InMemoryChang
         return sqn;
     }
 
+    @Override
+    public SequenceNumber nextSequenceNumber() {
+        return sqn.next();
+    }
+
     @Override
     public CompletableFuture<InMemoryChangelogStateHandle> persist(SequenceNumber from) {
         LOG.debug("Persist after {}", from);
@@ -0,0 +1,395 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.filesystem;
+
+import org.apache.flink.core.fs.EntropyInjector;
+import org.apache.flink.core.fs.FSDataOutputStream;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.FileSystem.WriteMode;
+import org.apache.flink.core.fs.OutputStreamAndPath;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.state.CheckpointStreamFactory;
+import org.apache.flink.runtime.state.CheckpointedStateScope;
+import org.apache.flink.util.ExceptionUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A {@link CheckpointStreamFactory} that packs the data of many streams into few physical files.
+ * Every stream writes one segment of a physical file in the target directory and returns a {@link
+ * SegmentFileStateHandle} that addresses the segment by its offset. Streams that are written
+ * concurrently use different physical files, a physical file is reused by later streams until it
+ * exceeds the configured maximum size.
+ *
+ * <p>The factory is meant to be used for the duration of one snapshot. The returned handles only
+ * point to durable data after the factory has been {@link #close() closed}, which must happen
+ * before the handles are reported as part of the snapshot. Because all segments of a physical file
+ * belong to the same snapshot, discarding an unsuccessful snapshot can delete the physical files
+ * directly.
+ */
+public class FileMergingCheckpointStreamFactory implements CheckpointStreamFactory, Closeable {
+
+    private static final Logger LOG =
+            LoggerFactory.getLogger(FileMergingCheckpointStreamFactory.class);
+
+    /** The file system to write the physical files to. */
+    private final FileSystem fileSystem;
+
+    /** The directory for the physical files. */
+    private final Path targetDirectory;
+
+    /** A physical file is not reused for further segments once it has reached this size. */
+    private final long maxFileSize;
+
+    private final Object lock = new Object();
+
+    /** The physical files that are open and not used by any stream. */
+    @GuardedBy("lock")
+    private final ArrayDeque<PhysicalFile> idleFiles = new ArrayDeque<>();
+
+    /** All physical files that are open, including the idle ones. */
+    @GuardedBy("lock")
+    private final List<PhysicalFile> openFiles = new ArrayList<>();
+
+    @GuardedBy("lock")
+    private boolean isClosed;
+
+    /**
+     * Creates a new stream factory that writes segments of physical files in the given directory.
+     *
+     * @param fileSystem The filesystem to write to.
+     * @param targetDirectory The directory for the physical files, which must already exist.
+     * @param maxFileSize Physical files are not reused for further segments beyond this size.
+     */
+    public FileMergingCheckpointStreamFactory(
+            FileSystem fileSystem, Path targetDirectory, long maxFileSize) {
+        checkArgument(maxFileSize > 0, "The maximum file size must be positive.");
+        this.fileSystem = checkNotNull(fileSystem);
+        this.targetDirectory = checkNotNull(targetDirectory);
+        this.maxFileSize = maxFileSize;
+    }
+
+    /**
+     * Creates a stream that writes a segment of a physical file in the target directory. The scope
+     * of the state is determined by the target directory of this factory.
+     */
+    @Override
+    public SegmentCheckpointStateOutputStream createCheckpointStateOutputStream(
+            CheckpointedStateScope scope) throws IOException {
+        return new SegmentCheckpointStateOutputStream(acquirePhysicalFile());
+    }
+
+    /**
+     * Closes all physical files, which makes the data of all segments written through this factory
+     * durable. Streams must not be created after the factory has been closed.
+     *
+     * @throws IOException Thrown, if any of the physical files cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        final List<PhysicalFile> filesToClose;
+        synchronized (lock) {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+            filesToClose = new ArrayList<>(openFiles);
+            openFiles.clear();
+            idleFiles.clear();
+        }
+
+        IOException exception = null;
+        for (PhysicalFile file : filesToClose) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                exception = ExceptionUtils.firstOrSuppressed(e, exception);
+            }
+        }
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "File Merging Stream Factory @ " + targetDirectory;
+    }
+
+    // ------------------------------------------------------------------------
+    //  physical file management
+    // ------------------------------------------------------------------------
+
+    private PhysicalFile acquirePhysicalFile() throws IOException {
+        synchronized (lock) {
+            if (isClosed) {
+                throw new IOException("The stream factory has already been closed.");
+            }
+
+            final PhysicalFile idleFile = idleFiles.pollFirst();
+            if (idleFile != null) {
+                return idleFile;
+            }
+        }
+
+        // create the new file outside of the lock, as this may be a slow remote call
+        final PhysicalFile file = PhysicalFile.create(fileSystem, targetDirectory);
+        synchronized (lock) {
+            if (!isClosed) {
+                openFiles.add(file);
+                return file;
+            }
+        }
+
+        file.discard();
+        throw new IOException("The stream factory has already been closed.");
+    }
+
+    /** Returns a physical file after a segment was written successfully. */
+    private void releasePhysicalFile(PhysicalFile file) throws IOException {
+        final boolean isFull = file.getPos() >= maxFileSize;
+        synchronized (lock) {
+            if (isClosed) {
+                return;
+            }
+
+            if (!isFull) {
+                idleFiles.addFirst(file);
+                return;
+            }
+
+            openFiles.remove(file);
+        }
+
+        file.close();
+    }
+
+    /**
+     * Drops a physical file after writing a segment failed. The file is closed but not deleted if
+     * it holds segments that were written successfully before.
+     */
+    private void discardPhysicalFile(PhysicalFile file) {
+        synchronized (lock) {
+            openFiles.remove(file);
+        }
+
+        if (file.getNumSegments() == 0) {
+            file.discard();
+        } else {
+            try {
+                file.close();
+            } catch (Throwable t) {
+                LOG.warn("Could not close the physical checkpoint file {}.", file.getPath(), t);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    //  Checkpoint stream implementation
+    // ------------------------------------------------------------------------
+
+    /**
+     * A {@link CheckpointStreamFactory.CheckpointStateOutputStream} that writes one segment of a
+     * physical file and returns a {@link SegmentFileStateHandle} upon closing.
+     */
+    public final class SegmentCheckpointStateOutputStream
+            extends CheckpointStreamFactory.CheckpointStateOutputStream {
+
+        private final PhysicalFile file;
+
+        private final long startPos;
+
+        private volatile boolean closed;
+
+        private SegmentCheckpointStateOutputStream(PhysicalFile file) throws IOException {
+            this.file = file;
+            this.startPos = file.getPos();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            checkNotClosed();
+            file.getStream().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkNotClosed();
+            file.getStream().write(b, off, len);
+        }
+
+        @Override
+        public long getPos() throws IOException {
+            return file.getPos() - startPos;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            checkNotClosed();
+            file.getStream().flush();
+        }
+
+        @Override
+        public void sync() throws IOException {
+            checkNotClosed();
+            file.getStream().sync();
+        }
+
+        /**
+         * Drops the physical file, because its position cannot be trusted any more after writing
+         * a segment was aborted.
+         */
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                discardPhysicalFile(file);
+            }
+        }
+
+        @Nullable
+        @Override
+        public SegmentFileStateHandle closeAndGetHandle() throws IOException {
+            synchronized (this) {
+                if (closed) {
+                    throw new IOException("Stream has already been closed and discarded.");
+                }
+                closed = true;
+
+                final long size;
+                try {
+                    size = file.getPos() - startPos;
+                } catch (IOException e) {
+                    discardPhysicalFile(file);
+                    throw e;
+                }
+
+                if (size == 0) {
+                    // nothing was ever written
+                    releasePhysicalFile(file);
+                    return null;
+                }
+
+                file.addSegment();
+                releasePhysicalFile(file);
+                return new SegmentFileStateHandle(file.getPath(), startPos, size);
+            }
+        }
+
+        private void checkNotClosed() throws IOException {
+            if (closed) {
+                throw new IOException("closed");
+            }
+        }
+    }
+
+    /** An open physical file that holds the segments of one or more streams. */
+    private static final class PhysicalFile {
+
+        private final FSDataOutputStream stream;
+
+        private final Path path;
+
+        /** The number of successfully written segments, only accessed by the owning stream. */
+        private int numSegments;
+
+        @GuardedBy("this")
+        private boolean closed;
+
+        private PhysicalFile(FSDataOutputStream stream, Path path) {
+            this.stream = stream;
+            this.path = path;
+        }
+
+        static PhysicalFile create(FileSystem fileSystem, Path directory) throws IOException {
+            Exception latestException = null;
+            for (int attempt = 0; attempt < 10; attempt++) {
+                try {
+                    final OutputStreamAndPath streamAndPath =
+                            EntropyInjector.createEntropyAware(
+                                    fileSystem,
+                                    new Path(directory, UUID.randomUUID().toString()),
+                                    WriteMode.NO_OVERWRITE);
+                    return new PhysicalFile(streamAndPath.stream(), streamAndPath.path());
+                } catch (Exception e) {
+                    latestException = e;
+                }
+            }
+
+            throw new IOException(
+                    "Could not open output stream for state backend", latestException);
+        }
+
+        FSDataOutputStream getStream() {
+            return stream;
+        }
+
+        Path getPath() {
+            return path;
+        }
+
+        long getPos() throws IOException {
+            return stream.getPos();
+        }
+
+        int getNumSegments() {
+            return numSegments;
+        }
+
+        void addSegment() {
+            numSegments++;
+        }
+
+        synchronized void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                stream.close();
+            }
+        }
+
+        void discard() {
+            try {
+                close();
+            } catch (Throwable t) {
+                LOG.warn("Could not close the physical checkpoint file {}.", path, t);
+            } finally {
+                try {
+                    path.getFileSystem().delete(path, false);
+                } catch (Exception e) {
+                    LOG.warn("Cannot delete discarded physical checkpoint file {}.", path, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.filesystem;
+
+import org.apache.flink.core.fs.EntropyInjector;
+import org.apache.flink.core.fs.FSDataOutputStream;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.FileSystem.WriteMode;
+import org.apache.flink.core.fs.OutputStreamAndPath;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.util.ExceptionUtils;
+import org.apache.flink.util.concurrent.ExecutorThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * Writes the data of a checkpoint stream as a sequence of part files of a fixed size, which are
+ * uploaded concurrently. The data of a part is buffered in memory until the part is full, then the
+ * part is written to its own file by one of the upload threads while the stream keeps accepting
+ * data. The upload threads are shared by all streams of a checkpoint storage, see {@link
+ * #createUploadExecutor(int)}. The number of parts of a stream that are buffered for uploading at
+ * the same time is bounded by the number of upload threads, writers block when the bound is
+ * reached.
+ *
+ * <p>This class is not thread safe, it is used by the single thread that writes the stream.
+ */
+final class FsCheckpointPartUploader {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FsCheckpointPartUploader.class);
+
+    private static final long IDLE_UPLOAD_THREAD_TIMEOUT_SECONDS = 60L;
+
+    private final Path basePath;
+
+    private final FileSystem fs;
+
+    private final int partSize;
+
+    private final boolean allowRelativePaths;
+
+    /** The executor for the uploads, which is shared with other streams. */
+    private final Executor executor;
+
+    /** Bounds the number of parts that are buffered for uploading. */
+    private final Semaphore uploadPermits;
+
+    /** The uploads of all parts so far, in the order of the parts. */
+    private final List<CompletableFuture<StreamStateHandle>> parts = new ArrayList<>();
+
+    /** The buffer of the part that is currently written, allocated lazily. */
+    @Nullable private byte[] currentPart;
+
+    private int currentPartPos;
+
+    private long pos;
+
+    FsCheckpointPartUploader(
+            Path basePath,
+            FileSystem fs,
+            int partSize,
+            int numUploadThreads,
+            boolean allowRelativePaths,
+            Executor executor) {
+        checkArgument(partSize > 0, "The part size must be positive.");
+        checkArgument(numUploadThreads > 0, "The number of upload threads must be positive.");
+        this.basePath = checkNotNull(basePath);
+        this.fs = checkNotNull(fs);
+        this.partSize = partSize;
+        this.allowRelativePaths = allowRelativePaths;
+        this.executor = checkNotNull(executor);
+        this.uploadPermits = new Semaphore(numUploadThreads);
+    }
+
+    /**
+     * Creates the executor for the part uploads of all streams of a checkpoint storage. Its threads
+     * terminate when they are idle, so the executor doesn't need to be shut down.
+     */
+    static ExecutorService createUploadExecutor(int numUploadThreads) {
+        final ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        numUploadThreads,
+                        numUploadThreads,
+                        IDLE_UPLOAD_THREAD_TIMEOUT_SECONDS,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        new ExecutorThreadFactory("flink-checkpoint-part-upload"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (currentPart == null) {
+                currentPart = new byte[partSize];
+            }
+
+            final int toCopy = Math.min(len, partSize - currentPartPos);
+            System.arraycopy(b, off, currentPart, currentPartPos, toCopy);
+            currentPartPos += toCopy;
+            pos += toCopy;
+            off += toCopy;
+            len -= toCopy;
+
+            if (currentPartPos == partSize) {
+                uploadCurrentPart();
+            }
+        }
+    }
+
+    /** Gets the number of bytes written so far, including the bytes that are still buffered. */
+    long getPos() {
+        return pos;
+    }
+
+    /**
+     * Uploads the remaining buffered data and waits for all parts to be uploaded.
+     *
+     * @return The handle to the single part, if the data fits into one part, otherwise a {@link
+     *     MultiPartStreamStateHandle} to all parts in order.
+     * @throws IOException Thrown, if any of the parts could not be uploaded. The uploaded parts are
+     *     discarded in that case.
+     */
+    StreamStateHandle closeAndGetHandle() throws IOException {
+        checkState(pos > 0, "No data has been written.");
+        try {
+            if (currentPartPos > 0) {
+                uploadCurrentPart();
+            }
+
+            final List<StreamStateHandle> handles = new ArrayList<>(parts.size());
+            for (CompletableFuture<StreamStateHandle> part : parts) {
+                handles.add(part.get());
+            }
+            return handles.size() == 1 ? handles.get(0) : new MultiPartStreamStateHandle(handles);
+        } catch (ExecutionException e) {
+            discard();
+            throw new IOException(
+                    "Could not upload the parts of the checkpoint stream to " + basePath,
+                    ExceptionUtils.stripCompletionException(
+                            ExceptionUtils.stripExecutionException(e)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            discard();
+            throw new IOException("Interrupted while uploading the checkpoint stream parts.", e);
+        } catch (IOException e) {
+            discard();
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the buffered data and deletes all parts, including the parts that are still being
+     * uploaded once their upload completes. This method does not throw exceptions.
+     */
+    void discard() {
+        currentPart = null;
+        currentPartPos = 0;
+        for (CompletableFuture<StreamStateHandle> part : parts) {
+            part.thenAccept(FsCheckpointPartUploader::discardPart);
+        }
+        parts.clear();
+    }
+
+    // ------------------------------------------------------------------------
+
+    private void uploadCurrentPart() throws IOException {
+        final byte[] data = currentPart;
+        final int length = currentPartPos;
+        currentPart = null;
+        currentPartPos = 0;
+
+        try {
+            uploadPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the upload of a part.", e);
+        }
+
+        parts.add(
+                CompletableFuture.supplyAsync(
+                        () -> {
+                            try {
+                                return writePart(data, length);
+                            } catch (IOException e) {
+                                throw new CompletionException(e);
+                            } finally {
+                                uploadPermits.release();
+                            }
+                        },
+                        executor));
+    }
+
+    private StreamStateHandle writePart(byte[] data, int length) throws IOException {
+        final String fileName = UUID.randomUUID().toString();
+        final OutputStreamAndPath streamAndPath =
+                EntropyInjector.createEntropyAware(
+                        fs, new Path(basePath, fileName), WriteMode.NO_OVERWRITE);
+        final Path partPath = streamAndPath.path();
+
+        try (FSDataOutputStream out = streamAndPath.stream()) {
+            out.write(data, 0, length);
+        } catch (IOException e) {
+            try {
+                fs.delete(partPath, false);
+            } catch (Exception deleteException) {
+                LOG.warn(
+                        "Could not delete the checkpoint part file {}.",
+                        partPath,
+                        deleteException);
+            }
+            throw e;
+        }
+
+        return allowRelativePaths
+                ? new RelativeFileStateHandle(partPath, fileName, length)
+                : new FileStateHandle(partPath, length);
+    }
+
+    private static void discardPart(StreamStateHandle part) {
+        try {
+            part.discardState();
+        } catch (Exception e) {
+            LOG.warn("Could not discard the checkpoint part {}.", part, e);
+        }
+    }
+}
@@ -31,6 +31,7 @@ import org.apache.flink.runtime.state.filesystem.FsCheckpointStreamFactory.FsChe
 import javax.annotation.Nullable;
 
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
@@ -50,6 +51,16 @@ public class FsCheckpointStorageAccess extends AbstractFsCheckpointStorageAccess
 
     private final int writeBufferSize;
 
+    private final int uploadPartSize;
+
+    private final int numUploadThreads;
+
+    /**
+     * Uploads the parts of all streams of this storage, null if the streams are not uploaded in
+     * parts. Its threads terminate when idle, so it is never shut down.
+     */
+    @Nullable private final ExecutorService uploadExecutor;
+
     private boolean baseLocationsInitialized = false;
 
     public FsCheckpointStorageAccess(
@@ -78,10 +89,34 @@ public class FsCheckpointStorageAccess extends AbstractFsCheckpointStorageAccess
             int writeBufferSize)
             throws IOException {
 
+        this(
+                fs,
+                checkpointBaseDirectory,
+                defaultSavepointDirectory,
+                jobId,
+                fileSizeThreshold,
+                writeBufferSize,
+                0,
+                1);
+    }
+
+    public FsCheckpointStorageAccess(
+            FileSystem fs,
+            Path checkpointBaseDirectory,
+            @Nullable Path defaultSavepointDirectory,
+            JobID jobId,
+            int fileSizeThreshold,
+            int writeBufferSize,
+            int uploadPartSize,
+            int numUploadThreads)
+            throws IOException {
+
         super(jobId, defaultSavepointDirectory);
 
         checkArgument(fileSizeThreshold >= 0);
         checkArgument(writeBufferSize >= 0);
+        checkArgument(uploadPartSize >= 0);
+        checkArgument(numUploadThreads > 0);
 
         this.fileSystem = checkNotNull(fs);
         this.checkpointsDirectory = getCheckpointDirectoryForJob(checkpointBaseDirectory, jobId);
@@ -90,6 +125,12 @@ public class FsCheckpointStorageAccess extends AbstractFsCheckpointStorageAccess
                 new Path(checkpointsDirectory, CHECKPOINT_TASK_OWNED_STATE_DIR);
         this.fileSizeThreshold = fileSizeThreshold;
         this.writeBufferSize = writeBufferSize;
+        this.uploadPartSize = uploadPartSize;
+        this.numUploadThreads = numUploadThreads;
+        this.uploadExecutor =
+                uploadPartSize > 0
+                        ? FsCheckpointPartUploader.createUploadExecutor(numUploadThreads)
+                        : null;
     }
 
     // ------------------------------------------------------------------------
@@ -135,7 +176,10 @@ public class FsCheckpointStorageAccess extends AbstractFsCheckpointStorageAccess
                 taskOwnedStateDirectory,
                 CheckpointStorageLocationReference.getDefault(),
                 fileSizeThreshold,
-                writeBufferSize);
+                writeBufferSize,
+                uploadPartSize,
+                numUploadThreads,
+                uploadExecutor);
     }
 
     @Override
@@ -154,7 +198,10 @@ public class FsCheckpointStorageAccess extends AbstractFsCheckpointStorageAccess
                     taskOwnedStateDirectory,
                     reference,
                     fileSizeThreshold,
-                    writeBufferSize);
+                    writeBufferSize,
+                    uploadPartSize,
+                    numUploadThreads,
+                    uploadExecutor);
         } else {
             // location encoded in the reference
             final Path path = decodePathFromReference(reference);
@@ -166,7 +213,10 @@ public class FsCheckpointStorageAccess extends AbstractFsCheckpointStorageAccess
                     path,
                     reference,
                     fileSizeThreshold,
-                    writeBufferSize);
+                    writeBufferSize,
+                    uploadPartSize,
+                    numUploadThreads,
+                    uploadExecutor);
         }
     }
 
@@ -183,6 +233,15 @@ public class FsCheckpointStorageAccess extends AbstractFsCheckpointStorageAccess
     protected CheckpointStorageLocation createSavepointLocation(FileSystem fs, Path location) {
         final CheckpointStorageLocationReference reference = encodePathAsReference(location);
         return new FsCheckpointStorageLocation(
-                fs, location, location, location, reference, fileSizeThreshold, writeBufferSize);
+                fs,
+                location,
+                location,
+                location,
+                reference,
+                fileSizeThreshold,
+                writeBufferSize,
+                uploadPartSize,
+                numUploadThreads,
+                uploadExecutor);
     }
 }
@@ -26,7 +26,10 @@ import org.apache.flink.runtime.state.CheckpointMetadataOutputStream;
 import org.apache.flink.runtime.state.CheckpointStorageLocation;
 import org.apache.flink.runtime.state.CheckpointStorageLocationReference;
 
+import javax.annotation.Nullable;
+
 import java.io.IOException;
+import java.util.concurrent.Executor;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
@@ -59,8 +62,40 @@ public class FsCheckpointStorageLocation extends FsCheckpointStreamFactory
             CheckpointStorageLocationReference reference,
             int fileStateSizeThreshold,
             int writeBufferSize) {
+        this(
+                fileSystem,
+                checkpointDir,
+                sharedStateDir,
+                taskOwnedStateDir,
+                reference,
+                fileStateSizeThreshold,
+                writeBufferSize,
+                0,
+                1,
+                null);
+    }
 
-        super(fileSystem, checkpointDir, sharedStateDir, fileStateSizeThreshold, writeBufferSize);
+    public FsCheckpointStorageLocation(
+            FileSystem fileSystem,
+            Path checkpointDir,
+            Path sharedStateDir,
+            Path taskOwnedStateDir,
+            CheckpointStorageLocationReference reference,
+            int fileStateSizeThreshold,
+            int writeBufferSize,
+            int uploadPartSize,
+            int numUploadThreads,
+            @Nullable Executor uploadExecutor) {
+
+        super(
+                fileSystem,
+                checkpointDir,
+                sharedStateDir,
+                fileStateSizeThreshold,
+                writeBufferSize,
+                uploadPartSize,
+                numUploadThreads,
+                uploadExecutor);
 
         checkArgument(fileStateSizeThreshold >= 0);
         checkArgument(writeBufferSize >= 0);
@@ -37,6 +37,7 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
@@ -86,6 +87,15 @@ public class FsCheckpointStreamFactory implements CheckpointStreamFactory {
     /** Whether the file system dynamically injects entropy into the file paths. */
     private final boolean entropyInjecting;
 
+    /** The size of the parts that large streams are uploaded in, zero to write single files. */
+    private final int uploadPartSize;
+
+    /** The maximum number of parts of a stream that are uploaded concurrently. */
+    private final int numUploadThreads;
+
+    /** The executor that uploads the parts, shared by all streams; null if there are no parts. */
+    @Nullable private final Executor uploadExecutor;
+
     /**
      * Creates a new stream factory that stores its checkpoint data in the file system and location
      * defined by the given Path.
@@ -107,6 +117,47 @@ public class FsCheckpointStreamFactory implements CheckpointStreamFactory {
             Path sharedStateDirectory,
             int fileStateSizeThreshold,
             int writeBufferSize) {
+        this(
+                fileSystem,
+                checkpointDirectory,
+                sharedStateDirectory,
+                fileStateSizeThreshold,
+                writeBufferSize,
+                0,
+                1,
+                null);
+    }
+
+    /**
+     * Creates a new stream factory that stores its checkpoint data in the file system and location
+     * defined by the given Path, and uploads large streams in parts.
+     *
+     * <p><b>Important:</b> The given checkpoint directory must already exist. Refer to the
+     * class-level JavaDocs for an explanation why this factory must not try and create the
+     * checkpoints.
+     *
+     * @param fileSystem The filesystem to write to.
+     * @param checkpointDirectory The directory for checkpoint exclusive state data.
+     * @param sharedStateDirectory The directory for shared checkpoint data.
+     * @param fileStateSizeThreshold State up to this size will be stored as part of the metadata,
+     *     rather than in files
+     * @param writeBufferSize The write buffer size.
+     * @param uploadPartSize If positive, streams are written as part files of this size, which are
+     *     uploaded concurrently. Zero writes every stream to a single file.
+     * @param numUploadThreads The maximum number of parts of a stream that are uploaded
+     *     concurrently.
+     * @param uploadExecutor The executor that uploads the parts of all streams, only needed if the
+     *     upload part size is positive.
+     */
+    public FsCheckpointStreamFactory(
+            FileSystem fileSystem,
+            Path checkpointDirectory,
+            Path sharedStateDirectory,
+            int fileStateSizeThreshold,
+            int writeBufferSize,
+            int uploadPartSize,
+            int numUploadThreads,
+            @Nullable Executor uploadExecutor) {
 
         if (fileStateSizeThreshold < 0) {
             throw new IllegalArgumentException(
@@ -117,6 +168,18 @@ public class FsCheckpointStreamFactory implements CheckpointStreamFactory {
             throw new IllegalArgumentException("The write buffer size must be zero or larger.");
         }
 
+        if (uploadPartSize < 0) {
+            throw new IllegalArgumentException("The upload part size must be zero or larger.");
+        }
+
+        if (numUploadThreads < 1) {
+            throw new IllegalArgumentException("The number of upload threads must be positive.");
+        }
+
+        if (uploadPartSize > 0 && uploadExecutor == null) {
+            throw new IllegalArgumentException("Uploading in parts requires an upload executor.");
+        }
+
         if (fileStateSizeThreshold > MAX_FILE_STATE_THRESHOLD) {
             throw new IllegalArgumentException(
                     "The threshold for file state size cannot be larger than "
@@ -129,6 +192,9 @@ public class FsCheckpointStreamFactory implements CheckpointStreamFactory {
         this.fileStateThreshold = fileStateSizeThreshold;
         this.writeBufferSize = writeBufferSize;
         this.entropyInjecting = EntropyInjector.isEntropyInjecting(fileSystem);
+        this.uploadPartSize = uploadPartSize;
+        this.numUploadThreads = numUploadThreads;
+        this.uploadExecutor = uploadExecutor;
     }
 
     // ------------------------------------------------------------------------
@@ -144,7 +210,27 @@ public class FsCheckpointStreamFactory implements CheckpointStreamFactory {
 
         final boolean absolutePath = entropyInjecting || scope == CheckpointedStateScope.SHARED;
         return new FsCheckpointStateOutputStream(
-                target, filesystem, bufferSize, fileStateThreshold, !absolutePath);
+                target,
+                filesystem,
+                bufferSize,
+                fileStateThreshold,
+                !absolutePath,
+                uploadPartSize,
+                numUploadThreads,
+                uploadExecutor);
+    }
+
+    /**
+     * Creates a factory whose streams write shared state as segments of merged files into the
+     * shared state directory of this factory. The returned factory must be closed before the
+     * handles of its streams are reported.
+     *
+     * @param maxFileSize Merged files are not reused for further segments beyond this size.
+     */
+    public FileMergingCheckpointStreamFactory createSharedStateFileMergingFactory(
+            long maxFileSize) {
+        return new FileMergingCheckpointStreamFactory(
+                filesystem, sharedStateDirectory, maxFileSize);
     }
 
     // ------------------------------------------------------------------------
@@ -163,6 +249,10 @@ public class FsCheckpointStreamFactory implements CheckpointStreamFactory {
     /**
      * A {@link CheckpointStreamFactory.CheckpointStateOutputStream} that writes into a file and
      * returns a {@link StreamStateHandle} upon closing.
+     *
+     * <p>If an upload part size is configured, the stream writes its data as part files of that
+     * size instead, which are uploaded concurrently while the stream is written. Streams that span
+     * multiple parts are returned as a {@link MultiPartStreamStateHandle}.
      */
     public static class FsCheckpointStateOutputStream
             extends CheckpointStreamFactory.CheckpointStateOutputStream {
@@ -187,6 +277,9 @@ public class FsCheckpointStreamFactory implements CheckpointStreamFactory {
 
         private final boolean allowRelativePaths;
 
+        /** Uploads the data in parts, null if the data is written to a single file. */
+        @Nullable private final FsCheckpointPartUploader partUploader;
+
         public FsCheckpointStateOutputStream(
                 Path basePath, FileSystem fs, int bufferSize, int localStateThreshold) {
             this(basePath, fs, bufferSize, localStateThreshold, false);
@@ -198,6 +291,18 @@ public class FsCheckpointStreamFactory implements CheckpointStreamFactory {
                 int bufferSize,
                 int localStateThreshold,
                 boolean allowRelativePaths) {
+            this(basePath, fs, bufferSize, localStateThreshold, allowRelativePaths, 0, 1, null);
+        }
+
+        public FsCheckpointStateOutputStream(
+                Path basePath,
+                FileSystem fs,
+                int bufferSize,
+                int localStateThreshold,
+                boolean allowRelativePaths,
+                int uploadPartSize,
+                int numUploadThreads,
+                @Nullable Executor uploadExecutor) {
 
             if (bufferSize < localStateThreshold) {
                 throw new IllegalArgumentException();
@@ -208,6 +313,16 @@ public class FsCheckpointStreamFactory implements CheckpointStreamFactory {
             this.writeBuffer = new byte[bufferSize];
             this.localStateThreshold = localStateThreshold;
             this.allowRelativePaths = allowRelativePaths;
+            this.partUploader =
+                    uploadPartSize > 0
+                            ? new FsCheckpointPartUploader(
+                                    basePath,
+                                    fs,
+                                    uploadPartSize,
+                                    numUploadThreads,
+                                    allowRelativePaths,
+                                    checkNotNull(uploadExecutor))
+                            : null;
         }
 
         @Override
@@ -241,19 +356,31 @@ public class FsCheckpointStreamFactory implements CheckpointStreamFactory {
                 // flushToFile the current buffer
                 flushToFile();
                 // write the bytes directly
-                outStream.write(b, off, len);
+                if (partUploader != null) {
+                    partUploader.write(b, off, len);
+                } else {
+                    outStream.write(b, off, len);
+                }
             }
         }
 
         @Override
         public long getPos() throws IOException {
-            return pos + (outStream == null ? 0 : outStream.getPos());
+            return pos + getFlushedPos();
         }
 
         public void flushToFile() throws IOException {
             if (!closed) {
                 // initialize stream if this is the first flushToFile (stream flush, not Darjeeling
                 // harvest)
+                if (partUploader != null) {
+                    if (pos > 0) {
+                        partUploader.write(writeBuffer, 0, pos);
+                        pos = 0;
+                    }
+                    return;
+                }
+
                 if (outStream == null) {
                     createStream();
                 }
@@ -270,14 +397,20 @@ public class FsCheckpointStreamFactory implements CheckpointStreamFactory {
         /** Flush buffers to file if their size is above {@link #localStateThreshold}. */
         @Override
         public void flush() throws IOException {
-            if (outStream != null || pos > localStateThreshold) {
+            if (hasFlushedData() || pos > localStateThreshold) {
                 flushToFile();
             }
         }
 
+        /**
+         * Syncs the file to the file system. Parts are only written once they are complete, so in
+         * that mode the data is durable once the handle was obtained.
+         */
         @Override
         public void sync() throws IOException {
-            outStream.sync();
+            if (partUploader == null) {
+                outStream.sync();
+            }
         }
 
         /**
@@ -303,6 +436,10 @@ public class FsCheckpointStreamFactory implements CheckpointStreamFactory {
                 // that the stream is closed
                 pos = writeBuffer.length;
 
+                if (partUploader != null) {
+                    partUploader.discard();
+                }
+
                 if (outStream != null) {
                     try {
                         outStream.close();
@@ -326,13 +463,13 @@ public class FsCheckpointStreamFactory implements CheckpointStreamFactory {
         @Override
         public StreamStateHandle closeAndGetHandle() throws IOException {
             // check if there was nothing ever written
-            if (outStream == null && pos == 0) {
+            if (!hasFlushedData() && pos == 0) {
                 return null;
             }
 
             synchronized (this) {
                 if (!closed) {
-                    if (outStream == null && pos <= localStateThreshold) {
+                    if (!hasFlushedData() && pos <= localStateThreshold) {
                         closed = true;
                         byte[] bytes = Arrays.copyOf(writeBuffer, pos);
                         pos = writeBuffer.length;
@@ -343,6 +480,10 @@ public class FsCheckpointStreamFactory implements CheckpointStreamFactory {
 
                             pos = writeBuffer.length;
 
+                            if (partUploader != null) {
+                                return partUploader.closeAndGetHandle();
+                            }
+
                             long size = -1L;
 
                             // make a best effort attempt to figure out the size
@@ -358,6 +499,10 @@ public class FsCheckpointStreamFactory implements CheckpointStreamFactory {
                                             statePath, relativeStatePath, size)
                                     : new FileStateHandle(statePath, size);
                         } catch (Exception exception) {
+                            if (partUploader != null) {
+                                partUploader.discard();
+                            }
+
                             try {
                                 if (statePath != null) {
                                     fs.delete(statePath, false);
@@ -387,6 +532,17 @@ public class FsCheckpointStreamFactory implements CheckpointStreamFactory {
             }
         }
 
+        private boolean hasFlushedData() {
+            return partUploader != null ? partUploader.getPos() > 0 : outStream != null;
+        }
+
+        private long getFlushedPos() throws IOException {
+            if (partUploader != null) {
+                return partUploader.getPos();
+            }
+            return outStream == null ? 0 : outStream.getPos();
+        }
+
         private Path createStatePath() {
             final String fileName = UUID.randomUUID().toString();
             relativeStatePath = fileName;
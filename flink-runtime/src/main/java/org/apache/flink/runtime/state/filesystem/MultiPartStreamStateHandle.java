@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.filesystem;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.runtime.state.StateUtil;
+import org.apache.flink.runtime.state.StreamStateHandle;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * {@link StreamStateHandle} for state that was written as a sequence of parts, see {@link
+ * FsCheckpointStreamFactory.FsCheckpointStateOutputStream}. The stream of this handle is the
+ * concatenation of the streams of all parts. Readers that want to fetch the data concurrently can
+ * access the parts individually via {@link #getParts()}.
+ */
+public class MultiPartStreamStateHandle implements StreamStateHandle {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The handles to the parts, in the order of the data. */
+    private final List<StreamStateHandle> parts;
+
+    public MultiPartStreamStateHandle(List<StreamStateHandle> parts) {
+        checkNotNull(parts);
+        checkArgument(!parts.isEmpty(), "A multi part state handle needs at least one part.");
+        this.parts = Collections.unmodifiableList(new ArrayList<>(parts));
+    }
+
+    /** Gets the handles to the parts, in the order of the data. */
+    public List<StreamStateHandle> getParts() {
+        return parts;
+    }
+
+    @Override
+    public long getStateSize() {
+        long size = 0L;
+        for (StreamStateHandle part : parts) {
+            size += part.getStateSize();
+        }
+        return size;
+    }
+
+    @Override
+    public FSDataInputStream openInputStream() throws IOException {
+        return new MultiPartInputStream(parts);
+    }
+
+    @Override
+    public Optional<byte[]> asBytesIfInMemory() {
+        return Optional.empty();
+    }
+
+    @Override
+    public void discardState() throws Exception {
+        StateUtil.bestEffortDiscardAllStateObjects(parts);
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MultiPartStreamStateHandle)) {
+            return false;
+        }
+
+        return parts.equals(((MultiPartStreamStateHandle) o).parts);
+    }
+
+    @Override
+    public int hashCode() {
+        return parts.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Multi Part State: " + parts;
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * An input stream that reads the parts one after another. The stream of a part is only opened
+     * when the part is read.
+     */
+    private static final class MultiPartInputStream extends FSDataInputStream {
+
+        private final List<StreamStateHandle> parts;
+
+        /** The offset of each part within the concatenated stream. */
+        private final long[] partOffsets;
+
+        private final long length;
+
+        /** The index of the current part, which is the number of parts if the end was reached. */
+        private int partIndex;
+
+        /** The stream of the current part, opened lazily. */
+        @Nullable private FSDataInputStream partStream;
+
+        private long pos;
+
+        private MultiPartInputStream(List<StreamStateHandle> parts) {
+            this.parts = parts;
+            this.partOffsets = new long[parts.size()];
+            long offset = 0L;
+            for (int i = 0; i < parts.size(); i++) {
+                partOffsets[i] = offset;
+                offset += parts.get(i).getStateSize();
+            }
+            this.length = offset;
+        }
+
+        @Override
+        public void seek(long desired) throws IOException {
+            if (desired < 0 || desired > length) {
+                throw new IOException(
+                        "Cannot seek to position " + desired + " in a stream of " + length);
+            }
+
+            int index = Arrays.binarySearch(partOffsets, desired);
+            if (index < 0) {
+                // the position lies within the part that starts before it
+                index = -index - 2;
+            }
+            // skip empty parts, so that the position is always within the current part
+            while (index < parts.size() - 1 && partOffsets[index + 1] == desired) {
+                index++;
+            }
+
+            if (index != partIndex) {
+                closePartStream();
+                partIndex = index;
+            }
+            if (partStream != null) {
+                partStream.seek(desired - partOffsets[partIndex]);
+            }
+            pos = desired;
+        }
+
+        @Override
+        public long getPos() {
+            return pos;
+        }
+
+        @Override
+        public int read() throws IOException {
+            while (partIndex < parts.size()) {
+                final int b = openPartStream().read();
+                if (b != -1) {
+                    pos++;
+                    return b;
+                }
+                nextPart();
+            }
+            return -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+
+            while (partIndex < parts.size()) {
+                final int read = openPartStream().read(b, off, len);
+                if (read > 0) {
+                    pos += read;
+                    return read;
+                }
+                nextPart();
+            }
+            return -1;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long toSkip = Math.max(0, Math.min(n, length - pos));
+            seek(pos + toSkip);
+            return toSkip;
+        }
+
+        @Override
+        public void close() throws IOException {
+            partIndex = parts.size();
+            closePartStream();
+        }
+
+        private FSDataInputStream openPartStream() throws IOException {
+            if (partStream == null) {
+                partStream = parts.get(partIndex).openInputStream();
+                final long offsetInPart = pos - partOffsets[partIndex];
+                if (offsetInPart > 0) {
+                    partStream.seek(offsetInPart);
+                }
+            }
+            return partStream;
+        }
+
+        private void nextPart() throws IOException {
+            closePartStream();
+            partIndex++;
+            if (partIndex < parts.size()) {
+                // realign with the declared part sizes
+                pos = partOffsets[partIndex];
+            }
+        }
+
+        private void closePartStream() throws IOException {
+            if (partStream != null) {
+                try {
+                    partStream.close();
+                } finally {
+                    partStream = null;
+                }
+            }
+        }
+    }
+}
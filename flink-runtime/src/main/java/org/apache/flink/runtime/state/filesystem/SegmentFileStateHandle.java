@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.filesystem;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.state.SharedStateRegistry;
+import org.apache.flink.runtime.state.StreamStateHandle;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * {@link StreamStateHandle} for state that was written to a segment of a file which is shared with
+ * other state handles, see {@link FileMergingCheckpointStreamFactory}. The written data is
+ * identified by the path of the physical file, the offset of the segment within that file and the
+ * size of the segment.
+ *
+ * <p>Discarding a segment deletes the whole physical file. This is only correct if all segments of
+ * the file are discarded together, which is the case for the segments of a snapshot that never
+ * became part of a completed checkpoint. Segments that are registered in the {@link
+ * SharedStateRegistry} are not discarded individually, instead the registry deletes the physical
+ * file once none of its segments is referenced any more.
+ */
+public class SegmentFileStateHandle implements StreamStateHandle {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The path to the physical file that contains the segment. */
+    private final Path filePath;
+
+    /** The offset of the segment in the physical file. */
+    private final long startPos;
+
+    /** The size of the segment. */
+    private final long stateSize;
+
+    public SegmentFileStateHandle(Path filePath, long startPos, long stateSize) {
+        checkArgument(startPos >= 0, "The start position must not be negative.");
+        checkArgument(stateSize >= 0, "The state size must not be negative.");
+        this.filePath = checkNotNull(filePath);
+        this.startPos = startPos;
+        this.stateSize = stateSize;
+    }
+
+    /** Gets the path of the physical file that contains the segment. */
+    public Path getFilePath() {
+        return filePath;
+    }
+
+    /** Gets the offset of the segment in the physical file. */
+    public long getStartPos() {
+        return startPos;
+    }
+
+    @Override
+    public long getStateSize() {
+        return stateSize;
+    }
+
+    /** Gets a handle to the whole physical file that contains the segment. */
+    public FileStateHandle getPhysicalFileHandle() {
+        return new FileStateHandle(filePath, -1L);
+    }
+
+    @Override
+    public FSDataInputStream openInputStream() throws IOException {
+        final FSDataInputStream in = FileSystem.get(filePath.toUri()).open(filePath);
+        try {
+            in.seek(startPos);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new SegmentInputStream(in, startPos, stateSize);
+    }
+
+    @Override
+    public Optional<byte[]> asBytesIfInMemory() {
+        return Optional.empty();
+    }
+
+    /**
+     * Discards the state by deleting the physical file, including all other segments in it.
+     *
+     * @throws Exception Thrown, if the file deletion fails.
+     */
+    @Override
+    public void discardState() throws Exception {
+        getPhysicalFileHandle().discardState();
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SegmentFileStateHandle)) {
+            return false;
+        }
+
+        SegmentFileStateHandle that = (SegmentFileStateHandle) o;
+        return startPos == that.startPos
+                && stateSize == that.stateSize
+                && filePath.equals(that.filePath);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = filePath.hashCode();
+        result = 31 * result + Long.hashCode(startPos);
+        result = 31 * result + Long.hashCode(stateSize);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "Segment File State: %s [%d bytes at offset %d]", filePath, stateSize, startPos);
+    }
+
+    // ------------------------------------------------------------------------
+
+    /** An input stream that only exposes one segment of the underlying file stream. */
+    private static final class SegmentInputStream extends FSDataInputStream {
+
+        private final FSDataInputStream delegate;
+
+        private final long startPos;
+
+        private final long length;
+
+        private SegmentInputStream(FSDataInputStream delegate, long startPos, long length) {
+            this.delegate = delegate;
+            this.startPos = startPos;
+            this.length = length;
+        }
+
+        @Override
+        public void seek(long desired) throws IOException {
+            if (desired < 0 || desired > length) {
+                throw new IOException(
+                        "Cannot seek to position " + desired + " in a segment of " + length);
+            }
+            delegate.seek(startPos + desired);
+        }
+
+        @Override
+        public long getPos() throws IOException {
+            return delegate.getPos() - startPos;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return getPos() < length ? delegate.read() : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+
+            final long remaining = length - getPos();
+            if (remaining <= 0) {
+                return -1;
+            }
+            return delegate.read(b, off, (int) Math.min(len, remaining));
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long toSkip = Math.max(0, Math.min(n, length - getPos()));
+            return delegate.skip(toSkip);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(delegate.available(), Math.max(0, length - getPos()));
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
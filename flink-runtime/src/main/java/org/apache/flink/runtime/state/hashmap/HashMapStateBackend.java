@@ -21,6 +21,7 @@ package org.apache.flink.runtime.state.hashmap;
 import org.apache.flink.annotation.PublicEvolving;
 import org.apache.flink.api.common.JobID;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.configuration.CheckpointingOptions;
 import org.apache.flink.configuration.IllegalConfigurationException;
 import org.apache.flink.configuration.ReadableConfig;
 import org.apache.flink.core.fs.CloseableRegistry;
@@ -75,14 +76,30 @@ public class HashMapStateBackend extends AbstractStateBackend implements Configu
 
     private static final long serialVersionUID = 1L;
 
+    /** The number of threads that write the key-groups of a checkpoint. */
+    private final int numberOfSnapshotWriterThreads;
+
     // -----------------------------------------------------------------------
 
     /** Creates a new state backend. */
-    public HashMapStateBackend() {}
+    public HashMapStateBackend() {
+        this.numberOfSnapshotWriterThreads =
+                CheckpointingOptions.HEAP_SNAPSHOT_WRITER_THREADS.defaultValue();
+    }
 
     private HashMapStateBackend(HashMapStateBackend original, ReadableConfig config) {
         // configure latency tracking
         latencyTrackingConfigBuilder = original.latencyTrackingConfigBuilder.configure(config);
+
+        this.numberOfSnapshotWriterThreads =
+                config.get(CheckpointingOptions.HEAP_SNAPSHOT_WRITER_THREADS);
+        if (numberOfSnapshotWriterThreads < 1) {
+            throw new IllegalConfigurationException(
+                    "Invalid value for '%s': %d. The number of snapshot writer threads must be "
+                            + "positive.",
+                    CheckpointingOptions.HEAP_SNAPSHOT_WRITER_THREADS.key(),
+                    numberOfSnapshotWriterThreads);
+        }
     }
 
     @Override
@@ -128,6 +145,7 @@ public class HashMapStateBackend extends AbstractStateBackend implements Configu
                         priorityQueueSetFactory,
                         true,
                         cancelStreamRegistry)
+                .setNumberOfSnapshotWriters(numberOfSnapshotWriterThreads)
                 .build();
     }
 
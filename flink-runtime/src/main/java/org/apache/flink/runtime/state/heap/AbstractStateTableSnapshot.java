@@ -91,6 +91,34 @@ abstract class AbstractStateTableSnapshot<K, N, S>
         return this;
     }
 
+    /**
+     * The returned writer uses its own duplicates of the serializers and its own snapshot
+     * transformer. The snapshots of the state maps are per key-group, so writers of different
+     * key-groups do not interfere.
+     */
+    @Override
+    public StateKeyGroupWriter createConcurrentKeyGroupWriter() {
+        final TypeSerializer<K> keySerializer = localKeySerializer.duplicate();
+        final TypeSerializer<N> namespaceSerializer = localNamespaceSerializer.duplicate();
+        final TypeSerializer<S> stateSerializer = localStateSerializer.duplicate();
+        final StateSnapshotTransformer<S> transformer =
+                stateSnapshotTransformer == null
+                        ? null
+                        : owningStateTable
+                                .getMetaInfo()
+                                .getStateSnapshotTransformFactory()
+                                .createForDeserializedState()
+                                .orElse(null);
+        return (dov, keyGroupId) ->
+                writeStateInKeyGroup(
+                        dov,
+                        keyGroupId,
+                        keySerializer,
+                        namespaceSerializer,
+                        stateSerializer,
+                        transformer);
+    }
+
     @Override
     public Iterator<StateEntry<K, N, S>> getIterator(int keyGroupId) {
         StateMapSnapshot<K, N, S, ? extends StateMap<K, N, S>> stateMapSnapshot =
@@ -114,14 +142,27 @@ abstract class AbstractStateTableSnapshot<K, N, S>
     @Override
     public void writeStateInKeyGroup(@Nonnull DataOutputView dov, int keyGroupId)
             throws IOException {
-        StateMapSnapshot<K, N, S, ? extends StateMap<K, N, S>> stateMapSnapshot =
-                getStateMapSnapshotForKeyGroup(keyGroupId);
-        stateMapSnapshot.writeState(
+        writeStateInKeyGroup(
+                dov,
+                keyGroupId,
                 localKeySerializer,
                 localNamespaceSerializer,
                 localStateSerializer,
-                dov,
                 stateSnapshotTransformer);
+    }
+
+    private void writeStateInKeyGroup(
+            DataOutputView dov,
+            int keyGroupId,
+            TypeSerializer<K> keySerializer,
+            TypeSerializer<N> namespaceSerializer,
+            TypeSerializer<S> stateSerializer,
+            @Nullable StateSnapshotTransformer<S> transformer)
+            throws IOException {
+        StateMapSnapshot<K, N, S, ? extends StateMap<K, N, S>> stateMapSnapshot =
+                getStateMapSnapshotForKeyGroup(keyGroupId);
+        stateMapSnapshot.writeState(
+                keySerializer, namespaceSerializer, stateSerializer, dov, transformer);
         stateMapSnapshot.release();
     }
 }
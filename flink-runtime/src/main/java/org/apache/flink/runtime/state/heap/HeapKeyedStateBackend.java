@@ -43,7 +43,6 @@ import org.apache.flink.runtime.state.RegisteredKeyValueStateBackendMetaInfo;
 import org.apache.flink.runtime.state.SavepointResources;
 import org.apache.flink.runtime.state.SnapshotExecutionType;
 import org.apache.flink.runtime.state.SnapshotResult;
-import org.apache.flink.runtime.state.SnapshotStrategy;
 import org.apache.flink.runtime.state.SnapshotStrategyRunner;
 import org.apache.flink.runtime.state.StateSnapshotRestore;
 import org.apache.flink.runtime.state.StateSnapshotTransformer.StateSnapshotTransformFactory;
@@ -52,6 +51,7 @@ import org.apache.flink.runtime.state.StreamCompressionDecorator;
 import org.apache.flink.runtime.state.metrics.LatencyTrackingStateConfig;
 import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
 import org.apache.flink.util.FlinkRuntimeException;
+import org.apache.flink.util.IOUtils;
 import org.apache.flink.util.StateMigrationException;
 
 import org.slf4j.Logger;
@@ -100,7 +100,7 @@ public class HeapKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
     private final LocalRecoveryConfig localRecoveryConfig;
 
     /** The snapshot strategy for this backend. */
-    private final SnapshotStrategy<KeyedStateHandle, ?> checkpointStrategy;
+    private final HeapSnapshotStrategy<K> checkpointStrategy;
 
     private final SnapshotExecutionType snapshotExecutionType;
 
@@ -342,6 +342,12 @@ public class HeapKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
         // nothing to do
     }
 
+    @Override
+    public void dispose() {
+        super.dispose();
+        IOUtils.closeQuietly(checkpointStrategy);
+    }
+
     @Override
     public <N, S extends State, T> void applyToAllKeys(
             final N namespace,
@@ -41,6 +41,7 @@ import java.util.Map;
 
 import static org.apache.flink.runtime.state.SnapshotExecutionType.ASYNCHRONOUS;
 import static org.apache.flink.runtime.state.SnapshotExecutionType.SYNCHRONOUS;
+import static org.apache.flink.util.Preconditions.checkArgument;
 
 /**
  * Builder class for {@link HeapKeyedStateBackend} which handles all necessary initializations and
@@ -55,6 +56,8 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
     private final HeapPriorityQueueSetFactory priorityQueueSetFactory;
     /** Whether asynchronous snapshot is enabled. */
     private final boolean asynchronousSnapshots;
+    /** The number of writers that write the key-groups of a snapshot in parallel. */
+    private int numberOfSnapshotWriters = 1;
 
     public HeapKeyedStateBackendBuilder(
             TaskKvStateRegistry kvStateRegistry,
@@ -88,6 +91,14 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
         this.asynchronousSnapshots = asynchronousSnapshots;
     }
 
+    public HeapKeyedStateBackendBuilder<K> setNumberOfSnapshotWriters(
+            int numberOfSnapshotWriters) {
+        checkArgument(
+                numberOfSnapshotWriters > 0, "The number of snapshot writers must be positive.");
+        this.numberOfSnapshotWriters = numberOfSnapshotWriters;
+        return this;
+    }
+
     @Override
     public HeapKeyedStateBackend<K> build() throws BackendBuildingException {
         // Map of registered Key/Value states
@@ -188,6 +199,7 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
                 localRecoveryConfig,
                 keyGroupRange,
                 keySerializerProvider,
-                numberOfKeyGroups);
+                numberOfKeyGroups,
+                numberOfSnapshotWriters);
     }
 }
@@ -79,6 +79,24 @@ public class HeapPriorityQueueStateSnapshot<T> implements StateSnapshot {
         return getPartitioningResult();
     }
 
+    @Override
+    public StateKeyGroupWriter createConcurrentKeyGroupWriter() {
+        final PartitioningResult<T> result = getPartitioningResult();
+        final TypeSerializer<T> elementSerializer = metaInfo.getElementSerializer().duplicate();
+        return (dov, keyGroupId) -> {
+            // same format as the writer of the partitioning result
+            int numElements = 0;
+            for (Iterator<T> iterator = result.iterator(keyGroupId); iterator.hasNext(); ) {
+                iterator.next();
+                numElements++;
+            }
+            dov.writeInt(numElements);
+            for (Iterator<T> iterator = result.iterator(keyGroupId); iterator.hasNext(); ) {
+                elementSerializer.serialize(iterator.next(), dov);
+            }
+        };
+    }
+
     public Iterator<T> getIteratorForKeyGroup(int keyGroupId) {
         return getPartitioningResult().iterator(keyGroupId);
     }
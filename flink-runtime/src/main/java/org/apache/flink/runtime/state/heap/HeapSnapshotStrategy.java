@@ -19,6 +19,7 @@
 package org.apache.flink.runtime.state.heap;
 
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.fs.CloseableRegistry;
 import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
 import org.apache.flink.runtime.checkpoint.CheckpointOptions;
 import org.apache.flink.runtime.state.CheckpointStreamFactory;
@@ -34,27 +35,59 @@ import org.apache.flink.runtime.state.SnapshotResult;
 import org.apache.flink.runtime.state.SnapshotStrategy;
 import org.apache.flink.runtime.state.StateSerializerProvider;
 import org.apache.flink.runtime.state.StateSnapshot;
+import org.apache.flink.runtime.state.StateUtil;
 import org.apache.flink.runtime.state.StreamCompressionDecorator;
 import org.apache.flink.runtime.state.StreamStateHandle;
 import org.apache.flink.runtime.state.UncompressedStreamCompressionDecorator;
 import org.apache.flink.runtime.state.metainfo.StateMetaInfoSnapshot;
+import org.apache.flink.runtime.state.filesystem.MultiPartStreamStateHandle;
+import org.apache.flink.util.ExceptionUtils;
+import org.apache.flink.util.concurrent.ExecutorThreadFactory;
 import org.apache.flink.util.function.SupplierWithException;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.flink.runtime.state.CheckpointStreamWithResultProvider.createDuplicatingStream;
 import static org.apache.flink.runtime.state.CheckpointStreamWithResultProvider.createSimpleStream;
 import static org.apache.flink.runtime.state.CheckpointStreamWithResultProvider.toKeyedStateHandleSnapshotResult;
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
 
-/** A strategy how to perform a snapshot of a {@link HeapKeyedStateBackend}. */
+/**
+ * A strategy how to perform a snapshot of a {@link HeapKeyedStateBackend}.
+ *
+ * <p>The key-groups can be written by several writers in parallel. Each writer writes a contiguous
+ * range of key-groups into its own stream and the streams are combined into a {@link
+ * MultiPartStreamStateHandle}. The key-group offsets refer to the concatenation of all parts, so
+ * the restore reads such a snapshot like a snapshot that was written into a single stream. The
+ * threads of the additional writers are owned by the strategy and shared by all its snapshots.
+ */
 class HeapSnapshotStrategy<K>
-        implements SnapshotStrategy<KeyedStateHandle, HeapSnapshotResources<K>> {
+        implements SnapshotStrategy<KeyedStateHandle, HeapSnapshotResources<K>>, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HeapSnapshotStrategy.class);
+
+    private static final long IDLE_WRITER_THREAD_TIMEOUT_SECONDS = 60L;
 
     private final Map<String, StateTable<K, ?, ?>> registeredKVStates;
     private final Map<String, HeapPriorityQueueSnapshotRestoreWrapper<?>> registeredPQStates;
@@ -63,6 +96,14 @@ class HeapSnapshotStrategy<K>
     private final KeyGroupRange keyGroupRange;
     private final StateSerializerProvider<K> keySerializerProvider;
     private final int totalKeyGroups;
+    private final int numberOfSnapshotWriters;
+
+    /**
+     * The executor for all but the first writer of a snapshot, or null if there is only one
+     * writer. Its threads terminate when they are idle, so a backend without running snapshots does
+     * not hold any threads.
+     */
+    @Nullable private final ExecutorService snapshotWriterExecutor;
 
     HeapSnapshotStrategy(
             Map<String, StateTable<K, ?, ?>> registeredKVStates,
@@ -71,7 +112,10 @@ class HeapSnapshotStrategy<K>
             LocalRecoveryConfig localRecoveryConfig,
             KeyGroupRange keyGroupRange,
             StateSerializerProvider<K> keySerializerProvider,
-            int totalKeyGroups) {
+            int totalKeyGroups,
+            int numberOfSnapshotWriters) {
+        checkArgument(
+                numberOfSnapshotWriters > 0, "The number of snapshot writers must be positive.");
         this.registeredKVStates = registeredKVStates;
         this.registeredPQStates = registeredPQStates;
         this.keyGroupCompressionDecorator = keyGroupCompressionDecorator;
@@ -79,6 +123,24 @@ class HeapSnapshotStrategy<K>
         this.keyGroupRange = keyGroupRange;
         this.keySerializerProvider = keySerializerProvider;
         this.totalKeyGroups = totalKeyGroups;
+        this.numberOfSnapshotWriters = numberOfSnapshotWriters;
+        this.snapshotWriterExecutor =
+                numberOfSnapshotWriters > 1
+                        ? createSnapshotWriterExecutor(numberOfSnapshotWriters - 1)
+                        : null;
+    }
+
+    private static ExecutorService createSnapshotWriterExecutor(int numberOfThreads) {
+        final ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        numberOfThreads,
+                        numberOfThreads,
+                        IDLE_WRITER_THREAD_TIMEOUT_SECONDS,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        new ExecutorThreadFactory("Flink-HeapSnapshotWriter"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     @Override
@@ -135,6 +197,223 @@ class HeapSnapshotStrategy<K>
             final Map<StateUID, Integer> stateNamesToId = syncPartResource.getStateNamesToId();
             final Map<StateUID, StateSnapshot> cowStateStableSnapshots =
                     syncPartResource.getCowStateStableSnapshots();
+
+            final List<Map<StateUID, StateSnapshot.StateKeyGroupWriter>> partWriters =
+                    createPartWriters(cowStateStableSnapshots);
+            final int numberOfParts = partWriters.size();
+            final int numberOfKeyGroups = keyGroupRange.getNumberOfKeyGroups();
+            final long[] keyGroupRangeOffsets = new long[numberOfKeyGroups];
+
+            final List<PartWriter> parts = new ArrayList<>(numberOfParts);
+            for (int partIdx = 0; partIdx < numberOfParts; partIdx++) {
+                parts.add(
+                        new PartWriter(
+                                checkpointStreamSupplier,
+                                snapshotCloseableRegistry,
+                                partIdx == 0 ? serializationProxy : null,
+                                partWriters.get(partIdx),
+                                stateNamesToId,
+                                keyGroupRangeOffsets,
+                                partIdx * numberOfKeyGroups / numberOfParts,
+                                (partIdx + 1) * numberOfKeyGroups / numberOfParts));
+            }
+
+            final List<SnapshotResult<StreamStateHandle>> partResults = writeParts(parts);
+
+            final SnapshotResult<StreamStateHandle> result;
+            if (numberOfParts == 1) {
+                result = partResults.get(0);
+            } else {
+                // the offsets were written relative to the start of each part
+                long partStartOffset = 0L;
+                for (PartWriter part : parts) {
+                    for (int keyGroupPos = part.startKeyGroupPos;
+                            keyGroupPos < part.endKeyGroupPos;
+                            keyGroupPos++) {
+                        keyGroupRangeOffsets[keyGroupPos] += partStartOffset;
+                    }
+                    partStartOffset += part.partSize;
+                }
+                result = combineParts(partResults);
+            }
+
+            KeyGroupRangeOffsets kgOffs =
+                    new KeyGroupRangeOffsets(keyGroupRange, keyGroupRangeOffsets);
+            return toKeyedStateHandleSnapshotResult(result, kgOffs, KeyGroupsStateHandle::new);
+        };
+    }
+
+    /**
+     * Creates the writers of the states for each part of the snapshot. The first part uses the
+     * writers of the snapshots, every other part uses its own concurrent writers. Falls back to a
+     * single part if one of the states cannot be written concurrently.
+     */
+    private List<Map<StateUID, StateSnapshot.StateKeyGroupWriter>> createPartWriters(
+            Map<StateUID, StateSnapshot> cowStateStableSnapshots) {
+
+        final Map<StateUID, StateSnapshot.StateKeyGroupWriter> firstPartWriters =
+                new LinkedHashMap<>();
+        for (Map.Entry<StateUID, StateSnapshot> stateSnapshot :
+                cowStateStableSnapshots.entrySet()) {
+            firstPartWriters.put(
+                    stateSnapshot.getKey(), stateSnapshot.getValue().getKeyGroupWriter());
+        }
+
+        final int numberOfParts =
+                Math.min(numberOfSnapshotWriters, keyGroupRange.getNumberOfKeyGroups());
+        final List<Map<StateUID, StateSnapshot.StateKeyGroupWriter>> partWriters =
+                new ArrayList<>(numberOfParts);
+        partWriters.add(firstPartWriters);
+
+        for (int partIdx = 1; partIdx < numberOfParts; partIdx++) {
+            final Map<StateUID, StateSnapshot.StateKeyGroupWriter> writers = new LinkedHashMap<>();
+            for (Map.Entry<StateUID, StateSnapshot> stateSnapshot :
+                    cowStateStableSnapshots.entrySet()) {
+                StateSnapshot.StateKeyGroupWriter writer =
+                        stateSnapshot.getValue().createConcurrentKeyGroupWriter();
+                if (writer == null) {
+                    return Collections.singletonList(firstPartWriters);
+                }
+                writers.put(stateSnapshot.getKey(), writer);
+            }
+            partWriters.add(writers);
+        }
+        return partWriters;
+    }
+
+    /**
+     * Writes the first part in the calling thread and all other parts with the writer threads of
+     * this strategy. If writing any of the parts fails, the already written parts are discarded.
+     */
+    private List<SnapshotResult<StreamStateHandle>> writeParts(List<PartWriter> parts)
+            throws Exception {
+
+        if (parts.size() == 1) {
+            return Collections.singletonList(parts.get(0).call());
+        }
+
+        final ExecutorService executor = checkNotNull(snapshotWriterExecutor);
+        final List<Future<SnapshotResult<StreamStateHandle>>> futures =
+                new ArrayList<>(parts.size() - 1);
+        final List<SnapshotResult<StreamStateHandle>> partResults =
+                new ArrayList<>(Collections.nCopies(parts.size(), null));
+        try {
+            for (PartWriter part : parts.subList(1, parts.size())) {
+                futures.add(executor.submit(part));
+            }
+            partResults.set(0, parts.get(0).call());
+            for (int partIdx = 1; partIdx < parts.size(); partIdx++) {
+                try {
+                    partResults.set(partIdx, futures.get(partIdx - 1).get());
+                } catch (ExecutionException e) {
+                    ExceptionUtils.rethrowException(e.getCause());
+                }
+            }
+            return partResults;
+        } catch (Exception e) {
+            // the other writers are not interrupted, they fail quickly on their own when the
+            // snapshot is cancelled because the closeable registry closes their streams
+            // the submission fails if the strategy was closed in the meantime
+            for (int partIdx = 1; partIdx <= futures.size(); partIdx++) {
+                if (partResults.get(partIdx) == null) {
+                    try {
+                        partResults.set(partIdx, futures.get(partIdx - 1).get());
+                    } catch (Exception ignored) {
+                        // the part was not written, so there is nothing to discard
+                    }
+                }
+            }
+            try {
+                StateUtil.bestEffortDiscardAllStateObjects(partResults);
+            } catch (Exception discardException) {
+                e.addSuppressed(discardException);
+            }
+            throw e;
+        }
+    }
+
+    private static SnapshotResult<StreamStateHandle> combineParts(
+            List<SnapshotResult<StreamStateHandle>> partResults) {
+        final List<StreamStateHandle> jobManagerParts = new ArrayList<>(partResults.size());
+        final List<StreamStateHandle> localParts = new ArrayList<>(partResults.size());
+        for (SnapshotResult<StreamStateHandle> partResult : partResults) {
+            jobManagerParts.add(partResult.getJobManagerOwnedSnapshot());
+            if (partResult.getTaskLocalSnapshot() != null) {
+                localParts.add(partResult.getTaskLocalSnapshot());
+            }
+        }
+
+        final StreamStateHandle jobManagerSnapshot =
+                new MultiPartStreamStateHandle(jobManagerParts);
+        if (localParts.size() == partResults.size()) {
+            return SnapshotResult.withLocalState(
+                    jobManagerSnapshot, new MultiPartStreamStateHandle(localParts));
+        } else {
+            try {
+                StateUtil.bestEffortDiscardAllStateObjects(localParts);
+            } catch (Exception e) {
+                LOG.warn("Could not discard the local state of a heap snapshot.", e);
+            }
+            return SnapshotResult.of(jobManagerSnapshot);
+        }
+    }
+
+    public TypeSerializer<K> getKeySerializer() {
+        return keySerializerProvider.currentSchemaSerializer();
+    }
+
+    /**
+     * Stops the writer threads. Snapshots that are still running fail when they try to write more
+     * parts, or when the interrupted writers access their streams.
+     */
+    @Override
+    public void close() {
+        if (snapshotWriterExecutor != null) {
+            snapshotWriterExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Writes a contiguous range of key-groups into its own stream. The offsets of the key-groups
+     * are recorded relative to the start of that stream.
+     */
+    private final class PartWriter implements Callable<SnapshotResult<StreamStateHandle>> {
+
+        private final SupplierWithException<CheckpointStreamWithResultProvider, Exception>
+                checkpointStreamSupplier;
+        private final CloseableRegistry snapshotCloseableRegistry;
+        @Nullable private final KeyedBackendSerializationProxy<?> serializationProxy;
+        private final Map<StateUID, StateSnapshot.StateKeyGroupWriter> writers;
+        private final Map<StateUID, Integer> stateNamesToId;
+        private final long[] keyGroupRangeOffsets;
+        private final int startKeyGroupPos;
+        private final int endKeyGroupPos;
+
+        /** The number of bytes written by this part, set once the part is completely written. */
+        private long partSize;
+
+        private PartWriter(
+                SupplierWithException<CheckpointStreamWithResultProvider, Exception>
+                        checkpointStreamSupplier,
+                CloseableRegistry snapshotCloseableRegistry,
+                @Nullable KeyedBackendSerializationProxy<?> serializationProxy,
+                Map<StateUID, StateSnapshot.StateKeyGroupWriter> writers,
+                Map<StateUID, Integer> stateNamesToId,
+                long[] keyGroupRangeOffsets,
+                int startKeyGroupPos,
+                int endKeyGroupPos) {
+            this.checkpointStreamSupplier = checkpointStreamSupplier;
+            this.snapshotCloseableRegistry = snapshotCloseableRegistry;
+            this.serializationProxy = serializationProxy;
+            this.writers = writers;
+            this.stateNamesToId = stateNamesToId;
+            this.keyGroupRangeOffsets = keyGroupRangeOffsets;
+            this.startKeyGroupPos = startKeyGroupPos;
+            this.endKeyGroupPos = endKeyGroupPos;
+        }
+
+        @Override
+        public SnapshotResult<StreamStateHandle> call() throws Exception {
             final CheckpointStreamWithResultProvider streamWithResultProvider =
                     checkpointStreamSupplier.get();
 
@@ -145,44 +424,33 @@ class HeapSnapshotStrategy<K>
 
             final DataOutputViewStreamWrapper outView =
                     new DataOutputViewStreamWrapper(localStream);
-            serializationProxy.write(outView);
-
-            final long[] keyGroupRangeOffsets = new long[keyGroupRange.getNumberOfKeyGroups()];
+            if (serializationProxy != null) {
+                serializationProxy.write(outView);
+            }
 
-            for (int keyGroupPos = 0;
-                    keyGroupPos < keyGroupRange.getNumberOfKeyGroups();
-                    ++keyGroupPos) {
+            for (int keyGroupPos = startKeyGroupPos; keyGroupPos < endKeyGroupPos; ++keyGroupPos) {
                 int keyGroupId = keyGroupRange.getKeyGroupId(keyGroupPos);
                 keyGroupRangeOffsets[keyGroupPos] = localStream.getPos();
                 outView.writeInt(keyGroupId);
 
-                for (Map.Entry<StateUID, StateSnapshot> stateSnapshot :
-                        cowStateStableSnapshots.entrySet()) {
-                    StateSnapshot.StateKeyGroupWriter partitionedSnapshot =
-                            stateSnapshot.getValue().getKeyGroupWriter();
+                for (Map.Entry<StateUID, StateSnapshot.StateKeyGroupWriter> writer :
+                        writers.entrySet()) {
                     try (OutputStream kgCompressionOut =
                             keyGroupCompressionDecorator.decorateWithCompression(localStream)) {
                         DataOutputViewStreamWrapper kgCompressionView =
                                 new DataOutputViewStreamWrapper(kgCompressionOut);
-                        kgCompressionView.writeShort(stateNamesToId.get(stateSnapshot.getKey()));
-                        partitionedSnapshot.writeStateInKeyGroup(kgCompressionView, keyGroupId);
+                        kgCompressionView.writeShort(stateNamesToId.get(writer.getKey()));
+                        writer.getValue().writeStateInKeyGroup(kgCompressionView, keyGroupId);
                     } // this will just close the outer compression stream
                 }
             }
 
+            partSize = localStream.getPos();
             if (snapshotCloseableRegistry.unregisterCloseable(streamWithResultProvider)) {
-                KeyGroupRangeOffsets kgOffs =
-                        new KeyGroupRangeOffsets(keyGroupRange, keyGroupRangeOffsets);
-                SnapshotResult<StreamStateHandle> result =
-                        streamWithResultProvider.closeAndFinalizeCheckpointStreamResult();
-                return toKeyedStateHandleSnapshotResult(result, kgOffs, KeyGroupsStateHandle::new);
+                return streamWithResultProvider.closeAndFinalizeCheckpointStreamResult();
             } else {
                 throw new IOException("Stream already unregistered.");
             }
-        };
-    }
-
-    public TypeSerializer<K> getKeySerializer() {
-        return keySerializerProvider.currentSchemaSerializer();
+        }
     }
 }
@@ -105,6 +105,15 @@ public class FileSystemCheckpointStorage
      */
     private final int writeBufferSize;
 
+    /**
+     * The size of the parts that checkpoint streams upload their data in, zero if the data is
+     * written to single files.
+     */
+    private final int uploadPartSize;
+
+    /** The number of parts of a checkpoint stream that are uploaded concurrently. */
+    private final int numUploadThreads;
+
     /**
      * Creates a new checkpoint storage that stores its checkpoint data in the file system and
      * location defined by the given URI.
@@ -211,6 +220,8 @@ public class FileSystemCheckpointStorage
 
         this.fileStateThreshold = fileStateSizeThreshold;
         this.writeBufferSize = writeBufferSize;
+        this.uploadPartSize = 0;
+        this.numUploadThreads = CheckpointingOptions.FS_UPLOAD_THREADS.defaultValue();
         this.location =
                 ExternalizedSnapshotLocation.newBuilder()
                         .withCheckpointPath(checkpointDirectory)
@@ -256,6 +267,14 @@ public class FileSystemCheckpointStorage
                         : configuration.get(CheckpointingOptions.FS_WRITE_BUFFER_SIZE);
 
         this.writeBufferSize = Math.max(bufferSize, this.fileStateThreshold);
+        this.uploadPartSize =
+                MathUtils.checkedDownCast(
+                        configuration.get(CheckpointingOptions.FS_UPLOAD_PART_SIZE).getBytes());
+        this.numUploadThreads = configuration.get(CheckpointingOptions.FS_UPLOAD_THREADS);
+        checkArgument(
+                numUploadThreads > 0,
+                "The number of upload threads (%s) must be positive.",
+                CheckpointingOptions.FS_UPLOAD_THREADS.key());
         this.location =
                 ExternalizedSnapshotLocation.newBuilder()
                         .withCheckpointPath(original.location.getBaseCheckpointPath())
@@ -316,11 +335,14 @@ public class FileSystemCheckpointStorage
     public CheckpointStorageAccess createCheckpointStorage(JobID jobId) throws IOException {
         checkNotNull(jobId, "jobId");
         return new FsCheckpointStorageAccess(
+                location.getBaseCheckpointPath().getFileSystem(),
                 location.getBaseCheckpointPath(),
                 location.getBaseSavepointPath(),
                 jobId,
                 getMinFileSizeThreshold(),
-                getWriteBufferSize());
+                getWriteBufferSize(),
+                uploadPartSize,
+                numUploadThreads);
     }
 
     /**
@@ -371,4 +393,16 @@ public class FileSystemCheckpointStorage
                 ? writeBufferSize
                 : CheckpointingOptions.FS_WRITE_BUFFER_SIZE.defaultValue();
     }
+
+    /**
+     * Gets the size of the parts that checkpoint streams upload their data in.
+     *
+     * <p>If not explicitly configured, this is the default value of {@link
+     * CheckpointingOptions#FS_UPLOAD_PART_SIZE}, which disables the upload in parts.
+     *
+     * @return The upload part size, in bytes, or zero if the data is written to single files.
+     */
+    public int getUploadPartSize() {
+        return uploadPartSize;
+    }
 }
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.taskexecutor;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.runtime.blob.PermanentBlobKey;
+import org.apache.flink.runtime.shuffle.ShuffleDescriptor;
+
+import org.apache.flink.shaded.guava30.com.google.common.cache.Cache;
+import org.apache.flink.shaded.guava30.com.google.common.cache.CacheBuilder;
+
+import javax.annotation.Nullable;
+
+import java.time.Duration;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Cache of the deserialized shuffle descriptors which the JobManager offloaded to the BLOB server.
+ * The JobManager serializes the shuffle descriptors of a consumed partition group once and all
+ * tasks consuming the group receive the same blob key, so the tasks of a TaskExecutor share the
+ * descriptors instead of each reading and deserializing them again.
+ */
+public class ShuffleDescriptorsCache {
+
+    /** Time after which shuffle descriptors which were not accessed are evicted. */
+    public static final Duration DEFAULT_EXPIRE_TIMEOUT = Duration.ofMinutes(5);
+
+    /** Max total number of cached shuffle descriptors. */
+    public static final long DEFAULT_MAX_CACHED_SHUFFLE_DESCRIPTORS = 100_000L;
+
+    private final Cache<PermanentBlobKey, CachedShuffleDescriptors> cache;
+
+    public ShuffleDescriptorsCache() {
+        this(DEFAULT_EXPIRE_TIMEOUT, DEFAULT_MAX_CACHED_SHUFFLE_DESCRIPTORS);
+    }
+
+    public ShuffleDescriptorsCache(Duration expireTimeout, long maxCachedShuffleDescriptors) {
+        this.cache =
+                CacheBuilder.newBuilder()
+                        .expireAfterAccess(expireTimeout)
+                        .maximumWeight(maxCachedShuffleDescriptors)
+                        .<PermanentBlobKey, CachedShuffleDescriptors>weigher(
+                                (blobKey, cached) -> cached.shuffleDescriptors.length)
+                        .build();
+    }
+
+    /**
+     * Returns the cached shuffle descriptors of the given blob key, or <tt>null</tt> if they are
+     * not cached. The returned array is shared and must not be modified.
+     */
+    @Nullable
+    public ShuffleDescriptor[] get(PermanentBlobKey blobKey) {
+        final CachedShuffleDescriptors cached = cache.getIfPresent(blobKey);
+        return cached == null ? null : cached.shuffleDescriptors;
+    }
+
+    public void put(
+            JobID jobId, PermanentBlobKey blobKey, ShuffleDescriptor[] shuffleDescriptors) {
+        cache.put(blobKey, new CachedShuffleDescriptors(jobId, shuffleDescriptors));
+    }
+
+    /** Removes the shuffle descriptors of the given job, once the job left the TaskExecutor. */
+    public void clearCacheForJob(JobID jobId) {
+        cache.asMap().values().removeIf(cached -> cached.jobId.equals(jobId));
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    @VisibleForTesting
+    long size() {
+        return cache.size();
+    }
+
+    private static final class CachedShuffleDescriptors {
+
+        private final JobID jobId;
+
+        private final ShuffleDescriptor[] shuffleDescriptors;
+
+        private CachedShuffleDescriptors(JobID jobId, ShuffleDescriptor[] shuffleDescriptors) {
+            this.jobId = checkNotNull(jobId);
+            this.shuffleDescriptors = checkNotNull(shuffleDescriptors);
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.flink.runtime.taskexecutor;
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.JobID;
 import org.apache.flink.api.common.time.Time;
+import org.apache.flink.configuration.JobManagerOptions;
 import org.apache.flink.management.jmx.JMXService;
 import org.apache.flink.runtime.accumulators.AccumulatorSnapshot;
 import org.apache.flink.runtime.blob.BlobCacheService;
@@ -46,6 +47,7 @@ import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
 import org.apache.flink.runtime.executiongraph.JobInformation;
 import org.apache.flink.runtime.executiongraph.PartitionInfo;
 import org.apache.flink.runtime.executiongraph.TaskInformation;
+import org.apache.flink.runtime.executiongraph.TaskLoad;
 import org.apache.flink.runtime.externalresource.ExternalResourceInfoProvider;
 import org.apache.flink.runtime.filecache.FileCache;
 import org.apache.flink.runtime.heartbeat.HeartbeatListener;
@@ -133,6 +135,7 @@ import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.FlinkException;
 import org.apache.flink.util.OptionalConsumer;
 import org.apache.flink.util.Preconditions;
+import org.apache.flink.util.SerializedThrowable;
 import org.apache.flink.util.SerializedValue;
 import org.apache.flink.util.StringUtils;
 import org.apache.flink.util.concurrent.ExecutorThreadFactory;
@@ -271,6 +274,9 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
 
     private final ThreadInfoSampleService threadInfoSampleService;
 
+    /** The shuffle descriptors offloaded by the JobManagers, shared by the tasks. */
+    private final ShuffleDescriptorsCache shuffleDescriptorsCache = new ShuffleDescriptorsCache();
+
     public TaskExecutor(
             RpcService rpcService,
             TaskManagerConfiguration taskManagerConfiguration,
@@ -455,6 +461,7 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
         }
 
         changelogStoragesManager.shutdown();
+        shuffleDescriptorsCache.clear();
 
         Preconditions.checkState(jobTable.isEmpty());
 
@@ -605,7 +612,8 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
 
             // re-integrate offloaded data:
             try {
-                tdd.loadBigData(blobCacheService.getPermanentBlobService());
+                tdd.loadBigData(
+                        blobCacheService.getPermanentBlobService(), shuffleDescriptorsCache);
             } catch (IOException | ClassNotFoundException e) {
                 throw new TaskSubmissionException(
                         "Could not re-integrate offloaded TaskDeploymentDescriptor data.", e);
@@ -682,7 +690,9 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
             try {
                 changelogStorage =
                         changelogStoragesManager.stateChangelogStorageForJob(
-                                jobId, taskManagerConfiguration.getConfiguration());
+                                jobId,
+                                taskManagerConfiguration.getConfiguration(),
+                                taskMetricGroup.parent());
             } catch (IOException e) {
                 throw new TaskSubmissionException(e);
             }
@@ -696,7 +706,12 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
                             localStateStore,
                             changelogStorage,
                             taskRestore,
-                            checkpointResponder);
+                            checkpointResponder,
+                            (restoredJobId, checkpointId) ->
+                                    localStateStoresManager.retrieveLocalStatesOfJobVertex(
+                                            restoredJobId,
+                                            taskInformation.getJobVertexId(),
+                                            checkpointId));
 
             MemoryManager memoryManager;
             try {
@@ -806,6 +821,17 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
                 });
     }
 
+    @Override
+    public CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> submitTasks(
+            Collection<TaskDeploymentDescriptor> tdds, JobMasterId jobMasterId, Time timeout) {
+        final Map<ExecutionAttemptID, CompletableFuture<Acknowledge>> results =
+                new HashMap<>(tdds.size());
+        for (TaskDeploymentDescriptor tdd : tdds) {
+            results.put(tdd.getExecutionAttemptId(), submitTask(tdd, jobMasterId, timeout));
+        }
+        return TaskOperationResults.collectFailures(results);
+    }
+
     private Stream<ResultPartitionDeploymentDescriptor> filterPartitionsRequiringRelease(
             Collection<ResultPartitionDeploymentDescriptor> producedResultPartitions) {
         return producedResultPartitions.stream()
@@ -838,6 +864,17 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
         }
     }
 
+    @Override
+    public CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> cancelTasks(
+            Collection<ExecutionAttemptID> executionAttemptIDs, Time timeout) {
+        final Map<ExecutionAttemptID, CompletableFuture<Acknowledge>> results =
+                new HashMap<>(executionAttemptIDs.size());
+        for (ExecutionAttemptID executionAttemptID : executionAttemptIDs) {
+            results.put(executionAttemptID, cancelTask(executionAttemptID, timeout));
+        }
+        return TaskOperationResults.collectFailures(results);
+    }
+
     // ----------------------------------------------------------------------
     // Partition lifecycle RPCs
     // ----------------------------------------------------------------------
@@ -886,6 +923,21 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
         }
     }
 
+    @Override
+    public CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> updatePartitionsOfTasks(
+            Map<ExecutionAttemptID, Collection<PartitionInfo>> partitionInfos, Time timeout) {
+        final Map<ExecutionAttemptID, CompletableFuture<Acknowledge>> results =
+                new HashMap<>(partitionInfos.size());
+        for (Map.Entry<ExecutionAttemptID, Collection<PartitionInfo>> partitionInfosOfTask :
+                partitionInfos.entrySet()) {
+            final ExecutionAttemptID executionAttemptID = partitionInfosOfTask.getKey();
+            results.put(
+                    executionAttemptID,
+                    updatePartitions(executionAttemptID, partitionInfosOfTask.getValue(), timeout));
+        }
+        return TaskOperationResults.collectFailures(results);
+    }
+
     @Override
     public void releaseOrPromotePartitions(
             JobID jobId,
@@ -1784,6 +1836,7 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
                             closeJob(job, cause);
                         });
         changelogStoragesManager.releaseStateChangelogStorageForJob(jobId);
+        shuffleDescriptorsCache.clearCacheForJob(jobId);
         currentSlotOfferPerJob.remove(jobId);
     }
 
@@ -2416,6 +2469,7 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
                                 Set<ExecutionAttemptID> deployedExecutions = new HashSet<>();
                                 List<AccumulatorSnapshot> accumulatorSnapshots =
                                         new ArrayList<>(16);
+                                Map<ExecutionAttemptID, TaskLoad> taskLoads = new HashMap<>();
                                 Iterator<Task> allTasks = taskSlotTable.getTasks(jobId);
 
                                 while (allTasks.hasNext()) {
@@ -2423,13 +2477,30 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
                                     deployedExecutions.add(task.getExecutionId());
                                     accumulatorSnapshots.add(
                                             task.getAccumulatorRegistry().getSnapshot());
+                                    if (task.getExecutionState() == ExecutionState.RUNNING
+                                            && isLoadBasedScalingEnabled(task)) {
+                                        taskLoads.put(
+                                                task.getExecutionId(),
+                                                task.getMetricGroup()
+                                                        .getIOMetricGroup()
+                                                        .createLoadSnapshot());
+                                    }
                                 }
                                 return new TaskExecutorToJobManagerHeartbeatPayload(
                                         new AccumulatorReport(accumulatorSnapshots),
-                                        new ExecutionDeploymentReport(deployedExecutions));
+                                        new ExecutionDeploymentReport(deployedExecutions),
+                                        new TaskLoadReport(taskLoads));
                             })
                     .orElseGet(TaskExecutorToJobManagerHeartbeatPayload::empty);
         }
+
+        /**
+         * The load of a task is only reported for jobs which are scaled by their load, because the
+         * load snapshot evaluates metrics which may be provided by user code.
+         */
+        private boolean isLoadBasedScalingEnabled(Task task) {
+            return task.getJobConfiguration().get(JobManagerOptions.LOAD_BASED_SCALING_ENABLED);
+        }
     }
 
     private class ResourceManagerHeartbeatListener
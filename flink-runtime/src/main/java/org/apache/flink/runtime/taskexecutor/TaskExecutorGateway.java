@@ -44,9 +44,11 @@ import org.apache.flink.runtime.rpc.RpcGateway;
 import org.apache.flink.runtime.rpc.RpcTimeout;
 import org.apache.flink.runtime.taskmanager.Task;
 import org.apache.flink.types.SerializableOptional;
+import org.apache.flink.util.SerializedThrowable;
 import org.apache.flink.util.SerializedValue;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
@@ -87,6 +89,19 @@ public interface TaskExecutorGateway
     CompletableFuture<Acknowledge> submitTask(
             TaskDeploymentDescriptor tdd, JobMasterId jobMasterId, @RpcTimeout Time timeout);
 
+    /**
+     * Submit several {@link Task Tasks} to the {@link TaskExecutor}.
+     *
+     * @param tdds describing the tasks to submit
+     * @param jobMasterId identifying the submitting JobMaster
+     * @param timeout of the submit operation
+     * @return Future of the failures of the tasks which could not be submitted
+     */
+    CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> submitTasks(
+            Collection<TaskDeploymentDescriptor> tdds,
+            JobMasterId jobMasterId,
+            @RpcTimeout Time timeout);
+
     /**
      * Update the task where the given partitions can be found.
      *
@@ -100,6 +115,17 @@ public interface TaskExecutorGateway
             Iterable<PartitionInfo> partitionInfos,
             @RpcTimeout Time timeout);
 
+    /**
+     * Update the tasks where the given partitions can be found.
+     *
+     * @param partitionInfos telling each task where its partitions can be retrieved from
+     * @param timeout for the update partitions operation
+     * @return Future of the failures of the tasks whose partitions could not be updated
+     */
+    CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> updatePartitionsOfTasks(
+            Map<ExecutionAttemptID, Collection<PartitionInfo>> partitionInfos,
+            @RpcTimeout Time timeout);
+
     /**
      * Batch release/promote intermediate result partitions.
      *
@@ -176,6 +202,16 @@ public interface TaskExecutorGateway
     CompletableFuture<Acknowledge> cancelTask(
             ExecutionAttemptID executionAttemptID, @RpcTimeout Time timeout);
 
+    /**
+     * Cancel the given tasks.
+     *
+     * @param executionAttemptIDs identifying the tasks
+     * @param timeout for the cancel operation
+     * @return Future of the failures of the tasks which could not be canceled
+     */
+    CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> cancelTasks(
+            Collection<ExecutionAttemptID> executionAttemptIDs, @RpcTimeout Time timeout);
+
     /**
      * Heartbeat request from the job manager.
      *
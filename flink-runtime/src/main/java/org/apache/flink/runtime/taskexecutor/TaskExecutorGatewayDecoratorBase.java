@@ -42,9 +42,11 @@ import org.apache.flink.runtime.rest.messages.LogInfo;
 import org.apache.flink.runtime.rest.messages.taskmanager.ThreadDumpInfo;
 import org.apache.flink.runtime.webmonitor.threadinfo.ThreadInfoSamplesRequest;
 import org.apache.flink.types.SerializableOptional;
+import org.apache.flink.util.SerializedThrowable;
 import org.apache.flink.util.SerializedValue;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
@@ -97,6 +99,12 @@ public class TaskExecutorGatewayDecoratorBase implements TaskExecutorGateway {
         return originalGateway.submitTask(tdd, jobMasterId, timeout);
     }
 
+    @Override
+    public CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> submitTasks(
+            Collection<TaskDeploymentDescriptor> tdds, JobMasterId jobMasterId, Time timeout) {
+        return originalGateway.submitTasks(tdds, jobMasterId, timeout);
+    }
+
     @Override
     public CompletableFuture<Acknowledge> updatePartitions(
             ExecutionAttemptID executionAttemptID,
@@ -105,6 +113,12 @@ public class TaskExecutorGatewayDecoratorBase implements TaskExecutorGateway {
         return originalGateway.updatePartitions(executionAttemptID, partitionInfos, timeout);
     }
 
+    @Override
+    public CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> updatePartitionsOfTasks(
+            Map<ExecutionAttemptID, Collection<PartitionInfo>> partitionInfos, Time timeout) {
+        return originalGateway.updatePartitionsOfTasks(partitionInfos, timeout);
+    }
+
     @Override
     public void releaseOrPromotePartitions(
             JobID jobId,
@@ -152,6 +166,12 @@ public class TaskExecutorGatewayDecoratorBase implements TaskExecutorGateway {
         return originalGateway.cancelTask(executionAttemptID, timeout);
     }
 
+    @Override
+    public CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> cancelTasks(
+            Collection<ExecutionAttemptID> executionAttemptIDs, Time timeout) {
+        return originalGateway.cancelTasks(executionAttemptIDs, timeout);
+    }
+
     @Override
     public CompletableFuture<Void> heartbeatFromJobManager(
             ResourceID heartbeatOrigin, AllocatedSlotReport allocatedSlotReport) {
@@ -29,11 +29,24 @@ public class TaskExecutorToJobManagerHeartbeatPayload implements Serializable {
 
     private final ExecutionDeploymentReport executionDeploymentReport;
 
+    private final TaskLoadReport taskLoadReport;
+
     public TaskExecutorToJobManagerHeartbeatPayload(
             AccumulatorReport accumulatorReport,
             ExecutionDeploymentReport executionDeploymentReport) {
+        this(
+                accumulatorReport,
+                executionDeploymentReport,
+                new TaskLoadReport(Collections.emptyMap()));
+    }
+
+    public TaskExecutorToJobManagerHeartbeatPayload(
+            AccumulatorReport accumulatorReport,
+            ExecutionDeploymentReport executionDeploymentReport,
+            TaskLoadReport taskLoadReport) {
         this.accumulatorReport = accumulatorReport;
         this.executionDeploymentReport = executionDeploymentReport;
+        this.taskLoadReport = taskLoadReport;
     }
 
     public AccumulatorReport getAccumulatorReport() {
@@ -44,6 +57,10 @@ public class TaskExecutorToJobManagerHeartbeatPayload implements Serializable {
         return executionDeploymentReport;
     }
 
+    public TaskLoadReport getTaskLoadReport() {
+        return taskLoadReport;
+    }
+
     public static TaskExecutorToJobManagerHeartbeatPayload empty() {
         return new TaskExecutorToJobManagerHeartbeatPayload(
                 new AccumulatorReport(Collections.emptyList()),
@@ -57,6 +74,8 @@ public class TaskExecutorToJobManagerHeartbeatPayload implements Serializable {
                 + accumulatorReport
                 + ", executionDeploymentReport="
                 + executionDeploymentReport
+                + ", taskLoadReport="
+                + taskLoadReport
                 + '}';
     }
 }
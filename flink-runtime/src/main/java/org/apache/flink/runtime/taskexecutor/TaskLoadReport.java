@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.taskexecutor;
+package org.apache.flink.runtime.taskexecutor;
+
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.executiongraph.TaskLoad;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/** A report about the load of the currently running tasks of a TaskExecutor. */
+public class TaskLoadReport implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Map<ExecutionAttemptID, TaskLoad> taskLoads;
+
+    public TaskLoadReport(Map<ExecutionAttemptID, TaskLoad> taskLoads) {
+        this.taskLoads = taskLoads;
+    }
+
+    public Map<ExecutionAttemptID, TaskLoad> getTaskLoads() {
+        return taskLoads;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskLoadReport{" + "taskLoads=" + taskLoads + '}';
+    }
+}
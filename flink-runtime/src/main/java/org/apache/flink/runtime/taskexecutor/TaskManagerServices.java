@@ -343,6 +343,10 @@ public class TaskManagerServices {
                 taskManagerServicesConfiguration
                         .getConfiguration()
                         .getBoolean(CoreOptions.CHECK_LEAKED_CLASSLOADER);
+        final boolean shareClassLoaders =
+                taskManagerServicesConfiguration
+                        .getConfiguration()
+                        .getBoolean(CoreOptions.SHARE_CLASSLOADER_ACROSS_JOBS);
         final LibraryCacheManager libraryCacheManager =
                 new BlobLibraryCacheManager(
                         permanentBlobService,
@@ -351,7 +355,8 @@ public class TaskManagerServices {
                                 taskManagerServicesConfiguration
                                         .getAlwaysParentFirstLoaderPatterns(),
                                 failOnJvmMetaspaceOomError ? fatalErrorHandler : null,
-                                checkClassLoaderLeak));
+                                checkClassLoaderLeak),
+                        shareClassLoaders);
 
         return new TaskManagerServices(
                 unresolvedTaskManagerLocation,
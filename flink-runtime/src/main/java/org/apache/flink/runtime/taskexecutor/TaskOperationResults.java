@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.runtime.taskexecutor;
+
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.messages.Acknowledge;
+import org.apache.flink.util.ExceptionUtils;
+import org.apache.flink.util.SerializedThrowable;
+import org.apache.flink.util.concurrent.FutureUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Utilities for the results of the batched task operations of the {@link TaskExecutorGateway}. */
+public final class TaskOperationResults {
+
+    private TaskOperationResults() {}
+
+    /**
+     * Collects the failures of the given task operations once all of them are completed.
+     *
+     * @param results of the operations on each task
+     * @return Future of the failures of the tasks whose operation failed
+     */
+    public static CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> collectFailures(
+            Map<ExecutionAttemptID, CompletableFuture<Acknowledge>> results) {
+        final Map<ExecutionAttemptID, SerializedThrowable> failures = new ConcurrentHashMap<>();
+        final List<CompletableFuture<?>> handledResults = new ArrayList<>(results.size());
+
+        for (Map.Entry<ExecutionAttemptID, CompletableFuture<Acknowledge>> result :
+                results.entrySet()) {
+            handledResults.add(
+                    result.getValue()
+                            .handle(
+                                    (ignored, failure) -> {
+                                        if (failure != null) {
+                                            failures.put(
+                                                    result.getKey(),
+                                                    new SerializedThrowable(
+                                                            ExceptionUtils.stripCompletionException(
+                                                                    failure)));
+                                        }
+                                        return null;
+                                    }));
+        }
+
+        return FutureUtils.waitForAll(handledResults).thenApply(ignored -> new HashMap<>(failures));
+    }
+}
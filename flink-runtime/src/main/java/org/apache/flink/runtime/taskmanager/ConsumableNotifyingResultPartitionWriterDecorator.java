@@ -19,6 +19,7 @@
 package org.apache.flink.runtime.taskmanager;
 
 import org.apache.flink.api.common.JobID;
+import org.apache.flink.api.common.state.CheckpointListener;
 import org.apache.flink.runtime.deployment.ResultPartitionDeploymentDescriptor;
 import org.apache.flink.runtime.event.AbstractEvent;
 import org.apache.flink.runtime.io.network.api.writer.ResultPartitionWriter;
@@ -83,7 +84,7 @@ public class ConsumableNotifyingResultPartitionWriterDecorator {
     // ------------------------------------------------------------------------
 
     private static final class ConsumableNotifyingResultPartitionWriter
-            implements ResultPartitionWriter, CheckpointedResultPartition {
+            implements ResultPartitionWriter, CheckpointedResultPartition, CheckpointListener {
 
         private final TaskActions taskActions;
 
@@ -222,6 +223,24 @@ public class ConsumableNotifyingResultPartitionWriterDecorator {
             getCheckpointablePartition().finishReadRecoveredState(notifyAndBlockOnCompletion);
         }
 
+        /**
+         * Forwards the notification to the wrapped partition, so that approximate pipelined
+         * partitions trim their in-flight logs also when they are decorated.
+         */
+        @Override
+        public void notifyCheckpointComplete(long checkpointId) throws Exception {
+            if (partitionWriter instanceof CheckpointListener) {
+                ((CheckpointListener) partitionWriter).notifyCheckpointComplete(checkpointId);
+            }
+        }
+
+        @Override
+        public void notifyCheckpointAborted(long checkpointId) throws Exception {
+            if (partitionWriter instanceof CheckpointListener) {
+                ((CheckpointListener) partitionWriter).notifyCheckpointAborted(checkpointId);
+            }
+        }
+
         /**
          * Notifies pipelined consumers of this result partition once.
          *
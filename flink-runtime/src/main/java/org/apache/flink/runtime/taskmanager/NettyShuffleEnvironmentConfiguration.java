@@ -87,6 +87,9 @@ public class NettyShuffleEnvironmentConfiguration {
 
     private final int maxBuffersPerChannel;
 
+    /** Max size of the in-flight log of each approximate pipelined subpartition. */
+    private final long approximateRecoveryMaxInFlightLogBytes;
+
     public NettyShuffleEnvironmentConfiguration(
             int numNetworkBuffers,
             int networkBufferSize,
@@ -104,7 +107,8 @@ public class NettyShuffleEnvironmentConfiguration {
             int maxBuffersPerChannel,
             long batchShuffleReadMemoryBytes,
             int sortShuffleMinBuffers,
-            int sortShuffleMinParallelism) {
+            int sortShuffleMinParallelism,
+            long approximateRecoveryMaxInFlightLogBytes) {
 
         this.numNetworkBuffers = numNetworkBuffers;
         this.networkBufferSize = networkBufferSize;
@@ -123,6 +127,7 @@ public class NettyShuffleEnvironmentConfiguration {
         this.batchShuffleReadMemoryBytes = batchShuffleReadMemoryBytes;
         this.sortShuffleMinBuffers = sortShuffleMinBuffers;
         this.sortShuffleMinParallelism = sortShuffleMinParallelism;
+        this.approximateRecoveryMaxInFlightLogBytes = approximateRecoveryMaxInFlightLogBytes;
     }
 
     // ------------------------------------------------------------------------
@@ -163,6 +168,10 @@ public class NettyShuffleEnvironmentConfiguration {
         return sortShuffleMinParallelism;
     }
 
+    public long approximateRecoveryMaxInFlightLogBytes() {
+        return approximateRecoveryMaxInFlightLogBytes;
+    }
+
     public Duration getRequestSegmentsTimeout() {
         return requestSegmentsTimeout;
     }
@@ -260,6 +269,13 @@ public class NettyShuffleEnvironmentConfiguration {
                 configuration.getInteger(
                         NettyShuffleEnvironmentOptions.NETWORK_SORT_SHUFFLE_MIN_PARALLELISM);
 
+        long approximateRecoveryMaxInFlightLogBytes =
+                configuration
+                        .get(
+                                NettyShuffleEnvironmentOptions
+                                        .APPROXIMATE_RECOVERY_MAX_IN_FLIGHT_LOG_SIZE)
+                        .getBytes();
+
         boolean isNetworkDetailedMetrics =
                 configuration.getBoolean(NettyShuffleEnvironmentOptions.NETWORK_DETAILED_METRICS);
 
@@ -297,7 +313,8 @@ public class NettyShuffleEnvironmentConfiguration {
                 maxBuffersPerChannel,
                 batchShuffleReadMemoryBytes,
                 sortShuffleMinBuffers,
-                sortShuffleMinParallelism);
+                sortShuffleMinParallelism,
+                approximateRecoveryMaxInFlightLogBytes);
     }
 
     /**
@@ -434,6 +451,7 @@ public class NettyShuffleEnvironmentConfiguration {
         result = 31 * result + Objects.hashCode(batchShuffleReadMemoryBytes);
         result = 31 * result + sortShuffleMinBuffers;
         result = 31 * result + sortShuffleMinParallelism;
+        result = 31 * result + Long.hashCode(approximateRecoveryMaxInFlightLogBytes);
         return result;
     }
 
@@ -456,6 +474,8 @@ public class NettyShuffleEnvironmentConfiguration {
                     && this.batchShuffleReadMemoryBytes == that.batchShuffleReadMemoryBytes
                     && this.sortShuffleMinBuffers == that.sortShuffleMinBuffers
                     && this.sortShuffleMinParallelism == that.sortShuffleMinParallelism
+                    && this.approximateRecoveryMaxInFlightLogBytes
+                            == that.approximateRecoveryMaxInFlightLogBytes
                     && this.requestSegmentsTimeout.equals(that.requestSegmentsTimeout)
                     && (nettyConfig != null
                             ? nettyConfig.equals(that.nettyConfig)
@@ -501,6 +521,8 @@ public class NettyShuffleEnvironmentConfiguration {
                 + sortShuffleMinBuffers
                 + ", sortShuffleMinParallelism="
                 + sortShuffleMinParallelism
+                + ", approximateRecoveryMaxInFlightLogBytes="
+                + approximateRecoveryMaxInFlightLogBytes
                 + '}';
     }
 }
@@ -42,6 +42,7 @@ import org.apache.flink.runtime.jobgraph.tasks.TaskOperatorEventGateway;
 import org.apache.flink.runtime.memory.MemoryManager;
 import org.apache.flink.runtime.metrics.groups.TaskMetricGroup;
 import org.apache.flink.runtime.query.TaskKvStateRegistry;
+import org.apache.flink.runtime.state.CheckpointStorageAccess;
 import org.apache.flink.runtime.state.TaskStateManager;
 import org.apache.flink.runtime.taskexecutor.GlobalAggregateManager;
 import org.apache.flink.runtime.throughput.ThroughputCalculator;
@@ -101,6 +102,8 @@ public class RuntimeEnvironment implements Environment {
 
     @Nullable private ExecutorService asyncOperationsThreadPool;
 
+    @Nullable private CheckpointStorageAccess checkpointStorageAccess;
+
     private final ThroughputCalculator throughputCalculator;
 
     // ------------------------------------------------------------------------
@@ -344,6 +347,17 @@ public class RuntimeEnvironment implements Environment {
                 "asyncOperationsThreadPool has not been initialized yet!");
     }
 
+    @Override
+    public void setCheckpointStorageAccess(CheckpointStorageAccess checkpointStorageAccess) {
+        this.checkpointStorageAccess = checkpointStorageAccess;
+    }
+
+    @Override
+    public CheckpointStorageAccess getCheckpointStorageAccess() {
+        return checkNotNull(
+                checkpointStorageAccess, "checkpointStorageAccess has not been initialized yet!");
+    }
+
     @Override
     public ThroughputCalculator getThroughputCalculator() {
         return throughputCalculator;
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.blob;
+
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.api.common.time.Deadline;
+import org.apache.flink.configuration.BlobServerOptions;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.testutils.CommonTestUtils;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Random;
+
+import static org.apache.flink.runtime.blob.BlobKey.BlobType.PERMANENT_BLOB;
+import static org.apache.flink.runtime.blob.BlobServerPutTest.put;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/** Tests for the distribution of permanent BLOBs between {@link PermanentBlobCache}s. */
+public class BlobCachePeerDistributionTest extends TestLogger {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final Random rnd = new Random();
+
+    private Configuration config;
+
+    @Before
+    public void setup() throws IOException {
+        config = new Configuration();
+        config.setString(
+                BlobServerOptions.STORAGE_DIRECTORY, temporaryFolder.newFolder().getAbsolutePath());
+        config.setBoolean(BlobServerOptions.PEER_DISTRIBUTION_ENABLED, true);
+        config.setInteger(BlobServerOptions.PEER_DISTRIBUTION_MAX_CONCURRENT_TRANSFERS, 1);
+    }
+
+    /**
+     * Tests that a download is redirected to the BLOB cache which announced the BLOB once the BLOB
+     * server transfers the BLOB too often.
+     */
+    @Test
+    public void testDownloadIsRedirectedToPeer() throws Exception {
+        final JobID jobId = new JobID();
+        final byte[] data = new byte[2_000_000];
+        rnd.nextBytes(data);
+
+        try (BlobServer server = new BlobServer(config, new VoidBlobStore())) {
+            server.start();
+            final InetSocketAddress serverAddress =
+                    new InetSocketAddress("localhost", server.getPort());
+            final PermanentBlobKey key =
+                    (PermanentBlobKey) put(server, jobId, data, PERMANENT_BLOB);
+
+            try (PermanentBlobCache cache1 =
+                            new PermanentBlobCache(config, new VoidBlobStore(), serverAddress);
+                    PermanentBlobCache cache2 =
+                            new PermanentBlobCache(config, new VoidBlobStore(), serverAddress)) {
+
+                assertArrayEquals(data, Files.readAllBytes(cache1.getFile(jobId, key).toPath()));
+                waitUntilNumberOfPeers(server, jobId, key, 1);
+
+                // occupy the only transfer slot and make sure the server cannot serve the BLOB
+                assertThat(
+                        server.getPeerRegistry().startTransferOrRedirect(jobId, key), is(empty()));
+                assertTrue(server.getStorageLocation(jobId, key).delete());
+
+                assertArrayEquals(data, Files.readAllBytes(cache2.getFile(jobId, key).toPath()));
+                waitUntilNumberOfPeers(server, jobId, key, 2);
+            }
+        }
+    }
+
+    /** Tests that a redirected download falls back to the BLOB server if no peer serves it. */
+    @Test
+    public void testRedirectedDownloadFallsBackToServer() throws Exception {
+        final JobID jobId = new JobID();
+        final byte[] data = new byte[2_000_000];
+        rnd.nextBytes(data);
+
+        try (BlobServer server = new BlobServer(config, new VoidBlobStore())) {
+            server.start();
+            final InetSocketAddress serverAddress =
+                    new InetSocketAddress("localhost", server.getPort());
+            final PermanentBlobKey key =
+                    (PermanentBlobKey) put(server, jobId, data, PERMANENT_BLOB);
+
+            try (PermanentBlobCache peer =
+                            new PermanentBlobCache(config, new VoidBlobStore(), serverAddress);
+                    PermanentBlobCache cache =
+                            new PermanentBlobCache(config, new VoidBlobStore(), serverAddress)) {
+
+                // the peer never downloaded the BLOB and answers with an error
+                server.getPeerRegistry()
+                        .registerPeer(
+                                jobId,
+                                key,
+                                new InetSocketAddress("localhost", peer.getPeerServerPort()));
+                assertThat(
+                        server.getPeerRegistry().startTransferOrRedirect(jobId, key), is(empty()));
+
+                final File file = cache.getFile(jobId, key);
+                assertArrayEquals(data, Files.readAllBytes(file.toPath()));
+            }
+        }
+    }
+
+    @Test
+    public void testPeersAreRemovedWithJob() throws Exception {
+        final JobID jobId = new JobID();
+        final byte[] data = new byte[1_000];
+        rnd.nextBytes(data);
+
+        try (BlobServer server = new BlobServer(config, new VoidBlobStore())) {
+            server.start();
+            final InetSocketAddress serverAddress =
+                    new InetSocketAddress("localhost", server.getPort());
+            final PermanentBlobKey key =
+                    (PermanentBlobKey) put(server, jobId, data, PERMANENT_BLOB);
+
+            try (PermanentBlobCache cache =
+                    new PermanentBlobCache(config, new VoidBlobStore(), serverAddress)) {
+                cache.getFile(jobId, key);
+                waitUntilNumberOfPeers(server, jobId, key, 1);
+
+                assertTrue(server.cleanupJob(jobId, true));
+
+                assertThat(server.getPeerRegistry().getNumberOfPeers(jobId, key), is(0));
+            }
+        }
+    }
+
+    private static void waitUntilNumberOfPeers(
+            BlobServer server, JobID jobId, BlobKey key, int numberOfPeers) throws Exception {
+        CommonTestUtils.waitUntilCondition(
+                () -> server.getPeerRegistry().getNumberOfPeers(jobId, key) == numberOfPeers,
+                Deadline.fromNow(TIMEOUT));
+    }
+}
@@ -23,6 +23,8 @@ import org.apache.flink.api.common.JobStatus;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.core.fs.Path;
 import org.apache.flink.core.io.SimpleVersionedSerializer;
+import org.apache.flink.core.testutils.CheckedThread;
+import org.apache.flink.core.testutils.OneShotLatch;
 import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
 import org.apache.flink.runtime.checkpoint.CheckpointCoordinatorTestingUtils.CheckpointCoordinatorBuilder;
 import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutorServiceAdapter;
@@ -47,6 +49,7 @@ import org.apache.flink.runtime.rpc.exceptions.RpcException;
 import org.apache.flink.runtime.state.CheckpointMetadataOutputStream;
 import org.apache.flink.runtime.state.CheckpointStorageAccess;
 import org.apache.flink.runtime.state.CheckpointStorageLocation;
+import org.apache.flink.runtime.state.CompositeStateHandle;
 import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
 import org.apache.flink.runtime.state.KeyGroupRange;
 import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
@@ -1589,6 +1592,133 @@ public class CheckpointCoordinatorTest extends TestLogger {
         verify(subtaskState23, times(1)).discardState();
     }
 
+    /**
+     * Tests that a checkpoint that is aborted while the thread that received its last
+     * acknowledgement registers its state is not completed, and that its state is released.
+     */
+    @Test
+    public void testAbortWhileRegisteringStateOfAcknowledgedCheckpoint() throws Exception {
+        testAbortRacingLastAcknowledgement(false);
+    }
+
+    /**
+     * Tests that a checkpoint that is subsumed while the thread that received its last
+     * acknowledgement registers its state is not completed, and that its state is released.
+     */
+    @Test
+    public void testSubsumptionWhileRegisteringStateOfAcknowledgedCheckpoint() throws Exception {
+        testAbortRacingLastAcknowledgement(true);
+    }
+
+    private void testAbortRacingLastAcknowledgement(boolean subsume) throws Exception {
+        JobVertexID jobVertexID = new JobVertexID();
+        ExecutionGraph graph =
+                new CheckpointCoordinatorTestingUtils.CheckpointExecutionGraphBuilder()
+                        .addJobVertex(jobVertexID)
+                        .build();
+        ExecutionVertex vertex = graph.getJobVertex(jobVertexID).getTaskVertices()[0];
+        ExecutionAttemptID attemptID = vertex.getCurrentExecutionAttempt().getAttemptId();
+        OperatorID operatorID =
+                vertex.getJobVertex().getOperatorIDs().get(0).getGeneratedOperatorID();
+
+        final AtomicReference<BlockingSharedStateRegistry> sharedStateRegistry =
+                new AtomicReference<>();
+        final CheckpointCoordinator checkpointCoordinator =
+                new CheckpointCoordinatorBuilder()
+                        .setExecutionGraph(graph)
+                        .setCheckpointCoordinatorConfiguration(
+                                CheckpointCoordinatorConfiguration.builder()
+                                        .setMaxConcurrentCheckpoints(Integer.MAX_VALUE)
+                                        .build())
+                        .setTimer(manuallyTriggeredScheduledExecutor)
+                        .setSharedStateRegistryFactory(
+                                deleteExecutor -> {
+                                    BlockingSharedStateRegistry instance =
+                                            new BlockingSharedStateRegistry(deleteExecutor);
+                                    sharedStateRegistry.set(instance);
+                                    return instance;
+                                })
+                        .build();
+
+        checkpointCoordinator.triggerCheckpoint(false);
+        manuallyTriggeredScheduledExecutor.triggerAll();
+        if (subsume) {
+            checkpointCoordinator.triggerCheckpoint(false);
+            manuallyTriggeredScheduledExecutor.triggerAll();
+        }
+
+        final List<Long> checkpointIds =
+                new ArrayList<>(checkpointCoordinator.getPendingCheckpoints().keySet());
+        Collections.sort(checkpointIds);
+        final long checkpointId = checkpointIds.get(0);
+        final PendingCheckpoint checkpoint =
+                checkpointCoordinator.getPendingCheckpoints().get(checkpointId);
+
+        final OperatorSubtaskState subtaskState = spy(OperatorSubtaskState.builder().build());
+        final TaskStateSnapshot taskStateSnapshot =
+                new TaskStateSnapshot(Collections.singletonMap(operatorID, subtaskState));
+
+        // the last acknowledgement blocks while it registers the state of the checkpoint
+        final CheckedThread acknowledgingThread =
+                new CheckedThread() {
+                    @Override
+                    public void go() throws Exception {
+                        checkpointCoordinator.receiveAcknowledgeMessage(
+                                new AcknowledgeCheckpoint(
+                                        graph.getJobID(),
+                                        attemptID,
+                                        checkpointId,
+                                        new CheckpointMetrics(),
+                                        taskStateSnapshot),
+                                TASK_MANAGER_LOCATION_INFO);
+                    }
+                };
+        acknowledgingThread.start();
+        sharedStateRegistry.get().registrationStarted.await();
+
+        // the abort has to wait for the registration to finish
+        final CheckedThread abortingThread =
+                new CheckedThread() {
+                    @Override
+                    public void go() throws Exception {
+                        if (subsume) {
+                            checkpointCoordinator.receiveAcknowledgeMessage(
+                                    new AcknowledgeCheckpoint(
+                                            graph.getJobID(), attemptID, checkpointIds.get(1)),
+                                    TASK_MANAGER_LOCATION_INFO);
+                        } else {
+                            checkpointCoordinator.abortPendingCheckpoints(
+                                    new CheckpointException(CHECKPOINT_DECLINED));
+                        }
+                    }
+                };
+        abortingThread.start();
+        while (abortingThread.getState() != Thread.State.BLOCKED) {
+            Thread.sleep(1L);
+        }
+
+        sharedStateRegistry.get().registrationReleased.trigger();
+        acknowledgingThread.sync();
+        abortingThread.sync();
+
+        assertTrue(checkpoint.isDisposed());
+        assertEquals(0, checkpointCoordinator.getNumberOfPendingCheckpoints());
+        if (subsume) {
+            assertEquals(1, checkpointCoordinator.getNumberOfRetainedSuccessfulCheckpoints());
+            assertEquals(
+                    checkpointIds.get(1).longValue(),
+                    checkpointCoordinator.getSuccessfulCheckpoints().get(0).getCheckpointID());
+        } else {
+            assertEquals(0, checkpointCoordinator.getNumberOfRetainedSuccessfulCheckpoints());
+        }
+
+        // the state was registered before the abort, so the abort has to release it again
+        verify(subtaskState, times(1)).registerSharedStates(sharedStateRegistry.get());
+        verify(subtaskState, times(1)).discardState();
+
+        checkpointCoordinator.shutdown();
+    }
+
     @Test
     public void testCheckpointTimeoutIsolated() throws Exception {
         JobVertexID jobVertexID1 = new JobVertexID();
@@ -3755,6 +3885,34 @@ public class CheckpointCoordinatorTest extends TestLogger {
         }
     }
 
+    /** A {@link SharedStateRegistry} that blocks the first registration until it is released. */
+    private static final class BlockingSharedStateRegistry extends SharedStateRegistry {
+
+        private final OneShotLatch registrationStarted = new OneShotLatch();
+
+        private final OneShotLatch registrationReleased = new OneShotLatch();
+
+        private final AtomicBoolean blocked = new AtomicBoolean();
+
+        BlockingSharedStateRegistry(Executor asyncDisposalExecutor) {
+            super(asyncDisposalExecutor);
+        }
+
+        @Override
+        public void registerAll(Iterable<? extends CompositeStateHandle> stateHandles) {
+            if (blocked.compareAndSet(false, true)) {
+                registrationStarted.trigger();
+                try {
+                    registrationReleased.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+            }
+            super.registerAll(stateHandles);
+        }
+    }
+
     private static class TestingIOExceptionCheckpointIDCounter
             extends CheckpointIDCounterWithOwner {
         @Override
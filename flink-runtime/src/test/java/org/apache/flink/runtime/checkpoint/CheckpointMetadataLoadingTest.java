@@ -31,9 +31,13 @@ import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
 import org.apache.flink.runtime.state.testutils.TestCompletedCheckpointStorageLocation;
 
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -51,10 +55,18 @@ import static org.mockito.Mockito.when;
 
 /**
  * A test that checks that checkpoint metadata loading works properly, including validation of
- * resumed state and dropped state.
+ * resumed state and dropped state, for all metadata format versions that can be written.
  */
+@RunWith(Parameterized.class)
 public class CheckpointMetadataLoadingTest {
 
+    @Parameterized.Parameters(name = "formatVersion = {0}")
+    public static Collection<Integer> parameters() {
+        return Arrays.asList(3, 4);
+    }
+
+    @Parameterized.Parameter public int formatVersion;
+
     private final ClassLoader cl = getClass().getClassLoader();
 
     /** Tests correct savepoint loading. */
@@ -134,6 +146,34 @@ public class CheckpointMetadataLoadingTest {
         assertTrue(loaded.getOperatorStates().isEmpty());
     }
 
+    /**
+     * Tests that the state of removed operators is dropped while the state of the remaining
+     * operators is restored, when non-restored state is allowed.
+     */
+    @Test
+    public void testRemovedOperatorStateDroppedWhenAllowed() throws Exception {
+        final OperatorID keptOperatorId = new OperatorID();
+        final OperatorID removedOperatorId = new OperatorID();
+        final int parallelism = 9;
+
+        final OperatorState keptState = createOperatorState(keptOperatorId, parallelism);
+        final OperatorState removedState = createOperatorState(removedOperatorId, parallelism);
+
+        final CompletedCheckpointStorageLocation testSavepoint =
+                createSavepointWithOperatorStates(242L, Arrays.asList(keptState, removedState));
+        final Map<JobVertexID, ExecutionJobVertex> tasks =
+                createTasks(keptOperatorId, parallelism, parallelism);
+
+        final CompletedCheckpoint loaded =
+                Checkpoints.loadAndValidateCheckpoint(new JobID(), tasks, testSavepoint, cl, true);
+
+        assertEquals(1, loaded.getOperatorStates().size());
+        assertTrue(loaded.getOperatorStates().containsKey(keptOperatorId));
+        assertEquals(
+                keptState.getStates().size(),
+                loaded.getOperatorStates().get(keptOperatorId).getStates().size());
+    }
+
     /**
      * Tests that savepoint loading fails when there is non-restored coordinator state only, and
      * non-restored state is not allowed.
@@ -163,26 +203,35 @@ public class CheckpointMetadataLoadingTest {
     //  setup utils
     // ------------------------------------------------------------------------
 
-    private static CompletedCheckpointStorageLocation createSavepointWithOperatorState(
+    private CompletedCheckpointStorageLocation createSavepointWithOperatorState(
             final long checkpointId, final OperatorState state) throws IOException {
+        return createSavepointWithOperatorStates(checkpointId, Collections.singletonList(state));
+    }
+
+    private CompletedCheckpointStorageLocation createSavepointWithOperatorStates(
+            final long checkpointId, final Collection<OperatorState> states) throws IOException {
 
         final CheckpointMetadata savepoint =
-                new CheckpointMetadata(
-                        checkpointId, Collections.singletonList(state), Collections.emptyList());
+                new CheckpointMetadata(checkpointId, states, Collections.emptyList());
         final StreamStateHandle serializedMetadata;
 
         try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
-            Checkpoints.storeCheckpointMetadata(savepoint, os);
+            Checkpoints.storeCheckpointMetadata(savepoint, os, formatVersion);
             serializedMetadata = new ByteStreamStateHandle("checkpoint", os.toByteArray());
         }
 
         return new TestCompletedCheckpointStorageLocation(serializedMetadata, "dummy/pointer");
     }
 
-    private static CompletedCheckpointStorageLocation createSavepointWithOperatorSubtaskState(
+    private CompletedCheckpointStorageLocation createSavepointWithOperatorSubtaskState(
             final long checkpointId, final OperatorID operatorId, final int parallelism)
             throws IOException {
+        return createSavepointWithOperatorState(
+                checkpointId, createOperatorState(operatorId, parallelism));
+    }
 
+    private static OperatorState createOperatorState(
+            final OperatorID operatorId, final int parallelism) {
         final Random rnd = new Random();
 
         final OperatorSubtaskState subtaskState =
@@ -199,7 +248,7 @@ public class CheckpointMetadataLoadingTest {
         final OperatorState state = new OperatorState(operatorId, parallelism, parallelism);
         state.putState(0, subtaskState);
 
-        return createSavepointWithOperatorState(checkpointId, state);
+        return state;
     }
 
     private static Map<JobVertexID, ExecutionJobVertex> createTasks(
@@ -53,6 +53,7 @@ import org.mockito.Mockito;
 
 import javax.annotation.Nullable;
 
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.ArrayDeque;
@@ -82,6 +83,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.when;
@@ -219,6 +221,81 @@ public class PendingCheckpointTest {
         }
     }
 
+    /** Tests that the metadata is written in the configured format version. */
+    @Test
+    public void testMetadataFormatVersion() throws Exception {
+        for (int formatVersion : new int[] {3, 4}) {
+            final PendingCheckpoint pending =
+                    createPendingCheckpoint(
+                            CheckpointProperties.forCheckpoint(
+                                    CheckpointRetentionPolicy.NEVER_RETAIN_AFTER_TERMINATION),
+                            Collections.emptyList(),
+                            Collections.emptyList(),
+                            Executors.directExecutor(),
+                            formatVersion);
+            pending.acknowledgeTask(ATTEMPT_ID, null, new CheckpointMetrics(), null);
+            final CompletedCheckpoint completed =
+                    pending.finalizeCheckpoint(
+                            new CheckpointsCleaner(), () -> {}, Executors.directExecutor(), null);
+
+            try (DataInputStream in =
+                    new DataInputStream(completed.getMetadataHandle().openInputStream())) {
+                assertEquals(Checkpoints.HEADER_MAGIC_NUMBER, in.readInt());
+                assertEquals(formatVersion, in.readInt());
+            }
+            try (DataInputStream in =
+                    new DataInputStream(completed.getMetadataHandle().openInputStream())) {
+                assertEquals(
+                        completed.getCheckpointID(),
+                        Checkpoints.loadCheckpointMetadata(
+                                        in, getClass().getClassLoader(), "dummy/pointer")
+                                .getCheckpointId());
+            }
+        }
+    }
+
+    /**
+     * Tests that the state of a checkpoint that was aborted after its last acknowledgement is not
+     * registered anymore by the thread that received that acknowledgement.
+     */
+    @Test
+    public void testNoSharedStateRegistrationAfterAbort() throws Exception {
+        final PendingCheckpoint pending =
+                createPendingCheckpoint(
+                        CheckpointProperties.forCheckpoint(
+                                CheckpointRetentionPolicy.NEVER_RETAIN_AFTER_TERMINATION),
+                        Executors.directExecutor());
+        final OperatorState state = mock(OperatorState.class);
+        setTaskState(pending, state);
+        pending.acknowledgeTask(ATTEMPT_ID, null, new CheckpointMetrics(), null);
+
+        abort(pending, CheckpointFailureReason.CHECKPOINT_DECLINED);
+
+        final SharedStateRegistry sharedStateRegistry = mock(SharedStateRegistry.class);
+        assertFalse(pending.registerSharedStates(sharedStateRegistry));
+        verify(sharedStateRegistry, never()).registerAll(any());
+        verify(state, never()).registerSharedStates(any(SharedStateRegistry.class));
+        verify(state, times(1)).discardState();
+    }
+
+    /** Tests that the state of a checkpoint is registered only once. */
+    @Test
+    public void testSharedStatesRegisteredOnce() throws Exception {
+        final PendingCheckpoint pending =
+                createPendingCheckpoint(
+                        CheckpointProperties.forCheckpoint(
+                                CheckpointRetentionPolicy.NEVER_RETAIN_AFTER_TERMINATION),
+                        Executors.directExecutor());
+        final OperatorState state = mock(OperatorState.class);
+        setTaskState(pending, state);
+        pending.acknowledgeTask(ATTEMPT_ID, null, new CheckpointMetrics(), null);
+
+        final SharedStateRegistry sharedStateRegistry = new SharedStateRegistry();
+        assertTrue(pending.registerSharedStates(sharedStateRegistry));
+        assertTrue(pending.registerSharedStates(sharedStateRegistry));
+        verify(state, times(1)).registerSharedStates(sharedStateRegistry);
+    }
+
     /** Tests that abort discards state. */
     @Test
     public void testAbortDiscardsState() throws Exception {
@@ -848,6 +925,21 @@ public class PendingCheckpointTest {
             Collection<String> masterStateIdentifiers,
             Executor executor)
             throws IOException {
+        return createPendingCheckpoint(
+                props,
+                operatorCoordinators,
+                masterStateIdentifiers,
+                executor,
+                Checkpoints.DEFAULT_METADATA_FORMAT_VERSION);
+    }
+
+    private PendingCheckpoint createPendingCheckpoint(
+            CheckpointProperties props,
+            Collection<OperatorID> operatorCoordinators,
+            Collection<String> masterStateIdentifiers,
+            Executor executor,
+            int metadataFormatVersion)
+            throws IOException {
 
         final Path checkpointDir = new Path(tmpFolder.newFolder().toURI());
         final FsCheckpointStorageLocation location =
@@ -878,7 +970,8 @@ public class PendingCheckpointTest {
                 masterStateIdentifiers,
                 props,
                 location,
-                new CompletableFuture<>());
+                new CompletableFuture<>(),
+                metadataFormatVersion);
     }
 
     private PendingCheckpoint createPendingCheckpoint(ExecutionGraph executionGraph)
@@ -136,6 +136,65 @@ public class PrioritizedOperatorSubtaskStateTest extends TestLogger {
         }
     }
 
+    /**
+     * Tests that an alternative for job manager state with several keyed state handles, as after a
+     * rescaling, is only approved if all of its handles match the key-groups of the handles of the
+     * job manager state.
+     */
+    @Test
+    public void testPrioritizationOfKeyedStateWithSeveralHandles() {
+        OperatorSubtaskState primaryAndFallback =
+                OperatorSubtaskState.builder()
+                        .setManagedKeyedState(
+                                new StateObjectCollection<>(
+                                        Arrays.asList(
+                                                createNewKeyedStateHandle(new KeyGroupRange(0, 3)),
+                                                createNewKeyedStateHandle(
+                                                        new KeyGroupRange(4, 6)))))
+                        .build();
+
+        OperatorSubtaskState matchingAlternative =
+                OperatorSubtaskState.builder()
+                        .setManagedKeyedState(deepCopy(primaryAndFallback.getManagedKeyedState()))
+                        .build();
+
+        OperatorSubtaskState mismatchingAlternative =
+                OperatorSubtaskState.builder()
+                        .setManagedKeyedState(
+                                new StateObjectCollection<>(
+                                        Arrays.asList(
+                                                createNewKeyedStateHandle(new KeyGroupRange(0, 3)),
+                                                createNewKeyedStateHandle(
+                                                        new KeyGroupRange(4, 9)))))
+                        .build();
+
+        PrioritizedOperatorSubtaskState approved =
+                new PrioritizedOperatorSubtaskState.Builder(
+                                primaryAndFallback, Collections.singletonList(matchingAlternative))
+                        .build();
+
+        Assert.assertTrue(
+                checkResultAsExpected(
+                        OperatorSubtaskState::getManagedKeyedState,
+                        PrioritizedOperatorSubtaskState::getPrioritizedManagedKeyedState,
+                        approved,
+                        matchingAlternative,
+                        primaryAndFallback));
+
+        PrioritizedOperatorSubtaskState rejected =
+                new PrioritizedOperatorSubtaskState.Builder(
+                                primaryAndFallback,
+                                Collections.singletonList(mismatchingAlternative))
+                        .build();
+
+        Assert.assertTrue(
+                checkResultAsExpected(
+                        OperatorSubtaskState::getManagedKeyedState,
+                        PrioritizedOperatorSubtaskState::getPrioritizedManagedKeyedState,
+                        rejected,
+                        primaryAndFallback));
+    }
+
     /**
      * Generator for all 3^4 = 81 possible configurations of a OperatorSubtaskState: - 4 different
      * sub-states: managed/raw + operator/keyed. - 3 different options per sub-state: empty
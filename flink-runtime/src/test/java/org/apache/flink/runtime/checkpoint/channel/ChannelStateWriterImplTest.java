@@ -23,6 +23,7 @@ import org.apache.flink.runtime.checkpoint.channel.ChannelStateWriter.ChannelSta
 import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.apache.flink.runtime.io.network.buffer.FreeingBufferRecycler;
 import org.apache.flink.runtime.io.network.buffer.NetworkBuffer;
+import org.apache.flink.runtime.state.InputChannelStateHandle;
 import org.apache.flink.util.function.BiConsumerWithException;
 import org.apache.flink.util.function.RunnableWithException;
 
@@ -30,13 +31,18 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static org.apache.flink.runtime.state.ChannelPersistenceITCase.getStreamFactoryFactory;
 import static org.apache.flink.util.CloseableIterator.ofElements;
 import static org.apache.flink.util.ExceptionUtils.findThrowable;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -205,7 +211,7 @@ public class ChannelStateWriterImplTest {
         int maxCheckpoints = 3;
         try (ChannelStateWriterImpl writer =
                 new ChannelStateWriterImpl(
-                        TASK_NAME, 0, getStreamFactoryFactory(), maxCheckpoints)) {
+                        TASK_NAME, 0, getStreamFactoryFactory(), maxCheckpoints, 1)) {
             writer.open();
             for (int i = 0; i < maxCheckpoints; i++) {
                 writer.start(i, CheckpointOptions.forCheckpointWithDefaultLocation());
@@ -214,6 +220,58 @@ public class ChannelStateWriterImplTest {
         }
     }
 
+    @Test
+    public void testResultCombinedFromAllWriters() throws Exception {
+        SyncChannelStateWriteRequestExecutor[] workers = createSyncWorkers(2);
+        try (ChannelStateWriterImpl writer = openWriter(workers)) {
+            callStart(writer);
+            ChannelStateWriteResult result = writer.getAndRemoveWriteResult(CHECKPOINT_ID);
+            // the channels are distributed among both writers
+            List<InputChannelInfo> inputChannels =
+                    Arrays.asList(
+                            new InputChannelInfo(0, 0),
+                            new InputChannelInfo(0, 1),
+                            new InputChannelInfo(1, 0));
+            for (InputChannelInfo inputChannel : inputChannels) {
+                writer.addInputData(
+                        CHECKPOINT_ID,
+                        inputChannel,
+                        1,
+                        ofElements(Buffer::recycleBuffer, getFilledBuffer()));
+            }
+            writer.addOutputData(
+                    CHECKPOINT_ID, new ResultSubpartitionInfo(0, 0), 1, getFilledBuffer());
+            callFinish(writer);
+
+            workers[0].processAllRequests();
+            assertFalse(result.isDone());
+            workers[1].processAllRequests();
+
+            assertTrue(result.isDone());
+            assertEquals(
+                    new HashSet<>(inputChannels),
+                    result.getInputChannelStateHandles().get().stream()
+                            .map(InputChannelStateHandle::getInfo)
+                            .collect(Collectors.toSet()));
+            assertEquals(1, result.getResultSubpartitionStateHandles().get().size());
+        }
+    }
+
+    @Test
+    public void testResultFailsIfAnyWriterFails() throws Exception {
+        SyncChannelStateWriteRequestExecutor[] workers = createSyncWorkers(2);
+        try (ChannelStateWriterImpl writer = openWriter(workers)) {
+            callStart(writer);
+            ChannelStateWriteResult result = writer.getAndRemoveWriteResult(CHECKPOINT_ID);
+            callAbort(writer);
+
+            workers[0].processAllRequests();
+            assertTrue(result.isDone());
+            assertTrue(result.getInputChannelStateHandles().isCompletedExceptionally());
+            workers[1].processAllRequests();
+        }
+    }
+
     @Test(expected = IllegalStateException.class)
     public void testStartNotOpened() throws Exception {
         unwrappingError(
@@ -264,6 +322,33 @@ public class ChannelStateWriterImplTest {
                 FreeingBufferRecycler.INSTANCE);
     }
 
+    private NetworkBuffer getFilledBuffer() {
+        NetworkBuffer buffer = getBuffer();
+        buffer.writeBytes(new byte[] {1, 2, 3});
+        return buffer;
+    }
+
+    private static SyncChannelStateWriteRequestExecutor[] createSyncWorkers(int numWorkers) {
+        SyncChannelStateWriteRequestExecutor[] workers =
+                new SyncChannelStateWriteRequestExecutor[numWorkers];
+        for (int i = 0; i < numWorkers; i++) {
+            workers[i] = new SyncChannelStateWriteRequestExecutor();
+        }
+        return workers;
+    }
+
+    private static ChannelStateWriterImpl openWriter(
+            SyncChannelStateWriteRequestExecutor... workers) {
+        ChannelStateWriterImpl writer =
+                new ChannelStateWriterImpl(
+                        TASK_NAME,
+                        new ConcurrentHashMap<>(),
+                        Arrays.<ChannelStateWriteRequestExecutor>asList(workers),
+                        5);
+        writer.open();
+        return writer;
+    }
+
     private ChannelStateWriteRequestExecutor failingWorker() {
         return new ChannelStateWriteRequestExecutor() {
             @Override
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.checkpoint.metadata;
+
+import org.apache.flink.core.memory.ByteArrayInputStreamWithPos;
+import org.apache.flink.core.memory.ByteArrayOutputStreamWithPos;
+import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.apache.flink.runtime.checkpoint.Checkpoints;
+import org.apache.flink.runtime.checkpoint.MasterState;
+import org.apache.flink.runtime.checkpoint.OperatorState;
+import org.apache.flink.runtime.jobgraph.OperatorID;
+
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Tests for the version 4 format serializer of a checkpoint. */
+public class MetadataV4SerializerTest {
+
+    @Test
+    public void testCheckpointWithTaskAndMasterState() throws Exception {
+        final Random rnd = new Random();
+
+        for (int i = 0; i < 20; ++i) {
+            final Collection<OperatorState> operatorStates =
+                    CheckpointTestUtils.createOperatorStates(
+                            rnd, null, rnd.nextInt(10) + 1, 1, rnd.nextInt(10) + 1);
+            final Collection<MasterState> masterStates =
+                    CheckpointTestUtils.createRandomMasterStates(rnd, rnd.nextInt(3) + 1);
+            final long checkpointId = rnd.nextLong() & 0x7fffffffffffffffL;
+
+            final CheckpointMetadata deserialized =
+                    roundTrip(
+                            new CheckpointMetadata(checkpointId, operatorStates, masterStates),
+                            operatorId -> true);
+
+            assertEquals(checkpointId, deserialized.getCheckpointId());
+            assertEquals(operatorStates, deserialized.getOperatorStates());
+            assertEquals(masterStates.size(), deserialized.getMasterStates().size());
+            Iterator<MasterState> deserializedMasterStates =
+                    deserialized.getMasterStates().iterator();
+            for (MasterState masterState : masterStates) {
+                CheckpointTestUtils.assertMasterStateEquality(
+                        masterState, deserializedMasterStates.next());
+            }
+        }
+    }
+
+    @Test
+    public void testSkipStateOfFilteredOperators() throws Exception {
+        final List<OperatorState> operatorStates =
+                new ArrayList<>(
+                        CheckpointTestUtils.createOperatorStates(new Random(), null, 6, 0, 4));
+        final OperatorID skipped = operatorStates.get(2).getOperatorID();
+
+        final CheckpointMetadata deserialized =
+                roundTrip(
+                        new CheckpointMetadata(42L, operatorStates, Collections.emptyList()),
+                        operatorId -> !operatorId.equals(skipped));
+
+        operatorStates.remove(2);
+        assertEquals(operatorStates, deserialized.getOperatorStates());
+        assertTrue(deserialized.getMasterStates().isEmpty());
+    }
+
+    @Test
+    public void testDefaultFormatVersionIsV3() throws Exception {
+        final ByteArrayOutputStreamWithPos baos = new ByteArrayOutputStreamWithPos();
+        Checkpoints.storeCheckpointMetadata(
+                new CheckpointMetadata(42L, Collections.emptyList(), Collections.emptyList()),
+                baos);
+
+        final DataInputStream in =
+                new DataInputStream(new ByteArrayInputStreamWithPos(baos.toByteArray()));
+        assertEquals(Checkpoints.HEADER_MAGIC_NUMBER, in.readInt());
+        assertEquals(MetadataV3Serializer.VERSION, in.readInt());
+    }
+
+    /** Tests that metadata written in either format is read with the same operator filtering. */
+    @Test
+    public void testFilteredLoadingOfAllWritableVersions() throws Exception {
+        final List<OperatorState> operatorStates =
+                new ArrayList<>(
+                        CheckpointTestUtils.createOperatorStates(new Random(), null, 4, 0, 3));
+        final OperatorID skipped = operatorStates.get(1).getOperatorID();
+        final CheckpointMetadata metadata =
+                new CheckpointMetadata(42L, operatorStates, Collections.emptyList());
+        final List<OperatorState> expected = new ArrayList<>(operatorStates);
+        expected.remove(1);
+
+        for (int version : new int[] {MetadataV3Serializer.VERSION, MetadataV4Serializer.VERSION}) {
+            final ByteArrayOutputStreamWithPos baos = new ByteArrayOutputStreamWithPos();
+            Checkpoints.storeCheckpointMetadata(metadata, baos, version);
+
+            final CheckpointMetadata loaded =
+                    Checkpoints.loadCheckpointMetadata(
+                            new DataInputStream(
+                                    new ByteArrayInputStreamWithPos(baos.toByteArray())),
+                            MetadataV4SerializerTest.class.getClassLoader(),
+                            "dummy/pointer",
+                            operatorId -> !operatorId.equals(skipped));
+
+            assertEquals(42L, loaded.getCheckpointId());
+            assertEquals(expected, new ArrayList<>(loaded.getOperatorStates()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedFormatVersionIsRejected() throws Exception {
+        Checkpoints.storeCheckpointMetadata(
+                new CheckpointMetadata(42L, Collections.emptyList(), Collections.emptyList()),
+                new ByteArrayOutputStreamWithPos(),
+                5);
+    }
+
+    private static CheckpointMetadata roundTrip(
+            CheckpointMetadata metadata, Predicate<OperatorID> operatorFilter) throws IOException {
+        final ByteArrayOutputStreamWithPos baos = new ByteArrayOutputStreamWithPos();
+        try (DataOutputStream out = new DataOutputViewStreamWrapper(baos)) {
+            MetadataV4Serializer.serialize(metadata, out);
+        }
+
+        final DataInputStream in =
+                new DataInputViewStreamWrapper(
+                        new ByteArrayInputStreamWithPos(baos.toByteArray()));
+        final CheckpointMetadata deserialized =
+                MetadataV4Serializer.INSTANCE.deserialize(
+                        in, MetadataV4SerializerTest.class.getClassLoader(), null, operatorFilter);
+        assertEquals(-1, in.read());
+        return deserialized;
+    }
+}
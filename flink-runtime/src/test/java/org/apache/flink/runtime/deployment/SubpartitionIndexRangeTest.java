@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.apache.flink.runtime.deployment;
+
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/** Tests for {@link SubpartitionIndexRange}. */
+public class SubpartitionIndexRangeTest extends TestLogger {
+
+    @Test
+    public void testConsumersCoverAllSubpartitions() {
+        for (int numberOfSubpartitions = 1; numberOfSubpartitions <= 20; numberOfSubpartitions++) {
+            for (int numberOfConsumers = 1;
+                    numberOfConsumers <= numberOfSubpartitions;
+                    numberOfConsumers++) {
+                int nextIndex = 0;
+                for (int i = 0; i < numberOfConsumers; i++) {
+                    SubpartitionIndexRange range =
+                            SubpartitionIndexRange.forConsumer(
+                                    i, numberOfConsumers, numberOfSubpartitions);
+                    assertEquals(nextIndex, range.getStartIndex());
+                    nextIndex = range.getEndIndex() + 1;
+                }
+                assertEquals(numberOfSubpartitions, nextIndex);
+            }
+        }
+    }
+
+    @Test
+    public void testRangesMatchKeyGroupRanges() {
+        final int maxParallelism = 128;
+        for (int parallelism = 1; parallelism <= maxParallelism; parallelism++) {
+            for (int i = 0; i < parallelism; i++) {
+                KeyGroupRange keyGroupRange =
+                        KeyGroupRangeAssignment.computeKeyGroupRangeForOperatorIndex(
+                                maxParallelism, parallelism, i);
+                SubpartitionIndexRange range =
+                        SubpartitionIndexRange.forConsumer(i, parallelism, maxParallelism);
+                assertEquals(keyGroupRange.getStartKeyGroup(), range.getStartIndex());
+                assertEquals(keyGroupRange.getEndKeyGroup(), range.getEndIndex());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMoreConsumersThanSubpartitions() {
+        SubpartitionIndexRange.forConsumer(0, 3, 2);
+    }
+}
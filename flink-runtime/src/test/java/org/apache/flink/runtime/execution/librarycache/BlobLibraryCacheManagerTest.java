@@ -47,6 +47,7 @@ import java.util.List;
 
 import static org.apache.flink.runtime.blob.BlobServerCleanupTest.checkFileCountForJob;
 import static org.apache.flink.runtime.blob.BlobServerCleanupTest.checkFilesExist;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertEquals;
@@ -578,6 +579,117 @@ public class BlobLibraryCacheManagerTest extends TestLogger {
         releaseHookLatch.await();
     }
 
+    @Test
+    public void jobsWithSameLibraries_shareClassLoaderIfEnabled() throws IOException {
+        final List<TestingClassLoader> classLoaders = new ArrayList<>();
+        final BlobLibraryCacheManager libraryCacheManager =
+                new TestingBlobLibraryCacheManagerBuilder()
+                        .setClassLoaderFactory(ignored -> createClassLoader(classLoaders))
+                        .setShareClassLoaders(true)
+                        .build();
+
+        final LibraryCacheManager.ClassLoaderLease classLoaderLease1 =
+                libraryCacheManager.registerClassLoaderLease(new JobID());
+        final LibraryCacheManager.ClassLoaderLease classLoaderLease2 =
+                libraryCacheManager.registerClassLoaderLease(new JobID());
+
+        final UserCodeClassLoader classLoader1 =
+                classLoaderLease1.getOrResolveClassLoader(
+                        Collections.emptyList(), Collections.emptyList());
+        final UserCodeClassLoader classLoader2 =
+                classLoaderLease2.getOrResolveClassLoader(
+                        Collections.emptyList(), Collections.emptyList());
+
+        assertThat(classLoaders.size(), is(1));
+        assertThat(classLoader1.asClassLoader(), sameInstance(classLoader2.asClassLoader()));
+
+        classLoaderLease1.release();
+
+        assertFalse(classLoaders.get(0).isClosed());
+    }
+
+    @Test
+    public void jobsWithSameLibraries_doNotShareClassLoaderByDefault() throws IOException {
+        final List<TestingClassLoader> classLoaders = new ArrayList<>();
+        final BlobLibraryCacheManager libraryCacheManager =
+                new TestingBlobLibraryCacheManagerBuilder()
+                        .setClassLoaderFactory(ignored -> createClassLoader(classLoaders))
+                        .build();
+
+        libraryCacheManager
+                .registerClassLoaderLease(new JobID())
+                .getOrResolveClassLoader(Collections.emptyList(), Collections.emptyList());
+        libraryCacheManager
+                .registerClassLoaderLease(new JobID())
+                .getOrResolveClassLoader(Collections.emptyList(), Collections.emptyList());
+
+        assertThat(classLoaders.size(), is(2));
+        assertThat(libraryCacheManager.getNumberOfSharedClassLoaders(), is(0));
+    }
+
+    @Test
+    public void idleSharedClassLoader_isReusedByLaterJob() throws IOException {
+        final List<TestingClassLoader> classLoaders = new ArrayList<>();
+        final BlobLibraryCacheManager libraryCacheManager =
+                new TestingBlobLibraryCacheManagerBuilder()
+                        .setClassLoaderFactory(ignored -> createClassLoader(classLoaders))
+                        .setShareClassLoaders(true)
+                        .build();
+
+        final LibraryCacheManager.ClassLoaderLease classLoaderLease1 =
+                libraryCacheManager.registerClassLoaderLease(new JobID());
+        classLoaderLease1.getOrResolveClassLoader(Collections.emptyList(), Collections.emptyList());
+        classLoaderLease1.release();
+
+        assertFalse(classLoaders.get(0).isClosed());
+
+        libraryCacheManager
+                .registerClassLoaderLease(new JobID())
+                .getOrResolveClassLoader(Collections.emptyList(), Collections.emptyList());
+
+        assertThat(classLoaders.size(), is(1));
+
+        libraryCacheManager.shutdown();
+
+        assertTrue(classLoaders.get(0).isClosed());
+    }
+
+    @Test
+    public void idleSharedClassLoaders_areReleasedBeyondLimit() throws IOException {
+        final List<TestingClassLoader> classLoaders = new ArrayList<>();
+        final BlobLibraryCacheManager libraryCacheManager =
+                new TestingBlobLibraryCacheManagerBuilder()
+                        .setClassLoaderFactory(ignored -> createClassLoader(classLoaders))
+                        .setShareClassLoaders(true)
+                        .build();
+
+        final int numberOfJobs = BlobLibraryCacheManager.MAX_IDLE_SHARED_CLASS_LOADERS + 1;
+        for (int i = 0; i < numberOfJobs; i++) {
+            final LibraryCacheManager.ClassLoaderLease classLoaderLease =
+                    libraryCacheManager.registerClassLoaderLease(new JobID());
+            // different class paths require different class loaders
+            classLoaderLease.getOrResolveClassLoader(
+                    Collections.emptyList(),
+                    Collections.singletonList(new URL("file:///tmp/classpath-" + i)));
+            classLoaderLease.release();
+        }
+
+        assertThat(
+                libraryCacheManager.getNumberOfSharedClassLoaders(),
+                is(BlobLibraryCacheManager.MAX_IDLE_SHARED_CLASS_LOADERS));
+        // the least recently used class loader is released first
+        assertTrue(classLoaders.get(0).isClosed());
+        for (int i = 1; i < numberOfJobs; i++) {
+            assertFalse(classLoaders.get(i).isClosed());
+        }
+    }
+
+    private static TestingClassLoader createClassLoader(List<TestingClassLoader> classLoaders) {
+        final TestingClassLoader classLoader = new TestingClassLoader();
+        classLoaders.add(classLoader);
+        return classLoader;
+    }
+
     private BlobLibraryCacheManager createSimpleBlobLibraryCacheManager() throws IOException {
         return new TestingBlobLibraryCacheManagerBuilder().build();
     }
@@ -598,6 +710,8 @@ public class BlobLibraryCacheManagerTest extends TestLogger {
                         null,
                         true);
 
+        private boolean shareClassLoaders = false;
+
         private TestingBlobLibraryCacheManagerBuilder() throws IOException {
             final Configuration blobClientConfig = new Configuration();
             blobClientConfig.setString(
@@ -619,8 +733,15 @@ public class BlobLibraryCacheManagerTest extends TestLogger {
             return this;
         }
 
+        public TestingBlobLibraryCacheManagerBuilder setShareClassLoaders(
+                boolean shareClassLoaders) {
+            this.shareClassLoaders = shareClassLoaders;
+            return this;
+        }
+
         BlobLibraryCacheManager build() {
-            return new BlobLibraryCacheManager(permanentBlobCache, classLoaderFactory);
+            return new BlobLibraryCacheManager(
+                    permanentBlobCache, classLoaderFactory, shareClassLoaders);
         }
     }
 
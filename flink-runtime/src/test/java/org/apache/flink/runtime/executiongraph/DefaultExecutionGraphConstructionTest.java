@@ -24,11 +24,13 @@ import org.apache.flink.core.io.InputSplit;
 import org.apache.flink.core.io.InputSplitAssigner;
 import org.apache.flink.core.io.InputSplitSource;
 import org.apache.flink.runtime.JobException;
+import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutorServiceAdapter;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
 import org.apache.flink.runtime.jobgraph.DistributionPattern;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSet;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
 import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.runtime.jobgraph.JobGraphTestUtils;
 import org.apache.flink.runtime.jobgraph.JobVertex;
 import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
 import org.apache.flink.runtime.scheduler.SchedulerBase;
@@ -54,6 +56,8 @@ import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -422,4 +426,113 @@ public class DefaultExecutionGraphConstructionTest {
                 partitionIds,
                 containsInAnyOrder(partition1.getPartitionId(), partition2.getPartitionId()));
     }
+
+    @Test
+    public void testJobVerticesWithUndecidedParallelismAreInitializedLazily() throws Exception {
+        JobVertex v1 = new JobVertex("source");
+        JobVertex v2 = new JobVertex("undecided");
+        JobVertex v3 = new JobVertex("sink");
+
+        v1.setParallelism(2);
+        v2.setMaxParallelism(8);
+        v3.setParallelism(3);
+
+        v1.setInvokableClass(AbstractInvokable.class);
+        v2.setInvokableClass(AbstractInvokable.class);
+        v3.setInvokableClass(AbstractInvokable.class);
+
+        v2.connectNewDataSetAsInput(
+                v1, DistributionPattern.ALL_TO_ALL, ResultPartitionType.BLOCKING);
+        v3.connectNewDataSetAsInput(
+                v2, DistributionPattern.ALL_TO_ALL, ResultPartitionType.BLOCKING);
+
+        ExecutionGraph eg = createDynamicExecutionGraph(v1, v2, v3);
+        ExecutionJobVertex ejv1 = eg.getJobVertex(v1.getID());
+        ExecutionJobVertex ejv2 = eg.getJobVertex(v2.getID());
+        ExecutionJobVertex ejv3 = eg.getJobVertex(v3.getID());
+        IntermediateResult result1 = ejv1.getProducedDataSets()[0];
+
+        // the consumer of the undecided vertex is not initialized either, as its inputs are unknown
+        assertTrue(ejv1.isInitialized());
+        assertFalse(ejv2.isInitialized());
+        assertFalse(ejv3.isInitialized());
+        assertEquals(2, eg.getTotalNumberOfVertices());
+        assertThat(
+                eg.getAllIntermediateResults().keySet(),
+                containsInAnyOrder(result1.getId()));
+
+        // the producers write one subpartition for each subtask the consumer may have at most
+        for (IntermediateResultPartition partition : result1.getPartitions()) {
+            assertEquals(8, partition.getNumberOfSubpartitions());
+        }
+
+        ejv2.setParallelism(4);
+        eg.initializeJobVertex(ejv2, System.currentTimeMillis());
+        eg.initializeJobVertex(ejv3, System.currentTimeMillis());
+
+        assertEquals(4, ejv2.getTaskVertices().length);
+        assertEquals(3, ejv3.getTaskVertices().length);
+        assertEquals(9, eg.getTotalNumberOfVertices());
+        for (ExecutionVertex vertex : ejv2.getTaskVertices()) {
+            assertEquals(2, vertex.getConsumedPartitionGroup(0).size());
+        }
+        for (ExecutionVertex vertex : ejv3.getTaskVertices()) {
+            assertEquals(4, vertex.getConsumedPartitionGroup(0).size());
+        }
+        // the number of subpartitions of the producers is not affected by the decided parallelism
+        for (IntermediateResultPartition partition : result1.getPartitions()) {
+            assertEquals(8, partition.getNumberOfSubpartitions());
+        }
+    }
+
+    @Test
+    public void testCannotInitializeJobVertexBeforeItsProducers() throws Exception {
+        JobVertex v1 = new JobVertex("source");
+        JobVertex v2 = new JobVertex("undecided");
+        JobVertex v3 = new JobVertex("sink");
+
+        v1.setParallelism(2);
+        v3.setParallelism(3);
+
+        v1.setInvokableClass(AbstractInvokable.class);
+        v2.setInvokableClass(AbstractInvokable.class);
+        v3.setInvokableClass(AbstractInvokable.class);
+
+        v2.connectNewDataSetAsInput(
+                v1, DistributionPattern.ALL_TO_ALL, ResultPartitionType.BLOCKING);
+        v3.connectNewDataSetAsInput(
+                v2, DistributionPattern.ALL_TO_ALL, ResultPartitionType.BLOCKING);
+
+        ExecutionGraph eg = createDynamicExecutionGraph(v1, v2, v3);
+
+        try {
+            eg.initializeJobVertex(eg.getJobVertex(v3.getID()), System.currentTimeMillis());
+            fail("A job vertex must not be initialized before its producers.");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertFalse(eg.getJobVertex(v3.getID()).isInitialized());
+
+        ExecutionJobVertex ejv2 = eg.getJobVertex(v2.getID());
+        ejv2.setParallelism(2);
+        eg.initializeJobVertex(ejv2, System.currentTimeMillis());
+
+        try {
+            ejv2.setParallelism(3);
+            fail("The parallelism of an initialized job vertex must not be changed.");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(2, ejv2.getParallelism());
+    }
+
+    private static ExecutionGraph createDynamicExecutionGraph(JobVertex... vertices)
+            throws Exception {
+        ExecutionGraph eg =
+                TestingDefaultExecutionGraphBuilder.newBuilder()
+                        .setJobGraph(JobGraphTestUtils.batchJobGraph(vertices))
+                        .buildDynamicGraph();
+        eg.start(ComponentMainThreadExecutorServiceAdapter.forMainThread());
+        return eg;
+    }
 }
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.runtime.executiongraph;
+
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.runtime.concurrent.ManuallyTriggeredComponentMainThreadExecutor;
+import org.apache.flink.runtime.executiongraph.utils.SimpleAckingTaskManagerGateway;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
+import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
+import org.apache.flink.runtime.messages.Acknowledge;
+import org.apache.flink.runtime.shuffle.UnknownShuffleDescriptor;
+import org.apache.flink.util.FlinkException;
+import org.apache.flink.util.SerializedThrowable;
+import org.apache.flink.util.TestLogger;
+import org.apache.flink.util.concurrent.Executors;
+import org.apache.flink.util.concurrent.FutureUtils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/** Tests for the {@link TaskOperationBatcher}. */
+public class TaskOperationBatcherTest extends TestLogger {
+
+    private ManuallyTriggeredComponentMainThreadExecutor mainThreadExecutor;
+
+    @Before
+    public void setup() {
+        mainThreadExecutor =
+                new ManuallyTriggeredComponentMainThreadExecutor(Thread.currentThread());
+    }
+
+    @Test
+    public void testOperationsOfOneMainThreadRunAreBatchedPerTaskManager() {
+        final TaskOperationBatcher batcher = createTaskOperationBatcher(true);
+        final RecordingTaskManagerGateway gateway1 = new RecordingTaskManagerGateway();
+        final RecordingTaskManagerGateway gateway2 = new RecordingTaskManagerGateway();
+        final ExecutionAttemptID attempt1 = new ExecutionAttemptID();
+        final ExecutionAttemptID attempt2 = new ExecutionAttemptID();
+        final ExecutionAttemptID attempt3 = new ExecutionAttemptID();
+
+        final CompletableFuture<Acknowledge> result1 = batcher.cancelTask(gateway1, attempt1);
+        final CompletableFuture<Acknowledge> result2 = batcher.cancelTask(gateway1, attempt2);
+        final CompletableFuture<Acknowledge> result3 = batcher.cancelTask(gateway2, attempt3);
+
+        // nothing is sent before the current run of the main thread is finished
+        assertThat(gateway1.cancelBatches, is(empty()));
+        assertThat(gateway2.cancelBatches, is(empty()));
+        assertThat(result1.isDone(), is(false));
+
+        mainThreadExecutor.triggerAll();
+
+        assertThat(gateway1.cancelBatches, hasSize(1));
+        assertThat(gateway1.cancelBatches.get(0), containsInAnyOrder(attempt1, attempt2));
+        assertThat(gateway2.cancelBatches, hasSize(1));
+        assertThat(gateway2.cancelBatches.get(0), contains(attempt3));
+        assertTrue(result1.isDone() && result2.isDone() && result3.isDone());
+    }
+
+    @Test
+    public void testPartitionUpdatesOfSameTaskAreMerged() {
+        final TaskOperationBatcher batcher = createTaskOperationBatcher(true);
+        final RecordingTaskManagerGateway gateway = new RecordingTaskManagerGateway();
+        final ExecutionAttemptID attempt = new ExecutionAttemptID();
+        final PartitionInfo partitionInfo1 = createPartitionInfo();
+        final PartitionInfo partitionInfo2 = createPartitionInfo();
+
+        batcher.updatePartitions(gateway, attempt, Collections.singletonList(partitionInfo1));
+        batcher.updatePartitions(gateway, attempt, Collections.singletonList(partitionInfo2));
+        mainThreadExecutor.triggerAll();
+
+        assertThat(gateway.partitionUpdateBatches, hasSize(1));
+        assertThat(
+                gateway.partitionUpdateBatches.get(0).get(attempt),
+                contains(partitionInfo1, partitionInfo2));
+    }
+
+    @Test
+    public void testFailuresAreReportedPerTask() throws Exception {
+        final TaskOperationBatcher batcher = createTaskOperationBatcher(true);
+        final ExecutionAttemptID failingAttempt = new ExecutionAttemptID();
+        final ExecutionAttemptID attempt = new ExecutionAttemptID();
+        final RecordingTaskManagerGateway gateway =
+                new RecordingTaskManagerGateway() {
+                    @Override
+                    public CompletableFuture<Acknowledge> cancelTask(
+                            ExecutionAttemptID executionAttemptID, Time timeout) {
+                        return executionAttemptID.equals(failingAttempt)
+                                ? FutureUtils.completedExceptionally(
+                                        new FlinkException("Test exception."))
+                                : super.cancelTask(executionAttemptID, timeout);
+                    }
+                };
+
+        final CompletableFuture<Acknowledge> failingResult =
+                batcher.cancelTask(gateway, failingAttempt);
+        final CompletableFuture<Acknowledge> result = batcher.cancelTask(gateway, attempt);
+        mainThreadExecutor.triggerAll();
+
+        assertThat(result.get(), is(Acknowledge.get()));
+        try {
+            failingResult.get();
+            fail("The cancellation of the task should have failed.");
+        } catch (Exception e) {
+            assertThat(e.getCause(), instanceOf(SerializedThrowable.class));
+        }
+    }
+
+    @Test
+    public void testOperationsAreSentIndividuallyIfBatchingIsDisabled() {
+        final TaskOperationBatcher batcher = createTaskOperationBatcher(false);
+        final List<ExecutionAttemptID> canceledAttempts = new ArrayList<>();
+        final RecordingTaskManagerGateway gateway = new RecordingTaskManagerGateway();
+        gateway.setCancelConsumer(canceledAttempts::add);
+        final ExecutionAttemptID attempt = new ExecutionAttemptID();
+
+        final CompletableFuture<Acknowledge> result = batcher.cancelTask(gateway, attempt);
+
+        assertThat(canceledAttempts, contains(attempt));
+        assertThat(result.isDone(), is(true));
+
+        mainThreadExecutor.triggerAll();
+
+        assertThat(gateway.cancelBatches, is(empty()));
+    }
+
+    private TaskOperationBatcher createTaskOperationBatcher(boolean batchOperations) {
+        return new TaskOperationBatcher(
+                batchOperations,
+                Executors.directExecutor(),
+                Time.seconds(10L),
+                () -> mainThreadExecutor);
+    }
+
+    private static PartitionInfo createPartitionInfo() {
+        return new PartitionInfo(
+                new IntermediateDataSetID(), new UnknownShuffleDescriptor(new ResultPartitionID()));
+    }
+
+    private static class RecordingTaskManagerGateway extends SimpleAckingTaskManagerGateway {
+
+        private final List<Collection<ExecutionAttemptID>> cancelBatches = new ArrayList<>();
+
+        private final List<Map<ExecutionAttemptID, Collection<PartitionInfo>>>
+                partitionUpdateBatches = new ArrayList<>();
+
+        @Override
+        public CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> cancelTasks(
+                Collection<ExecutionAttemptID> executionAttemptIDs, Time timeout) {
+            cancelBatches.add(new ArrayList<>(executionAttemptIDs));
+            return super.cancelTasks(executionAttemptIDs, timeout);
+        }
+
+        @Override
+        public CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>>
+                updatePartitionsOfTasks(
+                        Map<ExecutionAttemptID, Collection<PartitionInfo>> partitionInfos,
+                        Time timeout) {
+            partitionUpdateBatches.add(partitionInfos);
+            return super.updatePartitionsOfTasks(partitionInfos, timeout);
+        }
+    }
+}
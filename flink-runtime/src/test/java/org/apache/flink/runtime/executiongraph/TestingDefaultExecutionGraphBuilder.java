@@ -37,6 +37,9 @@ import org.apache.flink.runtime.io.network.partition.JobMasterPartitionTracker;
 import org.apache.flink.runtime.io.network.partition.NoOpJobMasterPartitionTracker;
 import org.apache.flink.runtime.jobgraph.JobGraph;
 import org.apache.flink.runtime.jobgraph.JobGraphTestUtils;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.scheduler.DefaultVertexParallelismInfo;
+import org.apache.flink.runtime.scheduler.DefaultVertexParallelismStore;
 import org.apache.flink.runtime.scheduler.SchedulerBase;
 import org.apache.flink.runtime.scheduler.VertexParallelismStore;
 import org.apache.flink.runtime.shuffle.ShuffleMaster;
@@ -163,6 +166,23 @@ public class TestingDefaultExecutionGraphBuilder {
     }
 
     public DefaultExecutionGraph build() throws JobException, JobExecutionException {
+        return build(
+                Optional.ofNullable(vertexParallelismStore)
+                        .orElseGet(() -> SchedulerBase.computeVertexParallelismStore(jobGraph)));
+    }
+
+    /**
+     * Builds an execution graph whose job vertices without a configured parallelism, and their
+     * consumers, are only initialized once their parallelism is decided.
+     */
+    public DefaultExecutionGraph buildDynamicGraph() throws JobException, JobExecutionException {
+        return build(
+                Optional.ofNullable(vertexParallelismStore)
+                        .orElseGet(() -> computeDynamicVertexParallelismStore(jobGraph)));
+    }
+
+    private DefaultExecutionGraph build(VertexParallelismStore parallelismStore)
+            throws JobException, JobExecutionException {
         return DefaultExecutionGraphBuilder.buildGraph(
                 jobGraph,
                 jobMasterConfig,
@@ -184,7 +204,22 @@ public class TestingDefaultExecutionGraphBuilder {
                 executionStateUpdateListener,
                 System.currentTimeMillis(),
                 new DefaultVertexAttemptNumberStore(),
-                Optional.ofNullable(vertexParallelismStore)
-                        .orElseGet(() -> SchedulerBase.computeVertexParallelismStore(jobGraph)));
+                parallelismStore);
+    }
+
+    private static VertexParallelismStore computeDynamicVertexParallelismStore(
+            JobGraph jobGraph) {
+        final DefaultVertexParallelismStore store = new DefaultVertexParallelismStore();
+        for (JobVertex vertex : jobGraph.getVertices()) {
+            final int maxParallelism =
+                    vertex.getMaxParallelism() == JobVertex.MAX_PARALLELISM_DEFAULT
+                            ? SchedulerBase.getDefaultMaxParallelism(vertex)
+                            : vertex.getMaxParallelism();
+            store.setParallelismInfo(
+                    vertex.getID(),
+                    new DefaultVertexParallelismInfo(
+                            vertex.getParallelism(), maxParallelism, ignored -> Optional.empty()));
+        }
+        return store;
     }
 }
@@ -18,25 +18,39 @@
 
 package org.apache.flink.runtime.executiongraph.failover.flip1;
 
+import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutorServiceAdapter;
 import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.DefaultExecutionGraph;
 import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
+import org.apache.flink.runtime.executiongraph.TestingDefaultExecutionGraphBuilder;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
 import org.apache.flink.runtime.io.network.partition.consumer.PartitionConnectionException;
+import org.apache.flink.runtime.jobgraph.DistributionPattern;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
+import org.apache.flink.runtime.jobgraph.JobGraphTestUtils;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.scheduler.adapter.DefaultExecutionTopology;
+import org.apache.flink.runtime.scheduler.adapter.DefaultExecutionVertex;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingExecutionVertex;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingResultPartition;
 import org.apache.flink.runtime.scheduler.strategy.TestingSchedulingExecutionVertex;
 import org.apache.flink.runtime.scheduler.strategy.TestingSchedulingResultPartition;
 import org.apache.flink.runtime.scheduler.strategy.TestingSchedulingTopology;
+import org.apache.flink.runtime.testtasks.NoOpInvokable;
 import org.apache.flink.util.TestLogger;
 
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.stream.Stream;
 
+import static org.apache.flink.runtime.executiongraph.ExecutionGraphTestUtils.createNoOpVertex;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 
@@ -272,6 +286,113 @@ public class RestartPipelinedRegionFailoverStrategyTest extends TestLogger {
                 .restarts(v1, v2, v3, v4, v5, v6);
     }
 
+    /**
+     * Tests that the regions to restart are still correct when the failover strategy decides
+     * repeatedly on an all-to-all connected topology, whose consumers share the same consumed
+     * partition group and consumer vertex group.
+     *
+     * <pre>
+     *     (v1) -+-> (v3)
+     *           x
+     *     (v2) -+-> (v4)
+     *
+     *           ^
+     *           |
+     *       (blocking)
+     * </pre>
+     *
+     * Each vertex is in an individual region.
+     */
+    @Test
+    public void testRepeatedRegionFailoverForAllToAllBlockingEdges() {
+        final TestingSchedulingTopology topology = new TestingSchedulingTopology();
+
+        TestingSchedulingExecutionVertex v1 = topology.newExecutionVertex(ExecutionState.FINISHED);
+        TestingSchedulingExecutionVertex v2 = topology.newExecutionVertex(ExecutionState.FINISHED);
+        TestingSchedulingExecutionVertex v3 = topology.newExecutionVertex(ExecutionState.RUNNING);
+        TestingSchedulingExecutionVertex v4 = topology.newExecutionVertex(ExecutionState.RUNNING);
+
+        final List<TestingSchedulingResultPartition> partitions =
+                topology.connectAllToAll(Arrays.asList(v1, v2), Arrays.asList(v3, v4))
+                        .withResultPartitionType(ResultPartitionType.BLOCKING)
+                        .finish();
+        final TestingSchedulingResultPartition v1out = partitions.get(0);
+        final TestingSchedulingResultPartition v2out = partitions.get(1);
+
+        final TestResultPartitionAvailabilityChecker availabilityChecker =
+                new TestResultPartitionAvailabilityChecker();
+        final RestartPipelinedRegionFailoverStrategy strategy =
+                new RestartPipelinedRegionFailoverStrategy(topology, availabilityChecker);
+
+        for (int i = 0; i < 2; i++) {
+            verifyThatFailedExecution(strategy, v1).restarts(v1, v3, v4);
+            verifyThatFailedExecution(strategy, v2).restarts(v2, v3, v4);
+            verifyThatFailedExecution(strategy, v3).restarts(v3);
+            verifyThatFailedExecution(strategy, v4)
+                    .partitionConnectionCause(v1out)
+                    .restarts(v1, v3, v4);
+
+            availabilityChecker.markResultPartitionFailed(v2out.getId());
+            verifyThatFailedExecution(strategy, v3).restarts(v2, v3, v4);
+            availabilityChecker.removeResultPartitionFromFailedState(v2out.getId());
+        }
+    }
+
+    /**
+     * Tests that the cached connections of a region are dropped when the topology is updated, so
+     * that consumers initialized later are restarted together with the region they consume.
+     *
+     * <pre>
+     *     (p1) -+-> (c1)
+     *           x   (c2)
+     *     (p2) -+-> (c3)
+     *
+     *           ^
+     *           |
+     *       (blocking, consumers initialized later)
+     * </pre>
+     */
+    @Test
+    public void testRegionConnectionsAreRecomputedWhenTopologyIsUpdated() throws Exception {
+        final JobVertex producer = createNoOpVertex("producer", 2);
+        final JobVertex consumer = new JobVertex("consumer");
+        consumer.setInvokableClass(NoOpInvokable.class);
+        consumer.connectNewDataSetAsInput(
+                producer, DistributionPattern.ALL_TO_ALL, ResultPartitionType.BLOCKING);
+
+        final DefaultExecutionGraph dynamicGraph =
+                TestingDefaultExecutionGraphBuilder.newBuilder()
+                        .setJobGraph(JobGraphTestUtils.batchJobGraph(producer, consumer))
+                        .buildDynamicGraph();
+        dynamicGraph.start(ComponentMainThreadExecutorServiceAdapter.forMainThread());
+        final DefaultExecutionTopology topology =
+                DefaultExecutionTopology.fromExecutionGraph(dynamicGraph);
+        final RestartPipelinedRegionFailoverStrategy strategy =
+                new RestartPipelinedRegionFailoverStrategy(topology);
+
+        final DefaultExecutionVertex p1 =
+                topology.getVertex(
+                        dynamicGraph.getJobVertex(producer.getID()).getTaskVertices()[0].getID());
+
+        // caches the connections of the region of p1, which has no consumers yet
+        verifyThatFailedExecution(strategy, p1).restarts(p1);
+
+        final ExecutionJobVertex consumerVertex = dynamicGraph.getJobVertex(consumer.getID());
+        consumerVertex.setParallelism(3);
+        dynamicGraph.initializeJobVertex(consumerVertex, System.currentTimeMillis());
+        topology.notifyExecutionGraphUpdated(
+                dynamicGraph, Collections.singletonList(consumerVertex));
+
+        final DefaultExecutionVertex c1 =
+                topology.getVertex(consumerVertex.getTaskVertices()[0].getID());
+        final DefaultExecutionVertex c2 =
+                topology.getVertex(consumerVertex.getTaskVertices()[1].getID());
+        final DefaultExecutionVertex c3 =
+                topology.getVertex(consumerVertex.getTaskVertices()[2].getID());
+
+        verifyThatFailedExecution(strategy, p1).restarts(p1, c1, c2, c3);
+    }
+
     /**
      * Tests region failover does not restart vertexes which are already in initial CREATED state.
      *
@@ -30,10 +30,14 @@ import org.apache.flink.runtime.jobgraph.OperatorID;
 import org.apache.flink.runtime.jobmanager.slots.TaskManagerGateway;
 import org.apache.flink.runtime.messages.Acknowledge;
 import org.apache.flink.runtime.operators.coordination.OperatorEvent;
+import org.apache.flink.runtime.taskexecutor.TaskOperationResults;
+import org.apache.flink.util.SerializedThrowable;
 import org.apache.flink.util.SerializedValue;
 import org.apache.flink.util.function.TriConsumer;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -104,6 +108,16 @@ public class SimpleAckingTaskManagerGateway implements TaskManagerGateway {
         return CompletableFuture.completedFuture(Acknowledge.get());
     }
 
+    @Override
+    public CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> submitTasks(
+            Collection<TaskDeploymentDescriptor> tdds, Time timeout) {
+        final Map<ExecutionAttemptID, CompletableFuture<Acknowledge>> results = new HashMap<>();
+        for (TaskDeploymentDescriptor tdd : tdds) {
+            results.put(tdd.getExecutionAttemptId(), submitTask(tdd, timeout));
+        }
+        return TaskOperationResults.collectFailures(results);
+    }
+
     @Override
     public CompletableFuture<Acknowledge> cancelTask(
             ExecutionAttemptID executionAttemptID, Time timeout) {
@@ -111,6 +125,16 @@ public class SimpleAckingTaskManagerGateway implements TaskManagerGateway {
         return CompletableFuture.completedFuture(Acknowledge.get());
     }
 
+    @Override
+    public CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> cancelTasks(
+            Collection<ExecutionAttemptID> executionAttemptIDs, Time timeout) {
+        final Map<ExecutionAttemptID, CompletableFuture<Acknowledge>> results = new HashMap<>();
+        for (ExecutionAttemptID executionAttemptID : executionAttemptIDs) {
+            results.put(executionAttemptID, cancelTask(executionAttemptID, timeout));
+        }
+        return TaskOperationResults.collectFailures(results);
+    }
+
     @Override
     public CompletableFuture<Acknowledge> updatePartitions(
             ExecutionAttemptID executionAttemptID,
@@ -120,6 +144,20 @@ public class SimpleAckingTaskManagerGateway implements TaskManagerGateway {
         return CompletableFuture.completedFuture(Acknowledge.get());
     }
 
+    @Override
+    public CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> updatePartitionsOfTasks(
+            Map<ExecutionAttemptID, Collection<PartitionInfo>> partitionInfos, Time timeout) {
+        final Map<ExecutionAttemptID, CompletableFuture<Acknowledge>> results = new HashMap<>();
+        for (Map.Entry<ExecutionAttemptID, Collection<PartitionInfo>> partitionInfosOfTask :
+                partitionInfos.entrySet()) {
+            final ExecutionAttemptID executionAttemptID = partitionInfosOfTask.getKey();
+            results.put(
+                    executionAttemptID,
+                    updatePartitions(executionAttemptID, partitionInfosOfTask.getValue(), timeout));
+        }
+        return TaskOperationResults.collectFailures(results);
+    }
+
     @Override
     public void releasePartitions(JobID jobId, Set<ResultPartitionID> partitionIds) {
         releasePartitionsConsumer.accept(jobId, partitionIds);
@@ -189,7 +189,8 @@ public class NettyShuffleEnvironmentBuilder {
                         maxBuffersPerChannel,
                         batchShuffleReadMemoryBytes,
                         sortShuffleMinBuffers,
-                        sortShuffleMinParallelism),
+                        sortShuffleMinParallelism,
+                        0L),
                 taskManagerLocation,
                 new TaskEventDispatcher(),
                 resultPartitionManager,
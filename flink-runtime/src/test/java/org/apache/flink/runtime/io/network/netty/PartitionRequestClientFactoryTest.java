@@ -39,7 +39,10 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
@@ -209,6 +212,29 @@ public class PartitionRequestClientFactoryTest {
         serverAndClient.server().shutdown();
     }
 
+    @Test
+    public void testLimitedNumberOfConnectionsPerAddress() throws Exception {
+        NettyTestUtil.NettyServerAndClient nettyServerAndClient = createNettyServerAndClient();
+        try {
+            final PartitionRequestClientFactory factory =
+                    new PartitionRequestClientFactory(nettyServerAndClient.client(), 0, 2);
+
+            final NettyPartitionRequestClient client1 =
+                    factory.createPartitionRequestClient(nettyServerAndClient.getConnectionID(1));
+            final NettyPartitionRequestClient client2 =
+                    factory.createPartitionRequestClient(nettyServerAndClient.getConnectionID(2));
+            final NettyPartitionRequestClient client3 =
+                    factory.createPartitionRequestClient(nettyServerAndClient.getConnectionID(3));
+
+            assertNotSame(client1, client2);
+            assertSame(client1, client3);
+            assertEquals(2, factory.getNumberOfActiveClients());
+        } finally {
+            nettyServerAndClient.client().shutdown();
+            nettyServerAndClient.server().shutdown();
+        }
+    }
+
     @Test(expected = RemoteTransportException.class)
     public void testThrowsWhenNetworkFailure() throws Exception {
         NettyTestUtil.NettyServerAndClient nettyServerAndClient = createNettyServerAndClient();
@@ -44,6 +44,8 @@ import org.apache.flink.runtime.io.network.util.TestBufferFactory;
 
 import org.apache.flink.shaded.netty4.io.netty.buffer.ByteBuf;
 import org.apache.flink.shaded.netty4.io.netty.buffer.Unpooled;
+import org.apache.flink.shaded.netty4.io.netty.channel.ChannelHandlerContext;
+import org.apache.flink.shaded.netty4.io.netty.channel.ChannelOutboundHandlerAdapter;
 import org.apache.flink.shaded.netty4.io.netty.channel.embedded.EmbeddedChannel;
 
 import org.junit.AfterClass;
@@ -139,6 +141,48 @@ public class PartitionRequestQueueTest {
         assertEquals(buffersToWrite, channel.outboundMessages().size());
     }
 
+    /**
+     * Tests that the buffers of all available readers are written while the channel is writable
+     * and flushed together instead of flushing every single buffer response.
+     */
+    @Test
+    public void testWriteBuffersOfAvailableReadersWithSingleFlush() throws Exception {
+        final int buffersToWrite = 3;
+        final FlushCountingHandler flushCounter = new FlushCountingHandler();
+        final PartitionRequestQueue queue = new PartitionRequestQueue();
+        final EmbeddedChannel channel = new EmbeddedChannel(flushCounter, queue);
+
+        final CreditBasedSequenceNumberingViewReader reader1 =
+                new CreditBasedSequenceNumberingViewReader(new InputChannelID(0, 0), 10, queue);
+        final CreditBasedSequenceNumberingViewReader reader2 =
+                new CreditBasedSequenceNumberingViewReader(new InputChannelID(1, 1), 10, queue);
+        reader1.requestSubpartitionView(
+                (partitionId, index, availabilityListener) ->
+                        new DefaultBufferResultSubpartitionView(buffersToWrite),
+                new ResultPartitionID(),
+                0);
+        reader2.requestSubpartitionView(
+                (partitionId, index, availabilityListener) ->
+                        new DefaultBufferResultSubpartitionView(buffersToWrite),
+                new ResultPartitionID(),
+                0);
+
+        // block the channel so that both readers are enqueued before writing
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+        reader1.notifyDataAvailable();
+        reader2.notifyDataAvailable();
+        channel.runPendingTasks();
+        assertEquals(2, queue.getAvailableReaders().size());
+        assertEquals(0, flushCounter.numFlushes);
+
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, true);
+        channel.runPendingTasks();
+
+        assertEquals(2 * buffersToWrite, channel.outboundMessages().size());
+        assertEquals(0, queue.getAvailableReaders().size());
+        assertEquals(1, flushCounter.numFlushes);
+    }
+
     @Test
     public void testProducerFailedException() throws Exception {
         PartitionRequestQueue queue = new PartitionRequestQueue();
@@ -252,6 +296,16 @@ public class PartitionRequestQueueTest {
         }
     }
 
+    private static class FlushCountingHandler extends ChannelOutboundHandlerAdapter {
+        private int numFlushes;
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) throws Exception {
+            numFlushes++;
+            super.flush(ctx);
+        }
+    }
+
     private static class EmptyAlwaysAvailableResultSubpartitionView
             extends NoOpResultSubpartitionView {
         @Override
@@ -18,9 +18,15 @@
 
 package org.apache.flink.runtime.io.network.partition;
 
+import org.apache.flink.api.common.state.CheckpointListener;
+import org.apache.flink.runtime.checkpoint.CheckpointOptions;
+import org.apache.flink.runtime.event.AbstractEvent;
 import org.apache.flink.runtime.io.disk.NoOpFileChannelManager;
 import org.apache.flink.runtime.io.network.NettyShuffleEnvironment;
 import org.apache.flink.runtime.io.network.NettyShuffleEnvironmentBuilder;
+import org.apache.flink.runtime.io.network.api.CheckpointBarrier;
+import org.apache.flink.runtime.io.network.api.serialization.EventSerializer;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
 
 import org.junit.Test;
 
@@ -29,7 +35,7 @@ import java.io.IOException;
 import static java.util.Objects.requireNonNull;
 import static org.apache.flink.runtime.io.network.buffer.BufferBuilderAndConsumerTest.assertContent;
 import static org.apache.flink.runtime.io.network.buffer.BufferBuilderAndConsumerTest.toByteBuffer;
-import static org.apache.flink.runtime.io.network.partition.PartitionTestUtils.createPartition;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -183,6 +189,142 @@ public class PipelinedApproximateSubpartitionTest extends PipelinedSubpartitionT
         assertContent(requireNonNull(subpartition.pollBuffer()).buffer(), null, 100, 101, 102);
     }
 
+    @Test
+    public void testReplayInFlightLogToReconnectingView() throws Exception {
+        final BufferWritingResultPartition writer = createResultPartition(1024);
+        final PipelinedApproximateSubpartition subpartition =
+                getPipelinedApproximateSubpartition(writer);
+        subpartition.createReadView(() -> {});
+
+        writer.emitRecord(toByteBuffer(0, 1, 2, 3, 42), 0);
+        assertContent(requireNonNull(subpartition.pollBuffer()).buffer(), null, 0, 1, 2, 3);
+
+        // reconnecting request
+        subpartition.createReadView(() -> {});
+        assertFalse(subpartition.isPartialBufferCleanupRequired());
+
+        // the data sent before is replayed, then the view continues with the unsent data
+        assertContent(requireNonNull(subpartition.pollBuffer()).buffer(), null, 0, 1, 2, 3);
+        assertContent(requireNonNull(subpartition.pollBuffer()).buffer(), null, 42);
+        assertNull(subpartition.pollBuffer());
+    }
+
+    @Test
+    public void testTrimInFlightLogOnCompletedCheckpoint() throws Exception {
+        final BufferWritingResultPartition writer = createResultPartition(1024);
+        final PipelinedApproximateSubpartition subpartition =
+                getPipelinedApproximateSubpartition(writer);
+        subpartition.createReadView(() -> {});
+
+        writer.emitRecord(toByteBuffer(0, 1), 0);
+        writer.broadcastEvent(
+                new CheckpointBarrier(1L, 0L, CheckpointOptions.forCheckpointWithDefaultLocation()),
+                false);
+        writer.emitRecord(toByteBuffer(8, 9), 0);
+
+        assertContent(requireNonNull(subpartition.pollBuffer()).buffer(), null, 0, 1);
+        assertFalse(requireNonNull(subpartition.pollBuffer()).buffer().isBuffer());
+        subpartition.resumeConsumption();
+        assertContent(requireNonNull(subpartition.pollBuffer()).buffer(), null, 8, 9);
+
+        subpartition.notifyCheckpointComplete(1L);
+        assertEquals(2 * Integer.BYTES, subpartition.getInFlightLogBytes());
+
+        // only the data sent after the barrier of the completed checkpoint is replayed
+        subpartition.createReadView(() -> {});
+        assertContent(requireNonNull(subpartition.pollBuffer()).buffer(), null, 8, 9);
+        assertNull(subpartition.pollBuffer());
+    }
+
+    /**
+     * Tests the replay to a restarted consumer whose input channels are fed by upstream partitions
+     * which trimmed their in-flight logs at different checkpoints, because the notification of the
+     * last completed checkpoint reached only one of the upstream tasks before the failure. The
+     * barrier of that checkpoint is then replayed on the other channel only.
+     */
+    @Test
+    public void testReplayFromPartitionsTrimmedAtDifferentCheckpoints() throws Exception {
+        final BufferWritingResultPartition notifiedWriter = createResultPartition(1024);
+        final BufferWritingResultPartition lateWriter = createResultPartition(1024);
+        final PipelinedApproximateSubpartition notifiedChannel =
+                getPipelinedApproximateSubpartition(notifiedWriter);
+        final PipelinedApproximateSubpartition lateChannel =
+                getPipelinedApproximateSubpartition(lateWriter);
+
+        sendAndConsumeTwoCheckpoints(notifiedWriter, notifiedChannel);
+        sendAndConsumeTwoCheckpoints(lateWriter, lateChannel);
+
+        ((CheckpointListener) notifiedWriter).notifyCheckpointComplete(2L);
+        ((CheckpointListener) lateWriter).notifyCheckpointComplete(1L);
+
+        // reconnecting requests of the restarted consumer
+        notifiedChannel.createReadView(() -> {});
+        lateChannel.createReadView(() -> {});
+
+        assertContent(requireNonNull(notifiedChannel.pollBuffer()).buffer(), null, 16, 17);
+        assertNull(notifiedChannel.pollBuffer());
+
+        assertContent(requireNonNull(lateChannel.pollBuffer()).buffer(), null, 8, 9);
+        assertCheckpointBarrier(2L, requireNonNull(lateChannel.pollBuffer()).buffer());
+        lateChannel.resumeConsumption();
+        assertContent(requireNonNull(lateChannel.pollBuffer()).buffer(), null, 16, 17);
+        assertNull(lateChannel.pollBuffer());
+    }
+
+    private static void sendAndConsumeTwoCheckpoints(
+            BufferWritingResultPartition writer, PipelinedApproximateSubpartition subpartition)
+            throws Exception {
+        subpartition.createReadView(() -> {});
+
+        writer.emitRecord(toByteBuffer(0, 1), 0);
+        writer.broadcastEvent(createCheckpointBarrier(1L), false);
+        writer.emitRecord(toByteBuffer(8, 9), 0);
+        writer.broadcastEvent(createCheckpointBarrier(2L), false);
+        writer.emitRecord(toByteBuffer(16, 17), 0);
+
+        assertContent(requireNonNull(subpartition.pollBuffer()).buffer(), null, 0, 1);
+        assertCheckpointBarrier(1L, requireNonNull(subpartition.pollBuffer()).buffer());
+        subpartition.resumeConsumption();
+        assertContent(requireNonNull(subpartition.pollBuffer()).buffer(), null, 8, 9);
+        assertCheckpointBarrier(2L, requireNonNull(subpartition.pollBuffer()).buffer());
+        subpartition.resumeConsumption();
+        assertContent(requireNonNull(subpartition.pollBuffer()).buffer(), null, 16, 17);
+        assertNull(subpartition.pollBuffer());
+    }
+
+    private static CheckpointBarrier createCheckpointBarrier(long checkpointId) {
+        return new CheckpointBarrier(
+                checkpointId, 0L, CheckpointOptions.forCheckpointWithDefaultLocation());
+    }
+
+    private static void assertCheckpointBarrier(long expectedCheckpointId, Buffer buffer)
+            throws IOException {
+        assertFalse(buffer.isBuffer());
+        final AbstractEvent event =
+                EventSerializer.fromBuffer(
+                        buffer, PipelinedApproximateSubpartitionTest.class.getClassLoader());
+        assertTrue(event instanceof CheckpointBarrier);
+        assertEquals(expectedCheckpointId, ((CheckpointBarrier) event).getId());
+    }
+
+    @Test
+    public void testSkipPartialDataAfterInFlightLogOverflow() throws Exception {
+        final BufferWritingResultPartition writer = createResultPartition(BUFFER_SIZE);
+        final PipelinedApproximateSubpartition subpartition =
+                getPipelinedApproximateSubpartition(writer);
+        subpartition.createReadView(() -> {});
+
+        writer.emitRecord(toByteBuffer(0, 1, 2, 3, 42), 0);
+        writer.emitRecord(toByteBuffer(8, 9), 0);
+        assertContent(requireNonNull(subpartition.pollBuffer()).buffer(), null, 0, 1, 2, 3);
+        assertContent(requireNonNull(subpartition.pollBuffer()).buffer(), null, 42, 8, 9);
+        assertEquals(0L, subpartition.getInFlightLogBytes());
+
+        // the log is incomplete, so the reconnecting view skips the partial record as before
+        subpartition.createReadView(() -> {});
+        assertTrue(subpartition.isPartialBufferCleanupRequired());
+    }
+
     private static PipelinedApproximateSubpartition createPipelinedApproximateSubpartition()
             throws IOException {
         final BufferWritingResultPartition parent = createResultPartition();
@@ -195,17 +337,25 @@ public class PipelinedApproximateSubpartitionTest extends PipelinedSubpartitionT
     }
 
     private static BufferWritingResultPartition createResultPartition() throws IOException {
+        return createResultPartition(0L);
+    }
+
+    private static BufferWritingResultPartition createResultPartition(long maxInFlightLogBytes)
+            throws IOException {
         NettyShuffleEnvironment network =
                 new NettyShuffleEnvironmentBuilder()
                         .setNumNetworkBuffers(10)
                         .setBufferSize(BUFFER_SIZE)
                         .build();
         ResultPartition resultPartition =
-                createPartition(
-                        network,
-                        NoOpFileChannelManager.INSTANCE,
-                        ResultPartitionType.PIPELINED_APPROXIMATE,
-                        2);
+                new ResultPartitionBuilder()
+                        .setResultPartitionManager(network.getResultPartitionManager())
+                        .setupBufferPoolFactoryFromNettyShuffleEnvironment(network)
+                        .setFileChannelManager(NoOpFileChannelManager.INSTANCE)
+                        .setResultPartitionType(ResultPartitionType.PIPELINED_APPROXIMATE)
+                        .setNumberOfSubpartitions(2)
+                        .setApproximateRecoveryMaxInFlightLogBytes(maxInFlightLogBytes)
+                        .build();
         resultPartition.setup();
         return (BufferWritingResultPartition) resultPartition;
     }
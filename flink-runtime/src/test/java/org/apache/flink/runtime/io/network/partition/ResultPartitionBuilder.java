@@ -78,6 +78,8 @@ public class ResultPartitionBuilder {
 
     private boolean sslEnabled = false;
 
+    private long approximateRecoveryMaxInFlightLogBytes = 0L;
+
     private String compressionCodec = "LZ4";
 
     public ResultPartitionBuilder setResultPartitionIndex(int partitionIndex) {
@@ -203,6 +205,12 @@ public class ResultPartitionBuilder {
         return this;
     }
 
+    public ResultPartitionBuilder setApproximateRecoveryMaxInFlightLogBytes(
+            long approximateRecoveryMaxInFlightLogBytes) {
+        this.approximateRecoveryMaxInFlightLogBytes = approximateRecoveryMaxInFlightLogBytes;
+        return this;
+    }
+
     public ResultPartition build() {
         ResultPartitionFactory resultPartitionFactory =
                 new ResultPartitionFactory(
@@ -220,7 +228,8 @@ public class ResultPartitionBuilder {
                         maxBuffersPerChannel,
                         sortShuffleMinBuffers,
                         sortShuffleMinParallelism,
-                        sslEnabled);
+                        sslEnabled,
+                        approximateRecoveryMaxInFlightLogBytes);
 
         SupplierWithException<BufferPool, IOException> factory =
                 bufferPoolFactory.orElseGet(
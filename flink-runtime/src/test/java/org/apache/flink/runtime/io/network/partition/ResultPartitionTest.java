@@ -19,11 +19,14 @@
 package org.apache.flink.runtime.io.network.partition;
 
 import org.apache.flink.api.common.JobID;
+import org.apache.flink.api.common.state.CheckpointListener;
+import org.apache.flink.runtime.checkpoint.CheckpointOptions;
 import org.apache.flink.runtime.checkpoint.channel.ResultSubpartitionInfo;
 import org.apache.flink.runtime.io.disk.FileChannelManager;
 import org.apache.flink.runtime.io.disk.FileChannelManagerImpl;
 import org.apache.flink.runtime.io.network.NettyShuffleEnvironment;
 import org.apache.flink.runtime.io.network.NettyShuffleEnvironmentBuilder;
+import org.apache.flink.runtime.io.network.api.CheckpointBarrier;
 import org.apache.flink.runtime.io.network.api.EndOfData;
 import org.apache.flink.runtime.io.network.api.EndOfPartitionEvent;
 import org.apache.flink.runtime.io.network.api.serialization.EventSerializer;
@@ -49,6 +52,7 @@ import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 
+import static java.util.Objects.requireNonNull;
 import static org.apache.flink.runtime.io.network.partition.PartitionTestUtils.createPartition;
 import static org.apache.flink.runtime.io.network.partition.PartitionTestUtils.verifyCreateSubpartitionViewThrowsException;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -57,6 +61,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
@@ -154,6 +159,57 @@ public class ResultPartitionTest {
         }
     }
 
+    /**
+     * Tests that the decorator forwards completed checkpoints to the wrapped partition, which trims
+     * the in-flight logs of its approximate pipelined subpartitions.
+     */
+    @Test
+    public void testConsumableNotifyingWriterForwardsCompletedCheckpoints() throws Exception {
+        final NettyShuffleEnvironment network =
+                new NettyShuffleEnvironmentBuilder()
+                        .setNumNetworkBuffers(10)
+                        .setBufferSize(bufferSize)
+                        .build();
+        final BufferWritingResultPartition partition =
+                (BufferWritingResultPartition)
+                        new ResultPartitionBuilder()
+                                .setResultPartitionManager(network.getResultPartitionManager())
+                                .setupBufferPoolFactoryFromNettyShuffleEnvironment(network)
+                                .setFileChannelManager(fileChannelManager)
+                                .setResultPartitionType(ResultPartitionType.PIPELINED_APPROXIMATE)
+                                .setApproximateRecoveryMaxInFlightLogBytes(bufferSize)
+                                .build();
+        partition.setup();
+        final ResultPartitionWriter partitionWriter =
+                ConsumableNotifyingResultPartitionWriterDecorator.decorate(
+                        Collections.singleton(
+                                PartitionTestUtils.createPartitionDeploymentDescriptor(
+                                        ResultPartitionType.PIPELINED_APPROXIMATE)),
+                        new ResultPartitionWriter[] {partition},
+                        new NoOpTaskActions(),
+                        new JobID(),
+                        new TestResultPartitionConsumableNotifier())[0];
+        assertNotSame(partition, partitionWriter);
+
+        final PipelinedApproximateSubpartition subpartition =
+                (PipelinedApproximateSubpartition) partition.subpartitions[0];
+        subpartition.createReadView(() -> {});
+
+        partitionWriter.broadcastEvent(
+                new CheckpointBarrier(1L, 0L, CheckpointOptions.forCheckpointWithDefaultLocation()),
+                false);
+        partitionWriter.emitRecord(ByteBuffer.allocate(Integer.BYTES), 0);
+        assertFalse(requireNonNull(subpartition.pollBuffer()).buffer().isBuffer());
+        subpartition.resumeConsumption();
+        assertTrue(requireNonNull(subpartition.pollBuffer()).buffer().isBuffer());
+        assertTrue(subpartition.getInFlightLogBytes() > Integer.BYTES);
+
+        ((CheckpointListener) partitionWriter).notifyCheckpointComplete(1L);
+
+        // only the record sent after the barrier of the completed checkpoint is kept
+        assertEquals(Integer.BYTES, subpartition.getInFlightLogBytes());
+    }
+
     @Test
     public void testAddOnFinishedPipelinedPartition() throws Exception {
         testAddOnFinishedPartition(ResultPartitionType.PIPELINED);
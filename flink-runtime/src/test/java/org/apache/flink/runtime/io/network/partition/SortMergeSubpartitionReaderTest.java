@@ -128,6 +128,49 @@ public class SortMergeSubpartitionReaderTest extends TestLogger {
         assertEquals(4, segments.size());
     }
 
+    @Test
+    public void testAdaptiveReadAhead() throws Exception {
+        PartitionedFileReader fileReader =
+                new PartitionedFileReader(partitionedFile, 0, dataFileChannel, indexFileChannel);
+        SortMergeSubpartitionReader subpartitionReader =
+                new SortMergeSubpartitionReader(
+                        new CountingAvailabilityListener(), fileReader, 1, 4);
+        assertEquals(1, subpartitionReader.getNumReadAheadBuffers());
+
+        // nothing read yet, so the read-ahead grows
+        assertTrue(subpartitionReader.updateReadAhead());
+        assertEquals(2, subpartitionReader.getNumReadAheadBuffers());
+
+        Queue<MemorySegment> segments = createsMemorySegments(numBuffersPerSubpartition);
+        subpartitionReader.readBuffers(segments, FreeingBufferRecycler.INSTANCE);
+        assertEquals(2, subpartitionReader.unsynchronizedGetNumberOfQueuedBuffers());
+        assertEquals(numBuffersPerSubpartition - 2, segments.size());
+
+        // the consumer did not take any buffer, so the read-ahead shrinks
+        assertFalse(subpartitionReader.updateReadAhead());
+        assertEquals(1, subpartitionReader.getNumReadAheadBuffers());
+
+        // the consumer took some buffers, so the read-ahead does not change
+        checkNotNull(subpartitionReader.getNextBuffer()).buffer().recycleBuffer();
+        assertFalse(subpartitionReader.updateReadAhead());
+        assertEquals(1, subpartitionReader.getNumReadAheadBuffers());
+
+        // the consumer took all buffers, so the read-ahead grows up to the maximum
+        checkNotNull(subpartitionReader.getNextBuffer()).buffer().recycleBuffer();
+        assertTrue(subpartitionReader.updateReadAhead());
+        assertEquals(2, subpartitionReader.getNumReadAheadBuffers());
+        assertTrue(subpartitionReader.updateReadAhead());
+        assertEquals(4, subpartitionReader.getNumReadAheadBuffers());
+        assertTrue(subpartitionReader.updateReadAhead());
+        assertEquals(4, subpartitionReader.getNumReadAheadBuffers());
+
+        subpartitionReader.readBuffers(segments, FreeingBufferRecycler.INSTANCE);
+        assertEquals(4, subpartitionReader.unsynchronizedGetNumberOfQueuedBuffers());
+        assertEquals(numBuffersPerSubpartition - 6, segments.size());
+
+        subpartitionReader.releaseAllResources();
+    }
+
     @Test
     public void testPollBuffers() throws Exception {
         SortMergeSubpartitionReader subpartitionReader =
@@ -1083,6 +1083,81 @@ public class RemoteInputChannelTest {
         }
     }
 
+    /**
+     * Tests to verify that there is no race condition with two things running in parallel: the
+     * lock-free fast path of requesting floating buffers on an unchanged sender backlog and some
+     * other thread releasing the input channel.
+     */
+    @Test
+    public void testConcurrentOnSenderBacklogFastPathAndRelease() throws Exception {
+        // Setup
+        final NetworkBufferPool networkBufferPool = new NetworkBufferPool(130, 32);
+        final int numExclusiveBuffers = 2;
+        final int numFloatingBuffers = 128;
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        final SingleInputGate inputGate = createSingleInputGate(1, networkBufferPool);
+        final RemoteInputChannel inputChannel =
+                createRemoteInputChannel(inputGate, numExclusiveBuffers);
+        Throwable thrown = null;
+        try {
+            final BufferPool bufferPool =
+                    networkBufferPool.createBufferPool(numFloatingBuffers, numFloatingBuffers);
+            inputGate.setBufferPool(bufferPool);
+            inputGate.setupChannels();
+            inputChannel.requestSubpartition(0);
+
+            final Callable<Void> requestBufferTask =
+                    () -> {
+                        while (true) {
+                            // the exclusive buffers cover an empty backlog, so repeating it only
+                            // takes the fast path, whereas a changed backlog takes the slow path
+                            for (int j = 0; j < 10; j++) {
+                                inputChannel.onSenderBacklog(0);
+                            }
+                            inputChannel.onSenderBacklog(1);
+
+                            if (inputChannel.isReleased()) {
+                                return null;
+                            }
+                        }
+                    };
+
+            final Callable<Void> releaseTask =
+                    () -> {
+                        inputChannel.releaseAllResources();
+
+                        return null;
+                    };
+
+            // Submit tasks and wait to finish
+            submitTasksAndWaitForResults(executor, new Callable[] {requestBufferTask, releaseTask});
+
+            final int numRequiredBuffers = inputChannel.getNumberOfRequiredBuffers();
+            inputChannel.onSenderBacklog(0);
+            inputChannel.onSenderBacklog(numFloatingBuffers);
+
+            assertEquals(
+                    "The required buffers should not change after release.",
+                    numRequiredBuffers,
+                    inputChannel.getNumberOfRequiredBuffers());
+            assertEquals(
+                    "There should be no buffers available in the channel.",
+                    0,
+                    inputChannel.getNumberOfAvailableBuffers());
+            assertEquals(
+                    "There should be 130 buffers available in local pool.",
+                    130,
+                    bufferPool.getNumberOfAvailableMemorySegments()
+                            + networkBufferPool.getNumberOfAvailableMemorySegments());
+        } catch (Throwable t) {
+            thrown = t;
+        } finally {
+            cleanup(networkBufferPool, executor, null, thrown, inputChannel);
+        }
+    }
+
     /**
      * Tests to verify that there is no race condition with two things running in parallel:
      * requesting floating buffers on sender backlog and some other thread recycling floating or
@@ -26,6 +26,7 @@ import org.apache.flink.runtime.checkpoint.channel.ChannelStateWriter;
 import org.apache.flink.runtime.checkpoint.channel.InputChannelInfo;
 import org.apache.flink.runtime.clusterframework.types.ResourceID;
 import org.apache.flink.runtime.deployment.InputGateDeploymentDescriptor;
+import org.apache.flink.runtime.deployment.SubpartitionIndexRange;
 import org.apache.flink.runtime.event.TaskEvent;
 import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
 import org.apache.flink.runtime.io.network.NettyShuffleEnvironment;
@@ -67,9 +68,12 @@ import org.junit.Test;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
@@ -91,6 +95,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -129,7 +134,7 @@ public class SingleInputGateTest extends InputGateTestBase {
 
             // before setup
             assertNull(inputGate.getBufferPool());
-            for (InputChannel inputChannel : inputGate.getInputChannels().values()) {
+            for (InputChannel inputChannel : inputGate.getInputChannels()) {
                 assertTrue(
                         inputChannel instanceof RecoveredInputChannel
                                 || inputChannel instanceof UnknownInputChannel);
@@ -146,7 +151,7 @@ public class SingleInputGateTest extends InputGateTestBase {
             // after setup
             assertNotNull(inputGate.getBufferPool());
             assertEquals(1, inputGate.getBufferPool().getNumberOfRequiredMemorySegments());
-            for (InputChannel inputChannel : inputGate.getInputChannels().values()) {
+            for (InputChannel inputChannel : inputGate.getInputChannels()) {
                 if (inputChannel instanceof RemoteRecoveredInputChannel) {
                     assertEquals(
                             0,
@@ -163,7 +168,7 @@ public class SingleInputGateTest extends InputGateTestBase {
             inputGate.convertRecoveredInputChannels();
             assertNotNull(inputGate.getBufferPool());
             assertEquals(1, inputGate.getBufferPool().getNumberOfRequiredMemorySegments());
-            for (InputChannel inputChannel : inputGate.getInputChannels().values()) {
+            for (InputChannel inputChannel : inputGate.getInputChannels()) {
                 if (inputChannel instanceof RemoteInputChannel) {
                     assertEquals(
                             2, ((RemoteInputChannel) inputChannel).getNumberOfAvailableBuffers());
@@ -447,6 +452,94 @@ public class SingleInputGateTest extends InputGateTestBase {
         assertEquals(0, partitionManager.counter);
     }
 
+    /**
+     * Tests that an input gate consuming a range of subpartitions has one channel for each
+     * subpartition of each partition and requests each subpartition of the range once.
+     */
+    @Test
+    public void testRequestSubpartitionIndexRange() throws Exception {
+        final SubpartitionIndexRange subpartitionIndexRange = new SubpartitionIndexRange(2, 4);
+        final SingleInputGate inputGate =
+                new SingleInputGateBuilder()
+                        .setSubpartitionIndexRange(subpartitionIndexRange)
+                        .setNumberOfChannels(2 * subpartitionIndexRange.size())
+                        .build();
+        final TestingResultPartitionManager partitionManager =
+                new TestingResultPartitionManager(new NoOpResultSubpartitionView());
+
+        // the channels of a partition are consecutive, ordered by their subpartition index
+        final ResultPartitionID[] partitionIds = {new ResultPartitionID(), new ResultPartitionID()};
+        final InputChannel[] channels = new InputChannel[inputGate.getNumberOfInputChannels()];
+        for (int channelIndex = 0; channelIndex < channels.length; channelIndex++) {
+            channels[channelIndex] =
+                    InputChannelBuilder.newBuilder()
+                            .setChannelIndex(channelIndex)
+                            .setPartitionId(
+                                    partitionIds[channelIndex / subpartitionIndexRange.size()])
+                            .setPartitionManager(partitionManager)
+                            .buildLocalChannel(inputGate);
+        }
+        inputGate.setInputChannels(channels);
+
+        for (int channelIndex = 0; channelIndex < channels.length; channelIndex++) {
+            assertSame(
+                    channels[channelIndex],
+                    inputGate.getInputChannel(
+                            partitionIds[channelIndex / subpartitionIndexRange.size()]
+                                    .getPartitionId(),
+                            subpartitionIndexRange.getStartIndex()
+                                    + channelIndex % subpartitionIndexRange.size()));
+        }
+
+        inputGate.requestPartitions();
+
+        assertEquals(channels.length, partitionManager.counter);
+        for (ResultPartitionID partitionId : partitionIds) {
+            assertEquals(
+                    Arrays.asList(2, 3, 4),
+                    partitionManager.requestedSubpartitions.get(partitionId));
+        }
+    }
+
+    /**
+     * Tests that the channels of an unknown partition request each subpartition of the consumed
+     * range once the partition is known.
+     */
+    @Test
+    public void testUpdateUnknownInputChannelWithSubpartitionIndexRange() throws Exception {
+        final SubpartitionIndexRange subpartitionIndexRange = new SubpartitionIndexRange(1, 2);
+        final SingleInputGate inputGate =
+                new SingleInputGateBuilder()
+                        .setSubpartitionIndexRange(subpartitionIndexRange)
+                        .setNumberOfChannels(subpartitionIndexRange.size())
+                        .build();
+        final TestingResultPartitionManager partitionManager =
+                new TestingResultPartitionManager(new NoOpResultSubpartitionView());
+
+        final ResultPartitionID partitionId = new ResultPartitionID();
+        final InputChannel[] channels = new InputChannel[subpartitionIndexRange.size()];
+        for (int channelIndex = 0; channelIndex < channels.length; channelIndex++) {
+            channels[channelIndex] =
+                    InputChannelBuilder.newBuilder()
+                            .setChannelIndex(channelIndex)
+                            .setPartitionId(partitionId)
+                            .setPartitionManager(partitionManager)
+                            .buildUnknownChannel(inputGate);
+        }
+        inputGate.setInputChannels(channels);
+        inputGate.requestPartitions();
+        assertEquals(0, partitionManager.counter);
+
+        final ResourceID location = ResourceID.generate();
+        inputGate.updateInputChannel(
+                location, createRemoteWithIdAndLocation(partitionId.getPartitionId(), location));
+
+        for (int channelIndex = 0; channelIndex < channels.length; channelIndex++) {
+            assertThat(inputGate.getChannel(channelIndex), instanceOf(LocalInputChannel.class));
+        }
+        assertEquals(Arrays.asList(1, 2), partitionManager.requestedSubpartitions.get(partitionId));
+    }
+
     /**
      * Tests that the release of the input gate is noticed while polling the channels for available
      * data.
@@ -571,26 +664,24 @@ public class SingleInputGateTest extends InputGateTestBase {
 
             assertEquals(gateDesc.getConsumedPartitionType(), gate.getConsumedPartitionType());
 
-            Map<IntermediateResultPartitionID, InputChannel> channelMap = gate.getInputChannels();
-
-            assertEquals(3, channelMap.size());
-            channelMap
-                    .values()
-                    .forEach(
-                            channel -> {
-                                try {
-                                    channel.checkError();
-                                } catch (IOException e) {
-                                    throw new RuntimeException(e);
-                                }
-                            });
-            InputChannel localChannel = channelMap.get(partitionIds[0]);
+            Collection<InputChannel> allChannels = gate.getInputChannels();
+
+            assertEquals(3, allChannels.size());
+            allChannels.forEach(
+                    channel -> {
+                        try {
+                            channel.checkError();
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    });
+            InputChannel localChannel = gate.getInputChannel(partitionIds[0], 0);
             assertEquals(LocalInputChannel.class, localChannel.getClass());
 
-            InputChannel remoteChannel = channelMap.get(partitionIds[1]);
+            InputChannel remoteChannel = gate.getInputChannel(partitionIds[1], 0);
             assertEquals(RemoteInputChannel.class, remoteChannel.getClass());
 
-            InputChannel unknownChannel = channelMap.get(partitionIds[2]);
+            InputChannel unknownChannel = gate.getInputChannel(partitionIds[2], 0);
             assertEquals(UnknownInputChannel.class, unknownChannel.getClass());
 
             InputChannel[] channels =
@@ -688,7 +779,7 @@ public class SingleInputGateTest extends InputGateTestBase {
 
             RemoteInputChannel remote =
                     (RemoteInputChannel)
-                            inputGate.getInputChannels().get(resultPartitionId.getPartitionId());
+                            inputGate.getInputChannel(resultPartitionId.getPartitionId(), 0);
             // only the exclusive buffers should be assigned/available now
             assertEquals(buffersPerChannel, remote.getNumberOfAvailableBuffers());
 
@@ -745,10 +836,10 @@ public class SingleInputGateTest extends InputGateTestBase {
             inputGate.setup();
 
             assertThat(
-                    inputGate.getInputChannels().get(remoteResultPartitionId.getPartitionId()),
+                    inputGate.getInputChannel(remoteResultPartitionId.getPartitionId(), 0),
                     is(instanceOf((UnknownInputChannel.class))));
             assertThat(
-                    inputGate.getInputChannels().get(localResultPartitionId.getPartitionId()),
+                    inputGate.getInputChannel(localResultPartitionId.getPartitionId(), 0),
                     is(instanceOf((UnknownInputChannel.class))));
 
             ResourceID localLocation = ResourceID.generate();
@@ -760,10 +851,10 @@ public class SingleInputGateTest extends InputGateTestBase {
                             remoteResultPartitionId.getPartitionId(), ResourceID.generate()));
 
             assertThat(
-                    inputGate.getInputChannels().get(remoteResultPartitionId.getPartitionId()),
+                    inputGate.getInputChannel(remoteResultPartitionId.getPartitionId(), 0),
                     is(instanceOf((RemoteInputChannel.class))));
             assertThat(
-                    inputGate.getInputChannels().get(localResultPartitionId.getPartitionId()),
+                    inputGate.getInputChannel(localResultPartitionId.getPartitionId(), 0),
                     is(instanceOf((UnknownInputChannel.class))));
 
             // Trigger updates to local input channel from unknown input channel
@@ -773,10 +864,10 @@ public class SingleInputGateTest extends InputGateTestBase {
                             localResultPartitionId.getPartitionId(), localLocation));
 
             assertThat(
-                    inputGate.getInputChannels().get(remoteResultPartitionId.getPartitionId()),
+                    inputGate.getInputChannel(remoteResultPartitionId.getPartitionId(), 0),
                     is(instanceOf((RemoteInputChannel.class))));
             assertThat(
-                    inputGate.getInputChannels().get(localResultPartitionId.getPartitionId()),
+                    inputGate.getInputChannel(localResultPartitionId.getPartitionId(), 0),
                     is(instanceOf((LocalInputChannel.class))));
         }
     }
@@ -887,7 +978,7 @@ public class SingleInputGateTest extends InputGateTestBase {
                             .build();
 
             int channelCounter = 0;
-            for (InputChannel inputChannel : gate.getInputChannels().values()) {
+            for (InputChannel inputChannel : gate.getInputChannels()) {
                 InputChannelInfo channelInfo = inputChannel.getChannelInfo();
 
                 assertEquals(i, channelInfo.getGateIdx());
@@ -1032,6 +1123,8 @@ public class SingleInputGateTest extends InputGateTestBase {
      */
     public static class TestingResultPartitionManager extends ResultPartitionManager {
         private int counter = 0;
+        private final Map<ResultPartitionID, List<Integer>> requestedSubpartitions =
+                new HashMap<>();
         private final ResultSubpartitionView subpartitionView;
 
         public TestingResultPartitionManager(ResultSubpartitionView subpartitionView) {
@@ -1045,6 +1138,9 @@ public class SingleInputGateTest extends InputGateTestBase {
                 BufferAvailabilityListener availabilityListener)
                 throws IOException {
             ++counter;
+            requestedSubpartitions
+                    .computeIfAbsent(partitionId, ignored -> new ArrayList<>())
+                    .add(subpartitionIndex);
             return subpartitionView;
         }
     }
@@ -21,9 +21,12 @@ package org.apache.flink.runtime.metrics.groups;
 import org.apache.flink.metrics.Counter;
 import org.apache.flink.metrics.SimpleCounter;
 import org.apache.flink.runtime.executiongraph.IOMetrics;
+import org.apache.flink.runtime.executiongraph.TaskLoad;
+import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
 
 import org.junit.Test;
 
+import static org.hamcrest.Matchers.anEmptyMap;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -71,4 +74,58 @@ public class TaskIOMetricGroupTest {
         assertThat(
                 taskIO.getBackPressuredTimePerSecond().getCount(), greaterThanOrEqualTo(sleepTime));
     }
+
+    @Test
+    public void testResultPartitionBytesCounters() {
+        TaskIOMetricGroup taskIO =
+                UnregisteredMetricGroups.createUnregisteredTaskMetricGroup().getIOMetricGroup();
+        assertThat(taskIO.createSnapshot().getNumBytesProducedOfPartitions(), anEmptyMap());
+
+        IntermediateResultPartitionID partition1 = new IntermediateResultPartitionID();
+        IntermediateResultPartitionID partition2 = new IntermediateResultPartitionID();
+        Counter counter1 = taskIO.registerResultPartitionBytesCounter(partition1);
+        Counter counter2 = taskIO.registerResultPartitionBytesCounter(partition2);
+
+        counter1.inc(100L);
+        counter2.inc(20L);
+        counter2.inc();
+        counter2.dec();
+
+        // the bytes of all partitions are counted for the task as well
+        assertEquals(120L, taskIO.getNumBytesOutCounter().getCount());
+
+        IOMetrics io = taskIO.createSnapshot();
+        assertEquals(120L, io.getNumBytesOut());
+        assertEquals(2, io.getNumBytesProducedOfPartitions().size());
+        assertEquals(100L, (long) io.getNumBytesProducedOfPartitions().get(partition1));
+        assertEquals(20L, (long) io.getNumBytesProducedOfPartitions().get(partition2));
+    }
+
+    @Test
+    public void testLoadSnapshotPendingRecords() {
+        TaskIOMetricGroup taskIO =
+                UnregisteredMetricGroups.createUnregisteredTaskMetricGroup().getIOMetricGroup();
+        assertEquals(
+                TaskLoad.UNKNOWN_PENDING_RECORDS, taskIO.createLoadSnapshot().getPendingRecords());
+
+        taskIO.setPendingRecordsGauge(() -> 42L);
+        assertEquals(42L, taskIO.createLoadSnapshot().getPendingRecords());
+
+        taskIO.setPendingRecordsGauge(() -> null);
+        assertEquals(
+                TaskLoad.UNKNOWN_PENDING_RECORDS, taskIO.createLoadSnapshot().getPendingRecords());
+    }
+
+    @Test
+    public void testLoadSnapshotWithFailingPendingRecordsGauge() {
+        TaskIOMetricGroup taskIO =
+                UnregisteredMetricGroups.createUnregisteredTaskMetricGroup().getIOMetricGroup();
+        taskIO.setPendingRecordsGauge(
+                () -> {
+                    throw new IllegalStateException("Expected test exception.");
+                });
+
+        assertEquals(
+                TaskLoad.UNKNOWN_PENDING_RECORDS, taskIO.createLoadSnapshot().getPendingRecords());
+    }
 }
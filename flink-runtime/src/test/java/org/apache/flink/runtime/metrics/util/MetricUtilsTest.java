@@ -48,6 +48,7 @@ import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.apache.flink.runtime.metrics.util.MetricUtils.METRIC_GROUP_FLINK;
 import static org.apache.flink.runtime.metrics.util.MetricUtils.METRIC_GROUP_MANAGED_MEMORY;
@@ -183,6 +184,28 @@ public class MetricUtilsTest extends TestLogger {
         runUntilMetricChanged("Non-heap", 10, MetricUtilsTest::redefineDummyClass, used);
     }
 
+    @Test
+    public void testProcessStatusParsing() {
+        final List<String> status =
+                Arrays.asList(
+                        "Name:\tjava",
+                        "Cpus_allowed:\tff",
+                        "Cpus_allowed_list:\t0-7",
+                        "Mems_allowed_list:\t ",
+                        "Threads:\t42");
+
+        assertThat(
+                MetricUtils.getProcessStatusValue(status, "Cpus_allowed_list"),
+                is(Optional.of("0-7")));
+        assertThat(
+                MetricUtils.getProcessStatusValue(status, "Cpus_allowed"), is(Optional.of("ff")));
+        assertThat(
+                MetricUtils.getProcessStatusValue(status, "Mems_allowed_list"),
+                is(Optional.empty()));
+        assertThat(
+                MetricUtils.getProcessStatusValue(status, "Mems_allowed"), is(Optional.empty()));
+    }
+
     @Test
     public void testManagedMemoryMetricsInitialization() throws MemoryAllocationException {
         final int maxMemorySize = 16284;
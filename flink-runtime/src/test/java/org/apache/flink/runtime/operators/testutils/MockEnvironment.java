@@ -46,6 +46,7 @@ import org.apache.flink.runtime.memory.MemoryManager;
 import org.apache.flink.runtime.metrics.groups.TaskMetricGroup;
 import org.apache.flink.runtime.query.KvStateRegistry;
 import org.apache.flink.runtime.query.TaskKvStateRegistry;
+import org.apache.flink.runtime.state.CheckpointStorageAccess;
 import org.apache.flink.runtime.state.TaskStateManager;
 import org.apache.flink.runtime.taskexecutor.GlobalAggregateManager;
 import org.apache.flink.runtime.taskmanager.NoOpTaskOperatorEventGateway;
@@ -131,6 +132,8 @@ public class MockEnvironment implements Environment, AutoCloseable {
 
     private ExecutorService asyncOperationsThreadPool;
 
+    private CheckpointStorageAccess checkpointStorageAccess;
+
     private final ThroughputCalculator throughputCalculator;
 
     public static MockEnvironmentBuilder builder() {
@@ -430,6 +433,16 @@ public class MockEnvironment implements Environment, AutoCloseable {
         return asyncOperationsThreadPool;
     }
 
+    @Override
+    public void setCheckpointStorageAccess(CheckpointStorageAccess checkpointStorageAccess) {
+        this.checkpointStorageAccess = checkpointStorageAccess;
+    }
+
+    @Override
+    public CheckpointStorageAccess getCheckpointStorageAccess() {
+        return checkpointStorageAccess;
+    }
+
     public void setExpectedExternalFailureCause(Class<? extends Throwable> expectedThrowableClass) {
         this.expectedExternalFailureCause = Optional.of(expectedThrowableClass);
     }
@@ -34,6 +34,7 @@ import org.apache.flink.runtime.executiongraph.ArchivedExecution;
 import org.apache.flink.runtime.executiongraph.ArchivedExecutionGraph;
 import org.apache.flink.runtime.executiongraph.ArchivedExecutionVertex;
 import org.apache.flink.runtime.executiongraph.ErrorInfo;
+import org.apache.flink.runtime.executiongraph.Execution;
 import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
 import org.apache.flink.runtime.executiongraph.ExecutionVertex;
 import org.apache.flink.runtime.executiongraph.failover.flip1.FailoverStrategy;
@@ -111,12 +112,14 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -1427,6 +1430,119 @@ public class DefaultSchedulerTest extends TestLogger {
         assertThat(shuffleMaster.getExternallyReleasedPartitions(), hasSize(1));
     }
 
+    @Test
+    public void testSpeculativeExecutionFinishingFirstBecomesCurrentExecution() {
+        final DefaultScheduler scheduler =
+                createSchedulerAndStartScheduling(singleNonParallelJobVertexJobGraph());
+        final ExecutionVertex executionVertex = getOnlyExecutionVertex(scheduler);
+        final Execution originalExecution = executionVertex.getCurrentExecutionAttempt();
+
+        scheduler.startSpeculativeExecution(executionVertex.getID());
+        final Execution speculativeExecution =
+                Iterables.getOnlyElement(executionVertex.getSpeculativeExecutions());
+        assertThat(speculativeExecution.getState(), is(ExecutionState.DEPLOYING));
+        assertThat(speculativeExecution.getAttemptNumber(), is(1));
+
+        scheduler.updateTaskExecutionState(
+                new TaskExecutionState(
+                        speculativeExecution.getAttemptId(), ExecutionState.FINISHED));
+
+        assertThat(
+                executionVertex.getCurrentExecutionAttempt(), sameInstance(speculativeExecution));
+        assertThat(executionVertex.getExecutionState(), is(ExecutionState.FINISHED));
+        assertThat(originalExecution.getState(), is(ExecutionState.CANCELING));
+        assertThat(scheduler.requestJobStatus(), is(JobStatus.FINISHED));
+    }
+
+    @Test
+    public void testFailedSpeculativeExecutionDoesNotTriggerFailover() {
+        final DefaultScheduler scheduler =
+                createSchedulerAndStartScheduling(singleNonParallelJobVertexJobGraph());
+        final ExecutionVertex executionVertex = getOnlyExecutionVertex(scheduler);
+        final Execution originalExecution = executionVertex.getCurrentExecutionAttempt();
+
+        scheduler.startSpeculativeExecution(executionVertex.getID());
+        final Execution speculativeExecution =
+                Iterables.getOnlyElement(executionVertex.getSpeculativeExecutions());
+
+        scheduler.updateTaskExecutionState(
+                createFailedTaskExecutionState(speculativeExecution.getAttemptId()));
+        taskRestartExecutor.triggerScheduledTasks();
+
+        assertThat(speculativeExecution.getState(), is(ExecutionState.FAILED));
+        assertThat(executionVertex.getCurrentExecutionAttempt(), sameInstance(originalExecution));
+        assertThat(originalExecution.getState(), is(ExecutionState.DEPLOYING));
+        assertThat(testExecutionVertexOperations.getDeployedVertices(), hasSize(1));
+        assertThat(scheduler.requestJobStatus(), is(JobStatus.RUNNING));
+
+        scheduler.updateTaskExecutionState(
+                new TaskExecutionState(originalExecution.getAttemptId(), ExecutionState.FINISHED));
+
+        assertThat(scheduler.requestJobStatus(), is(JobStatus.FINISHED));
+    }
+
+    @Test
+    public void testFailedCurrentExecutionCancelsSpeculativeExecutions() {
+        final DefaultScheduler scheduler =
+                createSchedulerAndStartScheduling(singleNonParallelJobVertexJobGraph());
+        final ExecutionVertex executionVertex = getOnlyExecutionVertex(scheduler);
+        final Execution originalExecution = executionVertex.getCurrentExecutionAttempt();
+
+        scheduler.startSpeculativeExecution(executionVertex.getID());
+        final Execution speculativeExecution =
+                Iterables.getOnlyElement(executionVertex.getSpeculativeExecutions());
+
+        scheduler.updateTaskExecutionState(
+                createFailedTaskExecutionState(originalExecution.getAttemptId()));
+        assertThat(speculativeExecution.getState(), is(ExecutionState.CANCELING));
+
+        scheduler.updateTaskExecutionState(
+                new TaskExecutionState(
+                        speculativeExecution.getAttemptId(), ExecutionState.CANCELED));
+        taskRestartExecutor.triggerScheduledTasks();
+
+        // the restarted attempt is numbered after all the previous attempts of the vertex
+        final Execution restartedExecution = executionVertex.getCurrentExecutionAttempt();
+        assertThat(restartedExecution.getAttemptNumber(), is(2));
+        assertThat(restartedExecution.getState(), is(ExecutionState.DEPLOYING));
+        assertThat(executionVertex.getSpeculativeExecutions(), is(empty()));
+        assertThat(scheduler.requestJobStatus(), is(JobStatus.RUNNING));
+    }
+
+    @Test
+    public void testCancelReachesAllExecutionAttempts() {
+        final DefaultScheduler scheduler =
+                createSchedulerAndStartScheduling(singleNonParallelJobVertexJobGraph());
+        final ExecutionVertex executionVertex = getOnlyExecutionVertex(scheduler);
+        final Execution originalExecution = executionVertex.getCurrentExecutionAttempt();
+
+        scheduler.startSpeculativeExecution(executionVertex.getID());
+        final Execution speculativeExecution =
+                Iterables.getOnlyElement(executionVertex.getSpeculativeExecutions());
+
+        scheduler.cancel();
+
+        assertThat(originalExecution.getState(), is(ExecutionState.CANCELING));
+        assertThat(speculativeExecution.getState(), is(ExecutionState.CANCELING));
+    }
+
+    @Test
+    public void testSuspendReachesAllExecutionAttempts() {
+        final DefaultScheduler scheduler =
+                createSchedulerAndStartScheduling(singleNonParallelJobVertexJobGraph());
+        final ExecutionVertex executionVertex = getOnlyExecutionVertex(scheduler);
+        final Execution originalExecution = executionVertex.getCurrentExecutionAttempt();
+
+        scheduler.startSpeculativeExecution(executionVertex.getID());
+        final Execution speculativeExecution =
+                Iterables.getOnlyElement(executionVertex.getSpeculativeExecutions());
+
+        scheduler.closeAsync();
+
+        assertThat(originalExecution.getState(), is(ExecutionState.CANCELED));
+        assertThat(speculativeExecution.getState(), is(ExecutionState.CANCELED));
+    }
+
     private static TaskExecutionState createFailedTaskExecutionState(
             ExecutionAttemptID executionAttemptID) {
         return new TaskExecutionState(
@@ -1482,6 +1598,10 @@ public class DefaultSchedulerTest extends TestLogger {
         scheduler.getJobTerminationFuture().get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
     }
 
+    private static ExecutionVertex getOnlyExecutionVertex(final DefaultScheduler scheduler) {
+        return Iterables.getOnlyElement(scheduler.getExecutionGraph().getAllExecutionVertices());
+    }
+
     private static JobGraph singleNonParallelJobVertexJobGraph() {
         return singleJobVertexJobGraph(1);
     }
@@ -62,6 +62,9 @@ public class DefaultVertexParallelismStoreTest extends TestLogger {
             return 0;
         }
 
+        @Override
+        public void setParallelism(int parallelism) {}
+
         @Override
         public void setMaxParallelism(int maxParallelism) {}
 
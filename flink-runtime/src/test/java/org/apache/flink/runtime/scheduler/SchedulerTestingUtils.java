@@ -568,7 +568,8 @@ public class SchedulerTestingUtils {
                     jobStatusListener,
                     executionGraphFactory,
                     shuffleMaster,
-                    rpcTimeout);
+                    rpcTimeout,
+                    SchedulerBase.computeVertexParallelismStore(jobGraph));
         }
     }
 }
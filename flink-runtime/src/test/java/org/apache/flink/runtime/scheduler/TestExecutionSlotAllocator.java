@@ -19,6 +19,7 @@
 
 package org.apache.flink.runtime.scheduler;
 
+import org.apache.flink.runtime.clusterframework.types.ResourceID;
 import org.apache.flink.runtime.jobmanager.slots.TaskManagerGateway;
 import org.apache.flink.runtime.jobmaster.LogicalSlot;
 import org.apache.flink.runtime.jobmaster.SlotOwner;
@@ -31,6 +32,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 
@@ -142,6 +144,13 @@ public class TestExecutionSlotAllocator implements ExecutionSlotAllocator, SlotO
         }
     }
 
+    @Override
+    public CompletableFuture<LogicalSlot> allocateSlotForSpeculativeExecution(
+            final ExecutionVertexID executionVertexId, final Set<ResourceID> blockedTaskManagers) {
+        return CompletableFuture.completedFuture(
+                logicalSlotBuilder.setSlotOwner(this).createTestingLogicalSlot());
+    }
+
     @Override
     public void returnLogicalSlot(final LogicalSlot logicalSlot) {
         returnedSlots.add(logicalSlot);
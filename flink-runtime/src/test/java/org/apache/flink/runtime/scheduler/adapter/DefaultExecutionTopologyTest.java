@@ -18,11 +18,15 @@
 
 package org.apache.flink.runtime.scheduler.adapter;
 
+import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutorServiceAdapter;
 import org.apache.flink.runtime.executiongraph.DefaultExecutionGraph;
 import org.apache.flink.runtime.executiongraph.ExecutionGraph;
+import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
 import org.apache.flink.runtime.executiongraph.ExecutionVertex;
 import org.apache.flink.runtime.executiongraph.IntermediateResultPartition;
+import org.apache.flink.runtime.executiongraph.TestingDefaultExecutionGraphBuilder;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
+import org.apache.flink.runtime.jobgraph.JobGraphTestUtils;
 import org.apache.flink.runtime.jobgraph.JobVertex;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.jobmanager.scheduler.SlotSharingGroup;
@@ -30,6 +34,7 @@ import org.apache.flink.runtime.scheduler.strategy.ConsumedPartitionGroup;
 import org.apache.flink.runtime.scheduler.strategy.ConsumerVertexGroup;
 import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
 import org.apache.flink.runtime.scheduler.strategy.ResultPartitionState;
+import org.apache.flink.runtime.testtasks.NoOpInvokable;
 import org.apache.flink.util.IterableUtils;
 import org.apache.flink.util.TestLogger;
 
@@ -41,18 +46,23 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static junit.framework.TestCase.assertTrue;
 import static org.apache.flink.runtime.executiongraph.ExecutionGraphTestUtils.createNoOpVertex;
 import static org.apache.flink.runtime.executiongraph.ExecutionGraphTestUtils.createSimpleTestGraph;
+import static org.apache.flink.runtime.io.network.partition.ResultPartitionType.BLOCKING;
 import static org.apache.flink.runtime.io.network.partition.ResultPartitionType.PIPELINED;
 import static org.apache.flink.runtime.jobgraph.DistributionPattern.ALL_TO_ALL;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 /** Unit tests for {@link DefaultExecutionTopology}. */
@@ -161,6 +171,97 @@ public class DefaultExecutionTopologyTest extends TestLogger {
         DefaultExecutionTopology.fromExecutionGraph(executionGraph);
     }
 
+    @Test
+    public void testNewlyInitializedJobVerticesAreAddedIncrementally() throws Exception {
+        final JobVertex producer = createNoOpVertex("producer", 2);
+        final JobVertex consumer = new JobVertex("consumer");
+        consumer.setInvokableClass(NoOpInvokable.class);
+        consumer.connectNewDataSetAsInput(producer, ALL_TO_ALL, BLOCKING);
+
+        final DefaultExecutionGraph dynamicGraph = createDynamicGraph(producer, consumer);
+        final DefaultExecutionTopology topology =
+                DefaultExecutionTopology.fromExecutionGraph(dynamicGraph);
+        final List<ExecutionVertexID> notifiedVertices = new ArrayList<>();
+        topology.registerSchedulingTopologyListener(
+                (schedulingTopology, newExecutionVertices) -> {
+                    assertSame(topology, schedulingTopology);
+                    notifiedVertices.addAll(newExecutionVertices);
+                });
+
+        assertEquals(2, Iterables.size(topology.getVertices()));
+        assertEquals(2, Iterables.size(topology.getAllPipelinedRegions()));
+
+        final ExecutionJobVertex consumerVertex = dynamicGraph.getJobVertex(consumer.getID());
+        consumerVertex.setParallelism(3);
+        dynamicGraph.initializeJobVertex(consumerVertex, System.currentTimeMillis());
+        topology.notifyExecutionGraphUpdated(
+                dynamicGraph, Collections.singletonList(consumerVertex));
+
+        final List<ExecutionVertexID> consumerVertexIds = new ArrayList<>();
+        for (ExecutionVertex vertex : consumerVertex.getTaskVertices()) {
+            consumerVertexIds.add(vertex.getID());
+        }
+        assertEquals(consumerVertexIds, notifiedVertices);
+        assertGraphEquals(dynamicGraph, topology);
+
+        // the blocking inputs make each consumer vertex a pipelined region of its own
+        assertEquals(5, Iterables.size(topology.getAllPipelinedRegions()));
+        for (ExecutionVertexID consumerVertexId : consumerVertexIds) {
+            final DefaultSchedulingPipelinedRegion region =
+                    topology.getPipelinedRegionOfVertex(consumerVertexId);
+            assertEquals(
+                    Collections.singleton(consumerVertexId),
+                    IterableUtils.toStream(region.getVertices())
+                            .map(DefaultExecutionVertex::getId)
+                            .collect(Collectors.toSet()));
+        }
+
+        // the partitions produced before are connected to the new consumers
+        for (ExecutionVertex producerVertex :
+                dynamicGraph.getJobVertex(producer.getID()).getTaskVertices()) {
+            for (IntermediateResultPartitionID partitionId :
+                    producerVertex.getProducedPartitions().keySet()) {
+                assertEquals(
+                        new HashSet<>(consumerVertexIds),
+                        IterableUtils.toStream(
+                                        topology.getResultPartition(partitionId).getConsumers())
+                                .map(DefaultExecutionVertex::getId)
+                                .collect(Collectors.toSet()));
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testErrorIfPipelinedRegionIsInitializedPartially() throws Exception {
+        final JobVertex producer = createNoOpVertex("producer", 2);
+        final JobVertex consumer = new JobVertex("consumer");
+        final JobVertex pipelinedConsumer = createNoOpVertex("pipelined-consumer", 2);
+        consumer.setInvokableClass(NoOpInvokable.class);
+        consumer.connectNewDataSetAsInput(producer, ALL_TO_ALL, BLOCKING);
+        pipelinedConsumer.connectNewDataSetAsInput(consumer, ALL_TO_ALL, PIPELINED);
+
+        final DefaultExecutionGraph dynamicGraph =
+                createDynamicGraph(producer, consumer, pipelinedConsumer);
+        final DefaultExecutionTopology topology =
+                DefaultExecutionTopology.fromExecutionGraph(dynamicGraph);
+
+        final ExecutionJobVertex consumerVertex = dynamicGraph.getJobVertex(consumer.getID());
+        consumerVertex.setParallelism(2);
+        dynamicGraph.initializeJobVertex(consumerVertex, System.currentTimeMillis());
+        topology.notifyExecutionGraphUpdated(
+                dynamicGraph, Collections.singletonList(consumerVertex));
+    }
+
+    private static DefaultExecutionGraph createDynamicGraph(JobVertex... vertices)
+            throws Exception {
+        final DefaultExecutionGraph dynamicGraph =
+                TestingDefaultExecutionGraphBuilder.newBuilder()
+                        .setJobGraph(JobGraphTestUtils.batchJobGraph(vertices))
+                        .buildDynamicGraph();
+        dynamicGraph.start(ComponentMainThreadExecutorServiceAdapter.forMainThread());
+        return dynamicGraph;
+    }
+
     private void assertRegionContainsAllVertices(
             final DefaultSchedulingPipelinedRegion pipelinedRegionOfVertex) {
         final Set<DefaultExecutionVertex> allVertices =
@@ -42,6 +42,7 @@ import org.apache.flink.runtime.executiongraph.ArchivedExecutionGraphTest;
 import org.apache.flink.runtime.executiongraph.ArchivedExecutionJobVertex;
 import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
 import org.apache.flink.runtime.executiongraph.TaskExecutionStateTransition;
+import org.apache.flink.runtime.executiongraph.TaskLoad;
 import org.apache.flink.runtime.executiongraph.failover.flip1.NoRestartBackoffTimeStrategy;
 import org.apache.flink.runtime.executiongraph.failover.flip1.TestRestartBackoffTimeStrategy;
 import org.apache.flink.runtime.executiongraph.utils.SimpleAckingTaskManagerGateway;
@@ -70,6 +71,7 @@ import org.apache.flink.runtime.scheduler.VertexParallelismStore;
 import org.apache.flink.runtime.scheduler.adaptive.allocator.TestingSlotAllocator;
 import org.apache.flink.runtime.slots.ResourceRequirement;
 import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
+import org.apache.flink.runtime.taskexecutor.TaskLoadReport;
 import org.apache.flink.runtime.taskmanager.LocalTaskManagerLocation;
 import org.apache.flink.runtime.taskmanager.TaskExecutionState;
 import org.apache.flink.runtime.util.ResourceCounter;
@@ -89,7 +91,9 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
@@ -118,6 +122,8 @@ public class AdaptiveSchedulerTest extends TestLogger {
     private static final int PARALLELISM = 4;
     private static final JobVertex JOB_VERTEX = createNoOpVertex("v1", PARALLELISM);
 
+    private static final Duration LOAD_BASED_SCALING_CHECK_INTERVAL = Duration.ofMillis(10L);
+
     @ClassRule public static final TemporaryFolder TEMPORARY_FOLDER = new TemporaryFolder();
 
     @ClassRule
@@ -942,6 +948,124 @@ public class AdaptiveSchedulerTest extends TestLogger {
         }
     }
 
+    // ---------------------------------------------------------------------------------------------
+    // Load-based scaling tests
+    // ---------------------------------------------------------------------------------------------
+
+    @Test
+    public void testIdleJobIsScaledDownForItsLoad() throws Exception {
+        final SubmissionBufferingTaskManagerGateway taskManagerGateway =
+                new SubmissionBufferingTaskManagerGateway(PARALLELISM + 1);
+        final AdaptiveScheduler scheduler =
+                startJobWithLoadBasedScaling(Duration.ZERO, taskManagerGateway);
+        final List<TaskDeploymentDescriptor> deployments =
+                taskManagerGateway.waitForSubmissions(PARALLELISM, Duration.ofSeconds(5));
+
+        // a single task is busy for about the target utilization of 0.7 with this load
+        reportTaskLoads(scheduler, deployments, 150.0);
+
+        // wait for the task submission after the restart
+        taskManagerGateway.waitForSubmissions(1, Duration.ofSeconds(5));
+
+        final ArchivedExecutionGraph executionGraph =
+                getArchivedExecutionGraphForRunningJob(scheduler).get();
+        assertThat(executionGraph.getJobVertex(JOB_VERTEX.getID()).getParallelism(), is(1));
+    }
+
+    @Test
+    public void testJobIsNotRescaledForLoadBetweenThresholds() throws Exception {
+        // the load is between the default scale down threshold 0.5 and scale up threshold 0.9
+        assertJobIsNotRescaledForLoad(Duration.ZERO, 600.0);
+    }
+
+    @Test
+    public void testJobIsNotRescaledWithinMinRescaleInterval() throws Exception {
+        assertJobIsNotRescaledForLoad(Duration.ofHours(1L), 150.0);
+    }
+
+    private void assertJobIsNotRescaledForLoad(
+            Duration minRescaleInterval, double busyTimeMsPerSecond) throws Exception {
+        final SubmissionBufferingTaskManagerGateway taskManagerGateway =
+                new SubmissionBufferingTaskManagerGateway(PARALLELISM + 1);
+        final AdaptiveScheduler scheduler =
+                startJobWithLoadBasedScaling(minRescaleInterval, taskManagerGateway);
+        final List<TaskDeploymentDescriptor> deployments =
+                taskManagerGateway.waitForSubmissions(PARALLELISM, Duration.ofSeconds(5));
+
+        reportTaskLoads(scheduler, deployments, busyTimeMsPerSecond);
+
+        // runs after the next load-based scaling check, which processes the reported loads
+        final State stateAfterCheck =
+                singleThreadMainThreadExecutor
+                        .schedule(
+                                () -> scheduler.getState(),
+                                2 * LOAD_BASED_SCALING_CHECK_INTERVAL.toMillis(),
+                                TimeUnit.MILLISECONDS)
+                        .get();
+
+        assertThat(stateAfterCheck, instanceOf(Executing.class));
+        assertThat(
+                ((Executing) stateAfterCheck)
+                        .getExecutionGraph()
+                        .getJobVertex(JOB_VERTEX.getID())
+                        .getParallelism(),
+                is(PARALLELISM));
+        assertThat(taskManagerGateway.submittedTasks.isEmpty(), is(true));
+    }
+
+    private AdaptiveScheduler startJobWithLoadBasedScaling(
+            Duration minRescaleInterval, SubmissionBufferingTaskManagerGateway taskManagerGateway)
+            throws Exception {
+        final JobGraph jobGraph = createJobGraph();
+
+        final DefaultDeclarativeSlotPool declarativeSlotPool =
+                createDeclarativeSlotPool(jobGraph.getJobID());
+
+        final Configuration configuration = new Configuration();
+        configuration.set(JobManagerOptions.RESOURCE_WAIT_TIMEOUT, Duration.ofMillis(1L));
+        configuration.set(JobManagerOptions.LOAD_BASED_SCALING_ENABLED, true);
+        configuration.set(
+                JobManagerOptions.LOAD_BASED_SCALING_CHECK_INTERVAL,
+                LOAD_BASED_SCALING_CHECK_INTERVAL);
+        configuration.set(
+                JobManagerOptions.LOAD_BASED_SCALING_MIN_RESCALE_INTERVAL, minRescaleInterval);
+
+        final AdaptiveScheduler scheduler =
+                new AdaptiveSchedulerBuilder(jobGraph, singleThreadMainThreadExecutor)
+                        .setDeclarativeSlotPool(declarativeSlotPool)
+                        .setJobMasterConfiguration(configuration)
+                        .build();
+
+        taskManagerGateway.setCancelConsumer(createCancelConsumer(scheduler));
+
+        singleThreadMainThreadExecutor.execute(
+                () -> {
+                    scheduler.startScheduling();
+                    offerSlots(
+                            declarativeSlotPool,
+                            createSlotOffersForResourceRequirements(
+                                    ResourceCounter.withResource(
+                                            ResourceProfile.UNKNOWN, PARALLELISM)),
+                            taskManagerGateway);
+                });
+
+        return scheduler;
+    }
+
+    private void reportTaskLoads(
+            SchedulerNG scheduler,
+            List<TaskDeploymentDescriptor> deployments,
+            double busyTimeMsPerSecond) {
+        final Map<ExecutionAttemptID, TaskLoad> taskLoads = new HashMap<>();
+        for (TaskDeploymentDescriptor deployment : deployments) {
+            taskLoads.put(
+                    deployment.getExecutionAttemptId(),
+                    new TaskLoad(busyTimeMsPerSecond, 0.0, TaskLoad.UNKNOWN_PENDING_RECORDS));
+        }
+        singleThreadMainThreadExecutor.execute(
+                () -> scheduler.updateTaskLoads(new TaskLoadReport(taskLoads)));
+    }
+
     // ---------------------------------------------------------------------------------------------
     // Utils
     // ---------------------------------------------------------------------------------------------
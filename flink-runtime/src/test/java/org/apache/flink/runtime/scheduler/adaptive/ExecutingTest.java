@@ -46,11 +46,13 @@ import org.apache.flink.runtime.executiongraph.IntermediateResultPartition;
 import org.apache.flink.runtime.executiongraph.InternalExecutionGraphAccessor;
 import org.apache.flink.runtime.executiongraph.JobInformation;
 import org.apache.flink.runtime.executiongraph.TaskExecutionStateTransition;
+import org.apache.flink.runtime.executiongraph.TaskOperationBatcher;
 import org.apache.flink.runtime.executiongraph.TestingDefaultExecutionGraphBuilder;
 import org.apache.flink.runtime.executiongraph.failover.flip1.partitionrelease.PartitionReleaseStrategy;
 import org.apache.flink.runtime.io.network.partition.JobMasterPartitionTracker;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
 import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.scheduler.DefaultVertexParallelismInfo;
 import org.apache.flink.runtime.scheduler.ExecutionGraphHandler;
 import org.apache.flink.runtime.scheduler.OperatorCoordinatorHandler;
@@ -827,11 +829,23 @@ public class ExecutingTest extends TestLogger {
     private static class MockInternalExecutionGraphAccessor
             implements InternalExecutionGraphAccessor {
 
+        private final TaskOperationBatcher taskOperationBatcher =
+                new TaskOperationBatcher(
+                        false,
+                        getFutureExecutor(),
+                        Time.milliseconds(1L),
+                        this::getJobMasterMainThreadExecutor);
+
         @Override
         public Executor getFutureExecutor() {
             return ForkJoinPool.commonPool();
         }
 
+        @Override
+        public TaskOperationBatcher getTaskOperationBatcher() {
+            return taskOperationBatcher;
+        }
+
         // --- mocked methods
 
         @Override
@@ -931,6 +945,12 @@ public class ExecutingTest extends TestLogger {
                     "This method is not supported by the MockInternalExecutionGraphAccessor.");
         }
 
+        @Override
+        public ExecutionJobVertex getJobVertex(JobVertexID id) {
+            throw new UnsupportedOperationException(
+                    "This method is not supported by the MockInternalExecutionGraphAccessor.");
+        }
+
         @Override
         public void deleteBlobs(List<PermanentBlobKey> blobKeys) {
             throw new UnsupportedOperationException(
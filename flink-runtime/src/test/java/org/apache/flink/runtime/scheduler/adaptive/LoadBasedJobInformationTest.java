@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptive;
+
+import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.runtime.jobgraph.JobGraphTestUtils;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.jobgraph.JobVertexID;
+import org.apache.flink.runtime.scheduler.SchedulerBase;
+import org.apache.flink.runtime.scheduler.adaptive.allocator.JobInformation;
+import org.apache.flink.runtime.testtasks.NoOpInvokable;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/** Tests for the {@link LoadBasedJobInformation}. */
+public class LoadBasedJobInformationTest extends TestLogger {
+
+    private static final int CONFIGURED_PARALLELISM = 4;
+
+    private final JobVertex jobVertex = new JobVertex("vertex");
+
+    private JobGraphJobInformation jobInformation;
+
+    private LoadBasedJobInformation loadBasedJobInformation;
+
+    @Before
+    public void setup() {
+        jobVertex.setParallelism(CONFIGURED_PARALLELISM);
+        jobVertex.setInvokableClass(NoOpInvokable.class);
+        final JobGraph jobGraph = JobGraphTestUtils.streamingJobGraph(jobVertex);
+
+        jobInformation =
+                new JobGraphJobInformation(
+                        jobGraph,
+                        AdaptiveScheduler.computeVertexParallelismStoreForExecution(
+                                jobGraph, null, SchedulerBase::getDefaultMaxParallelism));
+        loadBasedJobInformation = new LoadBasedJobInformation(jobInformation);
+    }
+
+    @Test
+    public void testVertexIsDesiredWithConfiguredParallelismWithoutTarget() {
+        assertDesiredParallelism(CONFIGURED_PARALLELISM);
+    }
+
+    @Test
+    public void testVertexIsDesiredWithTargetParallelism() {
+        loadBasedJobInformation.setTargetParallelism(jobVertex.getID(), 2);
+
+        assertDesiredParallelism(2);
+
+        // the configured parallelism is kept
+        assertThat(
+                loadBasedJobInformation.getConfiguredParallelism(jobVertex.getID()),
+                is(CONFIGURED_PARALLELISM));
+        assertThat(
+                jobInformation.getVertexInformation(jobVertex.getID()).getParallelism(),
+                is(CONFIGURED_PARALLELISM));
+    }
+
+    @Test
+    public void testTargetParallelismIsBoundedByConfiguredParallelism() {
+        loadBasedJobInformation.setTargetParallelism(jobVertex.getID(), 2);
+        loadBasedJobInformation.setTargetParallelism(
+                jobVertex.getID(), CONFIGURED_PARALLELISM + 1);
+
+        assertDesiredParallelism(CONFIGURED_PARALLELISM);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTargetParallelismMustBePositive() {
+        loadBasedJobInformation.setTargetParallelism(jobVertex.getID(), 0);
+    }
+
+    private void assertDesiredParallelism(int expectedParallelism) {
+        final JobVertexID jobVertexId = jobVertex.getID();
+
+        assertThat(
+                loadBasedJobInformation.getTargetParallelism(jobVertexId),
+                is(expectedParallelism));
+        assertThat(
+                loadBasedJobInformation.getVertexInformation(jobVertexId).getParallelism(),
+                is(expectedParallelism));
+        for (JobInformation.VertexInformation vertex : loadBasedJobInformation.getVertices()) {
+            assertThat(vertex.getParallelism(), is(expectedParallelism));
+        }
+    }
+}
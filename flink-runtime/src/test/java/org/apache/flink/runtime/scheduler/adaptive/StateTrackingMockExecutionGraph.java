@@ -314,6 +314,17 @@ class StateTrackingMockExecutionGraph implements ExecutionGraph {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void initializeJobVertex(ExecutionJobVertex ejv, long createTimestamp)
+            throws JobException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void notifyNewlyInitializedJobVertices(List<ExecutionJobVertex> vertices) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public JobStatus waitUntilTerminal() throws InterruptedException {
         throw new UnsupportedOperationException();
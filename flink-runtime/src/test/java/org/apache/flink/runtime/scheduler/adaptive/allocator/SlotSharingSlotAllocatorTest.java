@@ -17,6 +17,7 @@
 
 package org.apache.flink.runtime.scheduler.adaptive.allocator;
 
+import org.apache.flink.runtime.clusterframework.types.ResourceID;
 import org.apache.flink.runtime.clusterframework.types.ResourceProfile;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.jobmanager.scheduler.SlotSharingGroup;
@@ -24,6 +25,8 @@ import org.apache.flink.runtime.jobmaster.LogicalSlot;
 import org.apache.flink.runtime.jobmaster.SlotInfo;
 import org.apache.flink.runtime.scheduler.TestingPhysicalSlot;
 import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
+import org.apache.flink.runtime.taskmanager.LocalTaskManagerLocation;
+import org.apache.flink.runtime.taskmanager.TaskManagerLocation;
 import org.apache.flink.runtime.util.ResourceCounter;
 import org.apache.flink.util.TestLogger;
 
@@ -32,6 +35,7 @@ import org.junit.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -208,6 +212,55 @@ public class SlotSharingSlotAllocatorTest extends TestLogger {
         assertFalse(reservedSlots.isPresent());
     }
 
+    @Test
+    public void testDetermineParallelismPrefersSlotsWithLocalState() {
+        final SlotSharingSlotAllocator slotAllocator =
+                SlotSharingSlotAllocator.createSlotSharingSlotAllocator(
+                        TEST_RESERVE_SLOT_FUNCTION,
+                        TEST_FREE_SLOT_FUNCTION,
+                        TEST_IS_SLOT_FREE_FUNCTION);
+
+        final JobInformation.VertexInformation vertex =
+                new TestVertexInformation(new JobVertexID(), 2, new SlotSharingGroup());
+        final JobInformation jobInformation =
+                new TestJobInformation(Collections.singletonList(vertex));
+
+        final TaskManagerLocation taskManager1 = new LocalTaskManagerLocation();
+        final TaskManagerLocation taskManager2 = new LocalTaskManagerLocation();
+        final SlotInfo slot1 = new TestSlotInfo(taskManager1);
+        final SlotInfo slot2 = new TestSlotInfo(taskManager2);
+
+        // subtask 0 ran on the second TaskManager and subtask 1 on the first one
+        final StateLocalityInformation stateLocality =
+                new StateLocalityInformation(
+                        Collections.singletonMap(
+                                vertex.getJobVertexID(),
+                                new StateLocalityInformation.VertexLocations(
+                                        128,
+                                        new ResourceID[] {
+                                            taskManager2.getResourceID(),
+                                            taskManager1.getResourceID()
+                                        })));
+
+        final VertexParallelismWithSlotSharing slotAssignments =
+                slotAllocator
+                        .determineParallelism(
+                                jobInformation, Arrays.asList(slot1, slot2), stateLocality)
+                        .get();
+
+        final Map<ExecutionVertexID, SlotInfo> assignedSlots = new HashMap<>();
+        for (SlotSharingSlotAllocator.ExecutionSlotSharingGroupAndSlot assignment :
+                slotAssignments.getAssignments()) {
+            for (ExecutionVertexID containedExecutionVertex :
+                    assignment.getExecutionSlotSharingGroup().getContainedExecutionVertices()) {
+                assignedSlots.put(containedExecutionVertex, assignment.getSlotInfo());
+            }
+        }
+
+        assertThat(assignedSlots.get(new ExecutionVertexID(vertex.getJobVertexID(), 0)), is(slot2));
+        assertThat(assignedSlots.get(new ExecutionVertexID(vertex.getJobVertexID(), 1)), is(slot1));
+    }
+
     private static Collection<SlotInfo> getSlots(int count) {
         final Collection<SlotInfo> slotInfo = new ArrayList<>();
         for (int i = 0; i < count; i++) {
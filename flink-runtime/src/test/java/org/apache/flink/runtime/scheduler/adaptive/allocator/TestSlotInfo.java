@@ -28,6 +28,16 @@ class TestSlotInfo implements SlotInfo {
 
     private final AllocationID allocationId = new AllocationID();
 
+    private final TaskManagerLocation taskManagerLocation;
+
+    TestSlotInfo() {
+        this(new LocalTaskManagerLocation());
+    }
+
+    TestSlotInfo(TaskManagerLocation taskManagerLocation) {
+        this.taskManagerLocation = taskManagerLocation;
+    }
+
     @Override
     public AllocationID getAllocationId() {
         return allocationId;
@@ -35,7 +45,7 @@ class TestSlotInfo implements SlotInfo {
 
     @Override
     public TaskManagerLocation getTaskManagerLocation() {
-        return new LocalTaskManagerLocation();
+        return taskManagerLocation;
     }
 
     @Override
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptive.scalingpolicy;
+
+import org.apache.flink.runtime.executiongraph.TaskLoad;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/** Tests for the {@link LoadBasedScalingPolicy}. */
+public class LoadBasedScalingPolicyTest extends TestLogger {
+
+    private final ScalingPolicy policy = new LoadBasedScalingPolicy(0.5, 0.8, 0.3);
+
+    @Test
+    public void testBusyVertexIsScaledUp() {
+        assertThat(policy.computeTargetParallelism(load(900.0, 0.0), 2, 8), is(4));
+    }
+
+    @Test
+    public void testIdleVertexIsScaledDown() {
+        assertThat(policy.computeTargetParallelism(load(100.0, 0.0), 4, 8), is(1));
+    }
+
+    @Test
+    public void testVertexBetweenThresholdsKeepsParallelism() {
+        assertThat(policy.computeTargetParallelism(load(700.0, 0.0), 4, 8), is(4));
+        assertThat(policy.computeTargetParallelism(load(400.0, 0.0), 4, 8), is(4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testScaleUpThresholdMustNotBeLowerThanTargetUtilization() {
+        new LoadBasedScalingPolicy(0.5, 0.4, 0.3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testScaleDownThresholdMustNotBeHigherThanTargetUtilization() {
+        new LoadBasedScalingPolicy(0.5, 0.8, 0.6);
+    }
+
+    @Test
+    public void testTargetParallelismIsBoundedByMaxParallelism() {
+        assertThat(policy.computeTargetParallelism(load(1000.0, 0.0), 4, 6), is(6));
+    }
+
+    @Test
+    public void testBackPressuredVertexKeepsParallelism() {
+        assertThat(policy.computeTargetParallelism(load(100.0, 800.0), 4, 8), is(4));
+    }
+
+    @Test
+    public void testVertexWithoutBusyTimeKeepsParallelism() {
+        assertThat(policy.computeTargetParallelism(load(Double.NaN, 0.0), 4, 8), is(4));
+    }
+
+    @Test
+    public void testLaggingSourceIsNotScaledDown() {
+        final VertexLoad load = new VertexLoad(100.0, 0.0, 1000L);
+        assertThat(policy.computeTargetParallelism(load, 4, 8), is(4));
+    }
+
+    @Test
+    public void testAggregateTaskLoads() {
+        final VertexLoad load =
+                VertexLoad.aggregate(
+                        Arrays.asList(
+                                new TaskLoad(200.0, 100.0, 10L),
+                                new TaskLoad(Double.NaN, 300.0, TaskLoad.UNKNOWN_PENDING_RECORDS),
+                                new TaskLoad(400.0, 200.0, 5L)));
+
+        assertThat(load.getAverageBusyTimeMsPerSecond(), is(300.0));
+        assertThat(load.getAverageBackPressuredTimeMsPerSecond(), is(200.0));
+        assertThat(load.getPendingRecords(), is(15L));
+    }
+
+    private static VertexLoad load(double busyTimeMsPerSecond, double backPressuredMsPerSecond) {
+        return new VertexLoad(
+                busyTimeMsPerSecond, backPressuredMsPerSecond, TaskLoad.UNKNOWN_PENDING_RECORDS);
+    }
+}
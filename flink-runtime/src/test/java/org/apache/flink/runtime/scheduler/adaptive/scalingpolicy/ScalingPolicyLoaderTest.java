@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptive.scalingpolicy;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.IllegalConfigurationException;
+import org.apache.flink.configuration.JobManagerOptions;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/** Tests for the {@link ScalingPolicyLoader}. */
+public class ScalingPolicyLoaderTest extends TestLogger {
+
+    @Test
+    public void testLoadBasedScalingPolicyIsLoadedByDefault() {
+        assertThat(
+                loadScalingPolicy(new Configuration()), instanceOf(LoadBasedScalingPolicy.class));
+    }
+
+    @Test
+    public void testConfiguredScalingPolicyIsLoaded() {
+        final Configuration configuration = new Configuration();
+        configuration.set(
+                JobManagerOptions.LOAD_BASED_SCALING_POLICY,
+                FixedParallelismScalingPolicy.class.getName());
+
+        final ScalingPolicy scalingPolicy = loadScalingPolicy(configuration);
+
+        assertThat(scalingPolicy, instanceOf(FixedParallelismScalingPolicy.class));
+        assertThat(scalingPolicy.computeTargetParallelism(null, 4, 8), is(2));
+    }
+
+    @Test(expected = IllegalConfigurationException.class)
+    public void testUnknownScalingPolicyIsRejected() {
+        final Configuration configuration = new Configuration();
+        configuration.set(JobManagerOptions.LOAD_BASED_SCALING_POLICY, "org.example.Unknown");
+
+        loadScalingPolicy(configuration);
+    }
+
+    @Test(expected = IllegalConfigurationException.class)
+    public void testClassWhichIsNoScalingPolicyIsRejected() {
+        final Configuration configuration = new Configuration();
+        configuration.set(JobManagerOptions.LOAD_BASED_SCALING_POLICY, String.class.getName());
+
+        loadScalingPolicy(configuration);
+    }
+
+    private static ScalingPolicy loadScalingPolicy(Configuration configuration) {
+        return ScalingPolicyLoader.loadScalingPolicy(
+                configuration, ScalingPolicyLoaderTest.class.getClassLoader());
+    }
+
+    /** Scaling policy which runs every job vertex with a fixed parallelism. */
+    public static class FixedParallelismScalingPolicy implements ScalingPolicy {
+
+        public FixedParallelismScalingPolicy(Configuration configuration) {}
+
+        @Override
+        public int computeTargetParallelism(
+                VertexLoad load, int currentParallelism, int maxParallelism) {
+            return 2;
+        }
+    }
+}
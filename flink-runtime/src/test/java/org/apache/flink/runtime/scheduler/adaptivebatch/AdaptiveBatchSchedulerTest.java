@@ -0,0 +1,286 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptivebatch;
+
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Meter;
+import org.apache.flink.metrics.MeterView;
+import org.apache.flink.metrics.SimpleCounter;
+import org.apache.flink.runtime.blob.VoidBlobWriter;
+import org.apache.flink.runtime.checkpoint.StandaloneCheckpointRecoveryFactory;
+import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutorServiceAdapter;
+import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
+import org.apache.flink.runtime.executiongraph.ExecutionVertex;
+import org.apache.flink.runtime.executiongraph.IOMetrics;
+import org.apache.flink.runtime.executiongraph.IntermediateResultPartition;
+import org.apache.flink.runtime.executiongraph.failover.flip1.NoRestartBackoffTimeStrategy;
+import org.apache.flink.runtime.executiongraph.failover.flip1.RestartPipelinedRegionFailoverStrategy;
+import org.apache.flink.runtime.io.network.partition.NoOpJobMasterPartitionTracker;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
+import org.apache.flink.runtime.jobgraph.DistributionPattern;
+import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
+import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
+import org.apache.flink.runtime.jobgraph.JobEdge;
+import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.runtime.jobgraph.JobGraphTestUtils;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.jobmaster.DefaultExecutionDeploymentTracker;
+import org.apache.flink.runtime.metrics.groups.UnregisteredMetricGroups;
+import org.apache.flink.runtime.scheduler.DefaultExecutionGraphFactory;
+import org.apache.flink.runtime.scheduler.DefaultExecutionVertexOperations;
+import org.apache.flink.runtime.scheduler.ExecutionVertexVersioner;
+import org.apache.flink.runtime.scheduler.TestExecutionSlotAllocatorFactory;
+import org.apache.flink.runtime.scheduler.strategy.PipelinedRegionSchedulingStrategy;
+import org.apache.flink.runtime.shuffle.ShuffleTestUtils;
+import org.apache.flink.runtime.taskmanager.TaskExecutionState;
+import org.apache.flink.runtime.testtasks.NoOpInvokable;
+import org.apache.flink.runtime.testutils.TestingUtils;
+import org.apache.flink.util.TestLogger;
+import org.apache.flink.util.concurrent.ScheduledExecutorServiceAdapter;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.flink.runtime.executiongraph.ExecutionGraphTestUtils.createNoOpVertex;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** Tests for {@link AdaptiveBatchScheduler}. */
+public class AdaptiveBatchSchedulerTest extends TestLogger {
+
+    private static final long DATA_VOLUME_PER_TASK = 10L;
+
+    private final VertexParallelismDecider vertexParallelismDecider =
+            new VertexParallelismDecider(1, 8, DATA_VOLUME_PER_TASK, 1);
+
+    @Test
+    public void testVertexInitializedOnceAllProducersFinished() throws Exception {
+        final JobVertex source = createNoOpVertex("source", 2);
+        final JobVertex sink = createVertexWithUndecidedParallelism("sink");
+        final IntermediateDataSetID result =
+                connect(source, sink, DistributionPattern.ALL_TO_ALL).getSourceId();
+
+        final AdaptiveBatchScheduler scheduler =
+                createSchedulerAndStartScheduling(JobGraphTestUtils.batchJobGraph(source, sink));
+        final ExecutionJobVertex sourceVertex = getJobVertex(scheduler, source);
+        final ExecutionJobVertex sinkVertex = getJobVertex(scheduler, sink);
+        assertFalse(sinkVertex.isInitialized());
+
+        finishExecution(
+                scheduler,
+                sourceVertex.getTaskVertices()[0],
+                Collections.singletonMap(result, 20L));
+        assertFalse(sinkVertex.isInitialized());
+
+        finishExecution(
+                scheduler,
+                sourceVertex.getTaskVertices()[1],
+                Collections.singletonMap(result, 20L));
+        assertTrue(sinkVertex.isInitialized());
+        assertEquals(4, sinkVertex.getParallelism());
+        for (ExecutionVertex sinkTask : sinkVertex.getTaskVertices()) {
+            assertEquals(ExecutionState.DEPLOYING, sinkTask.getExecutionState());
+        }
+    }
+
+    @Test
+    public void testParallelismDecidedFromBytesOfConsumedResultOnly() throws Exception {
+        final JobVertex source = createNoOpVertex("source", 2);
+        final JobVertex largeSink = createVertexWithUndecidedParallelism("large");
+        final JobVertex smallSink = createVertexWithUndecidedParallelism("small");
+        final IntermediateDataSetID largeResult =
+                connect(source, largeSink, DistributionPattern.ALL_TO_ALL).getSourceId();
+        final IntermediateDataSetID smallResult =
+                connect(source, smallSink, DistributionPattern.ALL_TO_ALL).getSourceId();
+
+        final AdaptiveBatchScheduler scheduler =
+                createSchedulerAndStartScheduling(
+                        JobGraphTestUtils.batchJobGraph(source, largeSink, smallSink));
+
+        final Map<IntermediateDataSetID, Long> bytesPerPartition = new HashMap<>();
+        bytesPerPartition.put(largeResult, 15L);
+        bytesPerPartition.put(smallResult, 5L);
+        finishJobVertex(scheduler, source, bytesPerPartition);
+
+        // the bytes written to the other result of the same producer must not be counted
+        assertEquals(3, getJobVertex(scheduler, largeSink).getParallelism());
+        assertEquals(1, getJobVertex(scheduler, smallSink).getParallelism());
+    }
+
+    @Test
+    public void testBytesOfAllNonBroadcastInputsAreSummed() throws Exception {
+        final JobVertex source1 = createNoOpVertex("source1", 2);
+        final JobVertex source2 = createNoOpVertex("source2", 3);
+        final JobVertex broadcastSource = createNoOpVertex("broadcast", 1);
+        final JobVertex sink = createVertexWithUndecidedParallelism("sink");
+        final IntermediateDataSetID result1 =
+                connect(source1, sink, DistributionPattern.ALL_TO_ALL).getSourceId();
+        final IntermediateDataSetID result2 =
+                connect(source2, sink, DistributionPattern.ALL_TO_ALL).getSourceId();
+        final JobEdge broadcastEdge =
+                connect(broadcastSource, sink, DistributionPattern.ALL_TO_ALL);
+        broadcastEdge.setBroadcast(true);
+        final IntermediateDataSetID broadcastResult = broadcastEdge.getSourceId();
+
+        final AdaptiveBatchScheduler scheduler =
+                createSchedulerAndStartScheduling(
+                        JobGraphTestUtils.batchJobGraph(source1, source2, broadcastSource, sink));
+        finishJobVertex(scheduler, source1, Collections.singletonMap(result1, 10L));
+        finishJobVertex(scheduler, source2, Collections.singletonMap(result2, 10L));
+        finishJobVertex(
+                scheduler, broadcastSource, Collections.singletonMap(broadcastResult, 100L));
+
+        assertEquals(5, getJobVertex(scheduler, sink).getParallelism());
+    }
+
+    @Test
+    public void testPointwiseInputsKeepSmallestProducerParallelism() throws Exception {
+        final JobVertex allToAllSource = createNoOpVertex("all-to-all", 1);
+        final JobVertex pointwiseSource1 = createNoOpVertex("pointwise1", 3);
+        final JobVertex pointwiseSource2 = createNoOpVertex("pointwise2", 2);
+        final JobVertex sink = createVertexWithUndecidedParallelism("sink");
+        final IntermediateDataSetID allToAllResult =
+                connect(allToAllSource, sink, DistributionPattern.ALL_TO_ALL).getSourceId();
+        connect(pointwiseSource1, sink, DistributionPattern.POINTWISE);
+        connect(pointwiseSource2, sink, DistributionPattern.POINTWISE);
+
+        final AdaptiveBatchScheduler scheduler =
+                createSchedulerAndStartScheduling(
+                        JobGraphTestUtils.batchJobGraph(
+                                allToAllSource, pointwiseSource1, pointwiseSource2, sink));
+        finishJobVertex(
+                scheduler,
+                allToAllSource,
+                Collections.singletonMap(allToAllResult, 8 * DATA_VOLUME_PER_TASK));
+        finishJobVertex(scheduler, pointwiseSource1, Collections.emptyMap());
+        finishJobVertex(scheduler, pointwiseSource2, Collections.emptyMap());
+
+        assertEquals(2, getJobVertex(scheduler, sink).getParallelism());
+    }
+
+    private AdaptiveBatchScheduler createSchedulerAndStartScheduling(JobGraph jobGraph)
+            throws Exception {
+        final AdaptiveBatchScheduler scheduler = createScheduler(jobGraph);
+        scheduler.startScheduling();
+        return scheduler;
+    }
+
+    private AdaptiveBatchScheduler createScheduler(JobGraph jobGraph) throws Exception {
+        final Configuration configuration = new Configuration();
+        final Time rpcTimeout = Time.seconds(10L);
+        return new AdaptiveBatchScheduler(
+                log,
+                jobGraph,
+                TestingUtils.defaultExecutor(),
+                configuration,
+                ignored -> {},
+                new ScheduledExecutorServiceAdapter(TestingUtils.defaultExecutor()),
+                ClassLoader.getSystemClassLoader(),
+                new StandaloneCheckpointRecoveryFactory(),
+                UnregisteredMetricGroups.createUnregisteredJobManagerJobMetricGroup(),
+                new PipelinedRegionSchedulingStrategy.Factory(),
+                new RestartPipelinedRegionFailoverStrategy.Factory(),
+                NoRestartBackoffTimeStrategy.INSTANCE,
+                new DefaultExecutionVertexOperations(),
+                new ExecutionVertexVersioner(),
+                new TestExecutionSlotAllocatorFactory(),
+                System.currentTimeMillis(),
+                ComponentMainThreadExecutorServiceAdapter.forMainThread(),
+                (ignoredA, ignoredB, ignoredC, ignoredD) -> {},
+                new DefaultExecutionGraphFactory(
+                        configuration,
+                        ClassLoader.getSystemClassLoader(),
+                        new DefaultExecutionDeploymentTracker(),
+                        TestingUtils.defaultExecutor(),
+                        TestingUtils.defaultExecutor(),
+                        rpcTimeout,
+                        UnregisteredMetricGroups.createUnregisteredJobManagerJobMetricGroup(),
+                        VoidBlobWriter.getInstance(),
+                        ShuffleTestUtils.DEFAULT_SHUFFLE_MASTER,
+                        NoOpJobMasterPartitionTracker.INSTANCE),
+                ShuffleTestUtils.DEFAULT_SHUFFLE_MASTER,
+                rpcTimeout,
+                AdaptiveBatchSchedulerFactory.computeVertexParallelismStoreForDynamicGraph(
+                        jobGraph.getVertices(), vertexParallelismDecider),
+                vertexParallelismDecider,
+                null,
+                0L);
+    }
+
+    private static JobEdge connect(
+            JobVertex producer, JobVertex consumer, DistributionPattern distributionPattern) {
+        return consumer.connectNewDataSetAsInput(
+                producer, distributionPattern, ResultPartitionType.BLOCKING);
+    }
+
+    private static JobVertex createVertexWithUndecidedParallelism(String name) {
+        final JobVertex vertex = new JobVertex(name);
+        vertex.setInvokableClass(NoOpInvokable.class);
+        return vertex;
+    }
+
+    private static ExecutionJobVertex getJobVertex(
+            AdaptiveBatchScheduler scheduler, JobVertex jobVertex) {
+        return scheduler.getExecutionGraph().getJobVertex(jobVertex.getID());
+    }
+
+    /**
+     * Finishes all tasks of the given job vertex, each of them reporting the given number of bytes
+     * for each of its partitions of the given results.
+     */
+    private static void finishJobVertex(
+            AdaptiveBatchScheduler scheduler,
+            JobVertex jobVertex,
+            Map<IntermediateDataSetID, Long> bytesPerPartition) {
+        for (ExecutionVertex task : getJobVertex(scheduler, jobVertex).getTaskVertices()) {
+            finishExecution(scheduler, task, bytesPerPartition);
+        }
+    }
+
+    private static void finishExecution(
+            AdaptiveBatchScheduler scheduler,
+            ExecutionVertex task,
+            Map<IntermediateDataSetID, Long> bytesPerPartition) {
+        final Map<IntermediateResultPartitionID, Long> numBytesProducedOfPartitions =
+                new HashMap<>();
+        for (IntermediateResultPartition partition : task.getProducedPartitions().values()) {
+            numBytesProducedOfPartitions.put(
+                    partition.getPartitionId(),
+                    bytesPerPartition.getOrDefault(partition.getIntermediateResult().getId(), 0L));
+        }
+        final Meter meter = new MeterView(new SimpleCounter());
+        final IOMetrics ioMetrics =
+                new IOMetrics(meter, meter, meter, meter, numBytesProducedOfPartitions);
+
+        assertTrue(
+                scheduler.updateTaskExecutionState(
+                        new TaskExecutionState(
+                                task.getCurrentExecutionAttempt().getAttemptId(),
+                                ExecutionState.FINISHED,
+                                null,
+                                null,
+                                ioMetrics)));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptivebatch;
+
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.OptionalLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/** Tests for {@link ExecutionTimeBasedSlowTaskDetector}. */
+public class ExecutionTimeBasedSlowTaskDetectorTest extends TestLogger {
+
+    private final ExecutionTimeBasedSlowTaskDetector detector =
+            new ExecutionTimeBasedSlowTaskDetector(0.75, 1.5, 100L);
+
+    @Test
+    public void testBaselineIsMultipliedMedian() {
+        assertEquals(
+                OptionalLong.of(3000L),
+                detector.getBaseline(Arrays.asList(3000L, 1000L, 2000L), 4));
+        assertEquals(
+                OptionalLong.of(3750L),
+                detector.getBaseline(Arrays.asList(1000L, 2000L, 3000L, 9000L), 5));
+    }
+
+    @Test
+    public void testBaselineIsBoundedByLowerBound() {
+        assertEquals(
+                OptionalLong.of(100L), detector.getBaseline(Arrays.asList(10L, 20L, 30L), 4));
+    }
+
+    @Test
+    public void testNoBaselineBeforeEnoughTasksFinished() {
+        assertFalse(detector.getBaseline(Collections.emptyList(), 4).isPresent());
+        assertFalse(detector.getBaseline(Arrays.asList(1000L, 2000L), 4).isPresent());
+    }
+
+    @Test
+    public void testNoBaselineOnceAllTasksFinished() {
+        assertFalse(
+                detector.getBaseline(Arrays.asList(1000L, 2000L, 3000L, 4000L), 4).isPresent());
+    }
+}
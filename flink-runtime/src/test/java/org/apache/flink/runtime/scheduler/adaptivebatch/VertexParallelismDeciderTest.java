@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.apache.flink.runtime.scheduler.adaptivebatch;
+
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/** Tests for {@link VertexParallelismDecider}. */
+public class VertexParallelismDeciderTest extends TestLogger {
+
+    private static final long DATA_VOLUME_PER_TASK = 1024L;
+
+    private final VertexParallelismDecider decider =
+            new VertexParallelismDecider(2, 10, DATA_VOLUME_PER_TASK, 1);
+
+    @Test
+    public void testParallelismFollowsConsumedData() {
+        assertEquals(3, decider.decideParallelism(3 * DATA_VOLUME_PER_TASK));
+        assertEquals(4, decider.decideParallelism(3 * DATA_VOLUME_PER_TASK + 1));
+    }
+
+    @Test
+    public void testParallelismIsBoundedByMinParallelism() {
+        assertEquals(2, decider.decideParallelism(0L));
+        assertEquals(2, decider.decideParallelism(DATA_VOLUME_PER_TASK));
+    }
+
+    @Test
+    public void testParallelismIsBoundedByMaxParallelism() {
+        assertEquals(10, decider.decideParallelism(100 * DATA_VOLUME_PER_TASK));
+        assertEquals(10, decider.decideParallelism(Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.benchmark.checkpointing;
+
+import org.apache.flink.runtime.checkpoint.CheckpointCoordinator;
+import org.apache.flink.runtime.checkpoint.CheckpointCoordinatorTestingUtils.CheckpointCoordinatorBuilder;
+import org.apache.flink.runtime.checkpoint.CheckpointMetrics;
+import org.apache.flink.runtime.checkpoint.TaskStateSnapshot;
+import org.apache.flink.runtime.concurrent.ManuallyTriggeredScheduledExecutor;
+import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.ExecutionGraph;
+import org.apache.flink.runtime.executiongraph.ExecutionVertex;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.jobmaster.TestingLogicalSlotBuilder;
+import org.apache.flink.runtime.messages.checkpoint.AcknowledgeCheckpoint;
+import org.apache.flink.runtime.scheduler.benchmark.JobConfiguration;
+import org.apache.flink.runtime.scheduler.benchmark.SchedulerBenchmarkBase;
+import org.apache.flink.util.concurrent.FutureUtils;
+import org.apache.flink.util.function.ThrowingRunnable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.apache.flink.runtime.scheduler.benchmark.SchedulerBenchmarkUtils.createAndInitExecutionGraph;
+import static org.apache.flink.runtime.scheduler.benchmark.SchedulerBenchmarkUtils.createDefaultJobVertices;
+import static org.apache.flink.runtime.scheduler.benchmark.SchedulerBenchmarkUtils.deployAllTasks;
+import static org.apache.flink.runtime.scheduler.benchmark.SchedulerBenchmarkUtils.transitionTaskStatus;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * The benchmark of acknowledging a checkpoint by all tasks of a STREAMING/BATCH job. Like on the
+ * JobManager, the acknowledgements are processed concurrently by several threads. The related
+ * method is {@link CheckpointCoordinator#receiveAcknowledgeMessage}.
+ */
+public class AcknowledgeCheckpointBenchmark extends SchedulerBenchmarkBase {
+
+    private static final int NUM_ACKNOWLEDGING_THREADS = 8;
+
+    private ExecutionGraph executionGraph;
+    private ManuallyTriggeredScheduledExecutor timer;
+    private CheckpointCoordinator checkpointCoordinator;
+    private ExecutorService acknowledgingExecutor;
+
+    public void setup(JobConfiguration jobConfiguration) throws Exception {
+        super.setup();
+
+        final List<JobVertex> jobVertices = createDefaultJobVertices(jobConfiguration);
+        executionGraph =
+                createAndInitExecutionGraph(
+                        jobVertices, jobConfiguration, scheduledExecutorService);
+        deployAllTasks(executionGraph, new TestingLogicalSlotBuilder());
+        for (JobVertex jobVertex : jobVertices) {
+            transitionTaskStatus(executionGraph, jobVertex.getID(), ExecutionState.INITIALIZING);
+            transitionTaskStatus(executionGraph, jobVertex.getID(), ExecutionState.RUNNING);
+        }
+
+        timer = new ManuallyTriggeredScheduledExecutor();
+        checkpointCoordinator =
+                new CheckpointCoordinatorBuilder()
+                        .setExecutionGraph(executionGraph)
+                        .setTimer(timer)
+                        .build();
+        acknowledgingExecutor = Executors.newFixedThreadPool(NUM_ACKNOWLEDGING_THREADS);
+    }
+
+    /** Triggers a checkpoint, this is not part of the measured work. */
+    public long triggerCheckpoint() {
+        checkpointCoordinator.triggerCheckpoint(false);
+        timer.triggerAll();
+        checkState(
+                checkpointCoordinator.getNumberOfPendingCheckpoints() == 1,
+                "The checkpoint was not triggered.");
+        return checkpointCoordinator.getPendingCheckpoints().keySet().iterator().next();
+    }
+
+    public void acknowledgeCheckpoint(long checkpointId) throws Exception {
+        final List<CompletableFuture<Void>> acknowledgements = new ArrayList<>();
+        for (ExecutionVertex vertex : executionGraph.getAllExecutionVertices()) {
+            final AcknowledgeCheckpoint acknowledgeCheckpoint =
+                    new AcknowledgeCheckpoint(
+                            executionGraph.getJobID(),
+                            vertex.getCurrentExecutionAttempt().getAttemptId(),
+                            checkpointId,
+                            new CheckpointMetrics(),
+                            new TaskStateSnapshot());
+            acknowledgements.add(
+                    CompletableFuture.runAsync(
+                            ThrowingRunnable.unchecked(
+                                    () ->
+                                            checkpointCoordinator.receiveAcknowledgeMessage(
+                                                    acknowledgeCheckpoint, "localhost")),
+                            acknowledgingExecutor));
+        }
+        FutureUtils.waitForAll(acknowledgements).get();
+
+        checkState(
+                checkpointCoordinator.getNumberOfPendingCheckpoints() == 0,
+                "The checkpoint was not completed.");
+    }
+
+    @Override
+    public void teardown() {
+        try {
+            if (checkpointCoordinator != null) {
+                checkpointCoordinator.shutdown();
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (acknowledgingExecutor != null) {
+                acknowledgingExecutor.shutdownNow();
+            }
+            super.teardown();
+        }
+    }
+}
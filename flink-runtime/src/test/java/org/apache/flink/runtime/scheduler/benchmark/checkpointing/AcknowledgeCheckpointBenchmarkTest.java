@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.benchmark.checkpointing;
+
+import org.apache.flink.runtime.checkpoint.CheckpointCoordinator;
+import org.apache.flink.runtime.scheduler.benchmark.JobConfiguration;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+/**
+ * The benchmark of acknowledging a checkpoint by all tasks of a STREAMING/BATCH job. The related
+ * method is {@link CheckpointCoordinator#receiveAcknowledgeMessage}.
+ */
+public class AcknowledgeCheckpointBenchmarkTest extends TestLogger {
+
+    @Test
+    public void acknowledgeCheckpointsInStreamingJob() throws Exception {
+        AcknowledgeCheckpointBenchmark benchmark = new AcknowledgeCheckpointBenchmark();
+        benchmark.setup(JobConfiguration.STREAMING_TEST);
+        try {
+            for (int i = 0; i < 3; i++) {
+                benchmark.acknowledgeCheckpoint(benchmark.triggerCheckpoint());
+            }
+        } finally {
+            benchmark.teardown();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package org.apache.flink.runtime.scheduler.benchmark.e2e;
+
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.runtime.jobgraph.JobGraphTestUtils;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.minicluster.MiniCluster;
+import org.apache.flink.runtime.minicluster.MiniClusterConfiguration;
+import org.apache.flink.runtime.testtasks.BlockingNoOpInvokable;
+import org.apache.flink.runtime.testutils.CommonTestUtils;
+
+/**
+ * The benchmark of the time from submitting a job to a session cluster until all of its tasks are
+ * running. The job is cancelled after each run, so that subsequent runs submit to a warm cluster
+ * like short-lived jobs on a session cluster do.
+ */
+public class SubmitJobToRunningBenchmark {
+
+    private static final int PARALLELISM = 4;
+
+    private MiniCluster miniCluster;
+
+    private JobID jobId;
+
+    public void setup(Configuration configuration) throws Exception {
+        miniCluster =
+                new MiniCluster(
+                        new MiniClusterConfiguration.Builder()
+                                .setConfiguration(configuration)
+                                .setNumTaskManagers(2)
+                                .setNumSlotsPerTaskManager(PARALLELISM)
+                                .build());
+        miniCluster.start();
+    }
+
+    public void submitToRunning() throws Exception {
+        final JobVertex vertex = new JobVertex("blocking vertex");
+        vertex.setInvokableClass(BlockingNoOpInvokable.class);
+        vertex.setParallelism(PARALLELISM);
+        final JobGraph jobGraph = JobGraphTestUtils.streamingJobGraph(vertex);
+
+        miniCluster.submitJob(jobGraph).get();
+        jobId = jobGraph.getJobID();
+
+        CommonTestUtils.waitForAllTaskRunning(miniCluster, jobId);
+    }
+
+    public void cancelJob() throws Exception {
+        if (jobId != null) {
+            miniCluster.cancelJob(jobId).get();
+            miniCluster.requestJobResult(jobId).get();
+            jobId = null;
+        }
+    }
+
+    public void teardown() throws Exception {
+        if (miniCluster != null) {
+            miniCluster.close();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package org.apache.flink.runtime.scheduler.benchmark.e2e;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.CoreOptions;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+/**
+ * The benchmark of the time from submitting a job to a session cluster until all of its tasks are
+ * running.
+ */
+public class SubmitJobToRunningBenchmarkTest extends TestLogger {
+
+    @Test
+    public void submitToRunning() throws Exception {
+        runBenchmark(new Configuration());
+    }
+
+    @Test
+    public void submitToRunningWithSharedClassLoaders() throws Exception {
+        final Configuration configuration = new Configuration();
+        configuration.setBoolean(CoreOptions.SHARE_CLASSLOADER_ACROSS_JOBS, true);
+        runBenchmark(configuration);
+    }
+
+    private static void runBenchmark(Configuration configuration) throws Exception {
+        SubmitJobToRunningBenchmark benchmark = new SubmitJobToRunningBenchmark();
+        benchmark.setup(configuration);
+        try {
+            // the second submission runs on the warm cluster
+            for (int i = 0; i < 2; i++) {
+                benchmark.submitToRunning();
+                benchmark.cancelJob();
+            }
+        } finally {
+            benchmark.teardown();
+        }
+    }
+}
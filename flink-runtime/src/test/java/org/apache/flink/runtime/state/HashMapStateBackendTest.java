@@ -18,9 +18,16 @@
 
 package org.apache.flink.runtime.state;
 
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.configuration.CheckpointingOptions;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.checkpoint.CheckpointOptions;
 import org.apache.flink.runtime.state.hashmap.HashMapStateBackend;
 import org.apache.flink.runtime.state.storage.FileSystemCheckpointStorage;
 import org.apache.flink.runtime.state.storage.JobManagerCheckpointStorage;
+import org.apache.flink.util.IOUtils;
 import org.apache.flink.util.function.SupplierWithException;
 
 import org.junit.ClassRule;
@@ -33,6 +40,14 @@ import org.junit.runners.Parameterized;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
 
 /**
  * Tests for the keyed state backend and operator state backend, as created by the {@link
@@ -45,29 +60,36 @@ public class HashMapStateBackendTest extends StateBackendTestBase<HashMapStateBa
 
     @Parameterized.Parameters
     public static List<Object[]> modes() {
+        final SupplierWithException<CheckpointStorage, IOException> fileSystemStorage =
+                () -> {
+                    String checkpointPath = TEMP_FOLDER.newFolder().toURI().toString();
+                    return new FileSystemCheckpointStorage(checkpointPath);
+                };
         return Arrays.asList(
                 new Object[][] {
                     {
                         (SupplierWithException<CheckpointStorage, IOException>)
-                                JobManagerCheckpointStorage::new
+                                JobManagerCheckpointStorage::new,
+                        1
                     },
-                    {
-                        (SupplierWithException<CheckpointStorage, IOException>)
-                                () -> {
-                                    String checkpointPath =
-                                            TEMP_FOLDER.newFolder().toURI().toString();
-                                    return new FileSystemCheckpointStorage(checkpointPath);
-                                }
-                    }
+                    {fileSystemStorage, 1},
+                    {fileSystemStorage, 4}
                 });
     }
 
     @Parameterized.Parameter
     public SupplierWithException<CheckpointStorage, IOException> storageSupplier;
 
+    @Parameterized.Parameter(1)
+    public int numberOfSnapshotWriterThreads;
+
     @Override
     protected ConfigurableStateBackend getStateBackend() {
-        return new HashMapStateBackend();
+        Configuration config = new Configuration();
+        config.setInteger(
+                CheckpointingOptions.HEAP_SNAPSHOT_WRITER_THREADS, numberOfSnapshotWriterThreads);
+        return new HashMapStateBackend()
+                .configure(config, Thread.currentThread().getContextClassLoader());
     }
 
     @Override
@@ -85,6 +107,59 @@ public class HashMapStateBackendTest extends StateBackendTestBase<HashMapStateBa
         return true;
     }
 
+    /** Tests that the snapshots of a backend share its writer threads, which stop on dispose. */
+    @Test(timeout = 60_000L)
+    public void testSnapshotWriterThreadsSharedAndStoppedOnDispose() throws Exception {
+        assumeTrue(numberOfSnapshotWriterThreads > 1);
+
+        final Set<Thread> threadsBefore = getSnapshotWriterThreads();
+        final CheckpointStreamFactory streamFactory = createStreamFactory();
+        final SharedStateRegistry sharedStateRegistry = new SharedStateRegistry();
+        final CheckpointableKeyedStateBackend<Integer> backend =
+                createKeyedBackend(IntSerializer.INSTANCE);
+        final Set<Thread> writerThreads;
+        try {
+            final ValueState<String> state =
+                    backend.getPartitionedState(
+                            VoidNamespace.INSTANCE,
+                            VoidNamespaceSerializer.INSTANCE,
+                            new ValueStateDescriptor<>("id", String.class));
+            for (int key = 0; key < 100; key++) {
+                backend.setCurrentKey(key);
+                state.update(String.valueOf(key));
+            }
+
+            for (long checkpointId = 1L; checkpointId <= 3L; checkpointId++) {
+                runSnapshot(
+                                backend.snapshot(
+                                        checkpointId,
+                                        checkpointId,
+                                        streamFactory,
+                                        CheckpointOptions.forCheckpointWithDefaultLocation()),
+                                sharedStateRegistry)
+                        .discardState();
+            }
+
+            writerThreads = getSnapshotWriterThreads();
+            writerThreads.removeAll(threadsBefore);
+            assertThat(writerThreads, not(empty()));
+            assertThat(writerThreads.size(), lessThanOrEqualTo(numberOfSnapshotWriterThreads - 1));
+        } finally {
+            IOUtils.closeQuietly(backend);
+            backend.dispose();
+        }
+
+        for (Thread writerThread : writerThreads) {
+            writerThread.join();
+        }
+    }
+
+    private static Set<Thread> getSnapshotWriterThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("Flink-HeapSnapshotWriter"))
+                .collect(Collectors.toSet());
+    }
+
     // disable these because the verification does not work for this state backend
     @Override
     @Test
@@ -19,9 +19,14 @@
 package org.apache.flink.runtime.state;
 
 import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.state.filesystem.SegmentFileStateHandle;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Optional;
 
@@ -31,6 +36,8 @@ import static org.junit.Assert.assertTrue;
 
 public class SharedStateRegistryTest {
 
+    @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     /** Validate that all states can be correctly registered at the registry. */
     @Test
     public void testRegistryNormal() {
@@ -86,6 +93,36 @@ public class SharedStateRegistryTest {
         assertFalse(firstState.isDiscarded());
     }
 
+    /** Validate that the physical file of segments is only deleted with its last segment. */
+    @Test
+    public void testSegmentsShareTheirPhysicalFile() throws IOException {
+        SharedStateRegistry sharedStateRegistry = new SharedStateRegistry();
+
+        File physicalFile = temporaryFolder.newFile();
+        Path filePath = Path.fromLocalFile(physicalFile);
+        SharedStateRegistryKey firstKey = new SharedStateRegistryKey("first");
+        SharedStateRegistryKey secondKey = new SharedStateRegistryKey("second");
+        sharedStateRegistry.registerReference(firstKey, new SegmentFileStateHandle(filePath, 0, 5));
+        sharedStateRegistry.registerReference(
+                secondKey, new SegmentFileStateHandle(filePath, 5, 5));
+
+        // a duplicate of the first segment from another file doesn't touch the registered file
+        File otherFile = temporaryFolder.newFile();
+        SharedStateRegistry.Result result =
+                sharedStateRegistry.registerReference(
+                        firstKey,
+                        new SegmentFileStateHandle(Path.fromLocalFile(otherFile), 0, 5));
+        assertEquals(2, result.getReferenceCount());
+        assertEquals(new SegmentFileStateHandle(filePath, 0, 5), result.getReference());
+
+        sharedStateRegistry.unregisterReference(firstKey);
+        sharedStateRegistry.unregisterReference(firstKey);
+        assertTrue(physicalFile.exists());
+
+        sharedStateRegistry.unregisterReference(secondKey);
+        assertFalse(physicalFile.exists());
+    }
+
     /** Validate that unregister a nonexistent key will throw exception */
     @Test(expected = IllegalStateException.class)
     public void testUnregisterWithUnexistedKey() {
@@ -44,7 +44,11 @@ import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.Executor;
 
 public class TaskStateManagerImplTest extends TestLogger {
@@ -285,6 +289,190 @@ public class TaskStateManagerImplTest extends TestLogger {
         Assert.assertTrue(stateManager.isFinishedOnRestore());
     }
 
+    /**
+     * Tests that a subtask of a rescaled job restores its key-groups from the local state of the
+     * subtasks which held them before the rescaling.
+     */
+    @Test
+    public void testRescaledStateRetrievingFromLocalStateOfOtherSubtasks() {
+        final JobID jobID = new JobID();
+        final long checkpointId = 42L;
+        final OperatorID operatorID = new OperatorID();
+
+        final KeyedStateHandle jmHandle1 =
+                StateHandleDummyUtil.createNewKeyedStateHandle(new KeyGroupRange(0, 3));
+        final KeyedStateHandle jmHandle2 =
+                StateHandleDummyUtil.createNewKeyedStateHandle(new KeyGroupRange(4, 6));
+        final OperatorSubtaskState jmOperatorSubtaskState =
+                OperatorSubtaskState.builder()
+                        .setManagedKeyedState(
+                                new StateObjectCollection<>(Arrays.asList(jmHandle1, jmHandle2)))
+                        .build();
+
+        final List<JobID> retrievedJobIds = new ArrayList<>();
+        final List<Long> retrievedCheckpointIds = new ArrayList<>();
+        final TaskStateManager taskStateManager =
+                taskStateManager(
+                        jobID,
+                        createTaskRestore(checkpointId, operatorID, jmOperatorSubtaskState),
+                        (retrievedJobId, retrievedCheckpointId) -> {
+                            retrievedJobIds.add(retrievedJobId);
+                            retrievedCheckpointIds.add(retrievedCheckpointId);
+                            return Arrays.asList(
+                                    createLocalState(operatorID, new KeyGroupRange(0, 3)),
+                                    createLocalState(operatorID, new KeyGroupRange(4, 6)),
+                                    createLocalState(operatorID, new KeyGroupRange(7, 9)));
+                        });
+
+        final Iterator<StateObjectCollection<KeyedStateHandle>> prioritizedManagedKeyedState =
+                taskStateManager
+                        .prioritizedOperatorState(operatorID)
+                        .getPrioritizedManagedKeyedState()
+                        .iterator();
+
+        Assert.assertEquals(Collections.singletonList(jobID), retrievedJobIds);
+        Assert.assertEquals(Collections.singletonList(checkpointId), retrievedCheckpointIds);
+
+        // the local alternative replaces every handle of the job manager state
+        Assert.assertTrue(prioritizedManagedKeyedState.hasNext());
+        final Iterator<KeyedStateHandle> localHandles =
+                prioritizedManagedKeyedState.next().iterator();
+        final KeyedStateHandle localHandle1 = localHandles.next();
+        Assert.assertNotSame(jmHandle1, localHandle1);
+        Assert.assertEquals(jmHandle1.getKeyGroupRange(), localHandle1.getKeyGroupRange());
+        final KeyedStateHandle localHandle2 = localHandles.next();
+        Assert.assertNotSame(jmHandle2, localHandle2);
+        Assert.assertEquals(jmHandle2.getKeyGroupRange(), localHandle2.getKeyGroupRange());
+        Assert.assertFalse(localHandles.hasNext());
+
+        Assert.assertTrue(prioritizedManagedKeyedState.hasNext());
+        Assert.assertEquals(
+                jmOperatorSubtaskState.getManagedKeyedState(),
+                prioritizedManagedKeyedState.next());
+        Assert.assertFalse(prioritizedManagedKeyedState.hasNext());
+    }
+
+    /**
+     * Tests that a subtask of a rescaled job restores from the job manager state if no local state
+     * covers exactly the key-group ranges of its handles.
+     */
+    @Test
+    public void testRescaledStateRetrievingFallsBackIfKeyGroupRangesDoNotMatch() {
+        final long checkpointId = 42L;
+        final OperatorID operatorID = new OperatorID();
+
+        final OperatorSubtaskState jmOperatorSubtaskState =
+                OperatorSubtaskState.builder()
+                        .setManagedKeyedState(
+                                StateHandleDummyUtil.createNewKeyedStateHandle(
+                                        new KeyGroupRange(0, 4)))
+                        .build();
+
+        final TaskStateManager taskStateManager =
+                taskStateManager(
+                        new JobID(),
+                        createTaskRestore(checkpointId, operatorID, jmOperatorSubtaskState),
+                        (retrievedJobId, retrievedCheckpointId) ->
+                                Arrays.asList(
+                                        createLocalState(operatorID, new KeyGroupRange(0, 3)),
+                                        createLocalState(operatorID, new KeyGroupRange(4, 6))));
+
+        final Iterator<StateObjectCollection<KeyedStateHandle>> prioritizedManagedKeyedState =
+                taskStateManager
+                        .prioritizedOperatorState(operatorID)
+                        .getPrioritizedManagedKeyedState()
+                        .iterator();
+
+        Assert.assertTrue(prioritizedManagedKeyedState.hasNext());
+        Assert.assertEquals(
+                jmOperatorSubtaskState.getManagedKeyedState(),
+                prioritizedManagedKeyedState.next());
+        Assert.assertFalse(prioritizedManagedKeyedState.hasNext());
+    }
+
+    /**
+     * Tests that the local state of other subtasks is not retrieved if the own local state covers
+     * the key-groups of the subtask.
+     */
+    @Test
+    public void testOwnLocalStateIsPreferredIfKeyGroupRangesMatch() {
+        final long checkpointId = 42L;
+        final OperatorID operatorID = new OperatorID();
+        final KeyGroupRange keyGroupRange = new KeyGroupRange(0, 4);
+
+        final OperatorSubtaskState jmOperatorSubtaskState =
+                OperatorSubtaskState.builder()
+                        .setManagedKeyedState(
+                                StateHandleDummyUtil.createNewKeyedStateHandle(keyGroupRange))
+                        .build();
+
+        final TestTaskLocalStateStore localStateStore = new TestTaskLocalStateStore();
+        final TaskStateSnapshot ownLocalState = createLocalState(operatorID, keyGroupRange);
+        localStateStore.storeLocalState(checkpointId, ownLocalState);
+
+        final TaskStateManager taskStateManager =
+                new TaskStateManagerImpl(
+                        new JobID(),
+                        new ExecutionAttemptID(),
+                        localStateStore,
+                        null,
+                        createTaskRestore(checkpointId, operatorID, jmOperatorSubtaskState),
+                        new TestCheckpointResponder(),
+                        (retrievedJobId, retrievedCheckpointId) -> {
+                            throw new AssertionError("The own local state should be used.");
+                        });
+
+        final Iterator<StateObjectCollection<KeyedStateHandle>> prioritizedManagedKeyedState =
+                taskStateManager
+                        .prioritizedOperatorState(operatorID)
+                        .getPrioritizedManagedKeyedState()
+                        .iterator();
+
+        Assert.assertTrue(prioritizedManagedKeyedState.hasNext());
+        Assert.assertEquals(
+                ownLocalState.getSubtaskStateByOperatorID(operatorID).getManagedKeyedState(),
+                prioritizedManagedKeyedState.next());
+        Assert.assertTrue(prioritizedManagedKeyedState.hasNext());
+        Assert.assertEquals(
+                jmOperatorSubtaskState.getManagedKeyedState(),
+                prioritizedManagedKeyedState.next());
+        Assert.assertFalse(prioritizedManagedKeyedState.hasNext());
+    }
+
+    private static JobManagerTaskRestore createTaskRestore(
+            long checkpointId, OperatorID operatorID, OperatorSubtaskState operatorSubtaskState) {
+        final TaskStateSnapshot taskStateSnapshot = new TaskStateSnapshot();
+        taskStateSnapshot.putSubtaskStateByOperatorID(operatorID, operatorSubtaskState);
+        return new JobManagerTaskRestore(checkpointId, taskStateSnapshot);
+    }
+
+    private static TaskStateSnapshot createLocalState(
+            OperatorID operatorID, KeyGroupRange keyGroupRange) {
+        final TaskStateSnapshot localState = new TaskStateSnapshot();
+        localState.putSubtaskStateByOperatorID(
+                operatorID,
+                OperatorSubtaskState.builder()
+                        .setManagedKeyedState(
+                                StateHandleDummyUtil.createNewKeyedStateHandle(keyGroupRange))
+                        .build());
+        return localState;
+    }
+
+    private static TaskStateManager taskStateManager(
+            JobID jobID,
+            JobManagerTaskRestore jobManagerTaskRestore,
+            TaskStateManagerImpl.JobVertexLocalStatesRetriever jobVertexLocalStatesRetriever) {
+
+        return new TaskStateManagerImpl(
+                jobID,
+                new ExecutionAttemptID(),
+                new TestTaskLocalStateStore(),
+                null,
+                jobManagerTaskRestore,
+                new TestCheckpointResponder(),
+                jobVertexLocalStatesRetriever);
+    }
+
     public static TaskStateManager taskStateManager(
             JobID jobID,
             ExecutionAttemptID executionAttemptID,
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.changelog;
+
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyGroupRangeOffsets;
+import org.apache.flink.runtime.state.KeyGroupsStateHandle;
+import org.apache.flink.runtime.state.KeyedStateHandle;
+import org.apache.flink.runtime.state.SharedStateRegistry;
+import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.TestingStreamStateHandle;
+import org.apache.flink.runtime.state.changelog.ChangelogStateBackendHandle.ChangelogStateBackendHandleImpl;
+import org.apache.flink.runtime.state.filesystem.FileStateHandle;
+import org.apache.flink.runtime.state.filesystem.MultiPartStreamStateHandle;
+import org.apache.flink.util.InstantiationUtil;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/** {@link ChangelogStateBackendHandleImpl} test. */
+public class ChangelogStateBackendHandleTest extends TestLogger {
+
+    private static final KeyGroupRange KEY_GROUP_RANGE = KeyGroupRange.of(0, 3);
+
+    @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File firstPart;
+
+    private File secondPart;
+
+    private KeyedStateHandle materialized;
+
+    @Before
+    public void before() throws Exception {
+        firstPart = temporaryFolder.newFile();
+        secondPart = temporaryFolder.newFile();
+        materialized =
+                createKeyGroupsHandle(
+                        new MultiPartStreamStateHandle(
+                                Arrays.asList(
+                                        new FileStateHandle(Path.fromLocalFile(firstPart), 0L),
+                                        new FileStateHandle(Path.fromLocalFile(secondPart), 0L))));
+    }
+
+    @Test
+    public void testMaterializedStateIsDiscardedWithTheLastCheckpoint() throws Exception {
+        SharedStateRegistry registry = new SharedStateRegistry();
+
+        // every checkpoint until the next materialization refers to the materialized state, and
+        // the JM receives a separately deserialized copy of it with each of them
+        ChangelogStateBackendHandleImpl first =
+                createHandle(InstantiationUtil.clone(materialized));
+        ChangelogStateBackendHandleImpl second =
+                createHandle(InstantiationUtil.clone(materialized));
+        first.registerSharedStates(registry);
+        second.registerSharedStates(registry);
+
+        // subsume the first checkpoint
+        first.discardState();
+        assertTrue(firstPart.exists());
+        assertTrue(secondPart.exists());
+
+        second.discardState();
+        assertFalse(firstPart.exists());
+        assertFalse(secondPart.exists());
+    }
+
+    @Test
+    public void testMaterializedStateIsKeptIfNotRegistered() throws Exception {
+        createHandle(materialized).discardState();
+
+        assertTrue(firstPart.exists());
+        assertTrue(secondPart.exists());
+    }
+
+    @Test
+    public void testUnsupportedMaterializedStateIsRejected() throws Exception {
+        SharedStateRegistry registry = new SharedStateRegistry();
+        KeyedStateHandle unsupported = createKeyGroupsHandle(new TestingStreamStateHandle());
+
+        try {
+            createHandle(Arrays.asList(materialized, unsupported)).registerSharedStates(registry);
+            fail("Materialized state without a stable key should be rejected.");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        // nothing was registered by the rejected handle
+        ChangelogStateBackendHandleImpl handle = createHandle(materialized);
+        handle.registerSharedStates(registry);
+        handle.discardState();
+        assertFalse(firstPart.exists());
+        assertFalse(secondPart.exists());
+    }
+
+    private static KeyedStateHandle createKeyGroupsHandle(StreamStateHandle stream) {
+        return new KeyGroupsStateHandle(new KeyGroupRangeOffsets(KEY_GROUP_RANGE), stream);
+    }
+
+    private static ChangelogStateBackendHandleImpl createHandle(KeyedStateHandle materialized) {
+        return createHandle(singletonList(materialized));
+    }
+
+    private static ChangelogStateBackendHandleImpl createHandle(
+            List<KeyedStateHandle> materialized) {
+        return new ChangelogStateBackendHandleImpl(materialized, emptyList(), KEY_GROUP_RANGE);
+    }
+}
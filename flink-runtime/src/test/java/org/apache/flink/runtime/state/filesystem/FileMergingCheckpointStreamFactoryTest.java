@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.filesystem;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.state.CheckpointStreamFactory.CheckpointStateOutputStream;
+import org.apache.flink.runtime.state.CheckpointedStateScope;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+/** Tests for the {@link FileMergingCheckpointStreamFactory}. */
+public class FileMergingCheckpointStreamFactoryTest extends TestLogger {
+
+    @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path targetDirectory;
+
+    @Before
+    public void createTargetDirectory() throws IOException {
+        targetDirectory = Path.fromLocalFile(temporaryFolder.newFolder());
+    }
+
+    @Test
+    public void testSequentialStreamsShareOnePhysicalFile() throws Exception {
+        final FileMergingCheckpointStreamFactory factory = createFactory(1024);
+
+        final SegmentFileStateHandle first = writeSegment(factory, "first");
+        final SegmentFileStateHandle second = writeSegment(factory, "second segment");
+        factory.close();
+
+        assertEquals(first.getFilePath(), second.getFilePath());
+        assertEquals(0, first.getStartPos());
+        assertEquals(first.getStateSize(), second.getStartPos());
+        assertEquals(1, listPhysicalFiles().length);
+
+        assertArrayEquals(bytes("first"), readSegment(first));
+        assertArrayEquals(bytes("second segment"), readSegment(second));
+    }
+
+    @Test
+    public void testConcurrentStreamsUseDifferentPhysicalFiles() throws Exception {
+        final FileMergingCheckpointStreamFactory factory = createFactory(1024);
+
+        final CheckpointStateOutputStream first =
+                factory.createCheckpointStateOutputStream(CheckpointedStateScope.SHARED);
+        final CheckpointStateOutputStream second =
+                factory.createCheckpointStateOutputStream(CheckpointedStateScope.SHARED);
+        first.write(bytes("first"));
+        second.write(bytes("second"));
+        final SegmentFileStateHandle firstHandle =
+                (SegmentFileStateHandle) first.closeAndGetHandle();
+        final SegmentFileStateHandle secondHandle =
+                (SegmentFileStateHandle) second.closeAndGetHandle();
+        factory.close();
+
+        assertNotEquals(firstHandle.getFilePath(), secondHandle.getFilePath());
+        assertArrayEquals(bytes("first"), readSegment(firstHandle));
+        assertArrayEquals(bytes("second"), readSegment(secondHandle));
+    }
+
+    @Test
+    public void testFullPhysicalFileIsNotReused() throws Exception {
+        final FileMergingCheckpointStreamFactory factory = createFactory(4);
+
+        final SegmentFileStateHandle first = writeSegment(factory, "first");
+        final SegmentFileStateHandle second = writeSegment(factory, "second");
+        factory.close();
+
+        assertNotEquals(first.getFilePath(), second.getFilePath());
+        assertEquals(0, second.getStartPos());
+    }
+
+    @Test
+    public void testEmptyStreamReturnsNoHandle() throws Exception {
+        final FileMergingCheckpointStreamFactory factory = createFactory(1024);
+
+        assertNull(
+                factory.createCheckpointStateOutputStream(CheckpointedStateScope.SHARED)
+                        .closeAndGetHandle());
+        factory.close();
+    }
+
+    @Test
+    public void testDiscardingSegmentDeletesPhysicalFile() throws Exception {
+        final FileMergingCheckpointStreamFactory factory = createFactory(1024);
+
+        final SegmentFileStateHandle first = writeSegment(factory, "first");
+        writeSegment(factory, "second");
+        factory.close();
+
+        first.discardState();
+        assertEquals(0, listPhysicalFiles().length);
+    }
+
+    @Test
+    public void testAbortedStreamDeletesUnusedPhysicalFile() throws Exception {
+        final FileMergingCheckpointStreamFactory factory = createFactory(1024);
+
+        final CheckpointStateOutputStream stream =
+                factory.createCheckpointStateOutputStream(CheckpointedStateScope.SHARED);
+        stream.write(bytes("aborted"));
+        stream.close();
+        factory.close();
+
+        assertEquals(0, listPhysicalFiles().length);
+    }
+
+    @Test
+    public void testAbortedStreamKeepsPreviousSegments() throws Exception {
+        final FileMergingCheckpointStreamFactory factory = createFactory(1024);
+
+        final SegmentFileStateHandle first = writeSegment(factory, "first");
+        final CheckpointStateOutputStream stream =
+                factory.createCheckpointStateOutputStream(CheckpointedStateScope.SHARED);
+        stream.write(bytes("aborted"));
+        stream.close();
+
+        final SegmentFileStateHandle second = writeSegment(factory, "second");
+        factory.close();
+
+        assertNotEquals(first.getFilePath(), second.getFilePath());
+        assertArrayEquals(bytes("first"), readSegment(first));
+        assertArrayEquals(bytes("second"), readSegment(second));
+    }
+
+    @Test(expected = IOException.class)
+    public void testCannotCreateStreamAfterClose() throws Exception {
+        final FileMergingCheckpointStreamFactory factory = createFactory(1024);
+        factory.close();
+
+        factory.createCheckpointStateOutputStream(CheckpointedStateScope.SHARED);
+    }
+
+    // ------------------------------------------------------------------------
+
+    private FileMergingCheckpointStreamFactory createFactory(long maxFileSize) {
+        return new FileMergingCheckpointStreamFactory(
+                FileSystem.getLocalFileSystem(), targetDirectory, maxFileSize);
+    }
+
+    private File[] listPhysicalFiles() {
+        return new File(targetDirectory.toUri()).listFiles();
+    }
+
+    private static SegmentFileStateHandle writeSegment(
+            FileMergingCheckpointStreamFactory factory, String content) throws IOException {
+        final CheckpointStateOutputStream stream =
+                factory.createCheckpointStateOutputStream(CheckpointedStateScope.SHARED);
+        stream.write(bytes(content));
+        return (SegmentFileStateHandle) stream.closeAndGetHandle();
+    }
+
+    private static byte[] readSegment(SegmentFileStateHandle handle) throws IOException {
+        final byte[] data = new byte[(int) handle.getStateSize()];
+        try (FSDataInputStream in = handle.openInputStream()) {
+            int offset = 0;
+            while (offset < data.length) {
+                final int read = in.read(data, offset, data.length - offset);
+                assertNotEquals(-1, read);
+                offset += read;
+            }
+            assertEquals(-1, in.read());
+            assertFalse(in.read(new byte[1], 0, 1) > 0);
+        }
+        return data;
+    }
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
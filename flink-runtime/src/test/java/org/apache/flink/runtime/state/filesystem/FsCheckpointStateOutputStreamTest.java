@@ -18,7 +18,9 @@
 
 package org.apache.flink.runtime.state.filesystem;
 
+import org.apache.flink.api.common.time.Deadline;
 import org.apache.flink.configuration.ConfigConstants;
+import org.apache.flink.core.fs.FSDataInputStream;
 import org.apache.flink.core.fs.FSDataOutputStream;
 import org.apache.flink.core.fs.FileSystem;
 import org.apache.flink.core.fs.Path;
@@ -27,7 +29,9 @@ import org.apache.flink.runtime.state.CheckpointStreamFactory.CheckpointStateOut
 import org.apache.flink.runtime.state.StreamStateHandle;
 import org.apache.flink.runtime.state.filesystem.FsCheckpointStreamFactory.FsCheckpointStateOutputStream;
 import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
+import org.apache.flink.runtime.testutils.CommonTestUtils;
 
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -42,9 +46,11 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
 
 import static org.junit.Assert.assertArrayEquals;
@@ -77,6 +83,14 @@ public class FsCheckpointStateOutputStreamTest {
 
     @Rule public final TemporaryFolder tempDir = new TemporaryFolder();
 
+    /** Shared by the streams that upload in parts, like the pool of a checkpoint storage. */
+    private final ExecutorService uploadExecutor = FsCheckpointPartUploader.createUploadExecutor(3);
+
+    @After
+    public void shutdownUploadExecutor() {
+        uploadExecutor.shutdownNow();
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testWrongParameters() throws Exception {
         // this should fail
@@ -369,6 +383,112 @@ public class FsCheckpointStateOutputStreamTest {
         assertTrue(isDirectoryEmpty(directory));
     }
 
+    @Test
+    public void testUploadInParts() throws Exception {
+        final byte[] state = new byte[10 * 1024 + 17];
+        new Random().nextBytes(state);
+
+        final FsCheckpointStateOutputStream stream =
+                new FsCheckpointStateOutputStream(
+                        Path.fromLocalFile(tempDir.newFolder()),
+                        FileSystem.getLocalFileSystem(),
+                        256,
+                        128,
+                        relativePaths,
+                        1024,
+                        3,
+                        uploadExecutor);
+
+        // mix small writes that go through the write buffer with large direct writes
+        stream.write(state, 0, 100);
+        stream.write(state[100]);
+        stream.write(state, 101, 5000);
+        stream.write(state, 5101, state.length - 5101);
+        assertEquals(state.length, stream.getPos());
+
+        final MultiPartStreamStateHandle handle =
+                (MultiPartStreamStateHandle) stream.closeAndGetHandle();
+        assertEquals(11, handle.getParts().size());
+        assertEquals(state.length, handle.getStateSize());
+        for (StreamStateHandle part : handle.getParts()) {
+            assertTrue(part instanceof FileStateHandle);
+            assertEquals(relativePaths, part instanceof RelativeFileStateHandle);
+        }
+
+        validateBytesInStream(handle.openInputStream(), state);
+
+        // seek across part boundaries
+        try (FSDataInputStream in = handle.openInputStream()) {
+            in.seek(3 * 1024 + 5);
+            assertEquals(state[3 * 1024 + 5], (byte) in.read());
+            in.seek(10);
+            assertEquals(state[10], (byte) in.read());
+            assertEquals(11, in.getPos());
+        }
+
+        handle.discardState();
+        for (StreamStateHandle part : handle.getParts()) {
+            ensureLocalFileDeleted(((FileStateHandle) part).getFilePath());
+        }
+    }
+
+    @Test
+    public void testUploadInPartsSmallState() throws Exception {
+        final byte[] state = new byte[700];
+        new Random().nextBytes(state);
+
+        final FsCheckpointStateOutputStream stream =
+                new FsCheckpointStateOutputStream(
+                        Path.fromLocalFile(tempDir.newFolder()),
+                        FileSystem.getLocalFileSystem(),
+                        256,
+                        128,
+                        relativePaths,
+                        1024,
+                        3,
+                        uploadExecutor);
+        stream.write(state);
+
+        final StreamStateHandle handle = stream.closeAndGetHandle();
+        assertTrue(handle instanceof FileStateHandle);
+        validateBytesInStream(handle.openInputStream(), state);
+
+        // state below the threshold stays inline
+        final FsCheckpointStateOutputStream inlineStream =
+                new FsCheckpointStateOutputStream(
+                        Path.fromLocalFile(tempDir.newFolder()),
+                        FileSystem.getLocalFileSystem(),
+                        256,
+                        128,
+                        relativePaths,
+                        1024,
+                        3,
+                        uploadExecutor);
+        inlineStream.write(state, 0, 100);
+        assertTrue(inlineStream.closeAndGetHandle() instanceof ByteStreamStateHandle);
+    }
+
+    @Test
+    public void testClosingDeletesUploadedParts() throws Exception {
+        final File directory = tempDir.newFolder();
+        final FsCheckpointStateOutputStream stream =
+                new FsCheckpointStateOutputStream(
+                        Path.fromLocalFile(directory),
+                        FileSystem.getLocalFileSystem(),
+                        256,
+                        128,
+                        relativePaths,
+                        1024,
+                        2,
+                        uploadExecutor);
+        stream.write(new byte[5000]);
+        stream.close();
+
+        // parts that were still uploading are deleted once their upload completed
+        CommonTestUtils.waitUntilCondition(
+                () -> isDirectoryEmpty(directory), Deadline.fromNow(Duration.ofMinutes(1)));
+    }
+
     // ------------------------------------------------------------------------
     //  Not deleting parent directories
     // ------------------------------------------------------------------------
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.taskexecutor;
+
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.runtime.blob.PermanentBlobKey;
+import org.apache.flink.runtime.deployment.InputGateDeploymentDescriptor;
+import org.apache.flink.runtime.deployment.TaskDeploymentDescriptor.Offloaded;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
+import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
+import org.apache.flink.runtime.shuffle.ShuffleDescriptor;
+import org.apache.flink.runtime.shuffle.UnknownShuffleDescriptor;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/** Tests for the {@link ShuffleDescriptorsCache}. */
+public class ShuffleDescriptorsCacheTest extends TestLogger {
+
+    @Test
+    public void testGetCachedShuffleDescriptors() {
+        final ShuffleDescriptorsCache cache = new ShuffleDescriptorsCache();
+        final PermanentBlobKey blobKey = new PermanentBlobKey();
+        final ShuffleDescriptor[] shuffleDescriptors = createShuffleDescriptors(3);
+
+        assertThat(cache.get(blobKey), is(nullValue()));
+
+        cache.put(new JobID(), blobKey, shuffleDescriptors);
+
+        assertThat(cache.get(blobKey), is(sameInstance(shuffleDescriptors)));
+        assertThat(cache.get(new PermanentBlobKey()), is(nullValue()));
+    }
+
+    @Test
+    public void testClearCacheForJob() {
+        final ShuffleDescriptorsCache cache = new ShuffleDescriptorsCache();
+        final JobID jobId1 = new JobID();
+        final JobID jobId2 = new JobID();
+        final PermanentBlobKey blobKey1 = new PermanentBlobKey();
+        final PermanentBlobKey blobKey2 = new PermanentBlobKey();
+
+        cache.put(jobId1, blobKey1, createShuffleDescriptors(1));
+        cache.put(jobId2, blobKey2, createShuffleDescriptors(1));
+
+        cache.clearCacheForJob(jobId1);
+
+        assertThat(cache.get(blobKey1), is(nullValue()));
+        assertThat(cache.size(), is(1L));
+    }
+
+    @Test
+    public void testInputGateTakesOffloadedShuffleDescriptorsFromCache() throws Exception {
+        final ShuffleDescriptorsCache cache = new ShuffleDescriptorsCache();
+        final JobID jobId = new JobID();
+        final PermanentBlobKey blobKey = new PermanentBlobKey();
+        final ShuffleDescriptor[] shuffleDescriptors = createShuffleDescriptors(2);
+        cache.put(jobId, blobKey, shuffleDescriptors);
+
+        final InputGateDeploymentDescriptor inputGate =
+                new InputGateDeploymentDescriptor(
+                        new IntermediateDataSetID(),
+                        ResultPartitionType.PIPELINED,
+                        0,
+                        new Offloaded<>(blobKey));
+
+        // the shuffle descriptors are cached, so the blob service is not needed
+        inputGate.loadBigData(null, jobId, cache);
+
+        assertThat(inputGate.getShuffleDescriptors(), is(sameInstance(shuffleDescriptors)));
+    }
+
+    private static ShuffleDescriptor[] createShuffleDescriptors(int numberOfDescriptors) {
+        final ShuffleDescriptor[] shuffleDescriptors = new ShuffleDescriptor[numberOfDescriptors];
+        for (int i = 0; i < numberOfDescriptors; i++) {
+            shuffleDescriptors[i] = new UnknownShuffleDescriptor(new ResultPartitionID());
+        }
+        return shuffleDescriptors;
+    }
+}
@@ -44,6 +44,7 @@ import org.apache.flink.runtime.rest.messages.taskmanager.ThreadDumpInfo;
 import org.apache.flink.runtime.webmonitor.threadinfo.ThreadInfoSamplesRequest;
 import org.apache.flink.types.SerializableOptional;
 import org.apache.flink.util.Preconditions;
+import org.apache.flink.util.SerializedThrowable;
 import org.apache.flink.util.SerializedValue;
 import org.apache.flink.util.concurrent.FutureUtils;
 import org.apache.flink.util.function.QuadFunction;
@@ -51,6 +52,9 @@ import org.apache.flink.util.function.TriConsumer;
 import org.apache.flink.util.function.TriFunction;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
@@ -212,6 +216,16 @@ public class TestingTaskExecutorGateway implements TaskExecutorGateway {
         return submitTaskConsumer.apply(tdd, jobMasterId);
     }
 
+    @Override
+    public CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> submitTasks(
+            Collection<TaskDeploymentDescriptor> tdds, JobMasterId jobMasterId, Time timeout) {
+        final Map<ExecutionAttemptID, CompletableFuture<Acknowledge>> results = new HashMap<>();
+        for (TaskDeploymentDescriptor tdd : tdds) {
+            results.put(tdd.getExecutionAttemptId(), submitTask(tdd, jobMasterId, timeout));
+        }
+        return TaskOperationResults.collectFailures(results);
+    }
+
     @Override
     public CompletableFuture<Acknowledge> updatePartitions(
             ExecutionAttemptID executionAttemptID,
@@ -220,6 +234,12 @@ public class TestingTaskExecutorGateway implements TaskExecutorGateway {
         return CompletableFuture.completedFuture(Acknowledge.get());
     }
 
+    @Override
+    public CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> updatePartitionsOfTasks(
+            Map<ExecutionAttemptID, Collection<PartitionInfo>> partitionInfos, Time timeout) {
+        return CompletableFuture.completedFuture(Collections.emptyMap());
+    }
+
     @Override
     public void releaseOrPromotePartitions(
             JobID jobId,
@@ -267,6 +287,16 @@ public class TestingTaskExecutorGateway implements TaskExecutorGateway {
         return cancelTaskFunction.apply(executionAttemptID);
     }
 
+    @Override
+    public CompletableFuture<Map<ExecutionAttemptID, SerializedThrowable>> cancelTasks(
+            Collection<ExecutionAttemptID> executionAttemptIDs, Time timeout) {
+        final Map<ExecutionAttemptID, CompletableFuture<Acknowledge>> results = new HashMap<>();
+        for (ExecutionAttemptID executionAttemptID : executionAttemptIDs) {
+            results.put(executionAttemptID, cancelTask(executionAttemptID, timeout));
+        }
+        return TaskOperationResults.collectFailures(results);
+    }
+
     @Override
     public CompletableFuture<Void> heartbeatFromJobManager(
             ResourceID heartbeatOrigin, AllocatedSlotReport allocatedSlotReport) {
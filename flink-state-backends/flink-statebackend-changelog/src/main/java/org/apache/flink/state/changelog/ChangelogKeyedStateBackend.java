@@ -27,11 +27,15 @@ import org.apache.flink.api.common.state.State;
 import org.apache.flink.api.common.state.StateDescriptor;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.CheckpointingOptions;
 import org.apache.flink.runtime.checkpoint.CheckpointOptions;
 import org.apache.flink.runtime.checkpoint.CheckpointType;
 import org.apache.flink.runtime.state.AbstractKeyedStateBackend;
+import org.apache.flink.runtime.state.CheckpointStorageLocationReference;
+import org.apache.flink.runtime.state.CheckpointStorageWorkerView;
 import org.apache.flink.runtime.state.CheckpointStreamFactory;
 import org.apache.flink.runtime.state.CheckpointableKeyedStateBackend;
+import org.apache.flink.runtime.state.CheckpointedStateScope;
 import org.apache.flink.runtime.state.KeyGroupRange;
 import org.apache.flink.runtime.state.KeyGroupedInternalPriorityQueue;
 import org.apache.flink.runtime.state.Keyed;
@@ -44,6 +48,7 @@ import org.apache.flink.runtime.state.RegisteredPriorityQueueStateBackendMetaInf
 import org.apache.flink.runtime.state.SavepointResources;
 import org.apache.flink.runtime.state.SnapshotResult;
 import org.apache.flink.runtime.state.StateSnapshotTransformer;
+import org.apache.flink.runtime.state.StateUtil;
 import org.apache.flink.runtime.state.TestableKeyedStateBackend;
 import org.apache.flink.runtime.state.changelog.ChangelogStateBackendHandle;
 import org.apache.flink.runtime.state.changelog.ChangelogStateBackendHandle.ChangelogStateBackendHandleImpl;
@@ -57,6 +62,7 @@ import org.apache.flink.runtime.state.metainfo.StateMetaInfoSnapshot.BackendStat
 import org.apache.flink.runtime.state.metrics.LatencyTrackingStateFactory;
 import org.apache.flink.runtime.state.ttl.TtlStateFactory;
 import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
+import org.apache.flink.state.changelog.PeriodicMaterializationManager.MaterializationRunnable;
 import org.apache.flink.state.changelog.restore.FunctionDelegationHelper;
 import org.apache.flink.util.FlinkRuntimeException;
 
@@ -65,15 +71,18 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import javax.annotation.concurrent.GuardedBy;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -83,6 +92,9 @@ import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.unmodifiableList;
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
 /**
@@ -153,19 +165,48 @@ public class ChangelogKeyedStateBackend<K>
     private final FunctionDelegationHelper functionDelegationHelper =
             new FunctionDelegationHelper();
 
-    /** Updated initially on restore and later upon materialization (in FLINK-21357). */
-    @GuardedBy("materialized")
-    private final List<KeyedStateHandle> materialized = new ArrayList<>();
+    /**
+     * The state that checkpoints are based on: updated initially on restore and later upon every
+     * materialization. Only accessed by the task thread; {@link #snapshot(long, long,
+     * CheckpointStreamFactory, CheckpointOptions) snapshots} capture it synchronously, so that a
+     * materialization completing while their changes are uploaded doesn't affect them.
+     */
+    private ChangelogSnapshotState changelogSnapshotState;
+
+    /**
+     * The materialization that each pending checkpoint is based on, so that the delegated backend
+     * can be notified about its materializations (rather than checkpoints) being completed.
+     */
+    private final NavigableMap<Long, Long> materializationIdByCheckpointId = new TreeMap<>();
+
+    /** The ID of the last materialization started by this backend; 0 if none was started. */
+    private long lastMaterializationId;
+
+    /**
+     * Whether a checkpoint that is based on the current materialization might have completed. Until
+     * then, the materialized state is owned by this backend rather than the shared state registry
+     * of the JM.
+     */
+    private boolean currentMaterializationMaybeCompleted;
 
-    /** Updated initially on restore and later cleared upon materialization (in FLINK-21357). */
-    @GuardedBy("materialized")
-    private final List<ChangelogStateHandle> restoredNonMaterialized = new ArrayList<>();
+    /**
+     * Materializations that were replaced by a newer one and are still owned by this backend,
+     * because pending checkpoints are based on them. They are discarded once all these checkpoints
+     * are aborted, or handed over to the JM once one of them might have completed.
+     */
+    private final Map<Long, List<KeyedStateHandle>> replacedMaterializations = new HashMap<>();
+
+    /**
+     * The size of the changes that were not materialized yet, as uploaded by the last checkpoint.
+     * Updated by the changelog upload threads.
+     */
+    private volatile long lastNonMaterializedStateSize;
 
     /**
      * {@link SequenceNumber} denoting last upload range <b>start</b>, inclusive. Updated to {@link
-     * #materializedTo} when {@link #snapshot(long, long, CheckpointStreamFactory,
-     * CheckpointOptions) starting snapshot}. Used to notify {@link #stateChangelogWriter} about
-     * changelog ranges that were confirmed or aborted by JM.
+     * ChangelogSnapshotState#materializedTo} when {@link #snapshot(long, long,
+     * CheckpointStreamFactory, CheckpointOptions) starting snapshot}. Used to notify {@link
+     * #stateChangelogWriter} about changelog ranges that were confirmed or aborted by JM.
      */
     @Nullable private SequenceNumber lastUploadedFrom;
     /**
@@ -176,19 +217,15 @@ public class ChangelogKeyedStateBackend<K>
      * confirmed or aborted by JM.
      */
     @Nullable private SequenceNumber lastUploadedTo;
-    /**
-     * The {@link SequenceNumber} up to which the state is materialized, exclusive. The log should
-     * be truncated accordingly.
-     *
-     * <p>WARN: currently not updated - to be changed in FLINK-21357.
-     *
-     * <p>WARN: this value needs to be updated for benchmarking, e.g. in notifyCheckpointComplete.
-     */
-    private final SequenceNumber materializedTo;
 
-    private final MailboxExecutor mainMailboxExecutor;
+    /** Provides the streams to write the materialized state to. */
+    private final CheckpointStorageWorkerView checkpointStorageWorkerView;
 
-    private final ExecutorService asyncOperationsThreadPool;
+    /** See {@link CheckpointingOptions#PERIODIC_MATERIALIZATION_SIZE_THRESHOLD}. */
+    private final long materializationSizeThreshold;
+
+    /** Null if the periodic materialization is disabled. */
+    @Nullable private final PeriodicMaterializationManager periodicMaterializationManager;
 
     public ChangelogKeyedStateBackend(
             AbstractKeyedStateBackend<K> keyedStateBackend,
@@ -197,18 +234,33 @@ public class ChangelogKeyedStateBackend<K>
             StateChangelogWriter<ChangelogStateHandle> stateChangelogWriter,
             Collection<ChangelogStateBackendHandle> initialState,
             MailboxExecutor mainMailboxExecutor,
-            ExecutorService asyncOperationsThreadPool) {
+            ExecutorService asyncOperationsThreadPool,
+            CheckpointStorageWorkerView checkpointStorageWorkerView,
+            String subtaskName,
+            long periodicMaterializationIntervalMillis,
+            long materializationSizeThreshold) {
         this.keyedStateBackend = keyedStateBackend;
         this.executionConfig = executionConfig;
         this.ttlTimeProvider = ttlTimeProvider;
         this.keyValueStatesByName = new HashMap<>();
         this.priorityQueueStatesByName = new HashMap<>();
         this.stateChangelogWriter = stateChangelogWriter;
-        this.materializedTo = stateChangelogWriter.initialSequenceNumber();
         this.changelogStates = new HashMap<>();
-        this.mainMailboxExecutor = checkNotNull(mainMailboxExecutor);
-        this.asyncOperationsThreadPool = checkNotNull(asyncOperationsThreadPool);
+        this.checkpointStorageWorkerView = checkpointStorageWorkerView;
+        this.materializationSizeThreshold = materializationSizeThreshold;
         this.completeRestore(initialState);
+        if (periodicMaterializationIntervalMillis > 0) {
+            this.periodicMaterializationManager =
+                    new PeriodicMaterializationManager(
+                            this,
+                            mainMailboxExecutor,
+                            asyncOperationsThreadPool,
+                            subtaskName,
+                            periodicMaterializationIntervalMillis);
+            this.periodicMaterializationManager.start();
+        } else {
+            this.periodicMaterializationManager = null;
+        }
     }
 
     // -------------------- CheckpointableKeyedStateBackend --------------------------------
@@ -219,6 +271,9 @@ public class ChangelogKeyedStateBackend<K>
 
     @Override
     public void close() throws IOException {
+        if (periodicMaterializationManager != null) {
+            periodicMaterializationManager.close();
+        }
         keyedStateBackend.close();
     }
 
@@ -249,6 +304,11 @@ public class ChangelogKeyedStateBackend<K>
 
     @Override
     public void dispose() {
+        if (periodicMaterializationManager != null) {
+            periodicMaterializationManager.close();
+        }
+        // no further checkpoints will be based on the current materialization
+        releaseCurrentMaterialization();
         keyedStateBackend.dispose();
         lastName = null;
         lastState = null;
@@ -328,38 +388,41 @@ public class ChangelogKeyedStateBackend<K>
         // the previous results either here in the backend or in the writer. However,
         // materialization may truncate only a part of the previous result and the backend would
         // have to split it somehow for the former option, so the latter is used.
+        final ChangelogSnapshotState snapshotState = changelogSnapshotState;
         lastCheckpointId = checkpointId;
-        lastUploadedFrom = materializedTo;
+        lastUploadedFrom = snapshotState.materializedTo;
         lastUploadedTo = stateChangelogWriter.lastAppendedSequenceNumber().next();
+        materializationIdByCheckpointId.put(checkpointId, snapshotState.materializationId);
 
         LOG.debug(
-                "snapshot for checkpoint {}, change range: {}..{}",
+                "snapshot for checkpoint {}, change range: {}..{}, materialization: {}",
                 checkpointId,
                 lastUploadedFrom,
-                lastUploadedTo);
+                lastUploadedTo,
+                snapshotState.materializationId);
         return toRunnableFuture(
                 stateChangelogWriter
                         .persist(lastUploadedFrom)
-                        .thenApply(this::buildSnapshotResult));
+                        .thenApply(delta -> buildSnapshotResult(delta, snapshotState)));
     }
 
-    private SnapshotResult<KeyedStateHandle> buildSnapshotResult(ChangelogStateHandle delta) {
+    private SnapshotResult<KeyedStateHandle> buildSnapshotResult(
+            ChangelogStateHandle delta, ChangelogSnapshotState snapshotState) {
         // Can be called by either task thread during the sync checkpoint phase (if persist future
-        // was already completed); or by the writer thread otherwise. So need to synchronize.
-        // todo: revisit after FLINK-21357 - use mailbox action?
-        synchronized (materialized) {
-            // collections don't change once started and handles are immutable
-            List<ChangelogStateHandle> prevDeltaCopy = new ArrayList<>(restoredNonMaterialized);
-            if (delta != null && delta.getStateSize() > 0) {
-                prevDeltaCopy.add(delta);
-            }
-            if (prevDeltaCopy.isEmpty() && materialized.isEmpty()) {
-                return SnapshotResult.empty();
-            } else {
-                return SnapshotResult.of(
-                        new ChangelogStateBackendHandleImpl(
-                                materialized, prevDeltaCopy, getKeyGroupRange()));
-            }
+        // was already completed); or by the writer thread otherwise. The snapshot state is
+        // immutable, so it doesn't matter if it was replaced by a materialization in the meantime.
+        List<ChangelogStateHandle> prevDeltaCopy =
+                new ArrayList<>(snapshotState.restoredNonMaterialized);
+        if (delta != null && delta.getStateSize() > 0) {
+            prevDeltaCopy.add(delta);
+            lastNonMaterializedStateSize = delta.getStateSize();
+        }
+        if (prevDeltaCopy.isEmpty() && snapshotState.materialized.isEmpty()) {
+            return SnapshotResult.empty();
+        } else {
+            return SnapshotResult.of(
+                    new ChangelogStateBackendHandleImpl(
+                            snapshotState.materialized, prevDeltaCopy, getKeyGroupRange()));
         }
     }
 
@@ -418,7 +481,19 @@ public class ChangelogKeyedStateBackend<K>
             // This might change if the log ownership changes (the method won't likely be needed).
             stateChangelogWriter.confirm(lastUploadedFrom, lastUploadedTo);
         }
-        keyedStateBackend.notifyCheckpointComplete(checkpointId);
+        // The delegated backend only takes snapshots for materializations, so it is notified about
+        // the materialization that the checkpoint is based on (which allows e.g. the incremental
+        // snapshots of RocksDB to re-use its files), and never about the checkpoint itself.
+        Long materializationId = materializationIdByCheckpointId.get(checkpointId);
+        NavigableMap<Long, Long> subsumed =
+                materializationIdByCheckpointId.headMap(checkpointId, true);
+        // The earlier checkpoints might have completed without this backend being notified, so the
+        // JM might own their materializations as well.
+        subsumed.values().forEach(this::handOverMaterialization);
+        subsumed.clear();
+        if (materializationId != null && materializationId > 0) {
+            keyedStateBackend.notifyCheckpointComplete(materializationId);
+        }
     }
 
     @Override
@@ -430,7 +505,10 @@ public class ChangelogKeyedStateBackend<K>
             // This might change if the log ownership changes (the method won't likely be needed).
             stateChangelogWriter.reset(lastUploadedFrom, lastUploadedTo);
         }
-        keyedStateBackend.notifyCheckpointAborted(checkpointId);
+        // The materialization might still be used by later checkpoints, so the delegated backend
+        // is not notified.
+        materializationIdByCheckpointId.remove(checkpointId);
+        discardUnusedMaterializations();
     }
 
     // -------- Methods not simply delegating to wrapped state backend ---------
@@ -517,19 +595,169 @@ public class ChangelogKeyedStateBackend<K>
     }
 
     private void completeRestore(Collection<ChangelogStateBackendHandle> stateHandles) {
-        if (!stateHandles.isEmpty()) {
-            synchronized (materialized) { // ensure visibility
-                for (ChangelogStateBackendHandle h : stateHandles) {
-                    if (h != null) {
-                        materialized.addAll(h.getMaterializedStateHandles());
-                        restoredNonMaterialized.addAll(h.getNonMaterializedStateHandles());
-                    }
-                }
+        List<KeyedStateHandle> materialized = new ArrayList<>();
+        List<ChangelogStateHandle> restoredNonMaterialized = new ArrayList<>();
+        for (ChangelogStateBackendHandle h : stateHandles) {
+            if (h != null) {
+                materialized.addAll(h.getMaterializedStateHandles());
+                restoredNonMaterialized.addAll(h.getNonMaterializedStateHandles());
             }
         }
+        changelogSnapshotState =
+                new ChangelogSnapshotState(
+                        materialized,
+                        restoredNonMaterialized,
+                        stateChangelogWriter.initialSequenceNumber(),
+                        0L);
         changelogStates.clear();
     }
 
+    /**
+     * Takes the synchronous part of a snapshot of the delegated backend, so that the changes made
+     * so far don't need to be included into the following checkpoints anymore. Called by the task
+     * thread.
+     *
+     * @return the asynchronous part of the materialization, or empty if it is not needed because
+     *     there were too few changes since the last one
+     */
+    Optional<MaterializationRunnable> initMaterialization() throws Exception {
+        SequenceNumber upTo = stateChangelogWriter.nextSequenceNumber();
+        ChangelogSnapshotState snapshotState = changelogSnapshotState;
+        if (upTo.equals(snapshotState.materializedTo)) {
+            LOG.debug("Skipping materialization, there were no changes since {}.", upTo);
+            return Optional.empty();
+        }
+        long nonMaterializedStateSize = lastNonMaterializedStateSize;
+        if (nonMaterializedStateSize < materializationSizeThreshold) {
+            LOG.debug(
+                    "Skipping materialization, the non-materialized state size {} is below {}.",
+                    nonMaterializedStateSize,
+                    materializationSizeThreshold);
+            return Optional.empty();
+        }
+
+        long materializationId = ++lastMaterializationId;
+        LOG.debug("Starting materialization {} up to {}.", materializationId, upTo);
+        return Optional.of(
+                new MaterializationRunnable(
+                        keyedStateBackend.snapshot(
+                                materializationId,
+                                System.currentTimeMillis(),
+                                createMaterializationStreamFactory(materializationId),
+                                CheckpointOptions.forCheckpointWithDefaultLocation()),
+                        materializationId,
+                        upTo));
+    }
+
+    /**
+     * Unlike checkpoints, materializations don't have a location of their own. The exclusive part
+     * of a materialization is therefore owned by the task until a checkpoint refers to it, while
+     * the shared part (e.g. RocksDB SST files) goes where the shared state of checkpoints goes.
+     */
+    private CheckpointStreamFactory createMaterializationStreamFactory(long materializationId)
+            throws IOException {
+        CheckpointStreamFactory sharedStateStreamFactory =
+                checkpointStorageWorkerView.resolveCheckpointStorageLocation(
+                        materializationId, CheckpointStorageLocationReference.getDefault());
+        return scope ->
+                scope == CheckpointedStateScope.EXCLUSIVE
+                        ? checkpointStorageWorkerView.createTaskOwnedStateStream()
+                        : sharedStateStreamFactory.createCheckpointStateOutputStream(scope);
+    }
+
+    /**
+     * Bases the following checkpoints on the given materialization and truncates the changelog
+     * accordingly. Called by the task thread once the materialization is uploaded.
+     */
+    void updateChangelogSnapshotState(
+            SnapshotResult<KeyedStateHandle> materializedSnapshot,
+            long materializationId,
+            SequenceNumber upTo) {
+        KeyedStateHandle materialized = materializedSnapshot.getJobManagerOwnedSnapshot();
+        releaseCurrentMaterialization();
+        changelogSnapshotState =
+                new ChangelogSnapshotState(
+                        materialized == null ? emptyList() : singletonList(materialized),
+                        emptyList(),
+                        upTo,
+                        materializationId);
+        lastNonMaterializedStateSize = 0L;
+        stateChangelogWriter.truncate(upTo);
+        // the changelog doesn't support local recovery
+        discardLocalSnapshot(materializedSnapshot);
+        LOG.info(
+                "Completed materialization {} up to {}, state size: {}.",
+                materializationId,
+                upTo,
+                materialized == null ? 0L : materialized.getStateSize());
+    }
+
+    /**
+     * Hands the state of the given materialization over to the JM, because a checkpoint that is
+     * based on it might have completed, which registers it in the shared state registry.
+     */
+    private void handOverMaterialization(long materializationId) {
+        if (materializationId == changelogSnapshotState.materializationId) {
+            currentMaterializationMaybeCompleted = true;
+        } else {
+            replacedMaterializations.remove(materializationId);
+        }
+    }
+
+    /**
+     * Keeps track of the current materialization before it is replaced, if its state is still
+     * owned by this backend. Restored materialized state (with the ID 0) is always owned by the JM.
+     */
+    private void releaseCurrentMaterialization() {
+        ChangelogSnapshotState current = changelogSnapshotState;
+        if (current.materializationId > 0 && !currentMaterializationMaybeCompleted) {
+            replacedMaterializations.put(current.materializationId, current.materialized);
+        }
+        currentMaterializationMaybeCompleted = false;
+        discardUnusedMaterializations();
+    }
+
+    /**
+     * Discards the replaced materializations that no pending checkpoint is based on: they were
+     * either never sent to the JM, or only with checkpoints that were aborted.
+     */
+    private void discardUnusedMaterializations() {
+        Iterator<Map.Entry<Long, List<KeyedStateHandle>>> iterator =
+                replacedMaterializations.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, List<KeyedStateHandle>> materialization = iterator.next();
+            if (!materializationIdByCheckpointId.containsValue(materialization.getKey())) {
+                iterator.remove();
+                LOG.debug("Discarding unused materialization {}.", materialization.getKey());
+                try {
+                    StateUtil.bestEffortDiscardAllStateObjects(materialization.getValue());
+                } catch (Exception e) {
+                    LOG.warn(
+                            "Could not discard the state of materialization {}.",
+                            materialization.getKey(),
+                            e);
+                }
+            }
+        }
+    }
+
+    private static void discardLocalSnapshot(SnapshotResult<KeyedStateHandle> snapshot) {
+        KeyedStateHandle localSnapshot = snapshot.getTaskLocalSnapshot();
+        if (localSnapshot != null) {
+            try {
+                localSnapshot.discardState();
+            } catch (Exception e) {
+                LOG.warn("Could not discard the local copy of the materialized state.", e);
+            }
+        }
+    }
+
+    @VisibleForTesting
+    @Nullable
+    PeriodicMaterializationManager getPeriodicMaterializationManager() {
+        return periodicMaterializationManager;
+    }
+
     @Override
     public KeyedStateBackend<K> getDelegatedKeyedStateBackend(boolean recursive) {
         return keyedStateBackend.getDelegatedKeyedStateBackend(recursive);
@@ -576,6 +804,39 @@ public class ChangelogKeyedStateBackend<K>
         return state;
     }
 
+    /**
+     * The state that checkpoints are based on: materialized state, changes that were restored but
+     * not materialized yet, and the changes made after the last materialization.
+     */
+    private static final class ChangelogSnapshotState {
+
+        /** Materialized state: the delegated backend's snapshot; or restored materialized state. */
+        private final List<KeyedStateHandle> materialized;
+
+        /** Restored changes; no such changes remain after the first materialization. */
+        private final List<ChangelogStateHandle> restoredNonMaterialized;
+
+        /**
+         * The {@link SequenceNumber} up to which the state is materialized, exclusive. The changes
+         * from this number on are included into checkpoints.
+         */
+        private final SequenceNumber materializedTo;
+
+        /** The ID of the materialization, 0 if it was restored. */
+        private final long materializationId;
+
+        private ChangelogSnapshotState(
+                List<KeyedStateHandle> materialized,
+                List<ChangelogStateHandle> restoredNonMaterialized,
+                SequenceNumber materializedTo,
+                long materializationId) {
+            this.materialized = unmodifiableList(materialized);
+            this.restoredNonMaterialized = unmodifiableList(restoredNonMaterialized);
+            this.materializedTo = materializedTo;
+            this.materializationId = materializationId;
+        }
+    }
+
     private static <T> RunnableFuture<T> toRunnableFuture(CompletableFuture<T> f) {
         return new RunnableFuture<T>() {
             @Override
@@ -21,6 +21,8 @@ package org.apache.flink.state.changelog;
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.api.common.JobID;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.configuration.CheckpointingOptions;
+import org.apache.flink.configuration.Configuration;
 import org.apache.flink.configuration.IllegalConfigurationException;
 import org.apache.flink.configuration.ReadableConfig;
 import org.apache.flink.core.fs.CloseableRegistry;
@@ -210,6 +212,12 @@ public class ChangelogStateBackend implements DelegatingStateBackend, Configurab
                         env.getTaskStateManager().getStateChangelogStorage(),
                         "Changelog storage is null when creating and restoring"
                                 + " the ChangelogKeyedStateBackend.");
+        Configuration config = env.getTaskManagerInfo().getConfiguration();
+        long periodicMaterializationIntervalMillis =
+                config.get(CheckpointingOptions.PERIODIC_MATERIALIZATION_INTERVAL).toMillis();
+        long materializationSizeThreshold =
+                config.get(CheckpointingOptions.PERIODIC_MATERIALIZATION_SIZE_THRESHOLD)
+                        .getBytes();
         return ChangelogBackendRestoreOperation.restore(
                 changelogStorage.createReader(),
                 env.getUserCodeClassLoader().asClassLoader(),
@@ -223,7 +231,11 @@ public class ChangelogStateBackend implements DelegatingStateBackend, Configurab
                                 changelogStorage.createWriter(operatorIdentifier, keyGroupRange),
                                 baseState,
                                 env.getMainMailboxExecutor(),
-                                env.getAsyncOperationsThreadPool()));
+                                env.getAsyncOperationsThreadPool(),
+                                env.getCheckpointStorageAccess(),
+                                env.getTaskInfo().getTaskNameWithSubtasks(),
+                                periodicMaterializationIntervalMillis,
+                                materializationSizeThreshold));
     }
 
     private Collection<ChangelogStateBackendHandle> castHandles(
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.state.changelog;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.operators.MailboxExecutor;
+import org.apache.flink.runtime.state.KeyedStateHandle;
+import org.apache.flink.runtime.state.SnapshotResult;
+import org.apache.flink.runtime.state.changelog.SequenceNumber;
+import org.apache.flink.util.concurrent.ExecutorThreadFactory;
+import org.apache.flink.util.concurrent.FutureUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Periodically materializes the state of a {@link ChangelogKeyedStateBackend}. Like a checkpoint,
+ * a materialization takes the synchronous part of a snapshot of the delegated backend in the task
+ * thread and runs the asynchronous part in the async operations thread pool. The result is handed
+ * back to the task thread, where the backend switches the following checkpoints over to it and
+ * truncates the changelog.
+ *
+ * <p>The next materialization is only scheduled once the previous one is done, so at most one runs
+ * at a time. A failed materialization is logged and retried after the next interval: the changelog
+ * keeps all changes since the last materialization until then, so no state is lost.
+ */
+class PeriodicMaterializationManager implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PeriodicMaterializationManager.class);
+
+    private final ChangelogKeyedStateBackend<?> keyedStateBackend;
+
+    private final MailboxExecutor mailboxExecutor;
+
+    private final ExecutorService asyncOperationsThreadPool;
+
+    private final String subtaskName;
+
+    private final long periodicMaterializationIntervalMillis;
+
+    /** Triggers the materializations; the actual work is done by the task and the async pool. */
+    private final ScheduledExecutorService periodicExecutor;
+
+    PeriodicMaterializationManager(
+            ChangelogKeyedStateBackend<?> keyedStateBackend,
+            MailboxExecutor mailboxExecutor,
+            ExecutorService asyncOperationsThreadPool,
+            String subtaskName,
+            long periodicMaterializationIntervalMillis) {
+        checkArgument(
+                periodicMaterializationIntervalMillis > 0,
+                "The periodic materialization interval must be positive.");
+        this.keyedStateBackend = checkNotNull(keyedStateBackend);
+        this.mailboxExecutor = checkNotNull(mailboxExecutor);
+        this.asyncOperationsThreadPool = checkNotNull(asyncOperationsThreadPool);
+        this.subtaskName = checkNotNull(subtaskName);
+        this.periodicMaterializationIntervalMillis = periodicMaterializationIntervalMillis;
+        this.periodicExecutor =
+                Executors.newSingleThreadScheduledExecutor(
+                        new ExecutorThreadFactory("periodic-materialization"));
+    }
+
+    void start() {
+        LOG.info(
+                "Materializing the state of {} every {} ms.",
+                subtaskName,
+                periodicMaterializationIntervalMillis);
+        scheduleNextMaterialization();
+    }
+
+    @Override
+    public void close() {
+        periodicExecutor.shutdownNow();
+    }
+
+    /** Triggers a materialization now, independently of the interval. */
+    @VisibleForTesting
+    void triggerMaterialization() {
+        try {
+            mailboxExecutor.execute(
+                    this::initMaterialization, "materialize the state of %s", subtaskName);
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Not materializing the state of {}, the task is closing.", subtaskName);
+        }
+    }
+
+    /** Runs in the task thread. */
+    private void initMaterialization() {
+        final Optional<MaterializationRunnable> materialization;
+        try {
+            materialization = keyedStateBackend.initMaterialization();
+        } catch (Exception e) {
+            LOG.warn("Could not start materializing the state of {}.", subtaskName, e);
+            scheduleNextMaterialization();
+            return;
+        }
+
+        if (!materialization.isPresent()) {
+            scheduleNextMaterialization();
+            return;
+        }
+
+        try {
+            asyncOperationsThreadPool.execute(() -> asyncMaterialization(materialization.get()));
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Not materializing the state of {}, the task is closing.", subtaskName);
+            materialization.get().getMaterializationFuture().cancel(true);
+        }
+    }
+
+    /** Runs in the async operations thread pool. */
+    private void asyncMaterialization(MaterializationRunnable materialization) {
+        final SnapshotResult<KeyedStateHandle> result;
+        try {
+            result = FutureUtils.runIfNotDoneAndGet(materialization.getMaterializationFuture());
+        } catch (Exception e) {
+            LOG.warn(
+                    "Materialization {} of {} failed, retrying in {} ms.",
+                    materialization.getMaterializationId(),
+                    subtaskName,
+                    periodicMaterializationIntervalMillis,
+                    e);
+            scheduleNextMaterialization();
+            return;
+        }
+
+        try {
+            mailboxExecutor.execute(
+                    () -> {
+                        keyedStateBackend.updateChangelogSnapshotState(
+                                result,
+                                materialization.getMaterializationId(),
+                                materialization.getMaterializedTo());
+                        scheduleNextMaterialization();
+                    },
+                    "complete materialization %d of %s",
+                    materialization.getMaterializationId(),
+                    subtaskName);
+        } catch (RejectedExecutionException e) {
+            LOG.debug(
+                    "Discarding materialization {} of {}, the task is closing.",
+                    materialization.getMaterializationId(),
+                    subtaskName);
+            discard(result);
+        }
+    }
+
+    private void scheduleNextMaterialization() {
+        try {
+            periodicExecutor.schedule(
+                    this::triggerMaterialization,
+                    periodicMaterializationIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Not scheduling materializations of {}, it was closed.", subtaskName);
+        }
+    }
+
+    private void discard(SnapshotResult<KeyedStateHandle> result) {
+        try {
+            result.discardState();
+        } catch (Exception e) {
+            LOG.warn("Could not discard the materialized state of {}.", subtaskName, e);
+        }
+    }
+
+    /** The asynchronous part of a materialization, as returned by the backend. */
+    static final class MaterializationRunnable {
+
+        private final RunnableFuture<SnapshotResult<KeyedStateHandle>> materializationFuture;
+
+        private final long materializationId;
+
+        /** The changes up to this {@link SequenceNumber}, exclusive, are materialized. */
+        private final SequenceNumber materializedTo;
+
+        MaterializationRunnable(
+                RunnableFuture<SnapshotResult<KeyedStateHandle>> materializationFuture,
+                long materializationId,
+                SequenceNumber materializedTo) {
+            this.materializationFuture = checkNotNull(materializationFuture);
+            this.materializationId = materializationId;
+            this.materializedTo = checkNotNull(materializedTo);
+        }
+
+        RunnableFuture<SnapshotResult<KeyedStateHandle>> getMaterializationFuture() {
+            return materializationFuture;
+        }
+
+        long getMaterializationId() {
+            return materializationId;
+        }
+
+        SequenceNumber getMaterializedTo() {
+            return materializedTo;
+        }
+    }
+}
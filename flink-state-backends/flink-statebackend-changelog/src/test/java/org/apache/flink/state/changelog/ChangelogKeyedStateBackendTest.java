@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.state.changelog;
+
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.checkpoint.CheckpointOptions;
+import org.apache.flink.runtime.operators.testutils.MockEnvironment;
+import org.apache.flink.runtime.state.CheckpointStorageAccess;
+import org.apache.flink.runtime.state.KeyGroupsStateHandle;
+import org.apache.flink.runtime.state.VoidNamespace;
+import org.apache.flink.runtime.state.VoidNamespaceSerializer;
+import org.apache.flink.runtime.state.changelog.ChangelogStateBackendHandle;
+import org.apache.flink.runtime.state.filesystem.FileStateHandle;
+import org.apache.flink.runtime.state.hashmap.HashMapStateBackend;
+import org.apache.flink.runtime.state.memory.MemCheckpointStreamFactory;
+import org.apache.flink.runtime.state.storage.FileSystemCheckpointStorage;
+import org.apache.flink.util.IOUtils;
+import org.apache.flink.util.TestLogger;
+import org.apache.flink.util.concurrent.FutureUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.apache.flink.shaded.guava30.com.google.common.collect.Iterables.getOnlyElement;
+import static org.apache.flink.state.changelog.ChangelogStateBackendTestUtils.createKeyedBackend;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/** Tests for the materialization of {@link ChangelogKeyedStateBackend}. */
+public class ChangelogKeyedStateBackendTest extends TestLogger {
+
+    @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MockEnvironment env;
+
+    private ChangelogKeyedStateBackend<Integer> backend;
+
+    private ValueState<String> state;
+
+    @Before
+    public void before() throws Exception {
+        // the mailbox and the async operations of the mock environment run synchronously
+        env = MockEnvironment.builder().build();
+        // the materialized state is always written to files, so that discarding it is visible
+        CheckpointStorageAccess checkpointStorageAccess =
+                new FileSystemCheckpointStorage(
+                                Path.fromLocalFile(temporaryFolder.newFolder()), 0, -1)
+                        .createCheckpointStorage(env.getJobID());
+        checkpointStorageAccess.initializeBaseLocations();
+        env.setCheckpointStorageAccess(checkpointStorageAccess);
+        backend =
+                (ChangelogKeyedStateBackend<Integer>)
+                        createKeyedBackend(
+                                new ChangelogStateBackend(new HashMapStateBackend()), env);
+        state =
+                backend.getPartitionedState(
+                        VoidNamespace.INSTANCE,
+                        VoidNamespaceSerializer.INSTANCE,
+                        new ValueStateDescriptor<>("id", String.class));
+    }
+
+    @After
+    public void after() {
+        if (backend != null) {
+            backend.dispose();
+        }
+        IOUtils.closeQuietly(env);
+    }
+
+    @Test
+    public void testCheckpointsRefersToMaterializedState() throws Exception {
+        update(1, "a");
+        ChangelogStateBackendHandle beforeMaterialization = snapshot(1L);
+        assertTrue(beforeMaterialization.getMaterializedStateHandles().isEmpty());
+        assertEquals(1, beforeMaterialization.getNonMaterializedStateHandles().size());
+
+        materialize();
+
+        ChangelogStateBackendHandle afterMaterialization = snapshot(2L);
+        assertEquals(1, afterMaterialization.getMaterializedStateHandles().size());
+        assertTrue(afterMaterialization.getNonMaterializedStateHandles().isEmpty());
+
+        update(2, "b");
+        ChangelogStateBackendHandle withChanges = snapshot(3L);
+        assertEquals(
+                afterMaterialization.getMaterializedStateHandles(),
+                withChanges.getMaterializedStateHandles());
+        assertEquals(1, withChanges.getNonMaterializedStateHandles().size());
+    }
+
+    @Test
+    public void testMaterializationIsSkippedWithoutChanges() throws Exception {
+        update(1, "a");
+        materialize();
+        ChangelogStateBackendHandle materialized = snapshot(1L);
+
+        materialize();
+
+        assertEquals(
+                materialized.getMaterializedStateHandles(),
+                snapshot(2L).getMaterializedStateHandles());
+    }
+
+    @Test
+    public void testMaterializationOfAbortedCheckpointsIsDiscarded() throws Exception {
+        update(1, "a");
+        materialize();
+        File replaced = getMaterializedFile(snapshot(1L));
+        update(2, "b");
+        materialize();
+
+        // checkpoint 1 might still complete
+        assertTrue(replaced.exists());
+
+        backend.notifyCheckpointAborted(1L);
+        assertFalse(replaced.exists());
+    }
+
+    @Test
+    public void testMaterializationOfCompletedCheckpointIsKept() throws Exception {
+        update(1, "a");
+        materialize();
+        File replaced = getMaterializedFile(snapshot(1L));
+        snapshot(2L);
+        backend.notifyCheckpointComplete(1L);
+        update(2, "b");
+        materialize();
+
+        // the state is owned by the shared state registry of the JM after checkpoint 1 completed
+        backend.notifyCheckpointAborted(2L);
+        backend.dispose();
+        backend = null;
+        assertTrue(replaced.exists());
+    }
+
+    @Test
+    public void testUnusedMaterializationIsDiscardedOnDispose() throws Exception {
+        update(1, "a");
+        materialize();
+        File materialized = getMaterializedFile(snapshot(1L));
+        backend.notifyCheckpointAborted(1L);
+
+        // the following checkpoints would still be based on the materialization
+        assertTrue(materialized.exists());
+
+        backend.dispose();
+        backend = null;
+        assertFalse(materialized.exists());
+    }
+
+    private void update(int key, String value) throws Exception {
+        backend.setCurrentKey(key);
+        state.update(value);
+    }
+
+    private void materialize() {
+        PeriodicMaterializationManager materializationManager =
+                backend.getPeriodicMaterializationManager();
+        assertNotNull(materializationManager);
+        materializationManager.triggerMaterialization();
+    }
+
+    private ChangelogStateBackendHandle snapshot(long checkpointId) throws Exception {
+        return (ChangelogStateBackendHandle)
+                FutureUtils.runIfNotDoneAndGet(
+                                backend.snapshot(
+                                        checkpointId,
+                                        0L,
+                                        new MemCheckpointStreamFactory(1024 * 1024),
+                                        CheckpointOptions.forCheckpointWithDefaultLocation()))
+                        .getJobManagerOwnedSnapshot();
+    }
+
+    private static File getMaterializedFile(ChangelogStateBackendHandle handle) {
+        KeyGroupsStateHandle materialized =
+                (KeyGroupsStateHandle) getOnlyElement(handle.getMaterializedStateHandles());
+        return new File(
+                ((FileStateHandle) materialized.getDelegateStateHandle()).getFilePath().getPath());
+    }
+}
@@ -117,6 +117,11 @@ abstract class StateChangeLoggerTestBase<Namespace> {
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        public SequenceNumber nextSequenceNumber() {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public CompletableFuture<?> persist(SequenceNumber from) throws IOException {
             throw new UnsupportedOperationException();
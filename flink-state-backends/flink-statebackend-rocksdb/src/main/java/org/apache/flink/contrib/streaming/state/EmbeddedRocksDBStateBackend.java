@@ -74,6 +74,7 @@ import java.util.UUID;
 
 import static org.apache.flink.configuration.description.TextElement.text;
 import static org.apache.flink.contrib.streaming.state.RocksDBConfigurableOptions.WRITE_BATCH_SIZE;
+import static org.apache.flink.contrib.streaming.state.RocksDBOptions.CHECKPOINT_FILE_MERGING_MAX_FILE_SIZE;
 import static org.apache.flink.contrib.streaming.state.RocksDBOptions.CHECKPOINT_TRANSFER_THREAD_NUM;
 import static org.apache.flink.contrib.streaming.state.RocksDBOptions.TIMER_SERVICE_FACTORY;
 import static org.apache.flink.util.Preconditions.checkArgument;
@@ -108,6 +109,8 @@ public class EmbeddedRocksDBStateBackend extends AbstractManagedMemoryStateBacke
 
     private static final long UNDEFINED_WRITE_BATCH_SIZE = -1;
 
+    private static final long UNDEFINED_CHECKPOINT_FILE_MERGING_MAX_FILE_SIZE = -1;
+
     // ------------------------------------------------------------------------
 
     // -- configuration values, set in the application / configuration
@@ -160,6 +163,12 @@ public class EmbeddedRocksDBStateBackend extends AbstractManagedMemoryStateBacke
      */
     private long writeBatchSize;
 
+    /**
+     * Maximum size of the files that the files of incremental checkpoints are merged into, 0
+     * disables merging.
+     */
+    private long checkpointFileMergingMaxFileSize;
+
     // ------------------------------------------------------------------------
 
     /** Creates a new {@code EmbeddedRocksDBStateBackend} for storing local state. */
@@ -187,6 +196,7 @@ public class EmbeddedRocksDBStateBackend extends AbstractManagedMemoryStateBacke
         this.defaultMetricOptions = new RocksDBNativeMetricOptions();
         this.memoryConfiguration = new RocksDBMemoryConfiguration();
         this.writeBatchSize = UNDEFINED_WRITE_BATCH_SIZE;
+        this.checkpointFileMergingMaxFileSize = UNDEFINED_CHECKPOINT_FILE_MERGING_MAX_FILE_SIZE;
     }
 
     /**
@@ -215,6 +225,14 @@ public class EmbeddedRocksDBStateBackend extends AbstractManagedMemoryStateBacke
             this.writeBatchSize = original.writeBatchSize;
         }
 
+        if (original.checkpointFileMergingMaxFileSize
+                == UNDEFINED_CHECKPOINT_FILE_MERGING_MAX_FILE_SIZE) {
+            this.checkpointFileMergingMaxFileSize =
+                    config.get(CHECKPOINT_FILE_MERGING_MAX_FILE_SIZE).getBytes();
+        } else {
+            this.checkpointFileMergingMaxFileSize = original.checkpointFileMergingMaxFileSize;
+        }
+
         this.memoryConfiguration =
                 RocksDBMemoryConfiguration.fromOtherAndConfiguration(
                         original.memoryConfiguration, config);
@@ -458,7 +476,9 @@ public class EmbeddedRocksDBStateBackend extends AbstractManagedMemoryStateBacke
                         .setNumberOfTransferingThreads(getNumberOfTransferThreads())
                         .setNativeMetricOptions(
                                 resourceContainer.getMemoryWatcherOptions(defaultMetricOptions))
-                        .setWriteBatchSize(getWriteBatchSize());
+                        .setWriteBatchSize(getWriteBatchSize())
+                        .setCheckpointFileMergingMaxFileSize(
+                                getCheckpointFileMergingMaxFileSize());
         return builder.build();
     }
 
@@ -778,6 +798,27 @@ public class EmbeddedRocksDBStateBackend extends AbstractManagedMemoryStateBacke
         this.writeBatchSize = writeBatchSize;
     }
 
+    /**
+     * Gets the maximum size of the files that the files of incremental checkpoints are merged
+     * into, 0 if merging is disabled.
+     */
+    public long getCheckpointFileMergingMaxFileSize() {
+        return checkpointFileMergingMaxFileSize == UNDEFINED_CHECKPOINT_FILE_MERGING_MAX_FILE_SIZE
+                ? CHECKPOINT_FILE_MERGING_MAX_FILE_SIZE.defaultValue().getBytes()
+                : checkpointFileMergingMaxFileSize;
+    }
+
+    /**
+     * Sets the maximum size of the files that the files of incremental checkpoints are merged
+     * into. Merging only applies to file system checkpoint storages, 0 disables merging.
+     *
+     * @param maxFileSize The maximum size of the merged files in bytes.
+     */
+    public void setCheckpointFileMergingMaxFileSize(long maxFileSize) {
+        checkArgument(maxFileSize >= 0, "The maximum file size must not be negative.");
+        this.checkpointFileMergingMaxFileSize = maxFileSize;
+    }
+
     // ------------------------------------------------------------------------
     //  utilities
     // ------------------------------------------------------------------------
@@ -808,6 +849,8 @@ public class EmbeddedRocksDBStateBackend extends AbstractManagedMemoryStateBacke
                 + numberOfTransferThreads
                 + ", writeBatchSize="
                 + writeBatchSize
+                + ", checkpointFileMergingMaxFileSize="
+                + checkpointFileMergingMaxFileSize
                 + '}';
     }
 
@@ -117,6 +117,8 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
     private int numberOfTransferingThreads;
     private long writeBatchSize =
             RocksDBConfigurableOptions.WRITE_BATCH_SIZE.defaultValue().getBytes();
+    private long checkpointFileMergingMaxFileSize =
+            RocksDBOptions.CHECKPOINT_FILE_MERGING_MAX_FILE_SIZE.defaultValue().getBytes();
 
     private RocksDB injectedTestDB; // for testing
     private ColumnFamilyHandle injectedDefaultColumnFamilyHandle; // for testing
@@ -242,6 +244,12 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
         return this;
     }
 
+    RocksDBKeyedStateBackendBuilder<K> setCheckpointFileMergingMaxFileSize(long maxFileSize) {
+        checkArgument(maxFileSize >= 0, "The maximum file size should be non negative.");
+        this.checkpointFileMergingMaxFileSize = maxFileSize;
+        return this;
+    }
+
     RocksDBKeyedStateBackendBuilder<K> setRocksDBStateUploader(
             RocksDBStateUploader rocksDBStateUploader) {
         Preconditions.checkState(
@@ -304,14 +312,20 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
                                 : null;
             } else {
                 prepareDirectories();
-                restoreOperation =
-                        getRocksDBRestoreOperation(
-                                keyGroupPrefixBytes,
-                                cancelStreamRegistry,
-                                kvStateInformation,
-                                registeredPQStates,
-                                ttlCompactFiltersManager);
-                RocksDBRestoreResult restoreResult = restoreOperation.restore();
+                final RocksDBRestoreResult restoreResult;
+                // the transfer threads are shared by all downloads and exports of the restore
+                try (RocksDBStateDownloader stateDownloader =
+                        new RocksDBStateDownloader(numberOfTransferingThreads)) {
+                    restoreOperation =
+                            getRocksDBRestoreOperation(
+                                    keyGroupPrefixBytes,
+                                    cancelStreamRegistry,
+                                    kvStateInformation,
+                                    registeredPQStates,
+                                    ttlCompactFiltersManager,
+                                    stateDownloader);
+                    restoreResult = restoreOperation.restore();
+                }
                 db = restoreResult.getDb();
                 defaultColumnFamilyHandle = restoreResult.getDefaultColumnFamilyHandle();
                 nativeMetricMonitor = restoreResult.getNativeMetricMonitor();
@@ -430,7 +444,8 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
             CloseableRegistry cancelStreamRegistry,
             LinkedHashMap<String, RocksDBKeyedStateBackend.RocksDbKvStateInfo> kvStateInformation,
             LinkedHashMap<String, HeapPriorityQueueSnapshotRestoreWrapper<?>> registeredPQStates,
-            RocksDbTtlCompactFiltersManager ttlCompactFiltersManager) {
+            RocksDbTtlCompactFiltersManager ttlCompactFiltersManager,
+            RocksDBStateDownloader stateDownloader) {
         DBOptions dbOptions = optionsContainer.getDbOptions();
         if (restoreStateHandles.isEmpty()) {
             return new RocksDBNoneRestoreOperation<>(
@@ -449,7 +464,7 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
                     operatorIdentifier,
                     keyGroupRange,
                     keyGroupPrefixBytes,
-                    numberOfTransferingThreads,
+                    stateDownloader,
                     cancelStreamRegistry,
                     userCodeClassLoader,
                     kvStateInformation,
@@ -462,7 +477,6 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
                     metricGroup,
                     restoreStateHandles,
                     ttlCompactFiltersManager,
-                    writeBatchSize,
                     optionsContainer.getWriteBufferManagerCapacity());
         } else if (priorityQueueStateType
                 == EmbeddedRocksDBStateBackend.PriorityQueueStateType.HEAP) {
@@ -531,7 +545,8 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
                             backendUID,
                             materializedSstFiles,
                             stateUploader,
-                            lastCompletedCheckpointId);
+                            lastCompletedCheckpointId,
+                            checkpointFileMergingMaxFileSize);
         } else {
             checkpointSnapshotStrategy =
                     new RocksFullSnapshotStrategy<>(
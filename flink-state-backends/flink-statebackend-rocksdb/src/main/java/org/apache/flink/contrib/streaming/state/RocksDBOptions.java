@@ -63,6 +63,19 @@ public class RocksDBOptions {
                     .withDescription(
                             "The number of threads (per stateful operator) used to transfer (download and upload) files in RocksDBStateBackend.");
 
+    /** The maximum size of the files that the files of incremental checkpoints are merged into. */
+    @Documentation.Section(Documentation.Sections.EXPERT_ROCKSDB)
+    public static final ConfigOption<MemorySize> CHECKPOINT_FILE_MERGING_MAX_FILE_SIZE =
+            ConfigOptions.key("state.backend.rocksdb.checkpoint.file-merging.max-file-size")
+                    .memoryType()
+                    .defaultValue(MemorySize.ZERO)
+                    .withDescription(
+                            "If set to a positive size, the files that an incremental checkpoint "
+                                    + "uploads to a file system checkpoint storage are packed into "
+                                    + "shared files of roughly this size, instead of writing one file "
+                                    + "per RocksDB file. This reduces the number of files on the "
+                                    + "checkpoint file system. The value 0 disables merging.");
+
     /** The predefined settings for RocksDB DBOptions and ColumnFamilyOptions by Flink community. */
     @Documentation.Section(Documentation.Sections.EXPERT_ROCKSDB)
     public static final ConfigOption<String> PREDEFINED_OPTIONS =
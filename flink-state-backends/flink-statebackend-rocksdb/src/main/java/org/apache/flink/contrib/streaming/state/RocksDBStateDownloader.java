@@ -22,6 +22,7 @@ import org.apache.flink.core.fs.FSDataInputStream;
 import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
 import org.apache.flink.runtime.state.StateHandleID;
 import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.filesystem.MultiPartStreamStateHandle;
 import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.FlinkRuntimeException;
 import org.apache.flink.util.concurrent.FutureUtils;
@@ -29,13 +30,18 @@ import org.apache.flink.util.function.ThrowingRunnable;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 
 /** Help class for downloading RocksDB state files. */
 public class RocksDBStateDownloader extends RocksDBStateDataTransfer {
@@ -56,27 +62,54 @@ public class RocksDBStateDownloader extends RocksDBStateDataTransfer {
             CloseableRegistry closeableRegistry)
             throws Exception {
 
-        final Map<StateHandleID, StreamStateHandle> sstFiles = restoreStateHandle.getSharedState();
-        final Map<StateHandleID, StreamStateHandle> miscFiles =
-                restoreStateHandle.getPrivateState();
-
-        downloadDataForAllStateHandles(sstFiles, dest, closeableRegistry);
-        downloadDataForAllStateHandles(miscFiles, dest, closeableRegistry);
+        transferAllStateDataToDirectories(
+                Collections.singletonMap(dest, restoreStateHandle), closeableRegistry);
     }
 
     /**
-     * Copies all the files from the given stream state handles to the given path, renaming the
-     * files w.r.t. their {@link StateHandleID}.
+     * Transfer the state data of several state handles, each to its own target directory. The
+     * files of all state handles share the transfer threads.
+     *
+     * @param restoreStateHandles The handles used to retrieve the state data, by the target
+     *     directory which their state data will be stored in.
+     * @throws Exception Thrown if can not transfer all the state data.
      */
-    private void downloadDataForAllStateHandles(
-            Map<StateHandleID, StreamStateHandle> stateHandleMap,
-            Path restoreInstancePath,
+    public void transferAllStateDataToDirectories(
+            Map<Path, IncrementalRemoteKeyedStateHandle> restoreStateHandles,
             CloseableRegistry closeableRegistry)
             throws Exception {
 
+        final List<Runnable> runnables = new ArrayList<>();
+        for (Map.Entry<Path, IncrementalRemoteKeyedStateHandle> entry :
+                restoreStateHandles.entrySet()) {
+            final Path dest = entry.getKey();
+            final IncrementalRemoteKeyedStateHandle restoreStateHandle = entry.getValue();
+            runnables.addAll(
+                    createDownloadRunnables(
+                            restoreStateHandle.getSharedState(), dest, closeableRegistry));
+            runnables.addAll(
+                    createDownloadRunnables(
+                            restoreStateHandle.getPrivateState(), dest, closeableRegistry));
+        }
+
+        downloadDataForAllStateHandles(runnables);
+    }
+
+    /**
+     * Returns the executor of the transfer threads. Work that is submitted to it must not wait for
+     * transfers, which could be queued behind it.
+     */
+    public Executor getExecutor() {
+        return executorService;
+    }
+
+    /**
+     * Runs the given runnables, which copy the files from stream state handles to the restore
+     * directories, renaming the files w.r.t. their {@link StateHandleID}.
+     */
+    private void downloadDataForAllStateHandles(List<Runnable> runnables) throws Exception {
+
         try {
-            List<Runnable> runnables =
-                    createDownloadRunnables(stateHandleMap, restoreInstancePath, closeableRegistry);
             List<CompletableFuture<Void>> futures = new ArrayList<>(runnables.size());
             for (Runnable runnable : runnables) {
                 futures.add(CompletableFuture.runAsync(runnable, executorService));
@@ -96,7 +129,8 @@ public class RocksDBStateDownloader extends RocksDBStateDataTransfer {
     private List<Runnable> createDownloadRunnables(
             Map<StateHandleID, StreamStateHandle> stateHandleMap,
             Path restoreInstancePath,
-            CloseableRegistry closeableRegistry) {
+            CloseableRegistry closeableRegistry)
+            throws IOException {
         List<Runnable> runnables = new ArrayList<>(stateHandleMap.size());
         for (Map.Entry<StateHandleID, StreamStateHandle> entry : stateHandleMap.entrySet()) {
             StateHandleID stateHandleID = entry.getKey();
@@ -104,6 +138,25 @@ public class RocksDBStateDownloader extends RocksDBStateDataTransfer {
 
             Path path = restoreInstancePath.resolve(stateHandleID.toString());
 
+            if (remoteFileHandle instanceof MultiPartStreamStateHandle) {
+                // the parts are downloaded concurrently, each into its range of the file
+                Files.createDirectories(path.getParent());
+                Files.newOutputStream(path).close();
+
+                long offset = 0L;
+                for (StreamStateHandle part :
+                        ((MultiPartStreamStateHandle) remoteFileHandle).getParts()) {
+                    final long partOffset = offset;
+                    runnables.add(
+                            ThrowingRunnable.unchecked(
+                                    () ->
+                                            downloadDataForPart(
+                                                    path, part, partOffset, closeableRegistry)));
+                    offset += part.getStateSize();
+                }
+                continue;
+            }
+
             runnables.add(
                     ThrowingRunnable.unchecked(
                             () ->
@@ -150,4 +203,49 @@ public class RocksDBStateDownloader extends RocksDBStateDataTransfer {
             }
         }
     }
+
+    /**
+     * Copies the data of a part of a {@link MultiPartStreamStateHandle} to the given offset of the
+     * file at the given path, which already exists.
+     */
+    private void downloadDataForPart(
+            Path restoreFilePath,
+            StreamStateHandle part,
+            long offset,
+            CloseableRegistry closeableRegistry)
+            throws IOException {
+
+        FSDataInputStream inputStream = null;
+        FileChannel channel = null;
+
+        try {
+            inputStream = part.openInputStream();
+            closeableRegistry.registerCloseable(inputStream);
+
+            channel = FileChannel.open(restoreFilePath, StandardOpenOption.WRITE);
+            closeableRegistry.registerCloseable(channel);
+
+            byte[] buffer = new byte[8 * 1024];
+            long position = offset;
+            while (true) {
+                int numBytes = inputStream.read(buffer);
+                if (numBytes == -1) {
+                    break;
+                }
+
+                ByteBuffer data = ByteBuffer.wrap(buffer, 0, numBytes);
+                while (data.hasRemaining()) {
+                    position += channel.write(data, position);
+                }
+            }
+        } finally {
+            if (closeableRegistry.unregisterCloseable(inputStream)) {
+                inputStream.close();
+            }
+
+            if (closeableRegistry.unregisterCloseable(channel)) {
+                channel.close();
+            }
+        }
+    }
 }
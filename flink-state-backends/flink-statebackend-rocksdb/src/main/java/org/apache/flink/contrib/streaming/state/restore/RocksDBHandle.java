@@ -189,18 +189,25 @@ class RocksDBHandle implements AutoCloseable {
      * the contents from a local state.
      */
     private void restoreInstanceDirectoryFromPath(Path source) throws IOException {
-        final Path instanceRocksDBDirectory = Paths.get(dbPath);
-        final Path[] files = FileUtils.listDirectory(source);
-
         if (!new File(dbPath).mkdirs()) {
             String errMsg = "Could not create RocksDB data directory: " + dbPath;
             logger.error(errMsg);
             throw new IOException(errMsg);
         }
 
+        linkOrCopyInstanceFiles(source, Paths.get(dbPath));
+    }
+
+    /**
+     * Links the immutable sst-files and copies all other files of a RocksDB instance directory
+     * into the given target directory, which must exist.
+     */
+    static void linkOrCopyInstanceFiles(Path source, Path target) throws IOException {
+        final Path[] files = FileUtils.listDirectory(source);
+
         for (Path file : files) {
             final String fileName = file.getFileName().toString();
-            final Path targetFile = instanceRocksDBDirectory.resolve(fileName);
+            final Path targetFile = target.resolve(fileName);
             if (fileName.endsWith(SST_FILE_SUFFIX)) {
                 // hardlink'ing the immutable sst-files.
                 Files.createLink(targetFile, file);
@@ -25,7 +25,6 @@ import org.apache.flink.contrib.streaming.state.RocksDBKeyedStateBackend.RocksDb
 import org.apache.flink.contrib.streaming.state.RocksDBNativeMetricOptions;
 import org.apache.flink.contrib.streaming.state.RocksDBOperationUtils;
 import org.apache.flink.contrib.streaming.state.RocksDBStateDownloader;
-import org.apache.flink.contrib.streaming.state.RocksDBWriteBatchWrapper;
 import org.apache.flink.contrib.streaming.state.RocksIteratorWrapper;
 import org.apache.flink.contrib.streaming.state.ttl.RocksDbTtlCompactFiltersManager;
 import org.apache.flink.core.fs.CloseableRegistry;
@@ -46,29 +45,39 @@ import org.apache.flink.runtime.state.StateHandleID;
 import org.apache.flink.runtime.state.StateSerializerProvider;
 import org.apache.flink.runtime.state.StreamStateHandle;
 import org.apache.flink.runtime.state.metainfo.StateMetaInfoSnapshot;
+import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.FileUtils;
 import org.apache.flink.util.IOUtils;
 import org.apache.flink.util.StateMigrationException;
+import org.apache.flink.util.concurrent.FutureUtils;
 
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.DBOptions;
+import org.rocksdb.EnvOptions;
+import org.rocksdb.IngestExternalFileOptions;
+import org.rocksdb.Options;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
+import org.rocksdb.SstFileWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -76,6 +85,13 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 import static org.apache.flink.runtime.state.StateUtil.unexpectedStateHandleException;
@@ -86,6 +102,9 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
     private static final Logger logger =
             LoggerFactory.getLogger(RocksDBIncrementalRestoreOperation.class);
 
+    /** How long a failed restore with rescaling waits for running exports before cleaning up. */
+    private static final Duration EXPORT_TERMINATION_TIMEOUT = Duration.ofMinutes(1);
+
     private final String operatorIdentifier;
     private final SortedMap<Long, Set<StateHandleID>> restoredSstFiles;
     private final RocksDBHandle rocksHandle;
@@ -93,13 +112,12 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
     private final CloseableRegistry cancelStreamRegistry;
     private final KeyGroupRange keyGroupRange;
     private final File instanceBasePath;
-    private final int numberOfTransferringThreads;
+    private final RocksDBStateDownloader rocksDBStateDownloader;
     private final int keyGroupPrefixBytes;
     private final StateSerializerProvider<K> keySerializerProvider;
     private final ClassLoader userCodeClassLoader;
     private long lastCompletedCheckpointId;
     private UUID backendUID;
-    private final long writeBatchSize;
 
     private boolean isKeySerializerCompatibilityChecked;
 
@@ -107,7 +125,7 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
             String operatorIdentifier,
             KeyGroupRange keyGroupRange,
             int keyGroupPrefixBytes,
-            int numberOfTransferringThreads,
+            RocksDBStateDownloader rocksDBStateDownloader,
             CloseableRegistry cancelStreamRegistry,
             ClassLoader userCodeClassLoader,
             Map<String, RocksDbKvStateInfo> kvStateInformation,
@@ -120,7 +138,6 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
             MetricGroup metricGroup,
             @Nonnull Collection<KeyedStateHandle> restoreStateHandles,
             @Nonnull RocksDbTtlCompactFiltersManager ttlCompactFiltersManager,
-            @Nonnegative long writeBatchSize,
             Long writeBufferManagerCapacity) {
         this.rocksHandle =
                 new RocksDBHandle(
@@ -136,12 +153,11 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
         this.restoredSstFiles = new TreeMap<>();
         this.lastCompletedCheckpointId = -1L;
         this.backendUID = UUID.randomUUID();
-        this.writeBatchSize = writeBatchSize;
         this.restoreStateHandles = restoreStateHandles;
         this.cancelStreamRegistry = cancelStreamRegistry;
         this.keyGroupRange = keyGroupRange;
         this.instanceBasePath = instanceBasePath;
-        this.numberOfTransferringThreads = numberOfTransferringThreads;
+        this.rocksDBStateDownloader = rocksDBStateDownloader;
         this.keyGroupPrefixBytes = keyGroupPrefixBytes;
         this.keySerializerProvider = keySerializerProvider;
         this.userCodeClassLoader = userCodeClassLoader;
@@ -248,11 +264,8 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
             Path temporaryRestoreInstancePath, IncrementalRemoteKeyedStateHandle restoreStateHandle)
             throws Exception {
 
-        try (RocksDBStateDownloader rocksDBStateDownloader =
-                new RocksDBStateDownloader(numberOfTransferringThreads)) {
-            rocksDBStateDownloader.transferAllStateDataToDirectory(
-                    restoreStateHandle, temporaryRestoreInstancePath, cancelStreamRegistry);
-        }
+        rocksDBStateDownloader.transferAllStateDataToDirectory(
+                restoreStateHandle, temporaryRestoreInstancePath, cancelStreamRegistry);
 
         // since we transferred all remote state to a local directory, we can use the same code as
         // for
@@ -275,9 +288,11 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
     }
 
     /**
-     * Recovery from multi incremental states with rescaling. For rescaling, this method creates a
-     * temporary RocksDB instance for a key-groups shard. All contents from the temporary instance
-     * are copied into the real restore instance and then the temporary instance is discarded.
+     * Recovery from multi incremental states with rescaling. For rescaling, this method restores
+     * the base DB from the best fitting state handle and clips it to the target key-group range.
+     * The remaining state handles are restored concurrently into temporary RocksDB instances, from
+     * which the key-groups of the target range are exported into SST files. The exported files are
+     * ingested into the base DB and the temporary instances are discarded.
      */
     private void restoreWithRescaling(Collection<KeyedStateHandle> restoreStateHandles)
             throws Exception {
@@ -295,7 +310,28 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
             this.rocksHandle.openDB();
         }
 
-        // Transfer remaining key-groups from temporary instance into base DB
+        // the handles are either remote or, if the key-groups were held by a subtask on the same
+        // task executor before the rescaling, local
+        final List<IncrementalKeyedStateHandle> remainingStateHandles =
+                new ArrayList<>(restoreStateHandles.size());
+        for (KeyedStateHandle rawStateHandle : restoreStateHandles) {
+            if (!(rawStateHandle instanceof IncrementalRemoteKeyedStateHandle)
+                    && !(rawStateHandle instanceof IncrementalLocalKeyedStateHandle)) {
+                throw unexpectedStateHandleException(
+                        new Class[] {
+                            IncrementalRemoteKeyedStateHandle.class,
+                            IncrementalLocalKeyedStateHandle.class
+                        },
+                        rawStateHandle.getClass());
+            }
+            remainingStateHandles.add((IncrementalKeyedStateHandle) rawStateHandle);
+        }
+
+        if (remainingStateHandles.isEmpty()) {
+            return;
+        }
+
+        // Transfer remaining key-groups from temporary instances into base DB
         byte[] startKeyGroupPrefixBytes = new byte[keyGroupPrefixBytes];
         CompositeKeySerializationUtils.serializeKeyGroup(
                 keyGroupRange.getStartKeyGroup(), startKeyGroupPrefixBytes);
@@ -304,82 +340,250 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
         CompositeKeySerializationUtils.serializeKeyGroup(
                 keyGroupRange.getEndKeyGroup() + 1, stopKeyGroupPrefixBytes);
 
-        for (KeyedStateHandle rawStateHandle : restoreStateHandles) {
-
-            if (!(rawStateHandle instanceof IncrementalRemoteKeyedStateHandle)) {
-                throw unexpectedStateHandleException(
-                        IncrementalRemoteKeyedStateHandle.class, rawStateHandle.getClass());
+        final Path exportBasePath =
+                instanceBasePath.getAbsoluteFile().toPath().resolve(UUID.randomUUID().toString());
+        final List<CompletableFuture<List<ExportedState>>> exports =
+                new ArrayList<>(remainingStateHandles.size());
+        final AtomicBoolean exportsCancelled = new AtomicBoolean(false);
+
+        try (IngestExternalFileOptions ingestOptions = new IngestExternalFileOptions()) {
+
+            final List<Path> temporaryRestoreInstancePaths =
+                    downloadOrLinkStateHandles(remainingStateHandles, exportBasePath);
+
+            for (int i = 0; i < remainingStateHandles.size(); i++) {
+                final IncrementalKeyedStateHandle stateHandle = remainingStateHandles.get(i);
+                // the meta data is read by this thread, because the key serializer compatibility
+                // check is not thread safe
+                final List<StateMetaInfoSnapshot> stateMetaInfoSnapshots =
+                        readMetaData(getMetaStateHandle(stateHandle)).getStateMetaInfoSnapshots();
+                final List<ColumnFamilyDescriptor> columnFamilyDescriptors =
+                        createlumnFamilyDescriptors(stateMetaInfoSnapshots, false);
+                final Path temporaryRestoreInstancePath = temporaryRestoreInstancePaths.get(i);
+
+                // the exports run on the transfer threads, which are idle after the downloads
+                exports.add(
+                        CompletableFuture.supplyAsync(
+                                () -> {
+                                    if (exportsCancelled.get()) {
+                                        throw new CancellationException(
+                                                "The restore with rescaling failed.");
+                                    }
+                                    try {
+                                        return exportKeyGroupRange(
+                                                temporaryRestoreInstancePath,
+                                                stateMetaInfoSnapshots,
+                                                columnFamilyDescriptors,
+                                                startKeyGroupPrefixBytes,
+                                                stopKeyGroupPrefixBytes);
+                                    } catch (Exception e) {
+                                        throw new CompletionException(e);
+                                    }
+                                },
+                                rocksDBStateDownloader.getExecutor()));
             }
 
-            logger.info(
-                    "Starting to restore from state handle: {} with rescaling.", rawStateHandle);
-            Path temporaryRestoreInstancePath =
-                    instanceBasePath
-                            .getAbsoluteFile()
-                            .toPath()
-                            .resolve(UUID.randomUUID().toString());
-            try (RestoredDBInstance tmpRestoreDBInfo =
-                            restoreDBInstanceFromStateHandle(
-                                    (IncrementalRemoteKeyedStateHandle) rawStateHandle,
-                                    temporaryRestoreInstancePath);
-                    RocksDBWriteBatchWrapper writeBatchWrapper =
-                            new RocksDBWriteBatchWrapper(
-                                    this.rocksHandle.getDb(), writeBatchSize)) {
-
-                List<ColumnFamilyDescriptor> tmpColumnFamilyDescriptors =
-                        tmpRestoreDBInfo.columnFamilyDescriptors;
-                List<ColumnFamilyHandle> tmpColumnFamilyHandles =
-                        tmpRestoreDBInfo.columnFamilyHandles;
-
-                // iterating only the requested descriptors automatically skips the default column
-                // family handle
-                for (int i = 0; i < tmpColumnFamilyDescriptors.size(); ++i) {
-                    ColumnFamilyHandle tmpColumnFamilyHandle = tmpColumnFamilyHandles.get(i);
+            // the exported files are moved into the base DB instead of being copied
+            ingestOptions.setMoveFiles(true);
+            for (int i = 0; i < exports.size(); i++) {
+                final List<ExportedState> exportedStates;
+                try {
+                    exportedStates = exports.get(i).get();
+                } catch (ExecutionException e) {
+                    final Throwable cause = ExceptionUtils.stripExecutionException(e);
+                    throw cause instanceof Exception ? (Exception) cause : e;
+                }
 
+                for (ExportedState exportedState : exportedStates) {
                     ColumnFamilyHandle targetColumnFamilyHandle =
                             this.rocksHandle.getOrRegisterStateColumnFamilyHandle(
-                                            null, tmpRestoreDBInfo.stateMetaInfoSnapshots.get(i))
+                                            null, exportedState.stateMetaInfoSnapshot)
                                     .columnFamilyHandle;
-
-                    try (RocksIteratorWrapper iterator =
-                            RocksDBOperationUtils.getRocksIterator(
-                                    tmpRestoreDBInfo.db,
-                                    tmpColumnFamilyHandle,
-                                    tmpRestoreDBInfo.readOptions)) {
-
-                        iterator.seek(startKeyGroupPrefixBytes);
-
-                        while (iterator.isValid()) {
-
-                            if (RocksDBIncrementalCheckpointUtils.beforeThePrefixBytes(
-                                    iterator.key(), stopKeyGroupPrefixBytes)) {
-                                writeBatchWrapper.put(
-                                        targetColumnFamilyHandle, iterator.key(), iterator.value());
-                            } else {
-                                // Since the iterator will visit the record according to the sorted
-                                // order,
-                                // we can just break here.
-                                break;
-                            }
-
-                            iterator.next();
-                        }
-                    } // releases native iterator resources
+                    if (exportedState.sstFile != null) {
+                        this.rocksHandle
+                                .getDb()
+                                .ingestExternalFile(
+                                        targetColumnFamilyHandle,
+                                        Collections.singletonList(
+                                                exportedState.sstFile.toString()),
+                                        ingestOptions);
+                    }
                 }
                 logger.info(
-                        "Finished restoring from state handle: {} with rescaling.", rawStateHandle);
-            } finally {
-                cleanUpPathQuietly(temporaryRestoreInstancePath);
+                        "Finished restoring from state handle: {} with rescaling.",
+                        remainingStateHandles.get(i));
             }
+        } finally {
+            // exports that did not start yet are skipped, running ones must finish before their
+            // files are deleted
+            exportsCancelled.set(true);
+            awaitExportsQuietly(exports);
+            cleanUpPathQuietly(exportBasePath);
         }
     }
 
-    private void initDBWithRescaling(KeyedStateHandle initialHandle) throws Exception {
+    /**
+     * Downloads the remote state handles into temporary instance directories below the export
+     * path, with the files of all handles sharing the transfer threads. The files of local state
+     * handles are linked into their temporary instance directory.
+     *
+     * @return the temporary instance directory of each state handle, in the order of the handles.
+     */
+    private List<Path> downloadOrLinkStateHandles(
+            List<IncrementalKeyedStateHandle> stateHandles, Path exportBasePath)
+            throws Exception {
+
+        final List<Path> temporaryRestoreInstancePaths = new ArrayList<>(stateHandles.size());
+        final Map<Path, IncrementalRemoteKeyedStateHandle> remoteStateHandles = new HashMap<>();
+        for (IncrementalKeyedStateHandle stateHandle : stateHandles) {
+            logger.info("Starting to restore from state handle: {} with rescaling.", stateHandle);
+            final Path temporaryRestoreInstancePath =
+                    exportBasePath.resolve(UUID.randomUUID().toString()).resolve("db");
+            temporaryRestoreInstancePaths.add(temporaryRestoreInstancePath);
+
+            if (stateHandle instanceof IncrementalRemoteKeyedStateHandle) {
+                remoteStateHandles.put(
+                        temporaryRestoreInstancePath,
+                        (IncrementalRemoteKeyedStateHandle) stateHandle);
+            } else {
+                // the local state must not be modified, the temporary instance links its files
+                Files.createDirectories(temporaryRestoreInstancePath);
+                RocksDBHandle.linkOrCopyInstanceFiles(
+                        ((IncrementalLocalKeyedStateHandle) stateHandle)
+                                .getDirectoryStateHandle()
+                                .getDirectory(),
+                        temporaryRestoreInstancePath);
+            }
+        }
+
+        rocksDBStateDownloader.transferAllStateDataToDirectories(
+                remoteStateHandles, cancelStreamRegistry);
+        return temporaryRestoreInstancePaths;
+    }
+
+    /** Waits a bounded time for the given exports to complete, ignoring their results. */
+    private void awaitExportsQuietly(List<CompletableFuture<List<ExportedState>>> exports) {
+        try {
+            FutureUtils.waitForAll(exports)
+                    .get(EXPORT_TERMINATION_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ignored) {
+            // the failure of the restore is reported by the restoring thread
+        } catch (TimeoutException e) {
+            logger.warn(
+                    "Exports of the restore with rescaling did not finish within {}.",
+                    EXPORT_TERMINATION_TIMEOUT);
+        }
+    }
 
-        assert (initialHandle instanceof IncrementalRemoteKeyedStateHandle);
+    /**
+     * Opens the temporary RocksDB instance of a state handle and writes the key-groups in
+     * [startKeyGroupPrefixBytes, stopKeyGroupPrefixBytes) of each column family to an SST file
+     * next to the instance directory. This method is called concurrently for different state
+     * handles.
+     */
+    private List<ExportedState> exportKeyGroupRange(
+            Path temporaryRestoreInstancePath,
+            List<StateMetaInfoSnapshot> stateMetaInfoSnapshots,
+            List<ColumnFamilyDescriptor> columnFamilyDescriptors,
+            byte[] startKeyGroupPrefixBytes,
+            byte[] stopKeyGroupPrefixBytes)
+            throws Exception {
+
+        final Path exportPath = temporaryRestoreInstancePath.getParent();
+        try (RestoredDBInstance tmpRestoreDBInfo =
+                openTemporaryDBInstance(
+                        temporaryRestoreInstancePath,
+                        stateMetaInfoSnapshots,
+                        columnFamilyDescriptors)) {
+
+            final List<ExportedState> exportedStates =
+                    new ArrayList<>(columnFamilyDescriptors.size());
+
+            // iterating only the requested descriptors automatically skips the default column
+            // family handle
+            for (int i = 0; i < columnFamilyDescriptors.size(); ++i) {
+                final Path sstFile = exportPath.resolve(i + ".sst");
+                final boolean hasData =
+                        exportKeyGroupRange(
+                                tmpRestoreDBInfo.db,
+                                tmpRestoreDBInfo.columnFamilyHandles.get(i),
+                                columnFamilyDescriptors.get(i).getOptions(),
+                                tmpRestoreDBInfo.readOptions,
+                                startKeyGroupPrefixBytes,
+                                stopKeyGroupPrefixBytes,
+                                sstFile);
+                exportedStates.add(
+                        new ExportedState(stateMetaInfoSnapshots.get(i), hasData ? sstFile : null));
+            }
+            return exportedStates;
+        } finally {
+            cleanUpPathQuietly(temporaryRestoreInstancePath);
+        }
+    }
+
+    /**
+     * Writes the key-groups in [startKeyGroupPrefixBytes, stopKeyGroupPrefixBytes) of the column
+     * family to the given SST file.
+     *
+     * @return true, if the range contained data and the file was written, false otherwise.
+     */
+    private boolean exportKeyGroupRange(
+            RocksDB db,
+            ColumnFamilyHandle columnFamilyHandle,
+            ColumnFamilyOptions columnFamilyOptions,
+            ReadOptions readOptions,
+            byte[] startKeyGroupPrefixBytes,
+            byte[] stopKeyGroupPrefixBytes,
+            Path sstFile)
+            throws RocksDBException {
+
+        try (EnvOptions envOptions = new EnvOptions();
+                Options options = new Options(this.rocksHandle.getDbOptions(), columnFamilyOptions);
+                SstFileWriter sstFileWriter = new SstFileWriter(envOptions, options);
+                RocksIteratorWrapper iterator =
+                        RocksDBOperationUtils.getRocksIterator(
+                                db, columnFamilyHandle, readOptions)) {
+
+            boolean hasData = false;
+            iterator.seek(startKeyGroupPrefixBytes);
+
+            // the iterator visits the records in sorted order, which is the order that the SST
+            // file requires
+            while (iterator.isValid()
+                    && RocksDBIncrementalCheckpointUtils.beforeThePrefixBytes(
+                            iterator.key(), stopKeyGroupPrefixBytes)) {
+                if (!hasData) {
+                    sstFileWriter.open(sstFile.toString());
+                    hasData = true;
+                }
+                sstFileWriter.put(iterator.key(), iterator.value());
+                iterator.next();
+            }
+
+            if (hasData) {
+                sstFileWriter.finish();
+            }
+            return hasData;
+        }
+    }
+
+    private void initDBWithRescaling(KeyedStateHandle initialHandle) throws Exception {
 
         // 1. Restore base DB from selected initial handle
-        restoreFromRemoteState((IncrementalRemoteKeyedStateHandle) initialHandle);
+        if (initialHandle instanceof IncrementalRemoteKeyedStateHandle) {
+            restoreFromRemoteState((IncrementalRemoteKeyedStateHandle) initialHandle);
+        } else if (initialHandle instanceof IncrementalLocalKeyedStateHandle) {
+            restoreFromLocalState((IncrementalLocalKeyedStateHandle) initialHandle);
+        } else {
+            throw unexpectedStateHandleException(
+                    new Class[] {
+                        IncrementalRemoteKeyedStateHandle.class,
+                        IncrementalLocalKeyedStateHandle.class
+                    },
+                    initialHandle.getClass());
+        }
 
         // 2. Clip the base DB instance
         try {
@@ -388,8 +592,7 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
                     this.rocksHandle.getColumnFamilyHandles(),
                     keyGroupRange,
                     initialHandle.getKeyGroupRange(),
-                    keyGroupPrefixBytes,
-                    writeBatchSize);
+                    keyGroupPrefixBytes);
         } catch (RocksDBException e) {
             String errMsg = "Failed to clip DB after initialization.";
             logger.error(errMsg, e);
@@ -397,6 +600,21 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
         }
     }
 
+    /** The SST file exported from a temporary RocksDB instance for one state. */
+    private static class ExportedState {
+
+        @Nonnull private final StateMetaInfoSnapshot stateMetaInfoSnapshot;
+
+        /** The exported file, null if the state has no data in the target key-group range. */
+        @Nullable private final Path sstFile;
+
+        private ExportedState(
+                @Nonnull StateMetaInfoSnapshot stateMetaInfoSnapshot, @Nullable Path sstFile) {
+            this.stateMetaInfoSnapshot = stateMetaInfoSnapshot;
+            this.sstFile = sstFile;
+        }
+    }
+
     /** Entity to hold the temporary RocksDB instance created for restore. */
     private static class RestoredDBInstance implements AutoCloseable {
 
@@ -440,25 +658,12 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
         }
     }
 
-    private RestoredDBInstance restoreDBInstanceFromStateHandle(
-            IncrementalRemoteKeyedStateHandle restoreStateHandle, Path temporaryRestoreInstancePath)
+    private RestoredDBInstance openTemporaryDBInstance(
+            Path temporaryRestoreInstancePath,
+            List<StateMetaInfoSnapshot> stateMetaInfoSnapshots,
+            List<ColumnFamilyDescriptor> columnFamilyDescriptors)
             throws Exception {
 
-        try (RocksDBStateDownloader rocksDBStateDownloader =
-                new RocksDBStateDownloader(numberOfTransferringThreads)) {
-            rocksDBStateDownloader.transferAllStateDataToDirectory(
-                    restoreStateHandle, temporaryRestoreInstancePath, cancelStreamRegistry);
-        }
-
-        KeyedBackendSerializationProxy<K> serializationProxy =
-                readMetaData(restoreStateHandle.getMetaStateHandle());
-        // read meta data
-        List<StateMetaInfoSnapshot> stateMetaInfoSnapshots =
-                serializationProxy.getStateMetaInfoSnapshots();
-
-        List<ColumnFamilyDescriptor> columnFamilyDescriptors =
-                createlumnFamilyDescriptors(stateMetaInfoSnapshots, false);
-
         List<ColumnFamilyHandle> columnFamilyHandles =
                 new ArrayList<>(stateMetaInfoSnapshots.size() + 1);
 
@@ -475,6 +680,12 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
                 restoreDb, columnFamilyHandles, columnFamilyDescriptors, stateMetaInfoSnapshots);
     }
 
+    private static StreamStateHandle getMetaStateHandle(IncrementalKeyedStateHandle stateHandle) {
+        return stateHandle instanceof IncrementalRemoteKeyedStateHandle
+                ? ((IncrementalRemoteKeyedStateHandle) stateHandle).getMetaStateHandle()
+                : ((IncrementalLocalKeyedStateHandle) stateHandle).getMetaDataState();
+    }
+
     /**
      * This method recreates and registers all {@link ColumnFamilyDescriptor} from Flink's state
      * meta data snapshot.
@@ -44,6 +44,8 @@ import org.apache.flink.runtime.state.StateHandleID;
 import org.apache.flink.runtime.state.StateObject;
 import org.apache.flink.runtime.state.StateUtil;
 import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.filesystem.FileMergingCheckpointStreamFactory;
+import org.apache.flink.runtime.state.filesystem.FsCheckpointStreamFactory;
 import org.apache.flink.runtime.state.metainfo.StateMetaInfoSnapshot;
 import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.FileUtils;
@@ -109,6 +111,12 @@ public class RocksIncrementalSnapshotStrategy<K>
     /** The local directory name of the current snapshot strategy. */
     private final String localDirectoryName;
 
+    /**
+     * Maximum size of the files that uploaded files are merged into, 0 if every file is uploaded
+     * separately.
+     */
+    private final long fileMergingMaxFileSize;
+
     public RocksIncrementalSnapshotStrategy(
             @Nonnull RocksDB db,
             @Nonnull ResourceGuard rocksDBResourceGuard,
@@ -123,6 +131,38 @@ public class RocksIncrementalSnapshotStrategy<K>
             @Nonnull SortedMap<Long, Set<StateHandleID>> materializedSstFiles,
             @Nonnull RocksDBStateUploader rocksDBStateUploader,
             long lastCompletedCheckpointId) {
+        this(
+                db,
+                rocksDBResourceGuard,
+                keySerializer,
+                kvStateInformation,
+                keyGroupRange,
+                keyGroupPrefixBytes,
+                localRecoveryConfig,
+                cancelStreamRegistry,
+                instanceBasePath,
+                backendUID,
+                materializedSstFiles,
+                rocksDBStateUploader,
+                lastCompletedCheckpointId,
+                0L);
+    }
+
+    public RocksIncrementalSnapshotStrategy(
+            @Nonnull RocksDB db,
+            @Nonnull ResourceGuard rocksDBResourceGuard,
+            @Nonnull TypeSerializer<K> keySerializer,
+            @Nonnull LinkedHashMap<String, RocksDbKvStateInfo> kvStateInformation,
+            @Nonnull KeyGroupRange keyGroupRange,
+            @Nonnegative int keyGroupPrefixBytes,
+            @Nonnull LocalRecoveryConfig localRecoveryConfig,
+            @Nonnull CloseableRegistry cancelStreamRegistry,
+            @Nonnull File instanceBasePath,
+            @Nonnull UUID backendUID,
+            @Nonnull SortedMap<Long, Set<StateHandleID>> materializedSstFiles,
+            @Nonnull RocksDBStateUploader rocksDBStateUploader,
+            long lastCompletedCheckpointId,
+            @Nonnegative long fileMergingMaxFileSize) {
 
         super(
                 DESCRIPTION,
@@ -140,6 +180,7 @@ public class RocksIncrementalSnapshotStrategy<K>
         this.stateUploader = rocksDBStateUploader;
         this.lastCompletedCheckpointId = lastCompletedCheckpointId;
         this.localDirectoryName = backendUID.toString().replaceAll("[\\-]", "");
+        this.fileMergingMaxFileSize = fileMergingMaxFileSize;
     }
 
     @Override
@@ -443,12 +484,48 @@ public class RocksIncrementalSnapshotStrategy<K>
             if (files != null) {
                 createUploadFilePaths(files, sstFiles, sstFilePaths, miscFilePaths);
 
-                sstFiles.putAll(
+                // sst files and misc files are discarded independently of each other, so they must
+                // not be merged into the same files
+                uploadFiles(sstFilePaths, sstFiles, snapshotCloseableRegistry);
+                uploadFiles(miscFilePaths, miscFiles, snapshotCloseableRegistry);
+            }
+        }
+
+        private void uploadFiles(
+                @Nonnull Map<StateHandleID, Path> filePaths,
+                @Nonnull Map<StateHandleID, StreamStateHandle> handles,
+                @Nonnull CloseableRegistry snapshotCloseableRegistry)
+                throws Exception {
+
+            if (fileMergingMaxFileSize <= 0
+                    || filePaths.isEmpty()
+                    || !(checkpointStreamFactory instanceof FsCheckpointStreamFactory)) {
+                handles.putAll(
                         stateUploader.uploadFilesToCheckpointFs(
-                                sstFilePaths, checkpointStreamFactory, snapshotCloseableRegistry));
-                miscFiles.putAll(
+                                filePaths, checkpointStreamFactory, snapshotCloseableRegistry));
+                return;
+            }
+
+            final FileMergingCheckpointStreamFactory mergingStreamFactory =
+                    ((FsCheckpointStreamFactory) checkpointStreamFactory)
+                            .createSharedStateFileMergingFactory(fileMergingMaxFileSize);
+            snapshotCloseableRegistry.registerCloseable(mergingStreamFactory);
+
+            boolean uploaded = false;
+            try {
+                handles.putAll(
                         stateUploader.uploadFilesToCheckpointFs(
-                                miscFilePaths, checkpointStreamFactory, snapshotCloseableRegistry));
+                                filePaths, mergingStreamFactory, snapshotCloseableRegistry));
+                uploaded = true;
+            } finally {
+                if (snapshotCloseableRegistry.unregisterCloseable(mergingStreamFactory)) {
+                    if (uploaded) {
+                        // the merged files must be complete before their segments are reported
+                        mergingStreamFactory.close();
+                    } else {
+                        IOUtils.closeQuietly(mergingStreamFactory);
+                    }
+                }
             }
         }
 
@@ -24,6 +24,7 @@ import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
 import org.apache.flink.runtime.state.KeyGroupRange;
 import org.apache.flink.runtime.state.StateHandleID;
 import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.filesystem.MultiPartStreamStateHandle;
 import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
 import org.apache.flink.util.TestLogger;
 
@@ -36,6 +37,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -145,6 +147,95 @@ public class RocksDBStateDownloaderTest extends TestLogger {
         }
     }
 
+    /** Tests that the parts of a file which was uploaded in parts are downloaded into one file. */
+    @Test
+    public void testRestoreMultiPartFile() throws Exception {
+        Random random = new Random();
+        int partNum = 7;
+        byte[] content = new byte[partNum * 1024 + 17];
+        random.nextBytes(content);
+
+        List<StreamStateHandle> parts = new ArrayList<>(partNum + 1);
+        for (int offset = 0, i = 0; offset < content.length; offset += 1024, ++i) {
+            parts.add(
+                    new ByteStreamStateHandle(
+                            String.format("part%d", i),
+                            Arrays.copyOfRange(
+                                    content, offset, Math.min(offset + 1024, content.length))));
+        }
+        StreamStateHandle multiPartHandle = new MultiPartStreamStateHandle(parts);
+        byte[] smallContent = new byte[] {1, 2, 3};
+        StreamStateHandle smallHandle = new ByteStreamStateHandle("small", smallContent);
+
+        Map<StateHandleID, StreamStateHandle> sharedStates = new HashMap<>();
+        sharedStates.put(new StateHandleID("sharedState"), multiPartHandle);
+        sharedStates.put(new StateHandleID("smallSharedState"), smallHandle);
+        Map<StateHandleID, StreamStateHandle> privateStates = new HashMap<>();
+        privateStates.put(new StateHandleID("privateState"), multiPartHandle);
+
+        IncrementalRemoteKeyedStateHandle incrementalKeyedStateHandle =
+                new IncrementalRemoteKeyedStateHandle(
+                        UUID.randomUUID(),
+                        KeyGroupRange.of(0, 1),
+                        1,
+                        sharedStates,
+                        privateStates,
+                        smallHandle);
+
+        Path dstPath = temporaryFolder.newFolder().toPath();
+        try (RocksDBStateDownloader rocksDBStateDownloader = new RocksDBStateDownloader(4)) {
+            rocksDBStateDownloader.transferAllStateDataToDirectory(
+                    incrementalKeyedStateHandle, dstPath, new CloseableRegistry());
+        }
+
+        assertStateContentEqual(content, dstPath.resolve("sharedState"));
+        assertStateContentEqual(content, dstPath.resolve("privateState"));
+        assertStateContentEqual(smallContent, dstPath.resolve("smallSharedState"));
+    }
+
+    /** Tests that the state data of several handles is downloaded into their own directories. */
+    @Test
+    public void testRestoreSeveralHandlesConcurrently() throws Exception {
+        Random random = new Random();
+        int handleNum = 3;
+        byte[][] contents = new byte[handleNum][];
+        Map<Path, IncrementalRemoteKeyedStateHandle> handles = new HashMap<>();
+        List<Path> dstPaths = new ArrayList<>(handleNum);
+        for (int i = 0; i < handleNum; ++i) {
+            contents[i] = new byte[random.nextInt(100000) + 1];
+            random.nextBytes(contents[i]);
+            StreamStateHandle handle =
+                    new ByteStreamStateHandle(String.format("state%d", i), contents[i]);
+
+            Map<StateHandleID, StreamStateHandle> sharedStates = new HashMap<>();
+            sharedStates.put(new StateHandleID("sharedState"), handle);
+            Map<StateHandleID, StreamStateHandle> privateStates = new HashMap<>();
+            privateStates.put(new StateHandleID("privateState"), handle);
+
+            Path dstPath = temporaryFolder.newFolder().toPath();
+            dstPaths.add(dstPath);
+            handles.put(
+                    dstPath,
+                    new IncrementalRemoteKeyedStateHandle(
+                            UUID.randomUUID(),
+                            KeyGroupRange.of(i, i),
+                            1,
+                            sharedStates,
+                            privateStates,
+                            handle));
+        }
+
+        try (RocksDBStateDownloader rocksDBStateDownloader = new RocksDBStateDownloader(4)) {
+            rocksDBStateDownloader.transferAllStateDataToDirectories(
+                    handles, new CloseableRegistry());
+        }
+
+        for (int i = 0; i < handleNum; ++i) {
+            assertStateContentEqual(contents[i], dstPaths.get(i).resolve("sharedState"));
+            assertStateContentEqual(contents[i], dstPaths.get(i).resolve("privateState"));
+        }
+    }
+
     private void assertStateContentEqual(byte[] expected, Path path) throws IOException {
         byte[] actual = Files.readAllBytes(Paths.get(path.toUri()));
         assertArrayEquals(expected, actual);
@@ -18,6 +18,7 @@
 
 package org.apache.flink.contrib.streaming.state;
 
+import org.apache.flink.api.common.JobID;
 import org.apache.flink.api.common.state.ValueState;
 import org.apache.flink.api.common.state.ValueStateDescriptor;
 import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
@@ -25,11 +26,19 @@ import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
 import org.apache.flink.runtime.checkpoint.StateAssignmentOperation;
+import org.apache.flink.runtime.jobgraph.JobVertexID;
+import org.apache.flink.runtime.operators.testutils.MockEnvironment;
+import org.apache.flink.runtime.operators.testutils.MockEnvironmentBuilder;
+import org.apache.flink.runtime.state.IncrementalLocalKeyedStateHandle;
 import org.apache.flink.runtime.state.KeyGroupRange;
 import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
-import org.apache.flink.runtime.state.StateBackend;
+import org.apache.flink.runtime.state.KeyedStateHandle;
+import org.apache.flink.runtime.state.LocalRecoveryConfig;
+import org.apache.flink.runtime.state.LocalRecoveryDirectoryProviderImpl;
+import org.apache.flink.runtime.state.TestTaskStateManager;
 import org.apache.flink.streaming.api.functions.KeyedProcessFunction;
 import org.apache.flink.streaming.api.operators.KeyedProcessOperator;
+import org.apache.flink.streaming.api.operators.OperatorSnapshotFinalizer;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
 import org.apache.flink.streaming.util.AbstractStreamOperatorTestHarness;
 import org.apache.flink.streaming.util.KeyedOneInputStreamOperatorTestHarness;
@@ -42,7 +51,13 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /** Tests to guard rescaling from checkpoint. */
 public class RocksIncrementalCheckpointRescalingTest extends TestLogger {
@@ -380,6 +395,189 @@ public class RocksIncrementalCheckpointRescalingTest extends TestLogger {
         }
     }
 
+    /**
+     * Tests that the subtasks of a rescaled job restore from the local state of the subtasks which
+     * held their key-groups before, with several local handles per subtask.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testScalingDownFromLocalState() throws Exception {
+
+        final JobID jobID = new JobID();
+        final JobVertexID jobVertexID = new JobVertexID();
+
+        // -----------------------------------------> test with initial parallelism 3
+        // <---------------------------------------
+
+        KeyedOneInputStreamOperatorTestHarness<String, String, Integer>[] harness3 =
+                new KeyedOneInputStreamOperatorTestHarness[3];
+        OperatorSubtaskState snapshot3;
+        OperatorSubtaskState localSnapshot3;
+
+        try {
+            OperatorSnapshotFinalizer[] snapshots = new OperatorSnapshotFinalizer[3];
+            for (int i = 0; i < 3; i++) {
+                harness3[i] = getHarnessWithLocalRecovery(jobID, jobVertexID, 3, i);
+                harness3[i].setStateBackend(getStateBackend());
+                harness3[i].open();
+            }
+
+            validHarnessResult(harness3[0], 1, records[0], records[1], records[2], records[3]);
+            validHarnessResult(harness3[1], 1, records[4], records[5], records[6]);
+            validHarnessResult(harness3[2], 1, records[7], records[8], records[9]);
+
+            for (int i = 0; i < 3; i++) {
+                snapshots[i] = harness3[i].snapshotWithLocalState(0, 0);
+            }
+
+            snapshot3 =
+                    AbstractStreamOperatorTestHarness.repackageState(
+                            snapshots[0].getJobManagerOwnedState(),
+                            snapshots[1].getJobManagerOwnedState(),
+                            snapshots[2].getJobManagerOwnedState());
+            localSnapshot3 =
+                    AbstractStreamOperatorTestHarness.repackageState(
+                            snapshots[0].getTaskLocalState(),
+                            snapshots[1].getTaskLocalState(),
+                            snapshots[2].getTaskLocalState());
+        } finally {
+            closeHarnessAndEnvironment(harness3);
+        }
+
+        for (KeyedStateHandle localHandle : localSnapshot3.getManagedKeyedState()) {
+            Assert.assertTrue(localHandle instanceof IncrementalLocalKeyedStateHandle);
+        }
+
+        // only the local state is left to restore from
+        snapshot3.getManagedKeyedState().discardState();
+
+        // -----------------------------------------> test rescaling from 3 to 2
+        // <---------------------------------------
+
+        KeyedOneInputStreamOperatorTestHarness<String, String, Integer>[] harness2 =
+                new KeyedOneInputStreamOperatorTestHarness[2];
+        File[] dbStorageDirectories = new File[2];
+
+        try {
+            for (int i = 0; i < 2; i++) {
+                OperatorSubtaskState initState =
+                        AbstractStreamOperatorTestHarness.repartitionOperatorState(
+                                snapshot3, maxParallelism, 3, 2, i);
+                OperatorSubtaskState localInitState =
+                        AbstractStreamOperatorTestHarness.repartitionOperatorState(
+                                localSnapshot3, maxParallelism, 3, 2, i);
+
+                // the key-groups [0, 4] and [5, 9] are held by two subtasks each before
+                Assert.assertEquals(2, localInitState.getManagedKeyedState().size());
+
+                dbStorageDirectories[i] = rootFolder.newFolder();
+                RocksDBStateBackend stateBackend = getStateBackend();
+                stateBackend.setDbStoragePath(dbStorageDirectories[i].getAbsolutePath());
+
+                harness2[i] = getHarnessWithLocalRecovery(jobID, jobVertexID, 2, i);
+                harness2[i].setStateBackend(stateBackend);
+                harness2[i].setup();
+                harness2[i].initializeState(initState, localInitState);
+                harness2[i].open();
+            }
+
+            validHarnessResult(
+                    harness2[0], 2, records[0], records[1], records[2], records[3], records[4]);
+            validHarnessResult(
+                    harness2[1], 2, records[5], records[6], records[7], records[8], records[9]);
+
+            for (File dbStorageDirectory : dbStorageDirectories) {
+                assertLinkedSstAndCopiedOtherFiles(localSnapshot3, dbStorageDirectory.toPath());
+            }
+        } finally {
+            closeHarnessAndEnvironment(harness2);
+        }
+    }
+
+    /**
+     * Checks that the restored instance in the given directory hard-links the sst-files of one of
+     * the local handles and holds copies of the other files of the local handles, which must not
+     * be modified by the restored instance.
+     */
+    private static void assertLinkedSstAndCopiedOtherFiles(
+            OperatorSubtaskState localState, Path dbStorageDirectory) throws IOException {
+
+        List<Path> restoredFiles = listFilesRecursively(dbStorageDirectory);
+        boolean linkedSstFile = false;
+        boolean checkedOtherFile = false;
+
+        for (KeyedStateHandle localHandle : localState.getManagedKeyedState()) {
+            Path localDirectory =
+                    ((IncrementalLocalKeyedStateHandle) localHandle)
+                            .getDirectoryStateHandle()
+                            .getDirectory();
+
+            for (Path localFile : listFilesRecursively(localDirectory)) {
+                boolean isSstFile = localFile.getFileName().toString().endsWith(".sst");
+                for (Path restoredFile : restoredFiles) {
+                    boolean isSameFile = Files.isSameFile(localFile, restoredFile);
+                    if (isSstFile) {
+                        linkedSstFile |= isSameFile;
+                    } else {
+                        Assert.assertFalse(
+                                "Only sst-files may be hard-linked: " + restoredFile, isSameFile);
+                        checkedOtherFile = true;
+                    }
+                }
+            }
+        }
+
+        Assert.assertTrue("No sst-file was hard-linked.", linkedSstFile);
+        Assert.assertTrue("No other file was checked.", checkedOtherFile);
+    }
+
+    private static List<Path> listFilesRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    private KeyedOneInputStreamOperatorTestHarness<String, String, Integer>
+            getHarnessWithLocalRecovery(
+                    JobID jobID, JobVertexID jobVertexID, int taskParallelism, int subtaskIdx)
+                    throws Exception {
+
+        LocalRecoveryConfig localRecoveryConfig =
+                new LocalRecoveryConfig(
+                        true,
+                        new LocalRecoveryDirectoryProviderImpl(
+                                rootFolder.newFolder(), jobID, jobVertexID, subtaskIdx));
+
+        MockEnvironment environment =
+                new MockEnvironmentBuilder()
+                        .setJobID(jobID)
+                        .setJobVertexID(jobVertexID)
+                        .setTaskName("MockTask")
+                        .setManagedMemorySize(3 * 1024 * 1024)
+                        .setBufferSize(1024)
+                        .setTaskStateManager(new TestTaskStateManager(localRecoveryConfig))
+                        .setMaxParallelism(maxParallelism)
+                        .setParallelism(taskParallelism)
+                        .setSubtaskIndex(subtaskIdx)
+                        .build();
+
+        return new KeyedOneInputStreamOperatorTestHarness<>(
+                new KeyedProcessOperator<>(new TestKeyedFunction()),
+                keySelector,
+                BasicTypeInfo.STRING_TYPE_INFO,
+                environment);
+    }
+
+    private void closeHarnessAndEnvironment(
+            KeyedOneInputStreamOperatorTestHarness<?, ?, ?>[] harnessArr) throws Exception {
+        closeHarness(harnessArr);
+        for (KeyedOneInputStreamOperatorTestHarness<?, ?, ?> harness : harnessArr) {
+            if (harness != null) {
+                harness.getEnvironment().close();
+            }
+        }
+    }
+
     private void closeHarness(KeyedOneInputStreamOperatorTestHarness<?, ?, ?>[] harnessArr)
             throws Exception {
         for (KeyedOneInputStreamOperatorTestHarness<?, ?, ?> harness : harnessArr) {
@@ -418,7 +616,7 @@ public class RocksIncrementalCheckpointRescalingTest extends TestLogger {
                 subtaskIdx);
     }
 
-    private StateBackend getStateBackend() throws Exception {
+    private RocksDBStateBackend getStateBackend() throws Exception {
         return new RocksDBStateBackend("file://" + rootFolder.newFolder().getAbsolutePath(), true);
     }
 
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.contrib.streaming.state.benchmark;
+
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.contrib.streaming.state.EmbeddedRocksDBStateBackend;
+import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
+import org.apache.flink.runtime.state.storage.FileSystemCheckpointStorage;
+import org.apache.flink.streaming.api.functions.KeyedProcessFunction;
+import org.apache.flink.streaming.api.operators.KeyedProcessOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.AbstractStreamOperatorTestHarness;
+import org.apache.flink.streaming.util.KeyedOneInputStreamOperatorTestHarness;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * Restores the RocksDB keyed state backend of an operator from an incremental checkpoint that was
+ * taken with a different parallelism, which is the expensive part of rescaling. This is the
+ * building block of the rescaling benchmarks, which measure {@link #rescale()} for scaling up and
+ * for scaling down.
+ *
+ * <p>The life cycle is {@link #setUp()} once, then {@link #prepareStateForOperator(int)}, {@link
+ * #rescale()} and {@link #closeOperator()} for every measured restore, and finally {@link
+ * #tearDown()}.
+ */
+public class RescalingBenchmark {
+
+    private final int maxParallelism;
+
+    private final int parallelismBefore;
+
+    private final int parallelismAfter;
+
+    private final int numberOfKeys;
+
+    private final int valueSize;
+
+    private final File rootDir;
+
+    /** The checkpointed state of all subtasks with the initial parallelism. */
+    private OperatorSubtaskState stateForRescaling;
+
+    /** The state assigned to the prepared subtask with the new parallelism. */
+    private OperatorSubtaskState stateForSubtask;
+
+    private KeyedOneInputStreamOperatorTestHarness<Long, Long, Integer> subtaskHarness;
+
+    public RescalingBenchmark(
+            int maxParallelism,
+            int parallelismBefore,
+            int parallelismAfter,
+            int numberOfKeys,
+            int valueSize,
+            File rootDir) {
+        checkArgument(parallelismBefore > 0 && parallelismBefore <= maxParallelism);
+        checkArgument(parallelismAfter > 0 && parallelismAfter <= maxParallelism);
+        checkArgument(numberOfKeys > 0);
+        checkArgument(valueSize > 0);
+        this.maxParallelism = maxParallelism;
+        this.parallelismBefore = parallelismBefore;
+        this.parallelismAfter = parallelismAfter;
+        this.numberOfKeys = numberOfKeys;
+        this.valueSize = valueSize;
+        this.rootDir = checkNotNull(rootDir);
+    }
+
+    /** Writes the state with the initial parallelism and takes an incremental checkpoint. */
+    public void setUp() throws Exception {
+        final OperatorSubtaskState[] snapshots = new OperatorSubtaskState[parallelismBefore];
+        for (int subtaskIndex = 0; subtaskIndex < parallelismBefore; subtaskIndex++) {
+            try (KeyedOneInputStreamOperatorTestHarness<Long, Long, Integer> harness =
+                    createHarness(parallelismBefore, subtaskIndex)) {
+                harness.open();
+
+                final KeyGroupRange keyGroupRange =
+                        KeyGroupRangeAssignment.computeKeyGroupRangeForOperatorIndex(
+                                maxParallelism, parallelismBefore, subtaskIndex);
+                for (long key = 0; key < numberOfKeys; key++) {
+                    if (keyGroupRange.contains(
+                            KeyGroupRangeAssignment.assignToKeyGroup(key, maxParallelism))) {
+                        harness.processElement(new StreamRecord<>(key));
+                        harness.getOutput().clear();
+                    }
+                }
+
+                snapshots[subtaskIndex] = harness.snapshot(0L, 0L);
+            }
+        }
+        stateForRescaling = AbstractStreamOperatorTestHarness.repackageState(snapshots);
+    }
+
+    /**
+     * Assigns the checkpointed state to the given subtask with the new parallelism and sets up the
+     * subtask, so that {@link #rescale()} only measures the restore.
+     */
+    public void prepareStateForOperator(int subtaskIndex) throws Exception {
+        checkState(stateForRescaling != null, "The benchmark has not been set up.");
+        stateForSubtask =
+                AbstractStreamOperatorTestHarness.repartitionOperatorState(
+                        stateForRescaling,
+                        maxParallelism,
+                        parallelismBefore,
+                        parallelismAfter,
+                        subtaskIndex);
+        subtaskHarness = createHarness(parallelismAfter, subtaskIndex);
+        subtaskHarness.setup();
+    }
+
+    /** Restores the keyed state backend of the prepared subtask. */
+    public void rescale() throws Exception {
+        subtaskHarness.initializeState(stateForSubtask);
+    }
+
+    /** Disposes the restored subtask. */
+    public void closeOperator() throws Exception {
+        if (subtaskHarness != null) {
+            subtaskHarness.close();
+            subtaskHarness = null;
+        }
+    }
+
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(rootDir);
+    }
+
+    KeyedOneInputStreamOperatorTestHarness<Long, Long, Integer> getSubtaskHarness() {
+        return subtaskHarness;
+    }
+
+    private KeyedOneInputStreamOperatorTestHarness<Long, Long, Integer> createHarness(
+            int parallelism, int subtaskIndex) throws Exception {
+        final KeyedOneInputStreamOperatorTestHarness<Long, Long, Integer> harness =
+                new KeyedOneInputStreamOperatorTestHarness<>(
+                        new KeyedProcessOperator<>(new ValueWritingFunction(valueSize)),
+                        new IdentityKeySelector(),
+                        BasicTypeInfo.LONG_TYPE_INFO,
+                        maxParallelism,
+                        parallelism,
+                        subtaskIndex);
+        harness.setStateBackend(new EmbeddedRocksDBStateBackend(true));
+        harness.setCheckpointStorage(
+                new FileSystemCheckpointStorage(new File(rootDir, "checkpoints").toURI()));
+        return harness;
+    }
+
+    /**
+     * Writes a value of a fixed size for every key and emits the size of the previous value, or -1
+     * if there was none.
+     */
+    private static class ValueWritingFunction extends KeyedProcessFunction<Long, Long, Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int valueSize;
+
+        private transient ValueState<byte[]> valueState;
+
+        private transient Random random;
+
+        private ValueWritingFunction(int valueSize) {
+            this.valueSize = valueSize;
+        }
+
+        @Override
+        public void open(Configuration parameters) throws Exception {
+            super.open(parameters);
+            valueState =
+                    getRuntimeContext()
+                            .getState(new ValueStateDescriptor<>("value", byte[].class));
+            random = new Random();
+        }
+
+        @Override
+        public void processElement(Long key, Context ctx, Collector<Integer> out)
+                throws Exception {
+            final byte[] previous = valueState.value();
+            final byte[] value = new byte[valueSize];
+            random.nextBytes(value);
+            valueState.update(value);
+            out.collect(previous != null ? previous.length : -1);
+        }
+    }
+
+    private static class IdentityKeySelector implements KeySelector<Long, Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Long getKey(Long value) {
+            return value;
+        }
+    }
+}
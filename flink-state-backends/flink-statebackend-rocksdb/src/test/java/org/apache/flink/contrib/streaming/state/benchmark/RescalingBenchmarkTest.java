@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.contrib.streaming.state.benchmark;
+
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.KeyedOneInputStreamOperatorTestHarness;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests for the {@link RescalingBenchmark}. */
+public class RescalingBenchmarkTest extends TestLogger {
+
+    private static final int MAX_PARALLELISM = 128;
+
+    private static final int NUMBER_OF_KEYS = 1000;
+
+    private static final int VALUE_SIZE = 16;
+
+    @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testScalingUp() throws Exception {
+        runRescaling(2, 3);
+    }
+
+    @Test
+    public void testScalingDown() throws Exception {
+        runRescaling(3, 2);
+    }
+
+    private void runRescaling(int parallelismBefore, int parallelismAfter) throws Exception {
+        final RescalingBenchmark benchmark =
+                new RescalingBenchmark(
+                        MAX_PARALLELISM,
+                        parallelismBefore,
+                        parallelismAfter,
+                        NUMBER_OF_KEYS,
+                        VALUE_SIZE,
+                        temporaryFolder.newFolder());
+        benchmark.setUp();
+        try {
+            for (int subtaskIndex = 0; subtaskIndex < parallelismAfter; subtaskIndex++) {
+                benchmark.prepareStateForOperator(subtaskIndex);
+                benchmark.rescale();
+                validateRestoredState(
+                        benchmark.getSubtaskHarness(),
+                        KeyGroupRangeAssignment.computeKeyGroupRangeForOperatorIndex(
+                                MAX_PARALLELISM, parallelismAfter, subtaskIndex));
+                benchmark.closeOperator();
+            }
+        } finally {
+            benchmark.closeOperator();
+            benchmark.tearDown();
+        }
+    }
+
+    /** Checks that exactly the keys of the subtask's key-groups were restored. */
+    private static void validateRestoredState(
+            KeyedOneInputStreamOperatorTestHarness<Long, Long, Integer> harness,
+            KeyGroupRange keyGroupRange)
+            throws Exception {
+        harness.open();
+        for (long key = 0; key < NUMBER_OF_KEYS; key++) {
+            if (keyGroupRange.contains(
+                    KeyGroupRangeAssignment.assignToKeyGroup(key, MAX_PARALLELISM))) {
+                harness.processElement(new StreamRecord<>(key));
+                @SuppressWarnings("unchecked")
+                StreamRecord<Integer> output = (StreamRecord<Integer>) harness.getOutput().poll();
+                Assert.assertNotNull(output);
+                Assert.assertEquals(Integer.valueOf(VALUE_SIZE), output.getValue());
+            }
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.flink.annotation.PublicEvolving;
 import org.apache.flink.api.common.JobStatus;
 import org.apache.flink.configuration.ReadableConfig;
 import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.checkpoint.Checkpoints;
 import org.apache.flink.runtime.state.CheckpointStorage;
 import org.apache.flink.runtime.state.StateBackend;
 import org.apache.flink.runtime.state.storage.FileSystemCheckpointStorage;
@@ -105,6 +106,10 @@ public class CheckpointConfig implements java.io.Serializable {
     /** Flag to enable approximate local recovery. */
     private boolean approximateLocalRecovery;
 
+    /** The format version in which the metadata of checkpoints and savepoints is written. */
+    private int metadataFormatVersion =
+            ExecutionCheckpointingOptions.METADATA_FORMAT_VERSION.defaultValue();
+
     /** Cleanup behaviour for persistent checkpoints. */
     private ExternalizedCheckpointCleanup externalizedCheckpointCleanup;
 
@@ -158,6 +163,7 @@ public class CheckpointConfig implements java.io.Serializable {
         this.storage = checkpointConfig.getCheckpointStorage();
         this.checkpointIdOfIgnoredInFlightData =
                 checkpointConfig.getCheckpointIdOfIgnoredInFlightData();
+        this.metadataFormatVersion = checkpointConfig.metadataFormatVersion;
     }
 
     public CheckpointConfig() {}
@@ -612,9 +618,10 @@ public class CheckpointConfig implements java.io.Serializable {
      *
      * <p>Notice that 1. Approximate recovery may lead to data loss. The amount of data which leads
      * the failed task from the state of the last completed checkpoint to the state when the task
-     * fails is lost. 2. In the next version, we will support restarting the set of failed set of
-     * tasks only. In this version, we only support downstream restarts when a task fails. 3. It is
-     * only an internal feature for now.
+     * fails is lost, unless the upstream tasks keep an in-flight log of this data (see {@code
+     * taskmanager.network.approximate-recovery.max-in-flight-log-size}). 2. In the next version, we
+     * will support restarting the set of failed set of tasks only. In this version, we only support
+     * downstream restarts when a task fails. 3. It is only an internal feature for now.
      *
      * @param enabled Flag to indicate whether approximate local recovery is enabled .
      */
@@ -731,6 +738,33 @@ public class CheckpointConfig implements java.io.Serializable {
         return checkpointIdOfIgnoredInFlightData;
     }
 
+    /**
+     * Sets the format version in which the metadata of checkpoints and savepoints is written.
+     * Version 3 is the default. Version 4 compresses the state of each operator separately, but
+     * can not be restored by Flink versions that only know version 3.
+     *
+     * @param metadataFormatVersion The format version, either 3 or 4.
+     */
+    @PublicEvolving
+    public void setMetadataFormatVersion(int metadataFormatVersion) {
+        if (!Checkpoints.isSupportedMetadataFormatVersion(metadataFormatVersion)) {
+            throw new IllegalArgumentException(
+                    "Checkpoint metadata can not be written in format version "
+                            + metadataFormatVersion
+                            + ".");
+        }
+        this.metadataFormatVersion = metadataFormatVersion;
+    }
+
+    /**
+     * @return The format version in which the metadata of checkpoints and savepoints is written.
+     * @see #setMetadataFormatVersion(int)
+     */
+    @PublicEvolving
+    public int getMetadataFormatVersion() {
+        return metadataFormatVersion;
+    }
+
     /** Cleanup behaviour for externalized checkpoints when the job is cancelled. */
     @PublicEvolving
     public enum ExternalizedCheckpointCleanup {
@@ -821,5 +855,8 @@ public class CheckpointConfig implements java.io.Serializable {
         configuration
                 .getOptional(ExecutionCheckpointingOptions.FORCE_UNALIGNED)
                 .ifPresent(this::setForceUnalignedCheckpoints);
+        configuration
+                .getOptional(ExecutionCheckpointingOptions.METADATA_FORMAT_VERSION)
+                .ifPresent(this::setMetadataFormatVersion);
     }
 }
@@ -247,4 +247,22 @@ public class ExecutionCheckpointingOptions {
                     .defaultValue(false)
                     .withDescription(
                             "Feature toggle for enabling checkpointing after tasks finish.");
+
+    public static final ConfigOption<Integer> METADATA_FORMAT_VERSION =
+            ConfigOptions.key("execution.checkpointing.metadata-format-version")
+                    .intType()
+                    .defaultValue(3)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The format version in which the metadata of checkpoints and savepoints is written, either 3 or 4.")
+                                    .linebreak()
+                                    .linebreak()
+                                    .text(
+                                            "Version 4 compresses the state of each operator separately, "
+                                                    + "which makes large metadata files smaller and lets a restore "
+                                                    + "skip the state of operators that were removed from the job. "
+                                                    + "Flink versions that only know version 3 can not restore "
+                                                    + "from checkpoints and savepoints in version 4.")
+                                    .build());
 }
@@ -815,6 +815,7 @@ public class StreamingJobGraphGenerator {
         }
         // set strategy name so that web interface can show it.
         jobEdge.setShipStrategyName(partitioner.toString());
+        jobEdge.setBroadcast(partitioner.isBroadcast());
         jobEdge.setDownstreamSubtaskStateMapper(partitioner.getDownstreamSubtaskStateMapper());
         jobEdge.setUpstreamSubtaskStateMapper(partitioner.getUpstreamSubtaskStateMapper());
 
@@ -1325,6 +1326,7 @@ public class StreamingJobGraphGenerator {
                                         cfg.getAlignedCheckpointTimeout().toMillis())
                                 .setEnableCheckpointsAfterTasksFinish(
                                         streamGraph.isEnableCheckpointsAfterTasksFinish())
+                                .setMetadataFormatVersion(cfg.getMetadataFormatVersion())
                                 .build(),
                         serializedStateBackend,
                         streamGraph.isChangelogStateBackendEnabled(),
@@ -20,6 +20,7 @@ package org.apache.flink.streaming.runtime.tasks;
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.operators.MailboxExecutor;
+import org.apache.flink.api.common.state.CheckpointListener;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.configuration.TaskManagerOptions;
 import org.apache.flink.core.fs.CloseableRegistry;
@@ -57,6 +58,7 @@ import org.apache.flink.runtime.metrics.groups.TaskIOMetricGroup;
 import org.apache.flink.runtime.operators.coordination.OperatorEvent;
 import org.apache.flink.runtime.plugable.SerializationDelegate;
 import org.apache.flink.runtime.state.CheckpointStorage;
+import org.apache.flink.runtime.state.CheckpointStorageAccess;
 import org.apache.flink.runtime.state.CheckpointStorageLoader;
 import org.apache.flink.runtime.state.CheckpointStorageWorkerView;
 import org.apache.flink.runtime.state.StateBackend;
@@ -375,9 +377,13 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>> extends Ab
         this.stateBackend = createStateBackend();
         this.checkpointStorage = createCheckpointStorage(stateBackend);
 
+        CheckpointStorageAccess checkpointStorageAccess =
+                checkpointStorage.createCheckpointStorage(getEnvironment().getJobID());
+        environment.setCheckpointStorageAccess(checkpointStorageAccess);
+
         this.subtaskCheckpointCoordinator =
                 new SubtaskCheckpointCoordinatorImpl(
-                        checkpointStorage.createCheckpointStorage(getEnvironment().getJobID()),
+                        checkpointStorageAccess,
                         getName(),
                         actionExecutor,
                         getCancelables(),
@@ -1408,6 +1414,12 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>> extends Ab
 
         subtaskCheckpointCoordinator.notifyCheckpointComplete(
                 checkpointId, operatorChain, this::isRunning);
+        // approximate pipelined partitions trim their in-flight logs to the completed checkpoint
+        for (ResultPartitionWriter partitionWriter : getEnvironment().getAllWriters()) {
+            if (partitionWriter instanceof CheckpointListener) {
+                ((CheckpointListener) partitionWriter).notifyCheckpointComplete(checkpointId);
+            }
+        }
         if (isRunning) {
             if (isCurrentSavepointWithoutDrain(checkpointId)) {
                 finishTask();
@@ -18,6 +18,7 @@
 package org.apache.flink.streaming.runtime.tasks;
 
 import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.configuration.CheckpointingOptions;
 import org.apache.flink.core.fs.CloseableRegistry;
 import org.apache.flink.runtime.checkpoint.CheckpointException;
 import org.apache.flink.runtime.checkpoint.CheckpointMetaData;
@@ -196,7 +197,12 @@ class SubtaskCheckpointCoordinatorImpl implements SubtaskCheckpointCoordinator {
             String taskName, CheckpointStorageWorkerView checkpointStorage, Environment env) {
         ChannelStateWriterImpl writer =
                 new ChannelStateWriterImpl(
-                        taskName, env.getTaskInfo().getIndexOfThisSubtask(), checkpointStorage);
+                        taskName,
+                        env.getTaskInfo().getIndexOfThisSubtask(),
+                        checkpointStorage,
+                        env.getTaskManagerInfo()
+                                .getConfiguration()
+                                .get(CheckpointingOptions.CHANNEL_STATE_WRITER_THREADS));
         writer.open();
         return writer;
     }
@@ -96,7 +96,12 @@ public class CheckpointConfigFromConfigurationTest {
                         .whenSetFromFile("execution.checkpointing.unaligned", "true")
                         .viaSetter(CheckpointConfig::enableUnalignedCheckpoints)
                         .getterVia(CheckpointConfig::isUnalignedCheckpointsEnabled)
-                        .nonDefaultValue(true));
+                        .nonDefaultValue(true),
+                TestSpec.testValue(4)
+                        .whenSetFromFile("execution.checkpointing.metadata-format-version", "4")
+                        .viaSetter(CheckpointConfig::setMetadataFormatVersion)
+                        .getterVia(CheckpointConfig::getMetadataFormatVersion)
+                        .nonDefaultValue(4));
     }
 
     @Parameterized.Parameter public TestSpec spec;
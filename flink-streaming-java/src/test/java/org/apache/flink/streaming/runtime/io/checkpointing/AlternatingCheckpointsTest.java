@@ -1209,7 +1209,7 @@ public class AlternatingCheckpointsTest {
 
         assertEquals(singletonList(barrierId), target.triggeredCheckpoints);
         if (checkpointType.isSavepoint()) {
-            for (InputChannel channel : gate.getInputChannels().values()) {
+            for (InputChannel channel : gate.getInputChannels()) {
                 assertFalse(
                         String.format("channel %d should be resumed", channel.getChannelIndex()),
                         ((TestInputChannel) channel).isBlocked());